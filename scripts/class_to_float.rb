@@ -64,12 +64,15 @@ def translate(s)
   s.gsub! /DoubleMatrix/, 'FloatMatrix'
   s.gsub! /DoubleBuffer/, 'FloatBuffer'
   s.gsub! /DoubleVector/, 'FloatVector'
+  s.gsub! /DoubleExpr/, 'FloatExpr'
+  s.gsub! /DoubleRowBlocks/, 'FloatRowBlocks'
+  s.gsub! /DoubleLinearOperator/, 'FloatLinearOperator'
   s.gsub! /ComplexDouble/, 'ComplexFloat'
   s.gsub! /([0-9]+\.[0-9]+(?:[eE]-?[0-9]+)?)/, '\1f'
   s.gsub! /double/, 'float'
-  s.gsub! /(\s)NativeBlas\.dz/, '\1NativeBlas.sc'
-  s.gsub! /(\s)NativeBlas\.d/, '\1NativeBlas.s'
-  s.gsub! /(\s)NativeBlas\.z/, '\1NativeBlas.c'
+  s.gsub! /(\s)(NativeBlas|BlasBackends\.backend\(\))\.dz/, '\1\2.sc'
+  s.gsub! /(\s)(NativeBlas|BlasBackends\.backend\(\))\.d/, '\1\2.s'
+  s.gsub! /(\s)(NativeBlas|BlasBackends\.backend\(\))\.z/, '\1\2.c'
   s.gsub! /nextDouble/, 'nextFloat'
   s.gsub! /DoubleFunction/, 'FloatFunction'
   s.gsub! /TestBlasDouble/, 'TestBlasFloat'
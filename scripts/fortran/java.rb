@@ -160,6 +160,23 @@ module Fortran
         writer.wrapper
       end
 
+      # Routines which also get a variant working on direct buffers.
+      DirectRoutines = %w(DGEMM DGEMV DGESV DPOSV DSYEV DSYEVD DGETRF DPOTRF)
+
+      def direct_routines
+        routines.select {|r| DirectRoutines.include? r.name }
+      end
+
+      def generate_direct_native_declaration(r)
+        writer = WrapperCodeGenerator.new(header_file_name, r, true)
+        writer.native_declaration
+      end
+
+      def generate_direct_wrapper(r)
+        writer = WrapperCodeGenerator.new(header_file_name, r, true)
+        writer.wrapper
+      end
+
       def header_file_name
         package.tr('.', '_') + '_' + classname
       end
@@ -177,12 +194,15 @@ module Fortran
       attr_accessor :call_pre, :call_post, :fortran_fct_name, :call_args
       attr_accessor :release_arrays
       attr_accessor :arrays
+      attr_accessor :alias_checks, :array_conversions
       
-      def initialize(prefix, r)
+      def initialize(prefix, r, direct=false)
         @package = prefix
         @routine = r
+        @direct = direct
         @return_type = ''
         @fct_name = prefix + '_' + r.name.downcase
+        @fct_name << 'Direct' if direct
         @decl_args = ''
         @conversions = ''
         @fortran_args = []
@@ -193,6 +213,8 @@ module Fortran
         @call_post = ''
         @release_arrays = ''
         @arrays = [] # already seen arrays
+        @alias_checks = ''
+        @array_conversions = ''
       end
       
       public
@@ -208,21 +230,31 @@ module Fortran
           code_for_argument(name, type)
         end
 
-        # first we generate the code for the non-output arguments
+        # scalar conversions come first, because they might call back
+        # into the JVM, which is not allowed once an array has been
+        # pinned in critical mode.
         r.each_arg do |name, type|
-          if not type.output?
+          if not array_argument?(name, type)
+            code_for_array_management(name, type)
+          end
+        end
+
+        # then we generate the code for the non-output arguments
+        r.each_arg do |name, type|
+          if array_argument?(name, type) and not type.output?
             code_for_array_management(name, type)
           end
         end
 
         # and now for the output arguments
         r.each_arg do |name, type|
-          if type.output?
+          if array_argument?(name, type) and type.output?
             code_for_array_management(name, type)
           end
         end
 
-        return <<EOS
+        if arrays.empty? or @direct
+          return <<EOS
 JNIEXPORT #{return_type} JNICALL Java_#{fct_name}(JNIEnv *env, jclass this#{decl_args})
 {
   extern #{fortran_return_type} #{fortran_fct_name}(#{fortran_args.join(', ')});
@@ -233,6 +265,41 @@ JNIEXPORT #{return_type} JNICALL Java_#{fct_name}(JNIEnv *env, jclass this#{decl
 #{release_arrays}#{call_post}
 }
 EOS
+        else
+          return <<EOS
+JNIEXPORT #{return_type} JNICALL Java_#{fct_name}(JNIEnv *env, jclass this#{decl_args})
+{
+  extern #{fortran_return_type} #{fortran_fct_name}(#{fortran_args.join(', ')});
+  
+  int critical = (criticalArrayFamilies & #{family}) != 0;
+#{conversions}#{alias_checks}#{array_conversions}
+  savedEnv = env;
+  insideCriticalSection = critical;
+  #{call_pre}#{fortran_fct_name}(#{call_args.join(', ')});
+  insideCriticalSection = 0;
+#{release_arrays}  if (critical)
+    throwPendingXerbla(env);
+#{call_post}
+}
+EOS
+        end
+      end
+
+      # The family of a routine determines whether its arrays are
+      # accessed in critical mode (see NativeBlas.setCriticalArrayFamilies).
+      def family
+        case r.name
+        when /^[SDCZ](GEMM|SYMM|HEMM|SYRK|HERK|SYR2K|HER2K|TRMM|TRSM)$/
+          'BLAS_LEVEL3'
+        when /^[SDCZ](GEMV|GBMV|HEMV|HBMV|HPMV|SYMV|SBMV|SPMV|TRMV|TBMV|TPMV|TRSV|TBSV|TPSV|GER|GERU|GERC|HER|HPR|HER2|HPR2|SYR|SPR|SYR2|SPR2)$/
+          'BLAS_LEVEL2'
+        else
+          if r.args.last == 'INFO'
+            'LAPACK'
+          else
+            'BLAS_LEVEL1'
+          end
+        end
       end
       
       ######################################################################
@@ -243,6 +310,7 @@ EOS
         begin
           return_type = ''
           fct_name = r.name.downcase
+          fct_name << 'Direct' if @direct
           args = []
 
           return_type = java_return_type
@@ -250,14 +318,14 @@ EOS
           r.args.each do |name|
             type = r.argtype[name]
             if name != 'INFO'
-              args << type.to_java + " " + name.downcase
+              args << java_arg_type(type) + " " + name.downcase
               if type.to_java =~ /\[\]/
-                args << "int #{name.downcase}Idx"
+                args << "#{java_index_type(type)} #{name.downcase}Idx"
               end
             end
           end
           result = "  public static native #{return_type} #{fct_name}(#{args.join(", ")});"
-          unless r.workspace_arguments.empty?
+          unless r.workspace_arguments.empty? or @direct
             result += "\n" + with_workspace_query
           end
           return result
@@ -292,7 +360,11 @@ EOS
     if (info != 0)
       return info;
 #{allocate_workspaces}
-    info = #{call_with_workspaces};
+    try {
+      info = #{call_with_workspaces};
+    } finally {
+#{release_workspaces}
+    }
     return info;
   }
 EOS
@@ -314,6 +386,34 @@ EOS
         end
       end
 
+      # In the direct variants, floating point arrays are passed as raw
+      # native addresses (see DirectDoubleMatrix) and integer arrays as
+      # direct buffers.
+      def java_arg_type(type)
+        javatype = type.to_java
+        if @direct and javatype =~ /\[\]/
+          if direct_address?(type)
+            'long'
+          else
+            javatype[0...-2].capitalize + 'Buffer'
+          end
+        else
+          javatype
+        end
+      end
+
+      def java_index_type(type)
+        if @direct and direct_address?(type)
+          'long'
+        else
+          'int'
+        end
+      end
+
+      def direct_address?(type)
+        type.to_java !~ /^int/
+      end
+
       def make_fortran_fct_name name
         fortran_fct_name << name.downcase + '_'
       end
@@ -357,6 +457,11 @@ EOS
         gen.make_convert_arg
       end
 
+      def array_argument?(name, type)
+        g = generator(type, name.downcase)
+        g.is_a? Java::BufferArgument or g.is_a? Java::DirectBufferArgument or g.is_a? Java::DirectAddressArgument
+      end
+
       # find the correct code generator for the given type
       def generator(type, name=nil)    
         javatype = type.to_java
@@ -367,6 +472,10 @@ EOS
           Java::NilArgument.new(self)
         elsif javatype == 'int[]' and name == 'info' and @routine.return_type.basetype == 'VOID'
           Java::InfoArgument.new(self)
+        elsif javatype =~ /\[\]/ and @direct and javatype =~ /^int/
+          Java::DirectBufferArgument.new(self)
+        elsif javatype =~ /\[\]/ and @direct
+          Java::DirectAddressArgument.new(self)
         elsif javatype =~ /\[\]/
           Java::BufferArgument.new(self)
         elsif javatype =~ /Complex/
@@ -438,7 +547,16 @@ EOS
           if r.workspace_argument? n
             n = n.downcase
             factor = workspace_size_factor(t)
-            "    l#{n} = (int) #{n}[0]; #{n} = new #{t.to_java[0..-3]}[l#{n}#{factor}];"
+            "    l#{n} = (int) #{n}[0]; #{n} = Workspace.#{t.to_java[0..-3]}s(l#{n}#{factor});"
+          end
+        end
+      end
+
+      # return the workspaces to the thread-local cache
+      def release_workspaces
+        r.gen_each_arg do |n, t|
+          if r.workspace_argument? n
+            "      Workspace.release(#{n.downcase});"
           end
         end
       end
@@ -551,21 +669,27 @@ EOS
       # and any attempt to do something truly inplace won't work (for
       # example dswap). So I have to check before each array if 
       # I maybe already have it. And the same thing around in the end... .
+      #
+      # The IsSameObject checks are all done before the first array is
+      # fetched, since in critical mode no JNI calls may happen while
+      # holding an array.
       def make_convert_arg
         basectype = ctype[0...-5]
-        code.conversions << <<EOS + '    '
+        elementtype = basectype[1..-1].capitalize
+        code.array_conversions << <<EOS + '    '
   #{basectype} *#{name}PtrBase = 0, *#{name}Ptr = 0;
   if (#{name}) {
 EOS
         unless code.arrays.empty?
         code.arrays.each do |a, t|
           if t == basectype
-            code.conversions << "if((*env)->IsSameObject(env, #{name}, #{a}) == JNI_TRUE)\n      #{name}PtrBase = #{a}PtrBase;\n    else\n      "
+            code.alias_checks << "  jboolean #{name}Is#{a.capitalize} = (*env)->IsSameObject(env, #{name}, #{a});\n"
+            code.array_conversions << "if(#{name}Is#{a.capitalize} == JNI_TRUE)\n      #{name}PtrBase = #{a}PtrBase;\n    else\n      "
           end
         end
       end
-      code.conversions << <<EOS
-#{name}PtrBase = (*env)->Get#{basectype[1..-1].capitalize}ArrayElements(env, #{name}, NULL);
+      code.array_conversions << <<EOS
+#{name}PtrBase = GET_ARRAY(#{elementtype}, critical, #{name});
     #{name}Ptr = #{name}PtrBase + #{'2*' if type.basetype =~ /COMPLEX/}#{name}Idx;
   }
 EOS
@@ -573,7 +697,7 @@ EOS
       # and releasing the stuff again...
       release = []
       release << "  if(#{name}PtrBase) {"
-      release << "    (*env)->Release#{basectype[1..-1].capitalize}ArrayElements(env, #{name}, #{name}PtrBase, #{@type.output? ? '0' : 'JNI_ABORT'});"
+      release << "    RELEASE_ARRAY(#{elementtype}, critical, #{name}, #{name}PtrBase, #{@type.output? ? '0' : 'JNI_ABORT'});"
       code.arrays.each do |a, t|
         if t == basectype
           release << "    if (#{name}PtrBase == #{a}PtrBase)"
@@ -594,6 +718,60 @@ EOS
     end
   end
 
+  #----------------------------------------------------------------------
+  # For direct buffers: the memory lives outside of the JVM, so we can
+  # just pass the address on without copying or pinning anything.
+  class DirectBufferArgument < GenericArgument
+    def make_decl_arg
+      code.decl_args << ", jobject " + name + ", jint " + name + "Idx"
+    end
+
+    def make_fortran_arg
+      code.fortran_args << "j" + ctype[1...-5] + " *"
+    end
+
+    def make_convert_arg
+      basectype = ctype[0...-5]
+      code.conversions << <<EOS
+  #{basectype} *#{name}Ptr = 0;
+  if (#{name})
+    #{name}Ptr = (#{basectype} *) (*env)->GetDirectBufferAddress(env, #{name}) + #{'2*' if type.basetype =~ /COMPLEX/}#{name}Idx;
+EOS
+      code.arrays << [name, basectype]
+    end
+
+    def make_call_arg
+      code.call_args << "#{name}Ptr"
+    end
+  end
+
+  # For native addresses: the Java side hands over the address of memory
+  # it allocated through NativeBlas.allocateMemory together with a long
+  # offset, so no JNI lookup is needed at all.
+  class DirectAddressArgument < GenericArgument
+    def make_decl_arg
+      code.decl_args << ", jlong " + name + ", jlong " + name + "Idx"
+    end
+
+    def make_fortran_arg
+      code.fortran_args << "j" + ctype[1...-5] + " *"
+    end
+
+    def make_convert_arg
+      basectype = ctype[0...-5]
+      code.conversions << <<EOS
+  #{basectype} *#{name}Ptr = (#{basectype} *) (intptr_t) #{name};
+  if (#{name}Ptr)
+    #{name}Ptr += #{'2*' if type.basetype =~ /COMPLEX/}#{name}Idx;
+EOS
+      code.arrays << [name, basectype]
+    end
+
+    def make_call_arg
+      code.call_args << "#{name}Ptr"
+    end
+  end
+
   #----------------------------------------------------------------------
   # For complex values (scalars only!): fortran returns the value in the
   # first argument, therefore declare the return value, modify the
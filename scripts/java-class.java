@@ -35,7 +35,11 @@
 // --- END LICENSE BLOCK ---
 package <%= package %>;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import org.jblas.util.Logger;
+import org.jblas.util.Workspace;
 
 /**
  * Native BLAS and LAPACK functions.
@@ -81,7 +85,60 @@ public class <%= classname %> {
   private static double[] doubleDummy = new double[1];
   private static float[] floatDummy = new float[1];
 
+  /** Routine families for {@link #setCriticalArrayFamilies}. */
+  public static final int BLAS_LEVEL1 = 1;
+  public static final int BLAS_LEVEL2 = 2;
+  public static final int BLAS_LEVEL3 = 4;
+  public static final int LAPACK = 8;
+  public static final int ALL_FAMILIES = BLAS_LEVEL1 | BLAS_LEVEL2 | BLAS_LEVEL3 | LAPACK;
+
+  /**
+   * Select the routine families whose arrays are accessed with
+   * GetPrimitiveArrayCritical instead of being copied.
+   *
+   * <p>Critical access avoids copying the arrays in and out of the JVM, but
+   * may block the garbage collector for the duration of the call. It
+   * therefore pays off mostly for compute bound routines like the level 3 BLAS
+   * and should be used with care for long running LAPACK calls.</p>
+   *
+   * <p>The default can be set with the system property "org.jblas.criticalArrays",
+   * for example "-Dorg.jblas.criticalArrays=blas3,lapack".</p>
+   *
+   * @param families a bitwise or of BLAS_LEVEL1, BLAS_LEVEL2, BLAS_LEVEL3, and LAPACK.
+   */
+  public static native void setCriticalArrayFamilies(int families);
+
+  /** Get the routine families which use critical array access. */
+  public static native int getCriticalArrayFamilies();
+
+  /**
+   * Allocate zeroed native memory which is not limited by the size of Java
+   * arrays or buffers. The memory must be released with {@link #freeMemory}.
+   *
+   * @return the address of the memory, or 0 if the allocation failed.
+   */
+  public static native long allocateMemory(long bytes);
+
+  /** Release memory allocated with {@link #allocateMemory}. */
+  public static native void freeMemory(long address);
+
+  /** Wrap a piece of native memory in a direct ByteBuffer. */
+  public static native ByteBuffer wrapMemory(long address, int bytes);
+
+  /** Get the native address of a direct buffer. */
+  public static native long bufferAddress(Buffer buffer);
+
 <% for r in routines -%>
 <%= generate_native_declaration r %>
+<% end %>
+
+  /*
+   * Variants of some routines working on native memory, see DirectDoubleMatrix.
+   * Floating point arrays are passed as addresses and long offsets, integer
+   * arrays as direct buffers. The memory is passed to the Fortran routine
+   * without copying it.
+   */
+<% for r in direct_routines -%>
+<%= generate_direct_native_declaration r %>
 <% end %>
 }
@@ -32,6 +32,8 @@
 // OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 /// --- END LICENSE BLOCK ---
 
+#include <stdint.h>
+#include <stdlib.h>
 #include <string.h>
 #include "<%= header_file_name %>.h"
 
@@ -138,6 +140,100 @@ static void throwIllegalArgumentException(JNIEnv *env, const char *message)
   (*env)->ThrowNew(env, klass, message);
 }
 
+/**********************************************************************/
+/*                 Critical array access                              */
+/**********************************************************************/
+
+/*
+ * Routine families, these must match the constants in NativeBlas.java.
+ */
+#define BLAS_LEVEL1 1
+#define BLAS_LEVEL2 2
+#define BLAS_LEVEL3 4
+#define LAPACK      8
+
+#if defined(_MSC_VER)
+#define THREAD_LOCAL __declspec(thread)
+#else
+#define THREAD_LOCAL __thread
+#endif
+
+/*
+ * For the families set here, arrays are pinned with
+ * GetPrimitiveArrayCritical instead of being copied with
+ * Get<Type>ArrayElements. While an array is held in critical mode,
+ * no other JNI function may be called and the garbage collector
+ * might be blocked, so this only pays off for routines whose runtime
+ * is dominated by the computation (like the level 3 BLAS).
+ */
+static int criticalArrayFamilies = 0;
+
+#define GET_ARRAY(Type, critical, array) \
+  ((critical) ? (*env)->GetPrimitiveArrayCritical(env, array, NULL) \
+              : (void *) (*env)->Get##Type##ArrayElements(env, array, NULL))
+
+#define RELEASE_ARRAY(Type, critical, array, ptr, mode) \
+  do { \
+    if (critical) \
+      (*env)->ReleasePrimitiveArrayCritical(env, array, ptr, mode); \
+    else \
+      (*env)->Release##Type##ArrayElements(env, array, ptr, mode); \
+  } while (0)
+
+/*
+ * XERBLA cannot throw an exception while we are holding critical arrays,
+ * so the message is stored and thrown after the arrays have been released.
+ */
+static THREAD_LOCAL int insideCriticalSection = 0;
+static THREAD_LOCAL char pendingXerblaMessage[256];
+static THREAD_LOCAL int xerblaPending = 0;
+
+static void throwPendingXerbla(JNIEnv *env)
+{
+  if (xerblaPending) {
+    xerblaPending = 0;
+    throwIllegalArgumentException(env, pendingXerblaMessage);
+  }
+}
+
+JNIEXPORT void JNICALL Java_<%= header_file_name %>_setCriticalArrayFamilies(JNIEnv *env, jclass this, jint families)
+{
+  criticalArrayFamilies = families;
+}
+
+JNIEXPORT jint JNICALL Java_<%= header_file_name %>_getCriticalArrayFamilies(JNIEnv *env, jclass this)
+{
+  return criticalArrayFamilies;
+}
+
+/**********************************************************************/
+/*                 native memory for DirectDoubleMatrix               */
+/**********************************************************************/
+
+JNIEXPORT jlong JNICALL Java_<%= header_file_name %>_allocateMemory(JNIEnv *env, jclass this, jlong bytes)
+{
+  if (bytes <= 0 || (uint64_t) bytes > SIZE_MAX) {
+    throwIllegalArgumentException(env, "Cannot allocate this many bytes.");
+    return 0;
+  }
+  return (jlong) (intptr_t) calloc((size_t) bytes, 1);
+}
+
+JNIEXPORT void JNICALL Java_<%= header_file_name %>_freeMemory(JNIEnv *env, jclass this, jlong address)
+{
+  free((void *) (intptr_t) address);
+}
+
+JNIEXPORT jobject JNICALL Java_<%= header_file_name %>_wrapMemory(JNIEnv *env, jclass this, jlong address, jint bytes)
+{
+  return (*env)->NewDirectByteBuffer(env, (void *) (intptr_t) address, bytes);
+}
+
+JNIEXPORT jlong JNICALL Java_<%= header_file_name %>_bufferAddress(JNIEnv *env, jclass this, jobject buffer)
+{
+  return (jlong) (intptr_t) (*env)->GetDirectBufferAddress(env, buffer);
+}
+
 /**********************************************************************/
 /*                 XERBLA function arguments                          */
 /**********************************************************************/
@@ -186,6 +282,11 @@ void xerbla_(char *fct, int *info)
 	else {
 		sprintf(buffer, "XERBLA: Error on argument %d (%s) in %s", *info, arguments[*info-1], name);
 	}
+	if (insideCriticalSection) {
+		strcpy(pendingXerblaMessage, buffer);
+		xerblaPending = 1;
+		return;
+	}
 	throwIllegalArgumentException(savedEnv, buffer);
 }
 
@@ -196,3 +297,11 @@ void xerbla_(char *fct, int *info)
 <% for r in routines %>
 <%= generate_wrapper r -%>
 <% end %>
+
+/**********************************************************************/
+/*                 direct buffer functions below                      */
+/**********************************************************************/
+
+<% for r in direct_routines %>
+<%= generate_direct_wrapper r -%>
+<% end %>
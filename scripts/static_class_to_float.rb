@@ -61,8 +61,9 @@ def classfile(classname)
 end
 
 def translate(cl, s)
-  mark = "public class #{cl.split('.').last} {\n"
-  i = s.index(mark) + mark.length
+  # the class may be package private
+  mark = /^(public )?class #{cl.split('.').last} \{\n/
+  i = s.index(mark) + $~[0].length
   j = s.rindex('}')
   head = s[0...i]
   body = s[i...j]
@@ -79,14 +80,16 @@ def translate(cl, s)
   copybody.gsub! /DoubleMatrix/, 'FloatMatrix'
   copybody.gsub! /DoubleBuffer/, 'FloatBuffer'
   copybody.gsub! /DoubleVector/, 'FloatVector'
+  copybody.gsub! /DoubleRowBlocks/, 'FloatRowBlocks'
+  copybody.gsub! /DoubleLinearOperator/, 'FloatLinearOperator'
   copybody.gsub! /ComplexDouble/, 'ComplexFloat'
   copybody.gsub! /([0-9]+\.[0-9]+(?:[eE]-?[0-9]+)?)/, '\1f'
   copybody.gsub! /double/, 'float'
-  copybody.gsub! /NativeBlas\.dz/, 'NativeBlas.sc'
-  copybody.gsub! /NativeBlas\.d/, 'NativeBlas.s'
-  copybody.gsub! /NativeBlas\.z/, 'NativeBlas.c'
-  copybody.gsub! /NativeBlas\.idamax/, 'NativeBlas.isamax'
-  copybody.gsub! /NativeBlas\.izamax/, 'NativeBlas.icamax'
+  copybody.gsub! /(NativeBlas|backend\(\))\.dz/, '\1.sc'
+  copybody.gsub! /(NativeBlas|backend\(\))\.d/, '\1.s'
+  copybody.gsub! /(NativeBlas|backend\(\))\.z/, '\1.c'
+  copybody.gsub! /(NativeBlas|backend\(\))\.idamax/, '\1.isamax'
+  copybody.gsub! /(NativeBlas|backend\(\))\.izamax/, '\1.icamax'
   copybody.gsub!(/([a-z]+)Double/, '\1Float')
 
   # construct output file
@@ -32,6 +32,8 @@
 // OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 /// --- END LICENSE BLOCK ---
 
+#include <stdint.h>
+#include <stdlib.h>
 #include <string.h>
 #include "org_jblas_NativeBlas.h"
 
@@ -97,6 +99,102 @@ static ComplexDouble getComplexDouble(JNIEnv *env, jobject dc)
   return (*env)->GetDoubleField(env, dc, reField) + I*(*env)->GetDoubleField(env, dc, imField);
 }
 
+/**********************************************************************/
+/*                 Critical array access                              */
+/**********************************************************************/
+
+/*
+ * Routine families, these must match the constants in NativeBlas.java.
+ */
+#define BLAS_LEVEL1 1
+#define BLAS_LEVEL2 2
+#define BLAS_LEVEL3 4
+#define LAPACK      8
+
+#if defined(_MSC_VER)
+#define THREAD_LOCAL __declspec(thread)
+#else
+#define THREAD_LOCAL __thread
+#endif
+
+/*
+ * For the families set here, arrays are pinned with
+ * GetPrimitiveArrayCritical instead of being copied with
+ * Get<Type>ArrayElements. While an array is held in critical mode,
+ * no other JNI function may be called and the garbage collector
+ * might be blocked, so this only pays off for routines whose runtime
+ * is dominated by the computation (like the level 3 BLAS).
+ */
+static int criticalArrayFamilies = 0;
+
+#define GET_ARRAY(Type, critical, array) \
+  ((critical) ? (*env)->GetPrimitiveArrayCritical(env, array, NULL) \
+              : (void *) (*env)->Get##Type##ArrayElements(env, array, NULL))
+
+#define RELEASE_ARRAY(Type, critical, array, ptr, mode) \
+  do { \
+    if (critical) \
+      (*env)->ReleasePrimitiveArrayCritical(env, array, ptr, mode); \
+    else \
+      (*env)->Release##Type##ArrayElements(env, array, ptr, mode); \
+  } while (0)
+
+/*
+ * XERBLA cannot throw an exception while we are holding critical arrays,
+ * so the message is stored and thrown after the arrays have been released.
+ */
+static THREAD_LOCAL int insideCriticalSection = 0;
+static THREAD_LOCAL char pendingXerblaMessage[256];
+static THREAD_LOCAL int xerblaPending = 0;
+
+static void throwPendingXerbla(JNIEnv *env)
+{
+  if (xerblaPending) {
+    xerblaPending = 0;
+    jclass klass = (*env)->FindClass(env, "java/lang/IllegalArgumentException");
+    (*env)->ThrowNew(env, klass, pendingXerblaMessage);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_setCriticalArrayFamilies(JNIEnv *env, jclass this, jint families)
+{
+  criticalArrayFamilies = families;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_getCriticalArrayFamilies(JNIEnv *env, jclass this)
+{
+  return criticalArrayFamilies;
+}
+
+/**********************************************************************/
+/*                 native memory for DirectDoubleMatrix               */
+/**********************************************************************/
+
+JNIEXPORT jlong JNICALL Java_org_jblas_NativeBlas_allocateMemory(JNIEnv *env, jclass this, jlong bytes)
+{
+  if (bytes <= 0 || (uint64_t) bytes > SIZE_MAX) {
+    jclass klass = (*env)->FindClass(env, "java/lang/IllegalArgumentException");
+    (*env)->ThrowNew(env, klass, "Cannot allocate this many bytes.");
+    return 0;
+  }
+  return (jlong) (intptr_t) calloc((size_t) bytes, 1);
+}
+
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_freeMemory(JNIEnv *env, jclass this, jlong address)
+{
+  free((void *) (intptr_t) address);
+}
+
+JNIEXPORT jobject JNICALL Java_org_jblas_NativeBlas_wrapMemory(JNIEnv *env, jclass this, jlong address, jint bytes)
+{
+  return (*env)->NewDirectByteBuffer(env, (void *) (intptr_t) address, bytes);
+}
+
+JNIEXPORT jlong JNICALL Java_org_jblas_NativeBlas_bufferAddress(JNIEnv *env, jclass this, jobject buffer)
+{
+  return (jlong) (intptr_t) (*env)->GetDirectBufferAddress(env, buffer);
+}
+
 /**********************************************************************/
 /*                 XERBLA function arguments                          */
 /**********************************************************************/
@@ -241,6 +339,12 @@ void xerbla_(char *fct, int *info)
 		sprintf(buffer, "XERBLA: Error on argument %d (%s) in %s", *info, arguments[*info-1], name);
 	}
 
+	if (insideCriticalSection) {
+		strcpy(pendingXerblaMessage, buffer);
+		xerblaPending = 1;
+		return;
+	}
+
     JNIEnv *envPtr; // local grab of env ptr for this thread
     (*JVMcache)->AttachCurrentThread(JVMcache, (void **)&envPtr, NULL); // attach this thread to the globally cache JVM
     jclass klass = (*envPtr)->FindClass(envPtr, "java/lang/IllegalArgumentException");
@@ -256,31 +360,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_ccopy(JNIEnv *env, jclass this,
 {
   extern void ccopy_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean cyIsCx = (*env)->IsSameObject(env, cy, cx);
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
   jfloat *cyPtrBase = 0, *cyPtr = 0;
   if (cy) {
-    if((*env)->IsSameObject(env, cy, cx) == JNI_TRUE)
+    if(cyIsCx == JNI_TRUE)
       cyPtrBase = cxPtrBase;
     else
-      cyPtrBase = (*env)->GetFloatArrayElements(env, cy, NULL);
+      cyPtrBase = GET_ARRAY(Float, critical, cy);
     cyPtr = cyPtrBase + 2*cyIdx;
   }
 
+  insideCriticalSection = critical;
   ccopy_(&n, cxPtr, &incx, cyPtr, &incy);
+  insideCriticalSection = 0;
   if(cyPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cy, cyPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cy, cyPtrBase, 0);
     if (cyPtrBase == cxPtrBase)
       cxPtrBase = 0;
     cyPtrBase = 0;
   }
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -288,31 +398,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dcopy(JNIEnv *env, jclass this,
 {
   extern void dcopy_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean dyIsDx = (*env)->IsSameObject(env, dy, dx);
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
   jdouble *dyPtrBase = 0, *dyPtr = 0;
   if (dy) {
-    if((*env)->IsSameObject(env, dy, dx) == JNI_TRUE)
+    if(dyIsDx == JNI_TRUE)
       dyPtrBase = dxPtrBase;
     else
-      dyPtrBase = (*env)->GetDoubleArrayElements(env, dy, NULL);
+      dyPtrBase = GET_ARRAY(Double, critical, dy);
     dyPtr = dyPtrBase + dyIdx;
   }
 
+  insideCriticalSection = critical;
   dcopy_(&n, dxPtr, &incx, dyPtr, &incy);
+  insideCriticalSection = 0;
   if(dyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dy, dyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dy, dyPtrBase, 0);
     if (dyPtrBase == dxPtrBase)
       dxPtrBase = 0;
     dyPtrBase = 0;
   }
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -320,31 +436,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_scopy(JNIEnv *env, jclass this,
 {
   extern void scopy_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean syIsSx = (*env)->IsSameObject(env, sy, sx);
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
   jfloat *syPtrBase = 0, *syPtr = 0;
   if (sy) {
-    if((*env)->IsSameObject(env, sy, sx) == JNI_TRUE)
+    if(syIsSx == JNI_TRUE)
       syPtrBase = sxPtrBase;
     else
-      syPtrBase = (*env)->GetFloatArrayElements(env, sy, NULL);
+      syPtrBase = GET_ARRAY(Float, critical, sy);
     syPtr = syPtrBase + syIdx;
   }
 
+  insideCriticalSection = critical;
   scopy_(&n, sxPtr, &incx, syPtr, &incy);
+  insideCriticalSection = 0;
   if(syPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sy, syPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sy, syPtrBase, 0);
     if (syPtrBase == sxPtrBase)
       sxPtrBase = 0;
     syPtrBase = 0;
   }
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -352,31 +474,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zcopy(JNIEnv *env, jclass this,
 {
   extern void zcopy_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean zyIsZx = (*env)->IsSameObject(env, zy, zx);
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
   jdouble *zyPtrBase = 0, *zyPtr = 0;
   if (zy) {
-    if((*env)->IsSameObject(env, zy, zx) == JNI_TRUE)
+    if(zyIsZx == JNI_TRUE)
       zyPtrBase = zxPtrBase;
     else
-      zyPtrBase = (*env)->GetDoubleArrayElements(env, zy, NULL);
+      zyPtrBase = GET_ARRAY(Double, critical, zy);
     zyPtr = zyPtrBase + 2*zyIdx;
   }
 
+  insideCriticalSection = critical;
   zcopy_(&n, zxPtr, &incx, zyPtr, &incy);
+  insideCriticalSection = 0;
   if(zyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zy, zyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zy, zyPtrBase, 0);
     if (zyPtrBase == zxPtrBase)
       zxPtrBase = 0;
     zyPtrBase = 0;
   }
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -384,31 +512,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cswap(JNIEnv *env, jclass this,
 {
   extern void cswap_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean cyIsCx = (*env)->IsSameObject(env, cy, cx);
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
   jfloat *cyPtrBase = 0, *cyPtr = 0;
   if (cy) {
-    if((*env)->IsSameObject(env, cy, cx) == JNI_TRUE)
+    if(cyIsCx == JNI_TRUE)
       cyPtrBase = cxPtrBase;
     else
-      cyPtrBase = (*env)->GetFloatArrayElements(env, cy, NULL);
+      cyPtrBase = GET_ARRAY(Float, critical, cy);
     cyPtr = cyPtrBase + 2*cyIdx;
   }
 
+  insideCriticalSection = critical;
   cswap_(&n, cxPtr, &incx, cyPtr, &incy);
+  insideCriticalSection = 0;
   if(cyPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cy, cyPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cy, cyPtrBase, 0);
     if (cyPtrBase == cxPtrBase)
       cxPtrBase = 0;
     cyPtrBase = 0;
   }
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -416,31 +550,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dswap(JNIEnv *env, jclass this,
 {
   extern void dswap_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean dyIsDx = (*env)->IsSameObject(env, dy, dx);
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
   jdouble *dyPtrBase = 0, *dyPtr = 0;
   if (dy) {
-    if((*env)->IsSameObject(env, dy, dx) == JNI_TRUE)
+    if(dyIsDx == JNI_TRUE)
       dyPtrBase = dxPtrBase;
     else
-      dyPtrBase = (*env)->GetDoubleArrayElements(env, dy, NULL);
+      dyPtrBase = GET_ARRAY(Double, critical, dy);
     dyPtr = dyPtrBase + dyIdx;
   }
 
+  insideCriticalSection = critical;
   dswap_(&n, dxPtr, &incx, dyPtr, &incy);
+  insideCriticalSection = 0;
   if(dyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dy, dyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dy, dyPtrBase, 0);
     if (dyPtrBase == dxPtrBase)
       dxPtrBase = 0;
     dyPtrBase = 0;
   }
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -448,31 +588,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sswap(JNIEnv *env, jclass this,
 {
   extern void sswap_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean syIsSx = (*env)->IsSameObject(env, sy, sx);
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
   jfloat *syPtrBase = 0, *syPtr = 0;
   if (sy) {
-    if((*env)->IsSameObject(env, sy, sx) == JNI_TRUE)
+    if(syIsSx == JNI_TRUE)
       syPtrBase = sxPtrBase;
     else
-      syPtrBase = (*env)->GetFloatArrayElements(env, sy, NULL);
+      syPtrBase = GET_ARRAY(Float, critical, sy);
     syPtr = syPtrBase + syIdx;
   }
 
+  insideCriticalSection = critical;
   sswap_(&n, sxPtr, &incx, syPtr, &incy);
+  insideCriticalSection = 0;
   if(syPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sy, syPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sy, syPtrBase, 0);
     if (syPtrBase == sxPtrBase)
       sxPtrBase = 0;
     syPtrBase = 0;
   }
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -480,31 +626,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zswap(JNIEnv *env, jclass this,
 {
   extern void zswap_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean zyIsZx = (*env)->IsSameObject(env, zy, zx);
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
   jdouble *zyPtrBase = 0, *zyPtr = 0;
   if (zy) {
-    if((*env)->IsSameObject(env, zy, zx) == JNI_TRUE)
+    if(zyIsZx == JNI_TRUE)
       zyPtrBase = zxPtrBase;
     else
-      zyPtrBase = (*env)->GetDoubleArrayElements(env, zy, NULL);
+      zyPtrBase = GET_ARRAY(Double, critical, zy);
     zyPtr = zyPtrBase + 2*zyIdx;
   }
 
+  insideCriticalSection = critical;
   zswap_(&n, zxPtr, &incx, zyPtr, &incy);
+  insideCriticalSection = 0;
   if(zyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zy, zyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zy, zyPtrBase, 0);
     if (zyPtrBase == zxPtrBase)
       zxPtrBase = 0;
     zyPtrBase = 0;
   }
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -512,33 +664,39 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_caxpy(JNIEnv *env, jclass this,
 {
   extern void caxpy_(jint *, float complex *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   float complex caCplx;
   caCplx = getComplexFloat(env, ca);
+  jboolean cyIsCx = (*env)->IsSameObject(env, cy, cx);
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
   jfloat *cyPtrBase = 0, *cyPtr = 0;
   if (cy) {
-    if((*env)->IsSameObject(env, cy, cx) == JNI_TRUE)
+    if(cyIsCx == JNI_TRUE)
       cyPtrBase = cxPtrBase;
     else
-      cyPtrBase = (*env)->GetFloatArrayElements(env, cy, NULL);
+      cyPtrBase = GET_ARRAY(Float, critical, cy);
     cyPtr = cyPtrBase + 2*cyIdx;
   }
 
+  insideCriticalSection = critical;
   caxpy_(&n, &caCplx, cxPtr, &incx, cyPtr, &incy);
+  insideCriticalSection = 0;
   if(cyPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cy, cyPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cy, cyPtrBase, 0);
     if (cyPtrBase == cxPtrBase)
       cxPtrBase = 0;
     cyPtrBase = 0;
   }
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -546,31 +704,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_daxpy(JNIEnv *env, jclass this,
 {
   extern void daxpy_(jint *, jdouble *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean dyIsDx = (*env)->IsSameObject(env, dy, dx);
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
   jdouble *dyPtrBase = 0, *dyPtr = 0;
   if (dy) {
-    if((*env)->IsSameObject(env, dy, dx) == JNI_TRUE)
+    if(dyIsDx == JNI_TRUE)
       dyPtrBase = dxPtrBase;
     else
-      dyPtrBase = (*env)->GetDoubleArrayElements(env, dy, NULL);
+      dyPtrBase = GET_ARRAY(Double, critical, dy);
     dyPtr = dyPtrBase + dyIdx;
   }
 
+  insideCriticalSection = critical;
   daxpy_(&n, &da, dxPtr, &incx, dyPtr, &incy);
+  insideCriticalSection = 0;
   if(dyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dy, dyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dy, dyPtrBase, 0);
     if (dyPtrBase == dxPtrBase)
       dxPtrBase = 0;
     dyPtrBase = 0;
   }
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -578,31 +742,37 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_saxpy(JNIEnv *env, jclass this,
 {
   extern void saxpy_(jint *, jfloat *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean syIsSx = (*env)->IsSameObject(env, sy, sx);
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
   jfloat *syPtrBase = 0, *syPtr = 0;
   if (sy) {
-    if((*env)->IsSameObject(env, sy, sx) == JNI_TRUE)
+    if(syIsSx == JNI_TRUE)
       syPtrBase = sxPtrBase;
     else
-      syPtrBase = (*env)->GetFloatArrayElements(env, sy, NULL);
+      syPtrBase = GET_ARRAY(Float, critical, sy);
     syPtr = syPtrBase + syIdx;
   }
 
+  insideCriticalSection = critical;
   saxpy_(&n, &sa, sxPtr, &incx, syPtr, &incy);
+  insideCriticalSection = 0;
   if(syPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sy, syPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sy, syPtrBase, 0);
     if (syPtrBase == sxPtrBase)
       sxPtrBase = 0;
     syPtrBase = 0;
   }
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -610,33 +780,39 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zaxpy(JNIEnv *env, jclass this,
 {
   extern void zaxpy_(jint *, double complex *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   double complex zaCplx;
   zaCplx = getComplexDouble(env, za);
+  jboolean zyIsZx = (*env)->IsSameObject(env, zy, zx);
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
   jdouble *zyPtrBase = 0, *zyPtr = 0;
   if (zy) {
-    if((*env)->IsSameObject(env, zy, zx) == JNI_TRUE)
+    if(zyIsZx == JNI_TRUE)
       zyPtrBase = zxPtrBase;
     else
-      zyPtrBase = (*env)->GetDoubleArrayElements(env, zy, NULL);
+      zyPtrBase = GET_ARRAY(Double, critical, zy);
     zyPtr = zyPtrBase + 2*zyIdx;
   }
 
+  insideCriticalSection = critical;
   zaxpy_(&n, &zaCplx, zxPtr, &incx, zyPtr, &incy);
+  insideCriticalSection = 0;
   if(zyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zy, zyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zy, zyPtrBase, 0);
     if (zyPtrBase == zxPtrBase)
       zxPtrBase = 0;
     zyPtrBase = 0;
   }
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -644,19 +820,24 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cscal(JNIEnv *env, jclass this,
 {
   extern void cscal_(jint *, float complex *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   float complex caCplx;
   caCplx = getComplexFloat(env, ca);
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
 
+  insideCriticalSection = critical;
   cscal_(&n, &caCplx, cxPtr, &incx);
+  insideCriticalSection = 0;
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -664,17 +845,22 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dscal(JNIEnv *env, jclass this,
 {
   extern void dscal_(jint *, jdouble *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
 
+  insideCriticalSection = critical;
   dscal_(&n, &da, dxPtr, &incx);
+  insideCriticalSection = 0;
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -682,17 +868,22 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sscal(JNIEnv *env, jclass this,
 {
   extern void sscal_(jint *, jfloat *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
 
+  insideCriticalSection = critical;
   sscal_(&n, &sa, sxPtr, &incx);
+  insideCriticalSection = 0;
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -700,19 +891,24 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zscal(JNIEnv *env, jclass this,
 {
   extern void zscal_(jint *, double complex *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   double complex zaCplx;
   zaCplx = getComplexDouble(env, za);
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
 
+  insideCriticalSection = critical;
   zscal_(&n, &zaCplx, zxPtr, &incx);
+  insideCriticalSection = 0;
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -720,17 +916,22 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_csscal(JNIEnv *env, jclass this
 {
   extern void csscal_(jint *, jfloat *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
 
+  insideCriticalSection = critical;
   csscal_(&n, &sa, cxPtr, &incx);
+  insideCriticalSection = 0;
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -738,17 +939,22 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zdscal(JNIEnv *env, jclass this
 {
   extern void zdscal_(jint *, jdouble *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
 
+  insideCriticalSection = critical;
   zdscal_(&n, &da, zxPtr, &incx);
+  insideCriticalSection = 0;
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -756,31 +962,37 @@ JNIEXPORT jobject JNICALL Java_org_jblas_NativeBlas_cdotc(JNIEnv *env, jclass th
 {
   extern float complex cdotc_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean cyIsCx = (*env)->IsSameObject(env, cy, cx);
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
   jfloat *cyPtrBase = 0, *cyPtr = 0;
   if (cy) {
-    if((*env)->IsSameObject(env, cy, cx) == JNI_TRUE)
+    if(cyIsCx == JNI_TRUE)
       cyPtrBase = cxPtrBase;
     else
-      cyPtrBase = (*env)->GetFloatArrayElements(env, cy, NULL);
+      cyPtrBase = GET_ARRAY(Float, critical, cy);
     cyPtr = cyPtrBase + 2*cyIdx;
   }
 
+  insideCriticalSection = critical;
   float complex retval = cdotc_(&n, cxPtr, &incx, cyPtr, &incy);
+  insideCriticalSection = 0;
   if(cyPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cy, cyPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cy, cyPtrBase, 0);
     if (cyPtrBase == cxPtrBase)
       cxPtrBase = 0;
     cyPtrBase = 0;
   }
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return createComplexFloat(env, retval);
 }
@@ -789,31 +1001,37 @@ JNIEXPORT jobject JNICALL Java_org_jblas_NativeBlas_cdotu(JNIEnv *env, jclass th
 {
   extern float complex cdotu_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean cyIsCx = (*env)->IsSameObject(env, cy, cx);
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
   jfloat *cyPtrBase = 0, *cyPtr = 0;
   if (cy) {
-    if((*env)->IsSameObject(env, cy, cx) == JNI_TRUE)
+    if(cyIsCx == JNI_TRUE)
       cyPtrBase = cxPtrBase;
     else
-      cyPtrBase = (*env)->GetFloatArrayElements(env, cy, NULL);
+      cyPtrBase = GET_ARRAY(Float, critical, cy);
     cyPtr = cyPtrBase + 2*cyIdx;
   }
 
+  insideCriticalSection = critical;
   float complex retval = cdotu_(&n, cxPtr, &incx, cyPtr, &incy);
+  insideCriticalSection = 0;
   if(cyPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cy, cyPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cy, cyPtrBase, 0);
     if (cyPtrBase == cxPtrBase)
       cxPtrBase = 0;
     cyPtrBase = 0;
   }
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return createComplexFloat(env, retval);
 }
@@ -822,31 +1040,37 @@ JNIEXPORT jdouble JNICALL Java_org_jblas_NativeBlas_ddot(JNIEnv *env, jclass thi
 {
   extern jdouble ddot_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean dyIsDx = (*env)->IsSameObject(env, dy, dx);
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
   jdouble *dyPtrBase = 0, *dyPtr = 0;
   if (dy) {
-    if((*env)->IsSameObject(env, dy, dx) == JNI_TRUE)
+    if(dyIsDx == JNI_TRUE)
       dyPtrBase = dxPtrBase;
     else
-      dyPtrBase = (*env)->GetDoubleArrayElements(env, dy, NULL);
+      dyPtrBase = GET_ARRAY(Double, critical, dy);
     dyPtr = dyPtrBase + dyIdx;
   }
 
+  insideCriticalSection = critical;
   jdouble retval = ddot_(&n, dxPtr, &incx, dyPtr, &incy);
+  insideCriticalSection = 0;
   if(dyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dy, dyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dy, dyPtrBase, 0);
     if (dyPtrBase == dxPtrBase)
       dxPtrBase = 0;
     dyPtrBase = 0;
   }
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -855,31 +1079,37 @@ JNIEXPORT jfloat JNICALL Java_org_jblas_NativeBlas_sdot(JNIEnv *env, jclass this
 {
   extern jfloat sdot_(jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean syIsSx = (*env)->IsSameObject(env, sy, sx);
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
   jfloat *syPtrBase = 0, *syPtr = 0;
   if (sy) {
-    if((*env)->IsSameObject(env, sy, sx) == JNI_TRUE)
+    if(syIsSx == JNI_TRUE)
       syPtrBase = sxPtrBase;
     else
-      syPtrBase = (*env)->GetFloatArrayElements(env, sy, NULL);
+      syPtrBase = GET_ARRAY(Float, critical, sy);
     syPtr = syPtrBase + syIdx;
   }
 
+  insideCriticalSection = critical;
   jfloat retval = sdot_(&n, sxPtr, &incx, syPtr, &incy);
+  insideCriticalSection = 0;
   if(syPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sy, syPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sy, syPtrBase, 0);
     if (syPtrBase == sxPtrBase)
       sxPtrBase = 0;
     syPtrBase = 0;
   }
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return (jdouble) retval;
 }
@@ -888,31 +1118,37 @@ JNIEXPORT jobject JNICALL Java_org_jblas_NativeBlas_zdotc(JNIEnv *env, jclass th
 {
   extern double complex zdotc_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean zyIsZx = (*env)->IsSameObject(env, zy, zx);
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
   jdouble *zyPtrBase = 0, *zyPtr = 0;
   if (zy) {
-    if((*env)->IsSameObject(env, zy, zx) == JNI_TRUE)
+    if(zyIsZx == JNI_TRUE)
       zyPtrBase = zxPtrBase;
     else
-      zyPtrBase = (*env)->GetDoubleArrayElements(env, zy, NULL);
+      zyPtrBase = GET_ARRAY(Double, critical, zy);
     zyPtr = zyPtrBase + 2*zyIdx;
   }
 
+  insideCriticalSection = critical;
   double complex retval = zdotc_(&n, zxPtr, &incx, zyPtr, &incy);
+  insideCriticalSection = 0;
   if(zyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zy, zyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zy, zyPtrBase, 0);
     if (zyPtrBase == zxPtrBase)
       zxPtrBase = 0;
     zyPtrBase = 0;
   }
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return createComplexDouble(env, retval);
 }
@@ -921,31 +1157,37 @@ JNIEXPORT jobject JNICALL Java_org_jblas_NativeBlas_zdotu(JNIEnv *env, jclass th
 {
   extern double complex zdotu_(jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
+  jboolean zyIsZx = (*env)->IsSameObject(env, zy, zx);
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
   jdouble *zyPtrBase = 0, *zyPtr = 0;
   if (zy) {
-    if((*env)->IsSameObject(env, zy, zx) == JNI_TRUE)
+    if(zyIsZx == JNI_TRUE)
       zyPtrBase = zxPtrBase;
     else
-      zyPtrBase = (*env)->GetDoubleArrayElements(env, zy, NULL);
+      zyPtrBase = GET_ARRAY(Double, critical, zy);
     zyPtr = zyPtrBase + 2*zyIdx;
   }
 
+  insideCriticalSection = critical;
   double complex retval = zdotu_(&n, zxPtr, &incx, zyPtr, &incy);
+  insideCriticalSection = 0;
   if(zyPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zy, zyPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zy, zyPtrBase, 0);
     if (zyPtrBase == zxPtrBase)
       zxPtrBase = 0;
     zyPtrBase = 0;
   }
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return createComplexDouble(env, retval);
 }
@@ -954,17 +1196,22 @@ JNIEXPORT jdouble JNICALL Java_org_jblas_NativeBlas_dnrm2(JNIEnv *env, jclass th
 {
   extern jdouble dnrm2_(jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + xIdx;
   }
 
+  insideCriticalSection = critical;
   jdouble retval = dnrm2_(&n, xPtr, &incx);
+  insideCriticalSection = 0;
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, 0);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -973,17 +1220,22 @@ JNIEXPORT jdouble JNICALL Java_org_jblas_NativeBlas_dznrm2(JNIEnv *env, jclass t
 {
   extern jdouble dznrm2_(jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
 
+  insideCriticalSection = critical;
   jdouble retval = dznrm2_(&n, xPtr, &incx);
+  insideCriticalSection = 0;
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, 0);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -992,17 +1244,22 @@ JNIEXPORT jfloat JNICALL Java_org_jblas_NativeBlas_scnrm2(JNIEnv *env, jclass th
 {
   extern jfloat scnrm2_(jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
 
+  insideCriticalSection = critical;
   jfloat retval = scnrm2_(&n, xPtr, &incx);
+  insideCriticalSection = 0;
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, 0);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return (jdouble) retval;
 }
@@ -1011,17 +1268,22 @@ JNIEXPORT jfloat JNICALL Java_org_jblas_NativeBlas_snrm2(JNIEnv *env, jclass thi
 {
   extern jfloat snrm2_(jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + xIdx;
   }
 
+  insideCriticalSection = critical;
   jfloat retval = snrm2_(&n, xPtr, &incx);
+  insideCriticalSection = 0;
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, 0);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return (jdouble) retval;
 }
@@ -1030,17 +1292,22 @@ JNIEXPORT jdouble JNICALL Java_org_jblas_NativeBlas_dasum(JNIEnv *env, jclass th
 {
   extern jdouble dasum_(jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
 
+  insideCriticalSection = critical;
   jdouble retval = dasum_(&n, dxPtr, &incx);
+  insideCriticalSection = 0;
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -1048,17 +1315,22 @@ JNIEXPORT jdouble JNICALL Java_org_jblas_NativeBlas_dasum(JNIEnv *env, jclass th
 JNIEXPORT jdouble JNICALL Java_org_jblas_NativeBlas_dzasum(JNIEnv *env, jclass this, jint n, jdoubleArray zx, jint zxIdx, jint incx)
 {
   extern jdouble dzasum_(jint *, jdouble *, jint *);
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
 
+  insideCriticalSection = critical;
   jdouble retval = dzasum_(&n, zxPtr, &incx);
+  insideCriticalSection = 0;
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -1067,17 +1339,22 @@ JNIEXPORT jfloat JNICALL Java_org_jblas_NativeBlas_sasum(JNIEnv *env, jclass thi
 {
   extern jfloat sasum_(jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
 
+  insideCriticalSection = critical;
   jfloat retval = sasum_(&n, sxPtr, &incx);
+  insideCriticalSection = 0;
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return (jdouble) retval;
 }
@@ -1086,17 +1363,22 @@ JNIEXPORT jfloat JNICALL Java_org_jblas_NativeBlas_scasum(JNIEnv *env, jclass th
 {
   extern jfloat scasum_(jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
 
+  insideCriticalSection = critical;
   jfloat retval = scasum_(&n, cxPtr, &incx);
+  insideCriticalSection = 0;
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return (jdouble) retval;
 }
@@ -1105,17 +1387,22 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_icamax(JNIEnv *env, jclass this
 {
   extern jint icamax_(jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *cxPtrBase = 0, *cxPtr = 0;
   if (cx) {
-    cxPtrBase = (*env)->GetFloatArrayElements(env, cx, NULL);
+    cxPtrBase = GET_ARRAY(Float, critical, cx);
     cxPtr = cxPtrBase + 2*cxIdx;
   }
 
+  insideCriticalSection = critical;
   jint retval = icamax_(&n, cxPtr, &incx);
+  insideCriticalSection = 0;
   if(cxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, cx, cxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, cx, cxPtrBase, 0);
     cxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -1124,17 +1411,22 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_idamax(JNIEnv *env, jclass this
 {
   extern jint idamax_(jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *dxPtrBase = 0, *dxPtr = 0;
   if (dx) {
-    dxPtrBase = (*env)->GetDoubleArrayElements(env, dx, NULL);
+    dxPtrBase = GET_ARRAY(Double, critical, dx);
     dxPtr = dxPtrBase + dxIdx;
   }
 
+  insideCriticalSection = critical;
   jint retval = idamax_(&n, dxPtr, &incx);
+  insideCriticalSection = 0;
   if(dxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, dx, dxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, dx, dxPtrBase, 0);
     dxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -1143,17 +1435,22 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_isamax(JNIEnv *env, jclass this
 {
   extern jint isamax_(jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jfloat *sxPtrBase = 0, *sxPtr = 0;
   if (sx) {
-    sxPtrBase = (*env)->GetFloatArrayElements(env, sx, NULL);
+    sxPtrBase = GET_ARRAY(Float, critical, sx);
     sxPtr = sxPtrBase + sxIdx;
   }
 
+  insideCriticalSection = critical;
   jint retval = isamax_(&n, sxPtr, &incx);
+  insideCriticalSection = 0;
   if(sxPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, sx, sxPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, sx, sxPtrBase, 0);
     sxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -1162,17 +1459,22 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_izamax(JNIEnv *env, jclass this
 {
   extern jint izamax_(jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL1) != 0;
   jdouble *zxPtrBase = 0, *zxPtr = 0;
   if (zx) {
-    zxPtrBase = (*env)->GetDoubleArrayElements(env, zx, NULL);
+    zxPtrBase = GET_ARRAY(Double, critical, zx);
     zxPtr = zxPtrBase + 2*zxIdx;
   }
 
+  insideCriticalSection = critical;
   jint retval = izamax_(&n, zxPtr, &incx);
+  insideCriticalSection = 0;
   if(zxPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, zx, zxPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, zx, zxPtrBase, 0);
     zxPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return retval;
 }
@@ -1181,39 +1483,45 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgemv(JNIEnv *env, jclass this,
 {
   extern void cgemv_(char *, jint *, jint *, float complex *, jfloat *, jint *, jfloat *, jint *, float complex *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   char transChr = (char) trans;
   float complex alphaCplx;
   alphaCplx = getComplexFloat(env, alpha);
+  float complex betaCplx;
+  betaCplx = getComplexFloat(env, beta);
+  jboolean xIsA = (*env)->IsSameObject(env, x, a);
+  jboolean yIsA = (*env)->IsSameObject(env, y, a);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    if((*env)->IsSameObject(env, x, a) == JNI_TRUE)
+    if(xIsA == JNI_TRUE)
       xPtrBase = aPtrBase;
     else
-      xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+      xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
-  float complex betaCplx;
-  betaCplx = getComplexFloat(env, beta);
   jfloat *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, a) == JNI_TRUE)
+    if(yIsA == JNI_TRUE)
       yPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+      if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetFloatArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Float, critical, y);
     yPtr = yPtrBase + 2*yIdx;
   }
 
+  insideCriticalSection = critical;
   cgemv_(&transChr, &m, &n, &alphaCplx, aPtr, &lda, xPtr, &incx, &betaCplx, yPtr, &incy);
+  insideCriticalSection = 0;
   if(yPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, y, yPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, y, yPtrBase, 0);
     if (yPtrBase == aPtrBase)
       aPtrBase = 0;
     if (yPtrBase == xPtrBase)
@@ -1221,15 +1529,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgemv(JNIEnv *env, jclass this,
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, JNI_ABORT);
     if (xPtrBase == aPtrBase)
       aPtrBase = 0;
     xPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1237,35 +1547,41 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemv(JNIEnv *env, jclass this,
 {
   extern void dgemv_(char *, jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   char transChr = (char) trans;
+  jboolean xIsA = (*env)->IsSameObject(env, x, a);
+  jboolean yIsA = (*env)->IsSameObject(env, y, a);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    if((*env)->IsSameObject(env, x, a) == JNI_TRUE)
+    if(xIsA == JNI_TRUE)
       xPtrBase = aPtrBase;
     else
-      xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+      xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + xIdx;
   }
   jdouble *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, a) == JNI_TRUE)
+    if(yIsA == JNI_TRUE)
       yPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+      if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetDoubleArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Double, critical, y);
     yPtr = yPtrBase + yIdx;
   }
 
+  insideCriticalSection = critical;
   dgemv_(&transChr, &m, &n, &alpha, aPtr, &lda, xPtr, &incx, &beta, yPtr, &incy);
+  insideCriticalSection = 0;
   if(yPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, y, yPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, y, yPtrBase, 0);
     if (yPtrBase == aPtrBase)
       aPtrBase = 0;
     if (yPtrBase == xPtrBase)
@@ -1273,15 +1589,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemv(JNIEnv *env, jclass this,
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, JNI_ABORT);
     if (xPtrBase == aPtrBase)
       aPtrBase = 0;
     xPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1289,35 +1607,41 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sgemv(JNIEnv *env, jclass this,
 {
   extern void sgemv_(char *, jint *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   char transChr = (char) trans;
+  jboolean xIsA = (*env)->IsSameObject(env, x, a);
+  jboolean yIsA = (*env)->IsSameObject(env, y, a);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    if((*env)->IsSameObject(env, x, a) == JNI_TRUE)
+    if(xIsA == JNI_TRUE)
       xPtrBase = aPtrBase;
     else
-      xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+      xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + xIdx;
   }
   jfloat *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, a) == JNI_TRUE)
+    if(yIsA == JNI_TRUE)
       yPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+      if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetFloatArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Float, critical, y);
     yPtr = yPtrBase + yIdx;
   }
 
+  insideCriticalSection = critical;
   sgemv_(&transChr, &m, &n, &alpha, aPtr, &lda, xPtr, &incx, &beta, yPtr, &incy);
+  insideCriticalSection = 0;
   if(yPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, y, yPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, y, yPtrBase, 0);
     if (yPtrBase == aPtrBase)
       aPtrBase = 0;
     if (yPtrBase == xPtrBase)
@@ -1325,15 +1649,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sgemv(JNIEnv *env, jclass this,
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, JNI_ABORT);
     if (xPtrBase == aPtrBase)
       aPtrBase = 0;
     xPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1341,39 +1667,45 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgemv(JNIEnv *env, jclass this,
 {
   extern void zgemv_(char *, jint *, jint *, double complex *, jdouble *, jint *, jdouble *, jint *, double complex *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   char transChr = (char) trans;
   double complex alphaCplx;
   alphaCplx = getComplexDouble(env, alpha);
+  double complex betaCplx;
+  betaCplx = getComplexDouble(env, beta);
+  jboolean xIsA = (*env)->IsSameObject(env, x, a);
+  jboolean yIsA = (*env)->IsSameObject(env, y, a);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    if((*env)->IsSameObject(env, x, a) == JNI_TRUE)
+    if(xIsA == JNI_TRUE)
       xPtrBase = aPtrBase;
     else
-      xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+      xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
-  double complex betaCplx;
-  betaCplx = getComplexDouble(env, beta);
   jdouble *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, a) == JNI_TRUE)
+    if(yIsA == JNI_TRUE)
       yPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+      if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetDoubleArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Double, critical, y);
     yPtr = yPtrBase + 2*yIdx;
   }
 
+  insideCriticalSection = critical;
   zgemv_(&transChr, &m, &n, &alphaCplx, aPtr, &lda, xPtr, &incx, &betaCplx, yPtr, &incy);
+  insideCriticalSection = 0;
   if(yPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, y, yPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, y, yPtrBase, 0);
     if (yPtrBase == aPtrBase)
       aPtrBase = 0;
     if (yPtrBase == xPtrBase)
@@ -1381,15 +1713,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgemv(JNIEnv *env, jclass this,
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, JNI_ABORT);
     if (xPtrBase == aPtrBase)
       aPtrBase = 0;
     xPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1397,36 +1731,42 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgerc(JNIEnv *env, jclass this,
 {
   extern void cgerc_(jint *, jint *, float complex *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   float complex alphaCplx;
   alphaCplx = getComplexFloat(env, alpha);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
+  jboolean aIsX = (*env)->IsSameObject(env, a, x);
+  jboolean aIsY = (*env)->IsSameObject(env, a, y);
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
   jfloat *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+    if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetFloatArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Float, critical, y);
     yPtr = yPtrBase + 2*yIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, x) == JNI_TRUE)
+    if(aIsX == JNI_TRUE)
       aPtrBase = xPtrBase;
     else
-      if((*env)->IsSameObject(env, a, y) == JNI_TRUE)
+      if(aIsY == JNI_TRUE)
       aPtrBase = yPtrBase;
     else
-      aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
 
+  insideCriticalSection = critical;
   cgerc_(&m, &n, &alphaCplx, xPtr, &incx, yPtr, &incy, aPtr, &lda);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     if (aPtrBase == xPtrBase)
       xPtrBase = 0;
     if (aPtrBase == yPtrBase)
@@ -1434,15 +1774,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgerc(JNIEnv *env, jclass this,
     aPtrBase = 0;
   }
   if(yPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, y, yPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, y, yPtrBase, JNI_ABORT);
     if (yPtrBase == xPtrBase)
       xPtrBase = 0;
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, JNI_ABORT);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1450,36 +1792,42 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgeru(JNIEnv *env, jclass this,
 {
   extern void cgeru_(jint *, jint *, float complex *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   float complex alphaCplx;
   alphaCplx = getComplexFloat(env, alpha);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
+  jboolean aIsX = (*env)->IsSameObject(env, a, x);
+  jboolean aIsY = (*env)->IsSameObject(env, a, y);
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
   jfloat *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+    if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetFloatArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Float, critical, y);
     yPtr = yPtrBase + 2*yIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, x) == JNI_TRUE)
+    if(aIsX == JNI_TRUE)
       aPtrBase = xPtrBase;
     else
-      if((*env)->IsSameObject(env, a, y) == JNI_TRUE)
+      if(aIsY == JNI_TRUE)
       aPtrBase = yPtrBase;
     else
-      aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
 
+  insideCriticalSection = critical;
   cgeru_(&m, &n, &alphaCplx, xPtr, &incx, yPtr, &incy, aPtr, &lda);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     if (aPtrBase == xPtrBase)
       xPtrBase = 0;
     if (aPtrBase == yPtrBase)
@@ -1487,15 +1835,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgeru(JNIEnv *env, jclass this,
     aPtrBase = 0;
   }
   if(yPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, y, yPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, y, yPtrBase, JNI_ABORT);
     if (yPtrBase == xPtrBase)
       xPtrBase = 0;
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, JNI_ABORT);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1503,34 +1853,40 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dger(JNIEnv *env, jclass this,
 {
   extern void dger_(jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
+  jboolean aIsX = (*env)->IsSameObject(env, a, x);
+  jboolean aIsY = (*env)->IsSameObject(env, a, y);
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + xIdx;
   }
   jdouble *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+    if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetDoubleArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Double, critical, y);
     yPtr = yPtrBase + yIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, x) == JNI_TRUE)
+    if(aIsX == JNI_TRUE)
       aPtrBase = xPtrBase;
     else
-      if((*env)->IsSameObject(env, a, y) == JNI_TRUE)
+      if(aIsY == JNI_TRUE)
       aPtrBase = yPtrBase;
     else
-      aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
 
+  insideCriticalSection = critical;
   dger_(&m, &n, &alpha, xPtr, &incx, yPtr, &incy, aPtr, &lda);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     if (aPtrBase == xPtrBase)
       xPtrBase = 0;
     if (aPtrBase == yPtrBase)
@@ -1538,15 +1894,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dger(JNIEnv *env, jclass this,
     aPtrBase = 0;
   }
   if(yPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, y, yPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, y, yPtrBase, JNI_ABORT);
     if (yPtrBase == xPtrBase)
       xPtrBase = 0;
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, JNI_ABORT);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1554,34 +1912,40 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sger(JNIEnv *env, jclass this,
 {
   extern void sger_(jint *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
+  jboolean aIsX = (*env)->IsSameObject(env, a, x);
+  jboolean aIsY = (*env)->IsSameObject(env, a, y);
   jfloat *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetFloatArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Float, critical, x);
     xPtr = xPtrBase + xIdx;
   }
   jfloat *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+    if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetFloatArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Float, critical, y);
     yPtr = yPtrBase + yIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, x) == JNI_TRUE)
+    if(aIsX == JNI_TRUE)
       aPtrBase = xPtrBase;
     else
-      if((*env)->IsSameObject(env, a, y) == JNI_TRUE)
+      if(aIsY == JNI_TRUE)
       aPtrBase = yPtrBase;
     else
-      aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
 
+  insideCriticalSection = critical;
   sger_(&m, &n, &alpha, xPtr, &incx, yPtr, &incy, aPtr, &lda);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     if (aPtrBase == xPtrBase)
       xPtrBase = 0;
     if (aPtrBase == yPtrBase)
@@ -1589,15 +1953,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sger(JNIEnv *env, jclass this,
     aPtrBase = 0;
   }
   if(yPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, y, yPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, y, yPtrBase, JNI_ABORT);
     if (yPtrBase == xPtrBase)
       xPtrBase = 0;
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, x, xPtrBase, JNI_ABORT);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1605,36 +1971,42 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgerc(JNIEnv *env, jclass this,
 {
   extern void zgerc_(jint *, jint *, double complex *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   double complex alphaCplx;
   alphaCplx = getComplexDouble(env, alpha);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
+  jboolean aIsX = (*env)->IsSameObject(env, a, x);
+  jboolean aIsY = (*env)->IsSameObject(env, a, y);
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
   jdouble *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+    if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetDoubleArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Double, critical, y);
     yPtr = yPtrBase + 2*yIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, x) == JNI_TRUE)
+    if(aIsX == JNI_TRUE)
       aPtrBase = xPtrBase;
     else
-      if((*env)->IsSameObject(env, a, y) == JNI_TRUE)
+      if(aIsY == JNI_TRUE)
       aPtrBase = yPtrBase;
     else
-      aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
 
+  insideCriticalSection = critical;
   zgerc_(&m, &n, &alphaCplx, xPtr, &incx, yPtr, &incy, aPtr, &lda);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     if (aPtrBase == xPtrBase)
       xPtrBase = 0;
     if (aPtrBase == yPtrBase)
@@ -1642,15 +2014,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgerc(JNIEnv *env, jclass this,
     aPtrBase = 0;
   }
   if(yPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, y, yPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, y, yPtrBase, JNI_ABORT);
     if (yPtrBase == xPtrBase)
       xPtrBase = 0;
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, JNI_ABORT);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1658,36 +2032,42 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgeru(JNIEnv *env, jclass this,
 {
   extern void zgeru_(jint *, jint *, double complex *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL2) != 0;
   double complex alphaCplx;
   alphaCplx = getComplexDouble(env, alpha);
+  jboolean yIsX = (*env)->IsSameObject(env, y, x);
+  jboolean aIsX = (*env)->IsSameObject(env, a, x);
+  jboolean aIsY = (*env)->IsSameObject(env, a, y);
   jdouble *xPtrBase = 0, *xPtr = 0;
   if (x) {
-    xPtrBase = (*env)->GetDoubleArrayElements(env, x, NULL);
+    xPtrBase = GET_ARRAY(Double, critical, x);
     xPtr = xPtrBase + 2*xIdx;
   }
   jdouble *yPtrBase = 0, *yPtr = 0;
   if (y) {
-    if((*env)->IsSameObject(env, y, x) == JNI_TRUE)
+    if(yIsX == JNI_TRUE)
       yPtrBase = xPtrBase;
     else
-      yPtrBase = (*env)->GetDoubleArrayElements(env, y, NULL);
+      yPtrBase = GET_ARRAY(Double, critical, y);
     yPtr = yPtrBase + 2*yIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, x) == JNI_TRUE)
+    if(aIsX == JNI_TRUE)
       aPtrBase = xPtrBase;
     else
-      if((*env)->IsSameObject(env, a, y) == JNI_TRUE)
+      if(aIsY == JNI_TRUE)
       aPtrBase = yPtrBase;
     else
-      aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
 
+  insideCriticalSection = critical;
   zgeru_(&m, &n, &alphaCplx, xPtr, &incx, yPtr, &incy, aPtr, &lda);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     if (aPtrBase == xPtrBase)
       xPtrBase = 0;
     if (aPtrBase == yPtrBase)
@@ -1695,15 +2075,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgeru(JNIEnv *env, jclass this,
     aPtrBase = 0;
   }
   if(yPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, y, yPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, y, yPtrBase, JNI_ABORT);
     if (yPtrBase == xPtrBase)
       xPtrBase = 0;
     yPtrBase = 0;
   }
   if(xPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, x, xPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, x, xPtrBase, JNI_ABORT);
     xPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1711,40 +2093,46 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgemm(JNIEnv *env, jclass this,
 {
   extern void cgemm_(char *, char *, jint *, jint *, jint *, float complex *, jfloat *, jint *, jfloat *, jint *, float complex *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL3) != 0;
   char transaChr = (char) transa;
   char transbChr = (char) transb;
   float complex alphaCplx;
   alphaCplx = getComplexFloat(env, alpha);
+  float complex betaCplx;
+  betaCplx = getComplexFloat(env, beta);
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean cIsA = (*env)->IsSameObject(env, c, a);
+  jboolean cIsB = (*env)->IsSameObject(env, c, b);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + 2*bIdx;
   }
-  float complex betaCplx;
-  betaCplx = getComplexFloat(env, beta);
   jfloat *cPtrBase = 0, *cPtr = 0;
   if (c) {
-    if((*env)->IsSameObject(env, c, a) == JNI_TRUE)
+    if(cIsA == JNI_TRUE)
       cPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, c, b) == JNI_TRUE)
+      if(cIsB == JNI_TRUE)
       cPtrBase = bPtrBase;
     else
-      cPtrBase = (*env)->GetFloatArrayElements(env, c, NULL);
+      cPtrBase = GET_ARRAY(Float, critical, c);
     cPtr = cPtrBase + 2*cIdx;
   }
 
+  insideCriticalSection = critical;
   cgemm_(&transaChr, &transbChr, &m, &n, &k, &alphaCplx, aPtr, &lda, bPtr, &ldb, &betaCplx, cPtr, &ldc);
+  insideCriticalSection = 0;
   if(cPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, c, cPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, c, cPtrBase, 0);
     if (cPtrBase == aPtrBase)
       aPtrBase = 0;
     if (cPtrBase == bPtrBase)
@@ -1752,15 +2140,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_cgemm(JNIEnv *env, jclass this,
     cPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, JNI_ABORT);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1768,36 +2158,42 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemm(JNIEnv *env, jclass this,
 {
   extern void dgemm_(char *, char *, jint *, jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL3) != 0;
   char transaChr = (char) transa;
   char transbChr = (char) transb;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean cIsA = (*env)->IsSameObject(env, c, a);
+  jboolean cIsB = (*env)->IsSameObject(env, c, b);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jdouble *cPtrBase = 0, *cPtr = 0;
   if (c) {
-    if((*env)->IsSameObject(env, c, a) == JNI_TRUE)
+    if(cIsA == JNI_TRUE)
       cPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, c, b) == JNI_TRUE)
+      if(cIsB == JNI_TRUE)
       cPtrBase = bPtrBase;
     else
-      cPtrBase = (*env)->GetDoubleArrayElements(env, c, NULL);
+      cPtrBase = GET_ARRAY(Double, critical, c);
     cPtr = cPtrBase + cIdx;
   }
 
+  insideCriticalSection = critical;
   dgemm_(&transaChr, &transbChr, &m, &n, &k, &alpha, aPtr, &lda, bPtr, &ldb, &beta, cPtr, &ldc);
+  insideCriticalSection = 0;
   if(cPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, c, cPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, c, cPtrBase, 0);
     if (cPtrBase == aPtrBase)
       aPtrBase = 0;
     if (cPtrBase == bPtrBase)
@@ -1805,15 +2201,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemm(JNIEnv *env, jclass this,
     cPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, JNI_ABORT);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1821,36 +2219,42 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sgemm(JNIEnv *env, jclass this,
 {
   extern void sgemm_(char *, char *, jint *, jint *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL3) != 0;
   char transaChr = (char) transa;
   char transbChr = (char) transb;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean cIsA = (*env)->IsSameObject(env, c, a);
+  jboolean cIsB = (*env)->IsSameObject(env, c, b);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jfloat *cPtrBase = 0, *cPtr = 0;
   if (c) {
-    if((*env)->IsSameObject(env, c, a) == JNI_TRUE)
+    if(cIsA == JNI_TRUE)
       cPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, c, b) == JNI_TRUE)
+      if(cIsB == JNI_TRUE)
       cPtrBase = bPtrBase;
     else
-      cPtrBase = (*env)->GetFloatArrayElements(env, c, NULL);
+      cPtrBase = GET_ARRAY(Float, critical, c);
     cPtr = cPtrBase + cIdx;
   }
 
+  insideCriticalSection = critical;
   sgemm_(&transaChr, &transbChr, &m, &n, &k, &alpha, aPtr, &lda, bPtr, &ldb, &beta, cPtr, &ldc);
+  insideCriticalSection = 0;
   if(cPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, c, cPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, c, cPtrBase, 0);
     if (cPtrBase == aPtrBase)
       aPtrBase = 0;
     if (cPtrBase == bPtrBase)
@@ -1858,15 +2262,17 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sgemm(JNIEnv *env, jclass this,
     cPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, JNI_ABORT);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1874,40 +2280,46 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgemm(JNIEnv *env, jclass this,
 {
   extern void zgemm_(char *, char *, jint *, jint *, jint *, double complex *, jdouble *, jint *, jdouble *, jint *, double complex *, jdouble *, jint *);
   
+  int critical = (criticalArrayFamilies & BLAS_LEVEL3) != 0;
   char transaChr = (char) transa;
   char transbChr = (char) transb;
   double complex alphaCplx;
   alphaCplx = getComplexDouble(env, alpha);
+  double complex betaCplx;
+  betaCplx = getComplexDouble(env, beta);
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean cIsA = (*env)->IsSameObject(env, c, a);
+  jboolean cIsB = (*env)->IsSameObject(env, c, b);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + 2*bIdx;
   }
-  double complex betaCplx;
-  betaCplx = getComplexDouble(env, beta);
   jdouble *cPtrBase = 0, *cPtr = 0;
   if (c) {
-    if((*env)->IsSameObject(env, c, a) == JNI_TRUE)
+    if(cIsA == JNI_TRUE)
       cPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, c, b) == JNI_TRUE)
+      if(cIsB == JNI_TRUE)
       cPtrBase = bPtrBase;
     else
-      cPtrBase = (*env)->GetDoubleArrayElements(env, c, NULL);
+      cPtrBase = GET_ARRAY(Double, critical, c);
     cPtr = cPtrBase + 2*cIdx;
   }
 
+  insideCriticalSection = critical;
   zgemm_(&transaChr, &transbChr, &m, &n, &k, &alphaCplx, aPtr, &lda, bPtr, &ldb, &betaCplx, cPtr, &ldc);
+  insideCriticalSection = 0;
   if(cPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, c, cPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, c, cPtrBase, 0);
     if (cPtrBase == aPtrBase)
       aPtrBase = 0;
     if (cPtrBase == bPtrBase)
@@ -1915,15 +2327,101 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgemm(JNIEnv *env, jclass this,
     cPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, JNI_ABORT);
+    if (bPtrBase == aPtrBase)
+      aPtrBase = 0;
+    bPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+}
+
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dtrsm(JNIEnv *env, jclass this, jchar side, jchar uplo, jchar transa, jchar diag, jint m, jint n, jdouble alpha, jdoubleArray a, jint aIdx, jint lda, jdoubleArray b, jint bIdx, jint ldb)
+{
+  extern void dtrsm_(char *, char *, char *, char *, jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *);
+  
+  int critical = (criticalArrayFamilies & BLAS_LEVEL3) != 0;
+  char sideChr = (char) side;
+  char uploChr = (char) uplo;
+  char transaChr = (char) transa;
+  char diagChr = (char) diag;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *bPtrBase = 0, *bPtr = 0;
+  if (b) {
+    if(bIsA == JNI_TRUE)
+      bPtrBase = aPtrBase;
+    else
+      bPtrBase = GET_ARRAY(Double, critical, b);
+    bPtr = bPtrBase + bIdx;
+  }
+
+  insideCriticalSection = critical;
+  dtrsm_(&sideChr, &uploChr, &transaChr, &diagChr, &m, &n, &alpha, aPtr, &lda, bPtr, &ldb);
+  insideCriticalSection = 0;
+  if(bPtrBase) {
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
+    if (bPtrBase == aPtrBase)
+      aPtrBase = 0;
+    bPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+}
+
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_strsm(JNIEnv *env, jclass this, jchar side, jchar uplo, jchar transa, jchar diag, jint m, jint n, jfloat alpha, jfloatArray a, jint aIdx, jint lda, jfloatArray b, jint bIdx, jint ldb)
+{
+  extern void strsm_(char *, char *, char *, char *, jint *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *);
+  
+  int critical = (criticalArrayFamilies & BLAS_LEVEL3) != 0;
+  char sideChr = (char) side;
+  char uploChr = (char) uplo;
+  char transaChr = (char) transa;
+  char diagChr = (char) diag;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *bPtrBase = 0, *bPtr = 0;
+  if (b) {
+    if(bIsA == JNI_TRUE)
+      bPtrBase = aPtrBase;
+    else
+      bPtrBase = GET_ARRAY(Float, critical, b);
+    bPtr = bPtrBase + bIdx;
+  }
+
+  insideCriticalSection = critical;
+  strsm_(&sideChr, &uploChr, &transaChr, &diagChr, &m, &n, &alpha, aPtr, &lda, bPtr, &ldb);
+  insideCriticalSection = 0;
+  if(bPtrBase) {
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
 }
 
@@ -1931,41 +2429,47 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesv(JNIEnv *env, jclass this,
 {
   extern void dgesv_(jint *, jint *, jdouble *, jint *, jint *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *ipivPtrBase = 0, *ipivPtr = 0;
   if (ipiv) {
-    ipivPtrBase = (*env)->GetIntArrayElements(env, ipiv, NULL);
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
     ipivPtr = ipivPtrBase + ipivIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dgesv_(&n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(ipivPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ipiv, ipivPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, 0);
     ipivPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -1974,41 +2478,47 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesv(JNIEnv *env, jclass this,
 {
   extern void sgesv_(jint *, jint *, jfloat *, jint *, jint *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *ipivPtrBase = 0, *ipivPtr = 0;
   if (ipiv) {
-    ipivPtrBase = (*env)->GetIntArrayElements(env, ipiv, NULL);
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
     ipivPtr = ipivPtrBase + ipivIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sgesv_(&n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(ipivPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ipiv, ipivPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, 0);
     ipivPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2017,41 +2527,47 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsysv(JNIEnv *env, jclass this,
 {
   extern void dsysv_(char *, jint *, jint *, jdouble *, jint *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *ipivPtrBase = 0, *ipivPtr = 0;
   if (ipiv) {
-    ipivPtrBase = (*env)->GetIntArrayElements(env, ipiv, NULL);
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
     ipivPtr = ipivPtrBase + ipivIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsysv_(&uploChr, &n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -2059,19 +2575,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsysv(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(ipivPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ipiv, ipivPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, 0);
     ipivPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2080,41 +2598,47 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssysv(JNIEnv *env, jclass this,
 {
   extern void ssysv_(char *, jint *, jint *, jfloat *, jint *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *ipivPtrBase = 0, *ipivPtr = 0;
   if (ipiv) {
-    ipivPtrBase = (*env)->GetIntArrayElements(env, ipiv, NULL);
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
     ipivPtr = ipivPtrBase + ipivIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssysv_(&uploChr, &n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -2122,19 +2646,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssysv(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(ipivPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ipiv, ipivPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, 0);
     ipivPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2143,37 +2669,43 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyev(JNIEnv *env, jclass this,
 {
   extern void dsyev_(char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char uploChr = (char) uplo;
+  int info;
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsyev_(&jobzChr, &uploChr, &n, aPtr, &lda, wPtr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2181,15 +2713,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyev(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2198,37 +2732,43 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyev(JNIEnv *env, jclass this,
 {
   extern void ssyev_(char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char uploChr = (char) uplo;
+  int info;
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssyev_(&jobzChr, &uploChr, &n, aPtr, &lda, wPtr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2236,15 +2776,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyev(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2253,46 +2795,52 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevd(JNIEnv *env, jclass this
 {
   extern void dsyevd_(char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char uploChr = (char) uplo;
+  int info;
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsyevd_(&jobzChr, &uploChr, &n, aPtr, &lda, wPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+  insideCriticalSection = 0;
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
     iworkPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2300,15 +2848,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2317,76 +2867,88 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevr(JNIEnv *env, jclass this
 {
   extern void dsyevr_(char *, char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jdouble *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char rangeChr = (char) range;
   char uploChr = (char) uplo;
+  int info;
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean zIsA = (*env)->IsSameObject(env, z, a);
+  jboolean zIsW = (*env)->IsSameObject(env, z, w);
+  jboolean isuppzIsM = (*env)->IsSameObject(env, isuppz, m);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsZ = (*env)->IsSameObject(env, work, z);
+  jboolean iworkIsM = (*env)->IsSameObject(env, iwork, m);
+  jboolean iworkIsIsuppz = (*env)->IsSameObject(env, iwork, isuppz);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *mPtrBase = 0, *mPtr = 0;
   if (m) {
-    mPtrBase = (*env)->GetIntArrayElements(env, m, NULL);
+    mPtrBase = GET_ARRAY(Int, critical, m);
     mPtr = mPtrBase + mIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jdouble *zPtrBase = 0, *zPtr = 0;
   if (z) {
-    if((*env)->IsSameObject(env, z, a) == JNI_TRUE)
+    if(zIsA == JNI_TRUE)
       zPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, z, w) == JNI_TRUE)
+      if(zIsW == JNI_TRUE)
       zPtrBase = wPtrBase;
     else
-      zPtrBase = (*env)->GetDoubleArrayElements(env, z, NULL);
+      zPtrBase = GET_ARRAY(Double, critical, z);
     zPtr = zPtrBase + zIdx;
   }
   jint *isuppzPtrBase = 0, *isuppzPtr = 0;
   if (isuppz) {
-    if((*env)->IsSameObject(env, isuppz, m) == JNI_TRUE)
+    if(isuppzIsM == JNI_TRUE)
       isuppzPtrBase = mPtrBase;
     else
-      isuppzPtrBase = (*env)->GetIntArrayElements(env, isuppz, NULL);
+      isuppzPtrBase = GET_ARRAY(Int, critical, isuppz);
     isuppzPtr = isuppzPtrBase + isuppzIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, z) == JNI_TRUE)
+      if(workIsZ == JNI_TRUE)
       workPtrBase = zPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    if((*env)->IsSameObject(env, iwork, m) == JNI_TRUE)
+    if(iworkIsM == JNI_TRUE)
       iworkPtrBase = mPtrBase;
     else
-      if((*env)->IsSameObject(env, iwork, isuppz) == JNI_TRUE)
+      if(iworkIsIsuppz == JNI_TRUE)
       iworkPtrBase = isuppzPtrBase;
     else
-      iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+      iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsyevr_(&jobzChr, &rangeChr, &uploChr, &n, aPtr, &lda, &vl, &vu, &il, &iu, &abstol, mPtr, wPtr, zPtr, &ldz, isuppzPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+  insideCriticalSection = 0;
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
     if (iworkPtrBase == mPtrBase)
       mPtrBase = 0;
     if (iworkPtrBase == isuppzPtrBase)
@@ -2394,7 +2956,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevr(JNIEnv *env, jclass this
     iworkPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2404,13 +2966,13 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevr(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(isuppzPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, isuppz, isuppzPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, isuppz, isuppzPtrBase, 0);
     if (isuppzPtrBase == mPtrBase)
       mPtrBase = 0;
     isuppzPtrBase = 0;
   }
   if(zPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, z, zPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, z, zPtrBase, 0);
     if (zPtrBase == aPtrBase)
       aPtrBase = 0;
     if (zPtrBase == wPtrBase)
@@ -2418,19 +2980,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevr(JNIEnv *env, jclass this
     zPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(mPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, m, mPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, m, mPtrBase, 0);
     mPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2439,76 +3003,88 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevx(JNIEnv *env, jclass this
 {
   extern void dsyevx_(char *, char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char rangeChr = (char) range;
   char uploChr = (char) uplo;
+  int info;
+  jboolean mIsIwork = (*env)->IsSameObject(env, m, iwork);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean zIsA = (*env)->IsSameObject(env, z, a);
+  jboolean zIsW = (*env)->IsSameObject(env, z, w);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsZ = (*env)->IsSameObject(env, work, z);
+  jboolean ifailIsIwork = (*env)->IsSameObject(env, ifail, iwork);
+  jboolean ifailIsM = (*env)->IsSameObject(env, ifail, m);
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *mPtrBase = 0, *mPtr = 0;
   if (m) {
-    if((*env)->IsSameObject(env, m, iwork) == JNI_TRUE)
+    if(mIsIwork == JNI_TRUE)
       mPtrBase = iworkPtrBase;
     else
-      mPtrBase = (*env)->GetIntArrayElements(env, m, NULL);
+      mPtrBase = GET_ARRAY(Int, critical, m);
     mPtr = mPtrBase + mIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jdouble *zPtrBase = 0, *zPtr = 0;
   if (z) {
-    if((*env)->IsSameObject(env, z, a) == JNI_TRUE)
+    if(zIsA == JNI_TRUE)
       zPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, z, w) == JNI_TRUE)
+      if(zIsW == JNI_TRUE)
       zPtrBase = wPtrBase;
     else
-      zPtrBase = (*env)->GetDoubleArrayElements(env, z, NULL);
+      zPtrBase = GET_ARRAY(Double, critical, z);
     zPtr = zPtrBase + zIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, z) == JNI_TRUE)
+      if(workIsZ == JNI_TRUE)
       workPtrBase = zPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *ifailPtrBase = 0, *ifailPtr = 0;
   if (ifail) {
-    if((*env)->IsSameObject(env, ifail, iwork) == JNI_TRUE)
+    if(ifailIsIwork == JNI_TRUE)
       ifailPtrBase = iworkPtrBase;
     else
-      if((*env)->IsSameObject(env, ifail, m) == JNI_TRUE)
+      if(ifailIsM == JNI_TRUE)
       ifailPtrBase = mPtrBase;
     else
-      ifailPtrBase = (*env)->GetIntArrayElements(env, ifail, NULL);
+      ifailPtrBase = GET_ARRAY(Int, critical, ifail);
     ifailPtr = ifailPtrBase + ifailIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsyevx_(&jobzChr, &rangeChr, &uploChr, &n, aPtr, &lda, &vl, &vu, &il, &iu, &abstol, mPtr, wPtr, zPtr, &ldz, workPtr, &lwork, iworkPtr, ifailPtr, &info);
+  insideCriticalSection = 0;
   if(ifailPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ifail, ifailPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ifail, ifailPtrBase, 0);
     if (ifailPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     if (ifailPtrBase == mPtrBase)
@@ -2516,7 +3092,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevx(JNIEnv *env, jclass this
     ifailPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2526,7 +3102,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevx(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(zPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, z, zPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, z, zPtrBase, 0);
     if (zPtrBase == aPtrBase)
       aPtrBase = 0;
     if (zPtrBase == wPtrBase)
@@ -2534,25 +3110,27 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevx(JNIEnv *env, jclass this
     zPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(mPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, m, mPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, m, mPtrBase, 0);
     if (mPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     mPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, JNI_ABORT);
     iworkPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2561,46 +3139,52 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevd(JNIEnv *env, jclass this
 {
   extern void ssyevd_(char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char uploChr = (char) uplo;
+  int info;
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssyevd_(&jobzChr, &uploChr, &n, aPtr, &lda, wPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+  insideCriticalSection = 0;
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
     iworkPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2608,15 +3192,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2625,76 +3211,88 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevr(JNIEnv *env, jclass this
 {
   extern void ssyevr_(char *, char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jfloat *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char rangeChr = (char) range;
   char uploChr = (char) uplo;
+  int info;
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean zIsA = (*env)->IsSameObject(env, z, a);
+  jboolean zIsW = (*env)->IsSameObject(env, z, w);
+  jboolean isuppzIsM = (*env)->IsSameObject(env, isuppz, m);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsZ = (*env)->IsSameObject(env, work, z);
+  jboolean iworkIsM = (*env)->IsSameObject(env, iwork, m);
+  jboolean iworkIsIsuppz = (*env)->IsSameObject(env, iwork, isuppz);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *mPtrBase = 0, *mPtr = 0;
   if (m) {
-    mPtrBase = (*env)->GetIntArrayElements(env, m, NULL);
+    mPtrBase = GET_ARRAY(Int, critical, m);
     mPtr = mPtrBase + mIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jfloat *zPtrBase = 0, *zPtr = 0;
   if (z) {
-    if((*env)->IsSameObject(env, z, a) == JNI_TRUE)
+    if(zIsA == JNI_TRUE)
       zPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, z, w) == JNI_TRUE)
+      if(zIsW == JNI_TRUE)
       zPtrBase = wPtrBase;
     else
-      zPtrBase = (*env)->GetFloatArrayElements(env, z, NULL);
+      zPtrBase = GET_ARRAY(Float, critical, z);
     zPtr = zPtrBase + zIdx;
   }
   jint *isuppzPtrBase = 0, *isuppzPtr = 0;
   if (isuppz) {
-    if((*env)->IsSameObject(env, isuppz, m) == JNI_TRUE)
+    if(isuppzIsM == JNI_TRUE)
       isuppzPtrBase = mPtrBase;
     else
-      isuppzPtrBase = (*env)->GetIntArrayElements(env, isuppz, NULL);
+      isuppzPtrBase = GET_ARRAY(Int, critical, isuppz);
     isuppzPtr = isuppzPtrBase + isuppzIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, z) == JNI_TRUE)
+      if(workIsZ == JNI_TRUE)
       workPtrBase = zPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    if((*env)->IsSameObject(env, iwork, m) == JNI_TRUE)
+    if(iworkIsM == JNI_TRUE)
       iworkPtrBase = mPtrBase;
     else
-      if((*env)->IsSameObject(env, iwork, isuppz) == JNI_TRUE)
+      if(iworkIsIsuppz == JNI_TRUE)
       iworkPtrBase = isuppzPtrBase;
     else
-      iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+      iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssyevr_(&jobzChr, &rangeChr, &uploChr, &n, aPtr, &lda, &vl, &vu, &il, &iu, &abstol, mPtr, wPtr, zPtr, &ldz, isuppzPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+  insideCriticalSection = 0;
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
     if (iworkPtrBase == mPtrBase)
       mPtrBase = 0;
     if (iworkPtrBase == isuppzPtrBase)
@@ -2702,7 +3300,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevr(JNIEnv *env, jclass this
     iworkPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2712,13 +3310,13 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevr(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(isuppzPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, isuppz, isuppzPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, isuppz, isuppzPtrBase, 0);
     if (isuppzPtrBase == mPtrBase)
       mPtrBase = 0;
     isuppzPtrBase = 0;
   }
   if(zPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, z, zPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, z, zPtrBase, 0);
     if (zPtrBase == aPtrBase)
       aPtrBase = 0;
     if (zPtrBase == wPtrBase)
@@ -2726,19 +3324,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevr(JNIEnv *env, jclass this
     zPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(mPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, m, mPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, m, mPtrBase, 0);
     mPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2747,76 +3347,88 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevx(JNIEnv *env, jclass this
 {
   extern void ssyevx_(char *, char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char rangeChr = (char) range;
   char uploChr = (char) uplo;
+  int info;
+  jboolean mIsIwork = (*env)->IsSameObject(env, m, iwork);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean zIsA = (*env)->IsSameObject(env, z, a);
+  jboolean zIsW = (*env)->IsSameObject(env, z, w);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsZ = (*env)->IsSameObject(env, work, z);
+  jboolean ifailIsIwork = (*env)->IsSameObject(env, ifail, iwork);
+  jboolean ifailIsM = (*env)->IsSameObject(env, ifail, m);
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *mPtrBase = 0, *mPtr = 0;
   if (m) {
-    if((*env)->IsSameObject(env, m, iwork) == JNI_TRUE)
+    if(mIsIwork == JNI_TRUE)
       mPtrBase = iworkPtrBase;
     else
-      mPtrBase = (*env)->GetIntArrayElements(env, m, NULL);
+      mPtrBase = GET_ARRAY(Int, critical, m);
     mPtr = mPtrBase + mIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jfloat *zPtrBase = 0, *zPtr = 0;
   if (z) {
-    if((*env)->IsSameObject(env, z, a) == JNI_TRUE)
+    if(zIsA == JNI_TRUE)
       zPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, z, w) == JNI_TRUE)
+      if(zIsW == JNI_TRUE)
       zPtrBase = wPtrBase;
     else
-      zPtrBase = (*env)->GetFloatArrayElements(env, z, NULL);
+      zPtrBase = GET_ARRAY(Float, critical, z);
     zPtr = zPtrBase + zIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, z) == JNI_TRUE)
+      if(workIsZ == JNI_TRUE)
       workPtrBase = zPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *ifailPtrBase = 0, *ifailPtr = 0;
   if (ifail) {
-    if((*env)->IsSameObject(env, ifail, iwork) == JNI_TRUE)
+    if(ifailIsIwork == JNI_TRUE)
       ifailPtrBase = iworkPtrBase;
     else
-      if((*env)->IsSameObject(env, ifail, m) == JNI_TRUE)
+      if(ifailIsM == JNI_TRUE)
       ifailPtrBase = mPtrBase;
     else
-      ifailPtrBase = (*env)->GetIntArrayElements(env, ifail, NULL);
+      ifailPtrBase = GET_ARRAY(Int, critical, ifail);
     ifailPtr = ifailPtrBase + ifailIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssyevx_(&jobzChr, &rangeChr, &uploChr, &n, aPtr, &lda, &vl, &vu, &il, &iu, &abstol, mPtr, wPtr, zPtr, &ldz, workPtr, &lwork, iworkPtr, ifailPtr, &info);
+  insideCriticalSection = 0;
   if(ifailPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ifail, ifailPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ifail, ifailPtrBase, 0);
     if (ifailPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     if (ifailPtrBase == mPtrBase)
@@ -2824,7 +3436,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevx(JNIEnv *env, jclass this
     ifailPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wPtrBase)
@@ -2834,7 +3446,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevx(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(zPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, z, zPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, z, zPtrBase, 0);
     if (zPtrBase == aPtrBase)
       aPtrBase = 0;
     if (zPtrBase == wPtrBase)
@@ -2842,25 +3454,27 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssyevx(JNIEnv *env, jclass this
     zPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     wPtrBase = 0;
   }
   if(mPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, m, mPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, m, mPtrBase, 0);
     if (mPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     mPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, JNI_ABORT);
     iworkPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2869,33 +3483,39 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dposv(JNIEnv *env, jclass this,
 {
   extern void dposv_(char *, jint *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dposv_(&uploChr, &n, &nrhs, aPtr, &lda, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2904,33 +3524,39 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sposv(JNIEnv *env, jclass this,
 {
   extern void sposv_(char *, jint *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sposv_(&uploChr, &n, &nrhs, aPtr, &lda, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -2939,88 +3565,106 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgeev(JNIEnv *env, jclass this,
 {
   extern void cgeev_(char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobvlChr = (char) jobvl;
   char jobvrChr = (char) jobvr;
+  int info;
+  jboolean aIsRwork = (*env)->IsSameObject(env, a, rwork);
+  jboolean wIsRwork = (*env)->IsSameObject(env, w, rwork);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean vlIsRwork = (*env)->IsSameObject(env, vl, rwork);
+  jboolean vlIsA = (*env)->IsSameObject(env, vl, a);
+  jboolean vlIsW = (*env)->IsSameObject(env, vl, w);
+  jboolean vrIsRwork = (*env)->IsSameObject(env, vr, rwork);
+  jboolean vrIsA = (*env)->IsSameObject(env, vr, a);
+  jboolean vrIsW = (*env)->IsSameObject(env, vr, w);
+  jboolean vrIsVl = (*env)->IsSameObject(env, vr, vl);
+  jboolean workIsRwork = (*env)->IsSameObject(env, work, rwork);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsVl = (*env)->IsSameObject(env, work, vl);
+  jboolean workIsVr = (*env)->IsSameObject(env, work, vr);
   jfloat *rworkPtrBase = 0, *rworkPtr = 0;
   if (rwork) {
-    rworkPtrBase = (*env)->GetFloatArrayElements(env, rwork, NULL);
+    rworkPtrBase = GET_ARRAY(Float, critical, rwork);
     rworkPtr = rworkPtrBase + rworkIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, rwork) == JNI_TRUE)
+    if(aIsRwork == JNI_TRUE)
       aPtrBase = rworkPtrBase;
     else
-      aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, rwork) == JNI_TRUE)
+    if(wIsRwork == JNI_TRUE)
       wPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+      if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + 2*wIdx;
   }
   jfloat *vlPtrBase = 0, *vlPtr = 0;
   if (vl) {
-    if((*env)->IsSameObject(env, vl, rwork) == JNI_TRUE)
+    if(vlIsRwork == JNI_TRUE)
       vlPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, a) == JNI_TRUE)
+      if(vlIsA == JNI_TRUE)
       vlPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, w) == JNI_TRUE)
+      if(vlIsW == JNI_TRUE)
       vlPtrBase = wPtrBase;
     else
-      vlPtrBase = (*env)->GetFloatArrayElements(env, vl, NULL);
+      vlPtrBase = GET_ARRAY(Float, critical, vl);
     vlPtr = vlPtrBase + 2*vlIdx;
   }
   jfloat *vrPtrBase = 0, *vrPtr = 0;
   if (vr) {
-    if((*env)->IsSameObject(env, vr, rwork) == JNI_TRUE)
+    if(vrIsRwork == JNI_TRUE)
       vrPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, a) == JNI_TRUE)
+      if(vrIsA == JNI_TRUE)
       vrPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, w) == JNI_TRUE)
+      if(vrIsW == JNI_TRUE)
       vrPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, vl) == JNI_TRUE)
+      if(vrIsVl == JNI_TRUE)
       vrPtrBase = vlPtrBase;
     else
-      vrPtrBase = (*env)->GetFloatArrayElements(env, vr, NULL);
+      vrPtrBase = GET_ARRAY(Float, critical, vr);
     vrPtr = vrPtrBase + 2*vrIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, rwork) == JNI_TRUE)
+    if(workIsRwork == JNI_TRUE)
       workPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+      if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vl) == JNI_TRUE)
+      if(workIsVl == JNI_TRUE)
       workPtrBase = vlPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vr) == JNI_TRUE)
+      if(workIsVr == JNI_TRUE)
       workPtrBase = vrPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + 2*workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   cgeev_(&jobvlChr, &jobvrChr, &n, aPtr, &lda, wPtr, vlPtr, &ldvl, vrPtr, &ldvr, workPtr, &lwork, rworkPtr, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (workPtrBase == aPtrBase)
@@ -3034,7 +3678,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgeev(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(vrPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, vr, vrPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, vr, vrPtrBase, 0);
     if (vrPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (vrPtrBase == aPtrBase)
@@ -3046,7 +3690,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgeev(JNIEnv *env, jclass this,
     vrPtrBase = 0;
   }
   if(vlPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, vl, vlPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, vl, vlPtrBase, 0);
     if (vlPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (vlPtrBase == aPtrBase)
@@ -3056,7 +3700,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgeev(JNIEnv *env, jclass this,
     vlPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (wPtrBase == aPtrBase)
@@ -3064,15 +3708,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgeev(JNIEnv *env, jclass this,
     wPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     if (aPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     aPtrBase = 0;
   }
   if(rworkPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, rwork, rworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, rwork, rworkPtrBase, JNI_ABORT);
     rworkPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3081,88 +3727,106 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeev(JNIEnv *env, jclass this,
 {
   extern void dgeev_(char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobvlChr = (char) jobvl;
   char jobvrChr = (char) jobvr;
+  int info;
+  jboolean wrIsA = (*env)->IsSameObject(env, wr, a);
+  jboolean wiIsA = (*env)->IsSameObject(env, wi, a);
+  jboolean wiIsWr = (*env)->IsSameObject(env, wi, wr);
+  jboolean vlIsA = (*env)->IsSameObject(env, vl, a);
+  jboolean vlIsWr = (*env)->IsSameObject(env, vl, wr);
+  jboolean vlIsWi = (*env)->IsSameObject(env, vl, wi);
+  jboolean vrIsA = (*env)->IsSameObject(env, vr, a);
+  jboolean vrIsWr = (*env)->IsSameObject(env, vr, wr);
+  jboolean vrIsWi = (*env)->IsSameObject(env, vr, wi);
+  jboolean vrIsVl = (*env)->IsSameObject(env, vr, vl);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsWr = (*env)->IsSameObject(env, work, wr);
+  jboolean workIsWi = (*env)->IsSameObject(env, work, wi);
+  jboolean workIsVl = (*env)->IsSameObject(env, work, vl);
+  jboolean workIsVr = (*env)->IsSameObject(env, work, vr);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *wrPtrBase = 0, *wrPtr = 0;
   if (wr) {
-    if((*env)->IsSameObject(env, wr, a) == JNI_TRUE)
+    if(wrIsA == JNI_TRUE)
       wrPtrBase = aPtrBase;
     else
-      wrPtrBase = (*env)->GetDoubleArrayElements(env, wr, NULL);
+      wrPtrBase = GET_ARRAY(Double, critical, wr);
     wrPtr = wrPtrBase + wrIdx;
   }
   jdouble *wiPtrBase = 0, *wiPtr = 0;
   if (wi) {
-    if((*env)->IsSameObject(env, wi, a) == JNI_TRUE)
+    if(wiIsA == JNI_TRUE)
       wiPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, wi, wr) == JNI_TRUE)
+      if(wiIsWr == JNI_TRUE)
       wiPtrBase = wrPtrBase;
     else
-      wiPtrBase = (*env)->GetDoubleArrayElements(env, wi, NULL);
+      wiPtrBase = GET_ARRAY(Double, critical, wi);
     wiPtr = wiPtrBase + wiIdx;
   }
   jdouble *vlPtrBase = 0, *vlPtr = 0;
   if (vl) {
-    if((*env)->IsSameObject(env, vl, a) == JNI_TRUE)
+    if(vlIsA == JNI_TRUE)
       vlPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, wr) == JNI_TRUE)
+      if(vlIsWr == JNI_TRUE)
       vlPtrBase = wrPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, wi) == JNI_TRUE)
+      if(vlIsWi == JNI_TRUE)
       vlPtrBase = wiPtrBase;
     else
-      vlPtrBase = (*env)->GetDoubleArrayElements(env, vl, NULL);
+      vlPtrBase = GET_ARRAY(Double, critical, vl);
     vlPtr = vlPtrBase + vlIdx;
   }
   jdouble *vrPtrBase = 0, *vrPtr = 0;
   if (vr) {
-    if((*env)->IsSameObject(env, vr, a) == JNI_TRUE)
+    if(vrIsA == JNI_TRUE)
       vrPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, wr) == JNI_TRUE)
+      if(vrIsWr == JNI_TRUE)
       vrPtrBase = wrPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, wi) == JNI_TRUE)
+      if(vrIsWi == JNI_TRUE)
       vrPtrBase = wiPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, vl) == JNI_TRUE)
+      if(vrIsVl == JNI_TRUE)
       vrPtrBase = vlPtrBase;
     else
-      vrPtrBase = (*env)->GetDoubleArrayElements(env, vr, NULL);
+      vrPtrBase = GET_ARRAY(Double, critical, vr);
     vrPtr = vrPtrBase + vrIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, wr) == JNI_TRUE)
+      if(workIsWr == JNI_TRUE)
       workPtrBase = wrPtrBase;
     else
-      if((*env)->IsSameObject(env, work, wi) == JNI_TRUE)
+      if(workIsWi == JNI_TRUE)
       workPtrBase = wiPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vl) == JNI_TRUE)
+      if(workIsVl == JNI_TRUE)
       workPtrBase = vlPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vr) == JNI_TRUE)
+      if(workIsVr == JNI_TRUE)
       workPtrBase = vrPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dgeev_(&jobvlChr, &jobvrChr, &n, aPtr, &lda, wrPtr, wiPtr, vlPtr, &ldvl, vrPtr, &ldvr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wrPtrBase)
@@ -3176,7 +3840,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeev(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(vrPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, vr, vrPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, vr, vrPtrBase, 0);
     if (vrPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vrPtrBase == wrPtrBase)
@@ -3188,7 +3852,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeev(JNIEnv *env, jclass this,
     vrPtrBase = 0;
   }
   if(vlPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, vl, vlPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, vl, vlPtrBase, 0);
     if (vlPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vlPtrBase == wrPtrBase)
@@ -3198,7 +3862,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeev(JNIEnv *env, jclass this,
     vlPtrBase = 0;
   }
   if(wiPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, wi, wiPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, wi, wiPtrBase, 0);
     if (wiPtrBase == aPtrBase)
       aPtrBase = 0;
     if (wiPtrBase == wrPtrBase)
@@ -3206,15 +3870,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeev(JNIEnv *env, jclass this,
     wiPtrBase = 0;
   }
   if(wrPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, wr, wrPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, wr, wrPtrBase, 0);
     if (wrPtrBase == aPtrBase)
       aPtrBase = 0;
     wrPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3223,88 +3889,106 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeev(JNIEnv *env, jclass this,
 {
   extern void sgeev_(char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobvlChr = (char) jobvl;
   char jobvrChr = (char) jobvr;
+  int info;
+  jboolean wrIsA = (*env)->IsSameObject(env, wr, a);
+  jboolean wiIsA = (*env)->IsSameObject(env, wi, a);
+  jboolean wiIsWr = (*env)->IsSameObject(env, wi, wr);
+  jboolean vlIsA = (*env)->IsSameObject(env, vl, a);
+  jboolean vlIsWr = (*env)->IsSameObject(env, vl, wr);
+  jboolean vlIsWi = (*env)->IsSameObject(env, vl, wi);
+  jboolean vrIsA = (*env)->IsSameObject(env, vr, a);
+  jboolean vrIsWr = (*env)->IsSameObject(env, vr, wr);
+  jboolean vrIsWi = (*env)->IsSameObject(env, vr, wi);
+  jboolean vrIsVl = (*env)->IsSameObject(env, vr, vl);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsWr = (*env)->IsSameObject(env, work, wr);
+  jboolean workIsWi = (*env)->IsSameObject(env, work, wi);
+  jboolean workIsVl = (*env)->IsSameObject(env, work, vl);
+  jboolean workIsVr = (*env)->IsSameObject(env, work, vr);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *wrPtrBase = 0, *wrPtr = 0;
   if (wr) {
-    if((*env)->IsSameObject(env, wr, a) == JNI_TRUE)
+    if(wrIsA == JNI_TRUE)
       wrPtrBase = aPtrBase;
     else
-      wrPtrBase = (*env)->GetFloatArrayElements(env, wr, NULL);
+      wrPtrBase = GET_ARRAY(Float, critical, wr);
     wrPtr = wrPtrBase + wrIdx;
   }
   jfloat *wiPtrBase = 0, *wiPtr = 0;
   if (wi) {
-    if((*env)->IsSameObject(env, wi, a) == JNI_TRUE)
+    if(wiIsA == JNI_TRUE)
       wiPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, wi, wr) == JNI_TRUE)
+      if(wiIsWr == JNI_TRUE)
       wiPtrBase = wrPtrBase;
     else
-      wiPtrBase = (*env)->GetFloatArrayElements(env, wi, NULL);
+      wiPtrBase = GET_ARRAY(Float, critical, wi);
     wiPtr = wiPtrBase + wiIdx;
   }
   jfloat *vlPtrBase = 0, *vlPtr = 0;
   if (vl) {
-    if((*env)->IsSameObject(env, vl, a) == JNI_TRUE)
+    if(vlIsA == JNI_TRUE)
       vlPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, wr) == JNI_TRUE)
+      if(vlIsWr == JNI_TRUE)
       vlPtrBase = wrPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, wi) == JNI_TRUE)
+      if(vlIsWi == JNI_TRUE)
       vlPtrBase = wiPtrBase;
     else
-      vlPtrBase = (*env)->GetFloatArrayElements(env, vl, NULL);
+      vlPtrBase = GET_ARRAY(Float, critical, vl);
     vlPtr = vlPtrBase + vlIdx;
   }
   jfloat *vrPtrBase = 0, *vrPtr = 0;
   if (vr) {
-    if((*env)->IsSameObject(env, vr, a) == JNI_TRUE)
+    if(vrIsA == JNI_TRUE)
       vrPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, wr) == JNI_TRUE)
+      if(vrIsWr == JNI_TRUE)
       vrPtrBase = wrPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, wi) == JNI_TRUE)
+      if(vrIsWi == JNI_TRUE)
       vrPtrBase = wiPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, vl) == JNI_TRUE)
+      if(vrIsVl == JNI_TRUE)
       vrPtrBase = vlPtrBase;
     else
-      vrPtrBase = (*env)->GetFloatArrayElements(env, vr, NULL);
+      vrPtrBase = GET_ARRAY(Float, critical, vr);
     vrPtr = vrPtrBase + vrIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, wr) == JNI_TRUE)
+      if(workIsWr == JNI_TRUE)
       workPtrBase = wrPtrBase;
     else
-      if((*env)->IsSameObject(env, work, wi) == JNI_TRUE)
+      if(workIsWi == JNI_TRUE)
       workPtrBase = wiPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vl) == JNI_TRUE)
+      if(workIsVl == JNI_TRUE)
       workPtrBase = vlPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vr) == JNI_TRUE)
+      if(workIsVr == JNI_TRUE)
       workPtrBase = vrPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sgeev_(&jobvlChr, &jobvrChr, &n, aPtr, &lda, wrPtr, wiPtr, vlPtr, &ldvl, vrPtr, &ldvr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == wrPtrBase)
@@ -3318,7 +4002,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeev(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(vrPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, vr, vrPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, vr, vrPtrBase, 0);
     if (vrPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vrPtrBase == wrPtrBase)
@@ -3330,7 +4014,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeev(JNIEnv *env, jclass this,
     vrPtrBase = 0;
   }
   if(vlPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, vl, vlPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, vl, vlPtrBase, 0);
     if (vlPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vlPtrBase == wrPtrBase)
@@ -3340,7 +4024,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeev(JNIEnv *env, jclass this,
     vlPtrBase = 0;
   }
   if(wiPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, wi, wiPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, wi, wiPtrBase, 0);
     if (wiPtrBase == aPtrBase)
       aPtrBase = 0;
     if (wiPtrBase == wrPtrBase)
@@ -3348,15 +4032,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeev(JNIEnv *env, jclass this,
     wiPtrBase = 0;
   }
   if(wrPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, wr, wrPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, wr, wrPtrBase, 0);
     if (wrPtrBase == aPtrBase)
       aPtrBase = 0;
     wrPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3365,88 +4051,106 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgeev(JNIEnv *env, jclass this,
 {
   extern void zgeev_(char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobvlChr = (char) jobvl;
   char jobvrChr = (char) jobvr;
+  int info;
+  jboolean aIsRwork = (*env)->IsSameObject(env, a, rwork);
+  jboolean wIsRwork = (*env)->IsSameObject(env, w, rwork);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean vlIsRwork = (*env)->IsSameObject(env, vl, rwork);
+  jboolean vlIsA = (*env)->IsSameObject(env, vl, a);
+  jboolean vlIsW = (*env)->IsSameObject(env, vl, w);
+  jboolean vrIsRwork = (*env)->IsSameObject(env, vr, rwork);
+  jboolean vrIsA = (*env)->IsSameObject(env, vr, a);
+  jboolean vrIsW = (*env)->IsSameObject(env, vr, w);
+  jboolean vrIsVl = (*env)->IsSameObject(env, vr, vl);
+  jboolean workIsRwork = (*env)->IsSameObject(env, work, rwork);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsVl = (*env)->IsSameObject(env, work, vl);
+  jboolean workIsVr = (*env)->IsSameObject(env, work, vr);
   jdouble *rworkPtrBase = 0, *rworkPtr = 0;
   if (rwork) {
-    rworkPtrBase = (*env)->GetDoubleArrayElements(env, rwork, NULL);
+    rworkPtrBase = GET_ARRAY(Double, critical, rwork);
     rworkPtr = rworkPtrBase + rworkIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, rwork) == JNI_TRUE)
+    if(aIsRwork == JNI_TRUE)
       aPtrBase = rworkPtrBase;
     else
-      aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + 2*aIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, rwork) == JNI_TRUE)
+    if(wIsRwork == JNI_TRUE)
       wPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+      if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + 2*wIdx;
   }
   jdouble *vlPtrBase = 0, *vlPtr = 0;
   if (vl) {
-    if((*env)->IsSameObject(env, vl, rwork) == JNI_TRUE)
+    if(vlIsRwork == JNI_TRUE)
       vlPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, a) == JNI_TRUE)
+      if(vlIsA == JNI_TRUE)
       vlPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vl, w) == JNI_TRUE)
+      if(vlIsW == JNI_TRUE)
       vlPtrBase = wPtrBase;
     else
-      vlPtrBase = (*env)->GetDoubleArrayElements(env, vl, NULL);
+      vlPtrBase = GET_ARRAY(Double, critical, vl);
     vlPtr = vlPtrBase + 2*vlIdx;
   }
   jdouble *vrPtrBase = 0, *vrPtr = 0;
   if (vr) {
-    if((*env)->IsSameObject(env, vr, rwork) == JNI_TRUE)
+    if(vrIsRwork == JNI_TRUE)
       vrPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, a) == JNI_TRUE)
+      if(vrIsA == JNI_TRUE)
       vrPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, w) == JNI_TRUE)
+      if(vrIsW == JNI_TRUE)
       vrPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, vr, vl) == JNI_TRUE)
+      if(vrIsVl == JNI_TRUE)
       vrPtrBase = vlPtrBase;
     else
-      vrPtrBase = (*env)->GetDoubleArrayElements(env, vr, NULL);
+      vrPtrBase = GET_ARRAY(Double, critical, vr);
     vrPtr = vrPtrBase + 2*vrIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, rwork) == JNI_TRUE)
+    if(workIsRwork == JNI_TRUE)
       workPtrBase = rworkPtrBase;
     else
-      if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+      if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vl) == JNI_TRUE)
+      if(workIsVl == JNI_TRUE)
       workPtrBase = vlPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vr) == JNI_TRUE)
+      if(workIsVr == JNI_TRUE)
       workPtrBase = vrPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + 2*workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   zgeev_(&jobvlChr, &jobvrChr, &n, aPtr, &lda, wPtr, vlPtr, &ldvl, vrPtr, &ldvr, workPtr, &lwork, rworkPtr, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (workPtrBase == aPtrBase)
@@ -3460,7 +4164,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgeev(JNIEnv *env, jclass this,
     workPtrBase = 0;
   }
   if(vrPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, vr, vrPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, vr, vrPtrBase, 0);
     if (vrPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (vrPtrBase == aPtrBase)
@@ -3472,7 +4176,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgeev(JNIEnv *env, jclass this,
     vrPtrBase = 0;
   }
   if(vlPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, vl, vlPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, vl, vlPtrBase, 0);
     if (vlPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (vlPtrBase == aPtrBase)
@@ -3482,7 +4186,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgeev(JNIEnv *env, jclass this,
     vlPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     if (wPtrBase == aPtrBase)
@@ -3490,15 +4194,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgeev(JNIEnv *env, jclass this,
     wPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     if (aPtrBase == rworkPtrBase)
       rworkPtrBase = 0;
     aPtrBase = 0;
   }
   if(rworkPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, rwork, rworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, rwork, rworkPtrBase, JNI_ABORT);
     rworkPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3507,27 +4213,32 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgetrf(JNIEnv *env, jclass this
 {
   extern void dgetrf_(jint *, jint *, jdouble *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *ipivPtrBase = 0, *ipivPtr = 0;
   if (ipiv) {
-    ipivPtrBase = (*env)->GetIntArrayElements(env, ipiv, NULL);
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
     ipivPtr = ipivPtrBase + ipivIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dgetrf_(&m, &n, aPtr, &lda, ipivPtr, &info);
+  insideCriticalSection = 0;
   if(ipivPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ipiv, ipivPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, 0);
     ipivPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3536,27 +4247,32 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgetrf(JNIEnv *env, jclass this
 {
   extern void sgetrf_(jint *, jint *, jfloat *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *ipivPtrBase = 0, *ipivPtr = 0;
   if (ipiv) {
-    ipivPtrBase = (*env)->GetIntArrayElements(env, ipiv, NULL);
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
     ipivPtr = ipivPtrBase + ipivIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sgetrf_(&m, &n, aPtr, &lda, ipivPtr, &info);
+  insideCriticalSection = 0;
   if(ipivPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ipiv, ipivPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, 0);
     ipivPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3565,19 +4281,24 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpotrf(JNIEnv *env, jclass this
 {
   extern void dpotrf_(char *, jint *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char uploChr = (char) uplo;
+  int info;
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dpotrf_(&uploChr, &n, aPtr, &lda, &info);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -3586,231 +4307,1768 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_spotrf(JNIEnv *env, jclass this
 {
   extern void spotrf_(char *, jint *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char uploChr = (char) uplo;
+  int info;
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   spotrf_(&uploChr, &n, aPtr, &lda, &info);
+  insideCriticalSection = 0;
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
 
-JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork, jfloatArray rwork, jint rworkIdx)
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgetrs(JNIEnv *env, jclass this, jchar trans, jint n, jint nrhs, jdoubleArray a, jint aIdx, jint lda, jintArray ipiv, jint ipivIdx, jdoubleArray b, jint bIdx, jint ldb)
 {
-  extern void cgesvd_(char *, char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, int *);
+  extern void dgetrs_(char *, jint *, jint *, jdouble *, jint *, jint *, jdouble *, jint *, int *);
   
-  char jobuChr = (char) jobu;
-  char jobvtChr = (char) jobvt;
-  jfloat *rworkPtrBase = 0, *rworkPtr = 0;
-  if (rwork) {
-    rworkPtrBase = (*env)->GetFloatArrayElements(env, rwork, NULL);
-    rworkPtr = rworkPtrBase + rworkIdx;
-  }
-  jfloat *aPtrBase = 0, *aPtr = 0;
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char transChr = (char) trans;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, rwork) == JNI_TRUE)
-      aPtrBase = rworkPtrBase;
-    else
-      aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
-    aPtr = aPtrBase + 2*aIdx;
-  }
-  jfloat *sPtrBase = 0, *sPtr = 0;
-  if (s) {
-    if((*env)->IsSameObject(env, s, rwork) == JNI_TRUE)
-      sPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, s, a) == JNI_TRUE)
-      sPtrBase = aPtrBase;
-    else
-      sPtrBase = (*env)->GetFloatArrayElements(env, s, NULL);
-    sPtr = sPtrBase + sIdx;
-  }
-  jfloat *uPtrBase = 0, *uPtr = 0;
-  if (u) {
-    if((*env)->IsSameObject(env, u, rwork) == JNI_TRUE)
-      uPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, u, a) == JNI_TRUE)
-      uPtrBase = aPtrBase;
-    else
-      if((*env)->IsSameObject(env, u, s) == JNI_TRUE)
-      uPtrBase = sPtrBase;
-    else
-      uPtrBase = (*env)->GetFloatArrayElements(env, u, NULL);
-    uPtr = uPtrBase + 2*uIdx;
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
   }
-  jfloat *vtPtrBase = 0, *vtPtr = 0;
-  if (vt) {
-    if((*env)->IsSameObject(env, vt, rwork) == JNI_TRUE)
-      vtPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, vt, a) == JNI_TRUE)
-      vtPtrBase = aPtrBase;
-    else
-      if((*env)->IsSameObject(env, vt, s) == JNI_TRUE)
-      vtPtrBase = sPtrBase;
-    else
-      if((*env)->IsSameObject(env, vt, u) == JNI_TRUE)
-      vtPtrBase = uPtrBase;
-    else
-      vtPtrBase = (*env)->GetFloatArrayElements(env, vt, NULL);
-    vtPtr = vtPtrBase + 2*vtIdx;
+  jint *ipivPtrBase = 0, *ipivPtr = 0;
+  if (ipiv) {
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
+    ipivPtr = ipivPtrBase + ipivIdx;
   }
-  jfloat *workPtrBase = 0, *workPtr = 0;
-  if (work) {
-    if((*env)->IsSameObject(env, work, rwork) == JNI_TRUE)
-      workPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
-      workPtrBase = aPtrBase;
-    else
-      if((*env)->IsSameObject(env, work, s) == JNI_TRUE)
-      workPtrBase = sPtrBase;
-    else
-      if((*env)->IsSameObject(env, work, u) == JNI_TRUE)
-      workPtrBase = uPtrBase;
-    else
-      if((*env)->IsSameObject(env, work, vt) == JNI_TRUE)
-      workPtrBase = vtPtrBase;
+  jdouble *bPtrBase = 0, *bPtr = 0;
+  if (b) {
+    if(bIsA == JNI_TRUE)
+      bPtrBase = aPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
-    workPtr = workPtrBase + 2*workIdx;
+      bPtrBase = GET_ARRAY(Double, critical, b);
+    bPtr = bPtrBase + bIdx;
   }
-  int info;
 
-  cgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, rworkPtr, &info);
-  if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
-    if (workPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
-    if (workPtrBase == aPtrBase)
+  insideCriticalSection = critical;
+  dgetrs_(&transChr, &n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
+  if(bPtrBase) {
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
+    if (bPtrBase == aPtrBase)
       aPtrBase = 0;
-    if (workPtrBase == sPtrBase)
-      sPtrBase = 0;
-    if (workPtrBase == uPtrBase)
-      uPtrBase = 0;
-    if (workPtrBase == vtPtrBase)
-      vtPtrBase = 0;
-    workPtrBase = 0;
+    bPtrBase = 0;
   }
-  if(vtPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, vt, vtPtrBase, 0);
-    if (vtPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
-    if (vtPtrBase == aPtrBase)
-      aPtrBase = 0;
-    if (vtPtrBase == sPtrBase)
-      sPtrBase = 0;
-    if (vtPtrBase == uPtrBase)
-      uPtrBase = 0;
-    vtPtrBase = 0;
+  if(ipivPtrBase) {
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, JNI_ABORT);
+    ipivPtrBase = 0;
   }
-  if(uPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, u, uPtrBase, 0);
-    if (uPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
-    if (uPtrBase == aPtrBase)
-      aPtrBase = 0;
-    if (uPtrBase == sPtrBase)
-      sPtrBase = 0;
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgetrs(JNIEnv *env, jclass this, jchar trans, jint n, jint nrhs, jfloatArray a, jint aIdx, jint lda, jintArray ipiv, jint ipivIdx, jfloatArray b, jint bIdx, jint ldb)
+{
+  extern void sgetrs_(char *, jint *, jint *, jfloat *, jint *, jint *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char transChr = (char) trans;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jint *ipivPtrBase = 0, *ipivPtr = 0;
+  if (ipiv) {
+    ipivPtrBase = GET_ARRAY(Int, critical, ipiv);
+    ipivPtr = ipivPtrBase + ipivIdx;
+  }
+  jfloat *bPtrBase = 0, *bPtr = 0;
+  if (b) {
+    if(bIsA == JNI_TRUE)
+      bPtrBase = aPtrBase;
+    else
+      bPtrBase = GET_ARRAY(Float, critical, b);
+    bPtr = bPtrBase + bIdx;
+  }
+
+  insideCriticalSection = critical;
+  sgetrs_(&transChr, &n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
+  if(bPtrBase) {
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
+    if (bPtrBase == aPtrBase)
+      aPtrBase = 0;
+    bPtrBase = 0;
+  }
+  if(ipivPtrBase) {
+    RELEASE_ARRAY(Int, critical, ipiv, ipivPtrBase, JNI_ABORT);
+    ipivPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpotrs(JNIEnv *env, jclass this, jchar uplo, jint n, jint nrhs, jdoubleArray a, jint aIdx, jint lda, jdoubleArray b, jint bIdx, jint ldb)
+{
+  extern void dpotrs_(char *, jint *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *bPtrBase = 0, *bPtr = 0;
+  if (b) {
+    if(bIsA == JNI_TRUE)
+      bPtrBase = aPtrBase;
+    else
+      bPtrBase = GET_ARRAY(Double, critical, b);
+    bPtr = bPtrBase + bIdx;
+  }
+
+  insideCriticalSection = critical;
+  dpotrs_(&uploChr, &n, &nrhs, aPtr, &lda, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
+  if(bPtrBase) {
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
+    if (bPtrBase == aPtrBase)
+      aPtrBase = 0;
+    bPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_spotrs(JNIEnv *env, jclass this, jchar uplo, jint n, jint nrhs, jfloatArray a, jint aIdx, jint lda, jfloatArray b, jint bIdx, jint ldb)
+{
+  extern void spotrs_(char *, jint *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *bPtrBase = 0, *bPtr = 0;
+  if (b) {
+    if(bIsA == JNI_TRUE)
+      bPtrBase = aPtrBase;
+    else
+      bPtrBase = GET_ARRAY(Float, critical, b);
+    bPtr = bPtrBase + bIdx;
+  }
+
+  insideCriticalSection = critical;
+  spotrs_(&uploChr, &n, &nrhs, aPtr, &lda, bPtr, &ldb, &info);
+  insideCriticalSection = 0;
+  if(bPtrBase) {
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
+    if (bPtrBase == aPtrBase)
+      aPtrBase = 0;
+    bPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgecon(JNIEnv *env, jclass this, jchar norm, jint n, jdoubleArray a, jint aIdx, jint lda, jdouble anorm, jdoubleArray rcond, jint rcondIdx, jdoubleArray work, jint workIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void dgecon_(char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jdouble *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char normChr = (char) norm;
+  int info;
+  jboolean rcondIsA = (*env)->IsSameObject(env, rcond, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsRcond = (*env)->IsSameObject(env, work, rcond);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *rcondPtrBase = 0, *rcondPtr = 0;
+  if (rcond) {
+    if(rcondIsA == JNI_TRUE)
+      rcondPtrBase = aPtrBase;
+    else
+      rcondPtrBase = GET_ARRAY(Double, critical, rcond);
+    rcondPtr = rcondPtrBase + rcondIdx;
+  }
+  jdouble *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsRcond == JNI_TRUE)
+      workPtrBase = rcondPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Double, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  dgecon_(&normChr, &n, aPtr, &lda, &anorm, rcondPtr, workPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == rcondPtrBase)
+      rcondPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(rcondPtrBase) {
+    RELEASE_ARRAY(Double, critical, rcond, rcondPtrBase, 0);
+    if (rcondPtrBase == aPtrBase)
+      aPtrBase = 0;
+    rcondPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgecon(JNIEnv *env, jclass this, jchar norm, jint n, jfloatArray a, jint aIdx, jint lda, jfloat anorm, jfloatArray rcond, jint rcondIdx, jfloatArray work, jint workIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void sgecon_(char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char normChr = (char) norm;
+  int info;
+  jboolean rcondIsA = (*env)->IsSameObject(env, rcond, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsRcond = (*env)->IsSameObject(env, work, rcond);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *rcondPtrBase = 0, *rcondPtr = 0;
+  if (rcond) {
+    if(rcondIsA == JNI_TRUE)
+      rcondPtrBase = aPtrBase;
+    else
+      rcondPtrBase = GET_ARRAY(Float, critical, rcond);
+    rcondPtr = rcondPtrBase + rcondIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsRcond == JNI_TRUE)
+      workPtrBase = rcondPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  sgecon_(&normChr, &n, aPtr, &lda, &anorm, rcondPtr, workPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == rcondPtrBase)
+      rcondPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(rcondPtrBase) {
+    RELEASE_ARRAY(Float, critical, rcond, rcondPtrBase, 0);
+    if (rcondPtrBase == aPtrBase)
+      aPtrBase = 0;
+    rcondPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpocon(JNIEnv *env, jclass this, jchar uplo, jint n, jdoubleArray a, jint aIdx, jint lda, jdouble anorm, jdoubleArray rcond, jint rcondIdx, jdoubleArray work, jint workIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void dpocon_(char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jdouble *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char uploChr = (char) uplo;
+  int info;
+  jboolean rcondIsA = (*env)->IsSameObject(env, rcond, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsRcond = (*env)->IsSameObject(env, work, rcond);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *rcondPtrBase = 0, *rcondPtr = 0;
+  if (rcond) {
+    if(rcondIsA == JNI_TRUE)
+      rcondPtrBase = aPtrBase;
+    else
+      rcondPtrBase = GET_ARRAY(Double, critical, rcond);
+    rcondPtr = rcondPtrBase + rcondIdx;
+  }
+  jdouble *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsRcond == JNI_TRUE)
+      workPtrBase = rcondPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Double, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  dpocon_(&uploChr, &n, aPtr, &lda, &anorm, rcondPtr, workPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == rcondPtrBase)
+      rcondPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(rcondPtrBase) {
+    RELEASE_ARRAY(Double, critical, rcond, rcondPtrBase, 0);
+    if (rcondPtrBase == aPtrBase)
+      aPtrBase = 0;
+    rcondPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_spocon(JNIEnv *env, jclass this, jchar uplo, jint n, jfloatArray a, jint aIdx, jint lda, jfloat anorm, jfloatArray rcond, jint rcondIdx, jfloatArray work, jint workIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void spocon_(char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char uploChr = (char) uplo;
+  int info;
+  jboolean rcondIsA = (*env)->IsSameObject(env, rcond, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsRcond = (*env)->IsSameObject(env, work, rcond);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *rcondPtrBase = 0, *rcondPtr = 0;
+  if (rcond) {
+    if(rcondIsA == JNI_TRUE)
+      rcondPtrBase = aPtrBase;
+    else
+      rcondPtrBase = GET_ARRAY(Float, critical, rcond);
+    rcondPtr = rcondPtrBase + rcondIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsRcond == JNI_TRUE)
+      workPtrBase = rcondPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  spocon_(&uploChr, &n, aPtr, &lda, &anorm, rcondPtr, workPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == rcondPtrBase)
+      rcondPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(rcondPtrBase) {
+    RELEASE_ARRAY(Float, critical, rcond, rcondPtrBase, 0);
+    if (rcondPtrBase == aPtrBase)
+      aPtrBase = 0;
+    rcondPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dtrcon(JNIEnv *env, jclass this, jchar norm, jchar uplo, jchar diag, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray rcond, jint rcondIdx, jdoubleArray work, jint workIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void dtrcon_(char *, char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char normChr = (char) norm;
+  char uploChr = (char) uplo;
+  char diagChr = (char) diag;
+  int info;
+  jboolean rcondIsA = (*env)->IsSameObject(env, rcond, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsRcond = (*env)->IsSameObject(env, work, rcond);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *rcondPtrBase = 0, *rcondPtr = 0;
+  if (rcond) {
+    if(rcondIsA == JNI_TRUE)
+      rcondPtrBase = aPtrBase;
+    else
+      rcondPtrBase = GET_ARRAY(Double, critical, rcond);
+    rcondPtr = rcondPtrBase + rcondIdx;
+  }
+  jdouble *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsRcond == JNI_TRUE)
+      workPtrBase = rcondPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Double, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  dtrcon_(&normChr, &uploChr, &diagChr, &n, aPtr, &lda, rcondPtr, workPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == rcondPtrBase)
+      rcondPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(rcondPtrBase) {
+    RELEASE_ARRAY(Double, critical, rcond, rcondPtrBase, 0);
+    if (rcondPtrBase == aPtrBase)
+      aPtrBase = 0;
+    rcondPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_strcon(JNIEnv *env, jclass this, jchar norm, jchar uplo, jchar diag, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray rcond, jint rcondIdx, jfloatArray work, jint workIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void strcon_(char *, char *, char *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char normChr = (char) norm;
+  char uploChr = (char) uplo;
+  char diagChr = (char) diag;
+  int info;
+  jboolean rcondIsA = (*env)->IsSameObject(env, rcond, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsRcond = (*env)->IsSameObject(env, work, rcond);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *rcondPtrBase = 0, *rcondPtr = 0;
+  if (rcond) {
+    if(rcondIsA == JNI_TRUE)
+      rcondPtrBase = aPtrBase;
+    else
+      rcondPtrBase = GET_ARRAY(Float, critical, rcond);
+    rcondPtr = rcondPtrBase + rcondIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsRcond == JNI_TRUE)
+      workPtrBase = rcondPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  strcon_(&normChr, &uploChr, &diagChr, &n, aPtr, &lda, rcondPtr, workPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == rcondPtrBase)
+      rcondPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(rcondPtrBase) {
+    RELEASE_ARRAY(Float, critical, rcond, rcondPtrBase, 0);
+    if (rcondPtrBase == aPtrBase)
+      aPtrBase = 0;
+    rcondPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork, jfloatArray rwork, jint rworkIdx)
+{
+  extern void cgesvd_(char *, char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobuChr = (char) jobu;
+  char jobvtChr = (char) jobvt;
+  int info;
+  jboolean aIsRwork = (*env)->IsSameObject(env, a, rwork);
+  jboolean sIsRwork = (*env)->IsSameObject(env, s, rwork);
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsRwork = (*env)->IsSameObject(env, u, rwork);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsRwork = (*env)->IsSameObject(env, vt, rwork);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsRwork = (*env)->IsSameObject(env, work, rwork);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jfloat *rworkPtrBase = 0, *rworkPtr = 0;
+  if (rwork) {
+    rworkPtrBase = GET_ARRAY(Float, critical, rwork);
+    rworkPtr = rworkPtrBase + rworkIdx;
+  }
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    if(aIsRwork == JNI_TRUE)
+      aPtrBase = rworkPtrBase;
+    else
+      aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + 2*aIdx;
+  }
+  jfloat *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsRwork == JNI_TRUE)
+      sPtrBase = rworkPtrBase;
+    else
+      if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Float, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jfloat *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsRwork == JNI_TRUE)
+      uPtrBase = rworkPtrBase;
+    else
+      if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Float, critical, u);
+    uPtr = uPtrBase + 2*uIdx;
+  }
+  jfloat *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsRwork == JNI_TRUE)
+      vtPtrBase = rworkPtrBase;
+    else
+      if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Float, critical, vt);
+    vtPtr = vtPtrBase + 2*vtIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsRwork == JNI_TRUE)
+      workPtrBase = rworkPtrBase;
+    else
+      if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + 2*workIdx;
+  }
+
+  insideCriticalSection = critical;
+  cgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, rworkPtr, &info);
+  insideCriticalSection = 0;
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Float, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Float, critical, u, uPtrBase, 0);
+    if (uPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
+    uPtrBase = 0;
+  }
+  if(sPtrBase) {
+    RELEASE_ARRAY(Float, critical, s, sPtrBase, 0);
+    if (sPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (sPtrBase == aPtrBase)
+      aPtrBase = 0;
+    sPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
+    if (aPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    aPtrBase = 0;
+  }
+  if(rworkPtrBase) {
+    RELEASE_ARRAY(Float, critical, rwork, rworkPtrBase, JNI_ABORT);
+    rworkPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork)
+{
+  extern void dgesvd_(char *, char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobuChr = (char) jobu;
+  char jobvtChr = (char) jobvt;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Double, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jdouble *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Double, critical, u);
+    uPtr = uPtrBase + uIdx;
+  }
+  jdouble *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Double, critical, vt);
+    vtPtr = vtPtrBase + vtIdx;
+  }
+  jdouble *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Double, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+
+  insideCriticalSection = critical;
+  dgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
+  if(workPtrBase) {
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Double, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Double, critical, u, uPtrBase, 0);
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
+    uPtrBase = 0;
+  }
+  if(sPtrBase) {
+    RELEASE_ARRAY(Double, critical, s, sPtrBase, 0);
+    if (sPtrBase == aPtrBase)
+      aPtrBase = 0;
+    sPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork)
+{
+  extern void sgesvd_(char *, char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobuChr = (char) jobu;
+  char jobvtChr = (char) jobvt;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Float, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jfloat *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Float, critical, u);
+    uPtr = uPtrBase + uIdx;
+  }
+  jfloat *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Float, critical, vt);
+    vtPtr = vtPtrBase + vtIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+
+  insideCriticalSection = critical;
+  sgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Float, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Float, critical, u, uPtrBase, 0);
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
+    uPtrBase = 0;
+  }
+  if(sPtrBase) {
+    RELEASE_ARRAY(Float, critical, s, sPtrBase, 0);
+    if (sPtrBase == aPtrBase)
+      aPtrBase = 0;
+    sPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork, jdoubleArray rwork, jint rworkIdx)
+{
+  extern void zgesvd_(char *, char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobuChr = (char) jobu;
+  char jobvtChr = (char) jobvt;
+  int info;
+  jboolean aIsRwork = (*env)->IsSameObject(env, a, rwork);
+  jboolean sIsRwork = (*env)->IsSameObject(env, s, rwork);
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsRwork = (*env)->IsSameObject(env, u, rwork);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsRwork = (*env)->IsSameObject(env, vt, rwork);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsRwork = (*env)->IsSameObject(env, work, rwork);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jdouble *rworkPtrBase = 0, *rworkPtr = 0;
+  if (rwork) {
+    rworkPtrBase = GET_ARRAY(Double, critical, rwork);
+    rworkPtr = rworkPtrBase + rworkIdx;
+  }
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    if(aIsRwork == JNI_TRUE)
+      aPtrBase = rworkPtrBase;
+    else
+      aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + 2*aIdx;
+  }
+  jdouble *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsRwork == JNI_TRUE)
+      sPtrBase = rworkPtrBase;
+    else
+      if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Double, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jdouble *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsRwork == JNI_TRUE)
+      uPtrBase = rworkPtrBase;
+    else
+      if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Double, critical, u);
+    uPtr = uPtrBase + 2*uIdx;
+  }
+  jdouble *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsRwork == JNI_TRUE)
+      vtPtrBase = rworkPtrBase;
+    else
+      if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Double, critical, vt);
+    vtPtr = vtPtrBase + 2*vtIdx;
+  }
+  jdouble *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsRwork == JNI_TRUE)
+      workPtrBase = rworkPtrBase;
+    else
+      if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Double, critical, work);
+    workPtr = workPtrBase + 2*workIdx;
+  }
+
+  insideCriticalSection = critical;
+  zgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, rworkPtr, &info);
+  insideCriticalSection = 0;
+  if(workPtrBase) {
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
+    if (workPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Double, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Double, critical, u, uPtrBase, 0);
+    if (uPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
+    uPtrBase = 0;
+  }
+  if(sPtrBase) {
+    RELEASE_ARRAY(Double, critical, s, sPtrBase, 0);
+    if (sPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    if (sPtrBase == aPtrBase)
+      aPtrBase = 0;
+    sPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
+    if (aPtrBase == rworkPtrBase)
+      rworkPtrBase = 0;
+    aPtrBase = 0;
+  }
+  if(rworkPtrBase) {
+    RELEASE_ARRAY(Double, critical, rwork, rworkPtrBase, JNI_ABORT);
+    rworkPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgesdd(JNIEnv *env, jclass this, jchar jobz, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork, jfloatArray rwork, jint rworkIdx, jintArray iwork, jint iworkIdx)
+{
+  extern void cgesdd_(char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobzChr = (char) jobz;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jboolean rworkIsA = (*env)->IsSameObject(env, rwork, a);
+  jboolean rworkIsS = (*env)->IsSameObject(env, rwork, s);
+  jboolean rworkIsU = (*env)->IsSameObject(env, rwork, u);
+  jboolean rworkIsVt = (*env)->IsSameObject(env, rwork, vt);
+  jboolean rworkIsWork = (*env)->IsSameObject(env, rwork, work);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Float, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jfloat *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Float, critical, u);
+    uPtr = uPtrBase + uIdx;
+  }
+  jfloat *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Float, critical, vt);
+    vtPtr = vtPtrBase + vtIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jfloat *rworkPtrBase = 0, *rworkPtr = 0;
+  if (rwork) {
+    if(rworkIsA == JNI_TRUE)
+      rworkPtrBase = aPtrBase;
+    else
+      if(rworkIsS == JNI_TRUE)
+      rworkPtrBase = sPtrBase;
+    else
+      if(rworkIsU == JNI_TRUE)
+      rworkPtrBase = uPtrBase;
+    else
+      if(rworkIsVt == JNI_TRUE)
+      rworkPtrBase = vtPtrBase;
+    else
+      if(rworkIsWork == JNI_TRUE)
+      rworkPtrBase = workPtrBase;
+    else
+      rworkPtrBase = GET_ARRAY(Float, critical, rwork);
+    rworkPtr = rworkPtrBase + rworkIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  cgesdd_(&jobzChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, rworkPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(rworkPtrBase) {
+    RELEASE_ARRAY(Float, critical, rwork, rworkPtrBase, 0);
+    if (rworkPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (rworkPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (rworkPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (rworkPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    if (rworkPtrBase == workPtrBase)
+      workPtrBase = 0;
+    rworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Float, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Float, critical, u, uPtrBase, 0);
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
+    uPtrBase = 0;
+  }
+  if(sPtrBase) {
+    RELEASE_ARRAY(Float, critical, s, sPtrBase, 0);
+    if (sPtrBase == aPtrBase)
+      aPtrBase = 0;
+    sPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesdd(JNIEnv *env, jclass this, jchar jobz, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork, jintArray iwork, jint iworkIdx)
+{
+  extern void dgesdd_(char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobzChr = (char) jobz;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jdouble *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Double, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jdouble *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Double, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jdouble *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Double, critical, u);
+    uPtr = uPtrBase + uIdx;
+  }
+  jdouble *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Double, critical, vt);
+    vtPtr = vtPtrBase + vtIdx;
+  }
+  jdouble *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Double, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  dgesdd_(&jobzChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Double, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Double, critical, u, uPtrBase, 0);
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
+    uPtrBase = 0;
+  }
+  if(sPtrBase) {
+    RELEASE_ARRAY(Double, critical, s, sPtrBase, 0);
+    if (sPtrBase == aPtrBase)
+      aPtrBase = 0;
+    sPtrBase = 0;
+  }
+  if(aPtrBase) {
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
+    aPtrBase = 0;
+  }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesdd(JNIEnv *env, jclass this, jchar jobz, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork, jintArray iwork, jint iworkIdx)
+{
+  extern void sgesdd_(char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, jint *, int *);
+  
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobzChr = (char) jobz;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jfloat *aPtrBase = 0, *aPtr = 0;
+  if (a) {
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
+  }
+  jfloat *sPtrBase = 0, *sPtr = 0;
+  if (s) {
+    if(sIsA == JNI_TRUE)
+      sPtrBase = aPtrBase;
+    else
+      sPtrBase = GET_ARRAY(Float, critical, s);
+    sPtr = sPtrBase + sIdx;
+  }
+  jfloat *uPtrBase = 0, *uPtr = 0;
+  if (u) {
+    if(uIsA == JNI_TRUE)
+      uPtrBase = aPtrBase;
+    else
+      if(uIsS == JNI_TRUE)
+      uPtrBase = sPtrBase;
+    else
+      uPtrBase = GET_ARRAY(Float, critical, u);
+    uPtr = uPtrBase + uIdx;
+  }
+  jfloat *vtPtrBase = 0, *vtPtr = 0;
+  if (vt) {
+    if(vtIsA == JNI_TRUE)
+      vtPtrBase = aPtrBase;
+    else
+      if(vtIsS == JNI_TRUE)
+      vtPtrBase = sPtrBase;
+    else
+      if(vtIsU == JNI_TRUE)
+      vtPtrBase = uPtrBase;
+    else
+      vtPtrBase = GET_ARRAY(Float, critical, vt);
+    vtPtr = vtPtrBase + vtIdx;
+  }
+  jfloat *workPtrBase = 0, *workPtr = 0;
+  if (work) {
+    if(workIsA == JNI_TRUE)
+      workPtrBase = aPtrBase;
+    else
+      if(workIsS == JNI_TRUE)
+      workPtrBase = sPtrBase;
+    else
+      if(workIsU == JNI_TRUE)
+      workPtrBase = uPtrBase;
+    else
+      if(workIsVt == JNI_TRUE)
+      workPtrBase = vtPtrBase;
+    else
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
+
+  insideCriticalSection = critical;
+  sgesdd_(&jobzChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(workPtrBase) {
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
+    if (workPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (workPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (workPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (workPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    workPtrBase = 0;
+  }
+  if(vtPtrBase) {
+    RELEASE_ARRAY(Float, critical, vt, vtPtrBase, 0);
+    if (vtPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (vtPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (vtPtrBase == uPtrBase)
+      uPtrBase = 0;
+    vtPtrBase = 0;
+  }
+  if(uPtrBase) {
+    RELEASE_ARRAY(Float, critical, u, uPtrBase, 0);
+    if (uPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (uPtrBase == sPtrBase)
+      sPtrBase = 0;
     uPtrBase = 0;
   }
   if(sPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, s, sPtrBase, 0);
-    if (sPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, s, sPtrBase, 0);
     if (sPtrBase == aPtrBase)
       aPtrBase = 0;
     sPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
-    if (aPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
-  if(rworkPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, rwork, rworkPtrBase, JNI_ABORT);
-    rworkPtrBase = 0;
-  }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
 
-JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork)
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesdd(JNIEnv *env, jclass this, jchar jobz, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork, jdoubleArray rwork, jint rworkIdx, jintArray iwork, jint iworkIdx)
 {
-  extern void dgesvd_(char *, char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
+  extern void zgesdd_(char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
   
-  char jobuChr = (char) jobu;
-  char jobvtChr = (char) jobvt;
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  char jobzChr = (char) jobz;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jboolean rworkIsA = (*env)->IsSameObject(env, rwork, a);
+  jboolean rworkIsS = (*env)->IsSameObject(env, rwork, s);
+  jboolean rworkIsU = (*env)->IsSameObject(env, rwork, u);
+  jboolean rworkIsVt = (*env)->IsSameObject(env, rwork, vt);
+  jboolean rworkIsWork = (*env)->IsSameObject(env, rwork, work);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *sPtrBase = 0, *sPtr = 0;
   if (s) {
-    if((*env)->IsSameObject(env, s, a) == JNI_TRUE)
+    if(sIsA == JNI_TRUE)
       sPtrBase = aPtrBase;
     else
-      sPtrBase = (*env)->GetDoubleArrayElements(env, s, NULL);
+      sPtrBase = GET_ARRAY(Double, critical, s);
     sPtr = sPtrBase + sIdx;
   }
   jdouble *uPtrBase = 0, *uPtr = 0;
   if (u) {
-    if((*env)->IsSameObject(env, u, a) == JNI_TRUE)
+    if(uIsA == JNI_TRUE)
       uPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, u, s) == JNI_TRUE)
+      if(uIsS == JNI_TRUE)
       uPtrBase = sPtrBase;
     else
-      uPtrBase = (*env)->GetDoubleArrayElements(env, u, NULL);
+      uPtrBase = GET_ARRAY(Double, critical, u);
     uPtr = uPtrBase + uIdx;
   }
   jdouble *vtPtrBase = 0, *vtPtr = 0;
   if (vt) {
-    if((*env)->IsSameObject(env, vt, a) == JNI_TRUE)
+    if(vtIsA == JNI_TRUE)
       vtPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vt, s) == JNI_TRUE)
+      if(vtIsS == JNI_TRUE)
       vtPtrBase = sPtrBase;
     else
-      if((*env)->IsSameObject(env, vt, u) == JNI_TRUE)
+      if(vtIsU == JNI_TRUE)
       vtPtrBase = uPtrBase;
     else
-      vtPtrBase = (*env)->GetDoubleArrayElements(env, vt, NULL);
+      vtPtrBase = GET_ARRAY(Double, critical, vt);
     vtPtr = vtPtrBase + vtIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, s) == JNI_TRUE)
+      if(workIsS == JNI_TRUE)
       workPtrBase = sPtrBase;
     else
-      if((*env)->IsSameObject(env, work, u) == JNI_TRUE)
+      if(workIsU == JNI_TRUE)
       workPtrBase = uPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vt) == JNI_TRUE)
+      if(workIsVt == JNI_TRUE)
       workPtrBase = vtPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
+  jdouble *rworkPtrBase = 0, *rworkPtr = 0;
+  if (rwork) {
+    if(rworkIsA == JNI_TRUE)
+      rworkPtrBase = aPtrBase;
+    else
+      if(rworkIsS == JNI_TRUE)
+      rworkPtrBase = sPtrBase;
+    else
+      if(rworkIsU == JNI_TRUE)
+      rworkPtrBase = uPtrBase;
+    else
+      if(rworkIsVt == JNI_TRUE)
+      rworkPtrBase = vtPtrBase;
+    else
+      if(rworkIsWork == JNI_TRUE)
+      rworkPtrBase = workPtrBase;
+    else
+      rworkPtrBase = GET_ARRAY(Double, critical, rwork);
+    rworkPtr = rworkPtrBase + rworkIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
 
-  dgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, &info);
+  insideCriticalSection = critical;
+  zgesdd_(&jobzChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, rworkPtr, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    iworkPtrBase = 0;
+  }
+  if(rworkPtrBase) {
+    RELEASE_ARRAY(Double, critical, rwork, rworkPtrBase, 0);
+    if (rworkPtrBase == aPtrBase)
+      aPtrBase = 0;
+    if (rworkPtrBase == sPtrBase)
+      sPtrBase = 0;
+    if (rworkPtrBase == uPtrBase)
+      uPtrBase = 0;
+    if (rworkPtrBase == vtPtrBase)
+      vtPtrBase = 0;
+    if (rworkPtrBase == workPtrBase)
+      workPtrBase = 0;
+    rworkPtrBase = 0;
+  }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == sPtrBase)
@@ -3822,7 +6080,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(vtPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, vt, vtPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, vt, vtPtrBase, 0);
     if (vtPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vtPtrBase == sPtrBase)
@@ -3832,7 +6090,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvd(JNIEnv *env, jclass this
     vtPtrBase = 0;
   }
   if(uPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, u, uPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, u, uPtrBase, 0);
     if (uPtrBase == aPtrBase)
       aPtrBase = 0;
     if (uPtrBase == sPtrBase)
@@ -3840,85 +6098,121 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvd(JNIEnv *env, jclass this
     uPtrBase = 0;
   }
   if(sPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, s, sPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, s, sPtrBase, 0);
     if (sPtrBase == aPtrBase)
       aPtrBase = 0;
     sPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
 
-JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork)
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvdx(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jchar range, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdouble vl, jdouble vu, jint il, jint iu, jintArray ns, jint nsIdx, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork, jintArray iwork, jint iworkIdx)
 {
-  extern void sgesvd_(char *, char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, int *);
+  extern void dgesvdx_(char *, char *, char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobuChr = (char) jobu;
   char jobvtChr = (char) jobvt;
-  jfloat *aPtrBase = 0, *aPtr = 0;
+  char rangeChr = (char) range;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jboolean iworkIsNs = (*env)->IsSameObject(env, iwork, ns);
+  jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
-  jfloat *sPtrBase = 0, *sPtr = 0;
+  jint *nsPtrBase = 0, *nsPtr = 0;
+  if (ns) {
+    nsPtrBase = GET_ARRAY(Int, critical, ns);
+    nsPtr = nsPtrBase + nsIdx;
+  }
+  jdouble *sPtrBase = 0, *sPtr = 0;
   if (s) {
-    if((*env)->IsSameObject(env, s, a) == JNI_TRUE)
+    if(sIsA == JNI_TRUE)
       sPtrBase = aPtrBase;
     else
-      sPtrBase = (*env)->GetFloatArrayElements(env, s, NULL);
+      sPtrBase = GET_ARRAY(Double, critical, s);
     sPtr = sPtrBase + sIdx;
   }
-  jfloat *uPtrBase = 0, *uPtr = 0;
+  jdouble *uPtrBase = 0, *uPtr = 0;
   if (u) {
-    if((*env)->IsSameObject(env, u, a) == JNI_TRUE)
+    if(uIsA == JNI_TRUE)
       uPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, u, s) == JNI_TRUE)
+      if(uIsS == JNI_TRUE)
       uPtrBase = sPtrBase;
     else
-      uPtrBase = (*env)->GetFloatArrayElements(env, u, NULL);
+      uPtrBase = GET_ARRAY(Double, critical, u);
     uPtr = uPtrBase + uIdx;
   }
-  jfloat *vtPtrBase = 0, *vtPtr = 0;
+  jdouble *vtPtrBase = 0, *vtPtr = 0;
   if (vt) {
-    if((*env)->IsSameObject(env, vt, a) == JNI_TRUE)
+    if(vtIsA == JNI_TRUE)
       vtPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vt, s) == JNI_TRUE)
+      if(vtIsS == JNI_TRUE)
       vtPtrBase = sPtrBase;
     else
-      if((*env)->IsSameObject(env, vt, u) == JNI_TRUE)
+      if(vtIsU == JNI_TRUE)
       vtPtrBase = uPtrBase;
     else
-      vtPtrBase = (*env)->GetFloatArrayElements(env, vt, NULL);
+      vtPtrBase = GET_ARRAY(Double, critical, vt);
     vtPtr = vtPtrBase + vtIdx;
   }
-  jfloat *workPtrBase = 0, *workPtr = 0;
+  jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, s) == JNI_TRUE)
+      if(workIsS == JNI_TRUE)
       workPtrBase = sPtrBase;
     else
-      if((*env)->IsSameObject(env, work, u) == JNI_TRUE)
+      if(workIsU == JNI_TRUE)
       workPtrBase = uPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vt) == JNI_TRUE)
+      if(workIsVt == JNI_TRUE)
       workPtrBase = vtPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    if(iworkIsNs == JNI_TRUE)
+      iworkPtrBase = nsPtrBase;
+    else
+      iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
+  }
 
-  sgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, &info);
+  insideCriticalSection = critical;
+  dgesvdx_(&jobuChr, &jobvtChr, &rangeChr, &m, &n, aPtr, &lda, &vl, &vu, &il, &iu, nsPtr, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    if (iworkPtrBase == nsPtrBase)
+      nsPtrBase = 0;
+    iworkPtrBase = 0;
+  }
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == sPtrBase)
@@ -3930,7 +6224,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(vtPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, vt, vtPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, vt, vtPtrBase, 0);
     if (vtPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vtPtrBase == sPtrBase)
@@ -3940,7 +6234,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvd(JNIEnv *env, jclass this
     vtPtrBase = 0;
   }
   if(uPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, u, uPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, u, uPtrBase, 0);
     if (uPtrBase == aPtrBase)
       aPtrBase = 0;
     if (uPtrBase == sPtrBase)
@@ -3948,107 +6242,125 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvd(JNIEnv *env, jclass this
     uPtrBase = 0;
   }
   if(sPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, s, sPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, s, sPtrBase, 0);
     if (sPtrBase == aPtrBase)
       aPtrBase = 0;
     sPtrBase = 0;
   }
+  if(nsPtrBase) {
+    RELEASE_ARRAY(Int, critical, ns, nsPtrBase, 0);
+    nsPtrBase = 0;
+  }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
 
-JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesvd(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jint m, jint n, jdoubleArray a, jint aIdx, jint lda, jdoubleArray s, jint sIdx, jdoubleArray u, jint uIdx, jint ldu, jdoubleArray vt, jint vtIdx, jint ldvt, jdoubleArray work, jint workIdx, jint lwork, jdoubleArray rwork, jint rworkIdx)
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvdx(JNIEnv *env, jclass this, jchar jobu, jchar jobvt, jchar range, jint m, jint n, jfloatArray a, jint aIdx, jint lda, jfloat vl, jfloat vu, jint il, jint iu, jintArray ns, jint nsIdx, jfloatArray s, jint sIdx, jfloatArray u, jint uIdx, jint ldu, jfloatArray vt, jint vtIdx, jint ldvt, jfloatArray work, jint workIdx, jint lwork, jintArray iwork, jint iworkIdx)
 {
-  extern void zgesvd_(char *, char *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, int *);
+  extern void sgesvdx_(char *, char *, char *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jfloat *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobuChr = (char) jobu;
   char jobvtChr = (char) jobvt;
-  jdouble *rworkPtrBase = 0, *rworkPtr = 0;
-  if (rwork) {
-    rworkPtrBase = (*env)->GetDoubleArrayElements(env, rwork, NULL);
-    rworkPtr = rworkPtrBase + rworkIdx;
-  }
-  jdouble *aPtrBase = 0, *aPtr = 0;
+  char rangeChr = (char) range;
+  int info;
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean uIsA = (*env)->IsSameObject(env, u, a);
+  jboolean uIsS = (*env)->IsSameObject(env, u, s);
+  jboolean vtIsA = (*env)->IsSameObject(env, vt, a);
+  jboolean vtIsS = (*env)->IsSameObject(env, vt, s);
+  jboolean vtIsU = (*env)->IsSameObject(env, vt, u);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
+  jboolean workIsU = (*env)->IsSameObject(env, work, u);
+  jboolean workIsVt = (*env)->IsSameObject(env, work, vt);
+  jboolean iworkIsNs = (*env)->IsSameObject(env, iwork, ns);
+  jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, rwork) == JNI_TRUE)
-      aPtrBase = rworkPtrBase;
-    else
-      aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
-    aPtr = aPtrBase + 2*aIdx;
+    aPtrBase = GET_ARRAY(Float, critical, a);
+    aPtr = aPtrBase + aIdx;
   }
-  jdouble *sPtrBase = 0, *sPtr = 0;
+  jint *nsPtrBase = 0, *nsPtr = 0;
+  if (ns) {
+    nsPtrBase = GET_ARRAY(Int, critical, ns);
+    nsPtr = nsPtrBase + nsIdx;
+  }
+  jfloat *sPtrBase = 0, *sPtr = 0;
   if (s) {
-    if((*env)->IsSameObject(env, s, rwork) == JNI_TRUE)
-      sPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, s, a) == JNI_TRUE)
+    if(sIsA == JNI_TRUE)
       sPtrBase = aPtrBase;
     else
-      sPtrBase = (*env)->GetDoubleArrayElements(env, s, NULL);
+      sPtrBase = GET_ARRAY(Float, critical, s);
     sPtr = sPtrBase + sIdx;
   }
-  jdouble *uPtrBase = 0, *uPtr = 0;
+  jfloat *uPtrBase = 0, *uPtr = 0;
   if (u) {
-    if((*env)->IsSameObject(env, u, rwork) == JNI_TRUE)
-      uPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, u, a) == JNI_TRUE)
+    if(uIsA == JNI_TRUE)
       uPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, u, s) == JNI_TRUE)
+      if(uIsS == JNI_TRUE)
       uPtrBase = sPtrBase;
     else
-      uPtrBase = (*env)->GetDoubleArrayElements(env, u, NULL);
-    uPtr = uPtrBase + 2*uIdx;
+      uPtrBase = GET_ARRAY(Float, critical, u);
+    uPtr = uPtrBase + uIdx;
   }
-  jdouble *vtPtrBase = 0, *vtPtr = 0;
+  jfloat *vtPtrBase = 0, *vtPtr = 0;
   if (vt) {
-    if((*env)->IsSameObject(env, vt, rwork) == JNI_TRUE)
-      vtPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, vt, a) == JNI_TRUE)
+    if(vtIsA == JNI_TRUE)
       vtPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, vt, s) == JNI_TRUE)
+      if(vtIsS == JNI_TRUE)
       vtPtrBase = sPtrBase;
     else
-      if((*env)->IsSameObject(env, vt, u) == JNI_TRUE)
+      if(vtIsU == JNI_TRUE)
       vtPtrBase = uPtrBase;
     else
-      vtPtrBase = (*env)->GetDoubleArrayElements(env, vt, NULL);
-    vtPtr = vtPtrBase + 2*vtIdx;
+      vtPtrBase = GET_ARRAY(Float, critical, vt);
+    vtPtr = vtPtrBase + vtIdx;
   }
-  jdouble *workPtrBase = 0, *workPtr = 0;
+  jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, rwork) == JNI_TRUE)
-      workPtrBase = rworkPtrBase;
-    else
-      if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, s) == JNI_TRUE)
+      if(workIsS == JNI_TRUE)
       workPtrBase = sPtrBase;
     else
-      if((*env)->IsSameObject(env, work, u) == JNI_TRUE)
+      if(workIsU == JNI_TRUE)
       workPtrBase = uPtrBase;
     else
-      if((*env)->IsSameObject(env, work, vt) == JNI_TRUE)
+      if(workIsVt == JNI_TRUE)
       workPtrBase = vtPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
-    workPtr = workPtrBase + 2*workIdx;
+      workPtrBase = GET_ARRAY(Float, critical, work);
+    workPtr = workPtrBase + workIdx;
+  }
+  jint *iworkPtrBase = 0, *iworkPtr = 0;
+  if (iwork) {
+    if(iworkIsNs == JNI_TRUE)
+      iworkPtrBase = nsPtrBase;
+    else
+      iworkPtrBase = GET_ARRAY(Int, critical, iwork);
+    iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
-  zgesvd_(&jobuChr, &jobvtChr, &m, &n, aPtr, &lda, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, rworkPtr, &info);
+  insideCriticalSection = critical;
+  sgesvdx_(&jobuChr, &jobvtChr, &rangeChr, &m, &n, aPtr, &lda, &vl, &vu, &il, &iu, nsPtr, sPtr, uPtr, &ldu, vtPtr, &ldvt, workPtr, &lwork, iworkPtr, &info);
+  insideCriticalSection = 0;
+  if(iworkPtrBase) {
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
+    if (iworkPtrBase == nsPtrBase)
+      nsPtrBase = 0;
+    iworkPtrBase = 0;
+  }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
-    if (workPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == sPtrBase)
@@ -4060,9 +6372,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesvd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(vtPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, vt, vtPtrBase, 0);
-    if (vtPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, vt, vtPtrBase, 0);
     if (vtPtrBase == aPtrBase)
       aPtrBase = 0;
     if (vtPtrBase == sPtrBase)
@@ -4072,9 +6382,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesvd(JNIEnv *env, jclass this
     vtPtrBase = 0;
   }
   if(uPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, u, uPtrBase, 0);
-    if (uPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, u, uPtrBase, 0);
     if (uPtrBase == aPtrBase)
       aPtrBase = 0;
     if (uPtrBase == sPtrBase)
@@ -4082,23 +6390,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesvd(JNIEnv *env, jclass this
     uPtrBase = 0;
   }
   if(sPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, s, sPtrBase, 0);
-    if (sPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, s, sPtrBase, 0);
     if (sPtrBase == aPtrBase)
       aPtrBase = 0;
     sPtrBase = 0;
   }
+  if(nsPtrBase) {
+    RELEASE_ARRAY(Int, critical, ns, nsPtrBase, 0);
+    nsPtrBase = 0;
+  }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
-    if (aPtrBase == rworkPtrBase)
-      rworkPtrBase = 0;
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
-  if(rworkPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, rwork, rworkPtrBase, JNI_ABORT);
-    rworkPtrBase = 0;
-  }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4107,60 +6413,69 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvd(JNIEnv *env, jclass this
 {
   extern void dsygvd_(jint *, char *, char *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean wIsB = (*env)->IsSameObject(env, w, b);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, w, b) == JNI_TRUE)
+      if(wIsB == JNI_TRUE)
       wPtrBase = bPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsygvd_(&itype, &jobzChr, &uploChr, &n, aPtr, &lda, bPtr, &ldb, wPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+  insideCriticalSection = 0;
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
     iworkPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -4170,7 +6485,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     if (wPtrBase == bPtrBase)
@@ -4178,15 +6493,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvd(JNIEnv *env, jclass this
     wPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4195,60 +6512,69 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvd(JNIEnv *env, jclass this
 {
   extern void ssygvd_(jint *, char *, char *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean wIsB = (*env)->IsSameObject(env, w, b);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, w, b) == JNI_TRUE)
+      if(wIsB == JNI_TRUE)
       wPtrBase = bPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssygvd_(&itype, &jobzChr, &uploChr, &n, aPtr, &lda, bPtr, &ldb, wPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+  insideCriticalSection = 0;
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, 0);
     iworkPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -4258,7 +6584,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     if (wPtrBase == bPtrBase)
@@ -4266,15 +6592,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvd(JNIEnv *env, jclass this
     wPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4283,62 +6611,72 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgelsd(JNIEnv *env, jclass this
 {
   extern void dgelsd_(jint *, jint *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jint *, int *);
 
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean sIsB = (*env)->IsSameObject(env, s, b);
+  jboolean rankIsIwork = (*env)->IsSameObject(env, rank, iwork);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jdouble *sPtrBase = 0, *sPtr = 0;
   if (s) {
-    if((*env)->IsSameObject(env, s, a) == JNI_TRUE)
+    if(sIsA == JNI_TRUE)
       sPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, s, b) == JNI_TRUE)
+      if(sIsB == JNI_TRUE)
       sPtrBase = bPtrBase;
     else
-      sPtrBase = (*env)->GetDoubleArrayElements(env, s, NULL);
+      sPtrBase = GET_ARRAY(Double, critical, s);
     sPtr = sPtrBase + sIdx;
   }
   jint *rankPtrBase = 0, *rankPtr = 0;
   if (rank) {
-    if((*env)->IsSameObject(env, rank, iwork) == JNI_TRUE)
+    if(rankIsIwork == JNI_TRUE)
       rankPtrBase = iworkPtrBase;
     else
-      rankPtrBase = (*env)->GetIntArrayElements(env, rank, NULL);
+      rankPtrBase = GET_ARRAY(Int, critical, rank);
     rankPtr = rankPtrBase + rankIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, work, s) == JNI_TRUE)
+      if(workIsS == JNI_TRUE)
       workPtrBase = sPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dgelsd_(&m, &n, &nrhs, aPtr, &lda, bPtr, &ldb, sPtr, &rcond, rankPtr, workPtr, &lwork, iworkPtr, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -4348,13 +6686,13 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgelsd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(rankPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, rank, rankPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, rank, rankPtrBase, 0);
     if (rankPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     rankPtrBase = 0;
   }
   if(sPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, s, sPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, s, sPtrBase, 0);
     if (sPtrBase == aPtrBase)
       aPtrBase = 0;
     if (sPtrBase == bPtrBase)
@@ -4362,19 +6700,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgelsd(JNIEnv *env, jclass this
     sPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, JNI_ABORT);
     iworkPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4383,62 +6723,72 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgelsd(JNIEnv *env, jclass this
 {
   extern void sgelsd_(jint *, jint *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean sIsA = (*env)->IsSameObject(env, s, a);
+  jboolean sIsB = (*env)->IsSameObject(env, s, b);
+  jboolean rankIsIwork = (*env)->IsSameObject(env, rank, iwork);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
+  jboolean workIsS = (*env)->IsSameObject(env, work, s);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jfloat *sPtrBase = 0, *sPtr = 0;
   if (s) {
-    if((*env)->IsSameObject(env, s, a) == JNI_TRUE)
+    if(sIsA == JNI_TRUE)
       sPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, s, b) == JNI_TRUE)
+      if(sIsB == JNI_TRUE)
       sPtrBase = bPtrBase;
     else
-      sPtrBase = (*env)->GetFloatArrayElements(env, s, NULL);
+      sPtrBase = GET_ARRAY(Float, critical, s);
     sPtr = sPtrBase + sIdx;
   }
   jint *rankPtrBase = 0, *rankPtr = 0;
   if (rank) {
-    if((*env)->IsSameObject(env, rank, iwork) == JNI_TRUE)
+    if(rankIsIwork == JNI_TRUE)
       rankPtrBase = iworkPtrBase;
     else
-      rankPtrBase = (*env)->GetIntArrayElements(env, rank, NULL);
+      rankPtrBase = GET_ARRAY(Int, critical, rank);
     rankPtr = rankPtrBase + rankIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, work, s) == JNI_TRUE)
+      if(workIsS == JNI_TRUE)
       workPtrBase = sPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sgelsd_(&m, &n, &nrhs, aPtr, &lda, bPtr, &ldb, sPtr, &rcond, rankPtr, workPtr, &lwork, iworkPtr, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -4448,13 +6798,13 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgelsd(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(rankPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, rank, rankPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, rank, rankPtrBase, 0);
     if (rankPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     rankPtrBase = 0;
   }
   if(sPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, s, sPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, s, sPtrBase, 0);
     if (sPtrBase == aPtrBase)
       aPtrBase = 0;
     if (sPtrBase == bPtrBase)
@@ -4462,19 +6812,21 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgelsd(JNIEnv *env, jclass this
     sPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, JNI_ABORT);
     iworkPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4499,35 +6851,41 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeqrf(JNIEnv *env, jclass this
 {
   extern void dgeqrf_(jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean tauIsA = (*env)->IsSameObject(env, tau, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsTau = (*env)->IsSameObject(env, work, tau);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *tauPtrBase = 0, *tauPtr = 0;
   if (tau) {
-    if((*env)->IsSameObject(env, tau, a) == JNI_TRUE)
+    if(tauIsA == JNI_TRUE)
       tauPtrBase = aPtrBase;
     else
-      tauPtrBase = (*env)->GetDoubleArrayElements(env, tau, NULL);
+      tauPtrBase = GET_ARRAY(Double, critical, tau);
     tauPtr = tauPtrBase + tauIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, tau) == JNI_TRUE)
+      if(workIsTau == JNI_TRUE)
       workPtrBase = tauPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dgeqrf_(&m, &n, aPtr, &lda, tauPtr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == tauPtrBase)
@@ -4535,15 +6893,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgeqrf(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(tauPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, tau, tauPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, tau, tauPtrBase, 0);
     if (tauPtrBase == aPtrBase)
       aPtrBase = 0;
     tauPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4552,35 +6912,41 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeqrf(JNIEnv *env, jclass this
 {
   extern void sgeqrf_(jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean tauIsA = (*env)->IsSameObject(env, tau, a);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsTau = (*env)->IsSameObject(env, work, tau);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *tauPtrBase = 0, *tauPtr = 0;
   if (tau) {
-    if((*env)->IsSameObject(env, tau, a) == JNI_TRUE)
+    if(tauIsA == JNI_TRUE)
       tauPtrBase = aPtrBase;
     else
-      tauPtrBase = (*env)->GetFloatArrayElements(env, tau, NULL);
+      tauPtrBase = GET_ARRAY(Float, critical, tau);
     tauPtr = tauPtrBase + tauIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, tau) == JNI_TRUE)
+      if(workIsTau == JNI_TRUE)
       workPtrBase = tauPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sgeqrf_(&m, &n, aPtr, &lda, tauPtr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == tauPtrBase)
@@ -4588,15 +6954,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgeqrf(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(tauPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, tau, tauPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, tau, tauPtrBase, 0);
     if (tauPtrBase == aPtrBase)
       aPtrBase = 0;
     tauPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4605,51 +6973,60 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dormqr(JNIEnv *env, jclass this
 {
   extern void dormqr_(char *, char *, jint *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char sideChr = (char) side;
   char transChr = (char) trans;
+  int info;
+  jboolean tauIsA = (*env)->IsSameObject(env, tau, a);
+  jboolean cIsA = (*env)->IsSameObject(env, c, a);
+  jboolean cIsTau = (*env)->IsSameObject(env, c, tau);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsTau = (*env)->IsSameObject(env, work, tau);
+  jboolean workIsC = (*env)->IsSameObject(env, work, c);
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *tauPtrBase = 0, *tauPtr = 0;
   if (tau) {
-    if((*env)->IsSameObject(env, tau, a) == JNI_TRUE)
+    if(tauIsA == JNI_TRUE)
       tauPtrBase = aPtrBase;
     else
-      tauPtrBase = (*env)->GetDoubleArrayElements(env, tau, NULL);
+      tauPtrBase = GET_ARRAY(Double, critical, tau);
     tauPtr = tauPtrBase + tauIdx;
   }
   jdouble *cPtrBase = 0, *cPtr = 0;
   if (c) {
-    if((*env)->IsSameObject(env, c, a) == JNI_TRUE)
+    if(cIsA == JNI_TRUE)
       cPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, c, tau) == JNI_TRUE)
+      if(cIsTau == JNI_TRUE)
       cPtrBase = tauPtrBase;
     else
-      cPtrBase = (*env)->GetDoubleArrayElements(env, c, NULL);
+      cPtrBase = GET_ARRAY(Double, critical, c);
     cPtr = cPtrBase + cIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, tau) == JNI_TRUE)
+      if(workIsTau == JNI_TRUE)
       workPtrBase = tauPtrBase;
     else
-      if((*env)->IsSameObject(env, work, c) == JNI_TRUE)
+      if(workIsC == JNI_TRUE)
       workPtrBase = cPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dormqr_(&sideChr, &transChr, &m, &n, &k, aPtr, &lda, tauPtr, cPtr, &ldc, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == tauPtrBase)
@@ -4659,7 +7036,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dormqr(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(cPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, c, cPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, c, cPtrBase, 0);
     if (cPtrBase == aPtrBase)
       aPtrBase = 0;
     if (cPtrBase == tauPtrBase)
@@ -4667,15 +7044,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dormqr(JNIEnv *env, jclass this
     cPtrBase = 0;
   }
   if(tauPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, tau, tauPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, tau, tauPtrBase, JNI_ABORT);
     if (tauPtrBase == aPtrBase)
       aPtrBase = 0;
     tauPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4684,51 +7063,60 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sormqr(JNIEnv *env, jclass this
 {
   extern void sormqr_(char *, char *, jint *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char sideChr = (char) side;
   char transChr = (char) trans;
+  int info;
+  jboolean tauIsA = (*env)->IsSameObject(env, tau, a);
+  jboolean cIsA = (*env)->IsSameObject(env, c, a);
+  jboolean cIsTau = (*env)->IsSameObject(env, c, tau);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsTau = (*env)->IsSameObject(env, work, tau);
+  jboolean workIsC = (*env)->IsSameObject(env, work, c);
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *tauPtrBase = 0, *tauPtr = 0;
   if (tau) {
-    if((*env)->IsSameObject(env, tau, a) == JNI_TRUE)
+    if(tauIsA == JNI_TRUE)
       tauPtrBase = aPtrBase;
     else
-      tauPtrBase = (*env)->GetFloatArrayElements(env, tau, NULL);
+      tauPtrBase = GET_ARRAY(Float, critical, tau);
     tauPtr = tauPtrBase + tauIdx;
   }
   jfloat *cPtrBase = 0, *cPtr = 0;
   if (c) {
-    if((*env)->IsSameObject(env, c, a) == JNI_TRUE)
+    if(cIsA == JNI_TRUE)
       cPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, c, tau) == JNI_TRUE)
+      if(cIsTau == JNI_TRUE)
       cPtrBase = tauPtrBase;
     else
-      cPtrBase = (*env)->GetFloatArrayElements(env, c, NULL);
+      cPtrBase = GET_ARRAY(Float, critical, c);
     cPtr = cPtrBase + cIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, tau) == JNI_TRUE)
+      if(workIsTau == JNI_TRUE)
       workPtrBase = tauPtrBase;
     else
-      if((*env)->IsSameObject(env, work, c) == JNI_TRUE)
+      if(workIsC == JNI_TRUE)
       workPtrBase = cPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sormqr_(&sideChr, &transChr, &m, &n, &k, aPtr, &lda, tauPtr, cPtr, &ldc, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == tauPtrBase)
@@ -4738,7 +7126,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sormqr(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(cPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, c, cPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, c, cPtrBase, 0);
     if (cPtrBase == aPtrBase)
       aPtrBase = 0;
     if (cPtrBase == tauPtrBase)
@@ -4746,15 +7134,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sormqr(JNIEnv *env, jclass this
     cPtrBase = 0;
   }
   if(tauPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, tau, tauPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, tau, tauPtrBase, JNI_ABORT);
     if (tauPtrBase == aPtrBase)
       aPtrBase = 0;
     tauPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, JNI_ABORT);
     aPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4763,35 +7153,41 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dorgqr(JNIEnv *env, jclass this
 {
   extern void dorgqr_(jint *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean aIsTau = (*env)->IsSameObject(env, a, tau);
+  jboolean workIsTau = (*env)->IsSameObject(env, work, tau);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
   jdouble *tauPtrBase = 0, *tauPtr = 0;
   if (tau) {
-    tauPtrBase = (*env)->GetDoubleArrayElements(env, tau, NULL);
+    tauPtrBase = GET_ARRAY(Double, critical, tau);
     tauPtr = tauPtrBase + tauIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, tau) == JNI_TRUE)
+    if(aIsTau == JNI_TRUE)
       aPtrBase = tauPtrBase;
     else
-      aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, tau) == JNI_TRUE)
+    if(workIsTau == JNI_TRUE)
       workPtrBase = tauPtrBase;
     else
-      if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+      if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dorgqr_(&m, &n, &k, aPtr, &lda, tauPtr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == tauPtrBase)
       tauPtrBase = 0;
     if (workPtrBase == aPtrBase)
@@ -4799,15 +7195,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dorgqr(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     if (aPtrBase == tauPtrBase)
       tauPtrBase = 0;
     aPtrBase = 0;
   }
   if(tauPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, tau, tauPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Double, critical, tau, tauPtrBase, JNI_ABORT);
     tauPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4816,35 +7214,41 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sorgqr(JNIEnv *env, jclass this
 {
   extern void sorgqr_(jint *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
+  int info;
+  jboolean aIsTau = (*env)->IsSameObject(env, a, tau);
+  jboolean workIsTau = (*env)->IsSameObject(env, work, tau);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
   jfloat *tauPtrBase = 0, *tauPtr = 0;
   if (tau) {
-    tauPtrBase = (*env)->GetFloatArrayElements(env, tau, NULL);
+    tauPtrBase = GET_ARRAY(Float, critical, tau);
     tauPtr = tauPtrBase + tauIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    if((*env)->IsSameObject(env, a, tau) == JNI_TRUE)
+    if(aIsTau == JNI_TRUE)
       aPtrBase = tauPtrBase;
     else
-      aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+      aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, tau) == JNI_TRUE)
+    if(workIsTau == JNI_TRUE)
       workPtrBase = tauPtrBase;
     else
-      if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+      if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   sorgqr_(&m, &n, &k, aPtr, &lda, tauPtr, workPtr, &lwork, &info);
+  insideCriticalSection = 0;
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == tauPtrBase)
       tauPtrBase = 0;
     if (workPtrBase == aPtrBase)
@@ -4852,15 +7256,17 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sorgqr(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     if (aPtrBase == tauPtrBase)
       tauPtrBase = 0;
     aPtrBase = 0;
   }
   if(tauPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, tau, tauPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Float, critical, tau, tauPtrBase, JNI_ABORT);
     tauPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -4869,93 +7275,109 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvx(JNIEnv *env, jclass this
 {
   extern void dsygvx_(jint *, char *, char *, char *, jint *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char rangeChr = (char) range;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean mIsIwork = (*env)->IsSameObject(env, m, iwork);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean wIsB = (*env)->IsSameObject(env, w, b);
+  jboolean zIsA = (*env)->IsSameObject(env, z, a);
+  jboolean zIsB = (*env)->IsSameObject(env, z, b);
+  jboolean zIsW = (*env)->IsSameObject(env, z, w);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsZ = (*env)->IsSameObject(env, work, z);
+  jboolean ifailIsIwork = (*env)->IsSameObject(env, ifail, iwork);
+  jboolean ifailIsM = (*env)->IsSameObject(env, ifail, m);
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
   jdouble *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetDoubleArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Double, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jdouble *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetDoubleArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Double, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jint *mPtrBase = 0, *mPtr = 0;
   if (m) {
-    if((*env)->IsSameObject(env, m, iwork) == JNI_TRUE)
+    if(mIsIwork == JNI_TRUE)
       mPtrBase = iworkPtrBase;
     else
-      mPtrBase = (*env)->GetIntArrayElements(env, m, NULL);
+      mPtrBase = GET_ARRAY(Int, critical, m);
     mPtr = mPtrBase + mIdx;
   }
   jdouble *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, w, b) == JNI_TRUE)
+      if(wIsB == JNI_TRUE)
       wPtrBase = bPtrBase;
     else
-      wPtrBase = (*env)->GetDoubleArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Double, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jdouble *zPtrBase = 0, *zPtr = 0;
   if (z) {
-    if((*env)->IsSameObject(env, z, a) == JNI_TRUE)
+    if(zIsA == JNI_TRUE)
       zPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, z, b) == JNI_TRUE)
+      if(zIsB == JNI_TRUE)
       zPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, z, w) == JNI_TRUE)
+      if(zIsW == JNI_TRUE)
       zPtrBase = wPtrBase;
     else
-      zPtrBase = (*env)->GetDoubleArrayElements(env, z, NULL);
+      zPtrBase = GET_ARRAY(Double, critical, z);
     zPtr = zPtrBase + zIdx;
   }
   jdouble *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, z) == JNI_TRUE)
+      if(workIsZ == JNI_TRUE)
       workPtrBase = zPtrBase;
     else
-      workPtrBase = (*env)->GetDoubleArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Double, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *ifailPtrBase = 0, *ifailPtr = 0;
   if (ifail) {
-    if((*env)->IsSameObject(env, ifail, iwork) == JNI_TRUE)
+    if(ifailIsIwork == JNI_TRUE)
       ifailPtrBase = iworkPtrBase;
     else
-      if((*env)->IsSameObject(env, ifail, m) == JNI_TRUE)
+      if(ifailIsM == JNI_TRUE)
       ifailPtrBase = mPtrBase;
     else
-      ifailPtrBase = (*env)->GetIntArrayElements(env, ifail, NULL);
+      ifailPtrBase = GET_ARRAY(Int, critical, ifail);
     ifailPtr = ifailPtrBase + ifailIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   dsygvx_(&itype, &jobzChr, &rangeChr, &uploChr, &n, aPtr, &lda, bPtr, &ldb, &vl, &vu, &il, &iu, &abstol, mPtr, wPtr, zPtr, &ldz, workPtr, &lwork, iworkPtr, ifailPtr, &info);
+  insideCriticalSection = 0;
   if(ifailPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ifail, ifailPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ifail, ifailPtrBase, 0);
     if (ifailPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     if (ifailPtrBase == mPtrBase)
@@ -4963,7 +7385,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvx(JNIEnv *env, jclass this
     ifailPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -4975,7 +7397,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvx(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(zPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, z, zPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, z, zPtrBase, 0);
     if (zPtrBase == aPtrBase)
       aPtrBase = 0;
     if (zPtrBase == bPtrBase)
@@ -4985,7 +7407,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvx(JNIEnv *env, jclass this
     zPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     if (wPtrBase == bPtrBase)
@@ -4993,25 +7415,27 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvx(JNIEnv *env, jclass this
     wPtrBase = 0;
   }
   if(mPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, m, mPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, m, mPtrBase, 0);
     if (mPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     mPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseDoubleArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Double, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, JNI_ABORT);
     iworkPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
 
   return info;
 }
@@ -5020,93 +7444,109 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvx(JNIEnv *env, jclass this
 {
   extern void ssygvx_(jint *, char *, char *, char *, jint *, jfloat *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jint *, jfloat *, jint *, jfloat *, jfloat *, jint *, jfloat *, jint *, jint *, jint *, int *);
   
+  int critical = (criticalArrayFamilies & LAPACK) != 0;
   char jobzChr = (char) jobz;
   char rangeChr = (char) range;
   char uploChr = (char) uplo;
+  int info;
+  jboolean bIsA = (*env)->IsSameObject(env, b, a);
+  jboolean mIsIwork = (*env)->IsSameObject(env, m, iwork);
+  jboolean wIsA = (*env)->IsSameObject(env, w, a);
+  jboolean wIsB = (*env)->IsSameObject(env, w, b);
+  jboolean zIsA = (*env)->IsSameObject(env, z, a);
+  jboolean zIsB = (*env)->IsSameObject(env, z, b);
+  jboolean zIsW = (*env)->IsSameObject(env, z, w);
+  jboolean workIsA = (*env)->IsSameObject(env, work, a);
+  jboolean workIsB = (*env)->IsSameObject(env, work, b);
+  jboolean workIsW = (*env)->IsSameObject(env, work, w);
+  jboolean workIsZ = (*env)->IsSameObject(env, work, z);
+  jboolean ifailIsIwork = (*env)->IsSameObject(env, ifail, iwork);
+  jboolean ifailIsM = (*env)->IsSameObject(env, ifail, m);
   jint *iworkPtrBase = 0, *iworkPtr = 0;
   if (iwork) {
-    iworkPtrBase = (*env)->GetIntArrayElements(env, iwork, NULL);
+    iworkPtrBase = GET_ARRAY(Int, critical, iwork);
     iworkPtr = iworkPtrBase + iworkIdx;
   }
   jfloat *aPtrBase = 0, *aPtr = 0;
   if (a) {
-    aPtrBase = (*env)->GetFloatArrayElements(env, a, NULL);
+    aPtrBase = GET_ARRAY(Float, critical, a);
     aPtr = aPtrBase + aIdx;
   }
   jfloat *bPtrBase = 0, *bPtr = 0;
   if (b) {
-    if((*env)->IsSameObject(env, b, a) == JNI_TRUE)
+    if(bIsA == JNI_TRUE)
       bPtrBase = aPtrBase;
     else
-      bPtrBase = (*env)->GetFloatArrayElements(env, b, NULL);
+      bPtrBase = GET_ARRAY(Float, critical, b);
     bPtr = bPtrBase + bIdx;
   }
   jint *mPtrBase = 0, *mPtr = 0;
   if (m) {
-    if((*env)->IsSameObject(env, m, iwork) == JNI_TRUE)
+    if(mIsIwork == JNI_TRUE)
       mPtrBase = iworkPtrBase;
     else
-      mPtrBase = (*env)->GetIntArrayElements(env, m, NULL);
+      mPtrBase = GET_ARRAY(Int, critical, m);
     mPtr = mPtrBase + mIdx;
   }
   jfloat *wPtrBase = 0, *wPtr = 0;
   if (w) {
-    if((*env)->IsSameObject(env, w, a) == JNI_TRUE)
+    if(wIsA == JNI_TRUE)
       wPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, w, b) == JNI_TRUE)
+      if(wIsB == JNI_TRUE)
       wPtrBase = bPtrBase;
     else
-      wPtrBase = (*env)->GetFloatArrayElements(env, w, NULL);
+      wPtrBase = GET_ARRAY(Float, critical, w);
     wPtr = wPtrBase + wIdx;
   }
   jfloat *zPtrBase = 0, *zPtr = 0;
   if (z) {
-    if((*env)->IsSameObject(env, z, a) == JNI_TRUE)
+    if(zIsA == JNI_TRUE)
       zPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, z, b) == JNI_TRUE)
+      if(zIsB == JNI_TRUE)
       zPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, z, w) == JNI_TRUE)
+      if(zIsW == JNI_TRUE)
       zPtrBase = wPtrBase;
     else
-      zPtrBase = (*env)->GetFloatArrayElements(env, z, NULL);
+      zPtrBase = GET_ARRAY(Float, critical, z);
     zPtr = zPtrBase + zIdx;
   }
   jfloat *workPtrBase = 0, *workPtr = 0;
   if (work) {
-    if((*env)->IsSameObject(env, work, a) == JNI_TRUE)
+    if(workIsA == JNI_TRUE)
       workPtrBase = aPtrBase;
     else
-      if((*env)->IsSameObject(env, work, b) == JNI_TRUE)
+      if(workIsB == JNI_TRUE)
       workPtrBase = bPtrBase;
     else
-      if((*env)->IsSameObject(env, work, w) == JNI_TRUE)
+      if(workIsW == JNI_TRUE)
       workPtrBase = wPtrBase;
     else
-      if((*env)->IsSameObject(env, work, z) == JNI_TRUE)
+      if(workIsZ == JNI_TRUE)
       workPtrBase = zPtrBase;
     else
-      workPtrBase = (*env)->GetFloatArrayElements(env, work, NULL);
+      workPtrBase = GET_ARRAY(Float, critical, work);
     workPtr = workPtrBase + workIdx;
   }
   jint *ifailPtrBase = 0, *ifailPtr = 0;
   if (ifail) {
-    if((*env)->IsSameObject(env, ifail, iwork) == JNI_TRUE)
+    if(ifailIsIwork == JNI_TRUE)
       ifailPtrBase = iworkPtrBase;
     else
-      if((*env)->IsSameObject(env, ifail, m) == JNI_TRUE)
+      if(ifailIsM == JNI_TRUE)
       ifailPtrBase = mPtrBase;
     else
-      ifailPtrBase = (*env)->GetIntArrayElements(env, ifail, NULL);
+      ifailPtrBase = GET_ARRAY(Int, critical, ifail);
     ifailPtr = ifailPtrBase + ifailIdx;
   }
-  int info;
 
+  insideCriticalSection = critical;
   ssygvx_(&itype, &jobzChr, &rangeChr, &uploChr, &n, aPtr, &lda, bPtr, &ldb, &vl, &vu, &il, &iu, &abstol, mPtr, wPtr, zPtr, &ldz, workPtr, &lwork, iworkPtr, ifailPtr, &info);
+  insideCriticalSection = 0;
   if(ifailPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, ifail, ifailPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, ifail, ifailPtrBase, 0);
     if (ifailPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     if (ifailPtrBase == mPtrBase)
@@ -5114,7 +7554,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvx(JNIEnv *env, jclass this
     ifailPtrBase = 0;
   }
   if(workPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, work, workPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, work, workPtrBase, 0);
     if (workPtrBase == aPtrBase)
       aPtrBase = 0;
     if (workPtrBase == bPtrBase)
@@ -5126,7 +7566,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvx(JNIEnv *env, jclass this
     workPtrBase = 0;
   }
   if(zPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, z, zPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, z, zPtrBase, 0);
     if (zPtrBase == aPtrBase)
       aPtrBase = 0;
     if (zPtrBase == bPtrBase)
@@ -5136,7 +7576,7 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvx(JNIEnv *env, jclass this
     zPtrBase = 0;
   }
   if(wPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, w, wPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, w, wPtrBase, 0);
     if (wPtrBase == aPtrBase)
       aPtrBase = 0;
     if (wPtrBase == bPtrBase)
@@ -5144,26 +7584,188 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvx(JNIEnv *env, jclass this
     wPtrBase = 0;
   }
   if(mPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, m, mPtrBase, 0);
+    RELEASE_ARRAY(Int, critical, m, mPtrBase, 0);
     if (mPtrBase == iworkPtrBase)
       iworkPtrBase = 0;
     mPtrBase = 0;
   }
   if(bPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, b, bPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, b, bPtrBase, 0);
     if (bPtrBase == aPtrBase)
       aPtrBase = 0;
     bPtrBase = 0;
   }
   if(aPtrBase) {
-    (*env)->ReleaseFloatArrayElements(env, a, aPtrBase, 0);
+    RELEASE_ARRAY(Float, critical, a, aPtrBase, 0);
     aPtrBase = 0;
   }
   if(iworkPtrBase) {
-    (*env)->ReleaseIntArrayElements(env, iwork, iworkPtrBase, JNI_ABORT);
+    RELEASE_ARRAY(Int, critical, iwork, iworkPtrBase, JNI_ABORT);
     iworkPtrBase = 0;
   }
+  if (critical)
+    throwPendingXerbla(env);
+
+  return info;
+}
+
+/**********************************************************************/
+/*                 direct buffer functions below                      */
+/**********************************************************************/
+
+
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemvDirect(JNIEnv *env, jclass this, jchar trans, jint m, jint n, jdouble alpha, jlong a, jlong aIdx, jint lda, jlong x, jlong xIdx, jint incx, jdouble beta, jlong y, jlong yIdx, jint incy)
+{
+  extern void dgemv_(char *, jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *);
+  
+  char transChr = (char) trans;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jdouble *xPtr = (jdouble *) (intptr_t) x;
+  if (xPtr)
+    xPtr += xIdx;
+  jdouble *yPtr = (jdouble *) (intptr_t) y;
+  if (yPtr)
+    yPtr += yIdx;
+
+  dgemv_(&transChr, &m, &n, &alpha, aPtr, &lda, xPtr, &incx, &beta, yPtr, &incy);
+
+}
+
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemmDirect(JNIEnv *env, jclass this, jchar transa, jchar transb, jint m, jint n, jint k, jdouble alpha, jlong a, jlong aIdx, jint lda, jlong b, jlong bIdx, jint ldb, jdouble beta, jlong c, jlong cIdx, jint ldc)
+{
+  extern void dgemm_(char *, char *, jint *, jint *, jint *, jdouble *, jdouble *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *);
+  
+  char transaChr = (char) transa;
+  char transbChr = (char) transb;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jdouble *bPtr = (jdouble *) (intptr_t) b;
+  if (bPtr)
+    bPtr += bIdx;
+  jdouble *cPtr = (jdouble *) (intptr_t) c;
+  if (cPtr)
+    cPtr += cIdx;
+
+  dgemm_(&transaChr, &transbChr, &m, &n, &k, &alpha, aPtr, &lda, bPtr, &ldb, &beta, cPtr, &ldc);
+
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvDirect(JNIEnv *env, jclass this, jint n, jint nrhs, jlong a, jlong aIdx, jint lda, jobject ipiv, jint ipivIdx, jlong b, jlong bIdx, jint ldb)
+{
+  extern void dgesv_(jint *, jint *, jdouble *, jint *, jint *, jdouble *, jint *, int *);
+  
+  int info;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jint *ipivPtr = 0;
+  if (ipiv)
+    ipivPtr = (jint *) (*env)->GetDirectBufferAddress(env, ipiv) + ipivIdx;
+  jdouble *bPtr = (jdouble *) (intptr_t) b;
+  if (bPtr)
+    bPtr += bIdx;
+
+  dgesv_(&n, &nrhs, aPtr, &lda, ipivPtr, bPtr, &ldb, &info);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevDirect(JNIEnv *env, jclass this, jchar jobz, jchar uplo, jint n, jlong a, jlong aIdx, jint lda, jlong w, jlong wIdx, jlong work, jlong workIdx, jint lwork)
+{
+  extern void dsyev_(char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, int *);
+  
+  char jobzChr = (char) jobz;
+  char uploChr = (char) uplo;
+  int info;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jdouble *wPtr = (jdouble *) (intptr_t) w;
+  if (wPtr)
+    wPtr += wIdx;
+  jdouble *workPtr = (jdouble *) (intptr_t) work;
+  if (workPtr)
+    workPtr += workIdx;
+
+  dsyev_(&jobzChr, &uploChr, &n, aPtr, &lda, wPtr, workPtr, &lwork, &info);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevdDirect(JNIEnv *env, jclass this, jchar jobz, jchar uplo, jint n, jlong a, jlong aIdx, jint lda, jlong w, jlong wIdx, jlong work, jlong workIdx, jint lwork, jobject iwork, jint iworkIdx, jint liwork)
+{
+  extern void dsyevd_(char *, char *, jint *, jdouble *, jint *, jdouble *, jdouble *, jint *, jint *, jint *, int *);
+  
+  char jobzChr = (char) jobz;
+  char uploChr = (char) uplo;
+  int info;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jdouble *wPtr = (jdouble *) (intptr_t) w;
+  if (wPtr)
+    wPtr += wIdx;
+  jdouble *workPtr = (jdouble *) (intptr_t) work;
+  if (workPtr)
+    workPtr += workIdx;
+  jint *iworkPtr = 0;
+  if (iwork)
+    iworkPtr = (jint *) (*env)->GetDirectBufferAddress(env, iwork) + iworkIdx;
+
+  dsyevd_(&jobzChr, &uploChr, &n, aPtr, &lda, wPtr, workPtr, &lwork, iworkPtr, &liwork, &info);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dposvDirect(JNIEnv *env, jclass this, jchar uplo, jint n, jint nrhs, jlong a, jlong aIdx, jint lda, jlong b, jlong bIdx, jint ldb)
+{
+  extern void dposv_(char *, jint *, jint *, jdouble *, jint *, jdouble *, jint *, int *);
+  
+  char uploChr = (char) uplo;
+  int info;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jdouble *bPtr = (jdouble *) (intptr_t) b;
+  if (bPtr)
+    bPtr += bIdx;
+
+  dposv_(&uploChr, &n, &nrhs, aPtr, &lda, bPtr, &ldb, &info);
+
+  return info;
+}
+
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgetrfDirect(JNIEnv *env, jclass this, jint m, jint n, jlong a, jlong aIdx, jint lda, jobject ipiv, jint ipivIdx)
+{
+  extern void dgetrf_(jint *, jint *, jdouble *, jint *, jint *, int *);
+  
+  int info;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+  jint *ipivPtr = 0;
+  if (ipiv)
+    ipivPtr = (jint *) (*env)->GetDirectBufferAddress(env, ipiv) + ipivIdx;
+
+  dgetrf_(&m, &n, aPtr, &lda, ipivPtr, &info);
 
   return info;
 }
 
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpotrfDirect(JNIEnv *env, jclass this, jchar uplo, jint n, jlong a, jlong aIdx, jint lda)
+{
+  extern void dpotrf_(char *, jint *, jdouble *, jint *, int *);
+  
+  char uploChr = (char) uplo;
+  int info;
+  jdouble *aPtr = (jdouble *) (intptr_t) a;
+  if (aPtr)
+    aPtr += aIdx;
+
+  dpotrf_(&uploChr, &n, aPtr, &lda, &info);
+
+  return info;
+}
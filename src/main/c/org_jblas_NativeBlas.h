@@ -11,6 +11,54 @@ extern "C" {
  * Initialize library
  */
 JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *jvm, void *reserved);
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    setCriticalArrayFamilies
+ * Signature: (I)V
+ */
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_setCriticalArrayFamilies
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    getCriticalArrayFamilies
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_getCriticalArrayFamilies
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    allocateMemory
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_org_jblas_NativeBlas_allocateMemory
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    freeMemory
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_freeMemory
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    wrapMemory
+ * Signature: (JI)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_org_jblas_NativeBlas_wrapMemory
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    bufferAddress
+ * Signature: (Ljava/nio/Buffer;)J
+ */
+JNIEXPORT jlong JNICALL Java_org_jblas_NativeBlas_bufferAddress
+  (JNIEnv *, jclass, jobject);
+
 /*
  * Class:     org_jblas_NativeBlas
  * Method:    ccopy
@@ -411,6 +459,22 @@ JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_sgemm
 JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_zgemm
   (JNIEnv *, jclass, jchar, jchar, jint, jint, jint, jobject, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jobject, jdoubleArray, jint, jint);
 
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dtrsm
+ * Signature: (CCCCIID[DII[DII)V
+ */
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dtrsm
+  (JNIEnv *, jclass, jchar, jchar, jchar, jchar, jint, jint, jdouble, jdoubleArray, jint, jint, jdoubleArray, jint, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    strsm
+ * Signature: (CCCCIIF[FII[FII)V
+ */
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_strsm
+  (JNIEnv *, jclass, jchar, jchar, jchar, jchar, jint, jint, jfloat, jfloatArray, jint, jint, jfloatArray, jint, jint);
+
 /*
  * Class:     org_jblas_NativeBlas
  * Method:    dgesv
@@ -587,6 +651,86 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpotrf
 JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_spotrf
   (JNIEnv *, jclass, jchar, jint, jfloatArray, jint, jint);
 
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgetrs
+ * Signature: (CII[DII[II[DII)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgetrs
+  (JNIEnv *, jclass, jchar, jint, jint, jdoubleArray, jint, jint, jintArray, jint, jdoubleArray, jint, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    sgetrs
+ * Signature: (CII[FII[II[FII)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgetrs
+  (JNIEnv *, jclass, jchar, jint, jint, jfloatArray, jint, jint, jintArray, jint, jfloatArray, jint, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dpotrs
+ * Signature: (CII[DII[DII)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpotrs
+  (JNIEnv *, jclass, jchar, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    spotrs
+ * Signature: (CII[FII[FII)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_spotrs
+  (JNIEnv *, jclass, jchar, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgecon
+ * Signature: (CI[DIID[DI[DI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgecon
+  (JNIEnv *, jclass, jchar, jint, jdoubleArray, jint, jint, jdouble, jdoubleArray, jint, jdoubleArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    sgecon
+ * Signature: (CI[FIIF[FI[FI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgecon
+  (JNIEnv *, jclass, jchar, jint, jfloatArray, jint, jint, jfloat, jfloatArray, jint, jfloatArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dpocon
+ * Signature: (CI[DIID[DI[DI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpocon
+  (JNIEnv *, jclass, jchar, jint, jdoubleArray, jint, jint, jdouble, jdoubleArray, jint, jdoubleArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    spocon
+ * Signature: (CI[FIIF[FI[FI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_spocon
+  (JNIEnv *, jclass, jchar, jint, jfloatArray, jint, jint, jfloat, jfloatArray, jint, jfloatArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dtrcon
+ * Signature: (CCCI[DII[DI[DI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dtrcon
+  (JNIEnv *, jclass, jchar, jchar, jchar, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jdoubleArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    strcon
+ * Signature: (CCCI[FII[FI[FI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_strcon
+  (JNIEnv *, jclass, jchar, jchar, jchar, jint, jfloatArray, jint, jint, jfloatArray, jint, jfloatArray, jint, jintArray, jint);
+
 /*
  * Class:     org_jblas_NativeBlas
  * Method:    cgesvd
@@ -619,6 +763,54 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvd
 JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesvd
   (JNIEnv *, jclass, jchar, jchar, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint);
 
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    cgesdd
+ * Signature: (CII[FII[FI[FII[FII[FII[FI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_cgesdd
+  (JNIEnv *, jclass, jchar, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgesdd
+ * Signature: (CII[DII[DI[DII[DII[DII[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesdd
+  (JNIEnv *, jclass, jchar, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    sgesdd
+ * Signature: (CII[FII[FI[FII[FII[FII[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesdd
+  (JNIEnv *, jclass, jchar, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    zgesdd
+ * Signature: (CII[DII[DI[DII[DII[DII[DI[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_zgesdd
+  (JNIEnv *, jclass, jchar, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgesvdx
+ * Signature: (CCCII[DIIDDII[II[DI[DII[DII[DII[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvdx
+  (JNIEnv *, jclass, jchar, jchar, jchar, jint, jint, jdoubleArray, jint, jint, jdouble, jdouble, jint, jint, jintArray, jint, jdoubleArray, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jint, jintArray, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    sgesvdx
+ * Signature: (CCCII[FIIFFII[II[FI[FII[FII[FII[II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_sgesvdx
+  (JNIEnv *, jclass, jchar, jchar, jchar, jint, jint, jfloatArray, jint, jint, jfloat, jfloat, jint, jint, jintArray, jint, jfloatArray, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jintArray, jint);
+
 /*
  * Class:     org_jblas_NativeBlas
  * Method:    dsygvd
@@ -723,6 +915,70 @@ JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsygvx
 JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_ssygvx
   (JNIEnv *, jclass, jint, jchar, jchar, jchar, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jfloat, jfloat, jint, jint, jfloat, jintArray, jint, jfloatArray, jint, jfloatArray, jint, jint, jfloatArray, jint, jint, jintArray, jint, jintArray, jint);
 
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgemvDirect
+ * Signature: (CIIDJJIJJIDJJI)V
+ */
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemvDirect
+  (JNIEnv *, jclass, jchar, jint, jint, jdouble, jlong, jlong, jint, jlong, jlong, jint, jdouble, jlong, jlong, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgemmDirect
+ * Signature: (CCIIIDJJIJJIDJJI)V
+ */
+JNIEXPORT void JNICALL Java_org_jblas_NativeBlas_dgemmDirect
+  (JNIEnv *, jclass, jchar, jchar, jint, jint, jint, jdouble, jlong, jlong, jint, jlong, jlong, jint, jdouble, jlong, jlong, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgesvDirect
+ * Signature: (IIJJILjava/nio/IntBuffer;IJJI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgesvDirect
+  (JNIEnv *, jclass, jint, jint, jlong, jlong, jint, jobject, jint, jlong, jlong, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dsyevDirect
+ * Signature: (CCIJJIJJJJI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevDirect
+  (JNIEnv *, jclass, jchar, jchar, jint, jlong, jlong, jint, jlong, jlong, jlong, jlong, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dsyevdDirect
+ * Signature: (CCIJJIJJJJILjava/nio/IntBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dsyevdDirect
+  (JNIEnv *, jclass, jchar, jchar, jint, jlong, jlong, jint, jlong, jlong, jlong, jlong, jint, jobject, jint, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dposvDirect
+ * Signature: (CIIJJIJJI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dposvDirect
+  (JNIEnv *, jclass, jchar, jint, jint, jlong, jlong, jint, jlong, jlong, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dgetrfDirect
+ * Signature: (IIJJILjava/nio/IntBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dgetrfDirect
+  (JNIEnv *, jclass, jint, jint, jlong, jlong, jint, jobject, jint);
+
+/*
+ * Class:     org_jblas_NativeBlas
+ * Method:    dpotrfDirect
+ * Signature: (CIJJI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jblas_NativeBlas_dpotrfDirect
+  (JNIEnv *, jclass, jchar, jint, jlong, jlong, jint);
+
 #ifdef __cplusplus
 }
 #endif
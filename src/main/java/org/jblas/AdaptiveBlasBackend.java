@@ -0,0 +1,133 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+/**
+ * BLAS backend which computes small problems in Java and large ones natively.
+ *
+ * <p>For gemm, gemv, ger, and axpy, the amount of work of each call is
+ * compared with the crossover from a {@link BlasCalibration}. Below the
+ * crossover, the call goes to {@link JavaBlas}, which avoids the cost of
+ * copying the arrays for the JNI call, otherwise to {@link NativeBlas}. All
+ * other routines behave as in {@link NativeBlasBackend}, in particular, dot
+ * products are always computed in Java.</p>
+ */
+public class AdaptiveBlasBackend extends NativeBlasBackend {
+  private final BlasCalibration calibration;
+
+  /** Create a backend with the calibration from {@link BlasCalibration#startup()}. */
+  public AdaptiveBlasBackend() {
+    this(BlasCalibration.startup());
+  }
+
+  public AdaptiveBlasBackend(BlasCalibration calibration) {
+    this.calibration = calibration;
+  }
+
+  public BlasCalibration getCalibration() {
+    return calibration;
+  }
+
+  @Override
+  public String getName() {
+    return "adaptive";
+  }
+
+  @Override
+  public void daxpy(int n, double da, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    if (n < calibration.getAxpy())
+      JavaBlas.raxpy(n, da, dx, dxIdx, incx, dy, dyIdx, incy);
+    else
+      NativeBlas.daxpy(n, da, dx, dxIdx, incx, dy, dyIdx, incy);
+  }
+
+  @Override
+  public void saxpy(int n, float sa, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    if (n < calibration.getAxpy())
+      JavaBlas.raxpy(n, sa, sx, sxIdx, incx, sy, syIdx, incy);
+    else
+      NativeBlas.saxpy(n, sa, sx, sxIdx, incx, sy, syIdx, incy);
+  }
+
+  @Override
+  public void dgemv(char trans, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] x, int xIdx, int incx, double beta, double[] y, int yIdx, int incy) {
+    if ((long) m * n < calibration.getGemv())
+      JavaBlas.rgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+    else
+      NativeBlas.dgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+  }
+
+  @Override
+  public void sgemv(char trans, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] x, int xIdx, int incx, float beta, float[] y, int yIdx, int incy) {
+    if ((long) m * n < calibration.getGemv())
+      JavaBlas.rgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+    else
+      NativeBlas.sgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+  }
+
+  @Override
+  public void dger(int m, int n, double alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    if ((long) m * n < calibration.getGer())
+      JavaBlas.rger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    else
+      NativeBlas.dger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  @Override
+  public void sger(int m, int n, float alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    if ((long) m * n < calibration.getGer())
+      JavaBlas.rger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    else
+      NativeBlas.sger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  @Override
+  public void dgemm(char transa, char transb, int m, int n, int k, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc) {
+    if ((long) m * n * k < calibration.getGemm())
+      JavaBlas.rgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+    else
+      NativeBlas.dgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+
+  @Override
+  public void sgemm(char transa, char transb, int m, int n, int k, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc) {
+    if ((long) m * n * k < calibration.getGemm())
+      JavaBlas.rgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+    else
+      NativeBlas.sgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+}
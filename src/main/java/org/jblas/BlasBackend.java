@@ -0,0 +1,165 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+/**
+ * The BLAS and LAPACK routines used by SimpleBlas, Solve, Eigen, Singular, and Decompose.
+ *
+ * <p>The methods have the same signatures as the corresponding methods in
+ * {@link NativeBlas}: each array argument is followed by the offset into
+ * the array, and LAPACK routines return the INFO value and allocate their
+ * workspace themselves.</p>
+ *
+ * <p>The backend in use is selected through {@link BlasBackends}. jblas comes with
+ * {@link NativeBlasBackend}, which calls the native libraries, {@link JavaBlasBackend},
+ * which runs the real BLAS routines in Java, {@link AdaptiveBlasBackend}, which
+ * chooses between the two by problem size, and {@link InstrumentedBlasBackend},
+ * which counts calls and times of another backend. Other implementations,
+ * for example one using a different native binding, can be installed with
+ * {@link BlasBackends#setBackend} or by class name through the system property
+ * "org.jblas.backend".</p>
+ */
+public interface BlasBackend {
+  /** A short name for the backend, like "native" or "java". */
+  String getName();
+
+  // BLAS Level 1
+  void ccopy(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy);
+  void dcopy(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy);
+  void scopy(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy);
+  void zcopy(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy);
+  void dswap(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy);
+  void sswap(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy);
+  void caxpy(int n, ComplexFloat ca, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy);
+  void daxpy(int n, double da, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy);
+  void saxpy(int n, float sa, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy);
+  void zaxpy(int n, ComplexDouble za, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy);
+  void cscal(int n, ComplexFloat ca, float[] cx, int cxIdx, int incx);
+  void dscal(int n, double da, double[] dx, int dxIdx, int incx);
+  void sscal(int n, float sa, float[] sx, int sxIdx, int incx);
+  void zscal(int n, ComplexDouble za, double[] zx, int zxIdx, int incx);
+  ComplexFloat cdotc(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy);
+  ComplexFloat cdotu(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy);
+  double ddot(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy);
+  float sdot(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy);
+  ComplexDouble zdotc(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy);
+  ComplexDouble zdotu(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy);
+  double dnrm2(int n, double[] x, int xIdx, int incx);
+  double dznrm2(int n, double[] x, int xIdx, int incx);
+  float scnrm2(int n, float[] x, int xIdx, int incx);
+  float snrm2(int n, float[] x, int xIdx, int incx);
+  double dasum(int n, double[] dx, int dxIdx, int incx);
+  double dzasum(int n, double[] zx, int zxIdx, int incx);
+  float sasum(int n, float[] sx, int sxIdx, int incx);
+  float scasum(int n, float[] cx, int cxIdx, int incx);
+  int icamax(int n, float[] cx, int cxIdx, int incx);
+  int idamax(int n, double[] dx, int dxIdx, int incx);
+  int isamax(int n, float[] sx, int sxIdx, int incx);
+  int izamax(int n, double[] zx, int zxIdx, int incx);
+
+  // BLAS Level 2
+  void dgemv(char trans, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] x, int xIdx, int incx, double beta, double[] y, int yIdx, int incy);
+  void sgemv(char trans, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] x, int xIdx, int incx, float beta, float[] y, int yIdx, int incy);
+  void cgerc(int m, int n, ComplexFloat alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda);
+  void cgeru(int m, int n, ComplexFloat alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda);
+  void dger(int m, int n, double alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda);
+  void sger(int m, int n, float alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda);
+  void zgerc(int m, int n, ComplexDouble alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda);
+  void zgeru(int m, int n, ComplexDouble alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda);
+
+  // BLAS Level 3
+  void cgemm(char transa, char transb, int m, int n, int k, ComplexFloat alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, ComplexFloat beta, float[] c, int cIdx, int ldc);
+  void dgemm(char transa, char transb, int m, int n, int k, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc);
+  void sgemm(char transa, char transb, int m, int n, int k, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc);
+  void zgemm(char transa, char transb, int m, int n, int k, ComplexDouble alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, ComplexDouble beta, double[] c, int cIdx, int ldc);
+  void dtrsm(char side, char uplo, char transa, char diag, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb);
+  void strsm(char side, char uplo, char transa, char diag, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb);
+
+  // LAPACK
+  int dgesv(int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb);
+  int sgesv(int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb);
+  int dsysv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb);
+  int ssysv(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb);
+  int dsyev(char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] w, int wIdx);
+  int ssyev(char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] w, int wIdx);
+  int dsyevd(char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] w, int wIdx);
+  int dsyevr(char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] isuppz, int isuppzIdx);
+  int dsyevx(char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx);
+  int ssyevd(char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] w, int wIdx);
+  int ssyevr(char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] isuppz, int isuppzIdx);
+  int ssyevx(char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx);
+  int dposv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb);
+  int sposv(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb);
+  int dgeev(char jobvl, char jobvr, int n, double[] a, int aIdx, int lda, double[] wr, int wrIdx, double[] wi, int wiIdx, double[] vl, int vlIdx, int ldvl, double[] vr, int vrIdx, int ldvr);
+  int sgeev(char jobvl, char jobvr, int n, float[] a, int aIdx, int lda, float[] wr, int wrIdx, float[] wi, int wiIdx, float[] vl, int vlIdx, int ldvl, float[] vr, int vrIdx, int ldvr);
+  int dgetrf(int m, int n, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx);
+  int sgetrf(int m, int n, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx);
+  int dpotrf(char uplo, int n, double[] a, int aIdx, int lda);
+  int spotrf(char uplo, int n, float[] a, int aIdx, int lda);
+  int dgetrs(char trans, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb);
+  int sgetrs(char trans, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb);
+  int dpotrs(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb);
+  int spotrs(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb);
+  int dgecon(char norm, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx);
+  int sgecon(char norm, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx);
+  int dpocon(char uplo, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx);
+  int spocon(char uplo, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx);
+  int dtrcon(char norm, char uplo, char diag, int n, double[] a, int aIdx, int lda, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx);
+  int strcon(char norm, char uplo, char diag, int n, float[] a, int aIdx, int lda, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx);
+  int cgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx);
+  int dgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt);
+  int sgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt);
+  int zgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx);
+  int cgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx, int[] iwork, int iworkIdx);
+  int dgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx);
+  int sgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx);
+  int zgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx, int[] iwork, int iworkIdx);
+  int dgesvdx(char jobu, char jobvt, char range, int m, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, int[] ns, int nsIdx, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx);
+  int sgesvdx(char jobu, char jobvt, char range, int m, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, int[] ns, int nsIdx, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx);
+  int dsygvd(int itype, char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double[] w, int wIdx);
+  int ssygvd(int itype, char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float[] w, int wIdx);
+  int dgelsd(int m, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double[] s, int sIdx, double rcond, int[] rank, int rankIdx, int[] iwork, int iworkIdx);
+  int sgelsd(int m, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float[] s, int sIdx, float rcond, int[] rank, int rankIdx, int[] iwork, int iworkIdx);
+  int dgeqrf(int m, int n, double[] a, int aIdx, int lda, double[] tau, int tauIdx);
+  int sgeqrf(int m, int n, float[] a, int aIdx, int lda, float[] tau, int tauIdx);
+  int dormqr(char side, char trans, int m, int n, int k, double[] a, int aIdx, int lda, double[] tau, int tauIdx, double[] c, int cIdx, int ldc);
+  int sormqr(char side, char trans, int m, int n, int k, float[] a, int aIdx, int lda, float[] tau, int tauIdx, float[] c, int cIdx, int ldc);
+  int dorgqr(int m, int n, int k, double[] a, int aIdx, int lda, double[] tau, int tauIdx);
+  int sorgqr(int m, int n, int k, float[] a, int aIdx, int lda, float[] tau, int tauIdx);
+  int dsygvx(int itype, char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx);
+  int ssygvx(int itype, char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx);
+}
@@ -0,0 +1,139 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import org.jblas.util.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Selection of the {@link BlasBackend} used by SimpleBlas, Solve, Eigen, Singular, and Decompose.
+ *
+ * <p>The backend is chosen with the system property "org.jblas.backend", which
+ * can be one of</p>
+ * <ul>
+ *   <li>"native": the native BLAS and LAPACK ({@link NativeBlasBackend}),</li>
+ *   <li>"java": BLAS routines in Java ({@link JavaBlasBackend}),</li>
+ *   <li>"adaptive": small problems in Java, large ones natively ({@link AdaptiveBlasBackend}),</li>
+ *   <li>"instrumented:&lt;backend&gt;": count calls and times of another backend
+ *       ({@link InstrumentedBlasBackend}),</li>
+ *   <li>the name of a class implementing BlasBackend with a public no-argument constructor.</li>
+ * </ul>
+ *
+ * <p>If the property is not set, the adaptive backend is used, unless the native
+ * libraries could not be loaded, in which case jblas falls back to the Java backend.
+ * The backend can be changed at runtime with {@link #setBackend}.</p>
+ */
+public class BlasBackends {
+  /** System property selecting the backend. */
+  public static final String PROPERTY = "org.jblas.backend";
+
+  private static volatile BlasBackend backend = defaultBackend();
+
+  /** The backend currently in use. */
+  public static BlasBackend backend() {
+    return backend;
+  }
+
+  /** Use the given backend for all following calls. */
+  public static void setBackend(BlasBackend newBackend) {
+    if (newBackend == null)
+      throw new IllegalArgumentException("Backend must not be null.");
+    Logger.getLogger().config("Using BLAS backend \"" + newBackend.getName() + "\".");
+    backend = newBackend;
+  }
+
+  /** Use the backend given by name, see {@link #forName}. */
+  public static void setBackend(String name) {
+    setBackend(forName(name));
+  }
+
+  /**
+   * Construct a backend from its name.
+   *
+   * @param name "native", "java", "adaptive", "instrumented:" followed by another name,
+   *             or the name of a class implementing BlasBackend.
+   */
+  public static BlasBackend forName(String name) {
+    name = name.trim();
+    if (name.equals("native"))
+      return new NativeBlasBackend();
+    if (name.equals("java"))
+      return new JavaBlasBackend();
+    if (name.equals("adaptive"))
+      return new AdaptiveBlasBackend();
+    if (name.startsWith("instrumented:"))
+      return new InstrumentedBlasBackend(forName(name.substring("instrumented:".length())));
+
+    Class<?> c;
+    try {
+      c = Class.forName(name);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalArgumentException("Unknown BLAS backend \"" + name + "\".");
+    }
+    if (!BlasBackend.class.isAssignableFrom(c))
+      throw new IllegalArgumentException("Class " + name + " does not implement BlasBackend.");
+
+    try {
+      return (BlasBackend) c.getDeclaredConstructor().newInstance();
+    } catch (InvocationTargetException e) {
+      throw new IllegalArgumentException("Could not create BLAS backend " + name + ": " + e.getCause(), e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Could not create BLAS backend " + name + ": " + e, e);
+    }
+  }
+
+  private static BlasBackend defaultBackend() {
+    String name = System.getProperty(PROPERTY);
+    if (name != null) {
+      try {
+        return forName(name);
+      } catch (IllegalArgumentException e) {
+        Logger.getLogger().warning(e.getMessage() + " Using the default backend.");
+      }
+    }
+
+    try {
+      double[] a = new double[1];
+      NativeBlas.dgemm('N', 'N', 1, 1, 1, 1.0, a, 0, 1, a, 0, 1, 1.0, a, 0, 1);
+      return new AdaptiveBlasBackend();
+    } catch (UnsatisfiedLinkError e) {
+      Logger.getLogger().warning("Native BLAS not available, using the Java backend.");
+      return new JavaBlasBackend();
+    }
+  }
+}
@@ -0,0 +1,371 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import org.jblas.util.Logger;
+
+import java.io.*;
+import java.util.Properties;
+
+/**
+ * Crossover points between the Java and the native implementation of BLAS routines.
+ *
+ * <p>For small vectors and matrices, copying the arrays for the JNI call
+ * takes longer than the computation itself, so that the Java implementation
+ * in {@link JavaBlas} is faster. For each routine, the crossover is given as
+ * the amount of work, that is, m * n * k for gemm, m * n for gemv and ger, and
+ * n for axpy. Calls with less work than the crossover are computed in
+ * Java, the others natively. The crossovers are measured for double precision
+ * and also used for single precision.</p>
+ *
+ * <p>There is no crossover for dot. Like all backends based on NativeBlas,
+ * {@link AdaptiveBlasBackend} always computes dot products in Java, which
+ * avoids the problematic float return value of the native sdot.</p>
+ *
+ * <p>The crossovers are machine dependent and can be measured with
+ * {@link #measure()}, which takes about a second. {@link AdaptiveBlasBackend} reads
+ * them at startup from the file given by the system property
+ * "org.jblas.calibration.file" (default ~/.jblas/calibration.properties).
+ * If the system property "org.jblas.calibration" is "measure", they are measured
+ * at startup and written to that file. Otherwise, if there is no such file,
+ * built-in defaults are used.</p>
+ */
+public class BlasCalibration {
+  /** System property which triggers the calibration at startup when set to "measure". */
+  public static final String PROPERTY = "org.jblas.calibration";
+  /** System property with the name of the file the calibration is stored in. */
+  public static final String FILE_PROPERTY = "org.jblas.calibration.file";
+
+  /** Crossover which always selects the Java implementation. */
+  public static final long ALWAYS_JAVA = Long.MAX_VALUE;
+
+  private static final String[] ROUTINES = {"gemm", "gemv", "ger", "axpy"};
+
+  private final long gemm;
+  private final long gemv;
+  private final long ger;
+  private final long axpy;
+
+  public BlasCalibration(long gemm, long gemv, long ger, long axpy) {
+    this.gemm = gemm;
+    this.gemv = gemv;
+    this.ger = ger;
+    this.axpy = axpy;
+  }
+
+  /** Crossover for gemm in multiply-adds (m * n * k). */
+  public long getGemm() {
+    return gemm;
+  }
+
+  /** Crossover for gemv in multiply-adds (m * n). */
+  public long getGemv() {
+    return gemv;
+  }
+
+  /** Crossover for ger in multiply-adds (m * n). */
+  public long getGer() {
+    return ger;
+  }
+
+  /** Crossover for axpy in multiply-adds (n). */
+  public long getAxpy() {
+    return axpy;
+  }
+
+  /**
+   * Default crossovers: gemm below 32x32x32 and ger below 64x64 run in Java,
+   * and gemv and axpy always run in Java as they did in SimpleBlas.
+   */
+  public static BlasCalibration defaults() {
+    return new BlasCalibration(32L * 32 * 32, ALWAYS_JAVA, 64L * 64, ALWAYS_JAVA);
+  }
+
+  /**
+   * The calibration to use at startup, following the system properties
+   * described above.
+   */
+  public static BlasCalibration startup() {
+    File file = defaultFile();
+
+    if ("measure".equals(System.getProperty(PROPERTY))) {
+      BlasCalibration c = measure();
+      try {
+        c.save(file);
+        Logger.getLogger().config("Saved BLAS calibration " + c + " to " + file + ".");
+      } catch (IOException e) {
+        Logger.getLogger().warning("Could not save BLAS calibration to " + file + ": " + e.getMessage());
+      }
+      return c;
+    }
+
+    if (file.exists()) {
+      try {
+        BlasCalibration c = load(file);
+        Logger.getLogger().config("Loaded BLAS calibration " + c + " from " + file + ".");
+        return c;
+      } catch (IOException e) {
+        Logger.getLogger().warning("Could not load BLAS calibration from " + file + ": " + e.getMessage());
+      }
+    }
+    return defaults();
+  }
+
+  /** The file given by "org.jblas.calibration.file", or ~/.jblas/calibration.properties. */
+  public static File defaultFile() {
+    String name = System.getProperty(FILE_PROPERTY);
+    if (name != null)
+      return new File(name);
+    return new File(new File(System.getProperty("user.home"), ".jblas"), "calibration.properties");
+  }
+
+  /**
+   * Load a calibration stored with {@link #save}.
+   *
+   * @throws IOException if the file cannot be read, is incomplete, or was
+   *                     measured on a different architecture.
+   */
+  public static BlasCalibration load(File file) throws IOException {
+    Properties p = new Properties();
+    InputStream in = new FileInputStream(file);
+    try {
+      p.load(in);
+    } finally {
+      in.close();
+    }
+
+    if (!architecture().equals(p.getProperty("arch")))
+      throw new IOException("Calibration was measured for \"" + p.getProperty("arch") + "\".");
+
+    long[] values = new long[ROUTINES.length];
+    for (int i = 0; i < ROUTINES.length; i++) {
+      String value = p.getProperty(ROUTINES[i]);
+      if (value == null)
+        throw new IOException("Missing crossover for " + ROUTINES[i] + ".");
+      try {
+        values[i] = Long.parseLong(value.trim());
+      } catch (NumberFormatException e) {
+        throw new IOException("Illegal crossover for " + ROUTINES[i] + ": \"" + value + "\".");
+      }
+    }
+    return new BlasCalibration(values[0], values[1], values[2], values[3]);
+  }
+
+  /** Save the calibration as a properties file, creating the directory if necessary. */
+  public void save(File file) throws IOException {
+    Properties p = new Properties();
+    p.setProperty("arch", architecture());
+    long[] values = {gemm, gemv, ger, axpy};
+    for (int i = 0; i < ROUTINES.length; i++)
+      p.setProperty(ROUTINES[i], Long.toString(values[i]));
+
+    File dir = file.getAbsoluteFile().getParentFile();
+    if (dir != null && !dir.exists() && !dir.mkdirs())
+      throw new IOException("Cannot create directory " + dir + ".");
+
+    OutputStream out = new FileOutputStream(file);
+    try {
+      p.store(out, "jblas crossovers between Java and native BLAS in multiply-adds");
+    } finally {
+      out.close();
+    }
+  }
+
+  private static String architecture() {
+    return System.getProperty("os.name") + "/" + System.getProperty("os.arch") + "/"
+        + Runtime.getRuntime().availableProcessors();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("[gemm=%s, gemv=%s, ger=%s, axpy=%s]",
+        format(gemm), format(gemv), format(ger), format(axpy));
+  }
+
+  private static String format(long crossover) {
+    return crossover == ALWAYS_JAVA ? "java" : Long.toString(crossover);
+  }
+
+  /***************************************************************************
+   * Measuring the crossovers
+   */
+
+  /**
+   * Measure the crossovers by timing the Java and the native implementation
+   * for increasing sizes. If the native libraries are not available, all
+   * routines run in Java.
+   */
+  public static BlasCalibration measure() {
+    try {
+      return new BlasCalibration(
+          crossover(new GemmProbe(), new int[]{2, 4, 8, 12, 16, 24, 32, 48, 64, 96, 128}),
+          crossover(new GemvProbe(), new int[]{4, 8, 16, 32, 64, 128, 256, 512}),
+          crossover(new GerProbe(), new int[]{4, 8, 16, 32, 64, 128, 256, 512}),
+          crossover(new AxpyProbe(), new int[]{16, 64, 256, 1024, 4096, 16384, 65536}));
+    } catch (UnsatisfiedLinkError e) {
+      Logger.getLogger().warning("Native BLAS not available, all routines run in Java.");
+      return new BlasCalibration(ALWAYS_JAVA, ALWAYS_JAVA, ALWAYS_JAVA, ALWAYS_JAVA);
+    }
+  }
+
+  /** Smallest work for which native is faster than Java, in a sequence of sizes. */
+  private static long crossover(Probe probe, int[] sizes) {
+    for (int n : sizes) {
+      probe.setUp(n);
+      double javaTime = time(probe, false);
+      double nativeTime = time(probe, true);
+      Logger.getLogger().debug(String.format("%s n=%d: java %.0fns, native %.0fns",
+          probe.getClass().getSimpleName(), n, javaTime, nativeTime));
+      if (nativeTime < javaTime)
+        return probe.work(n);
+    }
+    return ALWAYS_JAVA;
+  }
+
+  /** Best time per call in nanoseconds over a few runs of at least a millisecond. */
+  private static double time(Probe probe, boolean nativeRoutine) {
+    double best = Double.MAX_VALUE;
+    for (int run = 0; run < 3; run++) {
+      for (int calls = 1; ; calls *= 2) {
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+          if (nativeRoutine)
+            probe.runNative();
+          else
+            probe.runJava();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (elapsed >= 1000000L) {
+          best = Math.min(best, (double) elapsed / calls);
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  /** One routine with square arguments of size n. */
+  private static abstract class Probe {
+    double[] x, y, a, b, c;
+    int n;
+
+    void setUp(int n) {
+      this.n = n;
+      x = DoubleMatrix.rand(n).data;
+      y = DoubleMatrix.rand(n).data;
+    }
+
+    abstract long work(int n);
+
+    abstract void runJava();
+
+    abstract void runNative();
+  }
+
+  private static class GemmProbe extends Probe {
+    void setUp(int n) {
+      super.setUp(n);
+      a = DoubleMatrix.rand(n, n).data;
+      b = DoubleMatrix.rand(n, n).data;
+      c = new double[n * n];
+    }
+
+    long work(int n) {
+      return (long) n * n * n;
+    }
+
+    void runJava() {
+      JavaBlas.rgemm('N', 'N', n, n, n, 1.0, a, 0, n, b, 0, n, 0.0, c, 0, n);
+    }
+
+    void runNative() {
+      NativeBlas.dgemm('N', 'N', n, n, n, 1.0, a, 0, n, b, 0, n, 0.0, c, 0, n);
+    }
+  }
+
+  private static class GemvProbe extends Probe {
+    void setUp(int n) {
+      super.setUp(n);
+      a = DoubleMatrix.rand(n, n).data;
+    }
+
+    long work(int n) {
+      return (long) n * n;
+    }
+
+    void runJava() {
+      JavaBlas.rgemv('N', n, n, 1.0, a, 0, n, x, 0, 1, 0.0, y, 0, 1);
+    }
+
+    void runNative() {
+      NativeBlas.dgemv('N', n, n, 1.0, a, 0, n, x, 0, 1, 0.0, y, 0, 1);
+    }
+  }
+
+  private static class GerProbe extends Probe {
+    void setUp(int n) {
+      super.setUp(n);
+      a = new double[n * n];
+    }
+
+    long work(int n) {
+      return (long) n * n;
+    }
+
+    void runJava() {
+      JavaBlas.rger(n, n, 1.0, x, 0, 1, y, 0, 1, a, 0, n);
+    }
+
+    void runNative() {
+      NativeBlas.dger(n, n, 1.0, x, 0, 1, y, 0, 1, a, 0, n);
+    }
+  }
+
+  private static class AxpyProbe extends Probe {
+    long work(int n) {
+      return n;
+    }
+
+    void runJava() {
+      JavaBlas.raxpy(n, 1e-9, x, 0, 1, y, 0, 1);
+    }
+
+    void runNative() {
+      NativeBlas.daxpy(n, 1e-9, x, 0, 1, y, 0, 1);
+    }
+  }
+}
@@ -37,12 +37,17 @@
 package org.jblas;
 
 import org.jblas.exceptions.SizeException;
+import org.jblas.util.MatrixCodec;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 public class ComplexFloatMatrix {
@@ -1172,6 +1177,82 @@ public class ComplexFloatMatrix {
 	public ComplexFloatMatrix mmuli(float v, ComplexFloatMatrix result) {
 		return muli(v, result);
 	}
+
+	/**
+	 * Matrix-Matrix Multiplication with the transpose of this matrix, computing
+	 * result = this^T * other (in-place) without computing the transpose.
+	 */
+	public ComplexFloatMatrix transposeMmuli(ComplexFloatMatrix other, ComplexFloatMatrix result) {
+		if (rows != other.rows)
+			throw new SizeException("Number of rows of left matrix must be equal to number of rows of right matrix.");
+		return gemmi('T', 'N', columns, other.columns, other, result);
+	}
+
+	public ComplexFloatMatrix transposeMmul(ComplexFloatMatrix other) {
+		return transposeMmuli(other, new ComplexFloatMatrix(columns, other.columns));
+	}
+
+	/**
+	 * Matrix-Matrix Multiplication with the conjugate transpose of this matrix, computing
+	 * result = this^H * other (in-place) without computing the conjugate transpose.
+	 */
+	public ComplexFloatMatrix hermitianMmuli(ComplexFloatMatrix other, ComplexFloatMatrix result) {
+		if (rows != other.rows)
+			throw new SizeException("Number of rows of left matrix must be equal to number of rows of right matrix.");
+		return gemmi('C', 'N', columns, other.columns, other, result);
+	}
+
+	public ComplexFloatMatrix hermitianMmul(ComplexFloatMatrix other) {
+		return hermitianMmuli(other, new ComplexFloatMatrix(columns, other.columns));
+	}
+
+	/**
+	 * Matrix-Matrix Multiplication with the transpose of other, computing
+	 * result = this * other^T (in-place) without computing the transpose.
+	 */
+	public ComplexFloatMatrix mmulTransposei(ComplexFloatMatrix other, ComplexFloatMatrix result) {
+		if (columns != other.columns)
+			throw new SizeException("Number of columns of left matrix must be equal to number of columns of right matrix.");
+		return gemmi('N', 'T', rows, other.rows, other, result);
+	}
+
+	public ComplexFloatMatrix mmulTranspose(ComplexFloatMatrix other) {
+		return mmulTransposei(other, new ComplexFloatMatrix(rows, other.rows));
+	}
+
+	/**
+	 * Matrix-Matrix Multiplication with the conjugate transpose of other, computing
+	 * result = this * other^H (in-place) without computing the conjugate transpose.
+	 */
+	public ComplexFloatMatrix mmulHermitiani(ComplexFloatMatrix other, ComplexFloatMatrix result) {
+		if (columns != other.columns)
+			throw new SizeException("Number of columns of left matrix must be equal to number of columns of right matrix.");
+		return gemmi('N', 'C', rows, other.rows, other, result);
+	}
+
+	public ComplexFloatMatrix mmulHermitian(ComplexFloatMatrix other) {
+		return mmulHermitiani(other, new ComplexFloatMatrix(rows, other.rows));
+	}
+
+	/** Compute result = op(this) * op(other) for an m * n result with gemm. */
+	private ComplexFloatMatrix gemmi(char transa, char transb, int m, int n, ComplexFloatMatrix other, ComplexFloatMatrix result) {
+		if (result.rows != m || result.columns != n) {
+			if (result != this && result != other)
+				result.resize(m, n);
+			else
+				throw new SizeException("Cannot resize result matrix because it is used in-place.");
+		}
+
+		if (result == this || result == other) {
+			ComplexFloatMatrix temp = new ComplexFloatMatrix(m, n);
+			SimpleBlas.gemm(transa, transb, ComplexFloat.UNIT, this, other, ComplexFloat.ZERO, temp);
+			SimpleBlas.copy(temp, result);
+		}
+		else {
+			SimpleBlas.gemm(transa, transb, ComplexFloat.UNIT, this, other, ComplexFloat.ZERO, result);
+		}
+		return result;
+	}
 	
 	/** (Elementwise) division */
 	public ComplexFloatMatrix divi(ComplexFloatMatrix other, ComplexFloatMatrix result) {
@@ -1438,13 +1519,29 @@ public class ComplexFloatMatrix {
 	 * @throws IOException 
 	 */
 	public void out(DataOutputStream dos) throws IOException {
-		dos.writeUTF("float");
-		dos.writeInt(columns);
-		dos.writeInt(rows);
-		
-		dos.writeInt(data.length);
-		for(int i=0; i < data.length;i++)
-			dos.writeFloat(data[i]);
+		out(Channels.newChannel(dos));
+	}
+
+	/**
+	 * Writes out this matrix to the given channel in big endian byte order
+	 * and without checksum. This is the format read by all versions of in().
+	 * @param channel the channel to write to.
+	 * @throws IOException 
+	 */
+	public void out(WritableByteChannel channel) throws IOException {
+		out(channel, ByteOrder.BIG_ENDIAN, false);
+	}
+
+	/**
+	 * Writes out this matrix to the given channel. The real and imaginary parts
+	 * are stored interleaved, see {@link MatrixCodec} for the format.
+	 * @param channel the channel to write to.
+	 * @param order the byte order of the data. ByteOrder.nativeOrder() is fastest.
+	 * @param checksum whether to append a CRC32 checksum of the data.
+	 * @throws IOException 
+	 */
+	public void out(WritableByteChannel channel, ByteOrder order, boolean checksum) throws IOException {
+		MatrixCodec.write(channel, columns, rows, data, order, checksum);
 	}
 	
 	/**
@@ -1454,17 +1551,29 @@ public class ComplexFloatMatrix {
 	 * @throws IOException 
 	 */
 	public void in(DataInputStream dis) throws IOException {
-		if(!dis.readUTF().equals("float")) 
+		in(Channels.newChannel(dis));
+	}
+
+	/**
+	 * Reads in a matrix from the given channel. Both byte orders and
+	 * matrices with and without checksum are accepted. Note
+	 * that the old data of this matrix will be discarded.
+	 * @param channel the channel to read from.
+	 * @throws IOException if the channel ends early or the checksum does not match.
+	 */
+	public void in(ReadableByteChannel channel) throws IOException {
+		MatrixCodec.Header header = MatrixCodec.readHeader(channel);
+		if(!header.type.equals("float")) 
 			throw new IllegalStateException("The matrix in the specified file is not of the correct type!");
-		
-		this.columns	= dis.readInt();
-		this.rows		= dis.readInt();
 
-		final int MAX = dis.readInt();
-		data = new float[MAX];
-		for(int i=0; i < MAX;i++)
-			data[i] = dis.readFloat();
-	}	
+		float[] newData = new float[header.length];
+		MatrixCodec.read(channel, header, newData);
+
+		this.columns	= header.columns;
+		this.rows		= header.rows;
+		this.length	= newData.length / 2;
+		this.data		= newData;
+	}
 	
 	/**
 	 * Saves this matrix to the specified file.
@@ -1472,12 +1581,21 @@ public class ComplexFloatMatrix {
 	 * @throws IOException thrown on errors while writing the matrix to the file
 	 */
 	public void save(String filename) throws IOException {
+		save(filename, ByteOrder.BIG_ENDIAN, false);
+	}
+
+	/**
+	 * Saves this matrix to the specified file.
+	 * @param filename the file to write the matrix in.
+	 * @param order the byte order of the data. ByteOrder.nativeOrder() is fastest.
+	 * @param checksum whether to append a CRC32 checksum of the data.
+	 * @throws IOException thrown on errors while writing the matrix to the file
+	 */
+	public void save(String filename, ByteOrder order, boolean checksum) throws IOException {
             FileOutputStream fos = new FileOutputStream(filename, false);
-            DataOutputStream dos = new DataOutputStream(fos);
             try {
-                this.out(dos);
+                this.out(fos.getChannel(), order, checksum);
             } finally {
-                dos.close();
                 fos.close();
             }
 	}
@@ -1490,11 +1608,9 @@ public class ComplexFloatMatrix {
 	 */
 	public void load(String filename) throws IOException {
             FileInputStream fis = new FileInputStream(filename);
-            DataInputStream dis = new DataInputStream(fis);
             try {
-		this.in(dis);
+		this.in(fis.getChannel());
             } finally {
-                dis.close();
                 fis.close();
             }
 	}
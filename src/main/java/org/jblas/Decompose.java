@@ -6,7 +6,14 @@ package org.jblas;
 
 import org.jblas.exceptions.LapackArgumentException;
 import org.jblas.exceptions.LapackPositivityException;
+import org.jblas.exceptions.LapackSingularityException;
+import org.jblas.exceptions.SizeException;
 import org.jblas.util.Permutations;
+import org.jblas.util.Workspace;
+
+import java.nio.IntBuffer;
+
+import static org.jblas.BlasBackends.backend;
 import static org.jblas.util.Functions.min;
 
 /**
@@ -51,7 +58,7 @@ public class Decompose {
     public static LUDecomposition<DoubleMatrix> lu(DoubleMatrix A) {
         int[] ipiv = new int[min(A.rows, A.columns)];
         DoubleMatrix result = A.dup();
-        NativeBlas.dgetrf(A.rows, A.columns, result.data, 0, A.rows, ipiv, 0);
+        backend().dgetrf(A.rows, A.columns, result.data, 0, A.rows, ipiv, 0);
 
         // collect result
         DoubleMatrix l = new DoubleMatrix(A.rows, min(A.rows, A.columns));
@@ -85,7 +92,7 @@ public class Decompose {
      */
     public static FloatMatrix cholesky(FloatMatrix A) {
         FloatMatrix result = A.dup();
-        int info = NativeBlas.spotrf('U', A.rows, result.data, 0, A.rows);
+        int info = backend().spotrf('U', A.rows, result.data, 0, A.rows);
         if (info < 0) {
             throw new LapackArgumentException("DPOTRF", -info);
         } else if (info > 0) {
@@ -114,7 +121,7 @@ public class Decompose {
   public static LUDecomposition<FloatMatrix> lu(FloatMatrix A) {
       int[] ipiv = new int[min(A.rows, A.columns)];
       FloatMatrix result = A.dup();
-      NativeBlas.sgetrf(A.rows, A.columns, result.data, 0, A.rows, ipiv, 0);
+      backend().sgetrf(A.rows, A.columns, result.data, 0, A.rows, ipiv, 0);
 
       // collect result
       FloatMatrix l = new FloatMatrix(A.rows, min(A.rows, A.columns));
@@ -148,7 +155,7 @@ public class Decompose {
    */
   public static DoubleMatrix cholesky(DoubleMatrix A) {
       DoubleMatrix result = A.dup();
-      int info = NativeBlas.dpotrf('U', A.rows, result.data, 0, A.rows);
+      int info = backend().dpotrf('U', A.rows, result.data, 0, A.rows);
       if (info < 0) {
           throw new LapackArgumentException("DPOTRF", -info);
       } else if (info > 0) {
@@ -164,6 +171,65 @@ public class Decompose {
               A.put(i, j, 0.0);
   }
 
+  /**
+   * Compute LU Decomposition of a general direct matrix.
+   *
+   * @param A general matrix
+   * @return An LUDecomposition object.
+   * @see #lu(DoubleMatrix)
+   */
+  public static LUDecomposition<DirectDoubleMatrix> lu(DirectDoubleMatrix A) {
+      IntBuffer ipiv = SimpleBlas.allocateIntBuffer(min(A.rows, A.columns));
+      DirectDoubleMatrix result = A.dup();
+      int info = NativeBlas.dgetrfDirect(A.rows, A.columns, result.getAddress(), 0, A.rows, ipiv, 0);
+      if (info < 0) {
+          result.free();
+          throw new LapackArgumentException("DGETRF", -info);
+      }
+
+      // collect result
+      DirectDoubleMatrix l = new DirectDoubleMatrix(A.rows, min(A.rows, A.columns));
+      DirectDoubleMatrix u = new DirectDoubleMatrix(min(A.columns, A.rows), A.columns);
+      for (int i = 0; i < A.rows; i++) {
+          for (int j = 0; j < A.columns; j++) {
+              if (i < j) {
+                  u.put(i, j, result.get(i, j));
+              } else if (i == j) {
+                  u.put(i, i, result.get(i, i));
+                  l.put(i, i, 1.0);
+              } else {
+                  l.put(i, j, result.get(i, j));
+              }
+          }
+      }
+      result.free();
+      int[] pivots = new int[ipiv.capacity()];
+      ipiv.get(pivots);
+      DirectDoubleMatrix p = new DirectDoubleMatrix(Permutations.permutationDoubleMatrixFromPivotIndices(A.rows, pivots));
+      return new LUDecomposition<DirectDoubleMatrix>(l, u, p);
+  }
+
+  /**
+   * Compute Cholesky decomposition of a direct matrix A
+   *
+   * @param A symmetric, positive definite matrix (only upper half is used)
+   * @return upper triangular matrix U such that  A = U' * U
+   */
+  public static DirectDoubleMatrix cholesky(DirectDoubleMatrix A) {
+      A.assertSquare();
+      DirectDoubleMatrix result = A.dup();
+      int info = NativeBlas.dpotrfDirect('U', A.rows, result.getAddress(), 0, A.rows);
+      if (info < 0) {
+          throw new LapackArgumentException("DPOTRF", -info);
+      } else if (info > 0) {
+          throw new LapackPositivityException("DPOTRF", "Minor " + info + " was negative. Matrix must be positive definite.");
+      }
+      for (int j = 0; j < result.columns; j++)
+          for (int i = j + 1; i < result.rows; i++)
+              result.put(i, j, 0.0);
+      return result;
+  }
+
   /**
    * Class to represent a QR decomposition.
    *
@@ -237,4 +303,730 @@ public class Decompose {
     SimpleBlas.ormqr('L', 'N', result, tau, Q);
     return new QRDecomposition<FloatMatrix>(Q, R);
   }
+
+  /**
+   * LU factorization of a square matrix which can be reused to solve systems with
+   * different right-hand sides.
+   *
+   * Keeps the factors packed as computed by GETRF together with the pivot indices,
+   * and solves with GETRS. Objects are immutable and may be shared between threads.
+   *
+   * @param <T> matrix type
+   */
+  public static abstract class LUFactorization<T> {
+    /** Solve A*X = B. */
+    public abstract T solve(T B);
+
+    /** Solve A*X = B, overwriting B with X. Returns B. */
+    public abstract T solveInPlace(T B);
+
+    /** Determinant of A. */
+    public abstract double determinant();
+
+    /** Estimate of the reciprocal condition number of A in the 1-norm (GECON). */
+    public abstract double rcond();
+
+    /** Whether a pivot was exactly zero. Such a factorization cannot be used to solve. */
+    public abstract boolean isSingular();
+
+    /** Lower triangular factor L with unit diagonal. */
+    public abstract T getL();
+
+    /** Upper triangular factor U. */
+    public abstract T getU();
+
+    /** Permutation matrix P such that A = P * L * U. */
+    public abstract T getP();
+
+    /** The (1-based) pivot indices as returned by GETRF. */
+    public abstract int[] getPivots();
+  }
+
+  /**
+   * Cholesky factorization A = U' * U of a symmetric, positive definite matrix which
+   * can be reused to solve systems with different right-hand sides.
+   *
+   * Keeps the factor computed by POTRF from the upper half of A and solves with POTRS.
+   * Objects are immutable and may be shared between threads.
+   *
+   * @param <T> matrix type
+   */
+  public static abstract class CholeskyFactorization<T> {
+    /** Solve A*X = B. */
+    public abstract T solve(T B);
+
+    /** Solve A*X = B, overwriting B with X. Returns B. */
+    public abstract T solveInPlace(T B);
+
+    /** Determinant of A. */
+    public abstract double determinant();
+
+    /** Logarithm of the determinant of A, which does not overflow for larger matrices. */
+    public abstract double logDeterminant();
+
+    /** Estimate of the reciprocal condition number of A in the 1-norm (POCON). */
+    public abstract double rcond();
+
+    /** Upper triangular factor U. */
+    public abstract T getU();
+  }
+
+  /**
+   * QR factorization of an (m,n) matrix with m &gt;= n which can be reused to solve
+   * (least squares) systems with different right-hand sides.
+   *
+   * Keeps the Householder reflectors computed by GEQRF and solves by applying Q'
+   * with ORMQR and back substitution with TRSM. Objects are immutable and may be
+   * shared between threads.
+   *
+   * @param <T> matrix type
+   */
+  public static abstract class QRFactorization<T> {
+    /** Least squares solution X of A*X = B. X has n rows. */
+    public abstract T solve(T B);
+
+    /**
+     * Least squares solution of A*X = B, overwriting B. The first n rows of B
+     * then contain X. Returns B.
+     */
+    public abstract T solveInPlace(T B);
+
+    /** Determinant of A, which must be square. */
+    public abstract double determinant();
+
+    /** Estimate of the reciprocal condition number of R in the 1-norm (TRCON). */
+    public abstract double rcond();
+
+    /** The (m,m) orthogonal factor Q. */
+    public abstract T getQ();
+
+    /** The (n,n) upper triangular factor R. */
+    public abstract T getR();
+  }
+
+  /**
+   * Compute a reusable LU factorization of a square matrix.
+   *
+   * @param A square matrix
+   * @return an LUFactorization object
+   */
+  public static LUFactorization<DoubleMatrix> luFactorization(DoubleMatrix A) {
+    return new DoubleLUFactorization(A);
+  }
+
+  /**
+   * Compute a reusable Cholesky factorization.
+   *
+   * @param A symmetric, positive definite matrix (only upper half is used)
+   * @return a CholeskyFactorization object
+   */
+  public static CholeskyFactorization<DoubleMatrix> choleskyFactorization(DoubleMatrix A) {
+    return new DoubleCholeskyFactorization(A);
+  }
+
+  /**
+   * Compute a reusable QR factorization.
+   *
+   * @param A (m,n) matrix with m &gt;= n
+   * @return a QRFactorization object
+   */
+  public static QRFactorization<DoubleMatrix> qrFactorization(DoubleMatrix A) {
+    return new DoubleQRFactorization(A);
+  }
+
+  /**
+   * Compute a reusable LU factorization of a square matrix.
+   *
+   * @param A square matrix
+   * @return an LUFactorization object
+   */
+  public static LUFactorization<FloatMatrix> luFactorization(FloatMatrix A) {
+    return new FloatLUFactorization(A);
+  }
+
+  /**
+   * Compute a reusable Cholesky factorization.
+   *
+   * @param A symmetric, positive definite matrix (only upper half is used)
+   * @return a CholeskyFactorization object
+   */
+  public static CholeskyFactorization<FloatMatrix> choleskyFactorization(FloatMatrix A) {
+    return new FloatCholeskyFactorization(A);
+  }
+
+  /**
+   * Compute a reusable QR factorization.
+   *
+   * @param A (m,n) matrix with m &gt;= n
+   * @return a QRFactorization object
+   */
+  public static QRFactorization<FloatMatrix> qrFactorization(FloatMatrix A) {
+    return new FloatQRFactorization(A);
+  }
+
+  private static class DoubleLUFactorization extends LUFactorization<DoubleMatrix> {
+    private final int n;
+    private final double[] lu;
+    private final int[] ipiv;
+    private final double anorm;
+    private final boolean singular;
+
+    DoubleLUFactorization(DoubleMatrix A) {
+      A.assertSquare();
+      n = A.rows;
+      lu = A.dup().data;
+      ipiv = new int[n];
+      anorm = norm1(A);
+      int info = backend().dgetrf(n, n, lu, 0, n, ipiv, 0);
+      if (info < 0) {
+        throw new LapackArgumentException("DGETRF", -info);
+      }
+      singular = info > 0;
+    }
+
+    public DoubleMatrix solve(DoubleMatrix B) {
+      return solveInPlace(B.dup());
+    }
+
+    public DoubleMatrix solveInPlace(DoubleMatrix B) {
+      assertRows(B, n);
+      if (singular) {
+        throw new LapackSingularityException("DGETRS", "Linear equation cannot be solved because the matrix was singular.");
+      }
+      int info = backend().dgetrs('N', n, B.columns, lu, 0, n, ipiv, 0, B.data, 0, B.rows);
+      if (info < 0) {
+        throw new LapackArgumentException("DGETRS", -info);
+      }
+      return B;
+    }
+
+    public double determinant() {
+      double det = 1.0;
+      for (int i = 0; i < n; i++) {
+        det *= ipiv[i] != i + 1 ? -lu[i + i * n] : lu[i + i * n];
+      }
+      return det;
+    }
+
+    public double rcond() {
+      if (singular) {
+        return 0.0;
+      }
+      double[] rcond = new double[1];
+      double[] work = Workspace.doubles(4 * n);
+      int[] iwork = Workspace.ints(n);
+      int info;
+      try {
+        info = backend().dgecon('1', n, lu, 0, n, anorm, rcond, 0, work, 0, iwork, 0);
+      } finally {
+        Workspace.release(work);
+        Workspace.release(iwork);
+      }
+      if (info < 0) {
+        throw new LapackArgumentException("DGECON", -info);
+      }
+      return rcond[0];
+    }
+
+    public boolean isSingular() {
+      return singular;
+    }
+
+    public DoubleMatrix getL() {
+      DoubleMatrix l = new DoubleMatrix(n, n);
+      decomposeLowerUpper(new DoubleMatrix(n, n, lu), l, new DoubleMatrix(n, n));
+      return l;
+    }
+
+    public DoubleMatrix getU() {
+      DoubleMatrix u = new DoubleMatrix(n, n);
+      decomposeLowerUpper(new DoubleMatrix(n, n, lu), new DoubleMatrix(n, n), u);
+      return u;
+    }
+
+    public DoubleMatrix getP() {
+      return Permutations.permutationDoubleMatrixFromPivotIndices(n, ipiv);
+    }
+
+    public int[] getPivots() {
+      return ipiv.clone();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("<LUFactorization n=%d>", n);
+    }
+  }
+
+  private static class DoubleCholeskyFactorization extends CholeskyFactorization<DoubleMatrix> {
+    private final int n;
+    private final double[] u;
+    private final double anorm;
+
+    DoubleCholeskyFactorization(DoubleMatrix A) {
+      A.assertSquare();
+      n = A.rows;
+      u = A.dup().data;
+      anorm = symmetricNorm1(A);
+      int info = backend().dpotrf('U', n, u, 0, n);
+      if (info < 0) {
+        throw new LapackArgumentException("DPOTRF", -info);
+      } else if (info > 0) {
+        throw new LapackPositivityException("DPOTRF", "Minor " + info + " was negative. Matrix must be positive definite.");
+      }
+    }
+
+    public DoubleMatrix solve(DoubleMatrix B) {
+      return solveInPlace(B.dup());
+    }
+
+    public DoubleMatrix solveInPlace(DoubleMatrix B) {
+      assertRows(B, n);
+      int info = backend().dpotrs('U', n, B.columns, u, 0, n, B.data, 0, B.rows);
+      if (info < 0) {
+        throw new LapackArgumentException("DPOTRS", -info);
+      }
+      return B;
+    }
+
+    public double determinant() {
+      double det = 1.0;
+      for (int i = 0; i < n; i++) {
+        det *= u[i + i * n];
+      }
+      return det * det;
+    }
+
+    public double logDeterminant() {
+      double logDet = 0.0;
+      for (int i = 0; i < n; i++) {
+        logDet += Math.log(u[i + i * n]);
+      }
+      return 2 * logDet;
+    }
+
+    public double rcond() {
+      double[] rcond = new double[1];
+      double[] work = Workspace.doubles(3 * n);
+      int[] iwork = Workspace.ints(n);
+      int info;
+      try {
+        info = backend().dpocon('U', n, u, 0, n, anorm, rcond, 0, work, 0, iwork, 0);
+      } finally {
+        Workspace.release(work);
+        Workspace.release(iwork);
+      }
+      if (info < 0) {
+        throw new LapackArgumentException("DPOCON", -info);
+      }
+      return rcond[0];
+    }
+
+    public DoubleMatrix getU() {
+      DoubleMatrix result = new DoubleMatrix(n, n, u.clone());
+      clearLower(result);
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("<CholeskyFactorization n=%d>", n);
+    }
+  }
+
+  private static class DoubleQRFactorization extends QRFactorization<DoubleMatrix> {
+    private final int m, n;
+    private final DoubleMatrix qr;
+    private final DoubleMatrix tau;
+
+    DoubleQRFactorization(DoubleMatrix A) {
+      if (A.rows < A.columns) {
+        throw new SizeException("QR factorization needs at least as many rows as columns.");
+      }
+      m = A.rows;
+      n = A.columns;
+      qr = A.dup();
+      tau = new DoubleMatrix(n);
+      SimpleBlas.geqrf(qr, tau);
+    }
+
+    public DoubleMatrix solve(DoubleMatrix B) {
+      return solveInPlace(B.dup()).getRange(0, n, 0, B.columns);
+    }
+
+    public DoubleMatrix solveInPlace(DoubleMatrix B) {
+      assertRows(B, m);
+      int info = backend().dormqr('L', 'T', m, B.columns, n, qr.data, 0, m, tau.data, 0, B.data, 0, B.rows);
+      if (info < 0) {
+        throw new LapackArgumentException("DORMQR", -info);
+      }
+      backend().dtrsm('L', 'U', 'N', 'N', n, B.columns, 1.0, qr.data, 0, m, B.data, 0, B.rows);
+      return B;
+    }
+
+    public double determinant() {
+      if (m != n) {
+        throw new SizeException("Determinant is only defined for square matrices.");
+      }
+      double det = 1.0;
+      for (int i = 0; i < n; i++) {
+        // each reflector with a nonzero tau has determinant -1
+        det *= tau.data[i] != 0.0 ? -qr.data[i + i * m] : qr.data[i + i * m];
+      }
+      return det;
+    }
+
+    public double rcond() {
+      double[] rcond = new double[1];
+      double[] work = Workspace.doubles(3 * n);
+      int[] iwork = Workspace.ints(n);
+      int info;
+      try {
+        info = backend().dtrcon('1', 'U', 'N', n, qr.data, 0, m, rcond, 0, work, 0, iwork, 0);
+      } finally {
+        Workspace.release(work);
+        Workspace.release(iwork);
+      }
+      if (info < 0) {
+        throw new LapackArgumentException("DTRCON", -info);
+      }
+      return rcond[0];
+    }
+
+    public DoubleMatrix getQ() {
+      DoubleMatrix Q = DoubleMatrix.eye(m);
+      SimpleBlas.ormqr('L', 'N', qr, tau, Q);
+      return Q;
+    }
+
+    public DoubleMatrix getR() {
+      DoubleMatrix R = new DoubleMatrix(n, n);
+      for (int j = 0; j < n; j++) {
+        for (int i = 0; i <= j; i++) {
+          R.put(i, j, qr.get(i, j));
+        }
+      }
+      return R;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("<QRFactorization m=%d n=%d>", m, n);
+    }
+  }
+
+  private static void assertRows(DoubleMatrix B, int rows) {
+    if (B.rows != rows) {
+      throw new SizeException("Right-hand side must have " + rows + " rows (has " + B.rows + ").");
+    }
+  }
+
+  /** Maximum absolute column sum. */
+  private static double norm1(DoubleMatrix A) {
+    double norm = 0.0;
+    for (int j = 0; j < A.columns; j++) {
+      double s = 0.0;
+      for (int i = 0; i < A.rows; i++) {
+        s += Math.abs(A.get(i, j));
+      }
+      norm = Math.max(norm, s);
+    }
+    return norm;
+  }
+
+  /** 1-norm of the symmetric matrix given by the upper half of A. */
+  private static double symmetricNorm1(DoubleMatrix A) {
+    double norm = 0.0;
+    for (int j = 0; j < A.columns; j++) {
+      double s = 0.0;
+      for (int i = 0; i < A.rows; i++) {
+        s += Math.abs(i <= j ? A.get(i, j) : A.get(j, i));
+      }
+      norm = Math.max(norm, s);
+    }
+    return norm;
+  }
+
+  private static class FloatLUFactorization extends LUFactorization<FloatMatrix> {
+    private final int n;
+    private final float[] lu;
+    private final int[] ipiv;
+    private final float anorm;
+    private final boolean singular;
+
+    FloatLUFactorization(FloatMatrix A) {
+      A.assertSquare();
+      n = A.rows;
+      lu = A.dup().data;
+      ipiv = new int[n];
+      anorm = norm1(A);
+      int info = backend().sgetrf(n, n, lu, 0, n, ipiv, 0);
+      if (info < 0) {
+        throw new LapackArgumentException("SGETRF", -info);
+      }
+      singular = info > 0;
+    }
+
+    public FloatMatrix solve(FloatMatrix B) {
+      return solveInPlace(B.dup());
+    }
+
+    public FloatMatrix solveInPlace(FloatMatrix B) {
+      assertRows(B, n);
+      if (singular) {
+        throw new LapackSingularityException("SGETRS", "Linear equation cannot be solved because the matrix was singular.");
+      }
+      int info = backend().sgetrs('N', n, B.columns, lu, 0, n, ipiv, 0, B.data, 0, B.rows);
+      if (info < 0) {
+        throw new LapackArgumentException("SGETRS", -info);
+      }
+      return B;
+    }
+
+    public double determinant() {
+      double det = 1.0;
+      for (int i = 0; i < n; i++) {
+        det *= ipiv[i] != i + 1 ? -lu[i + i * n] : lu[i + i * n];
+      }
+      return det;
+    }
+
+    public double rcond() {
+      if (singular) {
+        return 0.0;
+      }
+      float[] rcond = new float[1];
+      float[] work = Workspace.floats(4 * n);
+      int[] iwork = Workspace.ints(n);
+      int info;
+      try {
+        info = backend().sgecon('1', n, lu, 0, n, anorm, rcond, 0, work, 0, iwork, 0);
+      } finally {
+        Workspace.release(work);
+        Workspace.release(iwork);
+      }
+      if (info < 0) {
+        throw new LapackArgumentException("SGECON", -info);
+      }
+      return rcond[0];
+    }
+
+    public boolean isSingular() {
+      return singular;
+    }
+
+    public FloatMatrix getL() {
+      FloatMatrix l = new FloatMatrix(n, n);
+      decomposeLowerUpper(new FloatMatrix(n, n, lu), l, new FloatMatrix(n, n));
+      return l;
+    }
+
+    public FloatMatrix getU() {
+      FloatMatrix u = new FloatMatrix(n, n);
+      decomposeLowerUpper(new FloatMatrix(n, n, lu), new FloatMatrix(n, n), u);
+      return u;
+    }
+
+    public FloatMatrix getP() {
+      return Permutations.permutationFloatMatrixFromPivotIndices(n, ipiv);
+    }
+
+    public int[] getPivots() {
+      return ipiv.clone();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("<LUFactorization n=%d>", n);
+    }
+  }
+
+  private static class FloatCholeskyFactorization extends CholeskyFactorization<FloatMatrix> {
+    private final int n;
+    private final float[] u;
+    private final float anorm;
+
+    FloatCholeskyFactorization(FloatMatrix A) {
+      A.assertSquare();
+      n = A.rows;
+      u = A.dup().data;
+      anorm = symmetricNorm1(A);
+      int info = backend().spotrf('U', n, u, 0, n);
+      if (info < 0) {
+        throw new LapackArgumentException("SPOTRF", -info);
+      } else if (info > 0) {
+        throw new LapackPositivityException("SPOTRF", "Minor " + info + " was negative. Matrix must be positive definite.");
+      }
+    }
+
+    public FloatMatrix solve(FloatMatrix B) {
+      return solveInPlace(B.dup());
+    }
+
+    public FloatMatrix solveInPlace(FloatMatrix B) {
+      assertRows(B, n);
+      int info = backend().spotrs('U', n, B.columns, u, 0, n, B.data, 0, B.rows);
+      if (info < 0) {
+        throw new LapackArgumentException("SPOTRS", -info);
+      }
+      return B;
+    }
+
+    public double determinant() {
+      double det = 1.0;
+      for (int i = 0; i < n; i++) {
+        det *= u[i + i * n];
+      }
+      return det * det;
+    }
+
+    public double logDeterminant() {
+      double logDet = 0.0;
+      for (int i = 0; i < n; i++) {
+        logDet += Math.log(u[i + i * n]);
+      }
+      return 2 * logDet;
+    }
+
+    public double rcond() {
+      float[] rcond = new float[1];
+      float[] work = Workspace.floats(3 * n);
+      int[] iwork = Workspace.ints(n);
+      int info;
+      try {
+        info = backend().spocon('U', n, u, 0, n, anorm, rcond, 0, work, 0, iwork, 0);
+      } finally {
+        Workspace.release(work);
+        Workspace.release(iwork);
+      }
+      if (info < 0) {
+        throw new LapackArgumentException("SPOCON", -info);
+      }
+      return rcond[0];
+    }
+
+    public FloatMatrix getU() {
+      FloatMatrix result = new FloatMatrix(n, n, u.clone());
+      clearLower(result);
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("<CholeskyFactorization n=%d>", n);
+    }
+  }
+
+  private static class FloatQRFactorization extends QRFactorization<FloatMatrix> {
+    private final int m, n;
+    private final FloatMatrix qr;
+    private final FloatMatrix tau;
+
+    FloatQRFactorization(FloatMatrix A) {
+      if (A.rows < A.columns) {
+        throw new SizeException("QR factorization needs at least as many rows as columns.");
+      }
+      m = A.rows;
+      n = A.columns;
+      qr = A.dup();
+      tau = new FloatMatrix(n);
+      SimpleBlas.geqrf(qr, tau);
+    }
+
+    public FloatMatrix solve(FloatMatrix B) {
+      return solveInPlace(B.dup()).getRange(0, n, 0, B.columns);
+    }
+
+    public FloatMatrix solveInPlace(FloatMatrix B) {
+      assertRows(B, m);
+      int info = backend().sormqr('L', 'T', m, B.columns, n, qr.data, 0, m, tau.data, 0, B.data, 0, B.rows);
+      if (info < 0) {
+        throw new LapackArgumentException("SORMQR", -info);
+      }
+      backend().strsm('L', 'U', 'N', 'N', n, B.columns, 1.0f, qr.data, 0, m, B.data, 0, B.rows);
+      return B;
+    }
+
+    public double determinant() {
+      if (m != n) {
+        throw new SizeException("Seterminant is only defined for square matrices.");
+      }
+      double det = 1.0;
+      for (int i = 0; i < n; i++) {
+        // each reflector with a nonzero tau has determinant -1
+        det *= tau.data[i] != 0.0f ? -qr.data[i + i * m] : qr.data[i + i * m];
+      }
+      return det;
+    }
+
+    public double rcond() {
+      float[] rcond = new float[1];
+      float[] work = Workspace.floats(3 * n);
+      int[] iwork = Workspace.ints(n);
+      int info;
+      try {
+        info = backend().strcon('1', 'U', 'N', n, qr.data, 0, m, rcond, 0, work, 0, iwork, 0);
+      } finally {
+        Workspace.release(work);
+        Workspace.release(iwork);
+      }
+      if (info < 0) {
+        throw new LapackArgumentException("STRCON", -info);
+      }
+      return rcond[0];
+    }
+
+    public FloatMatrix getQ() {
+      FloatMatrix Q = FloatMatrix.eye(m);
+      SimpleBlas.ormqr('L', 'N', qr, tau, Q);
+      return Q;
+    }
+
+    public FloatMatrix getR() {
+      FloatMatrix R = new FloatMatrix(n, n);
+      for (int j = 0; j < n; j++) {
+        for (int i = 0; i <= j; i++) {
+          R.put(i, j, qr.get(i, j));
+        }
+      }
+      return R;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("<QRFactorization m=%d n=%d>", m, n);
+    }
+  }
+
+  private static void assertRows(FloatMatrix B, int rows) {
+    if (B.rows != rows) {
+      throw new SizeException("Right-hand side must have " + rows + " rows (has " + B.rows + ").");
+    }
+  }
+
+  /** Maximum absolute column sum. */
+  private static float norm1(FloatMatrix A) {
+    float norm = 0.0f;
+    for (int j = 0; j < A.columns; j++) {
+      float s = 0.0f;
+      for (int i = 0; i < A.rows; i++) {
+        s += Math.abs(A.get(i, j));
+      }
+      norm = Math.max(norm, s);
+    }
+    return norm;
+  }
+
+  /** 1-norm of the symmetric matrix given by the upper half of A. */
+  private static float symmetricNorm1(FloatMatrix A) {
+    float norm = 0.0f;
+    for (int j = 0; j < A.columns; j++) {
+      float s = 0.0f;
+      for (int i = 0; i < A.rows; i++) {
+        s += Math.abs(i <= j ? A.get(i, j) : A.get(j, i));
+      }
+      norm = Math.max(norm, s);
+    }
+    return norm;
+  }
 }
@@ -0,0 +1,396 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A general matrix class for <code>double</code> typed values whose data lives
+ * in native (off-heap) memory.
+ *
+ * <p>Like DoubleMatrix, the data is stored in column major order, but in memory
+ * allocated by the native library instead of a <code>double[]</code> array.
+ * The memory is passed to the native BLAS and LAPACK routines by address and
+ * without copying (see the <code>*Direct</code> methods in NativeBlas).</p>
+ *
+ * <p>Since the memory is addressed with <code>long</code> offsets, a direct
+ * matrix is neither limited by the heap size nor to Integer.MAX_VALUE elements.
+ * Only the number of rows and columns must fit into an <code>int</code>, as
+ * required by the BLAS and LAPACK interfaces. Element access from Java goes
+ * through DoubleBuffer views of {@link #SEGMENT_LENGTH} elements each.</p>
+ *
+ * <p>Only a small set of operations is supported directly. Use the overloads in
+ * SimpleBlas, Solve, Eigen, and Decompose for the actual computations, and
+ * {@link #toDoubleMatrix()} or {@link #DirectDoubleMatrix(DoubleMatrix)} to
+ * convert from and to ordinary matrices.</p>
+ *
+ * <p>The memory is released when the matrix becomes unreachable, at the latest
+ * with one of the following allocations. Call {@link #free()} to release it
+ * right away.</p>
+ */
+public class DirectDoubleMatrix {
+    /** Number of rows. */
+    public int rows;
+    /** Number of columns. */
+    public int columns;
+    /** Total number of elements (for convenience). */
+    public long length;
+
+    /** Alignment of the allocated memory in bytes. */
+    public static final int ALIGNMENT = 64;
+
+    private static final int SEGMENT_SHIFT = 27;
+    /** Number of elements accessible through one DoubleBuffer view. */
+    public static final int SEGMENT_LENGTH = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+    /** Aligned address of the first element. */
+    private long address;
+    /** Views of the memory for element access from Java. */
+    private DoubleBuffer[] segments;
+    /** The memory allocated for this matrix, or null if it wraps a buffer. */
+    private final Memory memory;
+    /** The wrapped buffer, kept here so that it stays reachable. */
+    private final DoubleBuffer buffer;
+
+    /**
+     * Create a new matrix with <i>newRows</i> rows and <i>newColumns</i> columns.
+     * All elements are initialized to zero.
+     */
+    public DirectDoubleMatrix(int newRows, int newColumns) {
+        this.rows = newRows;
+        this.columns = newColumns;
+        this.length = checkedLength(newRows, newColumns);
+        this.buffer = null;
+
+        releaseUnreachable();
+        long raw = NativeBlas.allocateMemory(length * 8 + ALIGNMENT);
+        if (raw == 0)
+            throw new OutOfMemoryError("Cannot allocate native memory for a " + newRows + "x" + newColumns + " direct matrix.");
+        this.memory = new Memory(this, raw);
+        this.address = (raw + ALIGNMENT - 1) & -ALIGNMENT;
+        this.segments = createSegments(address, length);
+    }
+
+    /**
+     * Create a new matrix using the given buffer as storage.
+     *
+     * @param data a direct buffer in native byte order with at least
+     *             newRows * newColumns elements.
+     */
+    public DirectDoubleMatrix(int newRows, int newColumns, DoubleBuffer data) {
+        if (!data.isDirect())
+            throw new IllegalArgumentException("Buffer must be a direct buffer.");
+        if (data.order() != ByteOrder.nativeOrder())
+            throw new IllegalArgumentException("Buffer must be in native byte order (is: " + data.order() + ").");
+        if (data.capacity() < checkedLength(newRows, newColumns))
+            throw new SizeException("Buffer is too small for a " + newRows + "x" + newColumns + " matrix.");
+
+        this.rows = newRows;
+        this.columns = newColumns;
+        this.length = (long) newRows * newColumns;
+        this.buffer = data;
+        this.memory = null;
+        this.address = NativeBlas.bufferAddress(data);
+        this.segments = createSegments(address, length);
+    }
+
+    /** Create a new column vector with <i>newLength</i> elements. */
+    public DirectDoubleMatrix(int newLength) {
+        this(newLength, 1);
+    }
+
+    /** Create a direct matrix with the same contents as the given matrix. */
+    public DirectDoubleMatrix(DoubleMatrix m) {
+        this(m.rows, m.columns);
+        for (int k = 0; k < segments.length; k++) {
+            DoubleBuffer dst = segments[k].duplicate();
+            dst.put(m.data, k * SEGMENT_LENGTH, dst.capacity());
+        }
+    }
+
+    private static long checkedLength(int rows, int columns) {
+        if (rows < 0 || columns < 0)
+            throw new NegativeArraySizeException("Matrix dimensions must be non-negative.");
+        return (long) rows * columns;
+    }
+
+    private static DoubleBuffer[] createSegments(long address, long length) {
+        DoubleBuffer[] segments = new DoubleBuffer[(int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+        for (int k = 0; k < segments.length; k++) {
+            long offset = (long) k << SEGMENT_SHIFT;
+            int size = (int) Math.min(SEGMENT_LENGTH, length - offset);
+            segments[k] = NativeBlas.wrapMemory(address + 8 * offset, 8 * size)
+                    .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        return segments;
+    }
+
+    /**
+     * Get the native address of the first element, for passing the matrix to
+     * the <code>*Direct</code> methods in NativeBlas.
+     *
+     * <p>The address is only valid as long as the matrix is reachable and has
+     * not been freed.</p>
+     */
+    public long getAddress() {
+        if (segments == null)
+            throw new IllegalStateException("Matrix has already been freed.");
+        return address;
+    }
+
+    /**
+     * Release the memory of this matrix. The matrix must not be used
+     * afterwards. The buffer of a matrix created from a DoubleBuffer is left
+     * untouched.
+     */
+    public void free() {
+        segments = null;
+        address = 0;
+        if (memory != null)
+            memory.release();
+    }
+
+    /** Get number of rows. */
+    public int getRows() {
+        return rows;
+    }
+
+    /** Get number of columns. */
+    public int getColumns() {
+        return columns;
+    }
+
+    /** Get total number of elements. */
+    public long getLength() {
+        return length;
+    }
+
+    /** Checks whether the matrix is square. */
+    public boolean isSquare() {
+        return rows == columns;
+    }
+
+    /** Throw SizeException unless matrix is square. */
+    public void assertSquare() {
+        if (!isSquare()) {
+            throw new SizeException("Matrix must be square!");
+        }
+    }
+
+    /** Checks whether two matrices can be multiplied (that is, number of columns of
+     * this must equal number of rows of a. */
+    public boolean multipliesWith(DirectDoubleMatrix a) {
+        return columns == a.rows;
+    }
+
+    /** Throws SizeException unless matrices can be multiplied with one another. */
+    public void assertMultipliesWith(DirectDoubleMatrix a) {
+        if (!multipliesWith(a)) {
+            throw new SizeException("Number of columns of left matrix must be equal to number of rows of right matrix.");
+        }
+    }
+
+    /** Get index of an element */
+    public long index(int rowIndex, int columnIndex) {
+        return rowIndex + (long) rows * columnIndex;
+    }
+
+    private DoubleBuffer segment(long i) {
+        if (segments == null)
+            throw new IllegalStateException("Matrix has already been freed.");
+        if (i < 0 || i >= length)
+            throw new IndexOutOfBoundsException("Index " + i + " is out of bounds for " + length + " elements.");
+        return segments[(int) (i >>> SEGMENT_SHIFT)];
+    }
+
+    /** Retrieve matrix element */
+    public double get(int rowIndex, int columnIndex) {
+        return get(index(rowIndex, columnIndex));
+    }
+
+    /** Get a matrix element (linear indexing). */
+    public double get(long i) {
+        return segment(i).get((int) (i & SEGMENT_MASK));
+    }
+
+    /** Set matrix element */
+    public DirectDoubleMatrix put(int rowIndex, int columnIndex, double value) {
+        return put(index(rowIndex, columnIndex), value);
+    }
+
+    /** Set a matrix element (linear indexing). */
+    public DirectDoubleMatrix put(long i, double value) {
+        segment(i).put((int) (i & SEGMENT_MASK), value);
+        return this;
+    }
+
+    /** Set all elements to a value. */
+    public DirectDoubleMatrix fill(double value) {
+        for (long i = 0; i < length; i++)
+            put(i, value);
+        return this;
+    }
+
+    /** Returns a duplicate of this matrix. */
+    public DirectDoubleMatrix dup() {
+        DirectDoubleMatrix out = new DirectDoubleMatrix(rows, columns);
+        copyTo(out);
+        return out;
+    }
+
+    /** Copy the contents of this matrix to <i>result</i>, which must have the same length. */
+    public DirectDoubleMatrix copyTo(DirectDoubleMatrix result) {
+        if (result.length != length)
+            throw new SizeException("Matrices must have the same length (is: " + length + " and " + result.length + ")");
+        if (segments == null || result.segments == null)
+            throw new IllegalStateException("Matrix has already been freed.");
+        for (int k = 0; k < segments.length; k++)
+            result.segments[k].duplicate().put(segments[k].duplicate());
+        return result;
+    }
+
+    /** Copy the contents of this matrix into a new DoubleMatrix. */
+    public DoubleMatrix toDoubleMatrix() {
+        if (length > Integer.MAX_VALUE)
+            throw new SizeException("A " + rows + "x" + columns + " matrix is too large for a DoubleMatrix.");
+        if (segments == null)
+            throw new IllegalStateException("Matrix has already been freed.");
+        DoubleMatrix result = new DoubleMatrix(rows, columns);
+        for (int k = 0; k < segments.length; k++) {
+            DoubleBuffer src = segments[k].duplicate();
+            src.get(result.data, k * SEGMENT_LENGTH, src.capacity());
+        }
+        return result;
+    }
+
+    /** Return transposed copy of this matrix. */
+    public DirectDoubleMatrix transpose() {
+        DirectDoubleMatrix result = new DirectDoubleMatrix(columns, rows);
+        for (int j = 0; j < columns; j++)
+            for (int i = 0; i < rows; i++)
+                result.put(j, i, get(i, j));
+        return result;
+    }
+
+    /** Matrix-matrix multiplication. */
+    public DirectDoubleMatrix mmul(DirectDoubleMatrix other) {
+        return mmuli(other, new DirectDoubleMatrix(rows, other.columns));
+    }
+
+    /** Matrix-matrix multiplication (in-place), the result must not be one of the operands. */
+    public DirectDoubleMatrix mmuli(DirectDoubleMatrix other, DirectDoubleMatrix result) {
+        assertMultipliesWith(other);
+        if (result.rows != rows || result.columns != other.columns)
+            throw new SizeException("Result matrix has wrong size.");
+        if (result == this || result == other)
+            throw new IllegalArgumentException("Result matrix must not be one of the operands.");
+
+        if (other.columns == 1)
+            return SimpleBlas.gemv(1.0, this, other, 0.0, result);
+        else
+            return SimpleBlas.gemm(1.0, this, other, 0.0, result);
+    }
+
+    /** Create a diagonal matrix with the given vector as diagonal. */
+    public static DirectDoubleMatrix diag(DirectDoubleMatrix x) {
+        if (x.length > Integer.MAX_VALUE)
+            throw new SizeException("Vector is too long for a diagonal matrix.");
+        int n = (int) x.length;
+        DirectDoubleMatrix m = new DirectDoubleMatrix(n, n);
+        for (int i = 0; i < n; i++)
+            m.put(i, i, x.get(i));
+        return m;
+    }
+
+    @Override
+    public String toString() {
+        return toDoubleMatrix().toString();
+    }
+
+    /*
+     * Native calls only receive the address of a matrix, so the matrix itself
+     * must stay reachable until the call has returned. Otherwise, its memory
+     * could be released while the native routine is still working on it.
+     * (Java 9 and later have Reference.reachabilityFence for this.)
+     */
+    private static volatile Object fence;
+
+    static void reachabilityFence(Object... refs) {
+        fence = refs;
+        fence = null;
+    }
+
+    /*
+     * Memory which is released once its matrix has become unreachable. The
+     * references must themselves stay reachable until then, hence the set.
+     */
+    private static final ReferenceQueue<DirectDoubleMatrix> unreachable = new ReferenceQueue<DirectDoubleMatrix>();
+    private static final Set<Memory> allocated = Collections.synchronizedSet(new HashSet<Memory>());
+
+    private static void releaseUnreachable() {
+        Memory m;
+        while ((m = (Memory) unreachable.poll()) != null)
+            m.release();
+    }
+
+    private static class Memory extends PhantomReference<DirectDoubleMatrix> {
+        private long raw;
+
+        Memory(DirectDoubleMatrix owner, long raw) {
+            super(owner, unreachable);
+            this.raw = raw;
+            allocated.add(this);
+        }
+
+        synchronized void release() {
+            if (raw != 0) {
+                NativeBlas.freeMemory(raw);
+                raw = 0;
+                allocated.remove(this);
+            }
+        }
+    }
+}
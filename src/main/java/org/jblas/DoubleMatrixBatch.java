@@ -0,0 +1,488 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.exceptions.LapackPositivityException;
+import org.jblas.exceptions.LapackSingularityException;
+import org.jblas.exceptions.SizeException;
+import org.jblas.util.Parallel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A batch of matrices of the same size, stored one after the other in one array.</p>
+ *
+ * <p>Matrix i of the batch is stored in column-major order at data[i * stride()] to
+ * data[(i + 1) * stride() - 1]. Operations work on all matrices of a batch in one call,
+ * with small kernels written in Java, and split the batch over the threads of the
+ * {@link Parallel} pool. For many small matrices (up to 64 * 64, say), this avoids
+ * the cost of a native call, argument checks and allocations per matrix, which
+ * dominates when calling {@link DoubleMatrix#mmul} or {@link Solve#solve} for
+ * each of them.</p>
+ *
+ * <p>In products and solves, the right hand side may also be a batch of a single matrix, which
+ * is then used for all matrices of the batch. When a factorization fails for
+ * some matrices, the other matrices are still processed, and the exception
+ * reports the first matrix which failed.</p>
+ */
+public class DoubleMatrixBatch {
+    /** Number of matrices. */
+    public int count;
+    /** Number of rows of each matrix. */
+    public int rows;
+    /** Number of columns of each matrix. */
+    public int columns;
+    /** The elements of all matrices. */
+    public double[] data;
+
+    /** Create a batch of count zero matrices. */
+    public DoubleMatrixBatch(int count, int rows, int columns) {
+        this(count, rows, columns, new double[checkedLength(count, rows, columns)]);
+    }
+
+    /** Create a batch of count matrices stored in data. The array is not copied. */
+    public DoubleMatrixBatch(int count, int rows, int columns, double[] data) {
+        if (data.length != checkedLength(count, rows, columns)) {
+            throw new IllegalArgumentException("Passed data must match batch dimensions.");
+        }
+        this.count = count;
+        this.rows = rows;
+        this.columns = columns;
+        this.data = data;
+    }
+
+    /** Number of elements of a batch, which must fit into one array. */
+    private static int checkedLength(int count, int rows, int columns) {
+        if (count < 0 || rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Dimensions must not be negative.");
+        }
+        long stride = (long) rows * columns;
+        long length = count * stride;
+        if (stride > Integer.MAX_VALUE || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A batch of " + count + " matrices of size " + rows + " * " + columns
+                    + " has more than Integer.MAX_VALUE elements.");
+        }
+        return (int) length;
+    }
+
+    /** Create a batch from copies of matrices of the same size. */
+    public static DoubleMatrixBatch of(DoubleMatrix... matrices) {
+        if (matrices.length == 0) {
+            throw new IllegalArgumentException("Need at least one matrix.");
+        }
+        DoubleMatrixBatch batch = new DoubleMatrixBatch(matrices.length, matrices[0].rows, matrices[0].columns);
+        for (int i = 0; i < matrices.length; i++) {
+            batch.put(i, matrices[i]);
+        }
+        return batch;
+    }
+
+    /** Number of elements of each matrix. */
+    public int stride() {
+        return rows * columns;
+    }
+
+    /** Index of the first element of matrix i in data. */
+    public int index(int i) {
+        long index = (long) i * rows * columns;
+        if (index > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Index of matrix " + i + " exceeds Integer.MAX_VALUE.");
+        }
+        return (int) index;
+    }
+
+    /** Get a copy of matrix i. */
+    public DoubleMatrix get(int i) {
+        DoubleMatrix A = new DoubleMatrix(rows, columns);
+        System.arraycopy(data, index(i), A.data, 0, A.length);
+        return A;
+    }
+
+    /** Set matrix i to A. */
+    public DoubleMatrixBatch put(int i, DoubleMatrix A) {
+        if (A.rows != rows || A.columns != columns) {
+            throw new SizeException("Matrix must be " + rows + " * " + columns + ".");
+        }
+        System.arraycopy(A.data, 0, data, index(i), A.length);
+        return this;
+    }
+
+    /** Copy the batch. */
+    public DoubleMatrixBatch dup() {
+        return new DoubleMatrixBatch(count, rows, columns, data.clone());
+    }
+
+    /** Multiply each matrix with the corresponding matrix of other. */
+    public DoubleMatrixBatch mmul(DoubleMatrixBatch other) {
+        return mmuli(other, new DoubleMatrixBatch(count, rows, other.columns));
+    }
+
+    /**
+     * Multiply each matrix with the corresponding matrix of other, storing the products
+     * in result. If other is a batch of one matrix, all matrices are multiplied with it.
+     */
+    public DoubleMatrixBatch mmuli(final DoubleMatrixBatch other, final DoubleMatrixBatch result) {
+        checkOperand(other, columns);
+        if (result.count != count || result.rows != rows || result.columns != other.columns) {
+            throw new SizeException("Result must be a batch of " + count + " matrices of size " + rows + " * " + other.columns + ".");
+        }
+        if (result.data == data || result.data == other.data) {
+            throw new IllegalArgumentException("Result must not share data with the operands.");
+        }
+        final int m = rows, n = other.columns, k = columns;
+        Parallel.forRange(count, 1, (long) count * m * n * k, new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    multiply(m, n, k, data, index(i), other.data, other.operandIndex(i), result.data, result.index(i));
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Solve A X = B for each square matrix A of this batch and the corresponding
+     * right hand sides B (LU decomposition with partial pivoting, like GESV).
+     * This batch is not changed.
+     */
+    public DoubleMatrixBatch solve(DoubleMatrixBatch B) {
+        DoubleMatrixBatch X = expand(B);
+        dup().solvei(X);
+        return X;
+    }
+
+    /**
+     * Solve A X = B for each square matrix A of this batch and the corresponding right
+     * hand sides B, overwriting the matrices of this batch with their LU decompositions
+     * and B with the solutions. Does not allocate memory besides the pivots.
+     *
+     * @throws LapackSingularityException if a matrix is singular
+     */
+    public DoubleMatrixBatch solvei(final DoubleMatrixBatch B) {
+        assertSquare();
+        if (B.count != count || B.rows != rows) {
+            throw new SizeException("Right hand sides must be a batch of " + count + " matrices with " + rows + " rows.");
+        }
+        final int n = rows;
+        final AtomicInteger failed = new AtomicInteger(count);
+        Parallel.forRange(count, 1, (long) count * n * n * (n + B.columns), new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                int[] pivots = new int[n];
+                for (int i = from; i < to; i++) {
+                    if (lu(n, data, index(i), pivots)) {
+                        luSolve(n, B.columns, data, index(i), pivots, B.data, B.index(i));
+                    } else {
+                        fail(failed, i);
+                    }
+                }
+            }
+        });
+        if (failed.get() < count) {
+            throw new LapackSingularityException("GESV", "Matrix " + failed.get() + " of the batch is singular.");
+        }
+        return B;
+    }
+
+    /** Compute the inverse of each square matrix of the batch. This batch is not changed. */
+    public DoubleMatrixBatch inverse() {
+        return dup().inversei();
+    }
+
+    /**
+     * Replace each square matrix of the batch by its inverse.
+     *
+     * @throws LapackSingularityException if a matrix is singular
+     */
+    public DoubleMatrixBatch inversei() {
+        assertSquare();
+        final int n = rows;
+        final AtomicInteger failed = new AtomicInteger(count);
+        Parallel.forRange(count, 1, (long) count * n * n * n, new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                int[] pivots = new int[n];
+                double[] lu = new double[n * n];
+                for (int i = from; i < to; i++) {
+                    int o = index(i);
+                    System.arraycopy(data, o, lu, 0, n * n);
+                    if (lu(n, lu, 0, pivots)) {
+                        for (int j = 0; j < n * n; j++) {
+                            data[o + j] = j % (n + 1) == 0 ? 1.0 : 0.0;
+                        }
+                        luSolve(n, n, lu, 0, pivots, data, o);
+                    } else {
+                        fail(failed, i);
+                    }
+                }
+            }
+        });
+        if (failed.get() < count) {
+            throw new LapackSingularityException("GETRI", "Matrix " + failed.get() + " of the batch is singular.");
+        }
+        return this;
+    }
+
+    /**
+     * Compute the Cholesky decomposition A = U' U of each symmetric positive definite
+     * matrix of the batch. This batch is not changed.
+     *
+     * @return the batch of upper triangular factors U
+     */
+    public DoubleMatrixBatch cholesky() {
+        return dup().choleskyi();
+    }
+
+    /**
+     * Replace each symmetric positive definite matrix A of the batch by the upper
+     * triangular factor U of its Cholesky decomposition A = U' U, like POTRF. Only the
+     * upper triangles are read, and the lower triangles are set to zero.
+     *
+     * @throws LapackPositivityException if a matrix is not positive definite
+     */
+    public DoubleMatrixBatch choleskyi() {
+        assertSquare();
+        final int n = rows;
+        final AtomicInteger failed = new AtomicInteger(count);
+        Parallel.forRange(count, 1, (long) count * n * n * n, new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    if (!cholesky(n, data, index(i))) {
+                        fail(failed, i);
+                    }
+                }
+            }
+        });
+        if (failed.get() < count) {
+            throw new LapackPositivityException("POTRF", "Matrix " + failed.get() + " of the batch is not positive definite.");
+        }
+        return this;
+    }
+
+    /**
+     * Solve A X = B for each symmetric positive definite matrix A of the batch and the
+     * corresponding right hand sides B, using a Cholesky decomposition. This batch is
+     * not changed.
+     */
+    public DoubleMatrixBatch solvePositive(DoubleMatrixBatch B) {
+        final DoubleMatrixBatch X = expand(B);
+        final DoubleMatrixBatch U = cholesky();
+        final int n = rows;
+        Parallel.forRange(count, 1, (long) count * n * n * X.columns, new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    choleskySolve(n, X.columns, U.data, U.index(i), X.data, X.index(i));
+                }
+            }
+        });
+        return X;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DoubleMatrixBatch(%d matrices of size %d * %d)", count, rows, columns);
+    }
+
+    private void assertSquare() {
+        if (rows != columns) {
+            throw new SizeException("Matrices must be square!");
+        }
+    }
+
+    private void checkOperand(DoubleMatrixBatch other, int otherRows) {
+        if (other.rows != otherRows) {
+            throw new SizeException("Number of columns of left matrix must be equal to number of rows of right matrix.");
+        }
+        if (other.count != count && other.count != 1) {
+            throw new SizeException("Batches must have the same number of matrices (or a single right hand side).");
+        }
+    }
+
+    /** Copy the right hand sides B, repeating a batch of one matrix for each matrix of this batch. */
+    private DoubleMatrixBatch expand(DoubleMatrixBatch B) {
+        checkOperand(B, rows);
+        if (B.count == count) {
+            return B.dup();
+        }
+        DoubleMatrixBatch X = new DoubleMatrixBatch(count, B.rows, B.columns);
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(B.data, 0, X.data, X.index(i), X.stride());
+        }
+        return X;
+    }
+
+    /** Index of the operand for matrix i, which is always the first one for a batch of one. */
+    private int operandIndex(int i) {
+        return count == 1 ? 0 : index(i);
+    }
+
+    /** Remember the smallest index of a failed matrix. */
+    private static void fail(AtomicInteger failed, int i) {
+        int current = failed.get();
+        while (i < current && !failed.compareAndSet(current, i)) {
+            current = failed.get();
+        }
+    }
+
+    /** C = A * B for an m * k matrix A and a k * n matrix B. */
+    private static void multiply(int m, int n, int k, double[] a, int ao, double[] b, int bo, double[] c, int co) {
+        for (int j = 0; j < n; j++) {
+            int cj = co + j * m;
+            for (int i = 0; i < m; i++) {
+                c[cj + i] = 0.0;
+            }
+            for (int l = 0; l < k; l++) {
+                double blj = b[bo + l + j * k];
+                if (blj != 0.0) {
+                    int al = ao + l * m;
+                    for (int i = 0; i < m; i++) {
+                        c[cj + i] += a[al + i] * blj;
+                    }
+                }
+            }
+        }
+    }
+
+    /** LU decomposition with partial pivoting in place. Returns false if the matrix is singular. */
+    private static boolean lu(int n, double[] a, int o, int[] pivots) {
+        for (int k = 0; k < n; k++) {
+            int p = k;
+            double max = Math.abs(a[o + k + k * n]);
+            for (int i = k + 1; i < n; i++) {
+                double v = Math.abs(a[o + i + k * n]);
+                if (v > max) {
+                    max = v;
+                    p = i;
+                }
+            }
+            pivots[k] = p;
+            if (max == 0.0) {
+                return false;
+            }
+            if (p != k) {
+                for (int j = 0; j < n; j++) {
+                    double t = a[o + k + j * n];
+                    a[o + k + j * n] = a[o + p + j * n];
+                    a[o + p + j * n] = t;
+                }
+            }
+            double d = a[o + k + k * n];
+            for (int i = k + 1; i < n; i++) {
+                a[o + i + k * n] /= d;
+            }
+            for (int j = k + 1; j < n; j++) {
+                double akj = a[o + k + j * n];
+                if (akj != 0.0) {
+                    for (int i = k + 1; i < n; i++) {
+                        a[o + i + j * n] -= a[o + i + k * n] * akj;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Solve with an LU decomposition, overwriting the n * nrhs matrix b with the solution. */
+    private static void luSolve(int n, int nrhs, double[] a, int o, int[] pivots, double[] b, int bo) {
+        for (int j = 0; j < nrhs; j++) {
+            int c = bo + j * n;
+            for (int k = 0; k < n; k++) {
+                int p = pivots[k];
+                if (p != k) {
+                    double t = b[c + k];
+                    b[c + k] = b[c + p];
+                    b[c + p] = t;
+                }
+            }
+            for (int k = 0; k < n; k++) {
+                double bk = b[c + k];
+                for (int i = k + 1; i < n; i++) {
+                    b[c + i] -= a[o + i + k * n] * bk;
+                }
+            }
+            for (int k = n - 1; k >= 0; k--) {
+                double bk = b[c + k] /= a[o + k + k * n];
+                for (int i = 0; i < k; i++) {
+                    b[c + i] -= a[o + i + k * n] * bk;
+                }
+            }
+        }
+    }
+
+    /** Cholesky decomposition A = U' U in place. Returns false if A is not positive definite. */
+    private static boolean cholesky(int n, double[] a, int o) {
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i <= j; i++) {
+                double s = a[o + i + j * n];
+                for (int k = 0; k < i; k++) {
+                    s -= a[o + k + i * n] * a[o + k + j * n];
+                }
+                if (i < j) {
+                    a[o + i + j * n] = s / a[o + i + i * n];
+                } else if (s > 0.0) {
+                    a[o + j + j * n] = (double) Math.sqrt(s);
+                } else {
+                    return false;
+                }
+            }
+            for (int i = j + 1; i < n; i++) {
+                a[o + i + j * n] = 0.0;
+            }
+        }
+        return true;
+    }
+
+    /** Solve U' U x = b, overwriting the n * nrhs matrix b with the solution. */
+    private static void choleskySolve(int n, int nrhs, double[] u, int o, double[] b, int bo) {
+        for (int j = 0; j < nrhs; j++) {
+            int c = bo + j * n;
+            for (int i = 0; i < n; i++) {
+                double s = b[c + i];
+                for (int k = 0; k < i; k++) {
+                    s -= u[o + k + i * n] * b[c + k];
+                }
+                b[c + i] = s / u[o + i + i * n];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                double s = b[c + i];
+                for (int k = i + 1; k < n; k++) {
+                    s -= u[o + i + k * n] * b[c + k];
+                }
+                b[c + i] = s / u[o + i + i * n];
+            }
+        }
+    }
+}
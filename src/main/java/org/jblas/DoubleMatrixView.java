@@ -0,0 +1,272 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.jblas.ranges.IntervalRange;
+import org.jblas.util.Parallel;
+
+/**
+ * A rectangular part of a DoubleMatrix which shares the data of the matrix.
+ *
+ * <p>A view is described like a matrix argument of BLAS: the array, the offset of
+ * the first element, the number of rows and columns, and the leading dimension,
+ * the distance between two columns in the array. Views are created with
+ * {@link DoubleMatrix#view(IntervalRange, IntervalRange)},
+ * {@link DoubleMatrix#columnView(int)} and {@link DoubleMatrix#rowView(int)}, and
+ * can be restricted further with {@link #view(IntervalRange, IntervalRange)}.
+ * Nothing is copied, so changes to the view change the matrix and vice versa.</p>
+ *
+ * <p>The overloads of copy, scal, axpy, gemv and gemm in SimpleBlas take views and
+ * pass the offsets and leading dimensions directly to BLAS. The elementwise
+ * operations addi, subi, muli, divi and fill work in place on the view. A view
+ * with one column or one row can be used as a vector; the elements of a row view
+ * are leading dimension apart (see {@link #increment()}).</p>
+ *
+ * <p>Example, adding the upper left 2 * 2 block of A to its lower right block:</p>
+ * <pre>
+ * DoubleMatrixView a = A.view(new IntervalRange(0, 2), new IntervalRange(0, 2));
+ * DoubleMatrixView b = A.view(new IntervalRange(2, 4), new IntervalRange(2, 4));
+ * SimpleBlas.axpy(1.0, a, b);
+ * </pre>
+ */
+public class DoubleMatrixView {
+    /** The data of the viewed matrix. */
+    public final double[] data;
+    /** Index of the first element in data. */
+    public final int offset;
+    /** Number of rows. */
+    public final int rows;
+    /** Number of columns. */
+    public final int columns;
+    /** Distance between the first elements of two columns in data. */
+    public final int ld;
+
+    /**
+     * Create a view from the BLAS description of a matrix.
+     *
+     * @throws IllegalArgumentException if the elements are not all within data
+     */
+    public DoubleMatrixView(double[] data, int offset, int rows, int columns, int ld) {
+        if (rows < 0 || columns < 0 || offset < 0 || ld < Math.max(1, rows))
+            throw new IllegalArgumentException("Invalid view with " + rows + " rows, " + columns + " columns, offset " + offset + " and leading dimension " + ld + ".");
+        if (rows > 0 && columns > 0 && offset + (long) (columns - 1) * ld + rows > data.length)
+            throw new IllegalArgumentException("View extends beyond the end of the data.");
+        this.data = data;
+        this.offset = offset;
+        this.rows = rows;
+        this.columns = columns;
+        this.ld = ld;
+    }
+
+    /** A view of a whole matrix. */
+    public DoubleMatrixView(DoubleMatrix m) {
+        this(m.data, 0, m.rows, m.columns, Math.max(1, m.rows));
+    }
+
+    /** Number of elements. */
+    public int length() {
+        return rows * columns;
+    }
+
+    public boolean isVector() {
+        return rows == 1 || columns == 1;
+    }
+
+    /** Distance between consecutive elements of a vector: 1 for a column, ld for a row. */
+    public int increment() {
+        return columns == 1 ? 1 : ld;
+    }
+
+    /** Position of element (i, j) in data. */
+    public int index(int i, int j) {
+        return offset + i + j * ld;
+    }
+
+    public double get(int i, int j) {
+        checkIndex(i, j);
+        return data[index(i, j)];
+    }
+
+    public DoubleMatrixView put(int i, int j, double value) {
+        checkIndex(i, j);
+        data[index(i, j)] = value;
+        return this;
+    }
+
+    /** The view of the given rows and columns of this view. */
+    public DoubleMatrixView view(IntervalRange rs, IntervalRange cs) {
+        int r = start(rs, rows);
+        int c = start(cs, columns);
+        return new DoubleMatrixView(data, index(r, c), rs.length(), cs.length(), ld);
+    }
+
+    /** Copy the elements into a new matrix. */
+    public DoubleMatrix toDoubleMatrix() {
+        DoubleMatrix result = new DoubleMatrix(rows, columns);
+        for (int j = 0; j < columns; j++)
+            System.arraycopy(data, index(0, j), result.data, j * rows, rows);
+        return result;
+    }
+
+    /** Set all elements to value. */
+    public DoubleMatrixView fill(double value) {
+        return apply(SET, null, value);
+    }
+
+    /** Add a scalar to all elements (in place). */
+    public DoubleMatrixView addi(double value) {
+        return apply(ADD, null, value);
+    }
+
+    /** Add a view of the same size elementwise (in place). */
+    public DoubleMatrixView addi(DoubleMatrixView other) {
+        return apply(ADD, other, 0.0);
+    }
+
+    /** Subtract a scalar from all elements (in place). */
+    public DoubleMatrixView subi(double value) {
+        return apply(ADD, null, -value);
+    }
+
+    /** Subtract a view of the same size elementwise (in place). */
+    public DoubleMatrixView subi(DoubleMatrixView other) {
+        return apply(SUB, other, 0.0);
+    }
+
+    /** Multiply all elements by a scalar (in place). */
+    public DoubleMatrixView muli(double value) {
+        return apply(MUL, null, value);
+    }
+
+    /** Multiply by a view of the same size elementwise (in place). */
+    public DoubleMatrixView muli(DoubleMatrixView other) {
+        return apply(MUL, other, 0.0);
+    }
+
+    /** Divide all elements by a scalar (in place). */
+    public DoubleMatrixView divi(double value) {
+        return apply(DIV, null, value);
+    }
+
+    /** Divide by a view of the same size elementwise (in place). */
+    public DoubleMatrixView divi(DoubleMatrixView other) {
+        return apply(DIV, other, 0.0);
+    }
+
+    /** Throws a SizeException unless other has the same number of rows and columns. */
+    public void assertSameSize(DoubleMatrixView other) {
+        if (rows != other.rows || columns != other.columns)
+            throw new SizeException("Views must have the same size (is: " + rows + "x" + columns + " and " + other.rows + "x" + other.columns + ").");
+    }
+
+    @Override
+    public String toString() {
+        return toDoubleMatrix().toString();
+    }
+
+    private static final int SET = 0;
+    private static final int ADD = 1;
+    private static final int SUB = 2;
+    private static final int MUL = 3;
+    private static final int DIV = 4;
+
+    /**
+     * Apply an operation with other, or with the scalar if other is null, column by
+     * column. Views which overlap this view other than exactly give undefined results.
+     */
+    private DoubleMatrixView apply(final int op, final DoubleMatrixView other, final double value) {
+        if (other != null)
+            assertSameSize(other);
+        Parallel.forRange(columns, 1, (long) rows * columns, new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                for (int j = from; j < to; j++) {
+                    int p = index(0, j);
+                    if (other == null) {
+                        switch (op) {
+                            case SET:
+                                for (int i = 0; i < rows; i++) data[p + i] = value;
+                                break;
+                            case ADD:
+                                for (int i = 0; i < rows; i++) data[p + i] += value;
+                                break;
+                            case MUL:
+                                for (int i = 0; i < rows; i++) data[p + i] *= value;
+                                break;
+                            case DIV:
+                                for (int i = 0; i < rows; i++) data[p + i] /= value;
+                                break;
+                        }
+                    } else {
+                        double[] x = other.data;
+                        int q = other.index(0, j);
+                        switch (op) {
+                            case ADD:
+                                for (int i = 0; i < rows; i++) data[p + i] += x[q + i];
+                                break;
+                            case SUB:
+                                for (int i = 0; i < rows; i++) data[p + i] -= x[q + i];
+                                break;
+                            case MUL:
+                                for (int i = 0; i < rows; i++) data[p + i] *= x[q + i];
+                                break;
+                            case DIV:
+                                for (int i = 0; i < rows; i++) data[p + i] /= x[q + i];
+                                break;
+                        }
+                    }
+                }
+            }
+        });
+        return this;
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= columns)
+            throw new IndexOutOfBoundsException("Index (" + i + ", " + j + ") is outside of a " + rows + "x" + columns + " view.");
+    }
+
+    /** The first index of an interval, which must lie within [0, n). */
+    static int start(IntervalRange range, int n) {
+        range.init(0, n);
+        int start = range.value();
+        if (start < 0 || start + range.length() > n || range.length() < 0)
+            throw new IllegalArgumentException("Range " + range + " is beyond the bounds 0 to " + n + ".");
+        return start;
+    }
+}
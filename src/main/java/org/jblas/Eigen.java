@@ -42,6 +42,7 @@ package org.jblas;
 import org.jblas.exceptions.NoEigenResultException;
 import org.jblas.ranges.IntervalRange;
 import org.jblas.ranges.Range;
+import org.jblas.util.Workspace;
 
 /**
  * <p>Eigenvalue and Eigenvector related functions.</p>
@@ -59,7 +60,12 @@ public class Eigen {
         A.assertSquare();
         DoubleMatrix eigenvalues = new DoubleMatrix(A.rows);
         int isuppz[] = new int[2 * A.rows];
-        SimpleBlas.syevr('N', 'A', 'U', A.dup(), 0, 0, 0, 0, 0, eigenvalues, dummyDouble, isuppz);
+        DoubleMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.syevr('N', 'A', 'U', a, 0, 0, 0, 0, 0, eigenvalues, dummyDouble, isuppz);
+        } finally {
+            Workspace.release(a.data);
+        }
         return eigenvalues;
     }
 
@@ -75,10 +81,49 @@ public class Eigen {
         DoubleMatrix eigenvalues = new DoubleMatrix(A.rows);
         DoubleMatrix eigenvectors = A.dup();
         int isuppz[] = new int[2 * A.rows];
-        SimpleBlas.syevr('V', 'A', 'U', A.dup(), 0, 0, 0, 0, 0, eigenvalues, eigenvectors, isuppz);
+        DoubleMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.syevr('V', 'A', 'U', a, 0, 0, 0, 0, 0, eigenvalues, eigenvectors, isuppz);
+        } finally {
+            Workspace.release(a.data);
+        }
         return new DoubleMatrix[]{eigenvectors, DoubleMatrix.diag(eigenvalues)};
     }
 
+//STOP
+    /**
+     * Compute the eigenvalues for a symmetric direct matrix.
+     */
+    public static DirectDoubleMatrix symmetricEigenvalues(DirectDoubleMatrix A) {
+        A.assertSquare();
+        DirectDoubleMatrix eigenvalues = new DirectDoubleMatrix(A.rows);
+        DirectDoubleMatrix work = A.dup();
+        try {
+            SimpleBlas.syevd('N', 'U', work, eigenvalues);
+        } finally {
+            work.free();
+        }
+        return eigenvalues;
+    }
+
+    /**
+     * Computes the eigenvalues and eigenvectors for a symmetric direct matrix.
+     *
+     * @return an array of DirectDoubleMatrix objects containing the eigenvectors
+     *         stored as the columns of the first matrix, and the eigenvalues as
+     *         diagonal elements of the second matrix.
+     */
+    public static DirectDoubleMatrix[] symmetricEigenvectors(DirectDoubleMatrix A) {
+        A.assertSquare();
+        DirectDoubleMatrix eigenvalues = new DirectDoubleMatrix(A.rows);
+        DirectDoubleMatrix eigenvectors = A.dup();
+        SimpleBlas.syevd('V', 'U', eigenvectors, eigenvalues);
+        DirectDoubleMatrix diagonal = DirectDoubleMatrix.diag(eigenvalues);
+        eigenvalues.free();
+        return new DirectDoubleMatrix[]{eigenvectors, diagonal};
+    }
+//START
+
     /**
      * Computes the eigenvalues of a general matrix.
      */
@@ -86,7 +131,12 @@ public class Eigen {
         A.assertSquare();
         DoubleMatrix WR = new DoubleMatrix(A.rows);
         DoubleMatrix WI = WR.dup();
-        SimpleBlas.geev('N', 'N', A.dup(), WR, WI, dummyDouble, dummyDouble);
+        DoubleMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.geev('N', 'N', a, WR, WI, dummyDouble, dummyDouble);
+        } finally {
+            Workspace.release(a.data);
+        }
 
         return new ComplexDoubleMatrix(WR, WI);
     }
@@ -105,7 +155,12 @@ public class Eigen {
         DoubleMatrix WI = WR.dup();
         DoubleMatrix VR = new DoubleMatrix(A.rows, A.rows);
 
-        SimpleBlas.geev('N', 'V', A.dup(), WR, WI, dummyDouble, VR);
+        DoubleMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.geev('N', 'V', a, WR, WI, dummyDouble, VR);
+        } finally {
+            Workspace.release(a.data);
+        }
 
         // transferring the result
         ComplexDoubleMatrix E = new ComplexDoubleMatrix(WR, WI);
@@ -135,7 +190,14 @@ public class Eigen {
         A.assertSquare();
         B.assertSquare();
         DoubleMatrix W = new DoubleMatrix(A.rows);
-        SimpleBlas.sygvd(1, 'N', 'U', A.dup(), B.dup(), W);
+        DoubleMatrix a = workspaceCopy(A);
+        DoubleMatrix b = workspaceCopy(B);
+        try {
+            SimpleBlas.sygvd(1, 'N', 'U', a, b, W);
+        } finally {
+            Workspace.release(a.data);
+            Workspace.release(b.data);
+        }
         return W;
     }
 
@@ -186,7 +248,14 @@ public class Eigen {
     int[] m = new int[1];
     DoubleMatrix W = new DoubleMatrix(A.rows);
     DoubleMatrix Z = new DoubleMatrix(A.rows, A.rows);
-    SimpleBlas.sygvx(1, 'N', 'V', 'U', A.dup(), B.dup(), vl, vu, 0, 0, abstol, m, W, Z);
+    DoubleMatrix a = workspaceCopy(A);
+    DoubleMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'N', 'V', 'U', a, b, vl, vu, 0, 0, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     if (m[0] == 0) {
       throw new NoEigenResultException("No eigenvalues found for selected range");
     }
@@ -222,7 +291,14 @@ public class Eigen {
     int[] m = new int[1];
     DoubleMatrix W = new DoubleMatrix(A.rows);
     DoubleMatrix Z = new DoubleMatrix(A.rows, A.columns);
-    SimpleBlas.sygvx(1, 'N', 'I', 'U', A.dup(), B.dup(), 0.0, 0.0, il + 1, iu + 1, abstol, m, W, Z);
+    DoubleMatrix a = workspaceCopy(A);
+    DoubleMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'N', 'I', 'U', a, b, 0.0, 0.0, il + 1, iu + 1, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     return W.get(new IntervalRange(0, m[0]), 0);
   }
 
@@ -253,7 +329,14 @@ public class Eigen {
     int[] m = new int[1];
     DoubleMatrix W = new DoubleMatrix(A.rows);
     DoubleMatrix Z = new DoubleMatrix(A.rows, A.columns);
-    SimpleBlas.sygvx(1, 'V', 'V', 'U', A.dup(), B.dup(), vl, vu, 0, 0, abstol, m, W, Z);
+    DoubleMatrix a = workspaceCopy(A);
+    DoubleMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'V', 'V', 'U', a, b, vl, vu, 0, 0, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     if (m[0] == 0) {
       throw new NoEigenResultException("No eigenvalues found for selected range");
     }
@@ -298,7 +381,14 @@ public class Eigen {
     int[] m = new int[1];
     DoubleMatrix W = new DoubleMatrix(A.rows);
     DoubleMatrix Z = new DoubleMatrix(A.rows, A.columns);
-    SimpleBlas.sygvx(1, 'V', 'I', 'U', A.dup(), B.dup(), 0, 0, il + 1, iu + 1, abstol, m, W, Z);
+    DoubleMatrix a = workspaceCopy(A);
+    DoubleMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'V', 'I', 'U', a, b, 0, 0, il + 1, iu + 1, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     DoubleMatrix[] result = new DoubleMatrix[2];
     Range r = new IntervalRange(0, m[0]);
     result[0] = Z.get(new IntervalRange(0, A.rows), r);
@@ -306,6 +396,16 @@ public class Eigen {
     return result;
   }
 
+  /**
+   * Copy A into a matrix backed by the workspace cache, for the LAPACK calls
+   * which overwrite their input. Release its data after the call.
+   */
+  private static DoubleMatrix workspaceCopy(DoubleMatrix A) {
+    DoubleMatrix a = new DoubleMatrix(A.rows, A.columns, Workspace.doubles(A.length));
+    System.arraycopy(A.data, 0, a.data, 0, A.length);
+    return a;
+  }
+
 //BEGIN
   // The code below has been automatically generated.
   // DO NOT EDIT!
@@ -318,7 +418,12 @@ public class Eigen {
         A.assertSquare();
         FloatMatrix eigenvalues = new FloatMatrix(A.rows);
         int isuppz[] = new int[2 * A.rows];
-        SimpleBlas.syevr('N', 'A', 'U', A.dup(), 0, 0, 0, 0, 0, eigenvalues, dummyFloat, isuppz);
+        FloatMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.syevr('N', 'A', 'U', a, 0, 0, 0, 0, 0, eigenvalues, dummyFloat, isuppz);
+        } finally {
+            Workspace.release(a.data);
+        }
         return eigenvalues;
     }
 
@@ -334,10 +439,16 @@ public class Eigen {
         FloatMatrix eigenvalues = new FloatMatrix(A.rows);
         FloatMatrix eigenvectors = A.dup();
         int isuppz[] = new int[2 * A.rows];
-        SimpleBlas.syevr('V', 'A', 'U', A.dup(), 0, 0, 0, 0, 0, eigenvalues, eigenvectors, isuppz);
+        FloatMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.syevr('V', 'A', 'U', a, 0, 0, 0, 0, 0, eigenvalues, eigenvectors, isuppz);
+        } finally {
+            Workspace.release(a.data);
+        }
         return new FloatMatrix[]{eigenvectors, FloatMatrix.diag(eigenvalues)};
     }
 
+
     /**
      * Computes the eigenvalues of a general matrix.
      */
@@ -345,7 +456,12 @@ public class Eigen {
         A.assertSquare();
         FloatMatrix WR = new FloatMatrix(A.rows);
         FloatMatrix WI = WR.dup();
-        SimpleBlas.geev('N', 'N', A.dup(), WR, WI, dummyFloat, dummyFloat);
+        FloatMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.geev('N', 'N', a, WR, WI, dummyFloat, dummyFloat);
+        } finally {
+            Workspace.release(a.data);
+        }
 
         return new ComplexFloatMatrix(WR, WI);
     }
@@ -364,7 +480,12 @@ public class Eigen {
         FloatMatrix WI = WR.dup();
         FloatMatrix VR = new FloatMatrix(A.rows, A.rows);
 
-        SimpleBlas.geev('N', 'V', A.dup(), WR, WI, dummyFloat, VR);
+        FloatMatrix a = workspaceCopy(A);
+        try {
+            SimpleBlas.geev('N', 'V', a, WR, WI, dummyFloat, VR);
+        } finally {
+            Workspace.release(a.data);
+        }
 
         // transferring the result
         ComplexFloatMatrix E = new ComplexFloatMatrix(WR, WI);
@@ -394,7 +515,14 @@ public class Eigen {
         A.assertSquare();
         B.assertSquare();
         FloatMatrix W = new FloatMatrix(A.rows);
-        SimpleBlas.sygvd(1, 'N', 'U', A.dup(), B.dup(), W);
+        FloatMatrix a = workspaceCopy(A);
+        FloatMatrix b = workspaceCopy(B);
+        try {
+            SimpleBlas.sygvd(1, 'N', 'U', a, b, W);
+        } finally {
+            Workspace.release(a.data);
+            Workspace.release(b.data);
+        }
         return W;
     }
 
@@ -445,7 +573,14 @@ public class Eigen {
     int[] m = new int[1];
     FloatMatrix W = new FloatMatrix(A.rows);
     FloatMatrix Z = new FloatMatrix(A.rows, A.rows);
-    SimpleBlas.sygvx(1, 'N', 'V', 'U', A.dup(), B.dup(), vl, vu, 0, 0, abstol, m, W, Z);
+    FloatMatrix a = workspaceCopy(A);
+    FloatMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'N', 'V', 'U', a, b, vl, vu, 0, 0, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     if (m[0] == 0) {
       throw new NoEigenResultException("No eigenvalues found for selected range");
     }
@@ -481,7 +616,14 @@ public class Eigen {
     int[] m = new int[1];
     FloatMatrix W = new FloatMatrix(A.rows);
     FloatMatrix Z = new FloatMatrix(A.rows, A.columns);
-    SimpleBlas.sygvx(1, 'N', 'I', 'U', A.dup(), B.dup(), 0.0f, 0.0f, il + 1, iu + 1, abstol, m, W, Z);
+    FloatMatrix a = workspaceCopy(A);
+    FloatMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'N', 'I', 'U', a, b, 0.0f, 0.0f, il + 1, iu + 1, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     return W.get(new IntervalRange(0, m[0]), 0);
   }
 
@@ -512,7 +654,14 @@ public class Eigen {
     int[] m = new int[1];
     FloatMatrix W = new FloatMatrix(A.rows);
     FloatMatrix Z = new FloatMatrix(A.rows, A.columns);
-    SimpleBlas.sygvx(1, 'V', 'V', 'U', A.dup(), B.dup(), vl, vu, 0, 0, abstol, m, W, Z);
+    FloatMatrix a = workspaceCopy(A);
+    FloatMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'V', 'V', 'U', a, b, vl, vu, 0, 0, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     if (m[0] == 0) {
       throw new NoEigenResultException("No eigenvalues found for selected range");
     }
@@ -557,7 +706,14 @@ public class Eigen {
     int[] m = new int[1];
     FloatMatrix W = new FloatMatrix(A.rows);
     FloatMatrix Z = new FloatMatrix(A.rows, A.columns);
-    SimpleBlas.sygvx(1, 'V', 'I', 'U', A.dup(), B.dup(), 0, 0, il + 1, iu + 1, abstol, m, W, Z);
+    FloatMatrix a = workspaceCopy(A);
+    FloatMatrix b = workspaceCopy(B);
+    try {
+        SimpleBlas.sygvx(1, 'V', 'I', 'U', a, b, 0, 0, il + 1, iu + 1, abstol, m, W, Z);
+    } finally {
+        Workspace.release(a.data);
+        Workspace.release(b.data);
+    }
     FloatMatrix[] result = new FloatMatrix[2];
     Range r = new IntervalRange(0, m[0]);
     result[0] = Z.get(new IntervalRange(0, A.rows), r);
@@ -565,5 +721,15 @@ public class Eigen {
     return result;
   }
 
+  /**
+   * Copy A into a matrix backed by the workspace cache, for the LAPACK calls
+   * which overwrite their input. Release its data after the call.
+   */
+  private static FloatMatrix workspaceCopy(FloatMatrix A) {
+    FloatMatrix a = new FloatMatrix(A.rows, A.columns, Workspace.floats(A.length));
+    System.arraycopy(A.data, 0, a.data, 0, A.length);
+    return a;
+  }
+
 //END
 }
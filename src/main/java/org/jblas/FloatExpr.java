@@ -0,0 +1,810 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.jblas.util.Parallel;
+
+/**
+ * A lazily evaluated elementwise expression of FloatMatrix objects.
+ *
+ * <p>Expressions are started with {@link FloatMatrix#expr()} and built with the
+ * methods of this class, which correspond to the elementwise operations of
+ * FloatMatrix and the functions in MatrixFunctions. Nothing is computed
+ * until the expression is evaluated, for example</p>
+ *
+ * <pre>
+ * FloatMatrix r = x.expr().mul(y).add(z).mul(2.0f).exp().eval();
+ * </pre>
+ *
+ * <p>computes exp(2 * (x * y + z)) without allocating a temporary matrix for
+ * each step. The expression is evaluated in blocks of {@value #BLOCK_SIZE}
+ * elements which stay in the cache while all operations are applied to them, so
+ * that each matrix is read only once and the result is written only once.
+ * {@link #eval(FloatMatrix, boolean)} can process the blocks in parallel.</p>
+ *
+ * <p>As with scalar operands in FloatMatrix, a 1x1 matrix operand is used as a
+ * scalar. Otherwise, all operands must have the same length. Comparisons give
+ * 1.0f where they hold and 0.0f otherwise. The result may be one of the operands.</p>
+ */
+public abstract class FloatExpr {
+    /** Number of elements processed in one step. */
+    public static final int BLOCK_SIZE = 512;
+
+    public final int rows;
+    public final int columns;
+    public final int length;
+
+    FloatExpr(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.length = rows * columns;
+    }
+
+    /** Start an expression with the matrix x. */
+    public static FloatExpr of(FloatMatrix x) {
+        return new Leaf(x);
+    }
+
+    /**
+     * Compute the elements from, ..., from + n - 1 into x[0], ..., x[n - 1].
+     *
+     * @param scratch buffers of length BLOCK_SIZE for intermediate results
+     * @param level   index of the first scratch buffer which may be used
+     */
+    abstract void eval(int from, int n, float[] x, float[][] scratch, int level);
+
+    /** Number of scratch buffers needed by eval. */
+    abstract int scratchBuffers();
+
+    // Operation codes
+    private static final int ADD = 0;
+    private static final int SUB = 1;
+    private static final int RSUB = 2;
+    private static final int MUL = 3;
+    private static final int DIV = 4;
+    private static final int RDIV = 5;
+    private static final int MIN = 6;
+    private static final int MAX = 7;
+    private static final int POW = 8;
+    private static final int GT = 9;
+    private static final int GE = 10;
+    private static final int LT = 11;
+    private static final int LE = 12;
+    private static final int EQ = 13;
+    private static final int NE = 14;
+    private static final int NEG = 15;
+    private static final int ABS = 16;
+    private static final int ACOS = 17;
+    private static final int ASIN = 18;
+    private static final int ATAN = 19;
+    private static final int CBRT = 20;
+    private static final int CEIL = 21;
+    private static final int COS = 22;
+    private static final int COSH = 23;
+    private static final int EXP = 24;
+    private static final int FLOOR = 25;
+    private static final int LOG = 26;
+    private static final int LOG10 = 27;
+    private static final int SIGNUM = 28;
+    private static final int SIN = 29;
+    private static final int SINH = 30;
+    private static final int SQRT = 31;
+    private static final int TAN = 32;
+    private static final int TANH = 33;
+
+    /***************************************************************************
+     * Building expressions
+     */
+
+    /** Elementwise addition with a scalar. */
+    public FloatExpr add(float y) {
+        return new Scalar(ADD, this, y);
+    }
+
+    /** Elementwise addition. */
+    public FloatExpr add(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? add(y.scalar()) : add(of(y));
+    }
+
+    /** Elementwise addition. */
+    public FloatExpr add(FloatExpr y) {
+        return new Binary(ADD, this, y);
+    }
+
+    /** Elementwise subtraction with a scalar. */
+    public FloatExpr sub(float y) {
+        return new Scalar(SUB, this, y);
+    }
+
+    /** Elementwise subtraction. */
+    public FloatExpr sub(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? sub(y.scalar()) : sub(of(y));
+    }
+
+    /** Elementwise subtraction. */
+    public FloatExpr sub(FloatExpr y) {
+        return new Binary(SUB, this, y);
+    }
+
+    /** Elementwise subtraction with the operands switched with a scalar. */
+    public FloatExpr rsub(float y) {
+        return new Scalar(RSUB, this, y);
+    }
+
+    /** Elementwise multiplication with a scalar. */
+    public FloatExpr mul(float y) {
+        return new Scalar(MUL, this, y);
+    }
+
+    /** Elementwise multiplication. */
+    public FloatExpr mul(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? mul(y.scalar()) : mul(of(y));
+    }
+
+    /** Elementwise multiplication. */
+    public FloatExpr mul(FloatExpr y) {
+        return new Binary(MUL, this, y);
+    }
+
+    /** Elementwise division with a scalar. */
+    public FloatExpr div(float y) {
+        return new Scalar(DIV, this, y);
+    }
+
+    /** Elementwise division. */
+    public FloatExpr div(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? div(y.scalar()) : div(of(y));
+    }
+
+    /** Elementwise division. */
+    public FloatExpr div(FloatExpr y) {
+        return new Binary(DIV, this, y);
+    }
+
+    /** Elementwise division with the operands switched with a scalar. */
+    public FloatExpr rdiv(float y) {
+        return new Scalar(RDIV, this, y);
+    }
+
+    /** Elementwise minimum with a scalar. */
+    public FloatExpr min(float y) {
+        return new Scalar(MIN, this, y);
+    }
+
+    /** Elementwise minimum. */
+    public FloatExpr min(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? min(y.scalar()) : min(of(y));
+    }
+
+    /** Elementwise minimum. */
+    public FloatExpr min(FloatExpr y) {
+        return new Binary(MIN, this, y);
+    }
+
+    /** Elementwise maximum with a scalar. */
+    public FloatExpr max(float y) {
+        return new Scalar(MAX, this, y);
+    }
+
+    /** Elementwise maximum. */
+    public FloatExpr max(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? max(y.scalar()) : max(of(y));
+    }
+
+    /** Elementwise maximum. */
+    public FloatExpr max(FloatExpr y) {
+        return new Binary(MAX, this, y);
+    }
+
+    /** Elementwise power with a scalar. */
+    public FloatExpr pow(float y) {
+        return new Scalar(POW, this, y);
+    }
+
+    /** Elementwise power. */
+    public FloatExpr pow(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? pow(y.scalar()) : pow(of(y));
+    }
+
+    /** Elementwise power. */
+    public FloatExpr pow(FloatExpr y) {
+        return new Binary(POW, this, y);
+    }
+
+    /** Elementwise test for greater than with a scalar. */
+    public FloatExpr gt(float y) {
+        return new Scalar(GT, this, y);
+    }
+
+    /** Elementwise test for greater than. */
+    public FloatExpr gt(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? gt(y.scalar()) : gt(of(y));
+    }
+
+    /** Elementwise test for greater than. */
+    public FloatExpr gt(FloatExpr y) {
+        return new Binary(GT, this, y);
+    }
+
+    /** Elementwise test for greater than or equal with a scalar. */
+    public FloatExpr ge(float y) {
+        return new Scalar(GE, this, y);
+    }
+
+    /** Elementwise test for greater than or equal. */
+    public FloatExpr ge(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? ge(y.scalar()) : ge(of(y));
+    }
+
+    /** Elementwise test for greater than or equal. */
+    public FloatExpr ge(FloatExpr y) {
+        return new Binary(GE, this, y);
+    }
+
+    /** Elementwise test for less than with a scalar. */
+    public FloatExpr lt(float y) {
+        return new Scalar(LT, this, y);
+    }
+
+    /** Elementwise test for less than. */
+    public FloatExpr lt(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? lt(y.scalar()) : lt(of(y));
+    }
+
+    /** Elementwise test for less than. */
+    public FloatExpr lt(FloatExpr y) {
+        return new Binary(LT, this, y);
+    }
+
+    /** Elementwise test for less than or equal with a scalar. */
+    public FloatExpr le(float y) {
+        return new Scalar(LE, this, y);
+    }
+
+    /** Elementwise test for less than or equal. */
+    public FloatExpr le(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? le(y.scalar()) : le(of(y));
+    }
+
+    /** Elementwise test for less than or equal. */
+    public FloatExpr le(FloatExpr y) {
+        return new Binary(LE, this, y);
+    }
+
+    /** Elementwise test for equality with a scalar. */
+    public FloatExpr eq(float y) {
+        return new Scalar(EQ, this, y);
+    }
+
+    /** Elementwise test for equality. */
+    public FloatExpr eq(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? eq(y.scalar()) : eq(of(y));
+    }
+
+    /** Elementwise test for equality. */
+    public FloatExpr eq(FloatExpr y) {
+        return new Binary(EQ, this, y);
+    }
+
+    /** Elementwise test for inequality with a scalar. */
+    public FloatExpr ne(float y) {
+        return new Scalar(NE, this, y);
+    }
+
+    /** Elementwise test for inequality. */
+    public FloatExpr ne(FloatMatrix y) {
+        return y.isScalar() && length != 1 ? ne(y.scalar()) : ne(of(y));
+    }
+
+    /** Elementwise test for inequality. */
+    public FloatExpr ne(FloatExpr y) {
+        return new Binary(NE, this, y);
+    }
+
+    /** Elementwise negation. */
+    public FloatExpr neg() {
+        return new Unary(NEG, this);
+    }
+
+    /** Elementwise abs, see {@link MatrixFunctions#abs(FloatMatrix)}. */
+    public FloatExpr abs() {
+        return new Unary(ABS, this);
+    }
+
+    /** Elementwise acos, see {@link MatrixFunctions#acos(FloatMatrix)}. */
+    public FloatExpr acos() {
+        return new Unary(ACOS, this);
+    }
+
+    /** Elementwise asin, see {@link MatrixFunctions#asin(FloatMatrix)}. */
+    public FloatExpr asin() {
+        return new Unary(ASIN, this);
+    }
+
+    /** Elementwise atan, see {@link MatrixFunctions#atan(FloatMatrix)}. */
+    public FloatExpr atan() {
+        return new Unary(ATAN, this);
+    }
+
+    /** Elementwise cbrt, see {@link MatrixFunctions#cbrt(FloatMatrix)}. */
+    public FloatExpr cbrt() {
+        return new Unary(CBRT, this);
+    }
+
+    /** Elementwise ceil, see {@link MatrixFunctions#ceil(FloatMatrix)}. */
+    public FloatExpr ceil() {
+        return new Unary(CEIL, this);
+    }
+
+    /** Elementwise cos, see {@link MatrixFunctions#cos(FloatMatrix)}. */
+    public FloatExpr cos() {
+        return new Unary(COS, this);
+    }
+
+    /** Elementwise cosh, see {@link MatrixFunctions#cosh(FloatMatrix)}. */
+    public FloatExpr cosh() {
+        return new Unary(COSH, this);
+    }
+
+    /** Elementwise exp, see {@link MatrixFunctions#exp(FloatMatrix)}. */
+    public FloatExpr exp() {
+        return new Unary(EXP, this);
+    }
+
+    /** Elementwise floor, see {@link MatrixFunctions#floor(FloatMatrix)}. */
+    public FloatExpr floor() {
+        return new Unary(FLOOR, this);
+    }
+
+    /** Elementwise log, see {@link MatrixFunctions#log(FloatMatrix)}. */
+    public FloatExpr log() {
+        return new Unary(LOG, this);
+    }
+
+    /** Elementwise log10, see {@link MatrixFunctions#log10(FloatMatrix)}. */
+    public FloatExpr log10() {
+        return new Unary(LOG10, this);
+    }
+
+    /** Elementwise signum, see {@link MatrixFunctions#signum(FloatMatrix)}. */
+    public FloatExpr signum() {
+        return new Unary(SIGNUM, this);
+    }
+
+    /** Elementwise sin, see {@link MatrixFunctions#sin(FloatMatrix)}. */
+    public FloatExpr sin() {
+        return new Unary(SIN, this);
+    }
+
+    /** Elementwise sinh, see {@link MatrixFunctions#sinh(FloatMatrix)}. */
+    public FloatExpr sinh() {
+        return new Unary(SINH, this);
+    }
+
+    /** Elementwise sqrt, see {@link MatrixFunctions#sqrt(FloatMatrix)}. */
+    public FloatExpr sqrt() {
+        return new Unary(SQRT, this);
+    }
+
+    /** Elementwise tan, see {@link MatrixFunctions#tan(FloatMatrix)}. */
+    public FloatExpr tan() {
+        return new Unary(TAN, this);
+    }
+
+    /** Elementwise tanh, see {@link MatrixFunctions#tanh(FloatMatrix)}. */
+    public FloatExpr tanh() {
+        return new Unary(TANH, this);
+    }
+
+    /***************************************************************************
+     * Evaluation
+     */
+
+    /** Evaluate the expression into a new matrix. */
+    public FloatMatrix eval() {
+        return eval(new FloatMatrix(rows, columns), false);
+    }
+
+    /** Evaluate the expression into result, which must have the same length. */
+    public FloatMatrix eval(FloatMatrix result) {
+        return eval(result, false);
+    }
+
+    /**
+     * Evaluate the expression into result, which must have the same length.
+     *
+     * @param parallel whether to process the blocks in parallel for matrices
+     *                 larger than {@link Parallel#getThreshold()}.
+     */
+    public FloatMatrix eval(final FloatMatrix result, boolean parallel) {
+        if (result.length != length)
+            throw new SizeException("Result must have same length as expression (is: " + result.length + " and " + length + ")");
+
+        int blocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (parallel && Parallel.isParallel(length)) {
+            Parallel.forRange(blocks, 1, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    evalBlocks(from, to, result.data);
+                }
+            });
+        } else {
+            evalBlocks(0, blocks, result.data);
+        }
+        return result;
+    }
+
+    private void evalBlocks(int fromBlock, int toBlock, float[] result) {
+        float[] x = new float[BLOCK_SIZE];
+        float[][] scratch = new float[scratchBuffers()][BLOCK_SIZE];
+        for (int b = fromBlock; b < toBlock; b++) {
+            int from = b * BLOCK_SIZE;
+            int n = Math.min(BLOCK_SIZE, length - from);
+            eval(from, n, x, scratch, 0);
+            System.arraycopy(x, 0, result, from, n);
+        }
+    }
+
+    /** Sum of all elements of the expression, computed without storing it. */
+    public float sum() {
+        float[] x = new float[BLOCK_SIZE];
+        float[][] scratch = new float[scratchBuffers()][BLOCK_SIZE];
+        float s = 0.0f;
+        for (int from = 0; from < length; from += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, length - from);
+            eval(from, n, x, scratch, 0);
+            for (int i = 0; i < n; i++)
+                s += x[i];
+        }
+        return s;
+    }
+
+    /***************************************************************************
+     * Expression nodes
+     */
+
+    /** A matrix. */
+    private static class Leaf extends FloatExpr {
+        final float[] data;
+
+        Leaf(FloatMatrix x) {
+            super(x.rows, x.columns);
+            data = x.data;
+        }
+
+        void eval(int from, int n, float[] x, float[][] scratch, int level) {
+            System.arraycopy(data, from, x, 0, n);
+        }
+
+        int scratchBuffers() {
+            return 0;
+        }
+    }
+
+    /** An operation of an expression and a scalar. */
+    private static class Scalar extends FloatExpr {
+        final int op;
+        final FloatExpr x;
+        final float y;
+
+        Scalar(int op, FloatExpr x, float y) {
+            super(x.rows, x.columns);
+            this.op = op;
+            this.x = x;
+            this.y = y;
+        }
+
+        void eval(int from, int n, float[] x, float[][] scratch, int level) {
+            this.x.eval(from, n, x, scratch, level);
+            apply(op, x, y, n);
+        }
+
+        int scratchBuffers() {
+            return x.scratchBuffers();
+        }
+    }
+
+    /** An operation of two expressions. Matrices on the right are read in place. */
+    private static class Binary extends FloatExpr {
+        final int op;
+        final FloatExpr x;
+        final FloatExpr y;
+
+        Binary(int op, FloatExpr x, FloatExpr y) {
+            super(x.rows, x.columns);
+            if (x.length != y.length)
+                throw new SizeException("Matrices must have same length (is: " + x.length + " and " + y.length + ")");
+            this.op = op;
+            this.x = x;
+            this.y = y;
+        }
+
+        void eval(int from, int n, float[] x, float[][] scratch, int level) {
+            this.x.eval(from, n, x, scratch, level);
+            if (y instanceof Leaf) {
+                apply(op, x, ((Leaf) y).data, from, n);
+            } else {
+                float[] t = scratch[level];
+                y.eval(from, n, t, scratch, level + 1);
+                apply(op, x, t, 0, n);
+            }
+        }
+
+        int scratchBuffers() {
+            if (y instanceof Leaf)
+                return x.scratchBuffers();
+            return Math.max(x.scratchBuffers(), 1 + y.scratchBuffers());
+        }
+    }
+
+    /** A function applied to an expression. */
+    private static class Unary extends FloatExpr {
+        final int op;
+        final FloatExpr x;
+
+        Unary(int op, FloatExpr x) {
+            super(x.rows, x.columns);
+            this.op = op;
+            this.x = x;
+        }
+
+        void eval(int from, int n, float[] x, float[][] scratch, int level) {
+            this.x.eval(from, n, x, scratch, level);
+            apply(op, x, n);
+        }
+
+        int scratchBuffers() {
+            return x.scratchBuffers();
+        }
+    }
+
+    /***************************************************************************
+     * Kernels
+     */
+
+    /** x[i] &lt;- x[i] op y for i = 0, ..., n - 1. */
+    private static void apply(int op, float[] x, float y, int n) {
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < n; i++)
+                    x[i] += y;
+                break;
+            case SUB:
+                for (int i = 0; i < n; i++)
+                    x[i] -= y;
+                break;
+            case RSUB:
+                for (int i = 0; i < n; i++)
+                    x[i] = y - x[i];
+                break;
+            case MUL:
+                for (int i = 0; i < n; i++)
+                    x[i] *= y;
+                break;
+            case DIV:
+                for (int i = 0; i < n; i++)
+                    x[i] /= y;
+                break;
+            case RDIV:
+                for (int i = 0; i < n; i++)
+                    x[i] = y / x[i];
+                break;
+            case MIN:
+                for (int i = 0; i < n; i++)
+                    x[i] = Math.min(x[i], y);
+                break;
+            case MAX:
+                for (int i = 0; i < n; i++)
+                    x[i] = Math.max(x[i], y);
+                break;
+            case POW:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.pow(x[i], y);
+                break;
+            case GT:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] > y ? 1.0f : 0.0f;
+                break;
+            case GE:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] >= y ? 1.0f : 0.0f;
+                break;
+            case LT:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] < y ? 1.0f : 0.0f;
+                break;
+            case LE:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] <= y ? 1.0f : 0.0f;
+                break;
+            case EQ:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] == y ? 1.0f : 0.0f;
+                break;
+            case NE:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] != y ? 1.0f : 0.0f;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + op);
+        }
+    }
+
+    /** x[i] &lt;- x[i] op y[yIdx + i] for i = 0, ..., n - 1. */
+    private static void apply(int op, float[] x, float[] y, int yIdx, int n) {
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < n; i++)
+                    x[i] += y[yIdx + i];
+                break;
+            case SUB:
+                for (int i = 0; i < n; i++)
+                    x[i] -= y[yIdx + i];
+                break;
+            case MUL:
+                for (int i = 0; i < n; i++)
+                    x[i] *= y[yIdx + i];
+                break;
+            case DIV:
+                for (int i = 0; i < n; i++)
+                    x[i] /= y[yIdx + i];
+                break;
+            case MIN:
+                for (int i = 0; i < n; i++)
+                    x[i] = Math.min(x[i], y[yIdx + i]);
+                break;
+            case MAX:
+                for (int i = 0; i < n; i++)
+                    x[i] = Math.max(x[i], y[yIdx + i]);
+                break;
+            case POW:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.pow(x[i], y[yIdx + i]);
+                break;
+            case GT:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] > y[yIdx + i] ? 1.0f : 0.0f;
+                break;
+            case GE:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] >= y[yIdx + i] ? 1.0f : 0.0f;
+                break;
+            case LT:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] < y[yIdx + i] ? 1.0f : 0.0f;
+                break;
+            case LE:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] <= y[yIdx + i] ? 1.0f : 0.0f;
+                break;
+            case EQ:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] == y[yIdx + i] ? 1.0f : 0.0f;
+                break;
+            case NE:
+                for (int i = 0; i < n; i++)
+                    x[i] = x[i] != y[yIdx + i] ? 1.0f : 0.0f;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + op);
+        }
+    }
+
+    /** x[i] &lt;- op(x[i]) for i = 0, ..., n - 1. */
+    private static void apply(int op, float[] x, int n) {
+        switch (op) {
+            case NEG:
+                for (int i = 0; i < n; i++)
+                    x[i] = -x[i];
+                break;
+            case ABS:
+                for (int i = 0; i < n; i++)
+                    x[i] = Math.abs(x[i]);
+                break;
+            case ACOS:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.acos(x[i]);
+                break;
+            case ASIN:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.asin(x[i]);
+                break;
+            case ATAN:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.atan(x[i]);
+                break;
+            case CBRT:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.cbrt(x[i]);
+                break;
+            case CEIL:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.ceil(x[i]);
+                break;
+            case COS:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.cos(x[i]);
+                break;
+            case COSH:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.cosh(x[i]);
+                break;
+            case EXP:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.exp(x[i]);
+                break;
+            case FLOOR:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.floor(x[i]);
+                break;
+            case LOG:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.log(x[i]);
+                break;
+            case LOG10:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.log10(x[i]);
+                break;
+            case SIGNUM:
+                for (int i = 0; i < n; i++)
+                    x[i] = Math.signum(x[i]);
+                break;
+            case SIN:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.sin(x[i]);
+                break;
+            case SINH:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.sinh(x[i]);
+                break;
+            case SQRT:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.sqrt(x[i]);
+                break;
+            case TAN:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.tan(x[i]);
+                break;
+            case TANH:
+                for (int i = 0; i < n; i++)
+                    x[i] = (float) Math.tanh(x[i]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + op);
+        }
+    }
+}
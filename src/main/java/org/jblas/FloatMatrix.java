@@ -38,27 +38,31 @@
 package org.jblas;
 
 import org.jblas.exceptions.SizeException;
+import org.jblas.ranges.IntervalRange;
 import org.jblas.ranges.Range;
+import org.jblas.util.MatrixCodec;
+import org.jblas.util.Parallel;
 import org.jblas.util.Random;
+import org.jblas.util.Workspace;
 
-import java.io.BufferedReader;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.io.StringWriter;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -287,7 +291,7 @@ import java.util.regex.Pattern;
  * 
  * @author Mikio Braun, Johannes Schaback
  */
-public class FloatMatrix implements Serializable {
+public class FloatMatrix implements Serializable, FloatLinearOperator {
 
     /** Number of rows. */
     public int rows;
@@ -303,7 +307,6 @@ public class FloatMatrix implements Serializable {
     // Precompile regex patterns
     private static final Pattern SEMICOLON = Pattern.compile(";");
     private static final Pattern WHITESPACES = Pattern.compile("\\s+");
-    private static final Pattern COMMA = Pattern.compile(",");
 
     /**************************************************************************
      *
@@ -706,6 +709,24 @@ public class FloatMatrix implements Serializable {
         return result;
     }
 
+    /**
+     * Get a view of the given rows and columns which shares the data of this matrix.
+     * See {@link FloatMatrixView}.
+     */
+    public FloatMatrixView view(IntervalRange rs, IntervalRange cs) {
+        return new FloatMatrixView(this).view(rs, cs);
+    }
+
+    /** Get a view of column c which shares the data of this matrix. */
+    public FloatMatrixView columnView(int c) {
+        return view(new IntervalRange(0, rows), new IntervalRange(c, c + 1));
+    }
+
+    /** Get a view of row r which shares the data of this matrix. */
+    public FloatMatrixView rowView(int r) {
+        return view(new IntervalRange(r, r + 1), new IntervalRange(0, columns));
+    }
+
     /** Get elements from specified rows and columns. */
     public FloatMatrix get(Range rs, Range cs) {
         rs.init(0, rows);
@@ -1133,16 +1154,24 @@ public class FloatMatrix implements Serializable {
     /** Return transposed copy of this matrix. */
     public FloatMatrix transpose() {
         FloatMatrix result = new FloatMatrix(columns, rows);
-
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                result.put(j, i, get(i, j));
-            }
-        }
-
+        JavaBlas.rtranspose(rows, columns, data, 0, rows, result.data, 0, columns);
         return result;
     }
 
+    /**
+     * Transposes the matrix in-place. The data is permuted within the
+     * existing array, so no copy of the matrix is allocated.
+     *
+     * @return this matrix, now with rows and columns exchanged
+     */
+    public FloatMatrix transposei() {
+        JavaBlas.rtransposei(rows, columns, data, 0);
+        int r = rows;
+        rows = columns;
+        columns = r;
+        return this;
+    }
+
     /**
      * Compare two matrices. Returns true if and only if other is also a
      * FloatMatrix which has the same size and the maximal absolute
@@ -1351,6 +1380,11 @@ public class FloatMatrix implements Serializable {
         return columns;
     }
 
+    /** Compute this * X into result, as a {@link FloatLinearOperator}. */
+    public FloatMatrix apply(FloatMatrix X, FloatMatrix result) {
+        return mmuli(X, result);
+    }
+
     /** Get total number of elements. */
     public int getLength() {
         return length;
@@ -1629,6 +1663,63 @@ public class FloatMatrix implements Serializable {
         }
     }
 
+    /**
+     * Start a lazily evaluated elementwise expression with this matrix. The
+     * expression is computed in a single pass without temporary matrices, see
+     * {@link FloatExpr}.
+     */
+    public FloatExpr expr() {
+        return FloatExpr.of(this);
+    }
+
+    /** Minimum number of elements per task for elementwise operations in parallel. */
+    private static final int KERNEL_GRAIN = 4096;
+
+    /**
+     * Apply a binary operation from {@link VectorKernels} elementwise. Large matrices
+     * are processed in parallel, see {@link Parallel}.
+     */
+    private FloatMatrix applyKernel(final int op, final FloatMatrix other, final FloatMatrix result) {
+        if (Parallel.isParallel(length)) {
+            Parallel.forRange(length, KERNEL_GRAIN, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    VectorKernels.binary(op, data, other.data, result.data, from, to);
+                }
+            });
+        } else {
+            VectorKernels.binary(op, data, other.data, result.data, 0, length);
+        }
+        return result;
+    }
+
+    /** Apply a binary operation with a scalar from {@link VectorKernels} elementwise. */
+    private FloatMatrix applyKernel(final int op, final float v, final FloatMatrix result) {
+        if (Parallel.isParallel(length)) {
+            Parallel.forRange(length, KERNEL_GRAIN, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    VectorKernels.binary(op, data, v, result.data, from, to);
+                }
+            });
+        } else {
+            VectorKernels.binary(op, data, v, result.data, 0, length);
+        }
+        return result;
+    }
+
+    /** Apply a unary operation from {@link VectorKernels} elementwise. */
+    private FloatMatrix applyKernel(final int op, final FloatMatrix result) {
+        if (Parallel.isParallel(length)) {
+            Parallel.forRange(length, KERNEL_GRAIN, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    VectorKernels.unary(op, data, result.data, from, to);
+                }
+            });
+        } else {
+            VectorKernels.unary(op, data, result.data, 0, length);
+        }
+        return result;
+    }
+
     /** Add two matrices (in-place). */
     public FloatMatrix addi(FloatMatrix other, FloatMatrix result) {
         if (other.isScalar()) {
@@ -1641,27 +1732,14 @@ public class FloatMatrix implements Serializable {
         assertSameLength(other);
         ensureResultLength(other, result);
 
-        if (result == this) {
-            SimpleBlas.axpy(1.0f, other, result);
-        } else if (result == other) {
-            SimpleBlas.axpy(1.0f, this, result);
-        } else {
-            /*SimpleBlas.copy(this, result);
-            SimpleBlas.axpy(1.0f, other, result);*/
-            JavaBlas.rzgxpy(length, result.data, data, other.data);
-        }
-
-        return result;
+        return applyKernel(VectorKernels.ADD, other, result);
     }
 
     /** Add a scalar to a matrix (in-place). */
     public FloatMatrix addi(float v, FloatMatrix result) {
         ensureResultLength(null, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, get(i) + v);
-        }
-        return result;
+        return applyKernel(VectorKernels.ADD, v, result);
     }
 
     /** Subtract two matrices (in-place). */
@@ -1676,26 +1754,14 @@ public class FloatMatrix implements Serializable {
         assertSameLength(other);
         ensureResultLength(other, result);
 
-        if (result == this) {
-            SimpleBlas.axpy(-1.0f, other, result);
-        } else if (result == other) {
-            SimpleBlas.scal(-1.0f, result);
-            SimpleBlas.axpy(1.0f, this, result);
-        } else {
-            SimpleBlas.copy(this, result);
-            SimpleBlas.axpy(-1.0f, other, result);
-        }
-        return result;
+        return applyKernel(VectorKernels.SUB, other, result);
     }
 
     /** Subtract a scalar from a matrix (in-place). */
     public FloatMatrix subi(float v, FloatMatrix result) {
         ensureResultLength(null, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, get(i) - v);
-        }
-        return result;
+        return applyKernel(VectorKernels.SUB, v, result);
     }
 
     /**
@@ -1710,10 +1776,7 @@ public class FloatMatrix implements Serializable {
     public FloatMatrix rsubi(float a, FloatMatrix result) {
         ensureResultLength(null, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, a - get(i));
-        }
-        return result;
+        return applyKernel(VectorKernels.RSUB, a, result);
     }
 
     /** Elementwise multiplication (in-place). */
@@ -1728,24 +1791,38 @@ public class FloatMatrix implements Serializable {
         assertSameLength(other);
         ensureResultLength(other, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, get(i) * other.get(i));
-        }
-        return result;
+        return applyKernel(VectorKernels.MUL, other, result);
     }
 
     /** Elementwise multiplication with a scalar (in-place). */
     public FloatMatrix muli(float v, FloatMatrix result) {
         ensureResultLength(null, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, get(i) * v);
-        }
-        return result;
+        return applyKernel(VectorKernels.MUL, v, result);
     }
 
     /** Matrix-matrix multiplication (in-place). */
     public FloatMatrix mmuli(FloatMatrix other, FloatMatrix result) {
+        return mmuli(other, result, null);
+    }
+
+    /**
+     * Matrix-matrix multiplication (in-place) with a workspace.
+     *
+     * <p>BLAS cannot multiply in-place. If result is this matrix or other, the
+     * product is therefore computed in strips: if result is this, blocks of
+     * rows are copied to the workspace and multiplied with other; if result is
+     * other, blocks of columns are copied and multiplied with this. The workspace
+     * must then hold at least one row (or column) of the result, or the whole
+     * result if this, other and result are the same matrix. Matrix-vector
+     * products x = A * x need a copy of the whole vector.</p>
+     *
+     * <p>If work is null, the workspace is taken from the thread-local pool in
+     * {@link Workspace}, so that repeated multiplications do not allocate.</p>
+     *
+     * @param work scratch space, or null
+     */
+    public FloatMatrix mmuli(FloatMatrix other, FloatMatrix result, float[] work) {
         if (other.isScalar()) {
             return muli(other.scalar(), result);
         }
@@ -1763,27 +1840,65 @@ public class FloatMatrix implements Serializable {
             }
         }
 
-        if (result == this || result == other) {
-            /* actually, blas cannot do multiplications in-place. Therefore, we will fake by
-             * allocating a temporary object on the side and copy the result later.
-             */
-            FloatMatrix temp = new FloatMatrix(result.rows, result.columns);
-            if (other.columns == 1) {
-                SimpleBlas.gemv(1.0f, this, other, 0.0f, temp);
-            } else {
-                SimpleBlas.gemm(1.0f, this, other, 0.0f, temp);
-            }
-            SimpleBlas.copy(temp, result);
-        } else {
+        if (result != this && result != other) {
             if (other.columns == 1) {
                 SimpleBlas.gemv(1.0f, this, other, 0.0f, result);
             } else {
                 SimpleBlas.gemm(1.0f, this, other, 0.0f, result);
             }
+            return result;
+        }
+
+        int m = result.rows, n = result.columns, k = columns;
+        if (m == 0 || n == 0 || k == 0) {
+            // nothing to multiply, an empty inner dimension gives zeros
+            return result.fill(0.0f);
+        }
+        int minimum = this == other ? length : (result == this ? k : m);
+        if (work != null && work.length < minimum) {
+            throw new SizeException("Workspace must hold at least " + minimum + " elements.");
+        }
+        float[] scratch = work != null ? work : Workspace.floats(Math.max(minimum, Math.min(result.length, MMUL_STRIP_SIZE)));
+
+        try {
+            if (this == other) {
+                // square matrix multiplied with itself
+                System.arraycopy(data, 0, scratch, 0, length);
+                BlasBackends.backend().sgemm('N', 'N', m, n, k, 1.0f, scratch, 0, m, scratch, 0, m, 0.0f, data, 0, m);
+            } else if (result == this) {
+                // blocks of rows of this times other
+                int strip = Math.min(m, scratch.length / k);
+                for (int i0 = 0; i0 < m; i0 += strip) {
+                    int s = Math.min(strip, m - i0);
+                    for (int j = 0; j < k; j++) {
+                        System.arraycopy(data, i0 + j * m, scratch, j * s, s);
+                    }
+                    BlasBackends.backend().sgemm('N', 'N', s, n, k, 1.0f, scratch, 0, s, other.data, 0, k, 0.0f, data, i0, m);
+                }
+            } else if (n == 1) {
+                // matrix times vector
+                System.arraycopy(other.data, 0, scratch, 0, m);
+                BlasBackends.backend().sgemv('N', m, k, 1.0f, data, 0, m, scratch, 0, 1, 0.0f, other.data, 0, 1);
+            } else {
+                // this times blocks of columns of other
+                int strip = Math.min(n, scratch.length / m);
+                for (int j0 = 0; j0 < n; j0 += strip) {
+                    int s = Math.min(strip, n - j0);
+                    System.arraycopy(other.data, j0 * m, scratch, 0, s * m);
+                    BlasBackends.backend().sgemm('N', 'N', m, s, k, 1.0f, data, 0, m, scratch, 0, m, 0.0f, other.data, j0 * m, m);
+                }
+            }
+        } finally {
+            if (work == null) {
+                Workspace.release(scratch);
+            }
         }
         return result;
     }
 
+    /** Number of elements of the strips in which in-place products are computed. */
+    private static final int MMUL_STRIP_SIZE = 1 << 16;
+
     /** Matrix-matrix multiplication with a scalar (for symmetry, does the
      * same as <code>muli(scalar)</code> (in-place).
      */
@@ -1791,6 +1906,66 @@ public class FloatMatrix implements Serializable {
         return muli(v, result);
     }
 
+    /**
+     * Matrix-matrix multiplication with the transpose of this matrix, computing
+     * <em>result = this<sup>T</sup> * other</em> (in-place). The transpose is not
+     * computed explicitly.
+     */
+    public FloatMatrix transposeMmuli(FloatMatrix other, FloatMatrix result) {
+        if (rows != other.rows) {
+            throw new SizeException("Number of rows of left matrix must be equal to number of rows of right matrix.");
+        }
+        return gemmi('T', 'N', columns, other.columns, other, result);
+    }
+
+    /** Matrix-matrix multiplication with the transpose of this matrix, <em>this<sup>T</sup> * other</em>. */
+    public FloatMatrix transposeMmul(FloatMatrix other) {
+        return transposeMmuli(other, new FloatMatrix(columns, other.columns));
+    }
+
+    /**
+     * Matrix-matrix multiplication with the transpose of other, computing
+     * <em>result = this * other<sup>T</sup></em> (in-place). The transpose is not
+     * computed explicitly.
+     */
+    public FloatMatrix mmulTransposei(FloatMatrix other, FloatMatrix result) {
+        if (columns != other.columns) {
+            throw new SizeException("Number of columns of left matrix must be equal to number of columns of right matrix.");
+        }
+        return gemmi('N', 'T', rows, other.rows, other, result);
+    }
+
+    /** Matrix-matrix multiplication with the transpose of other, <em>this * other<sup>T</sup></em>. */
+    public FloatMatrix mmulTranspose(FloatMatrix other) {
+        return mmulTransposei(other, new FloatMatrix(rows, other.rows));
+    }
+
+    /** Compute result = op(this) * op(other) for an m * n result with gemm. */
+    private FloatMatrix gemmi(char transa, char transb, int m, int n, FloatMatrix other, FloatMatrix result) {
+        if (result.rows != m || result.columns != n) {
+            if (result != this && result != other) {
+                result.resize(m, n);
+            } else {
+                throw new SizeException("Cannot resize result matrix because it is used in-place.");
+            }
+        }
+
+        if (result == this || result == other) {
+            // compute the product in a scratch array from the workspace pool
+            float[] scratch = Workspace.floats(m * n);
+            try {
+                int k = transa == 'N' ? columns : rows;
+                BlasBackends.backend().sgemm(transa, transb, m, n, k, 1.0f, data, 0, rows, other.data, 0, other.rows, 0.0f, scratch, 0, m);
+                System.arraycopy(scratch, 0, result.data, 0, m * n);
+            } finally {
+                Workspace.release(scratch);
+            }
+        } else {
+            SimpleBlas.gemm(transa, transb, 1.0f, this, other, 0.0f, result);
+        }
+        return result;
+    }
+
     /** Elementwise division (in-place). */
     public FloatMatrix divi(FloatMatrix other, FloatMatrix result) {
         if (other.isScalar()) {
@@ -1803,20 +1978,14 @@ public class FloatMatrix implements Serializable {
         assertSameLength(other);
         ensureResultLength(other, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, get(i) / other.get(i));
-        }
-        return result;
+        return applyKernel(VectorKernels.DIV, other, result);
     }
 
     /** Elementwise division with a scalar (in-place). */
     public FloatMatrix divi(float a, FloatMatrix result) {
         ensureResultLength(null, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, get(i) / a);
-        }
-        return result;
+        return applyKernel(VectorKernels.DIV, a, result);
     }
 
     /**
@@ -1831,18 +2000,12 @@ public class FloatMatrix implements Serializable {
     public FloatMatrix rdivi(float a, FloatMatrix result) {
         ensureResultLength(null, result);
 
-        for (int i = 0; i < length; i++) {
-            result.put(i, a / get(i));
-        }
-        return result;
+        return applyKernel(VectorKernels.RDIV, a, result);
     }
 
     /** Negate each element (in-place). */
     public FloatMatrix negi() {
-        for (int i = 0; i < length; i++) {
-            put(i, -get(i));
-        }
-        return this;
+        return applyKernel(VectorKernels.NEG, this);
     }
 
     /** Negate each element. */
@@ -1972,17 +2135,7 @@ public class FloatMatrix implements Serializable {
      */
     /** Returns the minimal element of the matrix. */
     public float min() {
-        if (isEmpty()) {
-            return Float.POSITIVE_INFINITY;
-        }
-        float v = Float.POSITIVE_INFINITY;
-        for (int i = 0; i < length; i++) {
-            if (!Float.isNaN(get(i)) && get(i) < v) {
-                v = get(i);
-            }
-        }
-
-        return v;
+        return reduce(VectorKernels.MINIMUM);
     }
 
     /**
@@ -2010,22 +2163,7 @@ public class FloatMatrix implements Serializable {
      * corresponding elements in the matrix (in-place).
      */
     public FloatMatrix mini(FloatMatrix other, FloatMatrix result) {
-        if (result == this) {
-            for (int i = 0; i < length; i++) {
-                if (get(i) > other.get(i)) {
-                    put(i, other.get(i));
-                }
-            }
-        } else {
-            for (int i = 0; i < length; i++) {
-                if (get(i) > other.get(i)) {
-                    result.put(i, other.get(i));
-                } else {
-                    result.put(i, get(i));
-                }
-            }
-        }
-        return result;
+        return applyKernel(VectorKernels.MIN, other, result);
     }
 
     /**
@@ -2045,23 +2183,7 @@ public class FloatMatrix implements Serializable {
     }
 
     public FloatMatrix mini(float v, FloatMatrix result) {
-        if (result == this) {
-            for (int i = 0; i < length; i++) {
-                if (get(i) > v) {
-                    result.put(i, v);
-                }
-            }
-        } else {
-            for (int i = 0; i < length; i++) {
-                if (get(i) > v) {
-                    result.put(i, v);
-                } else {
-                    result.put(i, get(i));
-                }
-            }
-
-        }
-        return result;
+        return applyKernel(VectorKernels.MIN, v, result);
     }
 
     public FloatMatrix mini(float v) {
@@ -2074,16 +2196,7 @@ public class FloatMatrix implements Serializable {
 
     /** Returns the maximal element of the matrix. */
     public float max() {
-        if (isEmpty()) {
-            return Float.NEGATIVE_INFINITY;
-        }
-        float v = Float.NEGATIVE_INFINITY;
-        for (int i = 0; i < length; i++) {
-            if (!Float.isNaN(get(i)) && get(i) > v) {
-                v = get(i);
-            }
-        }
-        return v;
+        return reduce(VectorKernels.MAXIMUM);
     }
 
     /**
@@ -2112,22 +2225,7 @@ public class FloatMatrix implements Serializable {
      * corresponding elements in the matrix (in-place).
      */
     public FloatMatrix maxi(FloatMatrix other, FloatMatrix result) {
-        if (result == this) {
-            for (int i = 0; i < length; i++) {
-                if (get(i) < other.get(i)) {
-                    put(i, other.get(i));
-                }
-            }
-        } else {
-            for (int i = 0; i < length; i++) {
-                if (get(i) < other.get(i)) {
-                    result.put(i, other.get(i));
-                } else {
-                    result.put(i, get(i));
-                }
-            }
-        }
-        return result;
+        return applyKernel(VectorKernels.MAX, other, result);
     }
 
     /**
@@ -2147,23 +2245,7 @@ public class FloatMatrix implements Serializable {
     }
 
     public FloatMatrix maxi(float v, FloatMatrix result) {
-        if (result == this) {
-            for (int i = 0; i < length; i++) {
-                if (get(i) < v) {
-                    result.put(i, v);
-                }
-            }
-        } else {
-            for (int i = 0; i < length; i++) {
-                if (get(i) < v) {
-                    result.put(i, v);
-                } else {
-                    result.put(i, get(i));
-                }
-            }
-
-        }
-        return result;
+        return applyKernel(VectorKernels.MAX, v, result);
     }
 
     public FloatMatrix maxi(float v) {
@@ -2176,20 +2258,39 @@ public class FloatMatrix implements Serializable {
 
     /** Computes the sum of all elements of the matrix. */
     public float sum() {
-        float s = 0.0f;
-        for (int i = 0; i < length; i++) {
-            s += get(i);
-        }
-        return s;
+        return reduce(VectorKernels.SUM);
     }
 
     /** Computes the product of all elements of the matrix */
     public float prod() {
-        float p = 1.0f;
-        for (int i = 0; i < length; i++) {
-            p *= get(i);
+        return reduce(VectorKernels.PROD);
+    }
+
+    /**
+     * Compute a reduction from {@link VectorKernels} over all elements. Large matrices
+     * are split into blocks which are reduced in parallel and then combined in order,
+     * see {@link Parallel}.
+     */
+    private float reduce(final int op) {
+        final int block = Parallel.reductionBlockSize(length);
+        if (block >= length) {
+            return VectorKernels.reduce(op, data, 0, length);
+        }
+
+        final float[] partial = new float[(length + block - 1) / block];
+        Parallel.forRange(length, block, length, new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                for (int b = from; b < to; b += block) {
+                    partial[b / block] = VectorKernels.reduce(op, data, b, Math.min(to, b + block));
+                }
+            }
+        });
+
+        float r = partial[0];
+        for (int i = 1; i < partial.length; i++) {
+            r = VectorKernels.combine(op, r, partial[i]);
         }
-        return p;
+        return r;
     }
 
     /**
@@ -2248,11 +2349,7 @@ public class FloatMatrix implements Serializable {
      * norm of the matrix.
      */
     public float norm2() {
-        float norm = 0.0f;
-        for (int i = 0; i < length; i++) {
-            norm += get(i) * get(i);
-        }
-        return (float) Math.sqrt(norm);
+        return (float) Math.sqrt(reduce(VectorKernels.SUM_SQUARES));
     }
 
     /**
@@ -2273,11 +2370,7 @@ public class FloatMatrix implements Serializable {
      * The 1-norm of the matrix as vector (sum of absolute values of elements).
      */
     public float norm1() {
-        float norm = 0.0f;
-        for (int i = 0; i < length; i++) {
-            norm += Math.abs(get(i));
-        }
-        return norm;
+        return reduce(VectorKernels.SUM_ABS);
     }
 
     /**
@@ -2428,12 +2521,22 @@ public class FloatMatrix implements Serializable {
         if (rows == 1) {
             return dup();
         } else {
-            FloatMatrix v = new FloatMatrix(1, columns);
-
-            for (int c = 0; c < columns; c++) {
-                for (int r = 0; r < rows; r++) {
-                    v.put(c, v.get(c) + get(r, c));
+            final FloatMatrix v = new FloatMatrix(1, columns);
+
+            // each column is summed up by one task, so the result is deterministic
+            Parallel.RangeBody body = new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    for (int c = from; c < to; c++) {
+                        for (int r = 0; r < rows; r++) {
+                            v.put(c, v.get(c) + get(r, c));
+                        }
+                    }
                 }
+            };
+            if (Parallel.isParallel(length)) {
+                Parallel.forRange(columns, 1, body);
+            } else {
+                body.run(0, columns);
             }
 
             return v;
@@ -2450,12 +2553,22 @@ public class FloatMatrix implements Serializable {
         if (columns == 1) {
             return dup();
         } else {
-            FloatMatrix v = new FloatMatrix(rows);
-
-            for (int c = 0; c < columns; c++) {
-                for (int r = 0; r < rows; r++) {
-                    v.put(r, v.get(r) + get(r, c));
+            final FloatMatrix v = new FloatMatrix(rows);
+
+            // each task sums up a range of rows column by column
+            Parallel.RangeBody body = new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    for (int c = 0; c < columns; c++) {
+                        for (int r = from; r < to; r++) {
+                            v.put(r, v.get(r) + get(r, c));
+                        }
+                    }
                 }
+            };
+            if (Parallel.isParallel(length)) {
+                Parallel.forRange(rows, 1, body);
+            } else {
+                body.run(0, rows);
             }
 
             return v;
@@ -2723,14 +2836,29 @@ public class FloatMatrix implements Serializable {
      * @throws IOException
      */
     public void out(DataOutputStream dos) throws IOException {
-        dos.writeUTF("float");
-        dos.writeInt(columns);
-        dos.writeInt(rows);
+        out(Channels.newChannel(dos));
+    }
 
-        dos.writeInt(data.length);
-        for (int i = 0; i < data.length; i++) {
-            dos.writeFloat(data[i]);
-        }
+    /**
+     * Writes out this matrix to the given channel in big endian byte order
+     * and without checksum. This is the format read by all versions of in().
+     * @param channel the channel to write to.
+     * @throws IOException
+     */
+    public void out(WritableByteChannel channel) throws IOException {
+        out(channel, ByteOrder.BIG_ENDIAN, false);
+    }
+
+    /**
+     * Writes out this matrix to the given channel. See {@link MatrixCodec} for
+     * the format.
+     * @param channel the channel to write to.
+     * @param order the byte order of the data. ByteOrder.nativeOrder() is fastest.
+     * @param checksum whether to append a CRC32 checksum of the data.
+     * @throws IOException
+     */
+    public void out(WritableByteChannel channel, ByteOrder order, boolean checksum) throws IOException {
+        MatrixCodec.write(channel, columns, rows, data, order, checksum);
     }
 
     /**
@@ -2740,18 +2868,29 @@ public class FloatMatrix implements Serializable {
      * @throws IOException
      */
     public void in(DataInputStream dis) throws IOException {
-        if (!dis.readUTF().equals("float")) {
+        in(Channels.newChannel(dis));
+    }
+
+    /**
+     * Reads in a matrix from the given channel. Both byte orders and
+     * matrices with and without checksum are accepted. Note
+     * that the old data of this matrix will be discarded.
+     * @param channel the channel to read from.
+     * @throws IOException if the channel ends early or the checksum does not match.
+     */
+    public void in(ReadableByteChannel channel) throws IOException {
+        MatrixCodec.Header header = MatrixCodec.readHeader(channel);
+        if (!header.type.equals("float")) {
             throw new IllegalStateException("The matrix in the specified file is not of the correct type!");
         }
 
-        this.columns = dis.readInt();
-        this.rows = dis.readInt();
+        float[] newData = new float[header.length];
+        MatrixCodec.read(channel, header, newData);
 
-        final int MAX = dis.readInt();
-        data = new float[MAX];
-        for (int i = 0; i < MAX; i++) {
-            data[i] = dis.readFloat();
-        }
+        this.columns = header.columns;
+        this.rows = header.rows;
+        this.length = newData.length;
+        this.data = newData;
     }
 
     /**
@@ -2760,12 +2899,21 @@ public class FloatMatrix implements Serializable {
      * @throws IOException thrown on errors while writing the matrix to the file
      */
     public void save(String filename) throws IOException {
+        save(filename, ByteOrder.BIG_ENDIAN, false);
+    }
+
+    /**
+     * Saves this matrix to the specified file.
+     * @param filename the file to write the matrix in.
+     * @param order the byte order of the data. ByteOrder.nativeOrder() is fastest.
+     * @param checksum whether to append a CRC32 checksum of the data.
+     * @throws IOException thrown on errors while writing the matrix to the file
+     */
+    public void save(String filename, ByteOrder order, boolean checksum) throws IOException {
         FileOutputStream fos = new FileOutputStream(filename, false);
-        DataOutputStream dos = new DataOutputStream(fos);
         try {
-            this.out(dos);
+            this.out(fos.getChannel(), order, checksum);
         } finally {
-            dos.close();
             fos.close();
         }
     }
@@ -2778,109 +2926,29 @@ public class FloatMatrix implements Serializable {
      */
     public void load(String filename) throws IOException {
         FileInputStream fis = new FileInputStream(filename);
-        DataInputStream dis = new DataInputStream(fis);
         try {
-            this.in(dis);
+            this.in(fis.getChannel());
         }
         finally {
-            dis.close();
             fis.close();
         }
     }
 
+    /**
+     * Loads a matrix from a text file with one row per line and the elements
+     * separated by spaces or tabs. See {@link MatrixReader} for more options.
+     */
     public static FloatMatrix loadAsciiFile(String filename) throws IOException {
-        BufferedReader is = new BufferedReader(new InputStreamReader(new FileInputStream(filename)));
-
-        // Go through file and count columns and rows. What makes this endeavour a bit difficult is
-        // that files can have leading or trailing spaces leading to spurious fields
-        // after String.split().
-        String line;
-        int rows = 0;
-        int columns = -1;
-        while ((line = is.readLine()) != null) {
-            String[] elements = WHITESPACES.split(line);
-            int numElements = elements.length;
-            if (elements[0].length() == 0) {
-                numElements--;
-            }
-            if (elements[elements.length - 1].length() == 0) {
-                numElements--;
-            }
-
-            if (columns == -1) {
-                columns = numElements;
-            } else {
-                if (columns != numElements) {
-                    throw new IOException("Number of elements changes in line " + line + ".");
-                }
-            }
-
-            rows++;
-        }
-        is.close();
-
-        FileInputStream fis = new FileInputStream(filename);
-        try {
-            // Go through file a second time process the actual data.
-            is = new BufferedReader(new InputStreamReader(fis));
-            FloatMatrix result = new FloatMatrix(rows, columns);
-            int r = 0;
-            while ((line = is.readLine()) != null) {
-                String[] elements = WHITESPACES.split(line);
-                int firstElement = (elements[0].length() == 0) ? 1 : 0;
-                for (int c = 0, cc = firstElement; c < columns; c++, cc++) {
-                    result.put(r, c, Float.valueOf(elements[cc]));
-                }
-                r++;
-            }
-            return result;
-        } finally {
-            fis.close();
-        }
+        return new MatrixReader().readFloat(filename);
     }
 
+    /**
+     * Loads a matrix from a text file with one row per line and the elements
+     * separated by commas. A comma at the end of a line is ignored. See
+     * {@link MatrixReader} for more options.
+     */
     public static FloatMatrix loadCSVFile(String filename) throws IOException {
-        BufferedReader is = new BufferedReader(new InputStreamReader(new FileInputStream(filename)));
-
-        List<FloatMatrix> rows = new LinkedList<FloatMatrix>();
-        String line;
-        int columns = -1;
-        while ((line = is.readLine()) != null) {
-            String[] elements = COMMA.split(line);
-            int numElements = elements.length;
-            if (elements[0].length() == 0) {
-                numElements--;
-            }
-            if (elements[elements.length - 1].length() == 0) {
-                numElements--;
-            }
-
-            if (columns == -1) {
-                columns = numElements;
-            } else {
-                if (columns != numElements) {
-                    throw new IOException("Number of elements changes in line " + line + ".");
-                }
-            }
-
-            FloatMatrix row = new FloatMatrix(columns);
-            for (int c = 0; c < columns; c++) {
-                row.put(c, Float.valueOf(elements[c]));
-            }
-            rows.add(row);
-        }
-        is.close();
-
-        System.out.println("Done reading file");
-
-        FloatMatrix result = new FloatMatrix(rows.size(), columns);
-        int r = 0;
-        Iterator<FloatMatrix> ri = rows.iterator();
-        while (ri.hasNext()) {
-            result.putRow(r, ri.next());
-            r++;
-        }
-        return result;
+        return new MatrixReader(',').setIgnoreTrailingDelimiter(true).readFloat(filename);
     }
 
     /****************************************************************
@@ -2926,10 +2994,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) #{op} other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.#{name.upcase}, other, result);
     }
 
     #{doc 'Test for ' + cmp + ' (in-place).'}
@@ -2945,9 +3010,7 @@ public class FloatMatrix implements Serializable {
     #{doc 'Test for ' + cmp + ' against a scalar (in-place).'}
     public FloatMatrix #{name}i(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) #{op} value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.#{name.upcase}, value, result);
     }
 
     #{doc 'Test for ' + cmp + ' against a scalar (in-place).'}
@@ -3171,10 +3234,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) < other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.LT, other, result);
     }
 
     /** Test for "less than" (in-place). */
@@ -3190,9 +3250,7 @@ public class FloatMatrix implements Serializable {
     /** Test for "less than" against a scalar (in-place). */
     public FloatMatrix lti(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) < value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.LT, value, result);
     }
 
     /** Test for "less than" against a scalar (in-place). */
@@ -3212,10 +3270,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) > other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.GT, other, result);
     }
 
     /** Test for "greater than" (in-place). */
@@ -3231,9 +3286,7 @@ public class FloatMatrix implements Serializable {
     /** Test for "greater than" against a scalar (in-place). */
     public FloatMatrix gti(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) > value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.GT, value, result);
     }
 
     /** Test for "greater than" against a scalar (in-place). */
@@ -3253,10 +3306,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) <= other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.LE, other, result);
     }
 
     /** Test for "less than or equal" (in-place). */
@@ -3272,9 +3322,7 @@ public class FloatMatrix implements Serializable {
     /** Test for "less than or equal" against a scalar (in-place). */
     public FloatMatrix lei(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) <= value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.LE, value, result);
     }
 
     /** Test for "less than or equal" against a scalar (in-place). */
@@ -3294,10 +3342,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) >= other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.GE, other, result);
     }
 
     /** Test for "greater than or equal" (in-place). */
@@ -3313,9 +3358,7 @@ public class FloatMatrix implements Serializable {
     /** Test for "greater than or equal" against a scalar (in-place). */
     public FloatMatrix gei(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) >= value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.GE, value, result);
     }
 
     /** Test for "greater than or equal" against a scalar (in-place). */
@@ -3335,10 +3378,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) == other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.EQ, other, result);
     }
 
     /** Test for equality (in-place). */
@@ -3354,9 +3394,7 @@ public class FloatMatrix implements Serializable {
     /** Test for equality against a scalar (in-place). */
     public FloatMatrix eqi(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) == value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.EQ, value, result);
     }
 
     /** Test for equality against a scalar (in-place). */
@@ -3376,10 +3414,7 @@ public class FloatMatrix implements Serializable {
 
       assertSameLength(other);
       ensureResultLength(other, result);
-
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) != other.get(i) ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.NE, other, result);
     }
 
     /** Test for inequality (in-place). */
@@ -3395,9 +3430,7 @@ public class FloatMatrix implements Serializable {
     /** Test for inequality against a scalar (in-place). */
     public FloatMatrix nei(float value, FloatMatrix result) {
       ensureResultLength(null, result);
-      for (int i = 0; i < length; i++)
-        result.put(i, get(i) != value ? 1.0f : 0.0f);
-      return result;
+      return applyKernel(VectorKernels.NE, value, result);
     }
 
     /** Test for inequality against a scalar (in-place). */
@@ -58,7 +58,7 @@ public class Geometry {
 		DoubleMatrix XX = X.mul(X).columnSums();
 		DoubleMatrix YY = Y.mul(Y).columnSums();
 	
-		DoubleMatrix Z = X.transpose().mmul(Y);
+		DoubleMatrix Z = X.transposeMmul(Y);
 		Z.muli(-2.0); //Z.print();
 		Z.addiColumnVector(XX);
 		Z.addiRowVector(YY);
@@ -127,7 +127,7 @@ public class Geometry {
 		FloatMatrix XX = X.mul(X).columnSums();
 		FloatMatrix YY = Y.mul(Y).columnSums();
 	
-		FloatMatrix Z = X.transpose().mmul(Y);
+		FloatMatrix Z = X.transposeMmul(Y);
 		Z.muli(-2.0f); //Z.print();
 		Z.addiColumnVector(XX);
 		Z.addiRowVector(YY);
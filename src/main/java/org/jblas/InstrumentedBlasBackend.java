@@ -0,0 +1,1023 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BLAS backend which counts the calls and the time spent per routine of another backend.
+ *
+ * <p>Use this to find out which routines dominate the run time of a program
+ * and for which of them another backend might pay off. The statistics are
+ * updated atomically, so the backend can be shared between threads. For example:</p>
+ *
+ * <pre>
+ * InstrumentedBlasBackend b = new InstrumentedBlasBackend(BlasBackends.backend());
+ * BlasBackends.setBackend(b);
+ * ...
+ * b.printStatistics(System.out);
+ * </pre>
+ *
+ * <p>The backend can also be selected with "-Dorg.jblas.backend=instrumented:native".</p>
+ */
+public class InstrumentedBlasBackend implements BlasBackend {
+  private final BlasBackend backend;
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+
+  private static class Counter {
+    final AtomicLong calls = new AtomicLong();
+    final AtomicLong nanos = new AtomicLong();
+  }
+
+  public InstrumentedBlasBackend(BlasBackend backend) {
+    if (backend == null)
+      throw new IllegalArgumentException("Backend must not be null.");
+    this.backend = backend;
+  }
+
+  /** The backend whose calls are counted. */
+  public BlasBackend getBackend() {
+    return backend;
+  }
+
+  public String getName() {
+    return "instrumented:" + backend.getName();
+  }
+
+  private void record(String routine, long start) {
+    long elapsed = System.nanoTime() - start;
+    Counter c = counters.get(routine);
+    if (c == null) {
+      Counter newCounter = new Counter();
+      c = counters.putIfAbsent(routine, newCounter);
+      if (c == null)
+        c = newCounter;
+    }
+    c.calls.incrementAndGet();
+    c.nanos.addAndGet(elapsed);
+  }
+
+  /** Names of the routines called so far, in alphabetical order. */
+  public List<String> getRoutines() {
+    List<String> result = new ArrayList<String>(counters.keySet());
+    Collections.sort(result);
+    return result;
+  }
+
+  /** Number of calls to the routine (for example "dgemm"). */
+  public long getCalls(String routine) {
+    Counter c = counters.get(routine);
+    return c == null ? 0 : c.calls.get();
+  }
+
+  /** Total time in nanoseconds spent in the routine. */
+  public long getNanos(String routine) {
+    Counter c = counters.get(routine);
+    return c == null ? 0 : c.nanos.get();
+  }
+
+  /** Total number of calls to all routines. */
+  public long getTotalCalls() {
+    long total = 0;
+    for (Counter c : counters.values())
+      total += c.calls.get();
+    return total;
+  }
+
+  /** Reset all statistics. */
+  public void reset() {
+    counters.clear();
+  }
+
+  /** Print calls, total time, and time per call for each routine. */
+  public void printStatistics(PrintStream out) {
+    out.printf("%-10s %12s %14s %14s%n", "routine", "calls", "total ms", "us per call");
+    for (String routine : getRoutines()) {
+      long calls = getCalls(routine);
+      long nanos = getNanos(routine);
+      out.printf("%-10s %12d %14.3f %14.3f%n", routine, calls, nanos / 1e6, nanos / 1e3 / calls);
+    }
+  }
+
+  public void ccopy(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.ccopy(n, cx, cxIdx, incx, cy, cyIdx, incy);
+    } finally {
+      record("ccopy", start);
+    }
+  }
+
+  public void dcopy(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.dcopy(n, dx, dxIdx, incx, dy, dyIdx, incy);
+    } finally {
+      record("dcopy", start);
+    }
+  }
+
+  public void scopy(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.scopy(n, sx, sxIdx, incx, sy, syIdx, incy);
+    } finally {
+      record("scopy", start);
+    }
+  }
+
+  public void zcopy(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.zcopy(n, zx, zxIdx, incx, zy, zyIdx, incy);
+    } finally {
+      record("zcopy", start);
+    }
+  }
+
+  public void dswap(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.dswap(n, dx, dxIdx, incx, dy, dyIdx, incy);
+    } finally {
+      record("dswap", start);
+    }
+  }
+
+  public void sswap(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.sswap(n, sx, sxIdx, incx, sy, syIdx, incy);
+    } finally {
+      record("sswap", start);
+    }
+  }
+
+  public void caxpy(int n, ComplexFloat ca, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.caxpy(n, ca, cx, cxIdx, incx, cy, cyIdx, incy);
+    } finally {
+      record("caxpy", start);
+    }
+  }
+
+  public void daxpy(int n, double da, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.daxpy(n, da, dx, dxIdx, incx, dy, dyIdx, incy);
+    } finally {
+      record("daxpy", start);
+    }
+  }
+
+  public void saxpy(int n, float sa, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.saxpy(n, sa, sx, sxIdx, incx, sy, syIdx, incy);
+    } finally {
+      record("saxpy", start);
+    }
+  }
+
+  public void zaxpy(int n, ComplexDouble za, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.zaxpy(n, za, zx, zxIdx, incx, zy, zyIdx, incy);
+    } finally {
+      record("zaxpy", start);
+    }
+  }
+
+  public void cscal(int n, ComplexFloat ca, float[] cx, int cxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      backend.cscal(n, ca, cx, cxIdx, incx);
+    } finally {
+      record("cscal", start);
+    }
+  }
+
+  public void dscal(int n, double da, double[] dx, int dxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      backend.dscal(n, da, dx, dxIdx, incx);
+    } finally {
+      record("dscal", start);
+    }
+  }
+
+  public void sscal(int n, float sa, float[] sx, int sxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      backend.sscal(n, sa, sx, sxIdx, incx);
+    } finally {
+      record("sscal", start);
+    }
+  }
+
+  public void zscal(int n, ComplexDouble za, double[] zx, int zxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      backend.zscal(n, za, zx, zxIdx, incx);
+    } finally {
+      record("zscal", start);
+    }
+  }
+
+  public ComplexFloat cdotc(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      return backend.cdotc(n, cx, cxIdx, incx, cy, cyIdx, incy);
+    } finally {
+      record("cdotc", start);
+    }
+  }
+
+  public ComplexFloat cdotu(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      return backend.cdotu(n, cx, cxIdx, incx, cy, cyIdx, incy);
+    } finally {
+      record("cdotu", start);
+    }
+  }
+
+  public double ddot(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      return backend.ddot(n, dx, dxIdx, incx, dy, dyIdx, incy);
+    } finally {
+      record("ddot", start);
+    }
+  }
+
+  public float sdot(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      return backend.sdot(n, sx, sxIdx, incx, sy, syIdx, incy);
+    } finally {
+      record("sdot", start);
+    }
+  }
+
+  public ComplexDouble zdotc(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      return backend.zdotc(n, zx, zxIdx, incx, zy, zyIdx, incy);
+    } finally {
+      record("zdotc", start);
+    }
+  }
+
+  public ComplexDouble zdotu(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      return backend.zdotu(n, zx, zxIdx, incx, zy, zyIdx, incy);
+    } finally {
+      record("zdotu", start);
+    }
+  }
+
+  public double dnrm2(int n, double[] x, int xIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dnrm2(n, x, xIdx, incx);
+    } finally {
+      record("dnrm2", start);
+    }
+  }
+
+  public double dznrm2(int n, double[] x, int xIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dznrm2(n, x, xIdx, incx);
+    } finally {
+      record("dznrm2", start);
+    }
+  }
+
+  public float scnrm2(int n, float[] x, int xIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.scnrm2(n, x, xIdx, incx);
+    } finally {
+      record("scnrm2", start);
+    }
+  }
+
+  public float snrm2(int n, float[] x, int xIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.snrm2(n, x, xIdx, incx);
+    } finally {
+      record("snrm2", start);
+    }
+  }
+
+  public double dasum(int n, double[] dx, int dxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dasum(n, dx, dxIdx, incx);
+    } finally {
+      record("dasum", start);
+    }
+  }
+
+  public double dzasum(int n, double[] zx, int zxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dzasum(n, zx, zxIdx, incx);
+    } finally {
+      record("dzasum", start);
+    }
+  }
+
+  public float sasum(int n, float[] sx, int sxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sasum(n, sx, sxIdx, incx);
+    } finally {
+      record("sasum", start);
+    }
+  }
+
+  public float scasum(int n, float[] cx, int cxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.scasum(n, cx, cxIdx, incx);
+    } finally {
+      record("scasum", start);
+    }
+  }
+
+  public int icamax(int n, float[] cx, int cxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.icamax(n, cx, cxIdx, incx);
+    } finally {
+      record("icamax", start);
+    }
+  }
+
+  public int idamax(int n, double[] dx, int dxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.idamax(n, dx, dxIdx, incx);
+    } finally {
+      record("idamax", start);
+    }
+  }
+
+  public int isamax(int n, float[] sx, int sxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.isamax(n, sx, sxIdx, incx);
+    } finally {
+      record("isamax", start);
+    }
+  }
+
+  public int izamax(int n, double[] zx, int zxIdx, int incx) {
+    long start = System.nanoTime();
+    try {
+      return backend.izamax(n, zx, zxIdx, incx);
+    } finally {
+      record("izamax", start);
+    }
+  }
+
+  public void dgemv(char trans, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] x, int xIdx, int incx, double beta, double[] y, int yIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.dgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+    } finally {
+      record("dgemv", start);
+    }
+  }
+
+  public void sgemv(char trans, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] x, int xIdx, int incx, float beta, float[] y, int yIdx, int incy) {
+    long start = System.nanoTime();
+    try {
+      backend.sgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+    } finally {
+      record("sgemv", start);
+    }
+  }
+
+  public void cgerc(int m, int n, ComplexFloat alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      backend.cgerc(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    } finally {
+      record("cgerc", start);
+    }
+  }
+
+  public void cgeru(int m, int n, ComplexFloat alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      backend.cgeru(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    } finally {
+      record("cgeru", start);
+    }
+  }
+
+  public void dger(int m, int n, double alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      backend.dger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    } finally {
+      record("dger", start);
+    }
+  }
+
+  public void sger(int m, int n, float alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      backend.sger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    } finally {
+      record("sger", start);
+    }
+  }
+
+  public void zgerc(int m, int n, ComplexDouble alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      backend.zgerc(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    } finally {
+      record("zgerc", start);
+    }
+  }
+
+  public void zgeru(int m, int n, ComplexDouble alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      backend.zgeru(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+    } finally {
+      record("zgeru", start);
+    }
+  }
+
+  public void cgemm(char transa, char transb, int m, int n, int k, ComplexFloat alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, ComplexFloat beta, float[] c, int cIdx, int ldc) {
+    long start = System.nanoTime();
+    try {
+      backend.cgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+    } finally {
+      record("cgemm", start);
+    }
+  }
+
+  public void dgemm(char transa, char transb, int m, int n, int k, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc) {
+    long start = System.nanoTime();
+    try {
+      backend.dgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+    } finally {
+      record("dgemm", start);
+    }
+  }
+
+  public void sgemm(char transa, char transb, int m, int n, int k, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc) {
+    long start = System.nanoTime();
+    try {
+      backend.sgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+    } finally {
+      record("sgemm", start);
+    }
+  }
+
+  public void zgemm(char transa, char transb, int m, int n, int k, ComplexDouble alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, ComplexDouble beta, double[] c, int cIdx, int ldc) {
+    long start = System.nanoTime();
+    try {
+      backend.zgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+    } finally {
+      record("zgemm", start);
+    }
+  }
+
+  public void dtrsm(char side, char uplo, char transa, char diag, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      backend.dtrsm(side, uplo, transa, diag, m, n, alpha, a, aIdx, lda, b, bIdx, ldb);
+    } finally {
+      record("dtrsm", start);
+    }
+  }
+
+  public void strsm(char side, char uplo, char transa, char diag, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      backend.strsm(side, uplo, transa, diag, m, n, alpha, a, aIdx, lda, b, bIdx, ldb);
+    } finally {
+      record("strsm", start);
+    }
+  }
+
+  public int dgesv(int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgesv(n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+    } finally {
+      record("dgesv", start);
+    }
+  }
+
+  public int sgesv(int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgesv(n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+    } finally {
+      record("sgesv", start);
+    }
+  }
+
+  public int dsysv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+    } finally {
+      record("dsysv", start);
+    }
+  }
+
+  public int ssysv(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+    } finally {
+      record("ssysv", start);
+    }
+  }
+
+  public int dsyev(char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] w, int wIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsyev(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+    } finally {
+      record("dsyev", start);
+    }
+  }
+
+  public int ssyev(char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] w, int wIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssyev(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+    } finally {
+      record("ssyev", start);
+    }
+  }
+
+  public int dsyevd(char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] w, int wIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+    } finally {
+      record("dsyevd", start);
+    }
+  }
+
+  public int dsyevr(char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] isuppz, int isuppzIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx);
+    } finally {
+      record("dsyevr", start);
+    }
+  }
+
+  public int dsyevx(char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      record("dsyevx", start);
+    }
+  }
+
+  public int ssyevd(char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] w, int wIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+    } finally {
+      record("ssyevd", start);
+    }
+  }
+
+  public int ssyevr(char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] isuppz, int isuppzIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx);
+    } finally {
+      record("ssyevr", start);
+    }
+  }
+
+  public int ssyevx(char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      record("ssyevx", start);
+    }
+  }
+
+  public int dposv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.dposv(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+    } finally {
+      record("dposv", start);
+    }
+  }
+
+  public int sposv(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.sposv(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+    } finally {
+      record("sposv", start);
+    }
+  }
+
+  public int dgeev(char jobvl, char jobvr, int n, double[] a, int aIdx, int lda, double[] wr, int wrIdx, double[] wi, int wiIdx, double[] vl, int vlIdx, int ldvl, double[] vr, int vrIdx, int ldvr) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr);
+    } finally {
+      record("dgeev", start);
+    }
+  }
+
+  public int sgeev(char jobvl, char jobvr, int n, float[] a, int aIdx, int lda, float[] wr, int wrIdx, float[] wi, int wiIdx, float[] vl, int vlIdx, int ldvl, float[] vr, int vrIdx, int ldvr) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr);
+    } finally {
+      record("sgeev", start);
+    }
+  }
+
+  public int dgetrf(int m, int n, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgetrf(m, n, a, aIdx, lda, ipiv, ipivIdx);
+    } finally {
+      record("dgetrf", start);
+    }
+  }
+
+  public int sgetrf(int m, int n, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgetrf(m, n, a, aIdx, lda, ipiv, ipivIdx);
+    } finally {
+      record("sgetrf", start);
+    }
+  }
+
+  public int dpotrf(char uplo, int n, double[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      return backend.dpotrf(uplo, n, a, aIdx, lda);
+    } finally {
+      record("dpotrf", start);
+    }
+  }
+
+  public int spotrf(char uplo, int n, float[] a, int aIdx, int lda) {
+    long start = System.nanoTime();
+    try {
+      return backend.spotrf(uplo, n, a, aIdx, lda);
+    } finally {
+      record("spotrf", start);
+    }
+  }
+
+  public int dgetrs(char trans, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgetrs(trans, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+    } finally {
+      record("dgetrs", start);
+    }
+  }
+
+  public int sgetrs(char trans, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgetrs(trans, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+    } finally {
+      record("sgetrs", start);
+    }
+  }
+
+  public int dpotrs(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.dpotrs(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+    } finally {
+      record("dpotrs", start);
+    }
+  }
+
+  public int spotrs(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb) {
+    long start = System.nanoTime();
+    try {
+      return backend.spotrs(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+    } finally {
+      record("spotrs", start);
+    }
+  }
+
+  public int dgecon(char norm, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgecon(norm, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+    } finally {
+      record("dgecon", start);
+    }
+  }
+
+  public int sgecon(char norm, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgecon(norm, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+    } finally {
+      record("sgecon", start);
+    }
+  }
+
+  public int dpocon(char uplo, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dpocon(uplo, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+    } finally {
+      record("dpocon", start);
+    }
+  }
+
+  public int spocon(char uplo, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.spocon(uplo, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+    } finally {
+      record("spocon", start);
+    }
+  }
+
+  public int dtrcon(char norm, char uplo, char diag, int n, double[] a, int aIdx, int lda, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dtrcon(norm, uplo, diag, n, a, aIdx, lda, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+    } finally {
+      record("dtrcon", start);
+    }
+  }
+
+  public int strcon(char norm, char uplo, char diag, int n, float[] a, int aIdx, int lda, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.strcon(norm, uplo, diag, n, a, aIdx, lda, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+    } finally {
+      record("strcon", start);
+    }
+  }
+
+  public int cgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.cgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx);
+    } finally {
+      record("cgesvd", start);
+    }
+  }
+
+  public int dgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt);
+    } finally {
+      record("dgesvd", start);
+    }
+  }
+
+  public int sgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt);
+    } finally {
+      record("sgesvd", start);
+    }
+  }
+
+  public int zgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.zgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx);
+    } finally {
+      record("zgesvd", start);
+    }
+  }
+
+  public int cgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.cgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx, iwork, iworkIdx);
+    } finally {
+      record("cgesdd", start);
+    }
+  }
+
+  public int dgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+    } finally {
+      record("dgesdd", start);
+    }
+  }
+
+  public int sgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+    } finally {
+      record("sgesdd", start);
+    }
+  }
+
+  public int zgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.zgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx, iwork, iworkIdx);
+    } finally {
+      record("zgesdd", start);
+    }
+  }
+
+  public int dgesvdx(char jobu, char jobvt, char range, int m, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, int[] ns, int nsIdx, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgesvdx(jobu, jobvt, range, m, n, a, aIdx, lda, vl, vu, il, iu, ns, nsIdx, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+    } finally {
+      record("dgesvdx", start);
+    }
+  }
+
+  public int sgesvdx(char jobu, char jobvt, char range, int m, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, int[] ns, int nsIdx, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgesvdx(jobu, jobvt, range, m, n, a, aIdx, lda, vl, vu, il, iu, ns, nsIdx, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+    } finally {
+      record("sgesvdx", start);
+    }
+  }
+
+  public int dsygvd(int itype, char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double[] w, int wIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx);
+    } finally {
+      record("dsygvd", start);
+    }
+  }
+
+  public int ssygvd(int itype, char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float[] w, int wIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx);
+    } finally {
+      record("ssygvd", start);
+    }
+  }
+
+  public int dgelsd(int m, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double[] s, int sIdx, double rcond, int[] rank, int rankIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, iwork, iworkIdx);
+    } finally {
+      record("dgelsd", start);
+    }
+  }
+
+  public int sgelsd(int m, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float[] s, int sIdx, float rcond, int[] rank, int rankIdx, int[] iwork, int iworkIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, iwork, iworkIdx);
+    } finally {
+      record("sgelsd", start);
+    }
+  }
+
+  public int dgeqrf(int m, int n, double[] a, int aIdx, int lda, double[] tau, int tauIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dgeqrf(m, n, a, aIdx, lda, tau, tauIdx);
+    } finally {
+      record("dgeqrf", start);
+    }
+  }
+
+  public int sgeqrf(int m, int n, float[] a, int aIdx, int lda, float[] tau, int tauIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sgeqrf(m, n, a, aIdx, lda, tau, tauIdx);
+    } finally {
+      record("sgeqrf", start);
+    }
+  }
+
+  public int dormqr(char side, char trans, int m, int n, int k, double[] a, int aIdx, int lda, double[] tau, int tauIdx, double[] c, int cIdx, int ldc) {
+    long start = System.nanoTime();
+    try {
+      return backend.dormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc);
+    } finally {
+      record("dormqr", start);
+    }
+  }
+
+  public int sormqr(char side, char trans, int m, int n, int k, float[] a, int aIdx, int lda, float[] tau, int tauIdx, float[] c, int cIdx, int ldc) {
+    long start = System.nanoTime();
+    try {
+      return backend.sormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc);
+    } finally {
+      record("sormqr", start);
+    }
+  }
+
+  public int dorgqr(int m, int n, int k, double[] a, int aIdx, int lda, double[] tau, int tauIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dorgqr(m, n, k, a, aIdx, lda, tau, tauIdx);
+    } finally {
+      record("dorgqr", start);
+    }
+  }
+
+  public int sorgqr(int m, int n, int k, float[] a, int aIdx, int lda, float[] tau, int tauIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.sorgqr(m, n, k, a, aIdx, lda, tau, tauIdx);
+    } finally {
+      record("sorgqr", start);
+    }
+  }
+
+  public int dsygvx(int itype, char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.dsygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      record("dsygvx", start);
+    }
+  }
+
+  public int ssygvx(int itype, char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    long start = System.nanoTime();
+    try {
+      return backend.ssygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      record("ssygvx", start);
+    }
+  }
+}
@@ -0,0 +1,623 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.exceptions.NoEigenResultException;
+import org.jblas.exceptions.SizeException;
+
+import static org.jblas.BlasBackends.backend;
+import static org.jblas.util.Functions.max;
+import static org.jblas.util.Functions.min;
+
+/**
+ * <p>Iterative eigensolvers for large symmetric operators.</p>
+ *
+ * <p>The methods in this class compute a few eigenvalues at one end of the spectrum
+ * of a symmetric operator together with their eigenvectors. They access the operator
+ * only through {@link DoubleLinearOperator#apply}, so it never has to be stored as a
+ * dense matrix, and the cost per iteration is a few products with the operator plus
+ * work linear in its size. See {@link Eigen} for the dense solvers.</p>
+ *
+ * <p>{@link #lanczos} uses the thick-restart Lanczos method, which is equivalent to
+ * implicitly restarted Lanczos for symmetric operators. It needs one product with a
+ * vector per step. {@link #lobpcg} uses the locally optimal block preconditioned
+ * conjugate gradient method. It works on a block of vectors, can use a preconditioner,
+ * and is the better choice for multiple or tightly clustered eigenvalues.</p>
+ *
+ * <p>The eigenvalues are returned starting from the requested end of the spectrum,
+ * that is, in ascending order for the smallest and in descending order for the
+ * largest eigenvalues. The starting vectors are random; use
+ * {@link org.jblas.util.Random#seed(long)} for reproducible results.</p>
+ */
+public class IterativeEigen {
+//STOP
+    /** Default maximal number of restarts for Lanczos or iterations for LOBPCG. */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+    /** Index of the i-th wanted eigenvalue among m eigenvalues in ascending order. */
+    private static int wanted(int i, int m, boolean largest) {
+        return largest ? m - 1 - i : i;
+    }
+//START
+
+    /**
+     * Compute the k smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with the thick-restart Lanczos method.
+     *
+     * @return A DoubleMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @see #lanczos(DoubleLinearOperator, int, boolean, int, double, int)
+     */
+    public static DoubleMatrix[] lanczos(DoubleLinearOperator A, int k, boolean largest) {
+        return lanczos(A, k, largest, min(A.getRows(), max(2 * k + 1, 20)),
+                (double) Math.sqrt(Math.ulp(1.0)), DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Compute the k smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with the thick-restart Lanczos method.
+     *
+     * <p>The method builds a basis of ncv Lanczos vectors with full reorthogonalization.
+     * When the wanted Ritz pairs have not converged, it restarts with the Ritz vectors
+     * of the wanted end of the spectrum and continues the Lanczos process from there.
+     * In exact arithmetic, Lanczos finds only one eigenvector of a multiple eigenvalue;
+     * use {@link #lobpcg} if all of them are needed.</p>
+     *
+     * @param A symmetric operator of size n * n
+     * @param k number of eigenvalues, between 1 and n
+     * @param largest whether to compute the largest or the smallest eigenvalues
+     * @param ncv number of Lanczos vectors, between k + 1 and n
+     * @param tol relative tolerance. A Ritz pair (x, l) has converged when |A x - l x| is
+     *            at most tol times the largest Ritz value in absolute value.
+     * @param maxRestarts maximal number of restarts
+     * @return A DoubleMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @throws NoEigenResultException if the eigenvalues did not converge in maxRestarts restarts.
+     */
+    public static DoubleMatrix[] lanczos(DoubleLinearOperator A, int k, boolean largest, int ncv, double tol, int maxRestarts) {
+        int n = checkOperator(A, k);
+        if (ncv > n || ncv <= k && ncv < n) {
+            throw new IllegalArgumentException("The number of Lanczos vectors must be between k + 1 and the size of the operator.");
+        }
+        if (ncv == n) {
+            return dense(A, k, largest);
+        }
+
+        int m = ncv;
+        DoubleMatrix V = new DoubleMatrix(n, m + 1);
+        DoubleMatrix T = new DoubleMatrix(m, m);
+        DoubleMatrix v = DoubleMatrix.randn(n);
+        DoubleMatrix w = new DoubleMatrix(n);
+        DoubleMatrix h = new DoubleMatrix(m);
+        DoubleMatrix correction = new DoubleMatrix(m);
+        System.arraycopy(v.divi(v.norm2()).data, 0, V.data, 0, n);
+
+        double norm = 0.0;
+        int start = 0;
+        for (int restart = 0; restart <= maxRestarts; restart++) {
+            // Extend the basis to m + 1 vectors. T is the projection of A onto the first m.
+            double beta = 0.0;
+            for (int j = start; j < m; j++) {
+                System.arraycopy(V.data, j * n, v.data, 0, n);
+                A.apply(v, w);
+                orthogonalize(V, j + 1, w, h);
+                orthogonalize(V, j + 1, w, correction);
+                double columnNorm = 0.0;
+                for (int i = 0; i <= j; i++) {
+                    double t = h.get(i) + correction.get(i);
+                    T.put(i, j, t);
+                    T.put(j, i, t);
+                    columnNorm += t * t;
+                }
+                beta = w.norm2();
+                norm = Math.max(norm, (double) Math.sqrt(columnNorm + beta * beta));
+
+                if (beta <= Math.ulp(1.0) * norm) {
+                    // invariant subspace, continue with a new random direction
+                    beta = 0.0;
+                    w = DoubleMatrix.randn(n);
+                    orthogonalize(V, j + 1, w, correction);
+                    orthogonalize(V, j + 1, w, correction);
+                    w.divi(w.norm2());
+                } else {
+                    w.divi(beta);
+                }
+                if (j + 1 < m) {
+                    T.put(j + 1, j, beta);
+                    T.put(j, j + 1, beta);
+                }
+                System.arraycopy(w.data, 0, V.data, (j + 1) * n, n);
+            }
+
+            DoubleMatrix[] YL = Eigen.symmetricEigenvectors(T);
+            DoubleMatrix Y = YL[0];
+            DoubleMatrix theta = YL[1].diag();
+            norm = Math.max(norm, Math.max(Math.abs(theta.get(0)), Math.abs(theta.get(m - 1))));
+
+            // The residual of a Ritz pair is beta times the last component of its vector in Y.
+            boolean converged = true;
+            for (int i = 0; i < k; i++) {
+                if (Math.abs(beta * Y.get(m - 1, wanted(i, m, largest))) > tol * norm) {
+                    converged = false;
+                }
+            }
+
+            int keep = converged ? k : min(k + (m - k) / 2, m - 1);
+            DoubleMatrix Ykeep = new DoubleMatrix(m, keep);
+            DoubleMatrix values = new DoubleMatrix(keep);
+            for (int i = 0; i < keep; i++) {
+                int c = wanted(i, m, largest);
+                System.arraycopy(Y.data, c * m, Ykeep.data, i * m, m);
+                values.put(i, theta.get(c));
+            }
+            DoubleMatrix X = new DoubleMatrix(n, keep);
+            backend().dgemm('N', 'N', n, keep, m, 1.0, V.data, 0, n, Ykeep.data, 0, m, 0.0, X.data, 0, n);
+
+            if (converged) {
+                return new DoubleMatrix[]{X, values};
+            }
+
+            // Thick restart: keep the Ritz vectors, followed by the last Lanczos vector.
+            // The coupling between them is computed in the next step.
+            System.arraycopy(X.data, 0, V.data, 0, n * keep);
+            System.arraycopy(V.data, m * n, V.data, keep * n, n);
+            T.fill(0.0);
+            for (int i = 0; i < keep; i++) {
+                T.put(i, i, values.get(i));
+            }
+            start = keep;
+        }
+        throw new NoEigenResultException(String.format("Lanczos did not converge in %d restarts.", maxRestarts));
+    }
+
+    /**
+     * Compute the k smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with LOBPCG, starting from random vectors and without
+     * a preconditioner.
+     *
+     * @return A DoubleMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @see #lobpcg(DoubleLinearOperator, DoubleMatrix, DoubleLinearOperator, boolean, double, int)
+     */
+    public static DoubleMatrix[] lobpcg(DoubleLinearOperator A, int k, boolean largest) {
+        checkOperator(A, k);
+        return lobpcg(A, DoubleMatrix.randn(A.getRows(), k), null, largest,
+                (double) Math.sqrt(Math.ulp(1.0)), DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Compute the smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with the locally optimal block preconditioned
+     * conjugate gradient method (LOBPCG).
+     *
+     * <p>Each iteration applies A to a block of 3k vectors. The Rayleigh-Ritz step on
+     * the span of the current vectors, the preconditioned residuals and the previous
+     * search directions uses an orthonormal basis computed by QR, which keeps the
+     * iteration stable when these vectors become linearly dependent.</p>
+     *
+     * @param A symmetric operator of size n * n
+     * @param X initial vectors, one column for each wanted eigenvalue. X is not modified.
+     * @param preconditioner symmetric positive definite approximation of the inverse of
+     *                       A (or of A minus a shift), applied to the residuals. May be null.
+     * @param largest whether to compute the largest or the smallest eigenvalues
+     * @param tol relative tolerance. A Ritz pair (x, l) has converged when |A x - l x| is
+     *            at most tol times the largest Ritz value in absolute value.
+     * @param maxIterations maximal number of iterations
+     * @return A DoubleMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @throws NoEigenResultException if the eigenvalues did not converge in maxIterations iterations.
+     */
+    public static DoubleMatrix[] lobpcg(DoubleLinearOperator A, DoubleMatrix X, DoubleLinearOperator preconditioner,
+                                        boolean largest, double tol, int maxIterations) {
+        int k = X.columns;
+        int n = checkOperator(A, k);
+        if (X.rows != n) {
+            throw new SizeException("Initial vectors must have as many rows as the operator.");
+        }
+        if (3 * k >= n) {
+            return dense(A, k, largest);
+        }
+
+        // Work with -A for the largest eigenvalues, so that we always look for the smallest ones.
+        double sign = largest ? -1.0 : 1.0;
+        DoubleMatrix Q = orthonormalize(X.dup());
+        DoubleMatrix AQ = apply(A, Q, sign);
+        DoubleMatrix[] YL = Eigen.symmetricEigenvectors(symmetricProjection(Q, AQ));
+        X = Q.mmul(YL[0]);
+        DoubleMatrix AX = AQ.mmul(YL[0]);
+        DoubleMatrix lambda = YL[1].diag();
+        DoubleMatrix P = null;
+
+        double norm = 0.0;
+        for (int iteration = 0; iteration <= maxIterations; iteration++) {
+            DoubleMatrix R = AX.sub(X.mulRowVector(lambda));
+            norm = Math.max(norm, Math.max(Math.abs(lambda.get(0)), Math.abs(lambda.get(k - 1))));
+            DoubleMatrix residuals = R.mul(R).columnSums();
+            boolean converged = true;
+            for (int i = 0; i < k; i++) {
+                if (Math.sqrt(residuals.get(i)) > tol * norm) {
+                    converged = false;
+                }
+            }
+            if (converged) {
+                return new DoubleMatrix[]{X, lambda.muli(sign)};
+            }
+
+            DoubleMatrix W = preconditioner == null ? R : preconditioner.apply(R, new DoubleMatrix(n, k));
+            int columns = P == null ? 2 * k : 3 * k;
+            DoubleMatrix S = new DoubleMatrix(n, columns);
+            System.arraycopy(X.data, 0, S.data, 0, n * k);
+            System.arraycopy(W.data, 0, S.data, n * k, n * k);
+            if (P != null) {
+                System.arraycopy(P.data, 0, S.data, 2 * n * k, n * k);
+            }
+
+            // The first k columns of Q span X, so the rest of Q gives the new search directions.
+            Q = orthonormalize(S);
+            AQ = apply(A, Q, sign);
+            YL = Eigen.symmetricEigenvectors(symmetricProjection(Q, AQ));
+            DoubleMatrix Y = YL[0].getRange(0, columns, 0, k);
+            lambda = YL[1].diag().getRange(0, k);
+            X = Q.mmul(Y);
+            AX = AQ.mmul(Y);
+            P = Q.getRange(0, n, k, columns).mmul(Y.getRange(k, columns, 0, k));
+        }
+        throw new NoEigenResultException(String.format("LOBPCG did not converge in %d iterations.", maxIterations));
+    }
+
+    private static int checkOperator(DoubleLinearOperator A, int k) {
+        if (A.getRows() != A.getColumns()) {
+            throw new SizeException("Operator must be square!");
+        }
+        if (k < 1 || k > A.getRows()) {
+            throw new IllegalArgumentException("The number of eigenvalues must be between 1 and the size of the operator.");
+        }
+        return A.getRows();
+    }
+
+    /** Compute all eigenvalues of a dense copy of A, for problems too small for the iterative methods. */
+    private static DoubleMatrix[] dense(DoubleLinearOperator A, int k, boolean largest) {
+        int n = A.getRows();
+        DoubleMatrix[] VL = Eigen.symmetricEigenvectors(A.apply(DoubleMatrix.eye(n), new DoubleMatrix(n, n)));
+        DoubleMatrix X = new DoubleMatrix(n, k);
+        DoubleMatrix values = new DoubleMatrix(k);
+        for (int i = 0; i < k; i++) {
+            int c = wanted(i, n, largest);
+            System.arraycopy(VL[0].data, c * n, X.data, i * n, n);
+            values.put(i, VL[1].get(c, c));
+        }
+        return new DoubleMatrix[]{X, values};
+    }
+
+    private static DoubleMatrix apply(DoubleLinearOperator A, DoubleMatrix X, double sign) {
+        DoubleMatrix AX = A.apply(X, new DoubleMatrix(A.getRows(), X.columns));
+        return sign == 1.0 ? AX : AX.muli(sign);
+    }
+
+    /** Compute h = V' w and w = w - V h for the first j columns of V. */
+    private static void orthogonalize(DoubleMatrix V, int j, DoubleMatrix w, DoubleMatrix h) {
+        int n = V.rows;
+        backend().dgemv('T', n, j, 1.0, V.data, 0, n, w.data, 0, 1, 0.0, h.data, 0, 1);
+        backend().dgemv('N', n, j, -1.0, V.data, 0, n, h.data, 0, 1, 1.0, w.data, 0, 1);
+    }
+
+    /** Orthonormal basis of the columns of Z (thin QR). */
+    private static DoubleMatrix orthonormalize(DoubleMatrix Z) {
+        DoubleMatrix tau = new DoubleMatrix(Z.columns);
+        SimpleBlas.geqrf(Z, tau);
+        SimpleBlas.orgqr(Z.columns, Z.columns, Z, tau);
+        return Z;
+    }
+
+    /** Q' * AQ, made exactly symmetric. */
+    private static DoubleMatrix symmetricProjection(DoubleMatrix Q, DoubleMatrix AQ) {
+        DoubleMatrix H = Q.transposeMmul(AQ);
+        return H.addi(H.transpose()).divi(2.0);
+    }
+//BEGIN
+  // The code below has been automatically generated.
+  // DO NOT EDIT!
+
+    /**
+     * Compute the k smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with the thick-restart Lanczos method.
+     *
+     * @return A FloatMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @see #lanczos(FloatLinearOperator, int, boolean, int, float, int)
+     */
+    public static FloatMatrix[] lanczos(FloatLinearOperator A, int k, boolean largest) {
+        return lanczos(A, k, largest, min(A.getRows(), max(2 * k + 1, 20)),
+                (float) Math.sqrt(Math.ulp(1.0f)), DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Compute the k smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with the thick-restart Lanczos method.
+     *
+     * <p>The method builds a basis of ncv Lanczos vectors with full reorthogonalization.
+     * When the wanted Ritz pairs have not converged, it restarts with the Ritz vectors
+     * of the wanted end of the spectrum and continues the Lanczos process from there.
+     * In exact arithmetic, Lanczos finds only one eigenvector of a multiple eigenvalue;
+     * use {@link #lobpcg} if all of them are needed.</p>
+     *
+     * @param A symmetric operator of size n * n
+     * @param k number of eigenvalues, between 1 and n
+     * @param largest whether to compute the largest or the smallest eigenvalues
+     * @param ncv number of Lanczos vectors, between k + 1 and n
+     * @param tol relative tolerance. A Ritz pair (x, l) has converged when |A x - l x| is
+     *            at most tol times the largest Ritz value in absolute value.
+     * @param maxRestarts maximal number of restarts
+     * @return A FloatMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @throws NoEigenResultException if the eigenvalues did not converge in maxRestarts restarts.
+     */
+    public static FloatMatrix[] lanczos(FloatLinearOperator A, int k, boolean largest, int ncv, float tol, int maxRestarts) {
+        int n = checkOperator(A, k);
+        if (ncv > n || ncv <= k && ncv < n) {
+            throw new IllegalArgumentException("The number of Lanczos vectors must be between k + 1 and the size of the operator.");
+        }
+        if (ncv == n) {
+            return dense(A, k, largest);
+        }
+
+        int m = ncv;
+        FloatMatrix V = new FloatMatrix(n, m + 1);
+        FloatMatrix T = new FloatMatrix(m, m);
+        FloatMatrix v = FloatMatrix.randn(n);
+        FloatMatrix w = new FloatMatrix(n);
+        FloatMatrix h = new FloatMatrix(m);
+        FloatMatrix correction = new FloatMatrix(m);
+        System.arraycopy(v.divi(v.norm2()).data, 0, V.data, 0, n);
+
+        float norm = 0.0f;
+        int start = 0;
+        for (int restart = 0; restart <= maxRestarts; restart++) {
+            // Extend the basis to m + 1 vectors. T is the projection of A onto the first m.
+            float beta = 0.0f;
+            for (int j = start; j < m; j++) {
+                System.arraycopy(V.data, j * n, v.data, 0, n);
+                A.apply(v, w);
+                orthogonalize(V, j + 1, w, h);
+                orthogonalize(V, j + 1, w, correction);
+                float columnNorm = 0.0f;
+                for (int i = 0; i <= j; i++) {
+                    float t = h.get(i) + correction.get(i);
+                    T.put(i, j, t);
+                    T.put(j, i, t);
+                    columnNorm += t * t;
+                }
+                beta = w.norm2();
+                norm = Math.max(norm, (float) Math.sqrt(columnNorm + beta * beta));
+
+                if (beta <= Math.ulp(1.0f) * norm) {
+                    // invariant subspace, continue with a new random direction
+                    beta = 0.0f;
+                    w = FloatMatrix.randn(n);
+                    orthogonalize(V, j + 1, w, correction);
+                    orthogonalize(V, j + 1, w, correction);
+                    w.divi(w.norm2());
+                } else {
+                    w.divi(beta);
+                }
+                if (j + 1 < m) {
+                    T.put(j + 1, j, beta);
+                    T.put(j, j + 1, beta);
+                }
+                System.arraycopy(w.data, 0, V.data, (j + 1) * n, n);
+            }
+
+            FloatMatrix[] YL = Eigen.symmetricEigenvectors(T);
+            FloatMatrix Y = YL[0];
+            FloatMatrix theta = YL[1].diag();
+            norm = Math.max(norm, Math.max(Math.abs(theta.get(0)), Math.abs(theta.get(m - 1))));
+
+            // The residual of a Ritz pair is beta times the last component of its vector in Y.
+            boolean converged = true;
+            for (int i = 0; i < k; i++) {
+                if (Math.abs(beta * Y.get(m - 1, wanted(i, m, largest))) > tol * norm) {
+                    converged = false;
+                }
+            }
+
+            int keep = converged ? k : min(k + (m - k) / 2, m - 1);
+            FloatMatrix Ykeep = new FloatMatrix(m, keep);
+            FloatMatrix values = new FloatMatrix(keep);
+            for (int i = 0; i < keep; i++) {
+                int c = wanted(i, m, largest);
+                System.arraycopy(Y.data, c * m, Ykeep.data, i * m, m);
+                values.put(i, theta.get(c));
+            }
+            FloatMatrix X = new FloatMatrix(n, keep);
+            backend().sgemm('N', 'N', n, keep, m, 1.0f, V.data, 0, n, Ykeep.data, 0, m, 0.0f, X.data, 0, n);
+
+            if (converged) {
+                return new FloatMatrix[]{X, values};
+            }
+
+            // Thick restart: keep the Ritz vectors, followed by the last Lanczos vector.
+            // The coupling between them is computed in the next step.
+            System.arraycopy(X.data, 0, V.data, 0, n * keep);
+            System.arraycopy(V.data, m * n, V.data, keep * n, n);
+            T.fill(0.0f);
+            for (int i = 0; i < keep; i++) {
+                T.put(i, i, values.get(i));
+            }
+            start = keep;
+        }
+        throw new NoEigenResultException(String.format("Lanczos did not converge in %d restarts.", maxRestarts));
+    }
+
+    /**
+     * Compute the k smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with LOBPCG, starting from random vectors and without
+     * a preconditioner.
+     *
+     * @return A FloatMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @see #lobpcg(FloatLinearOperator, FloatMatrix, FloatLinearOperator, boolean, float, int)
+     */
+    public static FloatMatrix[] lobpcg(FloatLinearOperator A, int k, boolean largest) {
+        checkOperator(A, k);
+        return lobpcg(A, FloatMatrix.randn(A.getRows(), k), null, largest,
+                (float) Math.sqrt(Math.ulp(1.0f)), DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Compute the smallest or largest eigenvalues and the corresponding eigenvectors
+     * of the symmetric operator A with the locally optimal block preconditioned
+     * conjugate gradient method (LOBPCG).
+     *
+     * <p>Each iteration applies A to a block of 3k vectors. The Rayleigh-Ritz step on
+     * the span of the current vectors, the preconditioned residuals and the previous
+     * search directions uses an orthonormal basis computed by QR, which keeps the
+     * iteration stable when these vectors become linearly dependent.</p>
+     *
+     * @param A symmetric operator of size n * n
+     * @param X initial vectors, one column for each wanted eigenvalue. X is not modified.
+     * @param preconditioner symmetric positive definite approximation of the inverse of
+     *                       A (or of A minus a shift), applied to the residuals. May be null.
+     * @param largest whether to compute the largest or the smallest eigenvalues
+     * @param tol relative tolerance. A Ritz pair (x, l) has converged when |A x - l x| is
+     *            at most tol times the largest Ritz value in absolute value.
+     * @param maxIterations maximal number of iterations
+     * @return A FloatMatrix[2] array of the eigenvectors (n * k) and the eigenvalues (k).
+     * @throws NoEigenResultException if the eigenvalues did not converge in maxIterations iterations.
+     */
+    public static FloatMatrix[] lobpcg(FloatLinearOperator A, FloatMatrix X, FloatLinearOperator preconditioner,
+                                        boolean largest, float tol, int maxIterations) {
+        int k = X.columns;
+        int n = checkOperator(A, k);
+        if (X.rows != n) {
+            throw new SizeException("Initial vectors must have as many rows as the operator.");
+        }
+        if (3 * k >= n) {
+            return dense(A, k, largest);
+        }
+
+        // Work with -A for the largest eigenvalues, so that we always look for the smallest ones.
+        float sign = largest ? -1.0f : 1.0f;
+        FloatMatrix Q = orthonormalize(X.dup());
+        FloatMatrix AQ = apply(A, Q, sign);
+        FloatMatrix[] YL = Eigen.symmetricEigenvectors(symmetricProjection(Q, AQ));
+        X = Q.mmul(YL[0]);
+        FloatMatrix AX = AQ.mmul(YL[0]);
+        FloatMatrix lambda = YL[1].diag();
+        FloatMatrix P = null;
+
+        float norm = 0.0f;
+        for (int iteration = 0; iteration <= maxIterations; iteration++) {
+            FloatMatrix R = AX.sub(X.mulRowVector(lambda));
+            norm = Math.max(norm, Math.max(Math.abs(lambda.get(0)), Math.abs(lambda.get(k - 1))));
+            FloatMatrix residuals = R.mul(R).columnSums();
+            boolean converged = true;
+            for (int i = 0; i < k; i++) {
+                if (Math.sqrt(residuals.get(i)) > tol * norm) {
+                    converged = false;
+                }
+            }
+            if (converged) {
+                return new FloatMatrix[]{X, lambda.muli(sign)};
+            }
+
+            FloatMatrix W = preconditioner == null ? R : preconditioner.apply(R, new FloatMatrix(n, k));
+            int columns = P == null ? 2 * k : 3 * k;
+            FloatMatrix S = new FloatMatrix(n, columns);
+            System.arraycopy(X.data, 0, S.data, 0, n * k);
+            System.arraycopy(W.data, 0, S.data, n * k, n * k);
+            if (P != null) {
+                System.arraycopy(P.data, 0, S.data, 2 * n * k, n * k);
+            }
+
+            // The first k columns of Q span X, so the rest of Q gives the new search directions.
+            Q = orthonormalize(S);
+            AQ = apply(A, Q, sign);
+            YL = Eigen.symmetricEigenvectors(symmetricProjection(Q, AQ));
+            FloatMatrix Y = YL[0].getRange(0, columns, 0, k);
+            lambda = YL[1].diag().getRange(0, k);
+            X = Q.mmul(Y);
+            AX = AQ.mmul(Y);
+            P = Q.getRange(0, n, k, columns).mmul(Y.getRange(k, columns, 0, k));
+        }
+        throw new NoEigenResultException(String.format("LOBPCG did not converge in %d iterations.", maxIterations));
+    }
+
+    private static int checkOperator(FloatLinearOperator A, int k) {
+        if (A.getRows() != A.getColumns()) {
+            throw new SizeException("Operator must be square!");
+        }
+        if (k < 1 || k > A.getRows()) {
+            throw new IllegalArgumentException("The number of eigenvalues must be between 1 and the size of the operator.");
+        }
+        return A.getRows();
+    }
+
+    /** Compute all eigenvalues of a dense copy of A, for problems too small for the iterative methods. */
+    private static FloatMatrix[] dense(FloatLinearOperator A, int k, boolean largest) {
+        int n = A.getRows();
+        FloatMatrix[] VL = Eigen.symmetricEigenvectors(A.apply(FloatMatrix.eye(n), new FloatMatrix(n, n)));
+        FloatMatrix X = new FloatMatrix(n, k);
+        FloatMatrix values = new FloatMatrix(k);
+        for (int i = 0; i < k; i++) {
+            int c = wanted(i, n, largest);
+            System.arraycopy(VL[0].data, c * n, X.data, i * n, n);
+            values.put(i, VL[1].get(c, c));
+        }
+        return new FloatMatrix[]{X, values};
+    }
+
+    private static FloatMatrix apply(FloatLinearOperator A, FloatMatrix X, float sign) {
+        FloatMatrix AX = A.apply(X, new FloatMatrix(A.getRows(), X.columns));
+        return sign == 1.0f ? AX : AX.muli(sign);
+    }
+
+    /** Compute h = V' w and w = w - V h for the first j columns of V. */
+    private static void orthogonalize(FloatMatrix V, int j, FloatMatrix w, FloatMatrix h) {
+        int n = V.rows;
+        backend().sgemv('T', n, j, 1.0f, V.data, 0, n, w.data, 0, 1, 0.0f, h.data, 0, 1);
+        backend().sgemv('N', n, j, -1.0f, V.data, 0, n, h.data, 0, 1, 1.0f, w.data, 0, 1);
+    }
+
+    /** Orthonormal basis of the columns of Z (thin QR). */
+    private static FloatMatrix orthonormalize(FloatMatrix Z) {
+        FloatMatrix tau = new FloatMatrix(Z.columns);
+        SimpleBlas.geqrf(Z, tau);
+        SimpleBlas.orgqr(Z.columns, Z.columns, Z, tau);
+        return Z;
+    }
+
+    /** Q' * AQ, made exactly symmetric. */
+    private static FloatMatrix symmetricProjection(FloatMatrix Q, FloatMatrix AQ) {
+        FloatMatrix H = Q.transposeMmul(AQ);
+        return H.addi(H.transpose()).divi(2.0f);
+    }
+//END
+}
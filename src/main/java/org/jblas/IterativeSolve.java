@@ -0,0 +1,932 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+
+import java.util.Arrays;
+
+import static org.jblas.BlasBackends.backend;
+import static org.jblas.util.Functions.min;
+
+/**
+ * <p>Iterative solvers for large linear systems A x = b.</p>
+ *
+ * <p>The solvers access A only through {@link DoubleLinearOperator#apply}, so A can
+ * be a {@link SparseDoubleMatrix}, a dense matrix, or an operator which is never
+ * stored at all. See {@link Solve} for the direct solvers.</p>
+ *
+ * <ul>
+ * <li>{@link #cg}: conjugate gradients, for symmetric positive definite A.</li>
+ * <li>{@link #gmres}: restarted GMRES(m), for general A.</li>
+ * <li>{@link #bicgstab}: BiCGSTAB, for general A, with constant memory use.</li>
+ * </ul>
+ *
+ * <p>All solvers take an initial guess in x and overwrite it with the solution. They
+ * allocate their vectors once before iterating, so that an iteration only costs the
+ * products with A and the preconditioner plus some vector operations. A preconditioner
+ * is an operator which approximates the inverse of A, like {@link #jacobi} or
+ * {@link #incompleteCholesky}, or null for no preconditioning.</p>
+ *
+ * <p>The solvers iterate until the relative residual |b - A x| / |b| is at most tol, or
+ * until maxIterations iterations, and return a {@link Convergence} object with the
+ * residual history. They do not throw an exception if they do not converge.</p>
+ */
+public class IterativeSolve {
+//STOP
+    /**
+     * Convergence information of an iterative solver: the relative residual norms
+     * |b - A x| / |b| for the initial guess and after each iteration.
+     */
+    public static class Convergence {
+        private double[] residuals;
+        private int iterations = -1;
+        private boolean converged;
+
+        Convergence(int maxIterations) {
+            residuals = new double[maxIterations + 1];
+        }
+
+        /** Record the residual of the next iteration and return whether it is at most tol. */
+        boolean add(double residual, double tol) {
+            residuals[++iterations] = residual;
+            return residual <= tol;
+        }
+
+        Convergence finish(boolean converged) {
+            this.converged = converged;
+            residuals = Arrays.copyOf(residuals, iterations + 1);
+            return this;
+        }
+
+        /** Whether the residual dropped below the tolerance. */
+        public boolean isConverged() {
+            return converged;
+        }
+
+        /** Number of iterations. */
+        public int getIterations() {
+            return iterations;
+        }
+
+        /** The final relative residual. */
+        public double getResidual() {
+            return residuals[iterations];
+        }
+
+        /** The relative residuals, starting with the one of the initial guess. */
+        public double[] getResidualHistory() {
+            return residuals;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s after %d iterations, relative residual %g",
+                    converged ? "Converged" : "Not converged", iterations, getResidual());
+        }
+    }
+//START
+
+    /**
+     * Solve A x = b with the (preconditioned) conjugate gradient method.
+     *
+     * @param A symmetric positive definite operator of size n * n
+     * @param b right hand side, a vector of length n
+     * @param x initial guess, overwritten with the solution
+     * @param M symmetric positive definite preconditioner, or null
+     * @param tol tolerance for the relative residual
+     * @param maxIterations maximal number of iterations
+     */
+    public static Convergence cg(DoubleLinearOperator A, DoubleMatrix b, DoubleMatrix x, DoubleLinearOperator M,
+                                 double tol, int maxIterations) {
+        int n = checkSystem(A, b, x);
+        Convergence convergence = new Convergence(maxIterations);
+        double bnorm = b.norm2();
+        if (bnorm == 0.0) {
+            x.fill(0.0);
+            convergence.add(0.0, tol);
+            return convergence.finish(true);
+        }
+
+        DoubleMatrix r = A.apply(x, new DoubleMatrix(n)).rsubi(b);
+        DoubleMatrix z = M == null ? r : M.apply(r, new DoubleMatrix(n));
+        DoubleMatrix p = z.dup();
+        DoubleMatrix q = new DoubleMatrix(n);
+        double rz = r.dot(z);
+
+        boolean converged = convergence.add(r.norm2() / bnorm, tol);
+        for (int k = 0; k < maxIterations && !converged; k++) {
+            A.apply(p, q);
+            double pq = p.dot(q);
+            if (pq <= 0.0) {
+                // A (or M) is not positive definite
+                break;
+            }
+            double alpha = rz / pq;
+            SimpleBlas.axpy(alpha, p, x);
+            SimpleBlas.axpy(-alpha, q, r);
+            converged = convergence.add(r.norm2() / bnorm, tol);
+
+            if (M != null) {
+                M.apply(r, z);
+            }
+            double rzNew = r.dot(z);
+            p.muli(rzNew / rz).addi(z);
+            rz = rzNew;
+        }
+        return convergence.finish(converged);
+    }
+
+    /**
+     * Solve A x = b with restarted GMRES(m), with right preconditioning.
+     *
+     * <p>The residual is minimized over a Krylov subspace of dimension at most restart,
+     * using modified Gram-Schmidt and Givens rotations. Each iteration costs one product
+     * with A and with M, and the memory use grows with restart.</p>
+     *
+     * @param A operator of size n * n
+     * @param b right hand side, a vector of length n
+     * @param x initial guess, overwritten with the solution
+     * @param M preconditioner, or null
+     * @param restart dimension of the Krylov subspace before a restart
+     * @param tol tolerance for the relative residual
+     * @param maxIterations maximal number of iterations (in total, over all restarts)
+     */
+    public static Convergence gmres(DoubleLinearOperator A, DoubleMatrix b, DoubleMatrix x, DoubleLinearOperator M,
+                                    int restart, double tol, int maxIterations) {
+        int n = checkSystem(A, b, x);
+        if (restart < 1) {
+            throw new IllegalArgumentException("Restart must be positive.");
+        }
+        int m = min(restart, n);
+        Convergence convergence = new Convergence(maxIterations);
+        double bnorm = b.norm2();
+        if (bnorm == 0.0) {
+            x.fill(0.0);
+            convergence.add(0.0, tol);
+            return convergence.finish(true);
+        }
+
+        DoubleMatrix V = new DoubleMatrix(n, m + 1);
+        DoubleMatrix H = new DoubleMatrix(m + 1, m);
+        double[] cs = new double[m];
+        double[] sn = new double[m];
+        double[] g = new double[m + 1];
+        DoubleMatrix r = new DoubleMatrix(n);
+        DoubleMatrix v = new DoubleMatrix(n);
+        DoubleMatrix z = new DoubleMatrix(n);
+        DoubleMatrix w = new DoubleMatrix(n);
+        DoubleMatrix y = new DoubleMatrix(m);
+
+        A.apply(x, r).rsubi(b);
+        double beta = r.norm2();
+        boolean converged = convergence.add(beta / bnorm, tol);
+        int iterations = 0;
+        while (!converged && iterations < maxIterations) {
+            Arrays.fill(g, 0.0);
+            g[0] = beta;
+            System.arraycopy(r.data, 0, V.data, 0, n);
+            backend().dscal(n, 1.0 / beta, V.data, 0, 1);
+
+            int j = 0;
+            boolean breakdown = false;
+            while (j < m && iterations < maxIterations && !converged && !breakdown) {
+                System.arraycopy(V.data, j * n, v.data, 0, n);
+                A.apply(M == null ? v : M.apply(v, z), w);
+                for (int i = 0; i <= j; i++) {
+                    double h = backend().ddot(n, w.data, 0, 1, V.data, i * n, 1);
+                    backend().daxpy(n, -h, V.data, i * n, 1, w.data, 0, 1);
+                    H.put(i, j, h);
+                }
+                double h = w.norm2();
+                H.put(j + 1, j, h);
+                breakdown = h == 0.0;
+                if (!breakdown) {
+                    System.arraycopy(w.data, 0, V.data, (j + 1) * n, n);
+                    backend().dscal(n, 1.0 / h, V.data, (j + 1) * n, 1);
+                }
+
+                // apply the previous rotations to the new column, and eliminate H(j+1, j)
+                for (int i = 0; i < j; i++) {
+                    double t = cs[i] * H.get(i, j) + sn[i] * H.get(i + 1, j);
+                    H.put(i + 1, j, -sn[i] * H.get(i, j) + cs[i] * H.get(i + 1, j));
+                    H.put(i, j, t);
+                }
+                double d = (double) Math.hypot(H.get(j, j), h);
+                cs[j] = d == 0.0 ? 1.0 : H.get(j, j) / d;
+                sn[j] = d == 0.0 ? 0.0 : h / d;
+                H.put(j, j, d);
+                H.put(j + 1, j, 0.0);
+                g[j + 1] = -sn[j] * g[j];
+                g[j] = cs[j] * g[j];
+
+                j++;
+                iterations++;
+                converged = convergence.add(Math.abs(g[j]) / bnorm, tol);
+            }
+
+            // x += M V y, where H y = g
+            for (int i = j - 1; i >= 0; i--) {
+                double s = g[i];
+                for (int l = i + 1; l < j; l++) {
+                    s -= H.get(i, l) * y.get(l);
+                }
+                y.put(i, s / H.get(i, i));
+            }
+            backend().dgemv('N', n, j, 1.0, V.data, 0, n, y.data, 0, 1, 0.0, v.data, 0, 1);
+            SimpleBlas.axpy(1.0, M == null ? v : M.apply(v, z), x);
+
+            A.apply(x, r).rsubi(b);
+            beta = r.norm2();
+            if (breakdown) {
+                converged = beta / bnorm <= tol;
+                break;
+            }
+        }
+        return convergence.finish(converged);
+    }
+
+    /**
+     * Solve A x = b with BiCGSTAB, with right preconditioning.
+     *
+     * <p>The method may break down for some systems, when one of the inner products
+     * it divides by is zero. It then stops early with the last iterate and reports
+     * that it has not converged.</p>
+     *
+     * @param A operator of size n * n
+     * @param b right hand side, a vector of length n
+     * @param x initial guess, overwritten with the solution
+     * @param M preconditioner, or null
+     * @param tol tolerance for the relative residual
+     * @param maxIterations maximal number of iterations
+     */
+    public static Convergence bicgstab(DoubleLinearOperator A, DoubleMatrix b, DoubleMatrix x, DoubleLinearOperator M,
+                                       double tol, int maxIterations) {
+        int n = checkSystem(A, b, x);
+        Convergence convergence = new Convergence(maxIterations);
+        double bnorm = b.norm2();
+        if (bnorm == 0.0) {
+            x.fill(0.0);
+            convergence.add(0.0, tol);
+            return convergence.finish(true);
+        }
+
+        DoubleMatrix r = A.apply(x, new DoubleMatrix(n)).rsubi(b);
+        DoubleMatrix r0 = r.dup();
+        DoubleMatrix p = new DoubleMatrix(n);
+        DoubleMatrix v = new DoubleMatrix(n);
+        DoubleMatrix s = new DoubleMatrix(n);
+        DoubleMatrix t = new DoubleMatrix(n);
+        DoubleMatrix phat = M == null ? p : new DoubleMatrix(n);
+        DoubleMatrix shat = M == null ? s : new DoubleMatrix(n);
+        double rho = 1.0, alpha = 1.0, omega = 1.0;
+
+        boolean converged = convergence.add(r.norm2() / bnorm, tol);
+        for (int k = 0; k < maxIterations && !converged; k++) {
+            double rhoNew = r0.dot(r);
+            if (rhoNew == 0.0) {
+                break;
+            }
+            // p = r + beta (p - omega v)
+            double beta = (rhoNew / rho) * (alpha / omega);
+            SimpleBlas.axpy(-omega, v, p);
+            p.muli(beta).addi(r);
+            if (M != null) {
+                M.apply(p, phat);
+            }
+            A.apply(phat, v);
+            double r0v = r0.dot(v);
+            if (r0v == 0.0) {
+                // breakdown, keep the current x
+                break;
+            }
+            alpha = rhoNew / r0v;
+            s.copy(r);
+            SimpleBlas.axpy(-alpha, v, s);
+            double snorm = s.norm2();
+            if (snorm / bnorm <= tol) {
+                SimpleBlas.axpy(alpha, phat, x);
+                converged = convergence.add(snorm / bnorm, tol);
+                break;
+            }
+
+            if (M != null) {
+                M.apply(s, shat);
+            }
+            A.apply(shat, t);
+            double tt = t.dot(t);
+            SimpleBlas.axpy(alpha, phat, x);
+            if (tt == 0.0) {
+                // breakdown, stop after the first half step with residual s
+                converged = convergence.add(snorm / bnorm, tol);
+                break;
+            }
+            omega = t.dot(s) / tt;
+            SimpleBlas.axpy(omega, shat, x);
+            r.copy(s);
+            SimpleBlas.axpy(-omega, t, r);
+            rho = rhoNew;
+            converged = convergence.add(r.norm2() / bnorm, tol);
+            if (omega == 0.0) {
+                break;
+            }
+        }
+        return convergence.finish(converged);
+    }
+
+    /** Jacobi (diagonal) preconditioner for A. */
+    public static DoubleLinearOperator jacobi(DoubleMatrix A) {
+        A.assertSquare();
+        return diagonalInverse(A.diag());
+    }
+
+    /** Jacobi (diagonal) preconditioner for A. */
+    public static DoubleLinearOperator jacobi(SparseDoubleMatrix A) {
+        if (A.rows != A.columns) {
+            throw new SizeException("Matrix must be square!");
+        }
+        DoubleMatrix d = new DoubleMatrix(A.rows);
+        for (int i = 0; i < A.rows; i++) {
+            d.put(i, A.get(i, i));
+        }
+        return diagonalInverse(d);
+    }
+
+    /**
+     * Incomplete Cholesky preconditioner IC(0) for a symmetric positive definite A.
+     *
+     * <p>Computes a lower triangular L with the sparsity pattern of the lower triangle of A,
+     * such that L * L' agrees with A on that pattern. The preconditioner applies
+     * (L * L')^-1 by forward and backward substitution. Only the lower triangle of A is used.</p>
+     *
+     * @throws IllegalArgumentException if the factorization breaks down, which can happen
+     *         for positive definite matrices which are not diagonally dominant.
+     */
+    public static DoubleLinearOperator incompleteCholesky(SparseDoubleMatrix A) {
+        if (A.rows != A.columns) {
+            throw new SizeException("Matrix must be square!");
+        }
+        A = A.toCSR();
+        final int n = A.rows;
+
+        // the lower triangle of A, in CSR layout with sorted column indices
+        final int[] pointers = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int p = A.pointers[i]; p < A.pointers[i + 1] && A.indices[p] <= i; p++) {
+                count++;
+            }
+            pointers[i + 1] = pointers[i] + count;
+        }
+        final int[] indices = new int[pointers[n]];
+        final double[] values = new double[pointers[n]];
+        for (int i = 0; i < n; i++) {
+            int count = pointers[i + 1] - pointers[i];
+            System.arraycopy(A.indices, A.pointers[i], indices, pointers[i], count);
+            System.arraycopy(A.data, A.pointers[i], values, pointers[i], count);
+            if (count == 0 || indices[pointers[i + 1] - 1] != i) {
+                throw new IllegalArgumentException("Incomplete Cholesky factorization needs all diagonal elements.");
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            int diagonal = pointers[i + 1] - 1;
+            for (int p = pointers[i]; p <= diagonal; p++) {
+                int k = indices[p];
+                // subtract the dot product of rows i and k of L over the columns before k
+                double s = values[p];
+                int q = pointers[i], u = pointers[k];
+                while (q < p && u < pointers[k + 1] - 1) {
+                    if (indices[q] == indices[u]) {
+                        s -= values[q++] * values[u++];
+                    } else if (indices[q] < indices[u]) {
+                        q++;
+                    } else {
+                        u++;
+                    }
+                }
+                if (p < diagonal) {
+                    values[p] = s / values[pointers[k + 1] - 1];
+                } else if (s > 0.0) {
+                    values[p] = (double) Math.sqrt(s);
+                } else {
+                    throw new IllegalArgumentException("Incomplete Cholesky factorization broke down in row " + i + ".");
+                }
+            }
+        }
+
+        return new DoubleLinearOperator() {
+            public int getRows() {
+                return n;
+            }
+
+            public int getColumns() {
+                return n;
+            }
+
+            public DoubleMatrix apply(DoubleMatrix X, DoubleMatrix result) {
+                result.copy(X);
+                for (int j = 0; j < X.columns; j++) {
+                    int o = j * n;
+                    // L y = x
+                    for (int i = 0; i < n; i++) {
+                        double s = result.data[o + i];
+                        int diagonal = pointers[i + 1] - 1;
+                        for (int p = pointers[i]; p < diagonal; p++) {
+                            s -= values[p] * result.data[o + indices[p]];
+                        }
+                        result.data[o + i] = s / values[diagonal];
+                    }
+                    // L' z = y
+                    for (int i = n - 1; i >= 0; i--) {
+                        int diagonal = pointers[i + 1] - 1;
+                        double zi = result.data[o + i] / values[diagonal];
+                        result.data[o + i] = zi;
+                        for (int p = pointers[i]; p < diagonal; p++) {
+                            result.data[o + indices[p]] -= values[p] * zi;
+                        }
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    private static DoubleLinearOperator diagonalInverse(DoubleMatrix d) {
+        for (int i = 0; i < d.length; i++) {
+            if (d.get(i) == 0.0) {
+                throw new IllegalArgumentException("Jacobi preconditioner needs non-zero diagonal elements.");
+            }
+        }
+        final DoubleMatrix inverse = d.rdiv(1.0);
+        return new DoubleLinearOperator() {
+            public int getRows() {
+                return inverse.length;
+            }
+
+            public int getColumns() {
+                return inverse.length;
+            }
+
+            public DoubleMatrix apply(DoubleMatrix X, DoubleMatrix result) {
+                result.copy(X);
+                return result.muliColumnVector(inverse);
+            }
+        };
+    }
+
+    private static int checkSystem(DoubleLinearOperator A, DoubleMatrix b, DoubleMatrix x) {
+        int n = A.getRows();
+        if (A.getColumns() != n) {
+            throw new SizeException("Operator must be square!");
+        }
+        if (b.rows != n || b.columns != 1 || x.rows != n || x.columns != 1) {
+            throw new SizeException("Right hand side and solution must be column vectors of length " + n + ".");
+        }
+        if (b == x) {
+            throw new IllegalArgumentException("Right hand side and solution must be different matrices.");
+        }
+        return n;
+    }
+//BEGIN
+  // The code below has been automatically generated.
+  // DO NOT EDIT!
+
+    /**
+     * Solve A x = b with the (preconditioned) conjugate gradient method.
+     *
+     * @param A symmetric positive definite operator of size n * n
+     * @param b right hand side, a vector of length n
+     * @param x initial guess, overwritten with the solution
+     * @param M symmetric positive definite preconditioner, or null
+     * @param tol tolerance for the relative residual
+     * @param maxIterations maximal number of iterations
+     */
+    public static Convergence cg(FloatLinearOperator A, FloatMatrix b, FloatMatrix x, FloatLinearOperator M,
+                                 float tol, int maxIterations) {
+        int n = checkSystem(A, b, x);
+        Convergence convergence = new Convergence(maxIterations);
+        float bnorm = b.norm2();
+        if (bnorm == 0.0f) {
+            x.fill(0.0f);
+            convergence.add(0.0f, tol);
+            return convergence.finish(true);
+        }
+
+        FloatMatrix r = A.apply(x, new FloatMatrix(n)).rsubi(b);
+        FloatMatrix z = M == null ? r : M.apply(r, new FloatMatrix(n));
+        FloatMatrix p = z.dup();
+        FloatMatrix q = new FloatMatrix(n);
+        float rz = r.dot(z);
+
+        boolean converged = convergence.add(r.norm2() / bnorm, tol);
+        for (int k = 0; k < maxIterations && !converged; k++) {
+            A.apply(p, q);
+            float pq = p.dot(q);
+            if (pq <= 0.0f) {
+                // A (or M) is not positive definite
+                break;
+            }
+            float alpha = rz / pq;
+            SimpleBlas.axpy(alpha, p, x);
+            SimpleBlas.axpy(-alpha, q, r);
+            converged = convergence.add(r.norm2() / bnorm, tol);
+
+            if (M != null) {
+                M.apply(r, z);
+            }
+            float rzNew = r.dot(z);
+            p.muli(rzNew / rz).addi(z);
+            rz = rzNew;
+        }
+        return convergence.finish(converged);
+    }
+
+    /**
+     * Solve A x = b with restarted GMRES(m), with right preconditioning.
+     *
+     * <p>The residual is minimized over a Krylov subspace of dimension at most restart,
+     * using modified Gram-Schmidt and Givens rotations. Each iteration costs one product
+     * with A and with M, and the memory use grows with restart.</p>
+     *
+     * @param A operator of size n * n
+     * @param b right hand side, a vector of length n
+     * @param x initial guess, overwritten with the solution
+     * @param M preconditioner, or null
+     * @param restart dimension of the Krylov subspace before a restart
+     * @param tol tolerance for the relative residual
+     * @param maxIterations maximal number of iterations (in total, over all restarts)
+     */
+    public static Convergence gmres(FloatLinearOperator A, FloatMatrix b, FloatMatrix x, FloatLinearOperator M,
+                                    int restart, float tol, int maxIterations) {
+        int n = checkSystem(A, b, x);
+        if (restart < 1) {
+            throw new IllegalArgumentException("Restart must be positive.");
+        }
+        int m = min(restart, n);
+        Convergence convergence = new Convergence(maxIterations);
+        float bnorm = b.norm2();
+        if (bnorm == 0.0f) {
+            x.fill(0.0f);
+            convergence.add(0.0f, tol);
+            return convergence.finish(true);
+        }
+
+        FloatMatrix V = new FloatMatrix(n, m + 1);
+        FloatMatrix H = new FloatMatrix(m + 1, m);
+        float[] cs = new float[m];
+        float[] sn = new float[m];
+        float[] g = new float[m + 1];
+        FloatMatrix r = new FloatMatrix(n);
+        FloatMatrix v = new FloatMatrix(n);
+        FloatMatrix z = new FloatMatrix(n);
+        FloatMatrix w = new FloatMatrix(n);
+        FloatMatrix y = new FloatMatrix(m);
+
+        A.apply(x, r).rsubi(b);
+        float beta = r.norm2();
+        boolean converged = convergence.add(beta / bnorm, tol);
+        int iterations = 0;
+        while (!converged && iterations < maxIterations) {
+            Arrays.fill(g, 0.0f);
+            g[0] = beta;
+            System.arraycopy(r.data, 0, V.data, 0, n);
+            backend().sscal(n, 1.0f / beta, V.data, 0, 1);
+
+            int j = 0;
+            boolean breakdown = false;
+            while (j < m && iterations < maxIterations && !converged && !breakdown) {
+                System.arraycopy(V.data, j * n, v.data, 0, n);
+                A.apply(M == null ? v : M.apply(v, z), w);
+                for (int i = 0; i <= j; i++) {
+                    float h = backend().sdot(n, w.data, 0, 1, V.data, i * n, 1);
+                    backend().saxpy(n, -h, V.data, i * n, 1, w.data, 0, 1);
+                    H.put(i, j, h);
+                }
+                float h = w.norm2();
+                H.put(j + 1, j, h);
+                breakdown = h == 0.0f;
+                if (!breakdown) {
+                    System.arraycopy(w.data, 0, V.data, (j + 1) * n, n);
+                    backend().sscal(n, 1.0f / h, V.data, (j + 1) * n, 1);
+                }
+
+                // apply the previous rotations to the new column, and eliminate H(j+1, j)
+                for (int i = 0; i < j; i++) {
+                    float t = cs[i] * H.get(i, j) + sn[i] * H.get(i + 1, j);
+                    H.put(i + 1, j, -sn[i] * H.get(i, j) + cs[i] * H.get(i + 1, j));
+                    H.put(i, j, t);
+                }
+                float d = (float) Math.hypot(H.get(j, j), h);
+                cs[j] = d == 0.0f ? 1.0f : H.get(j, j) / d;
+                sn[j] = d == 0.0f ? 0.0f : h / d;
+                H.put(j, j, d);
+                H.put(j + 1, j, 0.0f);
+                g[j + 1] = -sn[j] * g[j];
+                g[j] = cs[j] * g[j];
+
+                j++;
+                iterations++;
+                converged = convergence.add(Math.abs(g[j]) / bnorm, tol);
+            }
+
+            // x += M V y, where H y = g
+            for (int i = j - 1; i >= 0; i--) {
+                float s = g[i];
+                for (int l = i + 1; l < j; l++) {
+                    s -= H.get(i, l) * y.get(l);
+                }
+                y.put(i, s / H.get(i, i));
+            }
+            backend().sgemv('N', n, j, 1.0f, V.data, 0, n, y.data, 0, 1, 0.0f, v.data, 0, 1);
+            SimpleBlas.axpy(1.0f, M == null ? v : M.apply(v, z), x);
+
+            A.apply(x, r).rsubi(b);
+            beta = r.norm2();
+            if (breakdown) {
+                converged = beta / bnorm <= tol;
+                break;
+            }
+        }
+        return convergence.finish(converged);
+    }
+
+    /**
+     * Solve A x = b with BiCGSTAB, with right preconditioning.
+     *
+     * <p>The method may break down for some systems, when one of the inner products
+     * it divides by is zero. It then stops early with the last iterate and reports
+     * that it has not converged.</p>
+     *
+     * @param A operator of size n * n
+     * @param b right hand side, a vector of length n
+     * @param x initial guess, overwritten with the solution
+     * @param M preconditioner, or null
+     * @param tol tolerance for the relative residual
+     * @param maxIterations maximal number of iterations
+     */
+    public static Convergence bicgstab(FloatLinearOperator A, FloatMatrix b, FloatMatrix x, FloatLinearOperator M,
+                                       float tol, int maxIterations) {
+        int n = checkSystem(A, b, x);
+        Convergence convergence = new Convergence(maxIterations);
+        float bnorm = b.norm2();
+        if (bnorm == 0.0f) {
+            x.fill(0.0f);
+            convergence.add(0.0f, tol);
+            return convergence.finish(true);
+        }
+
+        FloatMatrix r = A.apply(x, new FloatMatrix(n)).rsubi(b);
+        FloatMatrix r0 = r.dup();
+        FloatMatrix p = new FloatMatrix(n);
+        FloatMatrix v = new FloatMatrix(n);
+        FloatMatrix s = new FloatMatrix(n);
+        FloatMatrix t = new FloatMatrix(n);
+        FloatMatrix phat = M == null ? p : new FloatMatrix(n);
+        FloatMatrix shat = M == null ? s : new FloatMatrix(n);
+        float rho = 1.0f, alpha = 1.0f, omega = 1.0f;
+
+        boolean converged = convergence.add(r.norm2() / bnorm, tol);
+        for (int k = 0; k < maxIterations && !converged; k++) {
+            float rhoNew = r0.dot(r);
+            if (rhoNew == 0.0f) {
+                break;
+            }
+            // p = r + beta (p - omega v)
+            float beta = (rhoNew / rho) * (alpha / omega);
+            SimpleBlas.axpy(-omega, v, p);
+            p.muli(beta).addi(r);
+            if (M != null) {
+                M.apply(p, phat);
+            }
+            A.apply(phat, v);
+            float r0v = r0.dot(v);
+            if (r0v == 0.0f) {
+                // breakdown, keep the current x
+                break;
+            }
+            alpha = rhoNew / r0v;
+            s.copy(r);
+            SimpleBlas.axpy(-alpha, v, s);
+            float snorm = s.norm2();
+            if (snorm / bnorm <= tol) {
+                SimpleBlas.axpy(alpha, phat, x);
+                converged = convergence.add(snorm / bnorm, tol);
+                break;
+            }
+
+            if (M != null) {
+                M.apply(s, shat);
+            }
+            A.apply(shat, t);
+            float tt = t.dot(t);
+            SimpleBlas.axpy(alpha, phat, x);
+            if (tt == 0.0f) {
+                // breakdown, stop after the first half step with residual s
+                converged = convergence.add(snorm / bnorm, tol);
+                break;
+            }
+            omega = t.dot(s) / tt;
+            SimpleBlas.axpy(omega, shat, x);
+            r.copy(s);
+            SimpleBlas.axpy(-omega, t, r);
+            rho = rhoNew;
+            converged = convergence.add(r.norm2() / bnorm, tol);
+            if (omega == 0.0f) {
+                break;
+            }
+        }
+        return convergence.finish(converged);
+    }
+
+    /** Jacobi (diagonal) preconditioner for A. */
+    public static FloatLinearOperator jacobi(FloatMatrix A) {
+        A.assertSquare();
+        return diagonalInverse(A.diag());
+    }
+
+    /** Jacobi (diagonal) preconditioner for A. */
+    public static FloatLinearOperator jacobi(SparseFloatMatrix A) {
+        if (A.rows != A.columns) {
+            throw new SizeException("Matrix must be square!");
+        }
+        FloatMatrix d = new FloatMatrix(A.rows);
+        for (int i = 0; i < A.rows; i++) {
+            d.put(i, A.get(i, i));
+        }
+        return diagonalInverse(d);
+    }
+
+    /**
+     * Incomplete Cholesky preconditioner IC(0) for a symmetric positive definite A.
+     *
+     * <p>Computes a lower triangular L with the sparsity pattern of the lower triangle of A,
+     * such that L * L' agrees with A on that pattern. The preconditioner applies
+     * (L * L')^-1 by forward and backward substitution. Only the lower triangle of A is used.</p>
+     *
+     * @throws IllegalArgumentException if the factorization breaks down, which can happen
+     *         for positive definite matrices which are not diagonally dominant.
+     */
+    public static FloatLinearOperator incompleteCholesky(SparseFloatMatrix A) {
+        if (A.rows != A.columns) {
+            throw new SizeException("Matrix must be square!");
+        }
+        A = A.toCSR();
+        final int n = A.rows;
+
+        // the lower triangle of A, in CSR layout with sorted column indices
+        final int[] pointers = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int p = A.pointers[i]; p < A.pointers[i + 1] && A.indices[p] <= i; p++) {
+                count++;
+            }
+            pointers[i + 1] = pointers[i] + count;
+        }
+        final int[] indices = new int[pointers[n]];
+        final float[] values = new float[pointers[n]];
+        for (int i = 0; i < n; i++) {
+            int count = pointers[i + 1] - pointers[i];
+            System.arraycopy(A.indices, A.pointers[i], indices, pointers[i], count);
+            System.arraycopy(A.data, A.pointers[i], values, pointers[i], count);
+            if (count == 0 || indices[pointers[i + 1] - 1] != i) {
+                throw new IllegalArgumentException("Incomplete Cholesky factorization needs all diagonal elements.");
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            int diagonal = pointers[i + 1] - 1;
+            for (int p = pointers[i]; p <= diagonal; p++) {
+                int k = indices[p];
+                // subtract the dot product of rows i and k of L over the columns before k
+                float s = values[p];
+                int q = pointers[i], u = pointers[k];
+                while (q < p && u < pointers[k + 1] - 1) {
+                    if (indices[q] == indices[u]) {
+                        s -= values[q++] * values[u++];
+                    } else if (indices[q] < indices[u]) {
+                        q++;
+                    } else {
+                        u++;
+                    }
+                }
+                if (p < diagonal) {
+                    values[p] = s / values[pointers[k + 1] - 1];
+                } else if (s > 0.0f) {
+                    values[p] = (float) Math.sqrt(s);
+                } else {
+                    throw new IllegalArgumentException("Incomplete Cholesky factorization broke down in row " + i + ".");
+                }
+            }
+        }
+
+        return new FloatLinearOperator() {
+            public int getRows() {
+                return n;
+            }
+
+            public int getColumns() {
+                return n;
+            }
+
+            public FloatMatrix apply(FloatMatrix X, FloatMatrix result) {
+                result.copy(X);
+                for (int j = 0; j < X.columns; j++) {
+                    int o = j * n;
+                    // L y = x
+                    for (int i = 0; i < n; i++) {
+                        float s = result.data[o + i];
+                        int diagonal = pointers[i + 1] - 1;
+                        for (int p = pointers[i]; p < diagonal; p++) {
+                            s -= values[p] * result.data[o + indices[p]];
+                        }
+                        result.data[o + i] = s / values[diagonal];
+                    }
+                    // L' z = y
+                    for (int i = n - 1; i >= 0; i--) {
+                        int diagonal = pointers[i + 1] - 1;
+                        float zi = result.data[o + i] / values[diagonal];
+                        result.data[o + i] = zi;
+                        for (int p = pointers[i]; p < diagonal; p++) {
+                            result.data[o + indices[p]] -= values[p] * zi;
+                        }
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    private static FloatLinearOperator diagonalInverse(FloatMatrix d) {
+        for (int i = 0; i < d.length; i++) {
+            if (d.get(i) == 0.0f) {
+                throw new IllegalArgumentException("Jacobi preconditioner needs non-zero diagonal elements.");
+            }
+        }
+        final FloatMatrix inverse = d.rdiv(1.0f);
+        return new FloatLinearOperator() {
+            public int getRows() {
+                return inverse.length;
+            }
+
+            public int getColumns() {
+                return inverse.length;
+            }
+
+            public FloatMatrix apply(FloatMatrix X, FloatMatrix result) {
+                result.copy(X);
+                return result.muliColumnVector(inverse);
+            }
+        };
+    }
+
+    private static int checkSystem(FloatLinearOperator A, FloatMatrix b, FloatMatrix x) {
+        int n = A.getRows();
+        if (A.getColumns() != n) {
+            throw new SizeException("Operator must be square!");
+        }
+        if (b.rows != n || b.columns != 1 || x.rows != n || x.columns != 1) {
+            throw new SizeException("Right hand side and solution must be column vectors of length " + n + ".");
+        }
+        if (b == x) {
+            throw new IllegalArgumentException("Right hand side and solution must be different matrices.");
+        }
+        return n;
+    }
+//END
+}
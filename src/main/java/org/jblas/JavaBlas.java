@@ -41,6 +41,9 @@
 package org.jblas;
 
 import org.jblas.exceptions.LapackException;
+import org.jblas.util.Parallel;
+
+import java.util.BitSet;
 
 /**
  * <p>Implementation of some Blas functions, mostly those which require linear runtime
@@ -167,6 +170,564 @@ public class JavaBlas {
         }
         return s;
     }
+
+    /** Compute dx <- da * dx. */
+    public static void rscal(int n, double da, double[] dx, int dxIdx, int incx) {
+        for (int c = 0, xi = dxIdx; c < n; c++, xi += incx) {
+            dx[xi] *= da;
+        }
+    }
+
+    /** Compute the 2-norm of dx, scaling to avoid overflow and underflow. */
+    public static double rnrm2(int n, double[] dx, int dxIdx, int incx) {
+        double scale = 0.0;
+        double ssq = 1.0;
+        for (int c = 0, xi = dxIdx; c < n; c++, xi += incx) {
+            if (dx[xi] != 0.0) {
+                double absxi = Math.abs(dx[xi]);
+                if (scale < absxi) {
+                    ssq = 1.0 + ssq * (scale / absxi) * (scale / absxi);
+                    scale = absxi;
+                } else {
+                    ssq += (absxi / scale) * (absxi / scale);
+                }
+            }
+        }
+        return scale * (double) Math.sqrt(ssq);
+    }
+
+    /** Compute the sum of the absolute values of dx. */
+    public static double rasum(int n, double[] dx, int dxIdx, int incx) {
+        double s = 0.0;
+        for (int c = 0, xi = dxIdx; c < n; c++, xi += incx) {
+            s += Math.abs(dx[xi]);
+        }
+        return s;
+    }
+
+    /** Compute the index of the element of dx with the largest absolute value (1-based as in BLAS). */
+    public static int iramax(int n, double[] dx, int dxIdx, int incx) {
+        if (n < 1)
+            return 0;
+        int result = 1;
+        double max = Math.abs(dx[dxIdx]);
+        for (int c = 1, xi = dxIdx + incx; c < n; c++, xi += incx) {
+            double v = Math.abs(dx[xi]);
+            if (v > max) {
+                max = v;
+                result = c + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute y &lt;- alpha * op(a) * x + beta * y (general matrix vector
+     * multiplication), where op(a) is a for trans = 'N' and a^T for 'T' or 'C'.
+     */
+    public static void rgemv(char trans, int m, int n, double alpha, double[] a, int aIdx, int lda,
+                             double[] x, int xIdx, int incx, double beta, double[] y, int yIdx, int incy) {
+        boolean t = isTransposed(trans);
+        int leny = t ? n : m;
+        int lenx = t ? m : n;
+
+        if (beta != 1.0) {
+            for (int c = 0, yi = yIdx; c < leny; c++, yi += incy)
+                y[yi] = beta == 0.0 ? 0.0 : beta * y[yi];
+        }
+
+        if (alpha == 0.0)
+            return;
+
+        if (!t) {
+            // y += alpha * a * x, going through a column by column
+            for (int j = 0, xj = xIdx; j < lenx; j++, xj += incx) {
+                double temp = alpha * x[xj];
+                if (temp != 0.0) {
+                    int aj = aIdx + j * lda;
+                    for (int i = 0, yi = yIdx; i < m; i++, yi += incy)
+                        y[yi] += temp * a[aj + i];
+                }
+            }
+        } else {
+            // y += alpha * a^T * x, one dot product per column of a
+            for (int j = 0, yj = yIdx; j < leny; j++, yj += incy) {
+                int aj = aIdx + j * lda;
+                double temp = 0.0;
+                for (int i = 0, xi = xIdx; i < m; i++, xi += incx)
+                    temp += a[aj + i] * x[xi];
+                y[yj] += alpha * temp;
+            }
+        }
+    }
+
+    /** Compute a &lt;- alpha * x * y^T + a (general rank-1 update). */
+    public static void rger(int m, int n, double alpha, double[] x, int xIdx, int incx,
+                            double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+        for (int j = 0, yj = yIdx; j < n; j++, yj += incy) {
+            double temp = alpha * y[yj];
+            if (temp != 0.0) {
+                int aj = aIdx + j * lda;
+                for (int i = 0, xi = xIdx; i < m; i++, xi += incx)
+                    a[aj + i] += x[xi] * temp;
+            }
+        }
+    }
+
+    /**
+     * Compute c &lt;- alpha * op(a) * op(b) + beta * c (general matrix matrix
+     * multiplication), where op(x) is x for trans = 'N' and x^T for 'T' or 'C'.
+     *
+     * <p>The matrices are stored in column major order with leading dimensions
+     * lda, ldb, and ldc as in the native BLAS. The computation is blocked for
+     * the caches, packs blocks of a and b into contiguous buffers, uses 4x4
+     * register blocks in the inner loop, and runs in parallel over
+     * panels of columns of c for larger matrices. Small untransposed products
+     * are computed directly, with fully unrolled kernels up to 4x4.</p>
+     */
+    public static void rgemm(char transa, char transb, int m, int n, int k,
+                             final double alpha, final double[] a, final int aIdx, final int lda,
+                             final double[] b, final int bIdx, final int ldb,
+                             double beta, final double[] c, final int cIdx, final int ldc) {
+        final boolean ta = isTransposed(transa);
+        final boolean tb = isTransposed(transb);
+        final int fm = m, fk = k;
+
+        if (m == 0 || n == 0)
+            return;
+
+        if (!ta && !tb && (long) m * n * k <= GEMM_SMALL_THRESHOLD) {
+            gemmSmall(m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+            return;
+        }
+
+        // c <- beta * c
+        if (beta != 1.0) {
+            for (int j = 0; j < n; j++) {
+                int cj = cIdx + j * ldc;
+                if (beta == 0.0) {
+                    for (int i = 0; i < m; i++)
+                        c[cj + i] = 0.0;
+                } else {
+                    for (int i = 0; i < m; i++)
+                        c[cj + i] *= beta;
+                }
+            }
+        }
+
+        if (k == 0 || alpha == 0.0)
+            return;
+
+        if ((long) m * n * k < GEMM_PARALLEL_THRESHOLD || n <= GEMM_NR) {
+            gemmPanel(ta, tb, m, 0, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, c, cIdx, ldc);
+        } else {
+            Parallel.forRange(n, GEMM_NR, new Parallel.RangeBody() {
+                public void run(int j0, int j1) {
+                    gemmPanel(ta, tb, fm, j0, j1, fk, alpha, a, aIdx, lda, b, bIdx, ldb, c, cIdx, ldc);
+                }
+            });
+        }
+    }
+
+    /**
+     * Compute c &lt;- alpha * a * b + beta * c for small matrices directly,
+     * without packing and blocking for the caches. Square matrices up to 4x4 use
+     * fully unrolled kernels, larger ones 4x4 register blocks read in place.
+     */
+    private static void gemmSmall(int m, int n, int k, double alpha, double[] a, int aIdx, int lda,
+                                  double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc) {
+        if (m == n && n == k && alpha != 0.0) {
+            switch (m) {
+                case 2:
+                    gemm2x2(alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+                    return;
+                case 3:
+                    gemm3x3(alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+                    return;
+                case 4:
+                    gemm4x4(alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+                    return;
+            }
+        }
+
+        for (int j = 0; j < n; j += GEMM_NR) {
+            int nr = Math.min(GEMM_NR, n - j);
+            for (int i = 0; i < m; i += GEMM_MR) {
+                int mr = Math.min(GEMM_MR, m - i);
+                int ai = aIdx + i;
+                int bj = bIdx + j * ldb;
+                int cij = cIdx + i + j * ldc;
+                if (mr == GEMM_MR && nr == GEMM_NR) {
+                    gemmSmallBlock(k, alpha, a, ai, lda, b, bj, ldb, beta, c, cij, ldc);
+                } else {
+                    for (int jj = 0; jj < nr; jj++) {
+                        for (int ii = 0; ii < mr; ii++) {
+                            double s = 0.0;
+                            for (int l = 0; l < k; l++)
+                                s += a[ai + ii + l * lda] * b[bj + jj * ldb + l];
+                            int cc = cij + ii + jj * ldc;
+                            c[cc] = beta == 0.0 ? alpha * s : alpha * s + beta * c[cc];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** One 4x4 block of c &lt;- alpha * a * b + beta * c with a and b read in place. */
+    private static void gemmSmallBlock(int k, double alpha, double[] a, int aIdx, int lda,
+                                       double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc) {
+        double c00 = 0.0, c01 = 0.0, c02 = 0.0, c03 = 0.0;
+        double c10 = 0.0, c11 = 0.0, c12 = 0.0, c13 = 0.0;
+        double c20 = 0.0, c21 = 0.0, c22 = 0.0, c23 = 0.0;
+        double c30 = 0.0, c31 = 0.0, c32 = 0.0, c33 = 0.0;
+        int b1 = bIdx + ldb, b2 = b1 + ldb, b3 = b2 + ldb;
+
+        for (int l = 0, al = aIdx; l < k; l++, al += lda) {
+            double a0 = a[al], a1 = a[al + 1], a2 = a[al + 2], a3 = a[al + 3];
+            double b0l = b[bIdx + l], b1l = b[b1 + l], b2l = b[b2 + l], b3l = b[b3 + l];
+            c00 += a0 * b0l; c01 += a0 * b1l; c02 += a0 * b2l; c03 += a0 * b3l;
+            c10 += a1 * b0l; c11 += a1 * b1l; c12 += a1 * b2l; c13 += a1 * b3l;
+            c20 += a2 * b0l; c21 += a2 * b1l; c22 += a2 * b2l; c23 += a2 * b3l;
+            c30 += a3 * b0l; c31 += a3 * b1l; c32 += a3 * b2l; c33 += a3 * b3l;
+        }
+
+        int c1 = cIdx + ldc, c2 = c1 + ldc, c3 = c2 + ldc;
+        if (beta == 0.0) {
+            c[cIdx] = alpha * c00; c[cIdx + 1] = alpha * c10; c[cIdx + 2] = alpha * c20; c[cIdx + 3] = alpha * c30;
+            c[c1] = alpha * c01; c[c1 + 1] = alpha * c11; c[c1 + 2] = alpha * c21; c[c1 + 3] = alpha * c31;
+            c[c2] = alpha * c02; c[c2 + 1] = alpha * c12; c[c2 + 2] = alpha * c22; c[c2 + 3] = alpha * c32;
+            c[c3] = alpha * c03; c[c3 + 1] = alpha * c13; c[c3 + 2] = alpha * c23; c[c3 + 3] = alpha * c33;
+        } else {
+            c[cIdx] = alpha * c00 + beta * c[cIdx]; c[cIdx + 1] = alpha * c10 + beta * c[cIdx + 1];
+            c[cIdx + 2] = alpha * c20 + beta * c[cIdx + 2]; c[cIdx + 3] = alpha * c30 + beta * c[cIdx + 3];
+            c[c1] = alpha * c01 + beta * c[c1]; c[c1 + 1] = alpha * c11 + beta * c[c1 + 1];
+            c[c1 + 2] = alpha * c21 + beta * c[c1 + 2]; c[c1 + 3] = alpha * c31 + beta * c[c1 + 3];
+            c[c2] = alpha * c02 + beta * c[c2]; c[c2 + 1] = alpha * c12 + beta * c[c2 + 1];
+            c[c2 + 2] = alpha * c22 + beta * c[c2 + 2]; c[c2 + 3] = alpha * c32 + beta * c[c2 + 3];
+            c[c3] = alpha * c03 + beta * c[c3]; c[c3 + 1] = alpha * c13 + beta * c[c3 + 1];
+            c[c3 + 2] = alpha * c23 + beta * c[c3 + 2]; c[c3 + 3] = alpha * c33 + beta * c[c3 + 3];
+        }
+    }
+
+    /** Fully unrolled c &lt;- alpha * a * b + beta * c for 2x2 matrices. */
+    private static void gemm2x2(double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb,
+                                double beta, double[] c, int cIdx, int ldc) {
+        double a00 = a[aIdx], a10 = a[aIdx + 1];
+        double a01 = a[aIdx + lda], a11 = a[aIdx + lda + 1];
+        double b00 = b[bIdx], b10 = b[bIdx + 1];
+        double b01 = b[bIdx + ldb], b11 = b[bIdx + ldb + 1];
+
+        if (beta == 0.0) {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10);
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10);
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11);
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11);
+        } else {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10) + beta * c[cIdx];
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10) + beta * c[cIdx + 1];
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11) + beta * c[cIdx + ldc];
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11) + beta * c[cIdx + ldc + 1];
+        }
+    }
+
+    /** Fully unrolled c &lt;- alpha * a * b + beta * c for 3x3 matrices. */
+    private static void gemm3x3(double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb,
+                                double beta, double[] c, int cIdx, int ldc) {
+        double a00 = a[aIdx], a10 = a[aIdx + 1], a20 = a[aIdx + 2];
+        double a01 = a[aIdx + lda], a11 = a[aIdx + lda + 1], a21 = a[aIdx + lda + 2];
+        double a02 = a[aIdx + 2 * lda], a12 = a[aIdx + 2 * lda + 1], a22 = a[aIdx + 2 * lda + 2];
+        double b00 = b[bIdx], b10 = b[bIdx + 1], b20 = b[bIdx + 2];
+        double b01 = b[bIdx + ldb], b11 = b[bIdx + ldb + 1], b21 = b[bIdx + ldb + 2];
+        double b02 = b[bIdx + 2 * ldb], b12 = b[bIdx + 2 * ldb + 1], b22 = b[bIdx + 2 * ldb + 2];
+
+        if (beta == 0.0) {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20);
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20);
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20);
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21);
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21);
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21);
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22);
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22);
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22);
+        } else {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20) + beta * c[cIdx];
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20) + beta * c[cIdx + 1];
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20) + beta * c[cIdx + 2];
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21) + beta * c[cIdx + ldc];
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21) + beta * c[cIdx + ldc + 1];
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21) + beta * c[cIdx + ldc + 2];
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22) + beta * c[cIdx + 2 * ldc];
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22) + beta * c[cIdx + 2 * ldc + 1];
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22) + beta * c[cIdx + 2 * ldc + 2];
+        }
+    }
+
+    /** Fully unrolled c &lt;- alpha * a * b + beta * c for 4x4 matrices. */
+    private static void gemm4x4(double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb,
+                                double beta, double[] c, int cIdx, int ldc) {
+        double a00 = a[aIdx], a10 = a[aIdx + 1], a20 = a[aIdx + 2], a30 = a[aIdx + 3];
+        double a01 = a[aIdx + lda], a11 = a[aIdx + lda + 1], a21 = a[aIdx + lda + 2], a31 = a[aIdx + lda + 3];
+        double a02 = a[aIdx + 2 * lda], a12 = a[aIdx + 2 * lda + 1], a22 = a[aIdx + 2 * lda + 2], a32 = a[aIdx + 2 * lda + 3];
+        double a03 = a[aIdx + 3 * lda], a13 = a[aIdx + 3 * lda + 1], a23 = a[aIdx + 3 * lda + 2], a33 = a[aIdx + 3 * lda + 3];
+        double b00 = b[bIdx], b10 = b[bIdx + 1], b20 = b[bIdx + 2], b30 = b[bIdx + 3];
+        double b01 = b[bIdx + ldb], b11 = b[bIdx + ldb + 1], b21 = b[bIdx + ldb + 2], b31 = b[bIdx + ldb + 3];
+        double b02 = b[bIdx + 2 * ldb], b12 = b[bIdx + 2 * ldb + 1], b22 = b[bIdx + 2 * ldb + 2], b32 = b[bIdx + 2 * ldb + 3];
+        double b03 = b[bIdx + 3 * ldb], b13 = b[bIdx + 3 * ldb + 1], b23 = b[bIdx + 3 * ldb + 2], b33 = b[bIdx + 3 * ldb + 3];
+
+        if (beta == 0.0) {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30);
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30);
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30);
+            c[cIdx + 3] = alpha * (a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30);
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31);
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31);
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31);
+            c[cIdx + ldc + 3] = alpha * (a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31);
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32);
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32);
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32);
+            c[cIdx + 2 * ldc + 3] = alpha * (a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32);
+            c[cIdx + 3 * ldc] = alpha * (a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33);
+            c[cIdx + 3 * ldc + 1] = alpha * (a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33);
+            c[cIdx + 3 * ldc + 2] = alpha * (a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33);
+            c[cIdx + 3 * ldc + 3] = alpha * (a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33);
+        } else {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30) + beta * c[cIdx];
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30) + beta * c[cIdx + 1];
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30) + beta * c[cIdx + 2];
+            c[cIdx + 3] = alpha * (a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30) + beta * c[cIdx + 3];
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31) + beta * c[cIdx + ldc];
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31) + beta * c[cIdx + ldc + 1];
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31) + beta * c[cIdx + ldc + 2];
+            c[cIdx + ldc + 3] = alpha * (a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31) + beta * c[cIdx + ldc + 3];
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32) + beta * c[cIdx + 2 * ldc];
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32) + beta * c[cIdx + 2 * ldc + 1];
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32) + beta * c[cIdx + 2 * ldc + 2];
+            c[cIdx + 2 * ldc + 3] = alpha * (a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32) + beta * c[cIdx + 2 * ldc + 3];
+            c[cIdx + 3 * ldc] = alpha * (a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33) + beta * c[cIdx + 3 * ldc];
+            c[cIdx + 3 * ldc + 1] = alpha * (a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33) + beta * c[cIdx + 3 * ldc + 1];
+            c[cIdx + 3 * ldc + 2] = alpha * (a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33) + beta * c[cIdx + 3 * ldc + 2];
+            c[cIdx + 3 * ldc + 3] = alpha * (a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33) + beta * c[cIdx + 3 * ldc + 3];
+        }
+    }
+
+    /** Compute columns j0 to j1 - 1 of c += alpha * op(a) * op(b). */
+    private static void gemmPanel(boolean ta, boolean tb, int m, int j0, int j1, int k,
+                                  double alpha, double[] a, int aIdx, int lda,
+                                  double[] b, int bIdx, int ldb,
+                                  double[] c, int cIdx, int ldc) {
+        int kcMax = Math.min(GEMM_KC, k);
+        double[] packedA = new double[roundUp(Math.min(GEMM_MC, m), GEMM_MR) * kcMax];
+        double[] packedB = new double[roundUp(Math.min(GEMM_NC, j1 - j0), GEMM_NR) * kcMax];
+
+        for (int jc = j0; jc < j1; jc += GEMM_NC) {
+            int nc = Math.min(GEMM_NC, j1 - jc);
+            for (int pc = 0; pc < k; pc += GEMM_KC) {
+                int kc = Math.min(GEMM_KC, k - pc);
+
+                // pack kc x nc block of op(b) into slivers of GEMM_NR columns
+                for (int jr = 0; jr < nc; jr += GEMM_NR) {
+                    int nr = Math.min(GEMM_NR, nc - jr);
+                    int dst = jr * kc;
+                    for (int p = 0; p < kc; p++) {
+                        for (int jj = 0; jj < GEMM_NR; jj++) {
+                            if (jj < nr) {
+                                int col = jc + jr + jj, row = pc + p;
+                                packedB[dst++] = tb ? b[bIdx + col + row * ldb] : b[bIdx + row + col * ldb];
+                            } else {
+                                packedB[dst++] = 0.0;
+                            }
+                        }
+                    }
+                }
+
+                for (int ic = 0; ic < m; ic += GEMM_MC) {
+                    int mc = Math.min(GEMM_MC, m - ic);
+
+                    // pack alpha * (mc x kc block of op(a)) into slivers of GEMM_MR rows
+                    for (int ir = 0; ir < mc; ir += GEMM_MR) {
+                        int mr = Math.min(GEMM_MR, mc - ir);
+                        int dst = ir * kc;
+                        for (int p = 0; p < kc; p++) {
+                            for (int ii = 0; ii < GEMM_MR; ii++) {
+                                if (ii < mr) {
+                                    int row = ic + ir + ii, col = pc + p;
+                                    packedA[dst++] = alpha * (ta ? a[aIdx + col + row * lda] : a[aIdx + row + col * lda]);
+                                } else {
+                                    packedA[dst++] = 0.0;
+                                }
+                            }
+                        }
+                    }
+
+                    for (int jr = 0; jr < nc; jr += GEMM_NR) {
+                        int nr = Math.min(GEMM_NR, nc - jr);
+                        for (int ir = 0; ir < mc; ir += GEMM_MR) {
+                            int mr = Math.min(GEMM_MR, mc - ir);
+                            gemmKernel(kc, packedA, ir * kc, packedB, jr * kc,
+                                    c, cIdx + (ic + ir) + (jc + jr) * ldc, ldc, mr, nr);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** 4x4 micro kernel: c[0:mr, 0:nr] += packed a sliver * packed b sliver. */
+    private static void gemmKernel(int kc, double[] pa, int pai, double[] pb, int pbi,
+                                   double[] c, int ci, int ldc, int mr, int nr) {
+        double c00 = 0.0, c10 = 0.0, c20 = 0.0, c30 = 0.0;
+        double c01 = 0.0, c11 = 0.0, c21 = 0.0, c31 = 0.0;
+        double c02 = 0.0, c12 = 0.0, c22 = 0.0, c32 = 0.0;
+        double c03 = 0.0, c13 = 0.0, c23 = 0.0, c33 = 0.0;
+
+        for (int p = 0; p < kc; p++, pai += 4, pbi += 4) {
+            double a0 = pa[pai], a1 = pa[pai + 1], a2 = pa[pai + 2], a3 = pa[pai + 3];
+            double b0 = pb[pbi], b1 = pb[pbi + 1], b2 = pb[pbi + 2], b3 = pb[pbi + 3];
+            c00 += a0 * b0; c10 += a1 * b0; c20 += a2 * b0; c30 += a3 * b0;
+            c01 += a0 * b1; c11 += a1 * b1; c21 += a2 * b1; c31 += a3 * b1;
+            c02 += a0 * b2; c12 += a1 * b2; c22 += a2 * b2; c32 += a3 * b2;
+            c03 += a0 * b3; c13 += a1 * b3; c23 += a2 * b3; c33 += a3 * b3;
+        }
+
+        if (mr == 4 && nr == 4) {
+            c[ci] += c00; c[ci + 1] += c10; c[ci + 2] += c20; c[ci + 3] += c30;
+            ci += ldc;
+            c[ci] += c01; c[ci + 1] += c11; c[ci + 2] += c21; c[ci + 3] += c31;
+            ci += ldc;
+            c[ci] += c02; c[ci + 1] += c12; c[ci + 2] += c22; c[ci + 3] += c32;
+            ci += ldc;
+            c[ci] += c03; c[ci + 1] += c13; c[ci + 2] += c23; c[ci + 3] += c33;
+        } else {
+            double[] r = {c00, c10, c20, c30, c01, c11, c21, c31,
+                          c02, c12, c22, c32, c03, c13, c23, c33};
+            for (int jj = 0; jj < nr; jj++)
+                for (int ii = 0; ii < mr; ii++)
+                    c[ci + ii + jj * ldc] += r[ii + 4 * jj];
+        }
+    }
+
+    /**
+     * <p>Compute b &lt;- a<sup>T</sup>, where a is an m * n matrix and b an n * m matrix
+     * with leading dimensions lda and ldb. The matrix is split recursively
+     * into blocks which fit into the cache. Large matrices are transposed in
+     * parallel over blocks of rows of a (see {@link Parallel}).</p>
+     */
+    public static void rtranspose(final int m, final int n, final double[] a, final int aIdx, final int lda,
+                                  final double[] b, final int bIdx, final int ldb) {
+        if (Parallel.isParallel((long) m * n) && m > TRANSPOSE_BLOCK) {
+            Parallel.forRange(m, TRANSPOSE_BLOCK, new Parallel.RangeBody() {
+                public void run(int i0, int i1) {
+                    transposeBlock(i0, i1, 0, n, a, aIdx, lda, b, bIdx, ldb);
+                }
+            });
+        } else {
+            transposeBlock(0, m, 0, n, a, aIdx, lda, b, bIdx, ldb);
+        }
+    }
+
+    /** Transpose rows i0 to i1 and columns j0 to j1 of a into b, splitting the larger dimension in half. */
+    private static void transposeBlock(int i0, int i1, int j0, int j1, double[] a, int aIdx, int lda,
+                                       double[] b, int bIdx, int ldb) {
+        while (i1 - i0 > TRANSPOSE_BLOCK || j1 - j0 > TRANSPOSE_BLOCK) {
+            if (i1 - i0 >= j1 - j0) {
+                int im = (i0 + i1) >>> 1;
+                transposeBlock(i0, im, j0, j1, a, aIdx, lda, b, bIdx, ldb);
+                i0 = im;
+            } else {
+                int jm = (j0 + j1) >>> 1;
+                transposeBlock(i0, i1, j0, jm, a, aIdx, lda, b, bIdx, ldb);
+                j0 = jm;
+            }
+        }
+        for (int j = j0; j < j1; j++) {
+            int aj = aIdx + j * lda;
+            int bj = bIdx + j;
+            for (int i = i0; i < i1; i++)
+                b[bj + i * ldb] = a[aj + i];
+        }
+    }
+
+    /**
+     * <p>Transpose the m * n matrix stored without gaps at a[aIdx] in-place, such
+     * that it holds the n * m transpose afterwards.</p>
+     *
+     * <p>Square matrices are transposed by swapping blocks. Other matrices are
+     * permuted by following the cycles of the permutation, which needs one bit
+     * per element to mark the elements which have already been moved.</p>
+     */
+    public static void rtransposei(int m, int n, double[] a, int aIdx) {
+        if (m <= 1 || n <= 1)
+            return;
+
+        if (m == n) {
+            for (int i0 = 0; i0 < n; i0 += TRANSPOSE_BLOCK) {
+                int i1 = Math.min(n, i0 + TRANSPOSE_BLOCK);
+                for (int j0 = i0; j0 < n; j0 += TRANSPOSE_BLOCK) {
+                    int j1 = Math.min(n, j0 + TRANSPOSE_BLOCK);
+                    for (int j = j0; j < j1; j++) {
+                        for (int i = i0; i < Math.min(i1, j); i++) {
+                            int ij = aIdx + i + j * n;
+                            int ji = aIdx + j + i * n;
+                            double t = a[ij];
+                            a[ij] = a[ji];
+                            a[ji] = t;
+                        }
+                    }
+                }
+            }
+            return;
+        }
+
+        // the element at k = i + j * m moves to j + i * n = k * n mod (m * n - 1)
+        long last = (long) m * n - 1;
+        BitSet moved = new BitSet((int) last);
+        for (int start = 1; start < last; start = moved.nextClearBit(start + 1)) {
+            int k = start;
+            double t = a[aIdx + k];
+            do {
+                int next = (int) (k * (long) n % last);
+                double u = a[aIdx + next];
+                a[aIdx + next] = t;
+                t = u;
+                moved.set(next);
+                k = next;
+            } while (k != start);
+        }
+    }
+
+//STOP
+    /** Block sizes for rgemm: rows of a block of a, shared dimension, and columns of a panel of b. */
+    private static final int GEMM_MC = 128;
+    private static final int GEMM_KC = 256;
+    private static final int GEMM_NC = 1024;
+    /** Size of the register blocks in rgemm. */
+    private static final int GEMM_MR = 4;
+    private static final int GEMM_NR = 4;
+    /** Maximum number of multiply-adds for which rgemm skips packing and blocking. */
+    private static final long GEMM_SMALL_THRESHOLD = 32L * 32 * 32;
+    /** Minimum number of multiply-adds before rgemm runs in parallel. */
+    private static final long GEMM_PARALLEL_THRESHOLD = 64L * 64 * 64;
+    /** Size of the blocks rtranspose and rtransposei work on. */
+    private static final int TRANSPOSE_BLOCK = 32;
+
+    private static int roundUp(int n, int multiple) {
+        return (n + multiple - 1) / multiple * multiple;
+    }
+
+    private static boolean isTransposed(char trans) {
+        switch (trans) {
+            case 'N': case 'n':
+                return false;
+            case 'T': case 't': case 'C': case 'c':
+                return true;
+            default:
+                throw new IllegalArgumentException("Illegal value for trans: '" + trans + "'");
+        }
+    }
+//START
 //BEGIN
   // The code below has been automatically generated.
   // DO NOT EDIT!
@@ -282,5 +843,533 @@ public class JavaBlas {
         }
         return s;
     }
+
+    /** Compute dx <- da * dx. */
+    public static void rscal(int n, float da, float[] dx, int dxIdx, int incx) {
+        for (int c = 0, xi = dxIdx; c < n; c++, xi += incx) {
+            dx[xi] *= da;
+        }
+    }
+
+    /** Compute the 2-norm of dx, scaling to avoid overflow and underflow. */
+    public static float rnrm2(int n, float[] dx, int dxIdx, int incx) {
+        float scale = 0.0f;
+        float ssq = 1.0f;
+        for (int c = 0, xi = dxIdx; c < n; c++, xi += incx) {
+            if (dx[xi] != 0.0f) {
+                float absxi = Math.abs(dx[xi]);
+                if (scale < absxi) {
+                    ssq = 1.0f + ssq * (scale / absxi) * (scale / absxi);
+                    scale = absxi;
+                } else {
+                    ssq += (absxi / scale) * (absxi / scale);
+                }
+            }
+        }
+        return scale * (float) Math.sqrt(ssq);
+    }
+
+    /** Compute the sum of the absolute values of dx. */
+    public static float rasum(int n, float[] dx, int dxIdx, int incx) {
+        float s = 0.0f;
+        for (int c = 0, xi = dxIdx; c < n; c++, xi += incx) {
+            s += Math.abs(dx[xi]);
+        }
+        return s;
+    }
+
+    /** Compute the index of the element of dx with the largest absolute value (1-based as in BLAS). */
+    public static int iramax(int n, float[] dx, int dxIdx, int incx) {
+        if (n < 1)
+            return 0;
+        int result = 1;
+        float max = Math.abs(dx[dxIdx]);
+        for (int c = 1, xi = dxIdx + incx; c < n; c++, xi += incx) {
+            float v = Math.abs(dx[xi]);
+            if (v > max) {
+                max = v;
+                result = c + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute y &lt;- alpha * op(a) * x + beta * y (general matrix vector
+     * multiplication), where op(a) is a for trans = 'N' and a^T for 'T' or 'C'.
+     */
+    public static void rgemv(char trans, int m, int n, float alpha, float[] a, int aIdx, int lda,
+                             float[] x, int xIdx, int incx, float beta, float[] y, int yIdx, int incy) {
+        boolean t = isTransposed(trans);
+        int leny = t ? n : m;
+        int lenx = t ? m : n;
+
+        if (beta != 1.0f) {
+            for (int c = 0, yi = yIdx; c < leny; c++, yi += incy)
+                y[yi] = beta == 0.0f ? 0.0f : beta * y[yi];
+        }
+
+        if (alpha == 0.0f)
+            return;
+
+        if (!t) {
+            // y += alpha * a * x, going through a column by column
+            for (int j = 0, xj = xIdx; j < lenx; j++, xj += incx) {
+                float temp = alpha * x[xj];
+                if (temp != 0.0f) {
+                    int aj = aIdx + j * lda;
+                    for (int i = 0, yi = yIdx; i < m; i++, yi += incy)
+                        y[yi] += temp * a[aj + i];
+                }
+            }
+        } else {
+            // y += alpha * a^T * x, one dot product per column of a
+            for (int j = 0, yj = yIdx; j < leny; j++, yj += incy) {
+                int aj = aIdx + j * lda;
+                float temp = 0.0f;
+                for (int i = 0, xi = xIdx; i < m; i++, xi += incx)
+                    temp += a[aj + i] * x[xi];
+                y[yj] += alpha * temp;
+            }
+        }
+    }
+
+    /** Compute a &lt;- alpha * x * y^T + a (general rank-1 update). */
+    public static void rger(int m, int n, float alpha, float[] x, int xIdx, int incx,
+                            float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+        for (int j = 0, yj = yIdx; j < n; j++, yj += incy) {
+            float temp = alpha * y[yj];
+            if (temp != 0.0f) {
+                int aj = aIdx + j * lda;
+                for (int i = 0, xi = xIdx; i < m; i++, xi += incx)
+                    a[aj + i] += x[xi] * temp;
+            }
+        }
+    }
+
+    /**
+     * Compute c &lt;- alpha * op(a) * op(b) + beta * c (general matrix matrix
+     * multiplication), where op(x) is x for trans = 'N' and x^T for 'T' or 'C'.
+     *
+     * <p>The matrices are stored in column major order with leading dimensions
+     * lda, ldb, and ldc as in the native BLAS. The computation is blocked for
+     * the caches, packs blocks of a and b into contiguous buffers, uses 4x4
+     * register blocks in the inner loop, and runs in parallel over
+     * panels of columns of c for larger matrices. Small untransposed products
+     * are computed directly, with fully unrolled kernels up to 4x4.</p>
+     */
+    public static void rgemm(char transa, char transb, int m, int n, int k,
+                             final float alpha, final float[] a, final int aIdx, final int lda,
+                             final float[] b, final int bIdx, final int ldb,
+                             float beta, final float[] c, final int cIdx, final int ldc) {
+        final boolean ta = isTransposed(transa);
+        final boolean tb = isTransposed(transb);
+        final int fm = m, fk = k;
+
+        if (m == 0 || n == 0)
+            return;
+
+        if (!ta && !tb && (long) m * n * k <= GEMM_SMALL_THRESHOLD) {
+            gemmSmall(m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+            return;
+        }
+
+        // c <- beta * c
+        if (beta != 1.0f) {
+            for (int j = 0; j < n; j++) {
+                int cj = cIdx + j * ldc;
+                if (beta == 0.0f) {
+                    for (int i = 0; i < m; i++)
+                        c[cj + i] = 0.0f;
+                } else {
+                    for (int i = 0; i < m; i++)
+                        c[cj + i] *= beta;
+                }
+            }
+        }
+
+        if (k == 0 || alpha == 0.0f)
+            return;
+
+        if ((long) m * n * k < GEMM_PARALLEL_THRESHOLD || n <= GEMM_NR) {
+            gemmPanel(ta, tb, m, 0, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, c, cIdx, ldc);
+        } else {
+            Parallel.forRange(n, GEMM_NR, new Parallel.RangeBody() {
+                public void run(int j0, int j1) {
+                    gemmPanel(ta, tb, fm, j0, j1, fk, alpha, a, aIdx, lda, b, bIdx, ldb, c, cIdx, ldc);
+                }
+            });
+        }
+    }
+
+    /**
+     * Compute c &lt;- alpha * a * b + beta * c for small matrices directly,
+     * without packing and blocking for the caches. Square matrices up to 4x4 use
+     * fully unrolled kernels, larger ones 4x4 register blocks read in place.
+     */
+    private static void gemmSmall(int m, int n, int k, float alpha, float[] a, int aIdx, int lda,
+                                  float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc) {
+        if (m == n && n == k && alpha != 0.0f) {
+            switch (m) {
+                case 2:
+                    gemm2x2(alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+                    return;
+                case 3:
+                    gemm3x3(alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+                    return;
+                case 4:
+                    gemm4x4(alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+                    return;
+            }
+        }
+
+        for (int j = 0; j < n; j += GEMM_NR) {
+            int nr = Math.min(GEMM_NR, n - j);
+            for (int i = 0; i < m; i += GEMM_MR) {
+                int mr = Math.min(GEMM_MR, m - i);
+                int ai = aIdx + i;
+                int bj = bIdx + j * ldb;
+                int cij = cIdx + i + j * ldc;
+                if (mr == GEMM_MR && nr == GEMM_NR) {
+                    gemmSmallBlock(k, alpha, a, ai, lda, b, bj, ldb, beta, c, cij, ldc);
+                } else {
+                    for (int jj = 0; jj < nr; jj++) {
+                        for (int ii = 0; ii < mr; ii++) {
+                            float s = 0.0f;
+                            for (int l = 0; l < k; l++)
+                                s += a[ai + ii + l * lda] * b[bj + jj * ldb + l];
+                            int cc = cij + ii + jj * ldc;
+                            c[cc] = beta == 0.0f ? alpha * s : alpha * s + beta * c[cc];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** One 4x4 block of c &lt;- alpha * a * b + beta * c with a and b read in place. */
+    private static void gemmSmallBlock(int k, float alpha, float[] a, int aIdx, int lda,
+                                       float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc) {
+        float c00 = 0.0f, c01 = 0.0f, c02 = 0.0f, c03 = 0.0f;
+        float c10 = 0.0f, c11 = 0.0f, c12 = 0.0f, c13 = 0.0f;
+        float c20 = 0.0f, c21 = 0.0f, c22 = 0.0f, c23 = 0.0f;
+        float c30 = 0.0f, c31 = 0.0f, c32 = 0.0f, c33 = 0.0f;
+        int b1 = bIdx + ldb, b2 = b1 + ldb, b3 = b2 + ldb;
+
+        for (int l = 0, al = aIdx; l < k; l++, al += lda) {
+            float a0 = a[al], a1 = a[al + 1], a2 = a[al + 2], a3 = a[al + 3];
+            float b0l = b[bIdx + l], b1l = b[b1 + l], b2l = b[b2 + l], b3l = b[b3 + l];
+            c00 += a0 * b0l; c01 += a0 * b1l; c02 += a0 * b2l; c03 += a0 * b3l;
+            c10 += a1 * b0l; c11 += a1 * b1l; c12 += a1 * b2l; c13 += a1 * b3l;
+            c20 += a2 * b0l; c21 += a2 * b1l; c22 += a2 * b2l; c23 += a2 * b3l;
+            c30 += a3 * b0l; c31 += a3 * b1l; c32 += a3 * b2l; c33 += a3 * b3l;
+        }
+
+        int c1 = cIdx + ldc, c2 = c1 + ldc, c3 = c2 + ldc;
+        if (beta == 0.0f) {
+            c[cIdx] = alpha * c00; c[cIdx + 1] = alpha * c10; c[cIdx + 2] = alpha * c20; c[cIdx + 3] = alpha * c30;
+            c[c1] = alpha * c01; c[c1 + 1] = alpha * c11; c[c1 + 2] = alpha * c21; c[c1 + 3] = alpha * c31;
+            c[c2] = alpha * c02; c[c2 + 1] = alpha * c12; c[c2 + 2] = alpha * c22; c[c2 + 3] = alpha * c32;
+            c[c3] = alpha * c03; c[c3 + 1] = alpha * c13; c[c3 + 2] = alpha * c23; c[c3 + 3] = alpha * c33;
+        } else {
+            c[cIdx] = alpha * c00 + beta * c[cIdx]; c[cIdx + 1] = alpha * c10 + beta * c[cIdx + 1];
+            c[cIdx + 2] = alpha * c20 + beta * c[cIdx + 2]; c[cIdx + 3] = alpha * c30 + beta * c[cIdx + 3];
+            c[c1] = alpha * c01 + beta * c[c1]; c[c1 + 1] = alpha * c11 + beta * c[c1 + 1];
+            c[c1 + 2] = alpha * c21 + beta * c[c1 + 2]; c[c1 + 3] = alpha * c31 + beta * c[c1 + 3];
+            c[c2] = alpha * c02 + beta * c[c2]; c[c2 + 1] = alpha * c12 + beta * c[c2 + 1];
+            c[c2 + 2] = alpha * c22 + beta * c[c2 + 2]; c[c2 + 3] = alpha * c32 + beta * c[c2 + 3];
+            c[c3] = alpha * c03 + beta * c[c3]; c[c3 + 1] = alpha * c13 + beta * c[c3 + 1];
+            c[c3 + 2] = alpha * c23 + beta * c[c3 + 2]; c[c3 + 3] = alpha * c33 + beta * c[c3 + 3];
+        }
+    }
+
+    /** Fully unrolled c &lt;- alpha * a * b + beta * c for 2x2 matrices. */
+    private static void gemm2x2(float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb,
+                                float beta, float[] c, int cIdx, int ldc) {
+        float a00 = a[aIdx], a10 = a[aIdx + 1];
+        float a01 = a[aIdx + lda], a11 = a[aIdx + lda + 1];
+        float b00 = b[bIdx], b10 = b[bIdx + 1];
+        float b01 = b[bIdx + ldb], b11 = b[bIdx + ldb + 1];
+
+        if (beta == 0.0f) {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10);
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10);
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11);
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11);
+        } else {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10) + beta * c[cIdx];
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10) + beta * c[cIdx + 1];
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11) + beta * c[cIdx + ldc];
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11) + beta * c[cIdx + ldc + 1];
+        }
+    }
+
+    /** Fully unrolled c &lt;- alpha * a * b + beta * c for 3x3 matrices. */
+    private static void gemm3x3(float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb,
+                                float beta, float[] c, int cIdx, int ldc) {
+        float a00 = a[aIdx], a10 = a[aIdx + 1], a20 = a[aIdx + 2];
+        float a01 = a[aIdx + lda], a11 = a[aIdx + lda + 1], a21 = a[aIdx + lda + 2];
+        float a02 = a[aIdx + 2 * lda], a12 = a[aIdx + 2 * lda + 1], a22 = a[aIdx + 2 * lda + 2];
+        float b00 = b[bIdx], b10 = b[bIdx + 1], b20 = b[bIdx + 2];
+        float b01 = b[bIdx + ldb], b11 = b[bIdx + ldb + 1], b21 = b[bIdx + ldb + 2];
+        float b02 = b[bIdx + 2 * ldb], b12 = b[bIdx + 2 * ldb + 1], b22 = b[bIdx + 2 * ldb + 2];
+
+        if (beta == 0.0f) {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20);
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20);
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20);
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21);
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21);
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21);
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22);
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22);
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22);
+        } else {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20) + beta * c[cIdx];
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20) + beta * c[cIdx + 1];
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20) + beta * c[cIdx + 2];
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21) + beta * c[cIdx + ldc];
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21) + beta * c[cIdx + ldc + 1];
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21) + beta * c[cIdx + ldc + 2];
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22) + beta * c[cIdx + 2 * ldc];
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22) + beta * c[cIdx + 2 * ldc + 1];
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22) + beta * c[cIdx + 2 * ldc + 2];
+        }
+    }
+
+    /** Fully unrolled c &lt;- alpha * a * b + beta * c for 4x4 matrices. */
+    private static void gemm4x4(float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb,
+                                float beta, float[] c, int cIdx, int ldc) {
+        float a00 = a[aIdx], a10 = a[aIdx + 1], a20 = a[aIdx + 2], a30 = a[aIdx + 3];
+        float a01 = a[aIdx + lda], a11 = a[aIdx + lda + 1], a21 = a[aIdx + lda + 2], a31 = a[aIdx + lda + 3];
+        float a02 = a[aIdx + 2 * lda], a12 = a[aIdx + 2 * lda + 1], a22 = a[aIdx + 2 * lda + 2], a32 = a[aIdx + 2 * lda + 3];
+        float a03 = a[aIdx + 3 * lda], a13 = a[aIdx + 3 * lda + 1], a23 = a[aIdx + 3 * lda + 2], a33 = a[aIdx + 3 * lda + 3];
+        float b00 = b[bIdx], b10 = b[bIdx + 1], b20 = b[bIdx + 2], b30 = b[bIdx + 3];
+        float b01 = b[bIdx + ldb], b11 = b[bIdx + ldb + 1], b21 = b[bIdx + ldb + 2], b31 = b[bIdx + ldb + 3];
+        float b02 = b[bIdx + 2 * ldb], b12 = b[bIdx + 2 * ldb + 1], b22 = b[bIdx + 2 * ldb + 2], b32 = b[bIdx + 2 * ldb + 3];
+        float b03 = b[bIdx + 3 * ldb], b13 = b[bIdx + 3 * ldb + 1], b23 = b[bIdx + 3 * ldb + 2], b33 = b[bIdx + 3 * ldb + 3];
+
+        if (beta == 0.0f) {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30);
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30);
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30);
+            c[cIdx + 3] = alpha * (a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30);
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31);
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31);
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31);
+            c[cIdx + ldc + 3] = alpha * (a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31);
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32);
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32);
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32);
+            c[cIdx + 2 * ldc + 3] = alpha * (a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32);
+            c[cIdx + 3 * ldc] = alpha * (a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33);
+            c[cIdx + 3 * ldc + 1] = alpha * (a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33);
+            c[cIdx + 3 * ldc + 2] = alpha * (a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33);
+            c[cIdx + 3 * ldc + 3] = alpha * (a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33);
+        } else {
+            c[cIdx] = alpha * (a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30) + beta * c[cIdx];
+            c[cIdx + 1] = alpha * (a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30) + beta * c[cIdx + 1];
+            c[cIdx + 2] = alpha * (a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30) + beta * c[cIdx + 2];
+            c[cIdx + 3] = alpha * (a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30) + beta * c[cIdx + 3];
+            c[cIdx + ldc] = alpha * (a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31) + beta * c[cIdx + ldc];
+            c[cIdx + ldc + 1] = alpha * (a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31) + beta * c[cIdx + ldc + 1];
+            c[cIdx + ldc + 2] = alpha * (a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31) + beta * c[cIdx + ldc + 2];
+            c[cIdx + ldc + 3] = alpha * (a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31) + beta * c[cIdx + ldc + 3];
+            c[cIdx + 2 * ldc] = alpha * (a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32) + beta * c[cIdx + 2 * ldc];
+            c[cIdx + 2 * ldc + 1] = alpha * (a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32) + beta * c[cIdx + 2 * ldc + 1];
+            c[cIdx + 2 * ldc + 2] = alpha * (a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32) + beta * c[cIdx + 2 * ldc + 2];
+            c[cIdx + 2 * ldc + 3] = alpha * (a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32) + beta * c[cIdx + 2 * ldc + 3];
+            c[cIdx + 3 * ldc] = alpha * (a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33) + beta * c[cIdx + 3 * ldc];
+            c[cIdx + 3 * ldc + 1] = alpha * (a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33) + beta * c[cIdx + 3 * ldc + 1];
+            c[cIdx + 3 * ldc + 2] = alpha * (a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33) + beta * c[cIdx + 3 * ldc + 2];
+            c[cIdx + 3 * ldc + 3] = alpha * (a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33) + beta * c[cIdx + 3 * ldc + 3];
+        }
+    }
+
+    /** Compute columns j0 to j1 - 1 of c += alpha * op(a) * op(b). */
+    private static void gemmPanel(boolean ta, boolean tb, int m, int j0, int j1, int k,
+                                  float alpha, float[] a, int aIdx, int lda,
+                                  float[] b, int bIdx, int ldb,
+                                  float[] c, int cIdx, int ldc) {
+        int kcMax = Math.min(GEMM_KC, k);
+        float[] packedA = new float[roundUp(Math.min(GEMM_MC, m), GEMM_MR) * kcMax];
+        float[] packedB = new float[roundUp(Math.min(GEMM_NC, j1 - j0), GEMM_NR) * kcMax];
+
+        for (int jc = j0; jc < j1; jc += GEMM_NC) {
+            int nc = Math.min(GEMM_NC, j1 - jc);
+            for (int pc = 0; pc < k; pc += GEMM_KC) {
+                int kc = Math.min(GEMM_KC, k - pc);
+
+                // pack kc x nc block of op(b) into slivers of GEMM_NR columns
+                for (int jr = 0; jr < nc; jr += GEMM_NR) {
+                    int nr = Math.min(GEMM_NR, nc - jr);
+                    int dst = jr * kc;
+                    for (int p = 0; p < kc; p++) {
+                        for (int jj = 0; jj < GEMM_NR; jj++) {
+                            if (jj < nr) {
+                                int col = jc + jr + jj, row = pc + p;
+                                packedB[dst++] = tb ? b[bIdx + col + row * ldb] : b[bIdx + row + col * ldb];
+                            } else {
+                                packedB[dst++] = 0.0f;
+                            }
+                        }
+                    }
+                }
+
+                for (int ic = 0; ic < m; ic += GEMM_MC) {
+                    int mc = Math.min(GEMM_MC, m - ic);
+
+                    // pack alpha * (mc x kc block of op(a)) into slivers of GEMM_MR rows
+                    for (int ir = 0; ir < mc; ir += GEMM_MR) {
+                        int mr = Math.min(GEMM_MR, mc - ir);
+                        int dst = ir * kc;
+                        for (int p = 0; p < kc; p++) {
+                            for (int ii = 0; ii < GEMM_MR; ii++) {
+                                if (ii < mr) {
+                                    int row = ic + ir + ii, col = pc + p;
+                                    packedA[dst++] = alpha * (ta ? a[aIdx + col + row * lda] : a[aIdx + row + col * lda]);
+                                } else {
+                                    packedA[dst++] = 0.0f;
+                                }
+                            }
+                        }
+                    }
+
+                    for (int jr = 0; jr < nc; jr += GEMM_NR) {
+                        int nr = Math.min(GEMM_NR, nc - jr);
+                        for (int ir = 0; ir < mc; ir += GEMM_MR) {
+                            int mr = Math.min(GEMM_MR, mc - ir);
+                            gemmKernel(kc, packedA, ir * kc, packedB, jr * kc,
+                                    c, cIdx + (ic + ir) + (jc + jr) * ldc, ldc, mr, nr);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** 4x4 micro kernel: c[0:mr, 0:nr] += packed a sliver * packed b sliver. */
+    private static void gemmKernel(int kc, float[] pa, int pai, float[] pb, int pbi,
+                                   float[] c, int ci, int ldc, int mr, int nr) {
+        float c00 = 0.0f, c10 = 0.0f, c20 = 0.0f, c30 = 0.0f;
+        float c01 = 0.0f, c11 = 0.0f, c21 = 0.0f, c31 = 0.0f;
+        float c02 = 0.0f, c12 = 0.0f, c22 = 0.0f, c32 = 0.0f;
+        float c03 = 0.0f, c13 = 0.0f, c23 = 0.0f, c33 = 0.0f;
+
+        for (int p = 0; p < kc; p++, pai += 4, pbi += 4) {
+            float a0 = pa[pai], a1 = pa[pai + 1], a2 = pa[pai + 2], a3 = pa[pai + 3];
+            float b0 = pb[pbi], b1 = pb[pbi + 1], b2 = pb[pbi + 2], b3 = pb[pbi + 3];
+            c00 += a0 * b0; c10 += a1 * b0; c20 += a2 * b0; c30 += a3 * b0;
+            c01 += a0 * b1; c11 += a1 * b1; c21 += a2 * b1; c31 += a3 * b1;
+            c02 += a0 * b2; c12 += a1 * b2; c22 += a2 * b2; c32 += a3 * b2;
+            c03 += a0 * b3; c13 += a1 * b3; c23 += a2 * b3; c33 += a3 * b3;
+        }
+
+        if (mr == 4 && nr == 4) {
+            c[ci] += c00; c[ci + 1] += c10; c[ci + 2] += c20; c[ci + 3] += c30;
+            ci += ldc;
+            c[ci] += c01; c[ci + 1] += c11; c[ci + 2] += c21; c[ci + 3] += c31;
+            ci += ldc;
+            c[ci] += c02; c[ci + 1] += c12; c[ci + 2] += c22; c[ci + 3] += c32;
+            ci += ldc;
+            c[ci] += c03; c[ci + 1] += c13; c[ci + 2] += c23; c[ci + 3] += c33;
+        } else {
+            float[] r = {c00, c10, c20, c30, c01, c11, c21, c31,
+                          c02, c12, c22, c32, c03, c13, c23, c33};
+            for (int jj = 0; jj < nr; jj++)
+                for (int ii = 0; ii < mr; ii++)
+                    c[ci + ii + jj * ldc] += r[ii + 4 * jj];
+        }
+    }
+
+    /**
+     * <p>Compute b &lt;- a<sup>T</sup>, where a is an m * n matrix and b an n * m matrix
+     * with leading dimensions lda and ldb. The matrix is split recursively
+     * into blocks which fit into the cache. Large matrices are transposed in
+     * parallel over blocks of rows of a (see {@link Parallel}).</p>
+     */
+    public static void rtranspose(final int m, final int n, final float[] a, final int aIdx, final int lda,
+                                  final float[] b, final int bIdx, final int ldb) {
+        if (Parallel.isParallel((long) m * n) && m > TRANSPOSE_BLOCK) {
+            Parallel.forRange(m, TRANSPOSE_BLOCK, new Parallel.RangeBody() {
+                public void run(int i0, int i1) {
+                    transposeBlock(i0, i1, 0, n, a, aIdx, lda, b, bIdx, ldb);
+                }
+            });
+        } else {
+            transposeBlock(0, m, 0, n, a, aIdx, lda, b, bIdx, ldb);
+        }
+    }
+
+    /** Transpose rows i0 to i1 and columns j0 to j1 of a into b, splitting the larger dimension in half. */
+    private static void transposeBlock(int i0, int i1, int j0, int j1, float[] a, int aIdx, int lda,
+                                       float[] b, int bIdx, int ldb) {
+        while (i1 - i0 > TRANSPOSE_BLOCK || j1 - j0 > TRANSPOSE_BLOCK) {
+            if (i1 - i0 >= j1 - j0) {
+                int im = (i0 + i1) >>> 1;
+                transposeBlock(i0, im, j0, j1, a, aIdx, lda, b, bIdx, ldb);
+                i0 = im;
+            } else {
+                int jm = (j0 + j1) >>> 1;
+                transposeBlock(i0, i1, j0, jm, a, aIdx, lda, b, bIdx, ldb);
+                j0 = jm;
+            }
+        }
+        for (int j = j0; j < j1; j++) {
+            int aj = aIdx + j * lda;
+            int bj = bIdx + j;
+            for (int i = i0; i < i1; i++)
+                b[bj + i * ldb] = a[aj + i];
+        }
+    }
+
+    /**
+     * <p>Transpose the m * n matrix stored without gaps at a[aIdx] in-place, such
+     * that it holds the n * m transpose afterwards.</p>
+     *
+     * <p>Square matrices are transposed by swapping blocks. Other matrices are
+     * permuted by following the cycles of the permutation, which needs one bit
+     * per element to mark the elements which have already been moved.</p>
+     */
+    public static void rtransposei(int m, int n, float[] a, int aIdx) {
+        if (m <= 1 || n <= 1)
+            return;
+
+        if (m == n) {
+            for (int i0 = 0; i0 < n; i0 += TRANSPOSE_BLOCK) {
+                int i1 = Math.min(n, i0 + TRANSPOSE_BLOCK);
+                for (int j0 = i0; j0 < n; j0 += TRANSPOSE_BLOCK) {
+                    int j1 = Math.min(n, j0 + TRANSPOSE_BLOCK);
+                    for (int j = j0; j < j1; j++) {
+                        for (int i = i0; i < Math.min(i1, j); i++) {
+                            int ij = aIdx + i + j * n;
+                            int ji = aIdx + j + i * n;
+                            float t = a[ij];
+                            a[ij] = a[ji];
+                            a[ji] = t;
+                        }
+                    }
+                }
+            }
+            return;
+        }
+
+        // the element at k = i + j * m moves to j + i * n = k * n mod (m * n - 1)
+        long last = (long) m * n - 1;
+        BitSet moved = new BitSet((int) last);
+        for (int start = 1; start < last; start = moved.nextClearBit(start + 1)) {
+            int k = start;
+            float t = a[aIdx + k];
+            do {
+                int next = (int) (k * (long) n % last);
+                float u = a[aIdx + next];
+                a[aIdx + next] = t;
+                t = u;
+                moved.set(next);
+                k = next;
+            } while (k != start);
+        }
+    }
+
 //END
 }
@@ -0,0 +1,124 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+/**
+ * BLAS backend which computes the real BLAS routines in Java.
+ *
+ * <p>All level 1, 2, and 3 routines for real vectors and matrices are
+ * computed by {@link JavaBlas}, so that they run without the native libraries
+ * and without the cost of copying the arrays for a JNI call. This is usually
+ * faster for small vectors and matrices. The routines for complex numbers
+ * and the LAPACK routines are inherited from {@link NativeBlasBackend}
+ * and still need the native libraries.</p>
+ */
+public class JavaBlasBackend extends NativeBlasBackend {
+  @Override
+  public String getName() {
+    return "java";
+  }
+
+  @Override
+  public void dscal(int n, double da, double[] dx, int dxIdx, int incx) {
+    JavaBlas.rscal(n, da, dx, dxIdx, incx);
+  }
+
+  @Override
+  public void sscal(int n, float sa, float[] sx, int sxIdx, int incx) {
+    JavaBlas.rscal(n, sa, sx, sxIdx, incx);
+  }
+
+  @Override
+  public double dnrm2(int n, double[] x, int xIdx, int incx) {
+    return JavaBlas.rnrm2(n, x, xIdx, incx);
+  }
+
+  @Override
+  public float snrm2(int n, float[] x, int xIdx, int incx) {
+    return JavaBlas.rnrm2(n, x, xIdx, incx);
+  }
+
+  @Override
+  public double dasum(int n, double[] dx, int dxIdx, int incx) {
+    return JavaBlas.rasum(n, dx, dxIdx, incx);
+  }
+
+  @Override
+  public float sasum(int n, float[] sx, int sxIdx, int incx) {
+    return JavaBlas.rasum(n, sx, sxIdx, incx);
+  }
+
+  @Override
+  public int idamax(int n, double[] dx, int dxIdx, int incx) {
+    return JavaBlas.iramax(n, dx, dxIdx, incx);
+  }
+
+  @Override
+  public int isamax(int n, float[] sx, int sxIdx, int incx) {
+    return JavaBlas.iramax(n, sx, sxIdx, incx);
+  }
+
+  @Override
+  public void dgemv(char trans, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] x, int xIdx, int incx, double beta, double[] y, int yIdx, int incy) {
+    JavaBlas.rgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+  }
+
+  @Override
+  public void sgemv(char trans, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] x, int xIdx, int incx, float beta, float[] y, int yIdx, int incy) {
+    JavaBlas.rgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+  }
+
+  @Override
+  public void dger(int m, int n, double alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    JavaBlas.rger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  @Override
+  public void sger(int m, int n, float alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    JavaBlas.rger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  @Override
+  public void dgemm(char transa, char transb, int m, int n, int k, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc) {
+    JavaBlas.rgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+
+  @Override
+  public void sgemm(char transa, char transb, int m, int n, int k, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc) {
+    JavaBlas.rgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+}
@@ -0,0 +1,409 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>A matrix stored in a file which is mapped into memory, for matrices larger than the heap.</p>
+ *
+ * <p>The file has the same layout as the files written by {@link FloatMatrix#save}, so
+ * such files can be mapped, and matrices created here can be read with
+ * {@link FloatMatrix#load} if they fit on the heap:</p>
+ *
+ * <ol>
+ * <li>the type name "float", as written by DataOutput.writeUTF (a two byte length
+ * followed by the characters),</li>
+ * <li>the number of columns, rows and elements as big endian ints, where the number of
+ * elements is -1 if it is larger than Integer.MAX_VALUE,</li>
+ * <li>the elements in column major order as big endian floats, starting at
+ * {@link #HEADER_SIZE}.</li>
+ * </ol>
+ *
+ * <p>The file is mapped with FileChannel.map in segments of whole columns, each smaller
+ * than 2GB, so the number of elements is only limited by the file system. Single
+ * elements can be read and written with get and put. Computations work on blocks of
+ * columns, which are copied into ordinary matrices on the heap with
+ * {@link #getColumns(int, int, FloatMatrix)} and can then be passed to SimpleBlas or
+ * any other method. {@link #mmul}, {@link #transposeMmul} and the column statistics
+ * work this way with blocks of {@link #getBlockColumns()} columns.</p>
+ *
+ * <p>Fortran ordered .npy files can be mapped as well, see {@link Npy}.</p>
+ *
+ * <p>Java cannot unmap a file explicitly. The mapping is released when the matrix has
+ * been closed and garbage collected.</p>
+ */
+public class MappedFloatMatrix implements Closeable {
+    private static final String TYPE = "float";
+    /** Size of the header in bytes. */
+    public static final int HEADER_SIZE = 2 + TYPE.length() + 12;
+    private static final int ELEMENT_SIZE = Float.SIZE / 8;
+    /** Maximal size of a mapped segment in bytes. */
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    /** Default number of elements in a block of columns. */
+    private static final int BLOCK_ELEMENTS = 1 << 22;
+
+    private final int rows;
+    private final int columns;
+    private final boolean writable;
+    private final int segmentColumns;
+    private final MappedByteBuffer[] mapped;
+    private final FloatBuffer[] segments;
+    private RandomAccessFile file;
+    private int blockColumns;
+
+    private MappedFloatMatrix(RandomAccessFile file, long offset, ByteOrder order, int rows, int columns, boolean writable) throws IOException {
+        this.file = file;
+        this.rows = rows;
+        this.columns = columns;
+        this.writable = writable;
+        this.segmentColumns = (int) Math.min(columns, Math.max(1, MAX_SEGMENT_SIZE / ((long) Math.max(rows, 1) * ELEMENT_SIZE)));
+        this.blockColumns = Math.max(1, Math.min(columns, BLOCK_ELEMENTS / Math.max(rows, 1)));
+
+        FileChannel channel = file.getChannel();
+        int n = segmentColumns == 0 ? 0 : (columns + segmentColumns - 1) / segmentColumns;
+        mapped = new MappedByteBuffer[n];
+        segments = new FloatBuffer[n];
+        for (int s = 0; s < n; s++) {
+            int c = Math.min(segmentColumns, columns - s * segmentColumns);
+            long position = offset + (long) s * segmentColumns * rows * ELEMENT_SIZE;
+            mapped[s] = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    position, (long) c * rows * ELEMENT_SIZE);
+            segments[s] = mapped[s].order(order).asFloatBuffer();
+        }
+    }
+
+    /**
+     * Create a file for a rows * columns matrix, filled with zeros, and map it for
+     * reading and writing. An existing file is overwritten.
+     */
+    public static MappedFloatMatrix create(String filename, int rows, int columns) throws IOException {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Dimensions must not be negative.");
+        }
+        RandomAccessFile file = new RandomAccessFile(filename, "rw");
+        try {
+            long length = (long) rows * columns;
+            file.setLength(0);
+            file.writeUTF(TYPE);
+            file.writeInt(columns);
+            file.writeInt(rows);
+            file.writeInt(length <= Integer.MAX_VALUE ? (int) length : -1);
+            file.setLength(HEADER_SIZE + length * ELEMENT_SIZE);
+            return new MappedFloatMatrix(file, HEADER_SIZE, ByteOrder.BIG_ENDIAN, rows, columns, true);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map a matrix file, for example one written by {@link FloatMatrix#save}.
+     *
+     * @param writable whether to map the file for reading and writing, or only for reading
+     */
+    public static MappedFloatMatrix open(String filename, boolean writable) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, writable ? "rw" : "r");
+        try {
+            if (!file.readUTF().equals(TYPE)) {
+                throw new IllegalStateException("The matrix in the specified file is not of the correct type!");
+            }
+            int columns = file.readInt();
+            int rows = file.readInt();
+            int length = file.readInt();
+            long expected = (long) rows * columns;
+            if (rows < 0 || columns < 0 || (length != expected && !(length == -1 && expected > Integer.MAX_VALUE))) {
+                throw new IOException("Invalid matrix header in " + filename + ".");
+            }
+            if (file.length() < HEADER_SIZE + expected * ELEMENT_SIZE) {
+                throw new IOException("File " + filename + " is too short for a " + rows + " * " + columns + " matrix.");
+            }
+            return new MappedFloatMatrix(file, HEADER_SIZE, ByteOrder.BIG_ENDIAN, rows, columns, writable);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        } catch (RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map rows * columns elements stored in column major order at the given offset of
+     * an open file, like the data of a Fortran ordered .npy file (see {@link Npy}).
+     * The file is closed if it cannot be mapped.
+     */
+    static MappedFloatMatrix map(RandomAccessFile file, long offset, ByteOrder order, int rows, int columns, boolean writable) throws IOException {
+        try {
+            if (file.length() < offset + (long) rows * columns * ELEMENT_SIZE) {
+                throw new IOException("File is too short for a " + rows + " * " + columns + " matrix.");
+            }
+            return new MappedFloatMatrix(file, offset, order, rows, columns, writable);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /** Number of elements. */
+    public long getLength() {
+        return (long) rows * columns;
+    }
+
+    /** Whether the file is mapped for writing. */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /** Number of columns in the blocks used by mmul, transposeMmul and the column statistics. */
+    public int getBlockColumns() {
+        return blockColumns;
+    }
+
+    public void setBlockColumns(int blockColumns) {
+        if (blockColumns < 1) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        this.blockColumns = blockColumns;
+    }
+
+    /** Get a matrix element. */
+    public float get(int rowIndex, int columnIndex) {
+        checkIndex(rowIndex, columnIndex);
+        return segments[columnIndex / segmentColumns].get(offset(rowIndex, columnIndex));
+    }
+
+    /** Set a matrix element. Throws a ReadOnlyBufferException if the file is mapped read-only. */
+    public MappedFloatMatrix put(int rowIndex, int columnIndex, float value) {
+        checkIndex(rowIndex, columnIndex);
+        segments[columnIndex / segmentColumns].put(offset(rowIndex, columnIndex), value);
+        return this;
+    }
+
+    /** Copy the columns from (inclusive) to to (exclusive) into a new matrix. */
+    public FloatMatrix getColumns(int from, int to) {
+        checkColumns(from, to);
+        return getColumns(from, to, new FloatMatrix(rows, to - from));
+    }
+
+    /**
+     * Copy the columns from (inclusive) to to (exclusive) into result, which must have
+     * rows rows and at least to - from columns. Returns result.
+     */
+    public FloatMatrix getColumns(int from, int to, FloatMatrix result) {
+        checkColumns(from, to);
+        if (result.rows != rows || result.columns < to - from) {
+            throw new SizeException("Result must have " + rows + " rows and at least " + (to - from) + " columns.");
+        }
+        int offset = 0;
+        for (int c = from; c < to; ) {
+            int s = c / segmentColumns;
+            int end = Math.min(to, (s + 1) * segmentColumns);
+            FloatBuffer segment = segments[s].duplicate();
+            segment.position(offset(0, c));
+            segment.get(result.data, offset, (end - c) * rows);
+            offset += (end - c) * rows;
+            c = end;
+        }
+        return result;
+    }
+
+    /** Copy the columns of block into the columns starting at from. */
+    public MappedFloatMatrix putColumns(int from, FloatMatrix block) {
+        checkColumns(from, from + block.columns);
+        if (block.rows != rows) {
+            throw new SizeException("Block must have " + rows + " rows.");
+        }
+        int offset = 0;
+        int to = from + block.columns;
+        for (int c = from; c < to; ) {
+            int s = c / segmentColumns;
+            int end = Math.min(to, (s + 1) * segmentColumns);
+            FloatBuffer segment = segments[s].duplicate();
+            segment.position(offset(0, c));
+            segment.put(block.data, offset, (end - c) * rows);
+            offset += (end - c) * rows;
+            c = end;
+        }
+        return this;
+    }
+
+    /** Compute this * B for a matrix B on the heap, going over blocks of columns of this. */
+    public FloatMatrix mmul(FloatMatrix B) {
+        if (B.rows != columns) {
+            throw new SizeException("Number of columns of left matrix must be equal to number of rows of right matrix.");
+        }
+        FloatMatrix result = new FloatMatrix(rows, B.columns);
+        FloatMatrix block = new FloatMatrix(rows, Math.min(blockColumns, columns));
+        for (int from = 0; from < columns; from += blockColumns) {
+            int to = Math.min(columns, from + blockColumns);
+            if (to - from != block.columns) {
+                block = new FloatMatrix(rows, to - from);
+            }
+            getColumns(from, to, block);
+            SimpleBlas.gemm(1.0f, block, B.getRange(from, to, 0, B.columns), 1.0f, result);
+        }
+        return result;
+    }
+
+    /** Compute this' * B for a matrix B on the heap, going over blocks of columns of this. */
+    public FloatMatrix transposeMmul(FloatMatrix B) {
+        if (B.rows != rows) {
+            throw new SizeException("Number of rows of left matrix must be equal to number of rows of right matrix.");
+        }
+        FloatMatrix result = new FloatMatrix(columns, B.columns);
+        FloatMatrix block = new FloatMatrix(rows, Math.min(blockColumns, columns));
+        for (int from = 0; from < columns; from += blockColumns) {
+            int to = Math.min(columns, from + blockColumns);
+            if (to - from != block.columns) {
+                block = new FloatMatrix(rows, to - from);
+            }
+            getColumns(from, to, block);
+            FloatMatrix product = block.transposeMmul(B);
+            for (int j = 0; j < B.columns; j++) {
+                System.arraycopy(product.data, j * product.rows, result.data, j * columns + from, product.rows);
+            }
+        }
+        return result;
+    }
+
+    /** Sums of the columns, as a row vector. */
+    public FloatMatrix columnSums() {
+        FloatMatrix sums = new FloatMatrix(1, columns);
+        FloatMatrix block = new FloatMatrix(rows, Math.min(blockColumns, columns));
+        for (int from = 0; from < columns; from += blockColumns) {
+            int to = Math.min(columns, from + blockColumns);
+            getColumns(from, to, block);
+            for (int j = from; j < to; j++) {
+                float s = 0.0f;
+                for (int i = (j - from) * rows, end = i + rows; i < end; i++) {
+                    s += block.data[i];
+                }
+                sums.put(j, s);
+            }
+        }
+        return sums;
+    }
+
+    /** Means of the columns, as a row vector. */
+    public FloatMatrix columnMeans() {
+        return columnSums().divi(rows);
+    }
+
+    /** Sample variances of the columns (normalized by rows - 1), as a row vector. */
+    public FloatMatrix columnVariances() {
+        FloatMatrix variances = new FloatMatrix(1, columns);
+        FloatMatrix block = new FloatMatrix(rows, Math.min(blockColumns, columns));
+        for (int from = 0; from < columns; from += blockColumns) {
+            int to = Math.min(columns, from + blockColumns);
+            getColumns(from, to, block);
+            for (int j = from; j < to; j++) {
+                int start = (j - from) * rows, end = start + rows;
+                float mean = 0.0f;
+                for (int i = start; i < end; i++) {
+                    mean += block.data[i];
+                }
+                mean /= rows;
+                float s = 0.0f;
+                for (int i = start; i < end; i++) {
+                    float d = block.data[i] - mean;
+                    s += d * d;
+                }
+                variances.put(j, s / (rows - 1));
+            }
+        }
+        return variances;
+    }
+
+    /** Write changes to the file. */
+    public void flush() {
+        if (writable) {
+            for (MappedByteBuffer buffer : mapped) {
+                buffer.force();
+            }
+        }
+    }
+
+    /** Flush changes and close the file. */
+    public void close() throws IOException {
+        if (file != null) {
+            flush();
+            file.close();
+            file = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedFloatMatrix(%d * %d, %s)", rows, columns, writable ? "read-write" : "read-only");
+    }
+
+    private int offset(int rowIndex, int columnIndex) {
+        return (columnIndex % segmentColumns) * rows + rowIndex;
+    }
+
+    private void checkIndex(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= rows || columnIndex < 0 || columnIndex >= columns) {
+            throw new IndexOutOfBoundsException(String.format("Index (%d, %d) is outside of a %d * %d matrix.",
+                    rowIndex, columnIndex, rows, columns));
+        }
+    }
+
+    private void checkColumns(int from, int to) {
+        if (from < 0 || to > columns || from > to) {
+            throw new IndexOutOfBoundsException(String.format("Columns %d to %d are outside of a matrix with %d columns.",
+                    from, to, columns));
+        }
+    }
+}
@@ -70,12 +70,8 @@ public class MatrixFunctions {
 	 * @return this matrix
 	 */
 	public static DoubleMatrix absi(DoubleMatrix x) { 
-		/*# mapfct('Math.abs') #*/
-//RJPP-BEGIN------------------------------------------------------------
-	   for (int i = 0; i < x.length; i++)
-	      x.put(i, (double) Math.abs(x.get(i)));
-	   return x;
-//RJPP-END--------------------------------------------------------------
+		VectorKernels.unary(VectorKernels.ABS, x.data, x.data, 0, x.length);
+		return x;
 	}
 	
 	public static ComplexDoubleMatrix absi(ComplexDoubleMatrix x) {
@@ -309,12 +305,8 @@ public class MatrixFunctions {
 //RJPP-END--------------------------------------------------------------
 	}
 	public static DoubleMatrix sqrti(DoubleMatrix x) { 
-		/*# mapfct('Math.sqrt') #*/
-//RJPP-BEGIN------------------------------------------------------------
-	   for (int i = 0; i < x.length; i++)
-	      x.put(i, (double) Math.sqrt(x.get(i)));
-	   return x;
-//RJPP-END--------------------------------------------------------------
+		VectorKernels.unary(VectorKernels.SQRT, x.data, x.data, 0, x.length);
+		return x;
 	}
 	public static DoubleMatrix tani(DoubleMatrix x) {
 		/*# mapfct('Math.tan') #*/
@@ -501,12 +493,8 @@ public class MatrixFunctions {
 	 * @return this matrix
 	 */
 	public static FloatMatrix absi(FloatMatrix x) { 
-		/*# mapfct('Math.abs') #*/
-//RJPP-BEGIN------------------------------------------------------------
-	   for (int i = 0; i < x.length; i++)
-	      x.put(i, (float) Math.abs(x.get(i)));
-	   return x;
-//RJPP-END--------------------------------------------------------------
+		VectorKernels.unary(VectorKernels.ABS, x.data, x.data, 0, x.length);
+		return x;
 	}
 	
 	public static ComplexFloatMatrix absi(ComplexFloatMatrix x) {
@@ -740,12 +728,8 @@ public class MatrixFunctions {
 //RJPP-END--------------------------------------------------------------
 	}
 	public static FloatMatrix sqrti(FloatMatrix x) { 
-		/*# mapfct('Math.sqrt') #*/
-//RJPP-BEGIN------------------------------------------------------------
-	   for (int i = 0; i < x.length; i++)
-	      x.put(i, (float) Math.sqrt(x.get(i)));
-	   return x;
-//RJPP-END--------------------------------------------------------------
+		VectorKernels.unary(VectorKernels.SQRT, x.data, x.data, 0, x.length);
+		return x;
 	}
 	public static FloatMatrix tani(FloatMatrix x) {
 		/*# mapfct('Math.tan') #*/
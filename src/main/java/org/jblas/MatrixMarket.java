@@ -0,0 +1,373 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * <p>Reading and writing files in the Matrix Market exchange format (.mtx).</p>
+ *
+ * <p>Both the coordinate format for sparse matrices and the array format for dense
+ * matrices are supported, with real, integer and pattern entries (pattern entries
+ * are read as 1) and the general, symmetric and skew-symmetric variants. For
+ * symmetric and skew-symmetric matrices, the entries of the lower triangle in the
+ * file are mirrored to the upper triangle. Complex matrices are not supported.</p>
+ *
+ * <p>Either format can be read into dense (DoubleMatrix, FloatMatrix) or sparse
+ * (SparseDoubleMatrix, SparseFloatMatrix) matrices. The entries are parsed in
+ * parallel in chunks by {@link MatrixReader#stream} and copied directly into the
+ * result, or into primitive triplet arrays for sparse matrices. Repeated entries of
+ * the coordinate format are added up.</p>
+ *
+ * <p>Dense matrices are written in array format, sparse matrices in coordinate
+ * format, always as general real matrices.</p>
+ */
+public class MatrixMarket {
+    private static final String BANNER = "%%MatrixMarket";
+
+    /** The banner and size line of a file. */
+    private static class Header {
+        boolean coordinate;
+        boolean pattern;
+        /** 1 for general, 0 for symmetric and -1 for skew-symmetric matrices. */
+        int symmetry;
+        int rows;
+        int columns;
+        /** Number of entries in the file. */
+        long entries;
+        /** Number of lines up to and including the size line. */
+        int lines;
+
+        /** Number of entries after mirroring the lower triangle. */
+        long expandedEntries() {
+            return symmetry == 1 ? entries : 2 * entries;
+        }
+    }
+
+    /** Receives the entries of a file, with zero-based indices. */
+    private interface Sink {
+        void add(int i, int j, double value);
+    }
+
+    /*
+     * Reading
+     */
+
+    /** Read a matrix into a dense matrix. */
+    public static DoubleMatrix readDouble(String filename) throws IOException {
+        Header header = readHeader(filename);
+        final DoubleMatrix result = new DoubleMatrix(header.rows, header.columns);
+        read(filename, header, new Sink() {
+            public void add(int i, int j, double value) {
+                result.data[i + j * result.rows] += value;
+            }
+        });
+        return result;
+    }
+
+    /** Read a matrix into a dense matrix. */
+    public static FloatMatrix readFloat(String filename) throws IOException {
+        Header header = readHeader(filename);
+        final FloatMatrix result = new FloatMatrix(header.rows, header.columns);
+        read(filename, header, new Sink() {
+            public void add(int i, int j, double value) {
+                result.data[i + j * result.rows] += (float) value;
+            }
+        });
+        return result;
+    }
+
+    /** Read a matrix into a sparse matrix in CSR layout. */
+    public static SparseDoubleMatrix readSparseDouble(String filename) throws IOException {
+        Header header = readHeader(filename);
+        if (!header.coordinate)
+            return new SparseDoubleMatrix(readDouble(filename));
+        Triplets t = readTriplets(filename, header);
+        return SparseDoubleMatrix.fromTriplets(header.rows, header.columns, t.rowIndices, t.columnIndices, t.values);
+    }
+
+    /** Read a matrix into a sparse matrix in CSR layout. */
+    public static SparseFloatMatrix readSparseFloat(String filename) throws IOException {
+        Header header = readHeader(filename);
+        if (!header.coordinate)
+            return new SparseFloatMatrix(readFloat(filename));
+        Triplets t = readTriplets(filename, header);
+        float[] values = new float[t.values.length];
+        for (int k = 0; k < values.length; k++)
+            values[k] = (float) t.values[k];
+        return SparseFloatMatrix.fromTriplets(header.rows, header.columns, t.rowIndices, t.columnIndices, values);
+    }
+
+    /** The entries of a coordinate file as primitive arrays. */
+    private static class Triplets implements Sink {
+        int[] rowIndices;
+        int[] columnIndices;
+        double[] values;
+        int size;
+
+        Triplets(int capacity) {
+            rowIndices = new int[capacity];
+            columnIndices = new int[capacity];
+            values = new double[capacity];
+        }
+
+        public void add(int i, int j, double value) {
+            rowIndices[size] = i;
+            columnIndices[size] = j;
+            values[size++] = value;
+        }
+
+        void trim() {
+            rowIndices = Arrays.copyOf(rowIndices, size);
+            columnIndices = Arrays.copyOf(columnIndices, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static Triplets readTriplets(String filename, Header header) throws IOException {
+        if (header.expandedEntries() > Integer.MAX_VALUE)
+            throw new IOException("Matrix with " + header.entries + " entries is too large.");
+        Triplets t = new Triplets((int) header.expandedEntries());
+        read(filename, header, t);
+        t.trim();
+        return t;
+    }
+
+    private static Header readHeader(String filename) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(filename), "ISO-8859-1"));
+        try {
+            Header header = new Header();
+            String line = in.readLine();
+            String[] banner = line == null ? new String[0] : line.trim().toLowerCase(Locale.ENGLISH).split("\\s+");
+            if (banner.length != 5 || !banner[0].equals(BANNER.toLowerCase(Locale.ENGLISH)) || !banner[1].equals("matrix"))
+                throw new IOException("Not a Matrix Market file: " + line);
+
+            if (banner[2].equals("coordinate"))
+                header.coordinate = true;
+            else if (!banner[2].equals("array"))
+                throw new IOException("Unknown Matrix Market format " + banner[2] + ".");
+
+            if (banner[3].equals("pattern"))
+                header.pattern = true;
+            else if (!banner[3].equals("real") && !banner[3].equals("integer"))
+                throw new IOException("Matrix Market field " + banner[3] + " is not supported.");
+            if (header.pattern && !header.coordinate)
+                throw new IOException("Pattern matrices must be in coordinate format.");
+
+            if (banner[4].equals("general"))
+                header.symmetry = 1;
+            else if (banner[4].equals("symmetric"))
+                header.symmetry = 0;
+            else if (banner[4].equals("skew-symmetric"))
+                header.symmetry = -1;
+            else
+                throw new IOException("Matrix Market symmetry " + banner[4] + " is not supported.");
+
+            // comments and blank lines up to the size line
+            header.lines = 1;
+            do {
+                line = in.readLine();
+                header.lines++;
+            } while (line != null && (line.startsWith("%") || line.trim().length() == 0));
+            if (line == null)
+                throw new IOException("Missing size line in Matrix Market file.");
+
+            String[] size = line.trim().split("\\s+");
+            try {
+                if (size.length != (header.coordinate ? 3 : 2))
+                    throw new NumberFormatException();
+                header.rows = Integer.parseInt(size[0]);
+                header.columns = Integer.parseInt(size[1]);
+                if (header.rows < 0 || header.columns < 0)
+                    throw new NumberFormatException();
+                header.entries = header.coordinate ? Long.parseLong(size[2]) : (long) header.rows * header.columns;
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid size line in Matrix Market file: " + line);
+            }
+
+            if (header.symmetry != 1) {
+                if (header.rows != header.columns)
+                    throw new IOException("Symmetric matrices must be square.");
+                if (!header.coordinate) {
+                    long n = header.rows;
+                    header.entries = header.symmetry == 0 ? n * (n + 1) / 2 : n * (n - 1) / 2;
+                }
+            }
+            return header;
+        } finally {
+            in.close();
+        }
+    }
+
+    /** Parse the entries in parallel and pass them to the sink in the order of the file. */
+    private static void read(String filename, final Header header, final Sink sink) throws IOException {
+        final int fields = header.coordinate ? (header.pattern ? 2 : 3) : 1;
+        final String[] error = new String[1];
+        // position of the next entry in array format
+        final int[] position = {0, 0};
+        if (header.symmetry == -1)
+            position[0] = 1;
+
+        long entries = new MatrixReader().setHeaderLines(header.lines).stream(filename, new MatrixReader.RowHandler() {
+            public void rows(DoubleMatrix batch, long firstRow) {
+                if (error[0] != null)
+                    return;
+                if (batch.columns != fields) {
+                    error[0] = "Expected " + fields + " numbers per line, found " + batch.columns + ".";
+                    return;
+                }
+                if (firstRow + batch.rows > header.entries) {
+                    error[0] = "More than the " + header.entries + " entries given in the size line.";
+                    return;
+                }
+                for (int k = 0; k < batch.rows; k++) {
+                    int i, j;
+                    double value;
+                    if (header.coordinate) {
+                        double di = batch.get(k, 0);
+                        double dj = batch.get(k, 1);
+                        if (di < 1 || di > header.rows || dj < 1 || dj > header.columns || di != (int) di || dj != (int) dj) {
+                            error[0] = "Invalid entry position (" + di + ", " + dj + ") for a " + header.rows + " * " + header.columns + " matrix.";
+                            return;
+                        }
+                        i = (int) di - 1;
+                        j = (int) dj - 1;
+                        value = header.pattern ? 1.0 : batch.get(k, 2);
+                    } else {
+                        i = position[0];
+                        j = position[1];
+                        value = batch.get(k);
+                        // next position, column by column, in the lower triangle for symmetric matrices
+                        if (++position[0] == header.rows) {
+                            position[1]++;
+                            position[0] = header.symmetry == 1 ? 0 : position[1] + (header.symmetry == -1 ? 1 : 0);
+                        }
+                    }
+                    sink.add(i, j, value);
+                    if (header.symmetry != 1 && i != j)
+                        sink.add(j, i, header.symmetry == -1 ? -value : value);
+                }
+            }
+        });
+        if (error[0] != null)
+            throw new IOException(error[0]);
+        if (entries != header.entries)
+            throw new IOException("Expected " + header.entries + " entries, found " + entries + ".");
+    }
+
+    /*
+     * Writing
+     */
+
+    /** Write a dense matrix in array format. */
+    public static void write(String filename, DoubleMatrix A) throws IOException {
+        Writer out = open(filename, "array", A.rows + " " + A.columns);
+        try {
+            for (int i = 0; i < A.length; i++) {
+                out.write(Double.toString(A.data[i]));
+                out.write('\n');
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Write a dense matrix in array format. */
+    public static void write(String filename, FloatMatrix A) throws IOException {
+        Writer out = open(filename, "array", A.rows + " " + A.columns);
+        try {
+            for (int i = 0; i < A.length; i++) {
+                out.write(Float.toString(A.data[i]));
+                out.write('\n');
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Write a sparse matrix in coordinate format. */
+    public static void write(String filename, SparseDoubleMatrix A) throws IOException {
+        Writer out = open(filename, "coordinate", A.rows + " " + A.columns + " " + A.getNonZeros());
+        try {
+            int major = A.isCSR() ? A.rows : A.columns;
+            for (int m = 0; m < major; m++) {
+                for (int p = A.pointers[m]; p < A.pointers[m + 1]; p++) {
+                    int i = A.isCSR() ? m : A.indices[p];
+                    int j = A.isCSR() ? A.indices[p] : m;
+                    out.write((i + 1) + " " + (j + 1) + " " + Double.toString(A.data[p]) + "\n");
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Write a sparse matrix in coordinate format. */
+    public static void write(String filename, SparseFloatMatrix A) throws IOException {
+        Writer out = open(filename, "coordinate", A.rows + " " + A.columns + " " + A.getNonZeros());
+        try {
+            int major = A.isCSR() ? A.rows : A.columns;
+            for (int m = 0; m < major; m++) {
+                for (int p = A.pointers[m]; p < A.pointers[m + 1]; p++) {
+                    int i = A.isCSR() ? m : A.indices[p];
+                    int j = A.isCSR() ? A.indices[p] : m;
+                    out.write((i + 1) + " " + (j + 1) + " " + Float.toString(A.data[p]) + "\n");
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Open a file and write the banner and size line. */
+    private static Writer open(String filename, String format, String size) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename, false), "ISO-8859-1"), 1 << 16);
+        out.write(BANNER + " matrix " + format + " real general\n");
+        out.write(size + "\n");
+        return out;
+    }
+}
@@ -0,0 +1,605 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.util.Parallel;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parallel reader for matrices stored as text, one row per line.
+ *
+ * <p>The file is memory-mapped and split into chunks of about
+ * {@link #getChunkSize()} bytes at line boundaries. The chunks are parsed in
+ * parallel (see {@link Parallel}) directly from the mapped bytes, without
+ * creating Strings for the lines or the numbers, and the number of rows and
+ * columns is inferred in the same pass. Only numbers which cannot be converted
+ * exactly by the fast path (more than 18 significant digits, large exponents,
+ * "NaN", "Infinity") are handed to Double.parseDouble().</p>
+ *
+ * <p>Fields are separated either by runs of spaces and tabs ({@link #WHITESPACE},
+ * the default), or by a delimiter character like ',' or '\t'. With a delimiter,
+ * spaces around the fields are ignored, and empty fields are missing values.
+ * Fields equal to one of the missing value tokens (see {@link #setMissingTokens})
+ * are missing values as well. Missing values are replaced by
+ * {@link #getMissingValue()}, NaN by default. A delimiter at the end of a line
+ * starts an empty last field unless {@link #setIgnoreTrailingDelimiter} is set.
+ * Blank lines are skipped, and a given number of header lines at the beginning
+ * of the file can be skipped with {@link #setHeaderLines(int)}.</p>
+ *
+ * <p>readDouble() and readFloat() return the whole matrix. For files which
+ * do not fit into memory, stream() passes the rows to a {@link RowHandler} in
+ * batches of one chunk each, in the order of the file.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * DoubleMatrix A = new MatrixReader(',').setHeaderLines(1).setMissingTokens("NA").readDouble("data.csv");
+ * </pre>
+ */
+public class MatrixReader {
+    /** Delimiter which stands for runs of spaces and tabs. */
+    public static final char WHITESPACE = ' ';
+
+    /** Receives the rows of a file in batches. */
+    public interface RowHandler {
+        /**
+         * Process a batch of rows.
+         *
+         * @param batch the rows, a matrix with the same number of columns for each call
+         * @param firstRow the index of the first row of the batch in the file
+         */
+        void rows(DoubleMatrix batch, long firstRow);
+    }
+
+    private final char delimiter;
+    private int headerLines = 0;
+    private double missingValue = Double.NaN;
+    private byte[][] missingTokens = new byte[0][];
+    private boolean ignoreTrailingDelimiter = false;
+    private int chunkSize = 1 << 23;
+
+    /** Create a reader for fields separated by spaces and tabs. */
+    public MatrixReader() {
+        this(WHITESPACE);
+    }
+
+    /**
+     * Create a reader for fields separated by the given character.
+     *
+     * @param delimiter the delimiter, or {@link #WHITESPACE}
+     */
+    public MatrixReader(char delimiter) {
+        if (delimiter == '\n' || delimiter == '\r' || delimiter > 127)
+            throw new IllegalArgumentException("Delimiter must be an ASCII character other than a line break.");
+        this.delimiter = delimiter;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public int getHeaderLines() {
+        return headerLines;
+    }
+
+    /** Skip the given number of lines at the beginning of the file. */
+    public MatrixReader setHeaderLines(int lines) {
+        if (lines < 0)
+            throw new IllegalArgumentException("Number of header lines must not be negative.");
+        headerLines = lines;
+        return this;
+    }
+
+    public double getMissingValue() {
+        return missingValue;
+    }
+
+    /** The value stored for missing values. */
+    public MatrixReader setMissingValue(double value) {
+        missingValue = value;
+        return this;
+    }
+
+    public String[] getMissingTokens() {
+        String[] tokens = new String[missingTokens.length];
+        for (int i = 0; i < tokens.length; i++)
+            tokens[i] = new String(missingTokens[i], ISO_8859_1);
+        return tokens;
+    }
+
+    /** Fields which denote missing values, for example "NA" or "?". */
+    public MatrixReader setMissingTokens(String... tokens) {
+        byte[][] newTokens = new byte[tokens.length][];
+        for (int i = 0; i < tokens.length; i++)
+            newTokens[i] = tokens[i].trim().getBytes(ISO_8859_1);
+        missingTokens = newTokens;
+        return this;
+    }
+
+    public boolean isIgnoreTrailingDelimiter() {
+        return ignoreTrailingDelimiter;
+    }
+
+    /**
+     * Whether a delimiter at the end of a line is ignored instead of starting an
+     * empty last field, so that "1,2,3," has three fields. Off by default.
+     */
+    public MatrixReader setIgnoreTrailingDelimiter(boolean ignore) {
+        ignoreTrailingDelimiter = ignore;
+        return this;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /** The approximate number of bytes parsed as one unit of work. */
+    public MatrixReader setChunkSize(int bytes) {
+        if (bytes < 1)
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        chunkSize = bytes;
+        return this;
+    }
+
+    /**
+     * Read a matrix from a file.
+     *
+     * @throws IOException if a field is not a number, or the number of fields changes between lines
+     */
+    public DoubleMatrix readDouble(String filename) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            final Chunk[] chunks = parse(file.getChannel(), split(file.getChannel()));
+            int columns = checkColumns(chunks, chunks.length);
+            final DoubleMatrix result = new DoubleMatrix(checkRows(chunks, columns), columns);
+            Parallel.forRange(chunks.length, 1, result.length, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    for (int k = from; k < to; k++) {
+                        chunks[k].copyTo(result.data, result.rows);
+                    }
+                }
+            });
+            return result;
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Read a matrix from a file. The numbers are parsed as doubles and
+     * then rounded to floats.
+     *
+     * @throws IOException if a field is not a number, or the number of fields changes between lines
+     */
+    public FloatMatrix readFloat(String filename) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            final Chunk[] chunks = parse(file.getChannel(), split(file.getChannel()));
+            int columns = checkColumns(chunks, chunks.length);
+            final FloatMatrix result = new FloatMatrix(checkRows(chunks, columns), columns);
+            Parallel.forRange(chunks.length, 1, result.length, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    for (int k = from; k < to; k++) {
+                        chunks[k].copyTo(result.data, result.rows);
+                    }
+                }
+            });
+            return result;
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Read a matrix from a file and pass its rows to the handler. The handler
+     * is called from the calling thread, in the order of the rows in the file.
+     * At any time, only as many chunks as there are threads in the pool are
+     * held in memory.
+     *
+     * @return the number of rows
+     * @throws IOException if a field is not a number, or the number of fields changes between lines
+     */
+    public long stream(String filename, RowHandler handler) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            long[] bounds = split(channel);
+            int chunksPerRound = Parallel.isParallel(channel.size()) ? Parallel.getPool().getParallelism() : 1;
+            int columns = -1;
+            long rows = 0;
+            for (int first = 0; first < bounds.length - 1; first += chunksPerRound) {
+                int last = Math.min(bounds.length - 1, first + chunksPerRound);
+                Chunk[] chunks = parse(channel, Arrays.copyOfRange(bounds, first, last + 1));
+                for (int k = 0; k < chunks.length; k++) {
+                    columns = checkColumns(chunks, k + 1, columns);
+                    if (chunks[k].rows > 0) {
+                        DoubleMatrix batch = new DoubleMatrix(chunks[k].rows, columns);
+                        chunks[k].firstRow = 0;
+                        chunks[k].copyTo(batch.data, batch.rows);
+                        handler.rows(batch, rows);
+                        rows += batch.rows;
+                    }
+                    chunks[k] = null;
+                }
+            }
+            return rows;
+        } finally {
+            file.close();
+        }
+    }
+
+    /*
+     * Splitting the file
+     */
+
+    /** Chunk boundaries: chunk k is [bounds[k], bounds[k+1]). */
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long start = 0;
+        for (int i = 0; i < headerLines; i++) {
+            start = lineEnd(channel, start);
+        }
+
+        List<Long> bounds = new ArrayList<Long>();
+        bounds.add(start);
+        while (start < size) {
+            start = start + chunkSize < size ? lineEnd(channel, start + chunkSize - 1) : size;
+            bounds.add(start);
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /** The position after the first line break at or after from, or the file size if there is none. */
+    private static long lineEnd(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = from;
+        while (true) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+    }
+
+    private Chunk[] parse(final FileChannel channel, long[] bounds) throws IOException {
+        final Chunk[] chunks = new Chunk[bounds.length - 1];
+        for (int k = 0; k < chunks.length; k++) {
+            if (bounds[k + 1] - bounds[k] > Integer.MAX_VALUE)
+                throw new IOException("Line starting at byte " + bounds[k] + " is too long.");
+            chunks[k] = new Chunk(bounds[k], (int) (bounds[k + 1] - bounds[k]));
+        }
+
+        Parallel.forRange(chunks.length, 1, bounds[bounds.length - 1] - bounds[0], new Parallel.RangeBody() {
+            public void run(int from, int to) {
+                for (int k = from; k < to; k++) {
+                    chunks[k].parse(channel);
+                }
+            }
+        });
+
+        // first row of each chunk
+        int row = 0;
+        for (Chunk c : chunks) {
+            c.firstRow = row;
+            row += c.rows;
+        }
+        return chunks;
+    }
+
+    private static int checkColumns(Chunk[] chunks, int n) throws IOException {
+        return checkColumns(chunks, n, -1);
+    }
+
+    /**
+     * Rethrow the first error in the first n chunks and check that all have the given
+     * number of columns (or the same number if columns is -1). Returns the number of
+     * columns, which is 0 if there are no rows at all.
+     */
+    private static int checkColumns(Chunk[] chunks, int n, int columns) throws IOException {
+        for (int k = 0; k < n; k++) {
+            Chunk c = chunks[k];
+            if (c == null) {
+                continue;
+            }
+            if (c.error != null) {
+                throw c.error;
+            }
+            if (c.rows > 0) {
+                if (columns == -1) {
+                    columns = c.columns;
+                } else if (columns != c.columns) {
+                    throw new IOException("Number of elements changes in line " + c.firstLine() + ".");
+                }
+            }
+        }
+        return Math.max(columns, 0);
+    }
+
+    private static int checkRows(Chunk[] chunks, int columns) throws IOException {
+        long rows = 0;
+        for (Chunk c : chunks) {
+            rows += c.rows;
+        }
+        if (rows * columns > Integer.MAX_VALUE)
+            throw new IOException("Matrix with " + rows + " rows and " + columns + " columns is too large.");
+        return (int) rows;
+    }
+
+    /*
+     * Parsing
+     */
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    /** Exact powers of ten for the fast path. */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = 10.0 * POWERS_OF_TEN[i - 1];
+    }
+
+    /** A part of the file whose numbers are parsed into a row-major array. */
+    private class Chunk {
+        final long start;
+        final int length;
+        MappedByteBuffer buffer;
+        double[] values = new double[0];
+        int size;
+        int rows;
+        int columns = -1;
+        int firstRow;
+        IOException error;
+
+        Chunk(long start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        void parse(FileChannel channel) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                values = new double[Math.max(16, length / 8)];
+                int pos = 0;
+                while (pos < length) {
+                    int end = pos;
+                    while (end < length && buffer.get(end) != '\n')
+                        end++;
+                    int lineEnd = end > pos && buffer.get(end - 1) == '\r' ? end - 1 : end;
+                    parseLine(pos, lineEnd);
+                    pos = end + 1;
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                buffer = null;
+            }
+        }
+
+        private void parseLine(int start, int end) throws IOException {
+            int i = start;
+            while (i < end && isSpace(buffer.get(i)))
+                i++;
+            if (i == end)
+                return;
+
+            int before = size;
+            if (delimiter == WHITESPACE) {
+                while (i < end) {
+                    int s = i;
+                    while (i < end && !isSpace(buffer.get(i)))
+                        i++;
+                    add(parseField(s, i));
+                    while (i < end && isSpace(buffer.get(i)))
+                        i++;
+                }
+            } else {
+                int fieldsEnd = end;
+                if (ignoreTrailingDelimiter) {
+                    int e = end;
+                    while (e > i && isSpace(buffer.get(e - 1)) && buffer.get(e - 1) != delimiter)
+                        e--;
+                    if (e > i && buffer.get(e - 1) == delimiter)
+                        fieldsEnd = e - 1;
+                }
+                i = start;
+                while (true) {
+                    int s = i;
+                    while (i < fieldsEnd && buffer.get(i) != delimiter)
+                        i++;
+                    add(parseField(s, i));
+                    if (i == fieldsEnd)
+                        break;
+                    i++;
+                }
+            }
+
+            int fields = size - before;
+            if (columns == -1) {
+                columns = fields;
+            } else if (columns != fields) {
+                throw new IOException("Number of elements changes in line " + string(start, end) + ".");
+            }
+            rows++;
+        }
+
+        private void add(double value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, 2 * size);
+            values[size++] = value;
+        }
+
+        private boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        private double parseField(int start, int end) throws IOException {
+            while (start < end && isSpace(buffer.get(start)))
+                start++;
+            while (end > start && isSpace(buffer.get(end - 1)))
+                end--;
+            if (start == end || isMissingToken(start, end))
+                return missingValue;
+
+            // fast path: at most 18 significant digits and a power of ten which is exact in double
+            int i = start;
+            boolean negative = buffer.get(i) == '-';
+            if (negative || buffer.get(i) == '+')
+                i++;
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean anyDigits = false;
+            boolean exact = true;
+            boolean fraction = false;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b >= '0' && b <= '9') {
+                    anyDigits = true;
+                    if (digits < 18) {
+                        if (mantissa != 0 || b != '0') {
+                            mantissa = 10 * mantissa + (b - '0');
+                            digits++;
+                        }
+                        if (fraction)
+                            exponent--;
+                    } else {
+                        exact &= b == '0';
+                        if (!fraction)
+                            exponent++;
+                    }
+                } else if (b == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+            }
+            if (anyDigits && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+                i++;
+                boolean negativeExponent = i < end && buffer.get(i) == '-';
+                if (i < end && (negativeExponent || buffer.get(i) == '+'))
+                    i++;
+                int e = 0;
+                anyDigits = i < end;
+                for (; i < end && buffer.get(i) >= '0' && buffer.get(i) <= '9'; i++)
+                    e = Math.min(10 * e + (buffer.get(i) - '0'), 100000);
+                exponent += negativeExponent ? -e : e;
+            }
+            if (anyDigits && i == end && exact) {
+                if (mantissa == 0)
+                    return negative ? -0.0 : 0.0;
+                if (mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+                    double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+                    return negative ? -value : value;
+                }
+            }
+
+            return parseSlow(start, end);
+        }
+
+        /** Checked before parsing, because missing tokens may be numbers like "-999". */
+        private boolean isMissingToken(int start, int end) {
+            for (byte[] token : missingTokens) {
+                if (token.length == end - start) {
+                    int j = 0;
+                    while (j < token.length && token[j] == buffer.get(start + j))
+                        j++;
+                    if (j == token.length)
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        private double parseSlow(int start, int end) throws IOException {
+            String field = string(start, end);
+            try {
+                return Double.parseDouble(field);
+            } catch (NumberFormatException e) {
+                throw new IOException("Cannot parse \"" + field + "\" as a number at byte " + (this.start + start) + ".");
+            }
+        }
+
+        private String string(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int j = 0; j < bytes.length; j++)
+                bytes[j] = buffer.get(start + j);
+            return new String(bytes, ISO_8859_1);
+        }
+
+        /** Describes the first line of the chunk for error messages. */
+        String firstLine() {
+            return "at byte " + start;
+        }
+
+        void copyTo(double[] data, int ld) {
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < columns; c++)
+                    data[firstRow + r + c * ld] = values[r * columns + c];
+            values = null;
+        }
+
+        void copyTo(float[] data, int ld) {
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < columns; c++)
+                    data[firstRow + r + c * ld] = (float) values[r * columns + c];
+            values = null;
+        }
+    }
+}
@@ -35,7 +35,12 @@
 // --- END LICENSE BLOCK ---
 package org.jblas;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
 import org.jblas.util.Logger;
+import org.jblas.util.Workspace;
 
 /**
  * Native BLAS and LAPACK functions.
@@ -81,6 +86,49 @@ public class NativeBlas {
   private static double[] doubleDummy = new double[1];
   private static float[] floatDummy = new float[1];
 
+  /** Routine families for {@link #setCriticalArrayFamilies}. */
+  public static final int BLAS_LEVEL1 = 1;
+  public static final int BLAS_LEVEL2 = 2;
+  public static final int BLAS_LEVEL3 = 4;
+  public static final int LAPACK = 8;
+  public static final int ALL_FAMILIES = BLAS_LEVEL1 | BLAS_LEVEL2 | BLAS_LEVEL3 | LAPACK;
+
+  /**
+   * Select the routine families whose arrays are accessed with
+   * GetPrimitiveArrayCritical instead of being copied.
+   *
+   * <p>Critical access avoids copying the arrays in and out of the JVM, but
+   * may block the garbage collector for the duration of the call. It
+   * therefore pays off mostly for compute bound routines like the level 3 BLAS
+   * and should be used with care for long running LAPACK calls.</p>
+   *
+   * <p>The default can be set with the system property "org.jblas.criticalArrays",
+   * for example "-Dorg.jblas.criticalArrays=blas3,lapack".</p>
+   *
+   * @param families a bitwise or of BLAS_LEVEL1, BLAS_LEVEL2, BLAS_LEVEL3, and LAPACK.
+   */
+  public static native void setCriticalArrayFamilies(int families);
+
+  /** Get the routine families which use critical array access. */
+  public static native int getCriticalArrayFamilies();
+
+  /**
+   * Allocate zeroed native memory which is not limited by the size of Java
+   * arrays or buffers. The memory must be released with {@link #freeMemory}.
+   *
+   * @return the address of the memory, or 0 if the allocation failed.
+   */
+  public static native long allocateMemory(long bytes);
+
+  /** Release memory allocated with {@link #allocateMemory}. */
+  public static native void freeMemory(long address);
+
+  /** Wrap a piece of native memory in a direct ByteBuffer. */
+  public static native ByteBuffer wrapMemory(long address, int bytes);
+
+  /** Get the native address of a direct buffer. */
+  public static native long bufferAddress(Buffer buffer);
+
   public static native void ccopy(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy);
   public static native void dcopy(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy);
   public static native void scopy(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy);
@@ -131,6 +179,8 @@ public class NativeBlas {
   public static native void dgemm(char transa, char transb, int m, int n, int k, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc);
   public static native void sgemm(char transa, char transb, int m, int n, int k, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc);
   public static native void zgemm(char transa, char transb, int m, int n, int k, ComplexDouble alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, ComplexDouble beta, double[] c, int cIdx, int ldc);
+  public static native void dtrsm(char side, char uplo, char transa, char diag, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb);
+  public static native void strsm(char side, char uplo, char transa, char diag, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb);
   public static native int dgesv(int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb);
   public static native int sgesv(int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb);
   public static native int dsysv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb, double[] work, int workIdx, int lwork);
@@ -141,8 +191,12 @@ public class NativeBlas {
     info = dsysv(uplo, n, nrhs, doubleDummy, 0, lda, intDummy, 0, doubleDummy, 0, ldb, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dsysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dsysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -154,8 +208,12 @@ public class NativeBlas {
     info = ssysv(uplo, n, nrhs, floatDummy, 0, lda, intDummy, 0, floatDummy, 0, ldb, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = ssysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = ssysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -167,8 +225,12 @@ public class NativeBlas {
     info = dsyev(jobz, uplo, n, doubleDummy, 0, lda, doubleDummy, 0, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dsyev(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dsyev(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -180,8 +242,12 @@ public class NativeBlas {
     info = ssyev(jobz, uplo, n, floatDummy, 0, lda, floatDummy, 0, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = ssyev(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = ssyev(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -195,9 +261,14 @@ public class NativeBlas {
     info = dsyevd(jobz, uplo, n, doubleDummy, 0, lda, doubleDummy, 0, work, 0, -1, iwork, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    liwork = (int) iwork[0]; iwork = new int[liwork];
-    info = dsyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    liwork = (int) iwork[0]; iwork = Workspace.ints(liwork);
+    try {
+      info = dsyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    } finally {
+      Workspace.release(work);
+      Workspace.release(iwork);
+    }
     return info;
   }
 
@@ -211,9 +282,14 @@ public class NativeBlas {
     info = dsyevr(jobz, range, uplo, n, doubleDummy, 0, lda, vl, vu, il, iu, abstol, intDummy, 0, doubleDummy, 0, doubleDummy, 0, ldz, intDummy, 0, work, 0, -1, iwork, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    liwork = (int) iwork[0]; iwork = new int[liwork];
-    info = dsyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx, work, 0, lwork, iwork, 0, liwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    liwork = (int) iwork[0]; iwork = Workspace.ints(liwork);
+    try {
+      info = dsyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx, work, 0, lwork, iwork, 0, liwork);
+    } finally {
+      Workspace.release(work);
+      Workspace.release(iwork);
+    }
     return info;
   }
 
@@ -225,8 +301,12 @@ public class NativeBlas {
     info = dsyevx(jobz, range, uplo, n, doubleDummy, 0, lda, vl, vu, il, iu, abstol, intDummy, 0, doubleDummy, 0, doubleDummy, 0, ldz, work, 0, -1, intDummy, 0, intDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dsyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dsyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -240,9 +320,14 @@ public class NativeBlas {
     info = ssyevd(jobz, uplo, n, floatDummy, 0, lda, floatDummy, 0, work, 0, -1, iwork, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    liwork = (int) iwork[0]; iwork = new int[liwork];
-    info = ssyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    liwork = (int) iwork[0]; iwork = Workspace.ints(liwork);
+    try {
+      info = ssyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    } finally {
+      Workspace.release(work);
+      Workspace.release(iwork);
+    }
     return info;
   }
 
@@ -256,9 +341,14 @@ public class NativeBlas {
     info = ssyevr(jobz, range, uplo, n, floatDummy, 0, lda, vl, vu, il, iu, abstol, intDummy, 0, floatDummy, 0, floatDummy, 0, ldz, intDummy, 0, work, 0, -1, iwork, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    liwork = (int) iwork[0]; iwork = new int[liwork];
-    info = ssyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx, work, 0, lwork, iwork, 0, liwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    liwork = (int) iwork[0]; iwork = Workspace.ints(liwork);
+    try {
+      info = ssyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx, work, 0, lwork, iwork, 0, liwork);
+    } finally {
+      Workspace.release(work);
+      Workspace.release(iwork);
+    }
     return info;
   }
 
@@ -270,8 +360,12 @@ public class NativeBlas {
     info = ssyevx(jobz, range, uplo, n, floatDummy, 0, lda, vl, vu, il, iu, abstol, intDummy, 0, floatDummy, 0, floatDummy, 0, ldz, work, 0, -1, intDummy, 0, intDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = ssyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = ssyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -285,8 +379,12 @@ public class NativeBlas {
     info = cgeev(jobvl, jobvr, n, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, ldvl, floatDummy, 0, ldvr, work, 0, -1, floatDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork*2];
-    info = cgeev(jobvl, jobvr, n, a, aIdx, lda, w, wIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork, rwork, rworkIdx);
+    lwork = (int) work[0]; work = Workspace.floats(lwork*2);
+    try {
+      info = cgeev(jobvl, jobvr, n, a, aIdx, lda, w, wIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork, rwork, rworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -298,8 +396,12 @@ public class NativeBlas {
     info = dgeev(jobvl, jobvr, n, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, doubleDummy, 0, ldvl, doubleDummy, 0, ldvr, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -311,8 +413,12 @@ public class NativeBlas {
     info = sgeev(jobvl, jobvr, n, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, floatDummy, 0, ldvl, floatDummy, 0, ldvr, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = sgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -324,8 +430,12 @@ public class NativeBlas {
     info = zgeev(jobvl, jobvr, n, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, ldvl, doubleDummy, 0, ldvr, work, 0, -1, doubleDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork*2];
-    info = zgeev(jobvl, jobvr, n, a, aIdx, lda, w, wIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork, rwork, rworkIdx);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork*2);
+    try {
+      info = zgeev(jobvl, jobvr, n, a, aIdx, lda, w, wIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr, work, 0, lwork, rwork, rworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -333,6 +443,16 @@ public class NativeBlas {
   public static native int sgetrf(int m, int n, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx);
   public static native int dpotrf(char uplo, int n, double[] a, int aIdx, int lda);
   public static native int spotrf(char uplo, int n, float[] a, int aIdx, int lda);
+  public static native int dgetrs(char trans, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb);
+  public static native int sgetrs(char trans, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb);
+  public static native int dpotrs(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb);
+  public static native int spotrs(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb);
+  public static native int dgecon(char norm, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx);
+  public static native int sgecon(char norm, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx);
+  public static native int dpocon(char uplo, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx);
+  public static native int spocon(char uplo, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx);
+  public static native int dtrcon(char norm, char uplo, char diag, int n, double[] a, int aIdx, int lda, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx);
+  public static native int strcon(char norm, char uplo, char diag, int n, float[] a, int aIdx, int lda, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx);
   public static native int cgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] work, int workIdx, int lwork, float[] rwork, int rworkIdx);
   public static int cgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx) {
     int info;
@@ -341,8 +461,12 @@ public class NativeBlas {
     info = cgesvd(jobu, jobvt, m, n, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, ldu, floatDummy, 0, ldvt, work, 0, -1, floatDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork*2];
-    info = cgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, rwork, rworkIdx);
+    lwork = (int) work[0]; work = Workspace.floats(lwork*2);
+    try {
+      info = cgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, rwork, rworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -354,8 +478,12 @@ public class NativeBlas {
     info = dgesvd(jobu, jobvt, m, n, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, ldu, doubleDummy, 0, ldvt, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -367,8 +495,12 @@ public class NativeBlas {
     info = sgesvd(jobu, jobvt, m, n, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, ldu, floatDummy, 0, ldvt, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = sgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -380,8 +512,114 @@ public class NativeBlas {
     info = zgesvd(jobu, jobvt, m, n, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, ldu, doubleDummy, 0, ldvt, work, 0, -1, doubleDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork*2];
-    info = zgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, rwork, rworkIdx);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork*2);
+    try {
+      info = zgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, rwork, rworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
+    return info;
+  }
+
+  public static native int cgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] work, int workIdx, int lwork, float[] rwork, int rworkIdx, int[] iwork, int iworkIdx);
+  public static int cgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx, int[] iwork, int iworkIdx) {
+    int info;
+    float[] work = new float[1*2];
+    int lwork;
+    info = cgesdd(jobz, m, n, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, ldu, floatDummy, 0, ldvt, work, 0, -1, floatDummy, 0, intDummy, 0);
+    if (info != 0)
+      return info;
+    lwork = (int) work[0]; work = Workspace.floats(lwork*2);
+    try {
+      info = cgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, rwork, rworkIdx, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
+    return info;
+  }
+
+  public static native int dgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] work, int workIdx, int lwork, int[] iwork, int iworkIdx);
+  public static int dgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    int info;
+    double[] work = new double[1];
+    int lwork;
+    info = dgesdd(jobz, m, n, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, ldu, doubleDummy, 0, ldvt, work, 0, -1, intDummy, 0);
+    if (info != 0)
+      return info;
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
+    return info;
+  }
+
+  public static native int sgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] work, int workIdx, int lwork, int[] iwork, int iworkIdx);
+  public static int sgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    int info;
+    float[] work = new float[1];
+    int lwork;
+    info = sgesdd(jobz, m, n, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, ldu, floatDummy, 0, ldvt, work, 0, -1, intDummy, 0);
+    if (info != 0)
+      return info;
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
+    return info;
+  }
+
+  public static native int zgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] work, int workIdx, int lwork, double[] rwork, int rworkIdx, int[] iwork, int iworkIdx);
+  public static int zgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx, int[] iwork, int iworkIdx) {
+    int info;
+    double[] work = new double[1*2];
+    int lwork;
+    info = zgesdd(jobz, m, n, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, ldu, doubleDummy, 0, ldvt, work, 0, -1, doubleDummy, 0, intDummy, 0);
+    if (info != 0)
+      return info;
+    lwork = (int) work[0]; work = Workspace.doubles(lwork*2);
+    try {
+      info = zgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, rwork, rworkIdx, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
+    return info;
+  }
+
+  public static native int dgesvdx(char jobu, char jobvt, char range, int m, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, int[] ns, int nsIdx, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] work, int workIdx, int lwork, int[] iwork, int iworkIdx);
+  public static int dgesvdx(char jobu, char jobvt, char range, int m, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, int[] ns, int nsIdx, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    int info;
+    double[] work = new double[1];
+    int lwork;
+    info = dgesvdx(jobu, jobvt, range, m, n, doubleDummy, 0, lda, vl, vu, il, iu, intDummy, 0, doubleDummy, 0, doubleDummy, 0, ldu, doubleDummy, 0, ldvt, work, 0, -1, intDummy, 0);
+    if (info != 0)
+      return info;
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dgesvdx(jobu, jobvt, range, m, n, a, aIdx, lda, vl, vu, il, iu, ns, nsIdx, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
+    return info;
+  }
+
+  public static native int sgesvdx(char jobu, char jobvt, char range, int m, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, int[] ns, int nsIdx, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] work, int workIdx, int lwork, int[] iwork, int iworkIdx);
+  public static int sgesvdx(char jobu, char jobvt, char range, int m, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, int[] ns, int nsIdx, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    int info;
+    float[] work = new float[1];
+    int lwork;
+    info = sgesvdx(jobu, jobvt, range, m, n, floatDummy, 0, lda, vl, vu, il, iu, intDummy, 0, floatDummy, 0, floatDummy, 0, ldu, floatDummy, 0, ldvt, work, 0, -1, intDummy, 0);
+    if (info != 0)
+      return info;
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sgesvdx(jobu, jobvt, range, m, n, a, aIdx, lda, vl, vu, il, iu, ns, nsIdx, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, work, 0, lwork, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -395,9 +633,14 @@ public class NativeBlas {
     info = dsygvd(itype, jobz, uplo, n, doubleDummy, 0, lda, doubleDummy, 0, ldb, doubleDummy, 0, work, 0, -1, iwork, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    liwork = (int) iwork[0]; iwork = new int[liwork];
-    info = dsygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    liwork = (int) iwork[0]; iwork = Workspace.ints(liwork);
+    try {
+      info = dsygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    } finally {
+      Workspace.release(work);
+      Workspace.release(iwork);
+    }
     return info;
   }
 
@@ -411,9 +654,14 @@ public class NativeBlas {
     info = ssygvd(itype, jobz, uplo, n, floatDummy, 0, lda, floatDummy, 0, ldb, floatDummy, 0, work, 0, -1, iwork, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    liwork = (int) iwork[0]; iwork = new int[liwork];
-    info = ssygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    liwork = (int) iwork[0]; iwork = Workspace.ints(liwork);
+    try {
+      info = ssygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx, work, 0, lwork, iwork, 0, liwork);
+    } finally {
+      Workspace.release(work);
+      Workspace.release(iwork);
+    }
     return info;
   }
 
@@ -425,8 +673,12 @@ public class NativeBlas {
     info = dgelsd(m, n, nrhs, doubleDummy, 0, lda, doubleDummy, 0, ldb, doubleDummy, 0, rcond, intDummy, 0, work, 0, -1, intDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, work, 0, lwork, iwork, iworkIdx);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, work, 0, lwork, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -438,8 +690,12 @@ public class NativeBlas {
     info = sgelsd(m, n, nrhs, floatDummy, 0, lda, floatDummy, 0, ldb, floatDummy, 0, rcond, intDummy, 0, work, 0, -1, intDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = sgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, work, 0, lwork, iwork, iworkIdx);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, work, 0, lwork, iwork, iworkIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -452,8 +708,12 @@ public class NativeBlas {
     info = dgeqrf(m, n, doubleDummy, 0, lda, doubleDummy, 0, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dgeqrf(m, n, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dgeqrf(m, n, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -465,8 +725,12 @@ public class NativeBlas {
     info = sgeqrf(m, n, floatDummy, 0, lda, floatDummy, 0, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = sgeqrf(m, n, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sgeqrf(m, n, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -478,8 +742,12 @@ public class NativeBlas {
     info = dormqr(side, trans, m, n, k, doubleDummy, 0, lda, doubleDummy, 0, doubleDummy, 0, ldc, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -491,8 +759,12 @@ public class NativeBlas {
     info = sormqr(side, trans, m, n, k, floatDummy, 0, lda, floatDummy, 0, floatDummy, 0, ldc, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = sormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -504,8 +776,12 @@ public class NativeBlas {
     info = dorgqr(m, n, k, doubleDummy, 0, lda, doubleDummy, 0, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dorgqr(m, n, k, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dorgqr(m, n, k, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -517,8 +793,12 @@ public class NativeBlas {
     info = sorgqr(m, n, k, floatDummy, 0, lda, floatDummy, 0, work, 0, -1);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = sorgqr(m, n, k, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = sorgqr(m, n, k, a, aIdx, lda, tau, tauIdx, work, 0, lwork);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -530,8 +810,12 @@ public class NativeBlas {
     info = dsygvx(itype, jobz, range, uplo, n, doubleDummy, 0, lda, doubleDummy, 0, ldb, vl, vu, il, iu, abstol, intDummy, 0, doubleDummy, 0, doubleDummy, 0, ldz, work, 0, -1, intDummy, 0, intDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new double[lwork];
-    info = dsygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    lwork = (int) work[0]; work = Workspace.doubles(lwork);
+    try {
+      info = dsygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
@@ -543,10 +827,29 @@ public class NativeBlas {
     info = ssygvx(itype, jobz, range, uplo, n, floatDummy, 0, lda, floatDummy, 0, ldb, vl, vu, il, iu, abstol, intDummy, 0, floatDummy, 0, floatDummy, 0, ldz, work, 0, -1, intDummy, 0, intDummy, 0);
     if (info != 0)
       return info;
-    lwork = (int) work[0]; work = new float[lwork];
-    info = ssygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    lwork = (int) work[0]; work = Workspace.floats(lwork);
+    try {
+      info = ssygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, work, 0, lwork, iwork, iworkIdx, ifail, ifailIdx);
+    } finally {
+      Workspace.release(work);
+    }
     return info;
   }
 
 
+  /*
+   * Variants of some routines working on native memory, see DirectDoubleMatrix.
+   * Floating point arrays are passed as addresses and long offsets, integer
+   * arrays as direct buffers. The memory is passed to the Fortran routine
+   * without copying it.
+   */
+  public static native void dgemvDirect(char trans, int m, int n, double alpha, long a, long aIdx, int lda, long x, long xIdx, int incx, double beta, long y, long yIdx, int incy);
+  public static native void dgemmDirect(char transa, char transb, int m, int n, int k, double alpha, long a, long aIdx, int lda, long b, long bIdx, int ldb, double beta, long c, long cIdx, int ldc);
+  public static native int dgesvDirect(int n, int nrhs, long a, long aIdx, int lda, IntBuffer ipiv, int ipivIdx, long b, long bIdx, int ldb);
+  public static native int dsyevDirect(char jobz, char uplo, int n, long a, long aIdx, int lda, long w, long wIdx, long work, long workIdx, int lwork);
+  public static native int dsyevdDirect(char jobz, char uplo, int n, long a, long aIdx, int lda, long w, long wIdx, long work, long workIdx, int lwork, IntBuffer iwork, int iworkIdx, int liwork);
+  public static native int dposvDirect(char uplo, int n, int nrhs, long a, long aIdx, int lda, long b, long bIdx, int ldb);
+  public static native int dgetrfDirect(int m, int n, long a, long aIdx, int lda, IntBuffer ipiv, int ipivIdx);
+  public static native int dpotrfDirect(char uplo, int n, long a, long aIdx, int lda);
+
 }
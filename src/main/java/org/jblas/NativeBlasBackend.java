@@ -0,0 +1,446 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+/**
+ * BLAS backend which calls the native BLAS and LAPACK through {@link NativeBlas}.
+ *
+ * <p>As SimpleBlas always did, swap, copy, axpy, dot, and gemv for real
+ * vectors and matrices are computed by {@link JavaBlas}, because copying the
+ * arrays for the JNI call costs about as much as the computation itself.</p>
+ */
+public class NativeBlasBackend implements BlasBackend {
+  public String getName() {
+    return "native";
+  }
+
+  // BLAS Level 1
+  public void ccopy(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    NativeBlas.ccopy(n, cx, cxIdx, incx, cy, cyIdx, incy);
+  }
+
+  public void dcopy(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    JavaBlas.rcopy(n, dx, dxIdx, incx, dy, dyIdx, incy);
+  }
+
+  public void scopy(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    JavaBlas.rcopy(n, sx, sxIdx, incx, sy, syIdx, incy);
+  }
+
+  public void zcopy(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    NativeBlas.zcopy(n, zx, zxIdx, incx, zy, zyIdx, incy);
+  }
+
+  public void dswap(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    JavaBlas.rswap(n, dx, dxIdx, incx, dy, dyIdx, incy);
+  }
+
+  public void sswap(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    JavaBlas.rswap(n, sx, sxIdx, incx, sy, syIdx, incy);
+  }
+
+  public void caxpy(int n, ComplexFloat ca, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    NativeBlas.caxpy(n, ca, cx, cxIdx, incx, cy, cyIdx, incy);
+  }
+
+  public void daxpy(int n, double da, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    JavaBlas.raxpy(n, da, dx, dxIdx, incx, dy, dyIdx, incy);
+  }
+
+  public void saxpy(int n, float sa, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    JavaBlas.raxpy(n, sa, sx, sxIdx, incx, sy, syIdx, incy);
+  }
+
+  public void zaxpy(int n, ComplexDouble za, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    NativeBlas.zaxpy(n, za, zx, zxIdx, incx, zy, zyIdx, incy);
+  }
+
+  public void cscal(int n, ComplexFloat ca, float[] cx, int cxIdx, int incx) {
+    NativeBlas.cscal(n, ca, cx, cxIdx, incx);
+  }
+
+  public void dscal(int n, double da, double[] dx, int dxIdx, int incx) {
+    NativeBlas.dscal(n, da, dx, dxIdx, incx);
+  }
+
+  public void sscal(int n, float sa, float[] sx, int sxIdx, int incx) {
+    NativeBlas.sscal(n, sa, sx, sxIdx, incx);
+  }
+
+  public void zscal(int n, ComplexDouble za, double[] zx, int zxIdx, int incx) {
+    NativeBlas.zscal(n, za, zx, zxIdx, incx);
+  }
+
+  public ComplexFloat cdotc(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    return NativeBlas.cdotc(n, cx, cxIdx, incx, cy, cyIdx, incy);
+  }
+
+  public ComplexFloat cdotu(int n, float[] cx, int cxIdx, int incx, float[] cy, int cyIdx, int incy) {
+    return NativeBlas.cdotu(n, cx, cxIdx, incx, cy, cyIdx, incy);
+  }
+
+  public double ddot(int n, double[] dx, int dxIdx, int incx, double[] dy, int dyIdx, int incy) {
+    return JavaBlas.rdot(n, dx, dxIdx, incx, dy, dyIdx, incy);
+  }
+
+  public float sdot(int n, float[] sx, int sxIdx, int incx, float[] sy, int syIdx, int incy) {
+    return JavaBlas.rdot(n, sx, sxIdx, incx, sy, syIdx, incy);
+  }
+
+  public ComplexDouble zdotc(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    return NativeBlas.zdotc(n, zx, zxIdx, incx, zy, zyIdx, incy);
+  }
+
+  public ComplexDouble zdotu(int n, double[] zx, int zxIdx, int incx, double[] zy, int zyIdx, int incy) {
+    return NativeBlas.zdotu(n, zx, zxIdx, incx, zy, zyIdx, incy);
+  }
+
+  public double dnrm2(int n, double[] x, int xIdx, int incx) {
+    return NativeBlas.dnrm2(n, x, xIdx, incx);
+  }
+
+  public double dznrm2(int n, double[] x, int xIdx, int incx) {
+    return NativeBlas.dznrm2(n, x, xIdx, incx);
+  }
+
+  public float scnrm2(int n, float[] x, int xIdx, int incx) {
+    return NativeBlas.scnrm2(n, x, xIdx, incx);
+  }
+
+  public float snrm2(int n, float[] x, int xIdx, int incx) {
+    return NativeBlas.snrm2(n, x, xIdx, incx);
+  }
+
+  public double dasum(int n, double[] dx, int dxIdx, int incx) {
+    return NativeBlas.dasum(n, dx, dxIdx, incx);
+  }
+
+  public double dzasum(int n, double[] zx, int zxIdx, int incx) {
+    return NativeBlas.dzasum(n, zx, zxIdx, incx);
+  }
+
+  public float sasum(int n, float[] sx, int sxIdx, int incx) {
+    return NativeBlas.sasum(n, sx, sxIdx, incx);
+  }
+
+  public float scasum(int n, float[] cx, int cxIdx, int incx) {
+    return NativeBlas.scasum(n, cx, cxIdx, incx);
+  }
+
+  public int icamax(int n, float[] cx, int cxIdx, int incx) {
+    return NativeBlas.icamax(n, cx, cxIdx, incx);
+  }
+
+  public int idamax(int n, double[] dx, int dxIdx, int incx) {
+    return NativeBlas.idamax(n, dx, dxIdx, incx);
+  }
+
+  public int isamax(int n, float[] sx, int sxIdx, int incx) {
+    return NativeBlas.isamax(n, sx, sxIdx, incx);
+  }
+
+  public int izamax(int n, double[] zx, int zxIdx, int incx) {
+    return NativeBlas.izamax(n, zx, zxIdx, incx);
+  }
+
+  // BLAS Level 2
+  public void dgemv(char trans, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] x, int xIdx, int incx, double beta, double[] y, int yIdx, int incy) {
+    JavaBlas.rgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+  }
+
+  public void sgemv(char trans, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] x, int xIdx, int incx, float beta, float[] y, int yIdx, int incy) {
+    JavaBlas.rgemv(trans, m, n, alpha, a, aIdx, lda, x, xIdx, incx, beta, y, yIdx, incy);
+  }
+
+  public void cgerc(int m, int n, ComplexFloat alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    NativeBlas.cgerc(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  public void cgeru(int m, int n, ComplexFloat alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    NativeBlas.cgeru(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  public void dger(int m, int n, double alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    NativeBlas.dger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  public void sger(int m, int n, float alpha, float[] x, int xIdx, int incx, float[] y, int yIdx, int incy, float[] a, int aIdx, int lda) {
+    NativeBlas.sger(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  public void zgerc(int m, int n, ComplexDouble alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    NativeBlas.zgerc(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  public void zgeru(int m, int n, ComplexDouble alpha, double[] x, int xIdx, int incx, double[] y, int yIdx, int incy, double[] a, int aIdx, int lda) {
+    NativeBlas.zgeru(m, n, alpha, x, xIdx, incx, y, yIdx, incy, a, aIdx, lda);
+  }
+
+  // BLAS Level 3
+  public void cgemm(char transa, char transb, int m, int n, int k, ComplexFloat alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, ComplexFloat beta, float[] c, int cIdx, int ldc) {
+    NativeBlas.cgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+
+  public void dgemm(char transa, char transb, int m, int n, int k, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double beta, double[] c, int cIdx, int ldc) {
+    NativeBlas.dgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+
+  public void sgemm(char transa, char transb, int m, int n, int k, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float beta, float[] c, int cIdx, int ldc) {
+    NativeBlas.sgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+
+  public void zgemm(char transa, char transb, int m, int n, int k, ComplexDouble alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, ComplexDouble beta, double[] c, int cIdx, int ldc) {
+    NativeBlas.zgemm(transa, transb, m, n, k, alpha, a, aIdx, lda, b, bIdx, ldb, beta, c, cIdx, ldc);
+  }
+
+  public void dtrsm(char side, char uplo, char transa, char diag, int m, int n, double alpha, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb) {
+    NativeBlas.dtrsm(side, uplo, transa, diag, m, n, alpha, a, aIdx, lda, b, bIdx, ldb);
+  }
+
+  public void strsm(char side, char uplo, char transa, char diag, int m, int n, float alpha, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb) {
+    NativeBlas.strsm(side, uplo, transa, diag, m, n, alpha, a, aIdx, lda, b, bIdx, ldb);
+  }
+
+  // LAPACK
+  public int dgesv(int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb) {
+    return NativeBlas.dgesv(n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+  }
+
+  public int sgesv(int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb) {
+    return NativeBlas.sgesv(n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+  }
+
+  public int dsysv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb) {
+    return NativeBlas.dsysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+  }
+
+  public int ssysv(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb) {
+    return NativeBlas.ssysv(uplo, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+  }
+
+  public int dsyev(char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] w, int wIdx) {
+    return NativeBlas.dsyev(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+  }
+
+  public int ssyev(char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] w, int wIdx) {
+    return NativeBlas.ssyev(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+  }
+
+  public int dsyevd(char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] w, int wIdx) {
+    return NativeBlas.dsyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+  }
+
+  public int dsyevr(char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] isuppz, int isuppzIdx) {
+    return NativeBlas.dsyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx);
+  }
+
+  public int dsyevx(char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    return NativeBlas.dsyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+  }
+
+  public int ssyevd(char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] w, int wIdx) {
+    return NativeBlas.ssyevd(jobz, uplo, n, a, aIdx, lda, w, wIdx);
+  }
+
+  public int ssyevr(char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] isuppz, int isuppzIdx) {
+    return NativeBlas.ssyevr(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, isuppz, isuppzIdx);
+  }
+
+  public int ssyevx(char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    return NativeBlas.ssyevx(jobz, range, uplo, n, a, aIdx, lda, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+  }
+
+  public int dposv(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb) {
+    return NativeBlas.dposv(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+  }
+
+  public int sposv(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb) {
+    return NativeBlas.sposv(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+  }
+
+  public int dgeev(char jobvl, char jobvr, int n, double[] a, int aIdx, int lda, double[] wr, int wrIdx, double[] wi, int wiIdx, double[] vl, int vlIdx, int ldvl, double[] vr, int vrIdx, int ldvr) {
+    return NativeBlas.dgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr);
+  }
+
+  public int sgeev(char jobvl, char jobvr, int n, float[] a, int aIdx, int lda, float[] wr, int wrIdx, float[] wi, int wiIdx, float[] vl, int vlIdx, int ldvl, float[] vr, int vrIdx, int ldvr) {
+    return NativeBlas.sgeev(jobvl, jobvr, n, a, aIdx, lda, wr, wrIdx, wi, wiIdx, vl, vlIdx, ldvl, vr, vrIdx, ldvr);
+  }
+
+  public int dgetrf(int m, int n, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx) {
+    return NativeBlas.dgetrf(m, n, a, aIdx, lda, ipiv, ipivIdx);
+  }
+
+  public int sgetrf(int m, int n, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx) {
+    return NativeBlas.sgetrf(m, n, a, aIdx, lda, ipiv, ipivIdx);
+  }
+
+  public int dpotrf(char uplo, int n, double[] a, int aIdx, int lda) {
+    return NativeBlas.dpotrf(uplo, n, a, aIdx, lda);
+  }
+
+  public int spotrf(char uplo, int n, float[] a, int aIdx, int lda) {
+    return NativeBlas.spotrf(uplo, n, a, aIdx, lda);
+  }
+
+  public int dgetrs(char trans, int n, int nrhs, double[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, double[] b, int bIdx, int ldb) {
+    return NativeBlas.dgetrs(trans, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+  }
+
+  public int sgetrs(char trans, int n, int nrhs, float[] a, int aIdx, int lda, int[] ipiv, int ipivIdx, float[] b, int bIdx, int ldb) {
+    return NativeBlas.sgetrs(trans, n, nrhs, a, aIdx, lda, ipiv, ipivIdx, b, bIdx, ldb);
+  }
+
+  public int dpotrs(char uplo, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb) {
+    return NativeBlas.dpotrs(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+  }
+
+  public int spotrs(char uplo, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb) {
+    return NativeBlas.spotrs(uplo, n, nrhs, a, aIdx, lda, b, bIdx, ldb);
+  }
+
+  public int dgecon(char norm, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.dgecon(norm, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+  }
+
+  public int sgecon(char norm, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.sgecon(norm, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+  }
+
+  public int dpocon(char uplo, int n, double[] a, int aIdx, int lda, double anorm, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.dpocon(uplo, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+  }
+
+  public int spocon(char uplo, int n, float[] a, int aIdx, int lda, float anorm, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.spocon(uplo, n, a, aIdx, lda, anorm, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+  }
+
+  public int dtrcon(char norm, char uplo, char diag, int n, double[] a, int aIdx, int lda, double[] rcond, int rcondIdx, double[] work, int workIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.dtrcon(norm, uplo, diag, n, a, aIdx, lda, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+  }
+
+  public int strcon(char norm, char uplo, char diag, int n, float[] a, int aIdx, int lda, float[] rcond, int rcondIdx, float[] work, int workIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.strcon(norm, uplo, diag, n, a, aIdx, lda, rcond, rcondIdx, work, workIdx, iwork, iworkIdx);
+  }
+
+  public int cgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx) {
+    return NativeBlas.cgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx);
+  }
+
+  public int dgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt) {
+    return NativeBlas.dgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt);
+  }
+
+  public int sgesvd(char jobu, char jobvt, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt) {
+    return NativeBlas.sgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt);
+  }
+
+  public int zgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx) {
+    return NativeBlas.zgesvd(jobu, jobvt, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx);
+  }
+
+  public int cgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, float[] rwork, int rworkIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.cgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx, iwork, iworkIdx);
+  }
+
+  public int dgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    return NativeBlas.dgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+  }
+
+  public int sgesdd(char jobz, int m, int n, float[] a, int aIdx, int lda, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    return NativeBlas.sgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+  }
+
+  public int zgesdd(char jobz, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, double[] rwork, int rworkIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.zgesdd(jobz, m, n, a, aIdx, lda, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, rwork, rworkIdx, iwork, iworkIdx);
+  }
+
+  public int dgesvdx(char jobu, char jobvt, char range, int m, int n, double[] a, int aIdx, int lda, double vl, double vu, int il, int iu, int[] ns, int nsIdx, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    return NativeBlas.dgesvdx(jobu, jobvt, range, m, n, a, aIdx, lda, vl, vu, il, iu, ns, nsIdx, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+  }
+
+  public int sgesvdx(char jobu, char jobvt, char range, int m, int n, float[] a, int aIdx, int lda, float vl, float vu, int il, int iu, int[] ns, int nsIdx, float[] s, int sIdx, float[] u, int uIdx, int ldu, float[] vt, int vtIdx, int ldvt, int[] iwork, int iworkIdx) {
+    return NativeBlas.sgesvdx(jobu, jobvt, range, m, n, a, aIdx, lda, vl, vu, il, iu, ns, nsIdx, s, sIdx, u, uIdx, ldu, vt, vtIdx, ldvt, iwork, iworkIdx);
+  }
+
+  public int dsygvd(int itype, char jobz, char uplo, int n, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double[] w, int wIdx) {
+    return NativeBlas.dsygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx);
+  }
+
+  public int ssygvd(int itype, char jobz, char uplo, int n, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float[] w, int wIdx) {
+    return NativeBlas.ssygvd(itype, jobz, uplo, n, a, aIdx, lda, b, bIdx, ldb, w, wIdx);
+  }
+
+  public int dgelsd(int m, int n, int nrhs, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double[] s, int sIdx, double rcond, int[] rank, int rankIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.dgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, iwork, iworkIdx);
+  }
+
+  public int sgelsd(int m, int n, int nrhs, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float[] s, int sIdx, float rcond, int[] rank, int rankIdx, int[] iwork, int iworkIdx) {
+    return NativeBlas.sgelsd(m, n, nrhs, a, aIdx, lda, b, bIdx, ldb, s, sIdx, rcond, rank, rankIdx, iwork, iworkIdx);
+  }
+
+  public int dgeqrf(int m, int n, double[] a, int aIdx, int lda, double[] tau, int tauIdx) {
+    return NativeBlas.dgeqrf(m, n, a, aIdx, lda, tau, tauIdx);
+  }
+
+  public int sgeqrf(int m, int n, float[] a, int aIdx, int lda, float[] tau, int tauIdx) {
+    return NativeBlas.sgeqrf(m, n, a, aIdx, lda, tau, tauIdx);
+  }
+
+  public int dormqr(char side, char trans, int m, int n, int k, double[] a, int aIdx, int lda, double[] tau, int tauIdx, double[] c, int cIdx, int ldc) {
+    return NativeBlas.dormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc);
+  }
+
+  public int sormqr(char side, char trans, int m, int n, int k, float[] a, int aIdx, int lda, float[] tau, int tauIdx, float[] c, int cIdx, int ldc) {
+    return NativeBlas.sormqr(side, trans, m, n, k, a, aIdx, lda, tau, tauIdx, c, cIdx, ldc);
+  }
+
+  public int dorgqr(int m, int n, int k, double[] a, int aIdx, int lda, double[] tau, int tauIdx) {
+    return NativeBlas.dorgqr(m, n, k, a, aIdx, lda, tau, tauIdx);
+  }
+
+  public int sorgqr(int m, int n, int k, float[] a, int aIdx, int lda, float[] tau, int tauIdx) {
+    return NativeBlas.sorgqr(m, n, k, a, aIdx, lda, tau, tauIdx);
+  }
+
+  public int dsygvx(int itype, char jobz, char range, char uplo, int n, double[] a, int aIdx, int lda, double[] b, int bIdx, int ldb, double vl, double vu, int il, int iu, double abstol, int[] m, int mIdx, double[] w, int wIdx, double[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    return NativeBlas.dsygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+  }
+
+  public int ssygvx(int itype, char jobz, char range, char uplo, int n, float[] a, int aIdx, int lda, float[] b, int bIdx, int ldb, float vl, float vu, int il, int iu, float abstol, int[] m, int mIdx, float[] w, int wIdx, float[] z, int zIdx, int ldz, int[] iwork, int iworkIdx, int[] ifail, int ifailIdx) {
+    return NativeBlas.ssygvx(itype, jobz, range, uplo, n, a, aIdx, lda, b, bIdx, ldb, vl, vu, il, iu, abstol, m, mIdx, w, wIdx, z, zIdx, ldz, iwork, iworkIdx, ifail, ifailIdx);
+  }
+}
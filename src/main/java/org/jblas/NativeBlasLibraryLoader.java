@@ -36,6 +36,8 @@ class NativeBlasLibraryLoader {
       // when dependent libraries cannot be found
       double[] a = new double[1];
       NativeBlas.dgemm('N', 'N', 1, 1, 1, 1.0, a, 0, 1, a, 0, 1, 1.0, a, 0, 1);
+
+      configureCriticalArrays();
     } catch (UnsatisfiedLinkError e) {
       String arch = System.getProperty("os.arch");
       String name = System.getProperty("os.name");
@@ -59,6 +61,47 @@ class NativeBlasLibraryLoader {
     }
   }
 
+  /**
+   * Set the routine families which use critical array access from the
+   * system property "org.jblas.criticalArrays".
+   *
+   * The property is a comma separated list of "blas1", "blas2", "blas3",
+   * "lapack", or one of "all" and "none".
+   */
+  static void configureCriticalArrays() {
+    String spec = System.getProperty("org.jblas.criticalArrays");
+    if (spec == null)
+      return;
+
+    try {
+      NativeBlas.setCriticalArrayFamilies(parseCriticalArrayFamilies(spec));
+    } catch (IllegalArgumentException e) {
+      Logger.getLogger().warning(e.getMessage());
+    }
+  }
+
+  static int parseCriticalArrayFamilies(String spec) {
+    int families = 0;
+    for (String s : spec.split(",")) {
+      s = s.trim().toLowerCase();
+      if (s.length() == 0 || s.equals("none"))
+        continue;
+      else if (s.equals("all"))
+        families |= NativeBlas.ALL_FAMILIES;
+      else if (s.equals("blas1"))
+        families |= NativeBlas.BLAS_LEVEL1;
+      else if (s.equals("blas2"))
+        families |= NativeBlas.BLAS_LEVEL2;
+      else if (s.equals("blas3"))
+        families |= NativeBlas.BLAS_LEVEL3;
+      else if (s.equals("lapack"))
+        families |= NativeBlas.LAPACK;
+      else
+        throw new IllegalArgumentException("Unknown routine family '" + s + "' in org.jblas.criticalArrays.");
+    }
+    return families;
+  }
+
   public static void loadDependentLibraries() {
     String arch = System.getProperty("os.arch");
     String name = System.getProperty("os.name");
@@ -0,0 +1,568 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.util.MatrixCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * <p>Reading and writing NumPy .npy and .npz files.</p>
+ *
+ * <p>Matrices are written as two-dimensional Fortran ordered arrays in little
+ * endian byte order with the dtypes float64, float32, complex128 and complex64,
+ * so that the data is written in one piece without reordering. NumPy reads them
+ * with numpy.load().</p>
+ *
+ * <p>When reading, arrays in C order are transposed into the column major layout
+ * of jblas, and both byte orders are accepted. One-dimensional arrays become column
+ * vectors and zero-dimensional arrays 1 * 1 matrices. Arrays with more than two
+ * dimensions and other dtypes are not supported. float32 data can be read into
+ * DoubleMatrix objects and vice versa, and real data into complex matrices.</p>
+ *
+ * <p>Fortran ordered float64 and float32 arrays (and vectors in either order) can be
+ * mapped into memory without copying with {@link #mapDouble} and {@link #mapFloat}.
+ * Changes to a writable mapping go directly to the .npy file.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * Npy.save("a.npy", DoubleMatrix.randn(3, 4));
+ * DoubleMatrix A = Npy.loadDouble("a.npy");
+ * </pre>
+ */
+public class Npy {
+    private static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+    /** The total header size is a multiple of this, so that the data is aligned. */
+    private static final int ALIGNMENT = 64;
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    private static final Pattern DESCR = Pattern.compile("['\"]descr['\"]\\s*:\\s*['\"]([<>|=])([a-zA-Z])(\\d+)['\"]");
+    private static final Pattern FORTRAN_ORDER = Pattern.compile("['\"]fortran_order['\"]\\s*:\\s*(True|False)");
+    private static final Pattern SHAPE = Pattern.compile("['\"]shape['\"]\\s*:\\s*\\(([^)]*)\\)");
+
+    /** The parsed header of an array. */
+    private static class Header {
+        ByteOrder order;
+        char kind;
+        /** Size of a real number or of the real part of a complex number, 4 or 8. */
+        int size;
+        boolean fortranOrder;
+        int rows;
+        int columns;
+        long dataOffset;
+
+        boolean isComplex() {
+            return kind == 'c';
+        }
+
+        /** Number of reals in the data, counting real and imaginary parts of complex numbers. */
+        int values() throws IOException {
+            long n = (long) rows * columns * (isComplex() ? 2 : 1);
+            if (n > Integer.MAX_VALUE)
+                throw new IOException("Array with " + rows + " * " + columns + " elements is too large.");
+            return (int) n;
+        }
+
+        String descr() {
+            return (order == ByteOrder.LITTLE_ENDIAN ? "<" : ">") + kind + (isComplex() ? 2 * size : size);
+        }
+    }
+
+    /*
+     * Writing
+     */
+
+    /** Write a matrix to a .npy file. */
+    public static void save(String filename, DoubleMatrix A) throws IOException {
+        FileOutputStream fos = new FileOutputStream(filename, false);
+        try {
+            write(fos.getChannel(), A);
+        } finally {
+            fos.close();
+        }
+    }
+
+    /** Write a matrix to a .npy file. */
+    public static void save(String filename, FloatMatrix A) throws IOException {
+        FileOutputStream fos = new FileOutputStream(filename, false);
+        try {
+            write(fos.getChannel(), A);
+        } finally {
+            fos.close();
+        }
+    }
+
+    /** Write a matrix to a .npy file. */
+    public static void save(String filename, ComplexDoubleMatrix A) throws IOException {
+        FileOutputStream fos = new FileOutputStream(filename, false);
+        try {
+            write(fos.getChannel(), A);
+        } finally {
+            fos.close();
+        }
+    }
+
+    /** Write a matrix to a .npy file. */
+    public static void save(String filename, ComplexFloatMatrix A) throws IOException {
+        FileOutputStream fos = new FileOutputStream(filename, false);
+        try {
+            write(fos.getChannel(), A);
+        } finally {
+            fos.close();
+        }
+    }
+
+    /** Write a matrix in .npy format, as float64 array. */
+    public static void write(WritableByteChannel channel, DoubleMatrix A) throws IOException {
+        writeHeader(channel, "<f8", A.rows, A.columns);
+        MatrixCodec.writeData(channel, A.data, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Write a matrix in .npy format, as float32 array. */
+    public static void write(WritableByteChannel channel, FloatMatrix A) throws IOException {
+        writeHeader(channel, "<f4", A.rows, A.columns);
+        MatrixCodec.writeData(channel, A.data, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Write a matrix in .npy format, as complex128 array. */
+    public static void write(WritableByteChannel channel, ComplexDoubleMatrix A) throws IOException {
+        writeHeader(channel, "<c16", A.rows, A.columns);
+        MatrixCodec.writeData(channel, A.data, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Write a matrix in .npy format, as complex64 array. */
+    public static void write(WritableByteChannel channel, ComplexFloatMatrix A) throws IOException {
+        writeHeader(channel, "<c8", A.rows, A.columns);
+        MatrixCodec.writeData(channel, A.data, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Write matrices to a .npz file, an uncompressed or compressed zip archive with one
+     * .npy file per matrix, as written by numpy.savez() and numpy.savez_compressed().
+     *
+     * @param arrays the matrices by name, DoubleMatrix, FloatMatrix, ComplexDoubleMatrix or ComplexFloatMatrix objects
+     * @param compressed whether to compress the entries
+     */
+    public static void saveNpz(String filename, Map<String, ?> arrays, boolean compressed) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(filename, false));
+        try {
+            for (Map.Entry<String, ?> e : arrays.entrySet()) {
+                ZipEntry entry = new ZipEntry(e.getKey() + ".npy");
+                if (compressed) {
+                    entry.setMethod(ZipEntry.DEFLATED);
+                    zip.putNextEntry(entry);
+                    write(zip, e.getValue());
+                } else {
+                    // stored entries need their size and checksum in advance
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    write(bytes, e.getValue());
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes.toByteArray());
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(bytes.size());
+                    entry.setCompressedSize(bytes.size());
+                    entry.setCrc(crc.getValue());
+                    zip.putNextEntry(entry);
+                    bytes.writeTo(zip);
+                }
+                zip.closeEntry();
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private static void write(OutputStream out, Object array) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(out);
+        if (array instanceof DoubleMatrix) {
+            write(channel, (DoubleMatrix) array);
+        } else if (array instanceof FloatMatrix) {
+            write(channel, (FloatMatrix) array);
+        } else if (array instanceof ComplexDoubleMatrix) {
+            write(channel, (ComplexDoubleMatrix) array);
+        } else if (array instanceof ComplexFloatMatrix) {
+            write(channel, (ComplexFloatMatrix) array);
+        } else {
+            throw new IllegalArgumentException("Cannot write objects of " + (array == null ? "null" : array.getClass()) + " to .npz files.");
+        }
+    }
+
+    private static void writeHeader(WritableByteChannel channel, String descr, int rows, int columns) throws IOException {
+        String dict = "{'descr': '" + descr + "', 'fortran_order': True, 'shape': (" + rows + ", " + columns + "), }";
+        int length = dict.length() + 1;
+        length += (ALIGNMENT - (MAGIC.length + 4 + length) % ALIGNMENT) % ALIGNMENT;
+
+        ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length + 4 + length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).put((byte) 1).put((byte) 0).putShort((short) length);
+        buffer.put(dict.getBytes(LATIN1));
+        while (buffer.position() < buffer.limit() - 1)
+            buffer.put((byte) ' ');
+        buffer.put((byte) '\n');
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /*
+     * Reading
+     */
+
+    /** Read a real matrix from a .npy file. */
+    public static DoubleMatrix loadDouble(String filename) throws IOException {
+        FileInputStream fis = new FileInputStream(filename);
+        try {
+            return readDouble(fis.getChannel());
+        } finally {
+            fis.close();
+        }
+    }
+
+    /** Read a real matrix from a .npy file. */
+    public static FloatMatrix loadFloat(String filename) throws IOException {
+        FileInputStream fis = new FileInputStream(filename);
+        try {
+            return readFloat(fis.getChannel());
+        } finally {
+            fis.close();
+        }
+    }
+
+    /** Read a real or complex matrix from a .npy file. */
+    public static ComplexDoubleMatrix loadComplexDouble(String filename) throws IOException {
+        FileInputStream fis = new FileInputStream(filename);
+        try {
+            return readComplexDouble(fis.getChannel());
+        } finally {
+            fis.close();
+        }
+    }
+
+    /** Read a real or complex matrix from a .npy file. */
+    public static ComplexFloatMatrix loadComplexFloat(String filename) throws IOException {
+        FileInputStream fis = new FileInputStream(filename);
+        try {
+            return readComplexFloat(fis.getChannel());
+        } finally {
+            fis.close();
+        }
+    }
+
+    /** Read a real matrix in .npy format. */
+    public static DoubleMatrix readDouble(ReadableByteChannel channel) throws IOException {
+        return readDouble(channel, readHeader(channel));
+    }
+
+    /** Read a real matrix in .npy format. */
+    public static FloatMatrix readFloat(ReadableByteChannel channel) throws IOException {
+        return readFloat(channel, readHeader(channel));
+    }
+
+    /** Read a real or complex matrix in .npy format. */
+    public static ComplexDoubleMatrix readComplexDouble(ReadableByteChannel channel) throws IOException {
+        return readComplexDouble(channel, readHeader(channel));
+    }
+
+    /** Read a real or complex matrix in .npy format. */
+    public static ComplexFloatMatrix readComplexFloat(ReadableByteChannel channel) throws IOException {
+        return readComplexFloat(channel, readHeader(channel));
+    }
+
+    /**
+     * Read all arrays of a .npz file. The matrices have the type matching their
+     * dtype: DoubleMatrix for float64, FloatMatrix for float32, ComplexDoubleMatrix
+     * for complex128 and ComplexFloatMatrix for complex64.
+     *
+     * @return the matrices by name, in the order of the archive
+     */
+    public static Map<String, Object> loadNpz(String filename) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        ZipFile zip = new ZipFile(filename);
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.endsWith(".npy"))
+                    name = name.substring(0, name.length() - 4);
+                InputStream in = zip.getInputStream(entry);
+                try {
+                    result.put(name, read(Channels.newChannel(in)));
+                } finally {
+                    in.close();
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        return result;
+    }
+
+    private static Object read(ReadableByteChannel channel) throws IOException {
+        Header header = readHeader(channel);
+        if (header.isComplex())
+            return header.size == 8 ? readComplexDouble(channel, header) : readComplexFloat(channel, header);
+        else
+            return header.size == 8 ? readDouble(channel, header) : readFloat(channel, header);
+    }
+
+    private static DoubleMatrix readDouble(ReadableByteChannel channel, Header header) throws IOException {
+        checkReal(header);
+        return new DoubleMatrix(header.rows, header.columns, columnMajor(header, readDoubles(channel, header), 1));
+    }
+
+    private static FloatMatrix readFloat(ReadableByteChannel channel, Header header) throws IOException {
+        checkReal(header);
+        return new FloatMatrix(header.rows, header.columns, columnMajor(header, readFloats(channel, header), 1));
+    }
+
+    private static ComplexDoubleMatrix readComplexDouble(ReadableByteChannel channel, Header header) throws IOException {
+        double[] data;
+        if (header.isComplex()) {
+            data = columnMajor(header, readDoubles(channel, header), 2);
+        } else {
+            double[] real = columnMajor(header, readDoubles(channel, header), 1);
+            data = new double[2 * real.length];
+            for (int i = 0; i < real.length; i++)
+                data[2 * i] = real[i];
+        }
+        return new ComplexDoubleMatrix(header.rows, header.columns, data);
+    }
+
+    private static ComplexFloatMatrix readComplexFloat(ReadableByteChannel channel, Header header) throws IOException {
+        float[] data;
+        if (header.isComplex()) {
+            data = columnMajor(header, readFloats(channel, header), 2);
+        } else {
+            float[] real = columnMajor(header, readFloats(channel, header), 1);
+            data = new float[2 * real.length];
+            for (int i = 0; i < real.length; i++)
+                data[2 * i] = real[i];
+        }
+        return new ComplexFloatMatrix(header.rows, header.columns, data);
+    }
+
+    private static void checkReal(Header header) throws IOException {
+        if (header.isComplex())
+            throw new IOException("Array of type " + header.descr() + " is complex, read it into a complex matrix.");
+    }
+
+    /** The data in the order of the file. */
+    private static double[] readDoubles(ReadableByteChannel channel, Header header) throws IOException {
+        double[] data = new double[header.values()];
+        if (header.size == 8) {
+            MatrixCodec.readData(channel, data, header.order);
+        } else {
+            float[] floats = new float[data.length];
+            MatrixCodec.readData(channel, floats, header.order);
+            for (int i = 0; i < data.length; i++)
+                data[i] = floats[i];
+        }
+        return data;
+    }
+
+    /** The data in the order of the file. */
+    private static float[] readFloats(ReadableByteChannel channel, Header header) throws IOException {
+        float[] data = new float[header.values()];
+        if (header.size == 4) {
+            MatrixCodec.readData(channel, data, header.order);
+        } else {
+            double[] doubles = new double[data.length];
+            MatrixCodec.readData(channel, doubles, header.order);
+            for (int i = 0; i < data.length; i++)
+                data[i] = (float) doubles[i];
+        }
+        return data;
+    }
+
+    /** Transpose C ordered data of numbers consisting of width reals into column major order. */
+    private static double[] columnMajor(Header header, double[] data, int width) {
+        if (header.fortranOrder || header.rows == 1 || header.columns == 1)
+            return data;
+        double[] result = new double[data.length];
+        for (int r = 0; r < header.rows; r++)
+            for (int c = 0; c < header.columns; c++)
+                for (int k = 0; k < width; k++)
+                    result[(r + c * header.rows) * width + k] = data[(r * header.columns + c) * width + k];
+        return result;
+    }
+
+    /** Transpose C ordered data of numbers consisting of width reals into column major order. */
+    private static float[] columnMajor(Header header, float[] data, int width) {
+        if (header.fortranOrder || header.rows == 1 || header.columns == 1)
+            return data;
+        float[] result = new float[data.length];
+        for (int r = 0; r < header.rows; r++)
+            for (int c = 0; c < header.columns; c++)
+                for (int k = 0; k < width; k++)
+                    result[(r + c * header.rows) * width + k] = data[(r * header.columns + c) * width + k];
+        return result;
+    }
+
+    private static Header readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = readFully(channel, MAGIC.length + 2);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i])
+                throw new IOException("Not a .npy file.");
+        }
+        int major = buffer.get(MAGIC.length);
+        if (major < 1 || major > 3)
+            throw new IOException("Unsupported .npy format version " + major + ".");
+
+        int lengthSize = major == 1 ? 2 : 4;
+        buffer = readFully(channel, lengthSize).order(ByteOrder.LITTLE_ENDIAN);
+        long length = major == 1 ? buffer.getShort(0) & 0xffff : buffer.getInt(0) & 0xffffffffL;
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("Invalid .npy header length " + length + ".");
+        buffer = readFully(channel, (int) length);
+        String dict = new String(buffer.array(), major == 3 ? Charset.forName("UTF-8") : LATIN1);
+
+        Header header = new Header();
+        header.dataOffset = MAGIC.length + 2 + lengthSize + length;
+
+        Matcher m = DESCR.matcher(dict);
+        if (!m.find())
+            throw new IOException("Missing dtype in .npy header " + dict.trim() + ".");
+        char order = m.group(1).charAt(0);
+        header.order = order == '<' ? ByteOrder.LITTLE_ENDIAN : order == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.nativeOrder();
+        header.kind = m.group(2).charAt(0);
+        int size = Integer.parseInt(m.group(3));
+        header.size = header.isComplex() ? size / 2 : size;
+        if ((header.kind != 'f' && header.kind != 'c') || (header.size != 4 && header.size != 8) || size % 2 != 0)
+            throw new IOException("Unsupported dtype " + m.group(1) + m.group(2) + m.group(3) + ", only float32, float64, complex64 and complex128 are supported.");
+
+        m = FORTRAN_ORDER.matcher(dict);
+        if (!m.find())
+            throw new IOException("Missing fortran_order in .npy header " + dict.trim() + ".");
+        header.fortranOrder = m.group(1).equals("True");
+
+        m = SHAPE.matcher(dict);
+        if (!m.find())
+            throw new IOException("Missing shape in .npy header " + dict.trim() + ".");
+        long[] shape = new long[2];
+        int dimensions = 0;
+        for (String s : m.group(1).split(",")) {
+            s = s.trim();
+            if (s.length() == 0)
+                continue;
+            if (dimensions == 2)
+                throw new IOException("Arrays with shape (" + m.group(1) + ") have more than two dimensions.");
+            shape[dimensions++] = Long.parseLong(s);
+        }
+        long rows = dimensions == 0 ? 1 : shape[0];
+        long columns = dimensions < 2 ? 1 : shape[1];
+        if (rows > Integer.MAX_VALUE || columns > Integer.MAX_VALUE)
+            throw new IOException("Arrays with shape (" + m.group(1) + ") are too large.");
+        header.rows = (int) rows;
+        header.columns = (int) columns;
+        return header;
+    }
+
+    private static ByteBuffer readFully(ReadableByteChannel channel, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Unexpected end of .npy data.");
+        }
+        return buffer;
+    }
+
+    /*
+     * Memory mapping
+     */
+
+    /**
+     * Map a float64 .npy file into memory. The array must be Fortran ordered unless it
+     * is a vector.
+     *
+     * @param writable whether to map the file for reading and writing, or only for reading
+     */
+    public static MappedDoubleMatrix mapDouble(String filename, boolean writable) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, writable ? "rw" : "r");
+        Header header = mappableHeader(file, 'f', 8);
+        return MappedDoubleMatrix.map(file, header.dataOffset, header.order, header.rows, header.columns, writable);
+    }
+
+    /**
+     * Map a float32 .npy file into memory. The array must be Fortran ordered unless it
+     * is a vector.
+     *
+     * @param writable whether to map the file for reading and writing, or only for reading
+     */
+    public static MappedFloatMatrix mapFloat(String filename, boolean writable) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, writable ? "rw" : "r");
+        Header header = mappableHeader(file, 'f', 4);
+        return MappedFloatMatrix.map(file, header.dataOffset, header.order, header.rows, header.columns, writable);
+    }
+
+    /** Read the header and check that the data can be mapped, closing the file if not. */
+    private static Header mappableHeader(RandomAccessFile file, char kind, int size) throws IOException {
+        try {
+            Header header = readHeader(file.getChannel());
+            if (header.kind != kind || header.size != size)
+                throw new IOException("Cannot map an array of type " + header.descr() + " as " + (size == 8 ? "float64" : "float32") + ".");
+            if (!header.fortranOrder && header.rows > 1 && header.columns > 1)
+                throw new IOException("Only Fortran ordered arrays can be mapped without copying.");
+            return header;
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+}
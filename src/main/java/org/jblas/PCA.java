@@ -0,0 +1,197 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+/**
+ * <p>Principal component analysis.</p>
+ *
+ * <p>Computes the leading principal components of the rows of a data matrix with
+ * {@link RandomizedSVD}. The data is given as blocks of rows ({@link DoubleRowBlocks}),
+ * so that it never needs to be completely in memory. The column means are computed
+ * in a first pass, and the blocks are centered as they are read.</p>
+ */
+public class PCA {
+    /**
+     * Compute the first k principal components of the rows of X.
+     *
+     * @return A DoubleMatrix[3] array of the mean (a row vector), the principal
+     * components (the columns of an (n,k) matrix) and the variances along
+     * the components (a vector of length k).
+     */
+    public static DoubleMatrix[] fit(DoubleMatrix X, int k) {
+        return fit(RandomizedSVD.rowBlocks(X, X.rows), k);
+    }
+
+    /**
+     * Compute the first k principal components of the rows of a matrix given by
+     * blocks of rows.
+     *
+     * @see #fit(DoubleMatrix, int)
+     */
+    public static DoubleMatrix[] fit(DoubleRowBlocks X, int k) {
+        return fit(X, k, RandomizedSVD.DEFAULT_OVERSAMPLING, RandomizedSVD.DEFAULT_POWER_ITERATIONS);
+    }
+
+    /**
+     * Compute the first k principal components of the rows of a matrix given by
+     * blocks of rows, with the given parameters for the randomized SVD.
+     *
+     * @see #fit(DoubleMatrix, int)
+     * @see RandomizedSVD#svd(DoubleRowBlocks, int, int, int)
+     */
+    public static DoubleMatrix[] fit(DoubleRowBlocks X, int k, int oversampling, int powerIterations) {
+        DoubleMatrix mean = new DoubleMatrix(1, X.getColumns());
+        int m = 0;
+        X.reset();
+        for (DoubleMatrix B = X.nextBlock(); B != null; B = X.nextBlock()) {
+            mean.addi(B.columnSums());
+            m += B.rows;
+        }
+        if (m < 2) {
+            throw new IllegalArgumentException("Principal component analysis needs at least two rows.");
+        }
+        mean.divi(m);
+
+        DoubleMatrix[] SV = RandomizedSVD.rightSVD(centered(X, mean), k, oversampling, powerIterations);
+        DoubleMatrix variances = SV[0].mul(SV[0]).divi(m - 1);
+        return new DoubleMatrix[]{mean, SV[1], variances};
+    }
+
+    /** Project the rows of X onto the principal components. */
+    public static DoubleMatrix transform(DoubleMatrix X, DoubleMatrix mean, DoubleMatrix components) {
+        return X.subRowVector(mean).mmul(components);
+    }
+
+    /** Map projected rows back into the original space. */
+    public static DoubleMatrix inverseTransform(DoubleMatrix Y, DoubleMatrix mean, DoubleMatrix components) {
+        return Y.mmulTranspose(components).addiRowVector(mean);
+    }
+
+    private static DoubleRowBlocks centered(final DoubleRowBlocks X, final DoubleMatrix mean) {
+        return new DoubleRowBlocks() {
+            public int getColumns() {
+                return X.getColumns();
+            }
+
+            public void reset() {
+                X.reset();
+            }
+
+            public DoubleMatrix nextBlock() {
+                DoubleMatrix B = X.nextBlock();
+                return B == null ? null : B.subRowVector(mean);
+            }
+        };
+    }
+//BEGIN
+  // The code below has been automatically generated.
+  // DO NOT EDIT!
+    /**
+     * Compute the first k principal components of the rows of X.
+     *
+     * @return A FloatMatrix[3] array of the mean (a row vector), the principal
+     * components (the columns of an (n,k) matrix) and the variances along
+     * the components (a vector of length k).
+     */
+    public static FloatMatrix[] fit(FloatMatrix X, int k) {
+        return fit(RandomizedSVD.rowBlocks(X, X.rows), k);
+    }
+
+    /**
+     * Compute the first k principal components of the rows of a matrix given by
+     * blocks of rows.
+     *
+     * @see #fit(FloatMatrix, int)
+     */
+    public static FloatMatrix[] fit(FloatRowBlocks X, int k) {
+        return fit(X, k, RandomizedSVD.DEFAULT_OVERSAMPLING, RandomizedSVD.DEFAULT_POWER_ITERATIONS);
+    }
+
+    /**
+     * Compute the first k principal components of the rows of a matrix given by
+     * blocks of rows, with the given parameters for the randomized SVD.
+     *
+     * @see #fit(FloatMatrix, int)
+     * @see RandomizedSVD#svd(FloatRowBlocks, int, int, int)
+     */
+    public static FloatMatrix[] fit(FloatRowBlocks X, int k, int oversampling, int powerIterations) {
+        FloatMatrix mean = new FloatMatrix(1, X.getColumns());
+        int m = 0;
+        X.reset();
+        for (FloatMatrix B = X.nextBlock(); B != null; B = X.nextBlock()) {
+            mean.addi(B.columnSums());
+            m += B.rows;
+        }
+        if (m < 2) {
+            throw new IllegalArgumentException("Principal component analysis needs at least two rows.");
+        }
+        mean.divi(m);
+
+        FloatMatrix[] SV = RandomizedSVD.rightSVD(centered(X, mean), k, oversampling, powerIterations);
+        FloatMatrix variances = SV[0].mul(SV[0]).divi(m - 1);
+        return new FloatMatrix[]{mean, SV[1], variances};
+    }
+
+    /** Project the rows of X onto the principal components. */
+    public static FloatMatrix transform(FloatMatrix X, FloatMatrix mean, FloatMatrix components) {
+        return X.subRowVector(mean).mmul(components);
+    }
+
+    /** Map projected rows back into the original space. */
+    public static FloatMatrix inverseTransform(FloatMatrix Y, FloatMatrix mean, FloatMatrix components) {
+        return Y.mmulTranspose(components).addiRowVector(mean);
+    }
+
+    private static FloatRowBlocks centered(final FloatRowBlocks X, final FloatMatrix mean) {
+        return new FloatRowBlocks() {
+            public int getColumns() {
+                return X.getColumns();
+            }
+
+            public void reset() {
+                X.reset();
+            }
+
+            public FloatMatrix nextBlock() {
+                FloatMatrix B = X.nextBlock();
+                return B == null ? null : B.subRowVector(mean);
+            }
+        };
+    }
+//END
+}
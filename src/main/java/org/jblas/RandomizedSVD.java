@@ -0,0 +1,412 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jblas.util.Functions.min;
+
+/**
+ * <p>Randomized low-rank singular value decomposition.</p>
+ *
+ * <p>Computes the k largest singular values and vectors of an (m,n) matrix A with the
+ * randomized range finder of Halko, Martinsson and Tropp. A random (n,l) matrix with
+ * l = k + oversampling is multiplied with A'A a number of times (the power iterations)
+ * and orthonormalized after each step. The resulting basis Q of the dominant row space
+ * is used to reduce A to the (m,l) matrix A*Q, whose R factor is computed blockwise
+ * (TSQR) and decomposed with {@link Singular}.</p>
+ *
+ * <p>A is only accessed by streaming over blocks of rows (see {@link DoubleRowBlocks}),
+ * with one pass per power iteration plus one pass for the reduction. Apart from the
+ * current block, {@link #rightSVD} needs memory of the order of n * l, so the matrix
+ * never has to be resident, and m can be much larger than n. {@link #svd} keeps A * Q
+ * (m * l) to compute the left singular vectors as Q_Y * U_R from its thin QR
+ * decomposition, so they are orthonormal even if A is rank deficient. Results depend
+ * on the random numbers, see {@link org.jblas.util.Random#seed}.</p>
+ */
+public class RandomizedSVD {
+//STOP
+    /** Default number of additional random vectors. */
+    public static final int DEFAULT_OVERSAMPLING = 10;
+    /** Default number of power iterations. */
+    public static final int DEFAULT_POWER_ITERATIONS = 2;
+//START
+
+    /**
+     * Compute the k largest singular values and vectors of A with the default
+     * oversampling and number of power iterations.
+     *
+     * @return A DoubleMatrix[3] array of U (m * k), S (k) and V (n * k) such that
+     * U * diag(S) * V' approximates A.
+     */
+    public static DoubleMatrix[] svd(DoubleMatrix A, int k) {
+        return svd(rowBlocks(A, A.rows), k, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS);
+    }
+
+    /**
+     * Compute the k largest singular values and vectors of a matrix given by
+     * blocks of rows.
+     *
+     * @param A the matrix
+     * @param k number of singular values
+     * @param oversampling number of additional random vectors
+     * @param powerIterations number of power iterations, more iterations give more
+     *                        accurate results when the singular values decay slowly
+     * @return A DoubleMatrix[3] array of U (m * k), S (k) and V (n * k) such that
+     * U * diag(S) * V' approximates A.
+     */
+    public static DoubleMatrix[] svd(DoubleRowBlocks A, int k, int oversampling, int powerIterations) {
+        DoubleMatrix Q = rowSpaceBasis(A, k, oversampling, powerIterations);
+
+        // Y = A * Q, gathered in one pass over A
+        List<DoubleMatrix> blocks = new ArrayList<DoubleMatrix>();
+        int m = 0;
+        A.reset();
+        for (DoubleMatrix B = A.nextBlock(); B != null; B = A.nextBlock()) {
+            blocks.add(B.mmul(Q));
+            m += B.rows;
+        }
+        if (m == 0) {
+            throw new IllegalArgumentException("Matrix has no rows.");
+        }
+        DoubleMatrix Y = new DoubleMatrix(m, Q.columns);
+        int row = 0;
+        for (DoubleMatrix YB : blocks) {
+            for (int j = 0; j < YB.columns; j++) {
+                System.arraycopy(YB.data, j * YB.rows, Y.data, row + j * m, YB.rows);
+            }
+            row += YB.rows;
+        }
+
+        // Y = Q_Y * R = (Q_Y * U_R) * S * (Q * W)'. U is a product of matrices with
+        // orthonormal columns, so it stays orthonormal even if A is rank deficient.
+        DoubleMatrix tau = new DoubleMatrix(min(Y.rows, Y.columns));
+        SimpleBlas.geqrf(Y, tau);
+        DoubleMatrix R = upperTriangle(Y, tau.length);
+        SimpleBlas.orgqr(tau.length, tau.length, Y, tau);
+        DoubleMatrix QY = Y.columns == tau.length ? Y : Y.getRange(0, Y.rows, 0, tau.length);
+
+        DoubleMatrix[] USW = Singular.sparseSVD(R);
+        int r = min(k, USW[1].length);
+        DoubleMatrix U = QY.mmul(USW[0].getRange(0, USW[0].rows, 0, r));
+        DoubleMatrix S = USW[1].getRange(0, r);
+        DoubleMatrix V = Q.mmul(USW[2].getRange(0, USW[2].rows, 0, r));
+        return new DoubleMatrix[]{U, S, V};
+    }
+
+    /**
+     * Compute the k largest singular values and the right singular vectors of a
+     * matrix given by blocks of rows, without the left singular vectors (which have
+     * as many rows as A).
+     *
+     * @return A DoubleMatrix[2] array of S (k) and V (n * k).
+     * @see #svd(DoubleRowBlocks, int, int, int)
+     */
+    public static DoubleMatrix[] rightSVD(DoubleRowBlocks A, int k, int oversampling, int powerIterations) {
+        DoubleMatrix Q = rowSpaceBasis(A, k, oversampling, powerIterations);
+
+        // R factor of A * Q, computed block by block
+        DoubleMatrix R = null;
+        A.reset();
+        for (DoubleMatrix B = A.nextBlock(); B != null; B = A.nextBlock()) {
+            DoubleMatrix Y = B.mmul(Q);
+            R = upperTriangularFactor(R == null ? Y : DoubleMatrix.concatVertically(R, Y));
+        }
+        if (R == null) {
+            throw new IllegalArgumentException("Matrix has no rows.");
+        }
+
+        // A * Q = Q_R * R = Q_R * U_R * S * W', so A ~ (Q_R * U_R) * S * (Q * W)'
+        DoubleMatrix[] USW = Singular.sparseSVD(R);
+        int r = min(k, USW[1].length);
+        DoubleMatrix S = USW[1].getRange(0, r);
+        DoubleMatrix V = Q.mmul(USW[2].getRange(0, USW[2].rows, 0, r));
+        return new DoubleMatrix[]{S, V};
+    }
+
+    /** Orthonormal basis Q = orth((A'A)^(q+1) * Omega) of the dominant row space of A. */
+    private static DoubleMatrix rowSpaceBasis(DoubleRowBlocks A, int k, int oversampling, int powerIterations) {
+        int n = A.getColumns();
+        if (k < 1 || k > n) {
+            throw new IllegalArgumentException("Number of singular values must be between 1 and " + n + " (is " + k + ").");
+        }
+        if (oversampling < 0 || powerIterations < 0) {
+            throw new IllegalArgumentException("Oversampling and number of power iterations must not be negative.");
+        }
+        int l = min(k + oversampling, n);
+
+        DoubleMatrix Q = DoubleMatrix.randn(n, l);
+        for (int i = 0; i <= powerIterations; i++) {
+            DoubleMatrix Z = new DoubleMatrix(n, l);
+            A.reset();
+            for (DoubleMatrix B = A.nextBlock(); B != null; B = A.nextBlock()) {
+                SimpleBlas.gemm('T', 'N', 1.0, B, B.mmul(Q), 1.0, Z);
+            }
+            Q = orthonormalize(Z);
+        }
+        return Q;
+    }
+
+    /** Present a matrix as blocks of at most blockSize rows. */
+    public static DoubleRowBlocks rowBlocks(final DoubleMatrix A, final int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        return new DoubleRowBlocks() {
+            private int row;
+
+            public int getColumns() {
+                return A.columns;
+            }
+
+            public void reset() {
+                row = 0;
+            }
+
+            public DoubleMatrix nextBlock() {
+                if (row >= A.rows) {
+                    return null;
+                }
+                int end = min(row + blockSize, A.rows);
+                DoubleMatrix B = row == 0 && end == A.rows ? A : A.getRange(row, end, 0, A.columns);
+                row = end;
+                return B;
+            }
+        };
+    }
+
+    /** Orthonormal basis of the columns of Z (thin QR). */
+    private static DoubleMatrix orthonormalize(DoubleMatrix Z) {
+        DoubleMatrix tau = new DoubleMatrix(Z.columns);
+        SimpleBlas.geqrf(Z, tau);
+        SimpleBlas.orgqr(Z.columns, Z.columns, Z, tau);
+        return Z;
+    }
+
+    /** The upper triangular factor R of a QR decomposition of Y, with min(rows, columns) rows. */
+    private static DoubleMatrix upperTriangularFactor(DoubleMatrix Y) {
+        DoubleMatrix tau = new DoubleMatrix(min(Y.rows, Y.columns));
+        SimpleBlas.geqrf(Y, tau);
+        return upperTriangle(Y, tau.length);
+    }
+
+    /** Copy the upper triangle of the first p rows of Y, as left by geqrf. */
+    private static DoubleMatrix upperTriangle(DoubleMatrix Y, int p) {
+        DoubleMatrix R = new DoubleMatrix(p, Y.columns);
+        for (int j = 0; j < Y.columns; j++) {
+            for (int i = 0; i <= j && i < p; i++) {
+                R.put(i, j, Y.get(i, j));
+            }
+        }
+        return R;
+    }
+//BEGIN
+  // The code below has been automatically generated.
+  // DO NOT EDIT!
+
+    /**
+     * Compute the k largest singular values and vectors of A with the default
+     * oversampling and number of power iterations.
+     *
+     * @return A FloatMatrix[3] array of U (m * k), S (k) and V (n * k) such that
+     * U * diag(S) * V' approximates A.
+     */
+    public static FloatMatrix[] svd(FloatMatrix A, int k) {
+        return svd(rowBlocks(A, A.rows), k, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS);
+    }
+
+    /**
+     * Compute the k largest singular values and vectors of a matrix given by
+     * blocks of rows.
+     *
+     * @param A the matrix
+     * @param k number of singular values
+     * @param oversampling number of additional random vectors
+     * @param powerIterations number of power iterations, more iterations give more
+     *                        accurate results when the singular values decay slowly
+     * @return A FloatMatrix[3] array of U (m * k), S (k) and V (n * k) such that
+     * U * diag(S) * V' approximates A.
+     */
+    public static FloatMatrix[] svd(FloatRowBlocks A, int k, int oversampling, int powerIterations) {
+        FloatMatrix Q = rowSpaceBasis(A, k, oversampling, powerIterations);
+
+        // Y = A * Q, gathered in one pass over A
+        List<FloatMatrix> blocks = new ArrayList<FloatMatrix>();
+        int m = 0;
+        A.reset();
+        for (FloatMatrix B = A.nextBlock(); B != null; B = A.nextBlock()) {
+            blocks.add(B.mmul(Q));
+            m += B.rows;
+        }
+        if (m == 0) {
+            throw new IllegalArgumentException("Matrix has no rows.");
+        }
+        FloatMatrix Y = new FloatMatrix(m, Q.columns);
+        int row = 0;
+        for (FloatMatrix YB : blocks) {
+            for (int j = 0; j < YB.columns; j++) {
+                System.arraycopy(YB.data, j * YB.rows, Y.data, row + j * m, YB.rows);
+            }
+            row += YB.rows;
+        }
+
+        // Y = Q_Y * R = (Q_Y * U_R) * S * (Q * W)'. U is a product of matrices with
+        // orthonormal columns, so it stays orthonormal even if A is rank deficient.
+        FloatMatrix tau = new FloatMatrix(min(Y.rows, Y.columns));
+        SimpleBlas.geqrf(Y, tau);
+        FloatMatrix R = upperTriangle(Y, tau.length);
+        SimpleBlas.orgqr(tau.length, tau.length, Y, tau);
+        FloatMatrix QY = Y.columns == tau.length ? Y : Y.getRange(0, Y.rows, 0, tau.length);
+
+        FloatMatrix[] USW = Singular.sparseSVD(R);
+        int r = min(k, USW[1].length);
+        FloatMatrix U = QY.mmul(USW[0].getRange(0, USW[0].rows, 0, r));
+        FloatMatrix S = USW[1].getRange(0, r);
+        FloatMatrix V = Q.mmul(USW[2].getRange(0, USW[2].rows, 0, r));
+        return new FloatMatrix[]{U, S, V};
+    }
+
+    /**
+     * Compute the k largest singular values and the right singular vectors of a
+     * matrix given by blocks of rows, without the left singular vectors (which have
+     * as many rows as A).
+     *
+     * @return A FloatMatrix[2] array of S (k) and V (n * k).
+     * @see #svd(FloatRowBlocks, int, int, int)
+     */
+    public static FloatMatrix[] rightSVD(FloatRowBlocks A, int k, int oversampling, int powerIterations) {
+        FloatMatrix Q = rowSpaceBasis(A, k, oversampling, powerIterations);
+
+        // R factor of A * Q, computed block by block
+        FloatMatrix R = null;
+        A.reset();
+        for (FloatMatrix B = A.nextBlock(); B != null; B = A.nextBlock()) {
+            FloatMatrix Y = B.mmul(Q);
+            R = upperTriangularFactor(R == null ? Y : FloatMatrix.concatVertically(R, Y));
+        }
+        if (R == null) {
+            throw new IllegalArgumentException("Matrix has no rows.");
+        }
+
+        // A * Q = Q_R * R = Q_R * U_R * S * W', so A ~ (Q_R * U_R) * S * (Q * W)'
+        FloatMatrix[] USW = Singular.sparseSVD(R);
+        int r = min(k, USW[1].length);
+        FloatMatrix S = USW[1].getRange(0, r);
+        FloatMatrix V = Q.mmul(USW[2].getRange(0, USW[2].rows, 0, r));
+        return new FloatMatrix[]{S, V};
+    }
+
+    /** Orthonormal basis Q = orth((A'A)^(q+1) * Omega) of the dominant row space of A. */
+    private static FloatMatrix rowSpaceBasis(FloatRowBlocks A, int k, int oversampling, int powerIterations) {
+        int n = A.getColumns();
+        if (k < 1 || k > n) {
+            throw new IllegalArgumentException("Number of singular values must be between 1 and " + n + " (is " + k + ").");
+        }
+        if (oversampling < 0 || powerIterations < 0) {
+            throw new IllegalArgumentException("Oversampling and number of power iterations must not be negative.");
+        }
+        int l = min(k + oversampling, n);
+
+        FloatMatrix Q = FloatMatrix.randn(n, l);
+        for (int i = 0; i <= powerIterations; i++) {
+            FloatMatrix Z = new FloatMatrix(n, l);
+            A.reset();
+            for (FloatMatrix B = A.nextBlock(); B != null; B = A.nextBlock()) {
+                SimpleBlas.gemm('T', 'N', 1.0f, B, B.mmul(Q), 1.0f, Z);
+            }
+            Q = orthonormalize(Z);
+        }
+        return Q;
+    }
+
+    /** Present a matrix as blocks of at most blockSize rows. */
+    public static FloatRowBlocks rowBlocks(final FloatMatrix A, final int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        return new FloatRowBlocks() {
+            private int row;
+
+            public int getColumns() {
+                return A.columns;
+            }
+
+            public void reset() {
+                row = 0;
+            }
+
+            public FloatMatrix nextBlock() {
+                if (row >= A.rows) {
+                    return null;
+                }
+                int end = min(row + blockSize, A.rows);
+                FloatMatrix B = row == 0 && end == A.rows ? A : A.getRange(row, end, 0, A.columns);
+                row = end;
+                return B;
+            }
+        };
+    }
+
+    /** Orthonormal basis of the columns of Z (thin QR). */
+    private static FloatMatrix orthonormalize(FloatMatrix Z) {
+        FloatMatrix tau = new FloatMatrix(Z.columns);
+        SimpleBlas.geqrf(Z, tau);
+        SimpleBlas.orgqr(Z.columns, Z.columns, Z, tau);
+        return Z;
+    }
+
+    /** The upper triangular factor R of a QR decomposition of Y, with min(rows, columns) rows. */
+    private static FloatMatrix upperTriangularFactor(FloatMatrix Y) {
+        FloatMatrix tau = new FloatMatrix(min(Y.rows, Y.columns));
+        SimpleBlas.geqrf(Y, tau);
+        return upperTriangle(Y, tau.length);
+    }
+
+    /** Copy the upper triangle of the first p rows of Y, as left by geqrf. */
+    private static FloatMatrix upperTriangle(FloatMatrix Y, int p) {
+        FloatMatrix R = new FloatMatrix(p, Y.columns);
+        for (int j = 0; j < Y.columns; j++) {
+            for (int i = 0; i <= j && i < p; i++) {
+                R.put(i, j, Y.get(i, j));
+            }
+        }
+        return R;
+    }
+//END
+}
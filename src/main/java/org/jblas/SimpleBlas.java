@@ -41,6 +41,11 @@ package org.jblas;
 
 import org.jblas.exceptions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import static org.jblas.BlasBackends.backend;
 import static org.jblas.util.Functions.*;
 
 /**
@@ -61,8 +66,7 @@ public class SimpleBlas {
 	 * Compute x &lt;-&gt; y (swap two matrices)
 	 */
 	public static DoubleMatrix swap(DoubleMatrix x, DoubleMatrix y) {
-		//NativeBlas.dswap(x.length, x.data, 0, 1, y.data, 0, 1);
-		JavaBlas.rswap(x.length, x.data, 0, 1, y.data, 0, 1);
+		backend().dswap(x.length, x.data, 0, 1, y.data, 0, 1);
 		return y;
 	}
 
@@ -70,12 +74,12 @@ public class SimpleBlas {
 	 * Compute x <- alpha * x (scale a matrix)
 	 */
 	public static DoubleMatrix scal(double alpha, DoubleMatrix x) {
-		NativeBlas.dscal(x.length, alpha, x.data, 0, 1);
+		backend().dscal(x.length, alpha, x.data, 0, 1);
 		return x;
 	}
 
 	public static ComplexDoubleMatrix scal(ComplexDouble alpha, ComplexDoubleMatrix x) {
-		NativeBlas.zscal(x.length, alpha, x.data, 0, 1);
+		backend().zscal(x.length, alpha, x.data, 0, 1);
 		return x;
 	}
 
@@ -83,13 +87,12 @@ public class SimpleBlas {
 	 * Compute y <- x (copy a matrix)
 	 */
 	public static DoubleMatrix copy(DoubleMatrix x, DoubleMatrix y) {
-		//NativeBlas.dcopy(x.length, x.data, 0, 1, y.data, 0, 1);
-		JavaBlas.rcopy(x.length, x.data, 0, 1, y.data, 0, 1);
+		backend().dcopy(x.length, x.data, 0, 1, y.data, 0, 1);
 		return y;
 	}
 
 	public static ComplexDoubleMatrix copy(ComplexDoubleMatrix x, ComplexDoubleMatrix y) {
-		NativeBlas.zcopy(x.length, x.data, 0, 1, y.data, 0, 1);
+		backend().zcopy(x.length, x.data, 0, 1, y.data, 0, 1);
 		return y;
 	}
 
@@ -97,14 +100,13 @@ public class SimpleBlas {
 	 * Compute y <- alpha * x + y (elementwise addition)
 	 */
 	public static DoubleMatrix axpy(double da, DoubleMatrix dx, DoubleMatrix dy) {
-		//NativeBlas.daxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
-		JavaBlas.raxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
+		backend().daxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
 
 		return dy;
 	}
 
 	public static ComplexDoubleMatrix axpy(ComplexDouble da, ComplexDoubleMatrix dx, ComplexDoubleMatrix dy) {
-		NativeBlas.zaxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
+		backend().zaxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
 		return dy;
 	}
 
@@ -112,44 +114,43 @@ public class SimpleBlas {
 	 * Compute x^T * y (dot product)
 	 */
 	public static double dot(DoubleMatrix x, DoubleMatrix y) {
-		//return NativeBlas.ddot(x.length, x.data, 0, 1, y.data, 0, 1);
-		return JavaBlas.rdot(x.length, x.data, 0, 1, y.data, 0, 1);
+		return backend().ddot(x.length, x.data, 0, 1, y.data, 0, 1);
 	}
 
 	/**
 	 * Compute x^T * y (dot product)
 	 */
 	public static ComplexDouble dotc(ComplexDoubleMatrix x, ComplexDoubleMatrix y) {
-		return NativeBlas.zdotc(x.length, x.data, 0, 1, y.data, 0, 1);
+		return backend().zdotc(x.length, x.data, 0, 1, y.data, 0, 1);
 	}
 
 	/**
 	 * Compute x^T * y (dot product)
 	 */
 	public static ComplexDouble dotu(ComplexDoubleMatrix x, ComplexDoubleMatrix y) {
-		return NativeBlas.zdotu(x.length, x.data, 0, 1, y.data, 0, 1);
+		return backend().zdotu(x.length, x.data, 0, 1, y.data, 0, 1);
 	}
 
 	/**
 	 * Compute || x ||_2 (2-norm)
 	 */
 	public static double nrm2(DoubleMatrix x) {
-		return NativeBlas.dnrm2(x.length, x.data, 0, 1);
+		return backend().dnrm2(x.length, x.data, 0, 1);
 	}
 
 	public static double nrm2(ComplexDoubleMatrix x) {
-		return NativeBlas.dznrm2(x.length, x.data, 0, 1);
+		return backend().dznrm2(x.length, x.data, 0, 1);
 	}
 
 	/**
 	 * Compute || x ||_1 (1-norm, sum of absolute values)
 	 */
 	public static double asum(DoubleMatrix x) {
-		return NativeBlas.dasum(x.length, x.data, 0, 1);
+		return backend().dasum(x.length, x.data, 0, 1);
 	}
 
 	public static double asum(ComplexDoubleMatrix x) {
-		return NativeBlas.dzasum(x.length, x.data, 0, 1);
+		return backend().dzasum(x.length, x.data, 0, 1);
 	}
 
 	/**
@@ -157,7 +158,7 @@ public class SimpleBlas {
 	 * value maximum)
 	 */
 	public static int iamax(DoubleMatrix x) {
-		return NativeBlas.idamax(x.length, x.data, 0, 1) - 1;
+		return backend().idamax(x.length, x.data, 0, 1) - 1;
 	}
 
 	/**
@@ -167,7 +168,7 @@ public class SimpleBlas {
 	 * @return index of element with largest absolute value.
 	 */
 	public static int iamax(ComplexDoubleMatrix x) {
-		return NativeBlas.izamax(x.length, x.data, 0, 1) - 1;
+		return backend().izamax(x.length, x.data, 0, 1) - 1;
 	}
 
 	/***************************************************************************
@@ -180,27 +181,8 @@ public class SimpleBlas {
 	 */
 	public static DoubleMatrix gemv(double alpha, DoubleMatrix a,
 			DoubleMatrix x, double beta, DoubleMatrix y) {
-		if (false) {
-			NativeBlas.dgemv('N', a.rows, a.columns, alpha, a.data, 0, a.rows, x.data, 0,
-					1, beta, y.data, 0, 1);
-		} else {
-			if (beta != 0.0) {
-				for (int i = 0; i < y.length; i++)
-					y.data[i] = beta * y.data[i];
-			} else {
-				for (int i = 0; i < y.length; i++)
-					y.data[i] = 0.0;
-			}
-
-	
-			for (int j = 0; j < a.columns; j++) {
-				double xj = x.get(j);
-				if (xj != 0.0) {
-					for (int i = 0; i < a.rows; i++)
-							y.data[i] += alpha * a.get(i, j) * xj;
-				}
-			}
-		}
+		backend().dgemv('N', a.rows, a.columns, alpha, a.data, 0, a.rows, x.data, 0,
+				1, beta, y.data, 0, 1);
 		return y;
 	}
 
@@ -209,7 +191,7 @@ public class SimpleBlas {
 	 */
 	public static DoubleMatrix ger(double alpha, DoubleMatrix x,
 			DoubleMatrix y, DoubleMatrix a) {
-		NativeBlas.dger(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
+		backend().dger(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
 				0, a.rows);
 		return a;
 	}
@@ -219,7 +201,7 @@ public class SimpleBlas {
 	 */
 	public static ComplexDoubleMatrix geru(ComplexDouble alpha, ComplexDoubleMatrix x,
 			ComplexDoubleMatrix y, ComplexDoubleMatrix a) {
-		NativeBlas.zgeru(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
+		backend().zgeru(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
 				0, a.rows);
 		return a;
 	}
@@ -229,7 +211,7 @@ public class SimpleBlas {
 	 */
 	public static ComplexDoubleMatrix gerc(ComplexDouble alpha, ComplexDoubleMatrix x,
 			ComplexDoubleMatrix y, ComplexDoubleMatrix a) {
-		NativeBlas.zgerc(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
+		backend().zgerc(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
 				0, a.rows);
 		return a;
 	}
@@ -244,25 +226,169 @@ public class SimpleBlas {
 	 */
 	public static DoubleMatrix gemm(double alpha, DoubleMatrix a,
 			DoubleMatrix b, double beta, DoubleMatrix c) {
-		NativeBlas.dgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
+		backend().dgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
 				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
 		return c;
 	}
 
 	public static ComplexDoubleMatrix gemm(ComplexDouble alpha, ComplexDoubleMatrix a,
 			ComplexDoubleMatrix b, ComplexDouble beta, ComplexDoubleMatrix c) {
-		NativeBlas.zgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
+		backend().zgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
 				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
 		return c;
 	}
 
+	/**
+	 * Compute c &lt;- alpha * op(a) * op(b) + beta * c, where op(x) is x for 'N'
+	 * and the transpose of x for 'T' (or 'C'). The transposes are handled by
+	 * gemm itself and are never computed explicitly.
+	 */
+	public static DoubleMatrix gemm(char transa, char transb, double alpha, DoubleMatrix a,
+			DoubleMatrix b, double beta, DoubleMatrix c) {
+		int m = isTrans(transa) ? a.columns : a.rows;
+		int k = isTrans(transa) ? a.rows : a.columns;
+		int kb = isTrans(transb) ? b.columns : b.rows;
+		int n = isTrans(transb) ? b.rows : b.columns;
+		if (k != kb || m != c.rows || n != c.columns)
+			throw new SizeException("Cannot multiply " + m + "x" + k + " and " + kb + "x" + n + " into " + c.rows + "x" + c.columns + ".");
+		backend().dgemm(transa, transb, c.rows, c.columns, k, alpha, a.data, 0,
+				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
+		return c;
+	}
+
+	/**
+	 * Compute c &lt;- alpha * op(a) * op(b) + beta * c, where op(x) is x for 'N',
+	 * the transpose of x for 'T', and the conjugate transpose of x for 'C'.
+	 */
+	public static ComplexDoubleMatrix gemm(char transa, char transb, ComplexDouble alpha, ComplexDoubleMatrix a,
+			ComplexDoubleMatrix b, ComplexDouble beta, ComplexDoubleMatrix c) {
+		int m = isTrans(transa) ? a.columns : a.rows;
+		int k = isTrans(transa) ? a.rows : a.columns;
+		int kb = isTrans(transb) ? b.columns : b.rows;
+		int n = isTrans(transb) ? b.rows : b.columns;
+		if (k != kb || m != c.rows || n != c.columns)
+			throw new SizeException("Cannot multiply " + m + "x" + k + " and " + kb + "x" + n + " into " + c.rows + "x" + c.columns + ".");
+		backend().zgemm(transa, transb, c.rows, c.columns, k, alpha, a.data, 0,
+				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
+		return c;
+	}
+
+	/***************************************************************************
+	 * Views
+	 *
+	 * These pass the offsets and leading dimensions of the views to BLAS, so
+	 * that parts of matrices are used without copying. Vector arguments may be
+	 * column or row views.
+	 */
+
+	/**
+	 * Compute y <- x (copy a view)
+	 */
+	public static DoubleMatrixView copy(DoubleMatrixView x, DoubleMatrixView y) {
+		if (checkVectorsOrSameSize(x, y)) {
+			backend().dcopy(x.length(), x.data, x.offset, x.increment(), y.data, y.offset, y.increment());
+		} else {
+			for (int j = 0; j < x.columns; j++)
+				backend().dcopy(x.rows, x.data, x.index(0, j), 1, y.data, y.index(0, j), 1);
+		}
+		return y;
+	}
+
+	/**
+	 * Compute x <- alpha * x (scale a view)
+	 */
+	public static DoubleMatrixView scal(double alpha, DoubleMatrixView x) {
+		if (x.isVector()) {
+			backend().dscal(x.length(), alpha, x.data, x.offset, x.increment());
+		} else {
+			for (int j = 0; j < x.columns; j++)
+				backend().dscal(x.rows, alpha, x.data, x.index(0, j), 1);
+		}
+		return x;
+	}
+
+	/**
+	 * Compute y <- alpha * x + y (elementwise addition of views)
+	 */
+	public static DoubleMatrixView axpy(double da, DoubleMatrixView dx, DoubleMatrixView dy) {
+		if (checkVectorsOrSameSize(dx, dy)) {
+			backend().daxpy(dx.length(), da, dx.data, dx.offset, dx.increment(), dy.data, dy.offset, dy.increment());
+		} else {
+			for (int j = 0; j < dx.columns; j++)
+				backend().daxpy(dx.rows, da, dx.data, dx.index(0, j), 1, dy.data, dy.index(0, j), 1);
+		}
+		return dy;
+	}
+
+	/**
+	 * Compute x^T * y (dot product of two vector views)
+	 */
+	public static double dot(DoubleMatrixView x, DoubleMatrixView y) {
+		if (!x.isVector() || !y.isVector() || x.length() != y.length())
+			throw new SizeException("Arguments must be vectors of the same length.");
+		return backend().ddot(x.length(), x.data, x.offset, x.increment(), y.data, y.offset, y.increment());
+	}
+
+	/**
+	 * Compute y <- alpha*a*x + beta * y (general matrix vector
+	 * multiplication of views)
+	 */
+	public static DoubleMatrixView gemv(double alpha, DoubleMatrixView a,
+			DoubleMatrixView x, double beta, DoubleMatrixView y) {
+		if (!x.isVector() || !y.isVector() || x.length() != a.columns || y.length() != a.rows)
+			throw new SizeException("Vectors must have " + a.columns + " and " + a.rows + " elements.");
+		backend().dgemv('N', a.rows, a.columns, alpha, a.data, a.offset, a.ld, x.data, x.offset,
+				x.increment(), beta, y.data, y.offset, y.increment());
+		return y;
+	}
+
+	/**
+	 * Compute c <- alpha * a * b + beta * c (general matrix matrix
+	 * multiplication of views)
+	 */
+	public static DoubleMatrixView gemm(double alpha, DoubleMatrixView a,
+			DoubleMatrixView b, double beta, DoubleMatrixView c) {
+		return gemm('N', 'N', alpha, a, b, beta, c);
+	}
+
+	/**
+	 * Compute c &lt;- alpha * op(a) * op(b) + beta * c for views, where op(x) is x
+	 * for 'N' and the transpose of x for 'T'.
+	 */
+	public static DoubleMatrixView gemm(char transa, char transb, double alpha, DoubleMatrixView a,
+			DoubleMatrixView b, double beta, DoubleMatrixView c) {
+		int m = isTrans(transa) ? a.columns : a.rows;
+		int k = isTrans(transa) ? a.rows : a.columns;
+		int kb = isTrans(transb) ? b.columns : b.rows;
+		int n = isTrans(transb) ? b.rows : b.columns;
+		if (k != kb || m != c.rows || n != c.columns)
+			throw new SizeException("Cannot multiply " + m + "x" + k + " and " + kb + "x" + n + " into " + c.rows + "x" + c.columns + ".");
+		backend().dgemm(transa, transb, c.rows, c.columns, k, alpha, a.data, a.offset,
+				a.ld, b.data, b.offset, b.ld, beta, c.data, c.offset, c.ld);
+		return c;
+	}
+
+	/**
+	 * Whether x and y are vectors of the same length. Otherwise, they must have
+	 * the same size.
+	 */
+	private static boolean checkVectorsOrSameSize(DoubleMatrixView x, DoubleMatrixView y) {
+		if (x.isVector() && y.isVector()) {
+			if (x.length() != y.length())
+				throw new SizeException("Vectors must have the same length (is: " + x.length() + " and " + y.length() + ").");
+			return true;
+		}
+		y.assertSameSize(x);
+		return false;
+	}
+
 	/***************************************************************************
 	 * LAPACK
 	 */
 
 	public static DoubleMatrix gesv(DoubleMatrix a, int[] ipiv,
 			DoubleMatrix b) {
-		int info = NativeBlas.dgesv(a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
+		int info = backend().dgesv(a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
 				b.data, 0, b.rows);
 		checkInfo("DGESV", info);
 
@@ -279,11 +405,16 @@ public class SimpleBlas {
 		if (info < -1)
 			throw new LapackArgumentException(name, info);
 	}
+
+	private static boolean isTrans(char trans) {
+		return trans != 'N' && trans != 'n';
+	}
+
 //START
 
 	public static DoubleMatrix sysv(char uplo, DoubleMatrix a, int[] ipiv,
 			DoubleMatrix b) {
-		int info = NativeBlas.dsysv(uplo, a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
+		int info = backend().dsysv(uplo, a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
 				b.data, 0, b.rows);
 		checkInfo("SYSV", info);
 
@@ -295,7 +426,7 @@ public class SimpleBlas {
 	}
 
 	public static int syev(char jobz, char uplo, DoubleMatrix a, DoubleMatrix w) {
-		int info = NativeBlas.dsyev(jobz, uplo, a.rows, a.data, 0, a.rows, w.data, 0);
+		int info = backend().dsyev(jobz, uplo, a.rows, a.data, 0, a.rows, w.data, 0);
 
 		if (info > 0)
 			throw new LapackConvergenceException("SYEV",
@@ -314,7 +445,7 @@ public class SimpleBlas {
 		int[] m = new int[1];
 		int info;
 
-		info = NativeBlas.dsyevx(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu, il,
+		info = backend().dsyevx(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu, il,
 				iu, abstol, m, 0, w.data, 0, z.data, 0, z.rows, iwork, 0, ifail, 0);
 
 		if (info > 0) {
@@ -337,7 +468,7 @@ public class SimpleBlas {
 			DoubleMatrix w) {
 		int n = A.rows;
 
-		int info = NativeBlas.dsyevd(jobz, uplo, n, A.data, 0, A.rows, w.data, 0);
+		int info = backend().dsyevd(jobz, uplo, n, A.data, 0, A.rows, w.data, 0);
 
 		if (info > 0)
 			throw new LapackConvergenceException("SYEVD", "Not all eigenvalues converged.");
@@ -351,7 +482,7 @@ public class SimpleBlas {
 		int n = a.rows;
 		int[] m = new int[1];
 
-		int info = NativeBlas.dsyevr(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu,
+		int info = backend().dsyevr(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu,
 				il, iu, abstol, m, 0, w.data, 0, z.data, 0, z.rows, isuppz, 0);
 
 		checkInfo("SYEVR", info);
@@ -362,7 +493,7 @@ public class SimpleBlas {
 	public static void posv(char uplo, DoubleMatrix A, DoubleMatrix B) {
 		int n = A.rows;
 		int nrhs = B.columns;
-		int info = NativeBlas.dposv(uplo, n, nrhs, A.data, 0, A.rows, B.data, 0,
+		int info = backend().dposv(uplo, n, nrhs, A.data, 0, A.rows, B.data, 0,
 				B.rows);
 		checkInfo("DPOSV", info);
 		if (info > 0)
@@ -372,7 +503,7 @@ public class SimpleBlas {
 
 	public static int geev(char jobvl, char jobvr, DoubleMatrix A,
 			DoubleMatrix WR, DoubleMatrix WI, DoubleMatrix VL, DoubleMatrix VR) {
-		int info = NativeBlas.dgeev(jobvl, jobvr, A.rows, A.data, 0, A.rows, WR.data, 0,
+		int info = backend().dgeev(jobvl, jobvr, A.rows, A.data, 0, A.rows, WR.data, 0,
 				WI.data, 0, VL.data, 0, VL.rows, VR.data, 0, VR.rows);
 		if (info > 0)
 			throw new LapackConvergenceException("DGEEV", "First " + info + " eigenvalues have not converged.");
@@ -380,7 +511,7 @@ public class SimpleBlas {
 	}
 
 	public static int sygvd(int itype, char jobz, char uplo, DoubleMatrix A, DoubleMatrix B, DoubleMatrix W) {
-		int info = NativeBlas.dsygvd(itype, jobz, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, W.data, 0);
+		int info = backend().dsygvd(itype, jobz, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, W.data, 0);
 		if (info == 0)
 			return 0;
 		else {
@@ -400,7 +531,7 @@ public class SimpleBlas {
 			int[] m, DoubleMatrix W, DoubleMatrix Z) {
 		int[] iwork = new int[1];
 		int[] ifail = new int[1];
-		int info = NativeBlas.dsygvx(itype, jobz, range, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, vl, vu, il, iu, abstol, m, 0, W.data, 0, Z.data, 0, Z.rows, iwork, 0, ifail, 0);
+		int info = backend().dsygvx(itype, jobz, range, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, vl, vu, il, iu, abstol, m, 0, W.data, 0, Z.data, 0, Z.rows, iwork, 0, ifail, 0);
 		if (info == 0) {
 			return 0;
 		} else {
@@ -452,7 +583,7 @@ public class SimpleBlas {
 		int[] iwork = new int[3 * minmn * nlvl + 11 * minmn];
 		double[] s = new double[minmn];
 		int[] rank = new int[1];
-		int info = NativeBlas.dgelsd(m, n, nrhs, A.data, 0, m, B.data, 0, B.rows, s, 0, -1, rank, 0, iwork, 0);
+		int info = backend().dgelsd(m, n, nrhs, A.data, 0, m, B.data, 0, B.rows, s, 0, -1, rank, 0, iwork, 0);
 		if (info == 0) {
 			return;
 		} else if (info < 0) {
@@ -463,21 +594,175 @@ public class SimpleBlas {
 	}
 
 	public static void geqrf(DoubleMatrix A, DoubleMatrix tau) {
-		int info = NativeBlas.dgeqrf(A.rows, A.columns, A.data, 0, A.rows, tau.data, 0);
+		int info = backend().dgeqrf(A.rows, A.columns, A.data, 0, A.rows, tau.data, 0);
 		checkInfo("GEQRF", info);
 	}
 
 	public static void ormqr(char side, char trans, DoubleMatrix A, DoubleMatrix tau, DoubleMatrix C) {
 		int k = tau.length;
-		int info = NativeBlas.dormqr(side, trans, C.rows, C.columns, k, A.data, 0, A.rows, tau.data, 0, C.data, 0, C.rows);
+		int info = backend().dormqr(side, trans, C.rows, C.columns, k, A.data, 0, A.rows, tau.data, 0, C.data, 0, C.rows);
 		checkInfo("ORMQR", info);
 	}
 
   public static void orgqr(int n, int k, DoubleMatrix A, DoubleMatrix tau) {
-    int info = NativeBlas.dorgqr(A.rows, n, k, A.data, 0, A.rows, tau.data, 0);
+    int info = backend().dorgqr(A.rows, n, k, A.data, 0, A.rows, tau.data, 0);
     checkInfo("ORGQR", info);
   }
 
+//STOP
+	/***************************************************************************
+	 * Direct matrices
+	 *
+	 * These work on the off-heap memory of DirectDoubleMatrix, which is passed
+	 * to the native routines without copying.
+	 */
+
+	/**
+	 * Compute y <- alpha*a*x + beta * y (general matrix vector
+	 * multiplication)
+	 */
+	public static DirectDoubleMatrix gemv(double alpha, DirectDoubleMatrix a,
+			DirectDoubleMatrix x, double beta, DirectDoubleMatrix y) {
+		if (x.length != a.columns || y.length != a.rows)
+			throw new SizeException("Vectors must have " + a.columns + " and " + a.rows + " elements.");
+		NativeBlas.dgemvDirect('N', a.rows, a.columns, alpha, a.getAddress(), 0, a.rows, x.getAddress(), 0,
+				1, beta, y.getAddress(), 0, 1);
+		DirectDoubleMatrix.reachabilityFence(a, x, y);
+		return y;
+	}
+
+	/**
+	 * Compute c <- a*b + beta * c (general matrix matrix
+	 * multiplication)
+	 */
+	public static DirectDoubleMatrix gemm(double alpha, DirectDoubleMatrix a,
+			DirectDoubleMatrix b, double beta, DirectDoubleMatrix c) {
+		a.assertMultipliesWith(b);
+		if (c.rows != a.rows || c.columns != b.columns)
+			throw new SizeException("Cannot multiply " + a.rows + "x" + a.columns + " and " + b.rows + "x" + b.columns + " into " + c.rows + "x" + c.columns + ".");
+		NativeBlas.dgemmDirect('N', 'N', c.rows, c.columns, a.columns, alpha, a.getAddress(), 0,
+				a.rows, b.getAddress(), 0, b.rows, beta, c.getAddress(), 0, c.rows);
+		DirectDoubleMatrix.reachabilityFence(a, b, c);
+		return c;
+	}
+
+	public static DirectDoubleMatrix gesv(DirectDoubleMatrix a, IntBuffer ipiv,
+			DirectDoubleMatrix b) {
+		a.assertSquare();
+		assertRows("DGESV", a.rows, b);
+		assertIntBuffer(ipiv, a.rows);
+		int info = NativeBlas.dgesvDirect(a.rows, b.columns, a.getAddress(), 0, a.rows, ipiv, 0,
+				b.getAddress(), 0, b.rows);
+		DirectDoubleMatrix.reachabilityFence(a, b);
+		checkInfo("DGESV", info);
+
+		if (info > 0)
+			throw new LapackException("DGESV",
+					"Linear equation cannot be solved because the matrix was singular.");
+
+		return b;
+	}
+
+	public static void posv(char uplo, DirectDoubleMatrix A, DirectDoubleMatrix B) {
+		A.assertSquare();
+		assertRows("DPOSV", A.rows, B);
+		int n = A.rows;
+		int nrhs = B.columns;
+		int info = NativeBlas.dposvDirect(uplo, n, nrhs, A.getAddress(), 0, A.rows, B.getAddress(), 0,
+				B.rows);
+		DirectDoubleMatrix.reachabilityFence(A, B);
+		checkInfo("DPOSV", info);
+		if (info > 0)
+			throw new LapackArgumentException("DPOSV",
+					"Leading minor of order i of A is not positive definite.");
+	}
+
+	public static int syev(char jobz, char uplo, DirectDoubleMatrix a, DirectDoubleMatrix w) {
+		a.assertSquare();
+		assertEigenvalues(a.rows, w);
+		int n = a.rows;
+		DirectDoubleMatrix work = new DirectDoubleMatrix(1);
+		int info;
+		try {
+			info = NativeBlas.dsyevDirect(jobz, uplo, n, a.getAddress(), 0, a.rows, w.getAddress(), 0, work.getAddress(), 0, -1);
+			checkInfo("DSYEV", info);
+
+			int lwork = (int) work.get(0);
+			work.free();
+			work = new DirectDoubleMatrix(lwork);
+			info = NativeBlas.dsyevDirect(jobz, uplo, n, a.getAddress(), 0, a.rows, w.getAddress(), 0, work.getAddress(), 0, lwork);
+			DirectDoubleMatrix.reachabilityFence(a, w);
+		} finally {
+			work.free();
+		}
+		checkInfo("DSYEV", info);
+
+		if (info > 0)
+			throw new LapackConvergenceException("SYEV",
+					"Eigenvalues could not be computed " + info
+					+ " off-diagonal elements did not converge");
+
+		return info;
+	}
+
+	public static int syevd(char jobz, char uplo, DirectDoubleMatrix A,
+			DirectDoubleMatrix w) {
+		A.assertSquare();
+		assertEigenvalues(A.rows, w);
+		int n = A.rows;
+		DirectDoubleMatrix work = new DirectDoubleMatrix(1);
+		IntBuffer iwork = allocateIntBuffer(1);
+		int info;
+		try {
+			info = NativeBlas.dsyevdDirect(jobz, uplo, n, A.getAddress(), 0, A.rows, w.getAddress(), 0, work.getAddress(), 0, -1, iwork, 0, -1);
+			checkInfo("DSYEVD", info);
+
+			int lwork = (int) work.get(0);
+			int liwork = iwork.get(0);
+			work.free();
+			work = new DirectDoubleMatrix(lwork);
+			iwork = allocateIntBuffer(liwork);
+			info = NativeBlas.dsyevdDirect(jobz, uplo, n, A.getAddress(), 0, A.rows, w.getAddress(), 0, work.getAddress(), 0, lwork, iwork, 0, liwork);
+			DirectDoubleMatrix.reachabilityFence(A, w);
+		} finally {
+			work.free();
+		}
+		checkInfo("DSYEVD", info);
+
+		if (info > 0)
+			throw new LapackConvergenceException("SYEVD", "Not all eigenvalues converged.");
+
+		return info;
+	}
+
+	/*
+	 * The native routines access the direct matrices as raw memory, so sizes
+	 * are checked here; a mismatch would otherwise read or write past the
+	 * end of the buffers.
+	 */
+	private static void assertRows(String name, int n, DirectDoubleMatrix b) {
+		if (b.rows != n)
+			throw new SizeException(name + ": right hand side must have " + n + " rows (is: " + b.rows + ").");
+	}
+
+	private static void assertEigenvalues(int n, DirectDoubleMatrix w) {
+		if (w.length != n)
+			throw new SizeException("Eigenvalue vector must have " + n + " elements (is: " + w.length + ").");
+	}
+
+	private static void assertIntBuffer(IntBuffer buffer, int length) {
+		if (!buffer.isDirect() || buffer.order() != ByteOrder.nativeOrder())
+			throw new IllegalArgumentException("Index buffer must be a direct buffer in native byte order.");
+		if (buffer.capacity() < length)
+			throw new SizeException("Index buffer must have at least " + length + " elements (is: " + buffer.capacity() + ").");
+	}
+
+	/** Allocate a direct IntBuffer in native byte order (for pivot indices and workspaces). */
+	public static IntBuffer allocateIntBuffer(int length) {
+		return ByteBuffer.allocateDirect(4 * length).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+//START
+
 //BEGIN
   // The code below has been automatically generated.
   // DO NOT EDIT!
@@ -489,8 +774,7 @@ public class SimpleBlas {
 	 * Compute x &lt;-&gt; y (swap two matrices)
 	 */
 	public static FloatMatrix swap(FloatMatrix x, FloatMatrix y) {
-		//NativeBlas.sswap(x.length, x.data, 0, 1, y.data, 0, 1);
-		JavaBlas.rswap(x.length, x.data, 0, 1, y.data, 0, 1);
+		backend().sswap(x.length, x.data, 0, 1, y.data, 0, 1);
 		return y;
 	}
 
@@ -498,12 +782,12 @@ public class SimpleBlas {
 	 * Compute x <- alpha * x (scale a matrix)
 	 */
 	public static FloatMatrix scal(float alpha, FloatMatrix x) {
-		NativeBlas.sscal(x.length, alpha, x.data, 0, 1);
+		backend().sscal(x.length, alpha, x.data, 0, 1);
 		return x;
 	}
 
 	public static ComplexFloatMatrix scal(ComplexFloat alpha, ComplexFloatMatrix x) {
-		NativeBlas.cscal(x.length, alpha, x.data, 0, 1);
+		backend().cscal(x.length, alpha, x.data, 0, 1);
 		return x;
 	}
 
@@ -511,13 +795,12 @@ public class SimpleBlas {
 	 * Compute y <- x (copy a matrix)
 	 */
 	public static FloatMatrix copy(FloatMatrix x, FloatMatrix y) {
-		//NativeBlas.scopy(x.length, x.data, 0, 1, y.data, 0, 1);
-		JavaBlas.rcopy(x.length, x.data, 0, 1, y.data, 0, 1);
+		backend().scopy(x.length, x.data, 0, 1, y.data, 0, 1);
 		return y;
 	}
 
 	public static ComplexFloatMatrix copy(ComplexFloatMatrix x, ComplexFloatMatrix y) {
-		NativeBlas.ccopy(x.length, x.data, 0, 1, y.data, 0, 1);
+		backend().ccopy(x.length, x.data, 0, 1, y.data, 0, 1);
 		return y;
 	}
 
@@ -525,14 +808,13 @@ public class SimpleBlas {
 	 * Compute y <- alpha * x + y (elementwise addition)
 	 */
 	public static FloatMatrix axpy(float da, FloatMatrix dx, FloatMatrix dy) {
-		//NativeBlas.saxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
-		JavaBlas.raxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
+		backend().saxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
 
 		return dy;
 	}
 
 	public static ComplexFloatMatrix axpy(ComplexFloat da, ComplexFloatMatrix dx, ComplexFloatMatrix dy) {
-		NativeBlas.caxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
+		backend().caxpy(dx.length, da, dx.data, 0, 1, dy.data, 0, 1);
 		return dy;
 	}
 
@@ -540,44 +822,43 @@ public class SimpleBlas {
 	 * Compute x^T * y (dot product)
 	 */
 	public static float dot(FloatMatrix x, FloatMatrix y) {
-		//return NativeBlas.sdot(x.length, x.data, 0, 1, y.data, 0, 1);
-		return JavaBlas.rdot(x.length, x.data, 0, 1, y.data, 0, 1);
+		return backend().sdot(x.length, x.data, 0, 1, y.data, 0, 1);
 	}
 
 	/**
 	 * Compute x^T * y (dot product)
 	 */
 	public static ComplexFloat dotc(ComplexFloatMatrix x, ComplexFloatMatrix y) {
-		return NativeBlas.cdotc(x.length, x.data, 0, 1, y.data, 0, 1);
+		return backend().cdotc(x.length, x.data, 0, 1, y.data, 0, 1);
 	}
 
 	/**
 	 * Compute x^T * y (dot product)
 	 */
 	public static ComplexFloat dotu(ComplexFloatMatrix x, ComplexFloatMatrix y) {
-		return NativeBlas.cdotu(x.length, x.data, 0, 1, y.data, 0, 1);
+		return backend().cdotu(x.length, x.data, 0, 1, y.data, 0, 1);
 	}
 
 	/**
 	 * Compute || x ||_2 (2-norm)
 	 */
 	public static float nrm2(FloatMatrix x) {
-		return NativeBlas.snrm2(x.length, x.data, 0, 1);
+		return backend().snrm2(x.length, x.data, 0, 1);
 	}
 
 	public static float nrm2(ComplexFloatMatrix x) {
-		return NativeBlas.scnrm2(x.length, x.data, 0, 1);
+		return backend().scnrm2(x.length, x.data, 0, 1);
 	}
 
 	/**
 	 * Compute || x ||_1 (1-norm, sum of absolute values)
 	 */
 	public static float asum(FloatMatrix x) {
-		return NativeBlas.sasum(x.length, x.data, 0, 1);
+		return backend().sasum(x.length, x.data, 0, 1);
 	}
 
 	public static float asum(ComplexFloatMatrix x) {
-		return NativeBlas.scasum(x.length, x.data, 0, 1);
+		return backend().scasum(x.length, x.data, 0, 1);
 	}
 
 	/**
@@ -585,7 +866,7 @@ public class SimpleBlas {
 	 * value maximum)
 	 */
 	public static int iamax(FloatMatrix x) {
-		return NativeBlas.isamax(x.length, x.data, 0, 1) - 1;
+		return backend().isamax(x.length, x.data, 0, 1) - 1;
 	}
 
 	/**
@@ -595,7 +876,7 @@ public class SimpleBlas {
 	 * @return index of element with largest absolute value.
 	 */
 	public static int iamax(ComplexFloatMatrix x) {
-		return NativeBlas.icamax(x.length, x.data, 0, 1) - 1;
+		return backend().icamax(x.length, x.data, 0, 1) - 1;
 	}
 
 	/***************************************************************************
@@ -608,27 +889,8 @@ public class SimpleBlas {
 	 */
 	public static FloatMatrix gemv(float alpha, FloatMatrix a,
 			FloatMatrix x, float beta, FloatMatrix y) {
-		if (false) {
-			NativeBlas.sgemv('N', a.rows, a.columns, alpha, a.data, 0, a.rows, x.data, 0,
-					1, beta, y.data, 0, 1);
-		} else {
-			if (beta != 0.0f) {
-				for (int i = 0; i < y.length; i++)
-					y.data[i] = beta * y.data[i];
-			} else {
-				for (int i = 0; i < y.length; i++)
-					y.data[i] = 0.0f;
-			}
-
-	
-			for (int j = 0; j < a.columns; j++) {
-				float xj = x.get(j);
-				if (xj != 0.0f) {
-					for (int i = 0; i < a.rows; i++)
-							y.data[i] += alpha * a.get(i, j) * xj;
-				}
-			}
-		}
+		backend().sgemv('N', a.rows, a.columns, alpha, a.data, 0, a.rows, x.data, 0,
+				1, beta, y.data, 0, 1);
 		return y;
 	}
 
@@ -637,7 +899,7 @@ public class SimpleBlas {
 	 */
 	public static FloatMatrix ger(float alpha, FloatMatrix x,
 			FloatMatrix y, FloatMatrix a) {
-		NativeBlas.sger(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
+		backend().sger(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
 				0, a.rows);
 		return a;
 	}
@@ -647,7 +909,7 @@ public class SimpleBlas {
 	 */
 	public static ComplexFloatMatrix geru(ComplexFloat alpha, ComplexFloatMatrix x,
 			ComplexFloatMatrix y, ComplexFloatMatrix a) {
-		NativeBlas.cgeru(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
+		backend().cgeru(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
 				0, a.rows);
 		return a;
 	}
@@ -657,7 +919,7 @@ public class SimpleBlas {
 	 */
 	public static ComplexFloatMatrix gerc(ComplexFloat alpha, ComplexFloatMatrix x,
 			ComplexFloatMatrix y, ComplexFloatMatrix a) {
-		NativeBlas.cgerc(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
+		backend().cgerc(a.rows, a.columns, alpha, x.data, 0, 1, y.data, 0, 1, a.data,
 				0, a.rows);
 		return a;
 	}
@@ -672,25 +934,169 @@ public class SimpleBlas {
 	 */
 	public static FloatMatrix gemm(float alpha, FloatMatrix a,
 			FloatMatrix b, float beta, FloatMatrix c) {
-		NativeBlas.sgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
+		backend().sgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
 				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
 		return c;
 	}
 
 	public static ComplexFloatMatrix gemm(ComplexFloat alpha, ComplexFloatMatrix a,
 			ComplexFloatMatrix b, ComplexFloat beta, ComplexFloatMatrix c) {
-		NativeBlas.cgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
+		backend().cgemm('N', 'N', c.rows, c.columns, a.columns, alpha, a.data, 0,
 				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
 		return c;
 	}
 
+	/**
+	 * Compute c &lt;- alpha * op(a) * op(b) + beta * c, where op(x) is x for 'N'
+	 * and the transpose of x for 'T' (or 'C'). The transposes are handled by
+	 * gemm itself and are never computed explicitly.
+	 */
+	public static FloatMatrix gemm(char transa, char transb, float alpha, FloatMatrix a,
+			FloatMatrix b, float beta, FloatMatrix c) {
+		int m = isTrans(transa) ? a.columns : a.rows;
+		int k = isTrans(transa) ? a.rows : a.columns;
+		int kb = isTrans(transb) ? b.columns : b.rows;
+		int n = isTrans(transb) ? b.rows : b.columns;
+		if (k != kb || m != c.rows || n != c.columns)
+			throw new SizeException("Cannot multiply " + m + "x" + k + " and " + kb + "x" + n + " into " + c.rows + "x" + c.columns + ".");
+		backend().sgemm(transa, transb, c.rows, c.columns, k, alpha, a.data, 0,
+				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
+		return c;
+	}
+
+	/**
+	 * Compute c &lt;- alpha * op(a) * op(b) + beta * c, where op(x) is x for 'N',
+	 * the transpose of x for 'T', and the conjugate transpose of x for 'C'.
+	 */
+	public static ComplexFloatMatrix gemm(char transa, char transb, ComplexFloat alpha, ComplexFloatMatrix a,
+			ComplexFloatMatrix b, ComplexFloat beta, ComplexFloatMatrix c) {
+		int m = isTrans(transa) ? a.columns : a.rows;
+		int k = isTrans(transa) ? a.rows : a.columns;
+		int kb = isTrans(transb) ? b.columns : b.rows;
+		int n = isTrans(transb) ? b.rows : b.columns;
+		if (k != kb || m != c.rows || n != c.columns)
+			throw new SizeException("Cannot multiply " + m + "x" + k + " and " + kb + "x" + n + " into " + c.rows + "x" + c.columns + ".");
+		backend().cgemm(transa, transb, c.rows, c.columns, k, alpha, a.data, 0,
+				a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
+		return c;
+	}
+
+	/***************************************************************************
+	 * Views
+	 *
+	 * These pass the offsets and leading dimensions of the views to BLAS, so
+	 * that parts of matrices are used without copying. Vector arguments may be
+	 * column or row views.
+	 */
+
+	/**
+	 * Compute y <- x (copy a view)
+	 */
+	public static FloatMatrixView copy(FloatMatrixView x, FloatMatrixView y) {
+		if (checkVectorsOrSameSize(x, y)) {
+			backend().scopy(x.length(), x.data, x.offset, x.increment(), y.data, y.offset, y.increment());
+		} else {
+			for (int j = 0; j < x.columns; j++)
+				backend().scopy(x.rows, x.data, x.index(0, j), 1, y.data, y.index(0, j), 1);
+		}
+		return y;
+	}
+
+	/**
+	 * Compute x <- alpha * x (scale a view)
+	 */
+	public static FloatMatrixView scal(float alpha, FloatMatrixView x) {
+		if (x.isVector()) {
+			backend().sscal(x.length(), alpha, x.data, x.offset, x.increment());
+		} else {
+			for (int j = 0; j < x.columns; j++)
+				backend().sscal(x.rows, alpha, x.data, x.index(0, j), 1);
+		}
+		return x;
+	}
+
+	/**
+	 * Compute y <- alpha * x + y (elementwise addition of views)
+	 */
+	public static FloatMatrixView axpy(float da, FloatMatrixView dx, FloatMatrixView dy) {
+		if (checkVectorsOrSameSize(dx, dy)) {
+			backend().saxpy(dx.length(), da, dx.data, dx.offset, dx.increment(), dy.data, dy.offset, dy.increment());
+		} else {
+			for (int j = 0; j < dx.columns; j++)
+				backend().saxpy(dx.rows, da, dx.data, dx.index(0, j), 1, dy.data, dy.index(0, j), 1);
+		}
+		return dy;
+	}
+
+	/**
+	 * Compute x^T * y (dot product of two vector views)
+	 */
+	public static float dot(FloatMatrixView x, FloatMatrixView y) {
+		if (!x.isVector() || !y.isVector() || x.length() != y.length())
+			throw new SizeException("Arguments must be vectors of the same length.");
+		return backend().sdot(x.length(), x.data, x.offset, x.increment(), y.data, y.offset, y.increment());
+	}
+
+	/**
+	 * Compute y <- alpha*a*x + beta * y (general matrix vector
+	 * multiplication of views)
+	 */
+	public static FloatMatrixView gemv(float alpha, FloatMatrixView a,
+			FloatMatrixView x, float beta, FloatMatrixView y) {
+		if (!x.isVector() || !y.isVector() || x.length() != a.columns || y.length() != a.rows)
+			throw new SizeException("Vectors must have " + a.columns + " and " + a.rows + " elements.");
+		backend().sgemv('N', a.rows, a.columns, alpha, a.data, a.offset, a.ld, x.data, x.offset,
+				x.increment(), beta, y.data, y.offset, y.increment());
+		return y;
+	}
+
+	/**
+	 * Compute c <- alpha * a * b + beta * c (general matrix matrix
+	 * multiplication of views)
+	 */
+	public static FloatMatrixView gemm(float alpha, FloatMatrixView a,
+			FloatMatrixView b, float beta, FloatMatrixView c) {
+		return gemm('N', 'N', alpha, a, b, beta, c);
+	}
+
+	/**
+	 * Compute c &lt;- alpha * op(a) * op(b) + beta * c for views, where op(x) is x
+	 * for 'N' and the transpose of x for 'T'.
+	 */
+	public static FloatMatrixView gemm(char transa, char transb, float alpha, FloatMatrixView a,
+			FloatMatrixView b, float beta, FloatMatrixView c) {
+		int m = isTrans(transa) ? a.columns : a.rows;
+		int k = isTrans(transa) ? a.rows : a.columns;
+		int kb = isTrans(transb) ? b.columns : b.rows;
+		int n = isTrans(transb) ? b.rows : b.columns;
+		if (k != kb || m != c.rows || n != c.columns)
+			throw new SizeException("Cannot multiply " + m + "x" + k + " and " + kb + "x" + n + " into " + c.rows + "x" + c.columns + ".");
+		backend().sgemm(transa, transb, c.rows, c.columns, k, alpha, a.data, a.offset,
+				a.ld, b.data, b.offset, b.ld, beta, c.data, c.offset, c.ld);
+		return c;
+	}
+
+	/**
+	 * Whether x and y are vectors of the same length. Otherwise, they must have
+	 * the same size.
+	 */
+	private static boolean checkVectorsOrSameSize(FloatMatrixView x, FloatMatrixView y) {
+		if (x.isVector() && y.isVector()) {
+			if (x.length() != y.length())
+				throw new SizeException("Vectors must have the same length (is: " + x.length() + " and " + y.length() + ").");
+			return true;
+		}
+		y.assertSameSize(x);
+		return false;
+	}
+
 	/***************************************************************************
 	 * LAPACK
 	 */
 
 	public static FloatMatrix gesv(FloatMatrix a, int[] ipiv,
 			FloatMatrix b) {
-		int info = NativeBlas.sgesv(a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
+		int info = backend().sgesv(a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
 				b.data, 0, b.rows);
 		checkInfo("DGESV", info);
 
@@ -704,7 +1110,7 @@ public class SimpleBlas {
 
 	public static FloatMatrix sysv(char uplo, FloatMatrix a, int[] ipiv,
 			FloatMatrix b) {
-		int info = NativeBlas.ssysv(uplo, a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
+		int info = backend().ssysv(uplo, a.rows, b.columns, a.data, 0, a.rows, ipiv, 0,
 				b.data, 0, b.rows);
 		checkInfo("SYSV", info);
 
@@ -716,7 +1122,7 @@ public class SimpleBlas {
 	}
 
 	public static int syev(char jobz, char uplo, FloatMatrix a, FloatMatrix w) {
-		int info = NativeBlas.ssyev(jobz, uplo, a.rows, a.data, 0, a.rows, w.data, 0);
+		int info = backend().ssyev(jobz, uplo, a.rows, a.data, 0, a.rows, w.data, 0);
 
 		if (info > 0)
 			throw new LapackConvergenceException("SYEV",
@@ -735,7 +1141,7 @@ public class SimpleBlas {
 		int[] m = new int[1];
 		int info;
 
-		info = NativeBlas.ssyevx(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu, il,
+		info = backend().ssyevx(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu, il,
 				iu, abstol, m, 0, w.data, 0, z.data, 0, z.rows, iwork, 0, ifail, 0);
 
 		if (info > 0) {
@@ -758,7 +1164,7 @@ public class SimpleBlas {
 			FloatMatrix w) {
 		int n = A.rows;
 
-		int info = NativeBlas.ssyevd(jobz, uplo, n, A.data, 0, A.rows, w.data, 0);
+		int info = backend().ssyevd(jobz, uplo, n, A.data, 0, A.rows, w.data, 0);
 
 		if (info > 0)
 			throw new LapackConvergenceException("SYEVD", "Not all eigenvalues converged.");
@@ -772,7 +1178,7 @@ public class SimpleBlas {
 		int n = a.rows;
 		int[] m = new int[1];
 
-		int info = NativeBlas.ssyevr(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu,
+		int info = backend().ssyevr(jobz, range, uplo, n, a.data, 0, a.rows, vl, vu,
 				il, iu, abstol, m, 0, w.data, 0, z.data, 0, z.rows, isuppz, 0);
 
 		checkInfo("SYEVR", info);
@@ -783,7 +1189,7 @@ public class SimpleBlas {
 	public static void posv(char uplo, FloatMatrix A, FloatMatrix B) {
 		int n = A.rows;
 		int nrhs = B.columns;
-		int info = NativeBlas.sposv(uplo, n, nrhs, A.data, 0, A.rows, B.data, 0,
+		int info = backend().sposv(uplo, n, nrhs, A.data, 0, A.rows, B.data, 0,
 				B.rows);
 		checkInfo("DPOSV", info);
 		if (info > 0)
@@ -793,7 +1199,7 @@ public class SimpleBlas {
 
 	public static int geev(char jobvl, char jobvr, FloatMatrix A,
 			FloatMatrix WR, FloatMatrix WI, FloatMatrix VL, FloatMatrix VR) {
-		int info = NativeBlas.sgeev(jobvl, jobvr, A.rows, A.data, 0, A.rows, WR.data, 0,
+		int info = backend().sgeev(jobvl, jobvr, A.rows, A.data, 0, A.rows, WR.data, 0,
 				WI.data, 0, VL.data, 0, VL.rows, VR.data, 0, VR.rows);
 		if (info > 0)
 			throw new LapackConvergenceException("DGEEV", "First " + info + " eigenvalues have not converged.");
@@ -801,7 +1207,7 @@ public class SimpleBlas {
 	}
 
 	public static int sygvd(int itype, char jobz, char uplo, FloatMatrix A, FloatMatrix B, FloatMatrix W) {
-		int info = NativeBlas.ssygvd(itype, jobz, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, W.data, 0);
+		int info = backend().ssygvd(itype, jobz, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, W.data, 0);
 		if (info == 0)
 			return 0;
 		else {
@@ -821,7 +1227,7 @@ public class SimpleBlas {
 			int[] m, FloatMatrix W, FloatMatrix Z) {
 		int[] iwork = new int[1];
 		int[] ifail = new int[1];
-		int info = NativeBlas.ssygvx(itype, jobz, range, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, vl, vu, il, iu, abstol, m, 0, W.data, 0, Z.data, 0, Z.rows, iwork, 0, ifail, 0);
+		int info = backend().ssygvx(itype, jobz, range, uplo, A.rows, A.data, 0, A.rows, B.data, 0, B.rows, vl, vu, il, iu, abstol, m, 0, W.data, 0, Z.data, 0, Z.rows, iwork, 0, ifail, 0);
 		if (info == 0) {
 			return 0;
 		} else {
@@ -873,7 +1279,7 @@ public class SimpleBlas {
 		int[] iwork = new int[3 * minmn * nlvl + 11 * minmn];
 		float[] s = new float[minmn];
 		int[] rank = new int[1];
-		int info = NativeBlas.sgelsd(m, n, nrhs, A.data, 0, m, B.data, 0, B.rows, s, 0, -1, rank, 0, iwork, 0);
+		int info = backend().sgelsd(m, n, nrhs, A.data, 0, m, B.data, 0, B.rows, s, 0, -1, rank, 0, iwork, 0);
 		if (info == 0) {
 			return;
 		} else if (info < 0) {
@@ -884,20 +1290,21 @@ public class SimpleBlas {
 	}
 
 	public static void geqrf(FloatMatrix A, FloatMatrix tau) {
-		int info = NativeBlas.sgeqrf(A.rows, A.columns, A.data, 0, A.rows, tau.data, 0);
+		int info = backend().sgeqrf(A.rows, A.columns, A.data, 0, A.rows, tau.data, 0);
 		checkInfo("GEQRF", info);
 	}
 
 	public static void ormqr(char side, char trans, FloatMatrix A, FloatMatrix tau, FloatMatrix C) {
 		int k = tau.length;
-		int info = NativeBlas.sormqr(side, trans, C.rows, C.columns, k, A.data, 0, A.rows, tau.data, 0, C.data, 0, C.rows);
+		int info = backend().sormqr(side, trans, C.rows, C.columns, k, A.data, 0, A.rows, tau.data, 0, C.data, 0, C.rows);
 		checkInfo("ORMQR", info);
 	}
 
   public static void orgqr(int n, int k, FloatMatrix A, FloatMatrix tau) {
-    int info = NativeBlas.sorgqr(A.rows, n, k, A.data, 0, A.rows, tau.data, 0);
+    int info = backend().sorgqr(A.rows, n, k, A.data, 0, A.rows, tau.data, 0);
     checkInfo("ORGQR", info);
   }
 
+
 //END
 }
@@ -5,7 +5,9 @@
 package org.jblas;
 
 import org.jblas.exceptions.LapackConvergenceException;
+import org.jblas.util.Workspace;
 
+import static org.jblas.BlasBackends.backend;
 import static org.jblas.util.Functions.min;
 
 /**
@@ -26,13 +28,19 @@ public class Singular {
         DoubleMatrix S = new DoubleMatrix(min(m, n));
         DoubleMatrix V = new DoubleMatrix(n, n);
 
-        int info = NativeBlas.dgesvd('A', 'A', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n);
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesvd('A', 'A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
         }
 
-        return new DoubleMatrix[]{U, S, V.transpose()};
+        return new DoubleMatrix[]{U, S, V.transposei()};
     }
 
     /**
@@ -51,13 +59,19 @@ public class Singular {
         DoubleMatrix S = new DoubleMatrix(min(m, n));
         DoubleMatrix V = new DoubleMatrix(min(m, n), n);
 
-        int info = NativeBlas.dgesvd('S', 'S', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n));
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesvd('S', 'S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n));
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
         }
 
-        return new DoubleMatrix[]{U, S, V.transpose()};
+        return new DoubleMatrix[]{U, S, V.transposei()};
     }
 
   /**
@@ -78,7 +92,13 @@ public class Singular {
 
         double[] rwork = new double[5*min(m,n)];
 
-        int info = NativeBlas.zgesvd('S', 'S', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), rwork, 0);
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().zgesvd('S', 'S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), rwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -102,7 +122,13 @@ public class Singular {
 
       double[] rwork = new double[5*min(m,n)];
 
-      int info = NativeBlas.zgesvd('A', 'A', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, rwork, 0);
+      double[] a = workspaceCopy(A);
+      int info;
+      try {
+        info = backend().zgesvd('A', 'A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, rwork, 0);
+      } finally {
+        Workspace.release(a);
+      }
 
       if (info > 0) {
         throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -122,7 +148,13 @@ public class Singular {
         int n = A.columns;
         DoubleMatrix S = new DoubleMatrix(min(m, n));
 
-        int info = NativeBlas.dgesvd('N', 'N', m, n, A.dup().data, 0, m, S.data, 0, null, 0, 1, null, 0, 1);
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesvd('N', 'N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, 1);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -143,7 +175,13 @@ public class Singular {
         DoubleMatrix S = new DoubleMatrix(min(m, n));
         double[] rwork = new double[5*min(m,n)];
 
-        int info = NativeBlas.zgesvd('N', 'N', m, n, A.dup().data, 0, m, S.data, 0, null, 0, 1, null, 0, min(m,n), rwork, 0);
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().zgesvd('N', 'N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, min(m,n), rwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -152,6 +190,283 @@ public class Singular {
         return S;
     }
 
+    /**
+     * Compute a singular-value decomposition of A with the divide-and-conquer
+     * algorithm (GESDD), which is much faster than {@link #fullSVD(DoubleMatrix)}
+     * for larger matrices.
+     *
+     * @return A DoubleMatrix[3] array of U, S, V such that A = U * diag(S) * V'
+     */
+    public static DoubleMatrix[] fullSVDDC(DoubleMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        DoubleMatrix U = new DoubleMatrix(m, m);
+        DoubleMatrix S = new DoubleMatrix(min(m, n));
+        DoubleMatrix V = new DoubleMatrix(n, n);
+        int[] iwork = new int[8 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesdd('A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new DoubleMatrix[]{U, S, V.transposei()};
+    }
+
+    /**
+     * Compute a sparse singular-value decomposition of A with the divide-and-conquer
+     * algorithm (GESDD).
+     *
+     * @return A DoubleMatrix[3] array of U, S, V such that A = U * diag(S) * V'
+     * @see #sparseSVD(DoubleMatrix)
+     */
+    public static DoubleMatrix[] sparseSVDDC(DoubleMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        DoubleMatrix U = new DoubleMatrix(m, min(m, n));
+        DoubleMatrix S = new DoubleMatrix(min(m, n));
+        DoubleMatrix V = new DoubleMatrix(min(m, n), n);
+        int[] iwork = new int[8 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesdd('S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new DoubleMatrix[]{U, S, V.transposei()};
+    }
+
+    /**
+     * Compute the singular values of a matrix with the divide-and-conquer
+     * algorithm (GESDD).
+     *
+     * @param A DoubleMatrix of dimension m * n
+     * @return A min(m, n) vector of singular values.
+     */
+    public static DoubleMatrix SVDValuesDC(DoubleMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+        DoubleMatrix S = new DoubleMatrix(min(m, n));
+        int[] iwork = new int[8 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesdd('N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, 1, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return S;
+    }
+
+    /**
+     * Compute a singular-value decomposition of a complex matrix with the
+     * divide-and-conquer algorithm (GESDD).
+     *
+     * @return A ComplexDoubleMatrix[3] array of U, S, V such that A = U * diag(S) * V*
+     */
+    public static ComplexDoubleMatrix[] fullSVDDC(ComplexDoubleMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        ComplexDoubleMatrix U = new ComplexDoubleMatrix(m, m);
+        DoubleMatrix S = new DoubleMatrix(min(m, n));
+        ComplexDoubleMatrix V = new ComplexDoubleMatrix(n, n);
+        double[] rwork = new double[complexSVDRworkLength(m, n)];
+        int[] iwork = new int[8 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().zgesdd('A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, rwork, 0, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new ComplexDoubleMatrix[]{U, new ComplexDoubleMatrix(S), V.hermitian()};
+    }
+
+    /**
+     * Compute a sparse singular-value decomposition of a complex matrix with the
+     * divide-and-conquer algorithm (GESDD).
+     *
+     * @return A ComplexDoubleMatrix[3] array of U, S, V such that A = U * diag(S) * V*
+     */
+    public static ComplexDoubleMatrix[] sparseSVDDC(ComplexDoubleMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        ComplexDoubleMatrix U = new ComplexDoubleMatrix(m, min(m, n));
+        DoubleMatrix S = new DoubleMatrix(min(m, n));
+        ComplexDoubleMatrix V = new ComplexDoubleMatrix(min(m, n), n);
+        double[] rwork = new double[complexSVDRworkLength(m, n)];
+        int[] iwork = new int[8 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().zgesdd('S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), rwork, 0, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new ComplexDoubleMatrix[]{U, new ComplexDoubleMatrix(S), V.hermitian()};
+    }
+
+    /**
+     * Compute the singular values of a complex matrix with the divide-and-conquer
+     * algorithm (GESDD).
+     *
+     * @param A ComplexDoubleMatrix of dimension m * n
+     * @return A real-valued (!) min(m, n) vector of singular values.
+     */
+    public static DoubleMatrix SVDValuesDC(ComplexDoubleMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+        DoubleMatrix S = new DoubleMatrix(min(m, n));
+        double[] rwork = new double[7 * min(m, n)];
+        int[] iwork = new int[8 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().zgesdd('N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, 1, rwork, 0, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return S;
+    }
+
+    /**
+     * Compute the k largest singular values and the corresponding singular vectors
+     * of A (GESVDX). The other singular vectors are not computed.
+     *
+     * @param A DoubleMatrix of dimension m * n
+     * @param k number of singular triplets, between 1 and min(m, n)
+     * @return A DoubleMatrix[3] array of U (m * k), S (k) and V (n * k) such that
+     * U * diag(S) * V' is the best rank k approximation of A.
+     */
+    public static DoubleMatrix[] partialSVD(DoubleMatrix A, int k) {
+        int m = A.rows;
+        int n = A.columns;
+        checkRank(k, min(m, n));
+
+        DoubleMatrix U = new DoubleMatrix(m, k);
+        DoubleMatrix S = new DoubleMatrix(k);
+        DoubleMatrix V = new DoubleMatrix(k, n);
+        int[] ns = new int[1];
+        int[] iwork = new int[12 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesvdx('V', 'V', 'I', m, n, a, 0, m, 0.0, 0.0, 1, k, ns, 0, S.data, 0, U.data, 0, m, V.data, 0, k, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESVDX", info + " singular vectors failed to converge.");
+        }
+
+        return new DoubleMatrix[]{U, S, V.transposei()};
+    }
+
+    /**
+     * Compute the k largest singular values of A (GESVDX).
+     *
+     * @param A DoubleMatrix of dimension m * n
+     * @param k number of singular values, between 1 and min(m, n)
+     * @return A k vector of singular values.
+     */
+    public static DoubleMatrix partialSVDValues(DoubleMatrix A, int k) {
+        int m = A.rows;
+        int n = A.columns;
+        checkRank(k, min(m, n));
+
+        DoubleMatrix S = new DoubleMatrix(k);
+        int[] ns = new int[1];
+        int[] iwork = new int[12 * min(m, n)];
+
+        double[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().dgesvdx('N', 'N', 'I', m, n, a, 0, m, 0.0, 0.0, 1, k, ns, 0, S.data, 0, null, 0, 1, null, 0, 1, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESVDX", info + " singular vectors failed to converge.");
+        }
+
+        return S;
+    }
+
+    /**
+     * Copy the data of A into an array from the workspace cache. LAPACK
+     * overwrites its input, and the copy is only needed for one call.
+     */
+    private static double[] workspaceCopy(DoubleMatrix A) {
+        double[] a = Workspace.doubles(A.length);
+        System.arraycopy(A.data, 0, a, 0, A.length);
+        return a;
+    }
+
+    private static double[] workspaceCopy(ComplexDoubleMatrix A) {
+        double[] a = Workspace.doubles(2 * A.length);
+        System.arraycopy(A.data, 0, a, 0, 2 * A.length);
+        return a;
+    }
+
+//STOP
+    private static void checkRank(int k, int maxRank) {
+        if (k < 1 || k > maxRank) {
+            throw new IllegalArgumentException("Number of singular values must be between 1 and " + maxRank + " (is " + k + ").");
+        }
+    }
+
+    /** Length of the real workspace of the complex GESDD when computing singular vectors. */
+    private static int complexSVDRworkLength(int m, int n) {
+        int mn = min(m, n), mx = Math.max(m, n);
+        return Math.max(5 * mn * mn + 5 * mn, 2 * mx * mn + 2 * mn * mn + mn);
+    }
+//START
+
     //BEGIN
   // The code below has been automatically generated.
   // DO NOT EDIT!
@@ -169,13 +484,19 @@ public class Singular {
         FloatMatrix S = new FloatMatrix(min(m, n));
         FloatMatrix V = new FloatMatrix(n, n);
 
-        int info = NativeBlas.sgesvd('A', 'A', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n);
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesvd('A', 'A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
         }
 
-        return new FloatMatrix[]{U, S, V.transpose()};
+        return new FloatMatrix[]{U, S, V.transposei()};
     }
 
     /**
@@ -194,13 +515,19 @@ public class Singular {
         FloatMatrix S = new FloatMatrix(min(m, n));
         FloatMatrix V = new FloatMatrix(min(m, n), n);
 
-        int info = NativeBlas.sgesvd('S', 'S', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n));
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesvd('S', 'S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n));
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
         }
 
-        return new FloatMatrix[]{U, S, V.transpose()};
+        return new FloatMatrix[]{U, S, V.transposei()};
     }
 
   /**
@@ -221,7 +548,13 @@ public class Singular {
 
         float[] rwork = new float[5*min(m,n)];
 
-        int info = NativeBlas.cgesvd('S', 'S', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), rwork, 0);
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().cgesvd('S', 'S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), rwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -245,7 +578,13 @@ public class Singular {
 
       float[] rwork = new float[5*min(m,n)];
 
-      int info = NativeBlas.cgesvd('A', 'A', m, n, A.dup().data, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, rwork, 0);
+      float[] a = workspaceCopy(A);
+      int info;
+      try {
+        info = backend().cgesvd('A', 'A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, rwork, 0);
+      } finally {
+        Workspace.release(a);
+      }
 
       if (info > 0) {
         throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -265,7 +604,13 @@ public class Singular {
         int n = A.columns;
         FloatMatrix S = new FloatMatrix(min(m, n));
 
-        int info = NativeBlas.sgesvd('N', 'N', m, n, A.dup().data, 0, m, S.data, 0, null, 0, 1, null, 0, 1);
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesvd('N', 'N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, 1);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -286,7 +631,13 @@ public class Singular {
         FloatMatrix S = new FloatMatrix(min(m, n));
         float[] rwork = new float[5*min(m,n)];
 
-        int info = NativeBlas.cgesvd('N', 'N', m, n, A.dup().data, 0, m, S.data, 0, null, 0, 1, null, 0, min(m,n), rwork, 0);
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().cgesvd('N', 'N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, min(m,n), rwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
 
         if (info > 0) {
           throw new LapackConvergenceException("GESVD", info + " superdiagonals of an intermediate bidiagonal form failed to converge.");
@@ -295,5 +646,269 @@ public class Singular {
         return S;
     }
 
+    /**
+     * Compute a singular-value decomposition of A with the divide-and-conquer
+     * algorithm (GESDD), which is much faster than {@link #fullSVD(FloatMatrix)}
+     * for larger matrices.
+     *
+     * @return A FloatMatrix[3] array of U, S, V such that A = U * diag(S) * V'
+     */
+    public static FloatMatrix[] fullSVDDC(FloatMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        FloatMatrix U = new FloatMatrix(m, m);
+        FloatMatrix S = new FloatMatrix(min(m, n));
+        FloatMatrix V = new FloatMatrix(n, n);
+        int[] iwork = new int[8 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesdd('A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new FloatMatrix[]{U, S, V.transposei()};
+    }
+
+    /**
+     * Compute a sparse singular-value decomposition of A with the divide-and-conquer
+     * algorithm (GESDD).
+     *
+     * @return A FloatMatrix[3] array of U, S, V such that A = U * diag(S) * V'
+     * @see #sparseSVD(FloatMatrix)
+     */
+    public static FloatMatrix[] sparseSVDDC(FloatMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        FloatMatrix U = new FloatMatrix(m, min(m, n));
+        FloatMatrix S = new FloatMatrix(min(m, n));
+        FloatMatrix V = new FloatMatrix(min(m, n), n);
+        int[] iwork = new int[8 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesdd('S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new FloatMatrix[]{U, S, V.transposei()};
+    }
+
+    /**
+     * Compute the singular values of a matrix with the divide-and-conquer
+     * algorithm (GESDD).
+     *
+     * @param A FloatMatrix of dimension m * n
+     * @return A min(m, n) vector of singular values.
+     */
+    public static FloatMatrix SVDValuesDC(FloatMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+        FloatMatrix S = new FloatMatrix(min(m, n));
+        int[] iwork = new int[8 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesdd('N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, 1, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return S;
+    }
+
+    /**
+     * Compute a singular-value decomposition of a complex matrix with the
+     * divide-and-conquer algorithm (GESDD).
+     *
+     * @return A ComplexFloatMatrix[3] array of U, S, V such that A = U * diag(S) * V*
+     */
+    public static ComplexFloatMatrix[] fullSVDDC(ComplexFloatMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        ComplexFloatMatrix U = new ComplexFloatMatrix(m, m);
+        FloatMatrix S = new FloatMatrix(min(m, n));
+        ComplexFloatMatrix V = new ComplexFloatMatrix(n, n);
+        float[] rwork = new float[complexSVDRworkLength(m, n)];
+        int[] iwork = new int[8 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().cgesdd('A', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, n, rwork, 0, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new ComplexFloatMatrix[]{U, new ComplexFloatMatrix(S), V.hermitian()};
+    }
+
+    /**
+     * Compute a sparse singular-value decomposition of a complex matrix with the
+     * divide-and-conquer algorithm (GESDD).
+     *
+     * @return A ComplexFloatMatrix[3] array of U, S, V such that A = U * diag(S) * V*
+     */
+    public static ComplexFloatMatrix[] sparseSVDDC(ComplexFloatMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+
+        ComplexFloatMatrix U = new ComplexFloatMatrix(m, min(m, n));
+        FloatMatrix S = new FloatMatrix(min(m, n));
+        ComplexFloatMatrix V = new ComplexFloatMatrix(min(m, n), n);
+        float[] rwork = new float[complexSVDRworkLength(m, n)];
+        int[] iwork = new int[8 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().cgesdd('S', m, n, a, 0, m, S.data, 0, U.data, 0, m, V.data, 0, min(m, n), rwork, 0, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return new ComplexFloatMatrix[]{U, new ComplexFloatMatrix(S), V.hermitian()};
+    }
+
+    /**
+     * Compute the singular values of a complex matrix with the divide-and-conquer
+     * algorithm (GESDD).
+     *
+     * @param A ComplexFloatMatrix of dimension m * n
+     * @return A real-valued (!) min(m, n) vector of singular values.
+     */
+    public static FloatMatrix SVDValuesDC(ComplexFloatMatrix A) {
+        int m = A.rows;
+        int n = A.columns;
+        FloatMatrix S = new FloatMatrix(min(m, n));
+        float[] rwork = new float[7 * min(m, n)];
+        int[] iwork = new int[8 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().cgesdd('N', m, n, a, 0, m, S.data, 0, null, 0, 1, null, 0, 1, rwork, 0, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESDD", "The updating process of the divide-and-conquer algorithm failed.");
+        }
+
+        return S;
+    }
+
+    /**
+     * Compute the k largest singular values and the corresponding singular vectors
+     * of A (GESVDX). The other singular vectors are not computed.
+     *
+     * @param A FloatMatrix of dimension m * n
+     * @param k number of singular triplets, between 1 and min(m, n)
+     * @return A FloatMatrix[3] array of U (m * k), S (k) and V (n * k) such that
+     * U * diag(S) * V' is the best rank k approximation of A.
+     */
+    public static FloatMatrix[] partialSVD(FloatMatrix A, int k) {
+        int m = A.rows;
+        int n = A.columns;
+        checkRank(k, min(m, n));
+
+        FloatMatrix U = new FloatMatrix(m, k);
+        FloatMatrix S = new FloatMatrix(k);
+        FloatMatrix V = new FloatMatrix(k, n);
+        int[] ns = new int[1];
+        int[] iwork = new int[12 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesvdx('V', 'V', 'I', m, n, a, 0, m, 0.0f, 0.0f, 1, k, ns, 0, S.data, 0, U.data, 0, m, V.data, 0, k, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESVDX", info + " singular vectors failed to converge.");
+        }
+
+        return new FloatMatrix[]{U, S, V.transposei()};
+    }
+
+    /**
+     * Compute the k largest singular values of A (GESVDX).
+     *
+     * @param A FloatMatrix of dimension m * n
+     * @param k number of singular values, between 1 and min(m, n)
+     * @return A k vector of singular values.
+     */
+    public static FloatMatrix partialSVDValues(FloatMatrix A, int k) {
+        int m = A.rows;
+        int n = A.columns;
+        checkRank(k, min(m, n));
+
+        FloatMatrix S = new FloatMatrix(k);
+        int[] ns = new int[1];
+        int[] iwork = new int[12 * min(m, n)];
+
+        float[] a = workspaceCopy(A);
+        int info;
+        try {
+            info = backend().sgesvdx('N', 'N', 'I', m, n, a, 0, m, 0.0f, 0.0f, 1, k, ns, 0, S.data, 0, null, 0, 1, null, 0, 1, iwork, 0);
+        } finally {
+            Workspace.release(a);
+        }
+
+        if (info > 0) {
+          throw new LapackConvergenceException("GESVDX", info + " singular vectors failed to converge.");
+        }
+
+        return S;
+    }
+
+    /**
+     * Copy the data of A into an array from the workspace cache. LAPACK
+     * overwrites its input, and the copy is only needed for one call.
+     */
+    private static float[] workspaceCopy(FloatMatrix A) {
+        float[] a = Workspace.floats(A.length);
+        System.arraycopy(A.data, 0, a, 0, A.length);
+        return a;
+    }
+
+    private static float[] workspaceCopy(ComplexFloatMatrix A) {
+        float[] a = Workspace.floats(2 * A.length);
+        System.arraycopy(A.data, 0, a, 0, 2 * A.length);
+        return a;
+    }
+
+
     //END
 }
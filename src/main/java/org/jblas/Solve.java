@@ -36,6 +36,8 @@
 
 package org.jblas;
 
+import java.nio.IntBuffer;
+
 /**
  * Solving linear equations.
  */
@@ -105,6 +107,25 @@ public class Solve {
     return solveLeastSquares(A, DoubleMatrix.eye(A.rows));
   }
 
+//STOP
+	/** Solves the linear equation A*X = B for direct matrices. */
+	public static DirectDoubleMatrix solve(DirectDoubleMatrix A, DirectDoubleMatrix B) {
+		A.assertSquare();
+		DirectDoubleMatrix X = B.dup();
+		IntBuffer ipiv = SimpleBlas.allocateIntBuffer(B.rows);
+		SimpleBlas.gesv(A.dup(), ipiv, X);
+		return X;
+	}
+
+	/** Solves the linear equation A*X = B for symmetric and positive definite, direct A. */
+	public static DirectDoubleMatrix solvePositive(DirectDoubleMatrix A, DirectDoubleMatrix B) {
+		A.assertSquare();
+		DirectDoubleMatrix X = B.dup();
+		SimpleBlas.posv('U', A.dup(), X);
+		return X;
+	}
+//START
+
 //BEGIN
   // The code below has been automatically generated.
   // DO NOT EDIT!
@@ -173,5 +194,6 @@ public class Solve {
     return solveLeastSquares(A, FloatMatrix.eye(A.rows));
   }
 
+
 //END
 }
@@ -0,0 +1,450 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.jblas.ranges.Range;
+import org.jblas.util.Parallel;
+
+import java.util.Arrays;
+
+/**
+ * <p>A sparse matrix in compressed sparse row (CSR) or compressed sparse column (CSC) layout.</p>
+ *
+ * <p>In CSR layout, the entries of row i are stored at positions pointers[i] to
+ * pointers[i+1] - 1 of indices (their column indices) and data (their values).
+ * CSC is the same with the roles of rows and columns exchanged. The indices within
+ * a row (column) are sorted and unique. The arrays are public, like the data of
+ * {@link DoubleMatrix}, so that they can be passed to other libraries directly.</p>
+ *
+ * <p>Matrices are built with {@link #fromTriplets}, from a dense matrix, or from the
+ * compressed arrays. Products with dense matrices run in parallel (see
+ * {@link Parallel}): in CSR layout over the rows of the result, in CSC layout over the
+ * columns of the right hand side, or for a single vector over blocks of columns whose
+ * partial results are added up in the end. {@link #transposeMmul} uses the opposite
+ * scheme, so that A' * x is as fast as A * x in either layout.</p>
+ *
+ * <p>A sparse matrix is a {@link DoubleLinearOperator} and can be used with the
+ * iterative methods in {@link IterativeEigen}.</p>
+ */
+public class SparseDoubleMatrix implements DoubleLinearOperator {
+    /** Number of rows. */
+    public int rows;
+    /** Number of columns. */
+    public int columns;
+    /** Start of each row (CSR) or column (CSC) in indices and data, followed by the number of entries. */
+    public int[] pointers;
+    /** Column (CSR) or row (CSC) indices of the entries. */
+    public int[] indices;
+    /** Values of the entries. */
+    public double[] data;
+
+    private final boolean csr;
+
+    /** Minimal number of rows per task for parallel products. */
+    private static final int ROW_GRAIN = 64;
+
+    /**
+     * Create a sparse matrix from its compressed arrays. The arrays are not copied.
+     *
+     * @param csr true for CSR layout, false for CSC layout
+     */
+    public SparseDoubleMatrix(int rows, int columns, int[] pointers, int[] indices, double[] data, boolean csr) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Dimensions must not be negative.");
+        }
+        int major = csr ? rows : columns;
+        if (pointers.length != major + 1 || pointers[0] != 0 || pointers[major] > indices.length || indices.length != data.length) {
+            throw new IllegalArgumentException("Compressed arrays do not match the dimensions.");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.data = data;
+        this.csr = csr;
+    }
+
+    /** Create a sparse matrix in CSR layout with the non-zero entries of a dense matrix. */
+    public SparseDoubleMatrix(DoubleMatrix A) {
+        this(A.rows, A.columns, new int[A.rows + 1], new int[nonZeros(A)], new double[nonZeros(A)], true);
+        int k = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                double v = A.get(i, j);
+                if (v != 0.0) {
+                    indices[k] = j;
+                    data[k++] = v;
+                }
+            }
+            pointers[i + 1] = k;
+        }
+    }
+
+    /**
+     * Create a sparse matrix in CSR layout from (row, column, value) triplets.
+     * The triplets may come in any order. Values of repeated positions are added.
+     */
+    public static SparseDoubleMatrix fromTriplets(int rows, int columns, int[] rowIndices, int[] columnIndices, double[] values) {
+        int n = values.length;
+        if (rowIndices.length != n || columnIndices.length != n) {
+            throw new SizeException("Triplet arrays must have the same length.");
+        }
+        for (int k = 0; k < n; k++) {
+            if (rowIndices[k] < 0 || rowIndices[k] >= rows || columnIndices[k] < 0 || columnIndices[k] >= columns) {
+                throw new IndexOutOfBoundsException(String.format("Entry (%d, %d) is outside of a %d * %d matrix.",
+                        rowIndices[k], columnIndices[k], rows, columns));
+            }
+        }
+
+        // bucket by column and transpose, which sorts the column indices within each row
+        int[] pointers = new int[columns + 1];
+        for (int k = 0; k < n; k++) {
+            pointers[columnIndices[k] + 1]++;
+        }
+        for (int j = 0; j < columns; j++) {
+            pointers[j + 1] += pointers[j];
+        }
+        int[] next = Arrays.copyOf(pointers, columns);
+        int[] indices = new int[n];
+        double[] data = new double[n];
+        for (int k = 0; k < n; k++) {
+            int p = next[columnIndices[k]]++;
+            indices[p] = rowIndices[k];
+            data[p] = values[k];
+        }
+        SparseDoubleMatrix A = new SparseDoubleMatrix(rows, columns, pointers, indices, data, false).toCSR();
+        A.sumDuplicates();
+        return A;
+    }
+
+    /** Whether the matrix is in CSR layout. */
+    public boolean isCSR() {
+        return csr;
+    }
+
+    /** Whether the matrix is in CSC layout. */
+    public boolean isCSC() {
+        return !csr;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /** Number of stored entries. */
+    public int getNonZeros() {
+        return pointers[pointers.length - 1];
+    }
+
+    /** Get a matrix element, in time logarithmic in the number of entries of its row (column). */
+    public double get(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= columns) {
+            throw new IndexOutOfBoundsException(String.format("Index (%d, %d) is outside of a %d * %d matrix.", i, j, rows, columns));
+        }
+        int major = csr ? i : j;
+        int k = Arrays.binarySearch(indices, pointers[major], pointers[major + 1], csr ? j : i);
+        return k >= 0 ? data[k] : 0.0;
+    }
+
+    /** Convert to a dense matrix. */
+    public DoubleMatrix toDense() {
+        DoubleMatrix A = new DoubleMatrix(rows, columns);
+        for (int m = 0; m < pointers.length - 1; m++) {
+            for (int p = pointers[m]; p < pointers[m + 1]; p++) {
+                if (csr) {
+                    A.put(m, indices[p], data[p]);
+                } else {
+                    A.put(indices[p], m, data[p]);
+                }
+            }
+        }
+        return A;
+    }
+
+    /** Return this matrix in CSR layout. Returns this matrix if it already is in CSR layout. */
+    public SparseDoubleMatrix toCSR() {
+        return csr ? this : transposeLayout();
+    }
+
+    /** Return this matrix in CSC layout. Returns this matrix if it already is in CSC layout. */
+    public SparseDoubleMatrix toCSC() {
+        return csr ? transposeLayout() : this;
+    }
+
+    /**
+     * Return the transpose. The transpose of a CSR matrix is the CSC matrix with the same
+     * arrays (and vice versa), so the arrays are shared with this matrix.
+     */
+    public SparseDoubleMatrix transpose() {
+        return new SparseDoubleMatrix(columns, rows, pointers, indices, data, !csr);
+    }
+
+    /** Copy the matrix. */
+    public SparseDoubleMatrix dup() {
+        int nnz = getNonZeros();
+        return new SparseDoubleMatrix(rows, columns, pointers.clone(), Arrays.copyOf(indices, nnz), Arrays.copyOf(data, nnz), csr);
+    }
+
+    /** Get the given rows, in the layout of this matrix. */
+    public SparseDoubleMatrix getRows(int[] rindices) {
+        return csr ? selectMajor(rindices) : toCSR().selectMajor(rindices).toCSC();
+    }
+
+    public SparseDoubleMatrix getRows(Range indices) {
+        return getRows(toArray(indices, rows));
+    }
+
+    /** Get the given columns, in the layout of this matrix. */
+    public SparseDoubleMatrix getColumns(int[] cindices) {
+        return csr ? toCSC().selectMajor(cindices).toCSR() : selectMajor(cindices);
+    }
+
+    public SparseDoubleMatrix getColumns(Range indices) {
+        return getColumns(toArray(indices, columns));
+    }
+
+    /** Matrix-matrix multiplication with a dense matrix (or vector). */
+    public DoubleMatrix mmul(DoubleMatrix other) {
+        return mmuli(other, new DoubleMatrix(rows, other.columns));
+    }
+
+    /** Matrix-matrix multiplication with a dense matrix, storing the result in result. */
+    public DoubleMatrix mmuli(DoubleMatrix other, DoubleMatrix result) {
+        if (columns != other.rows) {
+            throw new SizeException("Number of columns of left matrix must be equal to number of rows of right matrix.");
+        }
+        return multiply(csr, rows, other, result);
+    }
+
+    /** Compute this' * other for a dense matrix other. */
+    public DoubleMatrix transposeMmul(DoubleMatrix other) {
+        return transposeMmuli(other, new DoubleMatrix(columns, other.columns));
+    }
+
+    /** Compute this' * other for a dense matrix other, storing the result in result. */
+    public DoubleMatrix transposeMmuli(DoubleMatrix other, DoubleMatrix result) {
+        if (rows != other.rows) {
+            throw new SizeException("Number of rows of left matrix must be equal to number of rows of right matrix.");
+        }
+        return multiply(!csr, columns, other, result);
+    }
+
+    /** Compute this * X into result, as a {@link DoubleLinearOperator}. */
+    public DoubleMatrix apply(DoubleMatrix X, DoubleMatrix result) {
+        return mmuli(X, result);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SparseDoubleMatrix(%d * %d, %d non-zeros, %s)", rows, columns, getNonZeros(), csr ? "CSR" : "CSC");
+    }
+
+    /**
+     * Compute result = op(this) * B, where the stored major dimension of this runs over
+     * the rows of the result if rowWise, and over the columns of op(this) otherwise.
+     */
+    private DoubleMatrix multiply(boolean rowWise, int resultRows, DoubleMatrix B, DoubleMatrix result) {
+        if (result.rows != resultRows || result.columns != B.columns) {
+            if (result == B) {
+                throw new SizeException("Cannot resize result matrix because it is used in-place.");
+            }
+            result.resize(resultRows, B.columns);
+        }
+        final DoubleMatrix b = result == B ? B.dup() : B;
+        final DoubleMatrix c = result;
+        long work = (long) getNonZeros() * b.columns;
+        final int major = pointers.length - 1;
+
+        if (rowWise) {
+            Parallel.forRange(major, ROW_GRAIN, work, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    rowProducts(from, to, b, c);
+                }
+            });
+        } else if (b.columns > 1) {
+            Parallel.forRange(b.columns, 1, work, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    for (int j = from; j < to; j++) {
+                        Arrays.fill(c.data, j * c.rows, (j + 1) * c.rows, 0.0);
+                        scatter(0, major, b.data, j * b.rows, c.data, j * c.rows);
+                    }
+                }
+            });
+        } else if (Parallel.isParallel(work) && !Parallel.isDeterministic()) {
+            // split the major dimension and add up the partial results
+            final int parts = Parallel.getPool().getParallelism();
+            final double[][] partial = new double[parts][];
+            Parallel.forRange(parts, 1, new Parallel.RangeBody() {
+                public void run(int from, int to) {
+                    for (int t = from; t < to; t++) {
+                        partial[t] = new double[c.rows];
+                        scatter((int) ((long) t * major / parts), (int) ((long) (t + 1) * major / parts), b.data, 0, partial[t], 0);
+                    }
+                }
+            });
+            System.arraycopy(partial[0], 0, c.data, 0, c.rows);
+            for (int t = 1; t < parts; t++) {
+                for (int i = 0; i < c.rows; i++) {
+                    c.data[i] += partial[t][i];
+                }
+            }
+        } else {
+            Arrays.fill(c.data, 0, c.rows, 0.0);
+            scatter(0, major, b.data, 0, c.data, 0);
+        }
+        return result;
+    }
+
+    /** Rows from to to of the result, for the major dimension running over the result rows. */
+    private void rowProducts(int from, int to, DoubleMatrix B, DoubleMatrix result) {
+        for (int i = from; i < to; i++) {
+            int start = pointers[i], end = pointers[i + 1];
+            for (int j = 0; j < B.columns; j++) {
+                int offset = j * B.rows;
+                double s = 0.0;
+                for (int p = start; p < end; p++) {
+                    s += data[p] * B.data[indices[p] + offset];
+                }
+                result.data[i + j * result.rows] = s;
+            }
+        }
+    }
+
+    /** Add the entries of the major dimension from to to, times the elements of x, to y. */
+    private void scatter(int from, int to, double[] x, int xOffset, double[] y, int yOffset) {
+        for (int m = from; m < to; m++) {
+            double v = x[xOffset + m];
+            if (v != 0.0) {
+                for (int p = pointers[m]; p < pointers[m + 1]; p++) {
+                    y[yOffset + indices[p]] += data[p] * v;
+                }
+            }
+        }
+    }
+
+    /** Convert between CSR and CSC. The indices of the result are sorted. */
+    private SparseDoubleMatrix transposeLayout() {
+        int major = pointers.length - 1;
+        int minor = csr ? columns : rows;
+        int nnz = getNonZeros();
+        int[] newPointers = new int[minor + 1];
+        for (int p = 0; p < nnz; p++) {
+            newPointers[indices[p] + 1]++;
+        }
+        for (int i = 0; i < minor; i++) {
+            newPointers[i + 1] += newPointers[i];
+        }
+        int[] next = Arrays.copyOf(newPointers, minor);
+        int[] newIndices = new int[nnz];
+        double[] newData = new double[nnz];
+        for (int m = 0; m < major; m++) {
+            for (int p = pointers[m]; p < pointers[m + 1]; p++) {
+                int q = next[indices[p]]++;
+                newIndices[q] = m;
+                newData[q] = data[p];
+            }
+        }
+        return new SparseDoubleMatrix(rows, columns, newPointers, newIndices, newData, !csr);
+    }
+
+    /** Add up entries with the same index within a row (column). Indices must be sorted. */
+    private void sumDuplicates() {
+        int major = pointers.length - 1;
+        int k = 0;
+        int start = 0;
+        for (int m = 0; m < major; m++) {
+            int end = pointers[m + 1];
+            for (int p = start; p < end; p++) {
+                if (k > pointers[m] && indices[k - 1] == indices[p]) {
+                    data[k - 1] += data[p];
+                } else {
+                    indices[k] = indices[p];
+                    data[k++] = data[p];
+                }
+            }
+            start = end;
+            pointers[m + 1] = k;
+        }
+    }
+
+    /** Copy the given rows (CSR) or columns (CSC). */
+    private SparseDoubleMatrix selectMajor(int[] selection) {
+        int major = pointers.length - 1;
+        int[] newPointers = new int[selection.length + 1];
+        for (int s = 0; s < selection.length; s++) {
+            int m = selection[s];
+            if (m < 0 || m >= major) {
+                throw new IndexOutOfBoundsException("Index " + m + " is out of bounds.");
+            }
+            newPointers[s + 1] = newPointers[s] + pointers[m + 1] - pointers[m];
+        }
+        int[] newIndices = new int[newPointers[selection.length]];
+        double[] newData = new double[newIndices.length];
+        for (int s = 0; s < selection.length; s++) {
+            int m = selection[s];
+            System.arraycopy(indices, pointers[m], newIndices, newPointers[s], pointers[m + 1] - pointers[m]);
+            System.arraycopy(data, pointers[m], newData, newPointers[s], pointers[m + 1] - pointers[m]);
+        }
+        return csr ? new SparseDoubleMatrix(selection.length, columns, newPointers, newIndices, newData, true)
+                   : new SparseDoubleMatrix(rows, selection.length, newPointers, newIndices, newData, false);
+    }
+
+    private static int[] toArray(Range r, int upper) {
+        r.init(0, upper);
+        int[] result = new int[r.length()];
+        for (int i = 0; r.hasMore(); r.next(), i++) {
+            result[i] = r.value();
+        }
+        return result;
+    }
+
+    private static int nonZeros(DoubleMatrix A) {
+        int n = 0;
+        for (int i = 0; i < A.length; i++) {
+            if (A.data[i] != 0.0) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -51,9 +51,10 @@ class BenchmarkResult {
     }
 
     void printResult() {
-        System.out.printf("%6.3f GFLOPS (%d iterations in %.1f seconds)%n",
+        System.out.printf("%6.3f GFLOPS (%d iterations in %.1f seconds, %.2f us per call)%n",
                 numOps / duration / 1e9,
                 iterations,
-                duration);
+                duration,
+                duration / iterations * 1e6);
     }
 }
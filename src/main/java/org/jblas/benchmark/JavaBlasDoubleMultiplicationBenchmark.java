@@ -0,0 +1,69 @@
+// --- BEGIN LICENSE BLOCK ---
+/*
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ *
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+package org.jblas.benchmark;
+
+import org.jblas.JavaBlas;
+import static org.jblas.DoubleMatrix.*;
+
+/**
+ * Benchmarks the blocked and parallel multiplication in JavaBlas.
+ */
+class JavaBlasDoubleMultiplicationBenchmark implements Benchmark {
+
+    public String getName() {
+        return "JavaBlas matrix multiplication, double precision";
+    }
+
+    public BenchmarkResult run(int size, double seconds) {
+        int counter = 0;
+        long ops = 0;
+
+        double[] A = randn(size, size).data;
+        double[] B = randn(size, size).data;
+        double[] C = randn(size, size).data;
+
+        Timer t = new Timer();
+        t.start();
+        while (!t.ranFor(seconds)) {
+            JavaBlas.rgemm('N', 'N', size, size, size, 1.0, A, 0, size, B, 0, size, 0.0, C, 0, size);
+            counter++;
+            ops += 2L * size * size * size;
+        }
+        t.stop();
+
+        return new BenchmarkResult(ops, t.elapsedSeconds(), counter);
+    }
+}
@@ -51,7 +51,9 @@ public class Main {
     static Benchmark[] multiplicationBenchmarks = {
         new JavaDoubleMultiplicationBenchmark(),
         new JavaFloatMultiplicationBenchmark(),
+        new JavaBlasDoubleMultiplicationBenchmark(),
         new NativeDoubleMultiplicationBenchmark(),
+        new NativeDoubleCriticalMultiplicationBenchmark(),
         new NativeFloatMultiplicationBenchmark(),};
 
     public static void printHelp() {
@@ -0,0 +1,366 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+
+package org.jblas.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Bulk binary encoding of matrix data on NIO channels.
+ *
+ * <p>This is the format used by DoubleMatrix.out() and save() and their float and
+ * complex counterparts. A matrix is written as</p>
+ * <ul>
+ * <li>a type tag as written by DataOutput.writeUTF (a two byte length followed by
+ * the characters),</li>
+ * <li>the number of columns, the number of rows and the length of the data array
+ * as four byte big endian ints,</li>
+ * <li>the data array in column-major order,</li>
+ * <li>optionally the CRC32 of the bytes of the data array as a four byte big endian int.</li>
+ * </ul>
+ *
+ * <p>The type tag is "double" or "float", followed by the options ";le" if the data
+ * is stored in little endian byte order, and ";crc32" if a checksum follows the data.
+ * Without options this is exactly the format of the old DataOutputStream based out(),
+ * so big endian files without checksum can still be read by older versions.</p>
+ *
+ * <p>The data is converted in chunks of {@link #CHUNK_SIZE} bytes with the bulk
+ * get and put methods of ByteBuffer instead of one call per element. Writing in
+ * the native byte order (see ByteOrder.nativeOrder()) avoids swapping the bytes
+ * altogether. Since only channels are needed, the same code serves files
+ * (FileChannel), sockets (SocketChannel) and plain streams (java.nio.channels.Channels).
+ * Reads never consume more bytes than the matrix occupies, so several matrices can
+ * be read from the same channel one after the other.</p>
+ */
+public class MatrixCodec {
+    /** Size of the buffer the data is converted in, in bytes. */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private static final String LITTLE_ENDIAN = ";le";
+    private static final String CHECKSUM = ";crc32";
+
+    /**
+     * The header of an encoded matrix.
+     */
+    public static class Header {
+        /** The element type, "double" or "float". */
+        public final String type;
+        public final int columns;
+        public final int rows;
+        /** The length of the data array. */
+        public final int length;
+        /** The byte order of the data. */
+        public final ByteOrder order;
+        /** Whether a CRC32 checksum follows the data. */
+        public final boolean checksum;
+
+        public Header(String type, int columns, int rows, int length, ByteOrder order, boolean checksum) {
+            this.type = type;
+            this.columns = columns;
+            this.rows = rows;
+            this.length = length;
+            this.order = order;
+            this.checksum = checksum;
+        }
+
+        /** The type tag including the options. */
+        public String getTag() {
+            return type + (order == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN : "") + (checksum ? CHECKSUM : "");
+        }
+
+        /** The number of bytes taken by the data array. */
+        public long getDataBytes() {
+            return (long) length * ("float".equals(type) ? 4 : 8);
+        }
+    }
+
+    /**
+     * Writes a double matrix to a channel.
+     *
+     * @param channel the channel to write to
+     * @param columns the number of columns
+     * @param rows the number of rows
+     * @param data the data array, written completely
+     * @param order the byte order of the data
+     * @param checksum whether to append a CRC32 checksum of the data
+     */
+    public static void write(WritableByteChannel channel, int columns, int rows, double[] data, ByteOrder order, boolean checksum) throws IOException {
+        writeHeader(channel, new Header("double", columns, rows, data.length, order, checksum));
+        CRC32 crc = checksum ? new CRC32() : null;
+        writeData(channel, data, order, crc);
+        if (checksum) {
+            writeChecksum(channel, crc);
+        }
+    }
+
+    /**
+     * Writes a float matrix to a channel.
+     *
+     * @param channel the channel to write to
+     * @param columns the number of columns
+     * @param rows the number of rows
+     * @param data the data array, written completely
+     * @param order the byte order of the data
+     * @param checksum whether to append a CRC32 checksum of the data
+     */
+    public static void write(WritableByteChannel channel, int columns, int rows, float[] data, ByteOrder order, boolean checksum) throws IOException {
+        writeHeader(channel, new Header("float", columns, rows, data.length, order, checksum));
+        CRC32 crc = checksum ? new CRC32() : null;
+        writeData(channel, data, order, crc);
+        if (checksum) {
+            writeChecksum(channel, crc);
+        }
+    }
+
+    /**
+     * Reads the header of a matrix. The data has to be read afterwards with
+     * one of the read() methods.
+     *
+     * @throws IOException if the channel ends early or the header is malformed
+     */
+    public static Header readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(2);
+        readFully(channel, buffer);
+        int tagLength = buffer.getShort(0) & 0xffff;
+
+        buffer = ByteBuffer.allocate(tagLength + 12);
+        readFully(channel, buffer);
+        String tag = new String(buffer.array(), 0, tagLength, "UTF-8");
+        buffer.position(tagLength);
+        int columns = buffer.getInt();
+        int rows = buffer.getInt();
+        int length = buffer.getInt();
+
+        String[] parts = tag.split(";", -1);
+        ByteOrder order = ByteOrder.BIG_ENDIAN;
+        boolean checksum = false;
+        for (int i = 1; i < parts.length; i++) {
+            if (LITTLE_ENDIAN.equals(";" + parts[i])) {
+                order = ByteOrder.LITTLE_ENDIAN;
+            } else if (CHECKSUM.equals(";" + parts[i])) {
+                checksum = true;
+            } else {
+                throw new IOException("Unknown option \"" + parts[i] + "\" in matrix type \"" + tag + "\".");
+            }
+        }
+        if (columns < 0 || rows < 0 || length < 0) {
+            throw new IOException("Invalid matrix dimensions " + rows + "x" + columns + " with length " + length + ".");
+        }
+        return new Header(parts[0], columns, rows, length, order, checksum);
+    }
+
+    /**
+     * Reads the data of a double matrix whose header has just been read.
+     *
+     * @param data the array to read into, of length header.length
+     * @throws IOException if the channel ends early or the checksum does not match
+     */
+    public static void read(ReadableByteChannel channel, Header header, double[] data) throws IOException {
+        checkData(header, "double", data.length);
+        CRC32 crc = header.checksum ? new CRC32() : null;
+        readData(channel, data, header.order, crc);
+        if (header.checksum) {
+            readChecksum(channel, crc);
+        }
+    }
+
+    /**
+     * Reads the data of a float matrix whose header has just been read.
+     *
+     * @param data the array to read into, of length header.length
+     * @throws IOException if the channel ends early or the checksum does not match
+     */
+    public static void read(ReadableByteChannel channel, Header header, float[] data) throws IOException {
+        checkData(header, "float", data.length);
+        CRC32 crc = header.checksum ? new CRC32() : null;
+        readData(channel, data, header.order, crc);
+        if (header.checksum) {
+            readChecksum(channel, crc);
+        }
+    }
+
+    /**
+     * Writes the elements of an array without any header.
+     *
+     * @param order the byte order of the data
+     */
+    public static void writeData(WritableByteChannel channel, double[] data, ByteOrder order) throws IOException {
+        writeData(channel, data, order, null);
+    }
+
+    /**
+     * Writes the elements of an array without any header.
+     *
+     * @param order the byte order of the data
+     */
+    public static void writeData(WritableByteChannel channel, float[] data, ByteOrder order) throws IOException {
+        writeData(channel, data, order, null);
+    }
+
+    /**
+     * Reads data.length elements without any header.
+     *
+     * @param order the byte order of the data
+     * @throws IOException if the channel ends early
+     */
+    public static void readData(ReadableByteChannel channel, double[] data, ByteOrder order) throws IOException {
+        readData(channel, data, order, null);
+    }
+
+    /**
+     * Reads data.length elements without any header.
+     *
+     * @param order the byte order of the data
+     * @throws IOException if the channel ends early
+     */
+    public static void readData(ReadableByteChannel channel, float[] data, ByteOrder order) throws IOException {
+        readData(channel, data, order, null);
+    }
+
+    private static void writeHeader(WritableByteChannel channel, Header header) throws IOException {
+        byte[] tag = header.getTag().getBytes("UTF-8");
+        ByteBuffer buffer = ByteBuffer.allocate(2 + tag.length + 12);
+        buffer.putShort((short) tag.length).put(tag);
+        buffer.putInt(header.columns).putInt(header.rows).putInt(header.length);
+        buffer.flip();
+        writeFully(channel, buffer);
+    }
+
+    private static void writeData(WritableByteChannel channel, double[] data, ByteOrder order, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, 8L * data.length)).order(order);
+        int chunk = buffer.capacity() / 8;
+        for (int i = 0; i < data.length; i += chunk) {
+            int n = Math.min(chunk, data.length - i);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(data, i, n);
+            buffer.limit(8 * n);
+            writeChunk(channel, buffer, crc);
+        }
+    }
+
+    private static void writeData(WritableByteChannel channel, float[] data, ByteOrder order, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, 4L * data.length)).order(order);
+        int chunk = buffer.capacity() / 4;
+        for (int i = 0; i < data.length; i += chunk) {
+            int n = Math.min(chunk, data.length - i);
+            buffer.clear();
+            buffer.asFloatBuffer().put(data, i, n);
+            buffer.limit(4 * n);
+            writeChunk(channel, buffer, crc);
+        }
+    }
+
+    private static void readData(ReadableByteChannel channel, double[] data, ByteOrder order, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, 8L * data.length)).order(order);
+        int chunk = buffer.capacity() / 8;
+        for (int i = 0; i < data.length; i += chunk) {
+            int n = Math.min(chunk, data.length - i);
+            readChunk(channel, buffer, 8 * n, crc);
+            buffer.asDoubleBuffer().get(data, i, n);
+        }
+    }
+
+    private static void readData(ReadableByteChannel channel, float[] data, ByteOrder order, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, 4L * data.length)).order(order);
+        int chunk = buffer.capacity() / 4;
+        for (int i = 0; i < data.length; i += chunk) {
+            int n = Math.min(chunk, data.length - i);
+            readChunk(channel, buffer, 4 * n, crc);
+            buffer.asFloatBuffer().get(data, i, n);
+        }
+    }
+
+    private static void writeChunk(WritableByteChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        if (crc != null) {
+            crc.update(buffer.array(), 0, buffer.limit());
+        }
+        writeFully(channel, buffer);
+    }
+
+    private static void writeChecksum(WritableByteChannel channel, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.putInt(0, (int) crc.getValue());
+        writeFully(channel, buffer);
+    }
+
+    private static void readChunk(ReadableByteChannel channel, ByteBuffer buffer, int bytes, CRC32 crc) throws IOException {
+        buffer.clear();
+        buffer.limit(bytes);
+        readFully(channel, buffer);
+        if (crc != null) {
+            crc.update(buffer.array(), 0, bytes);
+        }
+        buffer.flip();
+    }
+
+    private static void readChecksum(ReadableByteChannel channel, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        readFully(channel, buffer);
+        if (buffer.getInt(0) != (int) crc.getValue()) {
+            throw new IOException("Checksum mismatch, the matrix data is corrupted.");
+        }
+    }
+
+    private static void checkData(Header header, String type, int length) {
+        if (!header.type.equals(type)) {
+            throw new IllegalArgumentException("Cannot read matrix of type " + header.type + " into a " + type + " array.");
+        }
+        if (header.length != length) {
+            throw new IllegalArgumentException("Array has length " + length + " but the matrix data has length " + header.length + ".");
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of matrix data.");
+            }
+        }
+    }
+}
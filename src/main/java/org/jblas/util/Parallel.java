@@ -0,0 +1,191 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Configuration and helpers for the parallel loops in jblas.
+ *
+ * <p>Elementwise operations, reductions, and row and column sums of
+ * DoubleMatrix and FloatMatrix, as well as the Java matrix multiplication in
+ * JavaBlas, split their work over a fork/join pool once it exceeds a
+ * threshold. The pool, the threshold, and whether reductions are
+ * deterministic can be set here or with the system properties</p>
+ * <ul>
+ *   <li>"org.jblas.parallel.threads": number of threads of the pool owned by jblas
+ *       (default: number of processors),</li>
+ *   <li>"org.jblas.parallel.threshold": minimum number of elements for a parallel
+ *       operation (default: 262144),</li>
+ *   <li>"org.jblas.parallel.deterministic": "true" to make reductions deterministic.</li>
+ * </ul>
+ *
+ * <p>A parallel reduction like a sum adds up partial results of blocks of elements.
+ * By default, the blocks depend on the number of threads, so that the result
+ * may differ in the last bits between machines, and from the sequential result.
+ * In deterministic mode, the blocks have a fixed size and are combined in order
+ * both for sequential and parallel computations, so that the result only depends
+ * on the data.</p>
+ */
+public class Parallel {
+    /** A loop body working on the index range [from, to). */
+    public interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /** Block size of deterministic reductions. */
+    public static final int DETERMINISTIC_BLOCK_SIZE = 8192;
+
+    private static volatile ForkJoinPool pool;
+    private static volatile int threshold = Integer.getInteger("org.jblas.parallel.threshold", 1 << 18);
+    private static volatile boolean deterministic = Boolean.getBoolean("org.jblas.parallel.deterministic");
+
+    /** The pool for parallel operations. */
+    public static ForkJoinPool getPool() {
+        ForkJoinPool p = pool;
+        if (p == null) {
+            synchronized (Parallel.class) {
+                if (pool == null) {
+                    int threads = Integer.getInteger("org.jblas.parallel.threads",
+                            Runtime.getRuntime().availableProcessors());
+                    pool = new ForkJoinPool(Math.max(1, threads));
+                }
+                p = pool;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Use the given pool for parallel operations. A pool with parallelism 1
+     * switches parallel operations off.
+     */
+    public static void setPool(ForkJoinPool newPool) {
+        if (newPool == null)
+            throw new IllegalArgumentException("Pool must not be null.");
+        pool = newPool;
+    }
+
+    /** Minimum number of elements for an operation to run in parallel. */
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    public static void setThreshold(int newThreshold) {
+        if (newThreshold < 1)
+            throw new IllegalArgumentException("Threshold must be positive.");
+        threshold = newThreshold;
+    }
+
+    public static boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /** Make reductions deterministic (see above). */
+    public static void setDeterministic(boolean value) {
+        deterministic = value;
+    }
+
+    /** Whether an operation on the given number of elements should run in parallel. */
+    public static boolean isParallel(long work) {
+        return work >= threshold && getPool().getParallelism() > 1;
+    }
+
+    /**
+     * Size of the blocks whose partial results are combined in a reduction over
+     * n elements. If the result is at least n, the reduction should be computed
+     * in a single sequential loop.
+     */
+    public static int reductionBlockSize(int n) {
+        if (deterministic)
+            return DETERMINISTIC_BLOCK_SIZE;
+        if (!isParallel(n))
+            return Math.max(n, 1);
+        int parts = 4 * getPool().getParallelism();
+        return Math.max(DETERMINISTIC_BLOCK_SIZE, (n + parts - 1) / parts);
+    }
+
+    /**
+     * Split [0, n) into chunks whose sizes are multiples of grain and process them
+     * in parallel, if the total work is at least the threshold. Otherwise, the
+     * chunks are processed sequentially.
+     */
+    public static void forRange(int n, int grain, long work, RangeBody body) {
+        if (isParallel(work)) {
+            forRange(n, grain, body);
+        } else {
+            for (int from = 0; from < n; from += grain)
+                body.run(from, Math.min(n, from + grain));
+        }
+    }
+
+    /**
+     * Split [0, n) into chunks whose sizes are multiples of grain and process them
+     * in parallel on the pool.
+     */
+    public static void forRange(int n, int grain, RangeBody body) {
+        ForkJoinPool p = getPool();
+        int parts = p.getParallelism();
+        int chunk = Math.max(grain, ((n + parts - 1) / parts + grain - 1) / grain * grain);
+        p.invoke(new RangeTask(0, n, chunk, body));
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1015816378801110401L;
+
+        private final int from, to, chunk;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, int chunk, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                body.run(from, to);
+            } else {
+                int mid = from + (to - from + chunk - 1) / chunk / 2 * chunk;
+                invokeAll(new RangeTask(from, mid, chunk, body), new RangeTask(mid, to, chunk, body));
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas.util;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-local cache of scratch arrays.
+ *
+ * <p>Operations which need temporary storage, like the LAPACK work arrays in
+ * NativeBlas, the copies of input matrices which LAPACK overwrites, or in-place
+ * matrix multiplications, take an array with {@link #doubles(int)},
+ * {@link #floats(int)} or {@link #ints(int)} and return it with release() when
+ * they are done. Repeated calls with the same sizes then do not allocate.</p>
+ *
+ * <p>Arrays are cached per thread in buckets by type and length and have exactly
+ * the requested length. Their contents are undefined. The total size of the cached
+ * arrays of each thread is bounded by {@link #getMaxBytes()} (property
+ * "org.jblas.workspace.maxbytes", default 64MB); when a released array does not fit,
+ * the least recently released arrays are evicted. A bound of 0 switches caching off.</p>
+ *
+ * <p>The numbers of hits, misses and evictions over all threads are counted and
+ * can be printed with {@link #printStatistics(PrintStream)}.</p>
+ */
+public class Workspace {
+    /** Maximum number of cached arrays per bucket. */
+    private static final int MAX_PER_BUCKET = 4;
+
+    private static final int DOUBLE = 0;
+    private static final int FLOAT = 1;
+    private static final int INT = 2;
+
+    private static volatile long maxBytes = Long.getLong("org.jblas.workspace.maxbytes", 64L << 20);
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private static final ThreadLocal<Cache> caches = new ThreadLocal<Cache>() {
+        @Override
+        protected Cache initialValue() {
+            return new Cache();
+        }
+    };
+
+    /** The cached arrays of one thread. */
+    private static class Cache {
+        /** Free arrays by bucket key. */
+        final HashMap<Long, ArrayDeque<Object>> buckets = new HashMap<Long, ArrayDeque<Object>>();
+        /** All free arrays with their bucket keys, least recently released first. */
+        final LinkedHashMap<Object, Long> lru = new LinkedHashMap<Object, Long>();
+        long bytes;
+
+        Object take(int type, int n) {
+            ArrayDeque<Object> bucket = buckets.get(key(type, n));
+            Object a = bucket == null ? null : bucket.pollLast();
+            if (a == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            lru.remove(a);
+            bytes -= bytes(type, n);
+            return a;
+        }
+
+        void put(int type, int n, Object a) {
+            long size = bytes(type, n);
+            if (size > maxBytes || lru.containsKey(a)) {
+                return;
+            }
+            Long key = key(type, n);
+            ArrayDeque<Object> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new ArrayDeque<Object>();
+                buckets.put(key, bucket);
+            }
+            if (bucket.size() >= MAX_PER_BUCKET) {
+                evict(bucket.pollFirst(), key);
+            }
+            Iterator<Map.Entry<Object, Long>> it = lru.entrySet().iterator();
+            while (bytes + size > maxBytes && it.hasNext()) {
+                Map.Entry<Object, Long> e = it.next();
+                it.remove();
+                buckets.get(e.getValue()).remove(e.getKey());
+                bytes -= bytes((int) (e.getValue() >>> 32), (int) (long) e.getValue());
+                evictions.incrementAndGet();
+            }
+            bucket.addLast(a);
+            lru.put(a, key);
+            bytes += size;
+        }
+
+        private void evict(Object a, Long key) {
+            lru.remove(a);
+            bytes -= bytes((int) (key >>> 32), (int) (long) key);
+            evictions.incrementAndGet();
+        }
+
+        void clear() {
+            buckets.clear();
+            lru.clear();
+            bytes = 0;
+        }
+    }
+
+    private static Long key(int type, int n) {
+        return ((long) type << 32) | n;
+    }
+
+    private static long bytes(int type, int n) {
+        return (type == DOUBLE ? 8L : 4L) * n;
+    }
+
+    /** Get an array of n doubles. */
+    public static double[] doubles(int n) {
+        double[] a = (double[]) caches.get().take(DOUBLE, n);
+        return a != null ? a : new double[n];
+    }
+
+    /** Get an array of n floats. */
+    public static float[] floats(int n) {
+        float[] a = (float[]) caches.get().take(FLOAT, n);
+        return a != null ? a : new float[n];
+    }
+
+    /** Get an array of n ints. */
+    public static int[] ints(int n) {
+        int[] a = (int[]) caches.get().take(INT, n);
+        return a != null ? a : new int[n];
+    }
+
+    /** Return an array to the cache of the current thread. */
+    public static void release(double[] a) {
+        caches.get().put(DOUBLE, a.length, a);
+    }
+
+    /** Return an array to the cache of the current thread. */
+    public static void release(float[] a) {
+        caches.get().put(FLOAT, a.length, a);
+    }
+
+    /** Return an array to the cache of the current thread. */
+    public static void release(int[] a) {
+        caches.get().put(INT, a.length, a);
+    }
+
+    /** Remove all cached arrays of the current thread. */
+    public static void clear() {
+        caches.get().clear();
+    }
+
+    /** Maximum number of bytes cached per thread. */
+    public static long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public static void setMaxBytes(long newMaxBytes) {
+        if (newMaxBytes < 0)
+            throw new IllegalArgumentException("Maximum size must not be negative.");
+        maxBytes = newMaxBytes;
+    }
+
+    /** Number of bytes currently cached by this thread. */
+    public static long getCachedBytes() {
+        return caches.get().bytes;
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static long getEvictions() {
+        return evictions.get();
+    }
+
+    /** Fraction of requests which were served from the cache. */
+    public static double getHitRate() {
+        long h = hits.get(), total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public static void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    public static void printStatistics(PrintStream out) {
+        out.printf("Workspace: %d hits, %d misses (hit rate %.1f%%), %d evictions, %d bytes cached by this thread%n",
+                getHits(), getMisses(), 100.0 * getHitRate(), getEvictions(), getCachedBytes());
+    }
+}
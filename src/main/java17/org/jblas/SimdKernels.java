@@ -0,0 +1,264 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+
+import static org.jblas.VectorKernels.*;
+
+/**
+ * Vector API versions of the kernels in {@link VectorKernels}, using the preferred
+ * species of the platform.
+ *
+ * The elementwise methods process the range [from, to) up to a multiple of the vector
+ * length and return the index of the first element they have not processed. The
+ * remaining elements are handled by the caller.
+ */
+class SimdKernels {
+
+    static int binary(int op, double[] x, double[] y, double[] r, int from, int to) {
+        int end = bound(x, from, to);
+        for (int i = from; i < end; i += DoubleVector.SPECIES_PREFERRED.length()) {
+            DoubleVector a = DoubleVector.fromArray(DoubleVector.SPECIES_PREFERRED, x, i);
+            DoubleVector b = DoubleVector.fromArray(DoubleVector.SPECIES_PREFERRED, y, i);
+            apply(op, a, b).intoArray(r, i);
+        }
+        return end;
+    }
+
+    static int binary(int op, double[] x, double y, double[] r, int from, int to) {
+        int end = bound(x, from, to);
+        DoubleVector b = DoubleVector.broadcast(DoubleVector.SPECIES_PREFERRED, y);
+        for (int i = from; i < end; i += DoubleVector.SPECIES_PREFERRED.length()) {
+            DoubleVector a = DoubleVector.fromArray(DoubleVector.SPECIES_PREFERRED, x, i);
+            apply(op, a, b).intoArray(r, i);
+        }
+        return end;
+    }
+
+    static int unary(int op, double[] x, double[] r, int from, int to) {
+        int end = bound(x, from, to);
+        for (int i = from; i < end; i += DoubleVector.SPECIES_PREFERRED.length()) {
+            DoubleVector a = DoubleVector.fromArray(DoubleVector.SPECIES_PREFERRED, x, i);
+            switch (op) {
+                case NEG: a = a.neg(); break;
+                case ABS: a = a.abs(); break;
+                case SQRT: a = a.sqrt(); break;
+                default: throw new IllegalArgumentException("Unknown unary operation " + op);
+            }
+            a.intoArray(r, i);
+        }
+        return end;
+    }
+
+    /** Reduction over [from, to), where to - from must be a multiple of the vector length. */
+    static double reduce(int op, double[] x, int from, int to) {
+        DoubleVector s;
+        switch (op) {
+            case PROD:
+                s = DoubleVector.broadcast(DoubleVector.SPECIES_PREFERRED, 1.0);
+                break;
+            case MINIMUM:
+                s = DoubleVector.broadcast(DoubleVector.SPECIES_PREFERRED, (double) Double.POSITIVE_INFINITY);
+                break;
+            case MAXIMUM:
+                s = DoubleVector.broadcast(DoubleVector.SPECIES_PREFERRED, (double) Double.NEGATIVE_INFINITY);
+                break;
+            default:
+                s = DoubleVector.zero(DoubleVector.SPECIES_PREFERRED);
+        }
+        for (int i = from; i < to; i += DoubleVector.SPECIES_PREFERRED.length()) {
+            DoubleVector a = DoubleVector.fromArray(DoubleVector.SPECIES_PREFERRED, x, i);
+            switch (op) {
+                case SUM: s = s.add(a); break;
+                case PROD: s = s.mul(a); break;
+                case SUM_SQUARES: s = a.fma(a, s); break;
+                case SUM_ABS: s = s.add(a.abs()); break;
+                // comparisons with NaN are false, so NaNs are skipped
+                case MINIMUM: s = s.blend(a, a.compare(VectorOperators.LT, s)); break;
+                case MAXIMUM: s = s.blend(a, a.compare(VectorOperators.GT, s)); break;
+                default: throw new IllegalArgumentException("Unknown reduction " + op);
+            }
+        }
+        switch (op) {
+            case PROD: return s.reduceLanes(VectorOperators.MUL);
+            case MINIMUM: return s.reduceLanes(VectorOperators.MIN);
+            case MAXIMUM: return s.reduceLanes(VectorOperators.MAX);
+            default: return s.reduceLanes(VectorOperators.ADD);
+        }
+    }
+
+    /** End of the part of [from, to) which can be processed with full vectors. */
+    static int bound(double[] x, int from, int to) {
+        return from + DoubleVector.SPECIES_PREFERRED.loopBound(to - from);
+    }
+
+    private static DoubleVector apply(int op, DoubleVector a, DoubleVector b) {
+        switch (op) {
+            case ADD: return a.add(b);
+            case SUB: return a.sub(b);
+            case RSUB: return b.sub(a);
+            case MUL: return a.mul(b);
+            case DIV: return a.div(b);
+            case RDIV: return b.div(a);
+            case MIN: return a.blend(b, a.compare(VectorOperators.GT, b));
+            case MAX: return a.blend(b, a.compare(VectorOperators.LT, b));
+            default: return a.broadcast(0.0).blend(1.0, a.compare(comparison(op), b));
+        }
+    }
+
+//STOP
+    /** The Vector API is only worth using if the vectors hold more than one element. */
+    static boolean isSupported() {
+        return DoubleVector.SPECIES_PREFERRED.length() > 1 && FloatVector.SPECIES_PREFERRED.length() > 1;
+    }
+
+    static String describe() {
+        return DoubleVector.SPECIES_PREFERRED.vectorBitSize() + " bit vectors";
+    }
+
+    private static VectorOperators.Comparison comparison(int op) {
+        switch (op) {
+            case LT: return VectorOperators.LT;
+            case GT: return VectorOperators.GT;
+            case LE: return VectorOperators.LE;
+            case GE: return VectorOperators.GE;
+            case EQ: return VectorOperators.EQ;
+            case NE: return VectorOperators.NE;
+            default: throw new IllegalArgumentException("Unknown binary operation " + op);
+        }
+    }
+//START
+//BEGIN
+  // The code below has been automatically generated.
+  // DO NOT EDIT!
+
+    static int binary(int op, float[] x, float[] y, float[] r, int from, int to) {
+        int end = bound(x, from, to);
+        for (int i = from; i < end; i += FloatVector.SPECIES_PREFERRED.length()) {
+            FloatVector a = FloatVector.fromArray(FloatVector.SPECIES_PREFERRED, x, i);
+            FloatVector b = FloatVector.fromArray(FloatVector.SPECIES_PREFERRED, y, i);
+            apply(op, a, b).intoArray(r, i);
+        }
+        return end;
+    }
+
+    static int binary(int op, float[] x, float y, float[] r, int from, int to) {
+        int end = bound(x, from, to);
+        FloatVector b = FloatVector.broadcast(FloatVector.SPECIES_PREFERRED, y);
+        for (int i = from; i < end; i += FloatVector.SPECIES_PREFERRED.length()) {
+            FloatVector a = FloatVector.fromArray(FloatVector.SPECIES_PREFERRED, x, i);
+            apply(op, a, b).intoArray(r, i);
+        }
+        return end;
+    }
+
+    static int unary(int op, float[] x, float[] r, int from, int to) {
+        int end = bound(x, from, to);
+        for (int i = from; i < end; i += FloatVector.SPECIES_PREFERRED.length()) {
+            FloatVector a = FloatVector.fromArray(FloatVector.SPECIES_PREFERRED, x, i);
+            switch (op) {
+                case NEG: a = a.neg(); break;
+                case ABS: a = a.abs(); break;
+                case SQRT: a = a.sqrt(); break;
+                default: throw new IllegalArgumentException("Unknown unary operation " + op);
+            }
+            a.intoArray(r, i);
+        }
+        return end;
+    }
+
+    /** Reduction over [from, to), where to - from must be a multiple of the vector length. */
+    static float reduce(int op, float[] x, int from, int to) {
+        FloatVector s;
+        switch (op) {
+            case PROD:
+                s = FloatVector.broadcast(FloatVector.SPECIES_PREFERRED, 1.0f);
+                break;
+            case MINIMUM:
+                s = FloatVector.broadcast(FloatVector.SPECIES_PREFERRED, (float) Double.POSITIVE_INFINITY);
+                break;
+            case MAXIMUM:
+                s = FloatVector.broadcast(FloatVector.SPECIES_PREFERRED, (float) Double.NEGATIVE_INFINITY);
+                break;
+            default:
+                s = FloatVector.zero(FloatVector.SPECIES_PREFERRED);
+        }
+        for (int i = from; i < to; i += FloatVector.SPECIES_PREFERRED.length()) {
+            FloatVector a = FloatVector.fromArray(FloatVector.SPECIES_PREFERRED, x, i);
+            switch (op) {
+                case SUM: s = s.add(a); break;
+                case PROD: s = s.mul(a); break;
+                case SUM_SQUARES: s = a.fma(a, s); break;
+                case SUM_ABS: s = s.add(a.abs()); break;
+                // comparisons with NaN are false, so NaNs are skipped
+                case MINIMUM: s = s.blend(a, a.compare(VectorOperators.LT, s)); break;
+                case MAXIMUM: s = s.blend(a, a.compare(VectorOperators.GT, s)); break;
+                default: throw new IllegalArgumentException("Unknown reduction " + op);
+            }
+        }
+        switch (op) {
+            case PROD: return s.reduceLanes(VectorOperators.MUL);
+            case MINIMUM: return s.reduceLanes(VectorOperators.MIN);
+            case MAXIMUM: return s.reduceLanes(VectorOperators.MAX);
+            default: return s.reduceLanes(VectorOperators.ADD);
+        }
+    }
+
+    /** End of the part of [from, to) which can be processed with full vectors. */
+    static int bound(float[] x, int from, int to) {
+        return from + FloatVector.SPECIES_PREFERRED.loopBound(to - from);
+    }
+
+    private static FloatVector apply(int op, FloatVector a, FloatVector b) {
+        switch (op) {
+            case ADD: return a.add(b);
+            case SUB: return a.sub(b);
+            case RSUB: return b.sub(a);
+            case MUL: return a.mul(b);
+            case DIV: return a.div(b);
+            case RDIV: return b.div(a);
+            case MIN: return a.blend(b, a.compare(VectorOperators.GT, b));
+            case MAX: return a.blend(b, a.compare(VectorOperators.LT, b));
+            default: return a.broadcast(0.0f).blend(1.0f, a.compare(comparison(op), b));
+        }
+    }
+
+//END
+}
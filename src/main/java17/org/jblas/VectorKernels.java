@@ -0,0 +1,335 @@
+// --- BEGIN LICENSE BLOCK ---
+/* 
+ * Copyright (c) 2009, Mikio L. Braun
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ * 
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ * 
+ *     * Redistributions in binary form must reproduce the above
+ *       copyright notice, this list of conditions and the following
+ *       disclaimer in the documentation and/or other materials provided
+ *       with the distribution.
+ * 
+ *     * Neither the name of the Technische Universität Berlin nor the
+ *       names of its contributors may be used to endorse or promote
+ *       products derived from this software without specific prior
+ *       written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+// --- END LICENSE BLOCK ---
+
+package org.jblas;
+
+import org.jblas.util.Logger;
+
+/**
+ * <p>Elementwise kernels and reductions on ranges of double and float arrays,
+ * used by DoubleMatrix and FloatMatrix for their arithmetic.</p>
+ *
+ * <p>This is the version for JDK 17 and later which is packaged in META-INF/versions/17
+ * of the jblas jar. See the portable version in src/main/java for the description of the
+ * operations. If the <code>jdk.incubator.vector</code> module is available, the bulk of each
+ * range is processed by {@link SimdKernels}, and the remaining elements by the same
+ * scalar loops as in the portable version. Reductions then sum up the elements in a
+ * different order, so results may differ in the last bits.</p>
+ *
+ * <p>Setting the property <code>org.jblas.vector</code> to false switches the Vector API off.</p>
+ */
+public class VectorKernels {
+
+    /** Elementwise binary operation r = x op y for arrays x and y. */
+    public static void binary(int op, double[] x, double[] y, double[] r, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            i = SimdKernels.binary(op, x, y, r, from, to);
+        }
+        switch (op) {
+            case ADD: for (; i < to; i++) r[i] = x[i] + y[i]; break;
+            case SUB: for (; i < to; i++) r[i] = x[i] - y[i]; break;
+            case RSUB: for (; i < to; i++) r[i] = y[i] - x[i]; break;
+            case MUL: for (; i < to; i++) r[i] = x[i] * y[i]; break;
+            case DIV: for (; i < to; i++) r[i] = x[i] / y[i]; break;
+            case RDIV: for (; i < to; i++) r[i] = y[i] / x[i]; break;
+            case MIN: for (; i < to; i++) r[i] = x[i] > y[i] ? y[i] : x[i]; break;
+            case MAX: for (; i < to; i++) r[i] = x[i] < y[i] ? y[i] : x[i]; break;
+            case LT: for (; i < to; i++) r[i] = x[i] < y[i] ? 1.0 : 0.0; break;
+            case GT: for (; i < to; i++) r[i] = x[i] > y[i] ? 1.0 : 0.0; break;
+            case LE: for (; i < to; i++) r[i] = x[i] <= y[i] ? 1.0 : 0.0; break;
+            case GE: for (; i < to; i++) r[i] = x[i] >= y[i] ? 1.0 : 0.0; break;
+            case EQ: for (; i < to; i++) r[i] = x[i] == y[i] ? 1.0 : 0.0; break;
+            case NE: for (; i < to; i++) r[i] = x[i] != y[i] ? 1.0 : 0.0; break;
+            default: throw new IllegalArgumentException("Unknown binary operation " + op);
+        }
+    }
+
+    /** Elementwise binary operation r = x op y for an array x and a scalar y. */
+    public static void binary(int op, double[] x, double y, double[] r, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            i = SimdKernels.binary(op, x, y, r, from, to);
+        }
+        switch (op) {
+            case ADD: for (; i < to; i++) r[i] = x[i] + y; break;
+            case SUB: for (; i < to; i++) r[i] = x[i] - y; break;
+            case RSUB: for (; i < to; i++) r[i] = y - x[i]; break;
+            case MUL: for (; i < to; i++) r[i] = x[i] * y; break;
+            case DIV: for (; i < to; i++) r[i] = x[i] / y; break;
+            case RDIV: for (; i < to; i++) r[i] = y / x[i]; break;
+            case MIN: for (; i < to; i++) r[i] = x[i] > y ? y : x[i]; break;
+            case MAX: for (; i < to; i++) r[i] = x[i] < y ? y : x[i]; break;
+            case LT: for (; i < to; i++) r[i] = x[i] < y ? 1.0 : 0.0; break;
+            case GT: for (; i < to; i++) r[i] = x[i] > y ? 1.0 : 0.0; break;
+            case LE: for (; i < to; i++) r[i] = x[i] <= y ? 1.0 : 0.0; break;
+            case GE: for (; i < to; i++) r[i] = x[i] >= y ? 1.0 : 0.0; break;
+            case EQ: for (; i < to; i++) r[i] = x[i] == y ? 1.0 : 0.0; break;
+            case NE: for (; i < to; i++) r[i] = x[i] != y ? 1.0 : 0.0; break;
+            default: throw new IllegalArgumentException("Unknown binary operation " + op);
+        }
+    }
+
+    /** Elementwise unary operation r = op(x). */
+    public static void unary(int op, double[] x, double[] r, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            i = SimdKernels.unary(op, x, r, from, to);
+        }
+        switch (op) {
+            case NEG: for (; i < to; i++) r[i] = -x[i]; break;
+            case ABS: for (; i < to; i++) r[i] = Math.abs(x[i]); break;
+            case SQRT: for (; i < to; i++) r[i] = (double) Math.sqrt(x[i]); break;
+            default: throw new IllegalArgumentException("Unknown unary operation " + op);
+        }
+    }
+
+    /** Reduction over x[from], ..., x[to - 1]. */
+    public static double reduce(int op, double[] x, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            int end = SimdKernels.bound(x, from, to);
+            if (end > from) {
+                return combine(op, SimdKernels.reduce(op, x, from, end), reduce(op, x, end, to));
+            }
+        }
+        double s;
+        switch (op) {
+            case SUM:
+                for (s = 0.0; i < to; i++) s += x[i];
+                return s;
+            case PROD:
+                for (s = 1.0; i < to; i++) s *= x[i];
+                return s;
+            case SUM_SQUARES:
+                for (s = 0.0; i < to; i++) s += x[i] * x[i];
+                return s;
+            case SUM_ABS:
+                for (s = 0.0; i < to; i++) s += Math.abs(x[i]);
+                return s;
+            case MINIMUM:
+                for (s = (double) Double.POSITIVE_INFINITY; i < to; i++) if (x[i] < s) s = x[i];
+                return s;
+            case MAXIMUM:
+                for (s = (double) Double.NEGATIVE_INFINITY; i < to; i++) if (x[i] > s) s = x[i];
+                return s;
+            default:
+                throw new IllegalArgumentException("Unknown reduction " + op);
+        }
+    }
+
+    /** Combine the results of a reduction over two adjacent ranges. */
+    public static double combine(int op, double a, double b) {
+        switch (op) {
+            case PROD: return a * b;
+            case MINIMUM: return b < a ? b : a;
+            case MAXIMUM: return b > a ? b : a;
+            default: return a + b;
+        }
+    }
+
+//STOP
+    /* binary operations */
+    public static final int ADD = 0;
+    public static final int SUB = 1;
+    public static final int RSUB = 2;
+    public static final int MUL = 3;
+    public static final int DIV = 4;
+    public static final int RDIV = 5;
+    public static final int MIN = 6;
+    public static final int MAX = 7;
+    public static final int LT = 8;
+    public static final int GT = 9;
+    public static final int LE = 10;
+    public static final int GE = 11;
+    public static final int EQ = 12;
+    public static final int NE = 13;
+
+    /* unary operations */
+    public static final int NEG = 20;
+    public static final int ABS = 21;
+    public static final int SQRT = 22;
+
+    /* reductions */
+    public static final int SUM = 30;
+    public static final int PROD = 31;
+    public static final int SUM_SQUARES = 32;
+    public static final int SUM_ABS = 33;
+    public static final int MINIMUM = 34;
+    public static final int MAXIMUM = 35;
+
+    private static final boolean SIMD = initSimd();
+
+    private static boolean initSimd() {
+        if (!Boolean.parseBoolean(System.getProperty("org.jblas.vector", "true"))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.incubator.vector.DoubleVector");
+        } catch (ClassNotFoundException e) {
+            Logger.getLogger().debug("Vector API not available, start the JVM with --add-modules jdk.incubator.vector to use it.");
+            return false;
+        }
+        try {
+            if (SimdKernels.isSupported()) {
+                Logger.getLogger().config("Using Vector API kernels (" + SimdKernels.describe() + ").");
+                return true;
+            }
+        } catch (LinkageError e) {
+            Logger.getLogger().warning("Could not initialize Vector API kernels: " + e);
+        }
+        return false;
+    }
+
+    /** Whether the kernels use the Vector API. */
+    public static boolean isVectorized() {
+        return SIMD;
+    }
+//START
+//BEGIN
+  // The code below has been automatically generated.
+  // DO NOT EDIT!
+
+    /** Elementwise binary operation r = x op y for arrays x and y. */
+    public static void binary(int op, float[] x, float[] y, float[] r, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            i = SimdKernels.binary(op, x, y, r, from, to);
+        }
+        switch (op) {
+            case ADD: for (; i < to; i++) r[i] = x[i] + y[i]; break;
+            case SUB: for (; i < to; i++) r[i] = x[i] - y[i]; break;
+            case RSUB: for (; i < to; i++) r[i] = y[i] - x[i]; break;
+            case MUL: for (; i < to; i++) r[i] = x[i] * y[i]; break;
+            case DIV: for (; i < to; i++) r[i] = x[i] / y[i]; break;
+            case RDIV: for (; i < to; i++) r[i] = y[i] / x[i]; break;
+            case MIN: for (; i < to; i++) r[i] = x[i] > y[i] ? y[i] : x[i]; break;
+            case MAX: for (; i < to; i++) r[i] = x[i] < y[i] ? y[i] : x[i]; break;
+            case LT: for (; i < to; i++) r[i] = x[i] < y[i] ? 1.0f : 0.0f; break;
+            case GT: for (; i < to; i++) r[i] = x[i] > y[i] ? 1.0f : 0.0f; break;
+            case LE: for (; i < to; i++) r[i] = x[i] <= y[i] ? 1.0f : 0.0f; break;
+            case GE: for (; i < to; i++) r[i] = x[i] >= y[i] ? 1.0f : 0.0f; break;
+            case EQ: for (; i < to; i++) r[i] = x[i] == y[i] ? 1.0f : 0.0f; break;
+            case NE: for (; i < to; i++) r[i] = x[i] != y[i] ? 1.0f : 0.0f; break;
+            default: throw new IllegalArgumentException("Unknown binary operation " + op);
+        }
+    }
+
+    /** Elementwise binary operation r = x op y for an array x and a scalar y. */
+    public static void binary(int op, float[] x, float y, float[] r, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            i = SimdKernels.binary(op, x, y, r, from, to);
+        }
+        switch (op) {
+            case ADD: for (; i < to; i++) r[i] = x[i] + y; break;
+            case SUB: for (; i < to; i++) r[i] = x[i] - y; break;
+            case RSUB: for (; i < to; i++) r[i] = y - x[i]; break;
+            case MUL: for (; i < to; i++) r[i] = x[i] * y; break;
+            case DIV: for (; i < to; i++) r[i] = x[i] / y; break;
+            case RDIV: for (; i < to; i++) r[i] = y / x[i]; break;
+            case MIN: for (; i < to; i++) r[i] = x[i] > y ? y : x[i]; break;
+            case MAX: for (; i < to; i++) r[i] = x[i] < y ? y : x[i]; break;
+            case LT: for (; i < to; i++) r[i] = x[i] < y ? 1.0f : 0.0f; break;
+            case GT: for (; i < to; i++) r[i] = x[i] > y ? 1.0f : 0.0f; break;
+            case LE: for (; i < to; i++) r[i] = x[i] <= y ? 1.0f : 0.0f; break;
+            case GE: for (; i < to; i++) r[i] = x[i] >= y ? 1.0f : 0.0f; break;
+            case EQ: for (; i < to; i++) r[i] = x[i] == y ? 1.0f : 0.0f; break;
+            case NE: for (; i < to; i++) r[i] = x[i] != y ? 1.0f : 0.0f; break;
+            default: throw new IllegalArgumentException("Unknown binary operation " + op);
+        }
+    }
+
+    /** Elementwise unary operation r = op(x). */
+    public static void unary(int op, float[] x, float[] r, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            i = SimdKernels.unary(op, x, r, from, to);
+        }
+        switch (op) {
+            case NEG: for (; i < to; i++) r[i] = -x[i]; break;
+            case ABS: for (; i < to; i++) r[i] = Math.abs(x[i]); break;
+            case SQRT: for (; i < to; i++) r[i] = (float) Math.sqrt(x[i]); break;
+            default: throw new IllegalArgumentException("Unknown unary operation " + op);
+        }
+    }
+
+    /** Reduction over x[from], ..., x[to - 1]. */
+    public static float reduce(int op, float[] x, int from, int to) {
+        int i = from;
+        if (SIMD) {
+            int end = SimdKernels.bound(x, from, to);
+            if (end > from) {
+                return combine(op, SimdKernels.reduce(op, x, from, end), reduce(op, x, end, to));
+            }
+        }
+        float s;
+        switch (op) {
+            case SUM:
+                for (s = 0.0f; i < to; i++) s += x[i];
+                return s;
+            case PROD:
+                for (s = 1.0f; i < to; i++) s *= x[i];
+                return s;
+            case SUM_SQUARES:
+                for (s = 0.0f; i < to; i++) s += x[i] * x[i];
+                return s;
+            case SUM_ABS:
+                for (s = 0.0f; i < to; i++) s += Math.abs(x[i]);
+                return s;
+            case MINIMUM:
+                for (s = (float) Double.POSITIVE_INFINITY; i < to; i++) if (x[i] < s) s = x[i];
+                return s;
+            case MAXIMUM:
+                for (s = (float) Double.NEGATIVE_INFINITY; i < to; i++) if (x[i] > s) s = x[i];
+                return s;
+            default:
+                throw new IllegalArgumentException("Unknown reduction " + op);
+        }
+    }
+
+    /** Combine the results of a reduction over two adjacent ranges. */
+    public static float combine(int op, float a, float b) {
+        switch (op) {
+            case PROD: return a * b;
+            case MINIMUM: return b < a ? b : a;
+            case MAXIMUM: return b > a ? b : a;
+            default: return a + b;
+        }
+    }
+
+//END
+}
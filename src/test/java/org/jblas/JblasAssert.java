@@ -40,8 +40,13 @@ import static org.junit.Assert.assertArrayEquals;
 
 public class JblasAssert {
   public static void assertEquals(DoubleMatrix expected, DoubleMatrix actual) {
+    assertEquals(expected, actual, 1e-12);
+  }
+
+  /** Check that both matrices have the same size and differ by at most delta in each element. */
+  public static void assertEquals(DoubleMatrix expected, DoubleMatrix actual, double delta) {
     org.junit.Assert.assertEquals(expected.rows, actual.rows);
     org.junit.Assert.assertEquals(expected.columns, actual.columns);
-    assertArrayEquals(expected.data, actual.data, 1e-12);
+    assertArrayEquals(expected.data, actual.data, delta);
   }
 }
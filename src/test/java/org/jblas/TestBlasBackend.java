@@ -0,0 +1,85 @@
+package org.jblas;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BlasBackend and BlasBackends
+ */
+public class TestBlasBackend {
+  private BlasBackend saved;
+
+  @Before
+  public void setUp() {
+    saved = BlasBackends.backend();
+  }
+
+  @After
+  public void tearDown() {
+    BlasBackends.setBackend(saved);
+  }
+
+  @Test
+  public void forName() {
+    assertTrue(BlasBackends.forName("native") instanceof NativeBlasBackend);
+    assertTrue(BlasBackends.forName("java") instanceof JavaBlasBackend);
+    assertTrue(BlasBackends.forName("org.jblas.JavaBlasBackend") instanceof JavaBlasBackend);
+
+    BlasBackend b = BlasBackends.forName("instrumented:java");
+    assertTrue(b instanceof InstrumentedBlasBackend);
+    assertEquals("instrumented:java", b.getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void forNameUnknown() {
+    BlasBackends.forName("org.jblas.NoSuchBackend");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void forNameNotABackend() {
+    BlasBackends.forName("java.lang.Object");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void forNameWithoutDefaultConstructor() {
+    BlasBackends.forName("org.jblas.InstrumentedBlasBackend");
+  }
+
+  @Test
+  public void javaBackend() {
+    BlasBackends.setBackend(new JavaBlasBackend());
+
+    DoubleMatrix a = new DoubleMatrix(new double[][]{{1.0, 2.0}, {3.0, 4.0}});
+    DoubleMatrix x = new DoubleMatrix(new double[]{1.0, -1.0});
+
+    assertEquals(new DoubleMatrix(new double[]{-1.0, -1.0}), SimpleBlas.gemv(1.0, a, x, 0.0, new DoubleMatrix(2)));
+    assertEquals(new DoubleMatrix(new double[][]{{7.0, 10.0}, {15.0, 22.0}}), a.mmul(a));
+    assertEquals(Math.sqrt(30.0), SimpleBlas.nrm2(a), 1e-10);
+    assertEquals(10.0, SimpleBlas.asum(a), 1e-10);
+    assertEquals(3, SimpleBlas.iamax(a));
+    assertEquals(new DoubleMatrix(new double[][]{{2.0, 4.0}, {6.0, 8.0}}), SimpleBlas.scal(2.0, a.dup()));
+
+    FloatMatrix fa = new FloatMatrix(new float[][]{{1.0f, 2.0f}, {3.0f, 4.0f}});
+    assertEquals(new FloatMatrix(new float[][]{{7.0f, 10.0f}, {15.0f, 22.0f}}), fa.mmul(fa));
+  }
+
+  @Test
+  public void instrumented() {
+    InstrumentedBlasBackend b = new InstrumentedBlasBackend(new JavaBlasBackend());
+    BlasBackends.setBackend(b);
+
+    DoubleMatrix a = DoubleMatrix.rand(3, 3);
+    a.mmul(a);
+    a.mmul(a);
+    SimpleBlas.dot(a, a);
+
+    assertEquals(2, b.getCalls("dgemm"));
+    assertEquals(1, b.getCalls("ddot"));
+    assertEquals(0, b.getCalls("sgemm"));
+    assertEquals(3, b.getTotalCalls());
+    assertTrue(b.getRoutines().contains("dgemm"));
+
+    b.reset();
+    assertEquals(0, b.getTotalCalls());
+  }
+}
@@ -0,0 +1,71 @@
+package org.jblas;
+
+import org.junit.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BlasCalibration and AdaptiveBlasBackend
+ */
+public class TestBlasCalibration {
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("jblas-calibration", ".properties");
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void saveAndLoad() throws IOException {
+    BlasCalibration c = new BlasCalibration(4096, 100, 200, BlasCalibration.ALWAYS_JAVA);
+    c.save(file);
+
+    BlasCalibration d = BlasCalibration.load(file);
+    assertEquals(4096, d.getGemm());
+    assertEquals(100, d.getGemv());
+    assertEquals(200, d.getGer());
+    assertEquals(BlasCalibration.ALWAYS_JAVA, d.getAxpy());
+  }
+
+  @Test(expected = IOException.class)
+  public void loadOtherArchitecture() throws IOException {
+    FileWriter out = new FileWriter(file);
+    out.write("arch=Other/none/1\ngemm=1\ngemv=1\nger=1\naxpy=1\n");
+    out.close();
+    BlasCalibration.load(file);
+  }
+
+  @Test
+  public void adaptiveSmallProblemsInJava() {
+    BlasCalibration allJava = new BlasCalibration(BlasCalibration.ALWAYS_JAVA, BlasCalibration.ALWAYS_JAVA,
+        BlasCalibration.ALWAYS_JAVA, BlasCalibration.ALWAYS_JAVA);
+    AdaptiveBlasBackend b = new AdaptiveBlasBackend(allJava);
+
+    double[] a = {1.0, 3.0, 2.0, 4.0};
+    double[] c = new double[4];
+    b.dgemm('N', 'N', 2, 2, 2, 1.0, a, 0, 2, a, 0, 2, 0.0, c, 0, 2);
+    assertArrayEquals(new double[]{7.0, 15.0, 10.0, 22.0}, c, 1e-10);
+
+    b.dger(2, 2, 1.0, new double[]{1.0, 1.0}, 0, 1, new double[]{1.0, 2.0}, 0, 1, c, 0, 2);
+    assertArrayEquals(new double[]{8.0, 16.0, 12.0, 24.0}, c, 1e-10);
+
+    assertEquals(30.0, b.ddot(4, a, 0, 1, a, 0, 1), 1e-10);
+  }
+
+  @Test
+  public void adaptiveDotAlwaysInJava() {
+    AdaptiveBlasBackend b = new AdaptiveBlasBackend(new BlasCalibration(0, 0, 0, 0));
+
+    assertEquals(30.0, b.ddot(4, new double[]{1.0, 3.0, 2.0, 4.0}, 0, 1, new double[]{1.0, 3.0, 2.0, 4.0}, 0, 1), 1e-10);
+    assertEquals(30.0f, b.sdot(4, new float[]{1.0f, 3.0f, 2.0f, 4.0f}, 0, 1, new float[]{1.0f, 3.0f, 2.0f, 4.0f}, 0, 1), 1e-6f);
+  }
+}
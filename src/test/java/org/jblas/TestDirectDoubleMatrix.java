@@ -0,0 +1,155 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.junit.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DirectDoubleMatrix
+ */
+public class TestDirectDoubleMatrix {
+  private final DoubleMatrix A = new DoubleMatrix(3, 3, 4.0, 1.0, 2.0, 1.0, 5.0, 3.0, 2.0, 3.0, 6.0);
+
+  @Test
+  public void conversion() {
+    DirectDoubleMatrix D = new DirectDoubleMatrix(A);
+
+    assertEquals(0, D.getAddress() % DirectDoubleMatrix.ALIGNMENT);
+    assertEquals(3, D.rows);
+    assertEquals(3, D.columns);
+    assertEquals(A.get(2, 1), D.get(2, 1), 0.0);
+    assertEquals(A, D.toDoubleMatrix());
+    assertEquals(A.transpose(), D.transpose().toDoubleMatrix());
+  }
+
+  @Test
+  public void dupIsIndependent() {
+    DirectDoubleMatrix D = new DirectDoubleMatrix(A);
+    DirectDoubleMatrix E = D.dup();
+    E.put(0, 0, -1.0);
+
+    assertEquals(4.0, D.get(0, 0), 0.0);
+    assertEquals(-1.0, E.get(0, 0), 0.0);
+  }
+
+  @Test
+  public void exceedsIntegerRange() {
+    DirectDoubleMatrix D;
+    try {
+      D = new DirectDoubleMatrix(1 << 16, (1 << 15) + 1);
+    } catch (OutOfMemoryError e) {
+      return; // not enough memory on this machine
+    }
+    long last = (1L << 31) + (1 << 16) - 1;
+
+    assertEquals(last + 1, D.length);
+    assertEquals(last, D.index(D.rows - 1, D.columns - 1));
+    D.put(D.rows - 1, D.columns - 1, 2.0);
+    assertEquals(2.0, D.get(last), 0.0);
+    assertEquals(0.0, D.get(Integer.MAX_VALUE + 1L), 0.0);
+    D.free();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cannotBeUsedAfterFree() {
+    DirectDoubleMatrix D = new DirectDoubleMatrix(A);
+    D.free();
+    D.get(0, 0);
+  }
+
+  @Test(expected = NegativeArraySizeException.class)
+  public void rejectsNegativeSize() {
+    new DirectDoubleMatrix(-1, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsHeapBuffer() {
+    new DirectDoubleMatrix(2, 2, DoubleBuffer.allocate(4));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsForeignByteOrder() {
+    ByteOrder other = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+    new DirectDoubleMatrix(2, 2, ByteBuffer.allocateDirect(32).order(other).asDoubleBuffer());
+  }
+
+  @Test(expected = SizeException.class)
+  public void rejectsSmallBuffer() {
+    new DirectDoubleMatrix(2, 3, ByteBuffer.allocateDirect(40).order(ByteOrder.nativeOrder()).asDoubleBuffer());
+  }
+
+  @Test
+  public void checksSizesBeforeNativeCalls() {
+    final DirectDoubleMatrix D = new DirectDoubleMatrix(A);
+    final DirectDoubleMatrix R = new DirectDoubleMatrix(3, 2);
+
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.gemm(1.0, D, new DirectDoubleMatrix(2, 2), 0.0, new DirectDoubleMatrix(3, 2)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.gemm(1.0, D, R, 0.0, new DirectDoubleMatrix(2, 2)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.gemv(1.0, D, new DirectDoubleMatrix(2), 0.0, new DirectDoubleMatrix(3)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.gemv(1.0, D, new DirectDoubleMatrix(3), 0.0, new DirectDoubleMatrix(2)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.gesv(D.dup(), SimpleBlas.allocateIntBuffer(3), new DirectDoubleMatrix(2, 1)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.gesv(D.dup(), SimpleBlas.allocateIntBuffer(2), new DirectDoubleMatrix(3, 1)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.posv('U', R, new DirectDoubleMatrix(3, 1)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.syev('N', 'U', D.dup(), new DirectDoubleMatrix(2)); } });
+    assertSizeException(new Runnable() { public void run() {
+      SimpleBlas.syevd('N', 'U', D.dup(), new DirectDoubleMatrix(4)); } });
+  }
+
+  private static void assertSizeException(Runnable r) {
+    try {
+      r.run();
+      fail("expected SizeException");
+    } catch (SizeException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void mmul() {
+    DirectDoubleMatrix D = new DirectDoubleMatrix(A);
+
+    assertEquals(0.0, D.mmul(D).toDoubleMatrix().sub(A.mmul(A)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void solve() {
+    DirectDoubleMatrix D = new DirectDoubleMatrix(A);
+    DirectDoubleMatrix B = new DirectDoubleMatrix(new DoubleMatrix(3, 1, 1.0, 2.0, 3.0));
+
+    DirectDoubleMatrix X = Solve.solve(D, B);
+    assertEquals(0.0, A.mmul(X.toDoubleMatrix()).sub(B.toDoubleMatrix()).normmax(), 1e-10);
+
+    X = Solve.solvePositive(D, B);
+    assertEquals(0.0, A.mmul(X.toDoubleMatrix()).sub(B.toDoubleMatrix()).normmax(), 1e-10);
+  }
+
+  @Test
+  public void symmetricEigenvectors() {
+    DirectDoubleMatrix[] VL = Eigen.symmetricEigenvectors(new DirectDoubleMatrix(A));
+    DoubleMatrix V = VL[0].toDoubleMatrix();
+    DoubleMatrix L = VL[1].toDoubleMatrix();
+
+    assertEquals(0.0, A.mmul(V).sub(V.mmul(L)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void cholesky() {
+    DoubleMatrix U = Decompose.cholesky(new DirectDoubleMatrix(A)).toDoubleMatrix();
+
+    assertTrue(U.isUpperTriangular());
+    assertEquals(0.0, U.transpose().mmul(U).sub(A).normmax(), 1e-10);
+  }
+}
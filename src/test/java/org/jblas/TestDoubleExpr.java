@@ -0,0 +1,99 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DoubleExpr
+ */
+public class TestDoubleExpr {
+  private DoubleMatrix x, y, z;
+
+  @Before
+  public void setUp() {
+    x = DoubleMatrix.rand(37, 29);
+    y = DoubleMatrix.rand(37, 29);
+    z = DoubleMatrix.rand(37, 29);
+  }
+
+  @Test
+  public void chain() {
+    DoubleMatrix expected = x.mul(y).addi(z).muli(2.0);
+    DoubleMatrix r = x.expr().mul(y).add(z).mul(2.0).eval();
+
+    assertEquals(x.rows, r.rows);
+    assertEquals(x.columns, r.columns);
+    assertEquals(expected, r);
+  }
+
+  @Test
+  public void nested() {
+    // x + y * exp(z - 1), with the right operand an expression itself
+    DoubleMatrix expected = x.add(y.mul(MatrixFunctions.exp(z.sub(1.0))));
+    DoubleMatrix r = x.expr().add(y.expr().mul(z.expr().sub(1.0).exp())).eval();
+    assertEquals(expected, r);
+
+    // (x - y) / (y + z) - (x * z)
+    expected = x.sub(y).divi(y.add(z)).subi(x.mul(z));
+    r = x.expr().sub(y).div(y.expr().add(z)).sub(x.expr().mul(z)).eval();
+    assertEquals(expected, r);
+  }
+
+  @Test
+  public void functionsAndComparisons() {
+    assertEquals(MatrixFunctions.sqrt(x), x.expr().sqrt().eval());
+    assertEquals(MatrixFunctions.abs(x.sub(0.5)), x.expr().sub(0.5).abs().eval());
+    assertEquals(MatrixFunctions.pow(x, 3.0), x.expr().pow(3.0).eval());
+    assertEquals(x.gt(y), x.expr().gt(y).eval());
+    assertEquals(x.le(0.5), x.expr().le(0.5).eval());
+    assertEquals(x.min(y), x.expr().min(y).eval());
+    assertEquals(x.rsub(1.0), x.expr().rsub(1.0).eval());
+    assertEquals(x.neg(), x.expr().neg().eval());
+  }
+
+  @Test
+  public void scalarMatrixOperand() {
+    assertEquals(x.mul(3.0), x.expr().mul(DoubleMatrix.scalar(3.0)).eval());
+  }
+
+  @Test
+  public void inPlace() {
+    DoubleMatrix expected = x.mul(y).addi(x);
+    assertSame(x, x.expr().mul(y).add(x).eval(x));
+    assertEquals(expected, x);
+  }
+
+  @Test
+  public void parallel() {
+    DoubleMatrix a = DoubleMatrix.rand(300, 500);
+    DoubleMatrix b = DoubleMatrix.rand(300, 500);
+    DoubleMatrix r = new DoubleMatrix(300, 500);
+
+    a.expr().mul(b).add(1.0).log().eval(r, true);
+    assertEquals(MatrixFunctions.log(a.mul(b).add(1.0)), r);
+  }
+
+  @Test
+  public void sum() {
+    assertEquals(x.mul(y).sum(), x.expr().mul(y).sum(), 1e-10);
+  }
+
+  @Test(expected = SizeException.class)
+  public void differentLength() {
+    x.expr().add(DoubleMatrix.rand(3, 3));
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongResult() {
+    x.expr().add(y).eval(new DoubleMatrix(3, 3));
+  }
+
+  @Test
+  public void floatExpr() {
+    FloatMatrix a = FloatMatrix.rand(10, 10);
+    FloatMatrix b = FloatMatrix.rand(10, 10);
+    assertEquals(a.mul(b).addi(1.0f), a.expr().mul(b).add(1.0f).eval());
+  }
+}
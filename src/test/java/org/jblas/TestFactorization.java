@@ -0,0 +1,130 @@
+package org.jblas;
+
+import org.jblas.exceptions.LapackPositivityException;
+import org.jblas.exceptions.LapackSingularityException;
+import org.jblas.exceptions.SizeException;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the reusable factorizations in Decompose.
+ */
+public class TestFactorization {
+  private static final DoubleMatrix A = new DoubleMatrix(new double[][]{{2, 1, 1}, {4, -6, 0}, {-2, 7, 2}});
+  private static final DoubleMatrix S = new DoubleMatrix(new double[][]{{4, 2, 0}, {2, 5, 1}, {0, 1, 3}});
+
+  @Test
+  public void lu() {
+    Decompose.LUFactorization<DoubleMatrix> lu = Decompose.luFactorization(A);
+    DoubleMatrix B = DoubleMatrix.randn(3, 2);
+    DoubleMatrix X = lu.solve(B);
+    assertEquals(0.0, A.mmul(X).sub(B).normmax(), 1e-10);
+    assertEquals(-16.0, lu.determinant(), 1e-10);
+    assertEquals(0.0, lu.getP().mmul(lu.getL()).mmul(lu.getU()).sub(A).normmax(), 1e-10);
+    assertFalse(lu.isSingular());
+
+    double rcond = lu.rcond();
+    assertTrue(rcond > 0.0 && rcond <= 1.0);
+
+    // solving again gives the same result, and in place overwrites B
+    assertSame(B, lu.solveInPlace(B));
+    assertEquals(X, B);
+  }
+
+  @Test
+  public void singularLu() {
+    // the second column is twice the first, and elimination is exact in binary
+    DoubleMatrix A = new DoubleMatrix(3, 3, 1.0, 2.0, 4.0, 2.0, 4.0, 8.0, 1.0, 1.0, 1.0);
+    Decompose.LUFactorization<DoubleMatrix> lu = Decompose.luFactorization(A);
+    assertTrue(lu.isSingular());
+    assertEquals(0.0, lu.determinant(), 0.0);
+    assertEquals(0.0, lu.rcond(), 0.0);
+    try {
+      lu.solve(DoubleMatrix.ones(3));
+      fail("expected a LapackSingularityException");
+    } catch (LapackSingularityException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void cholesky() {
+    Decompose.CholeskyFactorization<DoubleMatrix> c = Decompose.choleskyFactorization(S);
+    DoubleMatrix B = DoubleMatrix.randn(3, 4);
+    assertEquals(0.0, S.mmul(c.solve(B)).sub(B).normmax(), 1e-10);
+    assertEquals(44.0, c.determinant(), 1e-10);
+    assertEquals(Math.log(44.0), c.logDeterminant(), 1e-10);
+    assertEquals(0.0, c.getU().transpose().mmul(c.getU()).sub(S).normmax(), 1e-10);
+    assertTrue(c.getU().isUpperTriangular());
+    assertTrue(c.rcond() > 0.0);
+  }
+
+  @Test(expected = LapackPositivityException.class)
+  public void choleskyNotPositive() {
+    Decompose.choleskyFactorization(A);
+  }
+
+  @Test
+  public void qr() {
+    Decompose.QRFactorization<DoubleMatrix> qr = Decompose.qrFactorization(A);
+    DoubleMatrix B = DoubleMatrix.randn(3, 2);
+    assertEquals(0.0, A.mmul(qr.solve(B)).sub(B).normmax(), 1e-10);
+    assertEquals(-16.0, qr.determinant(), 1e-10);
+    assertEquals(0.0, qr.getQ().mmul(qr.getR()).sub(A).normmax(), 1e-10);
+    assertTrue(qr.rcond() > 0.0);
+  }
+
+  @Test
+  public void qrLeastSquares() {
+    DoubleMatrix M = DoubleMatrix.randn(7, 3);
+    DoubleMatrix y = DoubleMatrix.randn(7);
+    DoubleMatrix x = Decompose.qrFactorization(M).solve(y);
+    assertEquals(3, x.length);
+    // the residual is orthogonal to the columns of M
+    assertEquals(0.0, M.transposeMmul(M.mmul(x).sub(y)).normmax(), 1e-10);
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongRightHandSide() {
+    Decompose.luFactorization(A).solve(DoubleMatrix.ones(4));
+  }
+
+  @Test
+  public void concurrentSolves() throws InterruptedException {
+    final Decompose.LUFactorization<DoubleMatrix> lu = Decompose.luFactorization(A);
+    final DoubleMatrix B = DoubleMatrix.randn(3, 5);
+    final DoubleMatrix expected = lu.solve(B);
+    final boolean[] ok = new boolean[4];
+    Thread[] threads = new Thread[ok.length];
+    for (int t = 0; t < threads.length; t++) {
+      final int id = t;
+      threads[t] = new Thread() {
+        public void run() {
+          boolean same = true;
+          for (int i = 0; i < 100; i++) {
+            same &= expected.equals(lu.solve(B));
+          }
+          ok[id] = same;
+        }
+      };
+      threads[t].start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    for (boolean b : ok) {
+      assertTrue(b);
+    }
+  }
+
+  @Test
+  public void floatMatrix() {
+    FloatMatrix F = new FloatMatrix(new float[][]{{4, 2}, {2, 3}});
+    FloatMatrix b = new FloatMatrix(2, 1, 1.0f, 2.0f);
+    assertEquals(0.0f, F.mmul(Decompose.luFactorization(F).solve(b)).sub(b).normmax(), 1e-5f);
+    assertEquals(0.0f, F.mmul(Decompose.choleskyFactorization(F).solve(b)).sub(b).normmax(), 1e-5f);
+    assertEquals(0.0f, F.mmul(Decompose.qrFactorization(F).solve(b)).sub(b).normmax(), 1e-5f);
+    assertEquals(8.0, Decompose.luFactorization(F).determinant(), 1e-5);
+  }
+}
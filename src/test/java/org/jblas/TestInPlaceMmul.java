@@ -0,0 +1,110 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.jblas.util.Workspace;
+import org.junit.*;
+
+import static org.jblas.JblasAssert.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for mmuli with result aliasing one of the operands.
+ */
+public class TestInPlaceMmul {
+
+  @Test
+  public void resultIsThis() {
+    DoubleMatrix a = DoubleMatrix.randn(37, 11);
+    DoubleMatrix b = DoubleMatrix.randn(11, 11);
+    DoubleMatrix expected = a.mmul(b);
+    assertSame(a, a.mmuli(b, a));
+    assertEquals(expected, a, 1e-10);
+  }
+
+  @Test
+  public void resultIsOther() {
+    DoubleMatrix a = DoubleMatrix.randn(13, 13);
+    DoubleMatrix b = DoubleMatrix.randn(13, 29);
+    DoubleMatrix expected = a.mmul(b);
+    assertSame(b, a.mmuli(b, b));
+    assertEquals(expected, b, 1e-10);
+  }
+
+  @Test
+  public void emptyOperands() {
+    DoubleMatrix a = DoubleMatrix.zeros(3, 0);
+    assertSame(a, a.mmuli(DoubleMatrix.zeros(0, 0), a));
+    assertEquals(3, a.rows);
+    assertEquals(0, a.columns);
+
+    DoubleMatrix b = DoubleMatrix.zeros(0, 5);
+    assertSame(b, DoubleMatrix.zeros(0, 0).mmuli(b, b));
+    assertEquals(5, b.columns);
+
+    FloatMatrix c = FloatMatrix.zeros(0, 4);
+    assertSame(c, c.mmuli(FloatMatrix.zeros(4, 4), c));
+  }
+
+  @Test
+  public void square() {
+    DoubleMatrix a = DoubleMatrix.randn(9, 9);
+    DoubleMatrix expected = a.mmul(a);
+    a.mmuli(a, a);
+    assertEquals(expected, a, 1e-10);
+  }
+
+  @Test
+  public void matrixVector() {
+    DoubleMatrix a = DoubleMatrix.randn(8, 8);
+    DoubleMatrix x = DoubleMatrix.randn(8);
+    DoubleMatrix expected = a.mmul(x);
+    a.mmuli(x, x);
+    assertEquals(expected, x, 1e-10);
+  }
+
+  @Test
+  public void callerWorkspace() {
+    // a workspace of 2.5 rows forces strips of 2 rows
+    DoubleMatrix a = DoubleMatrix.randn(7, 4);
+    DoubleMatrix b = DoubleMatrix.randn(4, 4);
+    DoubleMatrix expected = a.mmul(b);
+    a.mmuli(b, a, new double[10]);
+    assertEquals(expected, a, 1e-10);
+
+    // strips of single columns
+    DoubleMatrix c = DoubleMatrix.randn(5, 5);
+    DoubleMatrix d = DoubleMatrix.randn(5, 3);
+    expected = c.mmul(d);
+    c.mmuli(d, d, new double[5]);
+    assertEquals(expected, d, 1e-10);
+  }
+
+  @Test(expected = SizeException.class)
+  public void workspaceTooSmall() {
+    DoubleMatrix a = DoubleMatrix.randn(3, 3);
+    a.mmuli(a, a, new double[8]);
+  }
+
+  @Test
+  public void workspaceIsReused() {
+    double[] w = Workspace.doubles(1 << 16);
+    Workspace.release(w);
+    assertSame(w, Workspace.doubles(1 << 16));
+    Workspace.release(w);
+
+    // the in-place product works in strips of 2^16 elements taken from the workspace
+    DoubleMatrix a = DoubleMatrix.randn(300, 300);
+    a.mmuli(DoubleMatrix.randn(300, 300), a);
+    assertSame(w, Workspace.doubles(1 << 16));
+    Workspace.release(w);
+  }
+
+  @Test
+  public void floatMatrix() {
+    FloatMatrix a = FloatMatrix.randn(6, 6);
+    FloatMatrix x = FloatMatrix.randn(6, 2);
+    FloatMatrix expected = a.mmul(x);
+    a.mmuli(x, x);
+    assertEquals(0.0f, expected.sub(x).normmax(), 1e-5f);
+  }
+}
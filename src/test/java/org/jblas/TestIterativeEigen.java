@@ -0,0 +1,139 @@
+package org.jblas;
+
+import org.jblas.exceptions.NoEigenResultException;
+import org.jblas.exceptions.SizeException;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for IterativeEigen.
+ */
+public class TestIterativeEigen {
+
+  /** Laplacian of a path graph with n nodes, split into two components after node split - 1. */
+  private static DoubleLinearOperator pathLaplacian(final int n, final int split) {
+    return new DoubleLinearOperator() {
+      public int getRows() {
+        return n;
+      }
+
+      public int getColumns() {
+        return n;
+      }
+
+      public DoubleMatrix apply(DoubleMatrix X, DoubleMatrix result) {
+        for (int j = 0; j < X.columns; j++) {
+          for (int i = 0; i < n; i++) {
+            double y = 0.0;
+            if (i > 0 && i != split) {
+              y += X.get(i, j) - X.get(i - 1, j);
+            }
+            if (i < n - 1 && i + 1 != split) {
+              y += X.get(i, j) - X.get(i + 1, j);
+            }
+            result.put(i, j, y);
+          }
+        }
+        return result;
+      }
+    };
+  }
+
+  /** The i-th smallest eigenvalue of the Laplacian of a path with n nodes. */
+  private static double pathEigenvalue(int n, int i) {
+    return 2.0 - 2.0 * Math.cos(Math.PI * i / n);
+  }
+
+  private static void assertEigenpairs(DoubleLinearOperator A, DoubleMatrix[] XL, double tol) {
+    DoubleMatrix X = XL[0];
+    DoubleMatrix AX = A.apply(X, new DoubleMatrix(X.rows, X.columns));
+    assertEquals(0.0, AX.sub(X.mulRowVector(XL[1])).normmax(), tol);
+    assertEquals(0.0, X.transposeMmul(X).sub(DoubleMatrix.eye(X.columns)).normmax(), 1e-8);
+  }
+
+  @Test
+  public void lanczosLargest() {
+    DoubleLinearOperator A = pathLaplacian(200, 0);
+    DoubleMatrix[] XL = IterativeEigen.lanczos(A, 3, true);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(pathEigenvalue(200, 199 - i), XL[1].get(i), 1e-8);
+    }
+    assertEigenpairs(A, XL, 1e-6);
+  }
+
+  @Test
+  public void lanczosSmallest() {
+    DoubleLinearOperator A = pathLaplacian(60, 0);
+    DoubleMatrix[] XL = IterativeEigen.lanczos(A, 4, false);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(pathEigenvalue(60, i), XL[1].get(i), 1e-8);
+    }
+    assertEigenpairs(A, XL, 1e-6);
+  }
+
+  @Test
+  public void lobpcgSmallest() {
+    DoubleLinearOperator A = pathLaplacian(200, 0);
+    DoubleMatrix[] XL = IterativeEigen.lobpcg(A, 5, false);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(pathEigenvalue(200, i), XL[1].get(i), 1e-8);
+    }
+    assertEigenpairs(A, XL, 1e-6);
+  }
+
+  @Test
+  public void lobpcgMultipleEigenvalue() {
+    // two components, so the eigenvalue 0 has multiplicity two
+    DoubleLinearOperator A = pathLaplacian(100, 50);
+    DoubleMatrix[] XL = IterativeEigen.lobpcg(A, 4, false);
+    assertEquals(0.0, XL[1].get(0), 1e-8);
+    assertEquals(0.0, XL[1].get(1), 1e-8);
+    assertEquals(pathEigenvalue(50, 1), XL[1].get(2), 1e-8);
+    assertEquals(pathEigenvalue(50, 1), XL[1].get(3), 1e-8);
+    assertEigenpairs(A, XL, 1e-6);
+  }
+
+  @Test
+  public void denseMatrix() {
+    DoubleMatrix B = DoubleMatrix.randn(50, 50);
+    DoubleMatrix A = B.add(B.transpose());
+    DoubleMatrix all = Eigen.symmetricEigenvalues(A);
+
+    DoubleMatrix[] XL = IterativeEigen.lanczos(A, 3, true);
+    DoubleMatrix[] YL = IterativeEigen.lobpcg(A, 3, true);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(all.get(49 - i), XL[1].get(i), 1e-8);
+      assertEquals(all.get(49 - i), YL[1].get(i), 1e-8);
+    }
+  }
+
+  @Test
+  public void smallOperator() {
+    DoubleMatrix A = DoubleMatrix.diag(new DoubleMatrix(new double[]{3, 1, 2}));
+    DoubleMatrix[] XL = IterativeEigen.lobpcg(A, 2, false);
+    assertEquals(new DoubleMatrix(new double[]{1, 2}), XL[1]);
+    XL = IterativeEigen.lanczos(A, 3, true);
+    assertEquals(new DoubleMatrix(new double[]{3, 2, 1}), XL[1]);
+  }
+
+  @Test(expected = NoEigenResultException.class)
+  public void noConvergence() {
+    IterativeEigen.lobpcg(pathLaplacian(200, 0), DoubleMatrix.randn(200, 2), null, false, 1e-12, 1);
+  }
+
+  @Test(expected = SizeException.class)
+  public void notSquare() {
+    IterativeEigen.lanczos(DoubleMatrix.randn(5, 4), 1, true);
+  }
+
+  @Test
+  public void floatOperator() {
+    FloatMatrix B = FloatMatrix.randn(40, 40);
+    FloatMatrix A = B.add(B.transpose());
+    FloatMatrix all = Eigen.symmetricEigenvalues(A);
+    FloatMatrix[] XL = IterativeEigen.lanczos(A, 2, false);
+    assertEquals(all.get(0), XL[1].get(0), 1e-3f);
+    assertEquals(all.get(1), XL[1].get(1), 1e-3f);
+  }
+}
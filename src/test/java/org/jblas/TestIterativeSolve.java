@@ -0,0 +1,183 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for IterativeSolve.
+ */
+public class TestIterativeSolve {
+  private static final double TOL = 1e-10;
+
+  /**
+   * Five-point finite difference operator on a k x k grid: the Laplacian plus a
+   * convection term of strength c, which makes the matrix non-symmetric.
+   */
+  private static SparseDoubleMatrix grid(int k, double c) {
+    List<int[]> positions = new ArrayList<int[]>();
+    List<Double> values = new ArrayList<Double>();
+    for (int i = 0; i < k; i++) {
+      for (int j = 0; j < k; j++) {
+        int p = i * k + j;
+        positions.add(new int[]{p, p});
+        values.add(4.0);
+        if (i > 0) { positions.add(new int[]{p, p - k}); values.add(-1.0 - c); }
+        if (i < k - 1) { positions.add(new int[]{p, p + k}); values.add(-1.0 + c); }
+        if (j > 0) { positions.add(new int[]{p, p - 1}); values.add(-1.0); }
+        if (j < k - 1) { positions.add(new int[]{p, p + 1}); values.add(-1.0); }
+      }
+    }
+    int[] r = new int[values.size()], cs = new int[values.size()];
+    double[] v = new double[values.size()];
+    for (int e = 0; e < v.length; e++) {
+      r[e] = positions.get(e)[0];
+      cs[e] = positions.get(e)[1];
+      v[e] = values.get(e);
+    }
+    return SparseDoubleMatrix.fromTriplets(k * k, k * k, r, cs, v);
+  }
+
+  private static void assertSolved(SparseDoubleMatrix A, DoubleMatrix b, DoubleMatrix x, IterativeSolve.Convergence c) {
+    assertTrue(c.toString(), c.isConverged());
+    assertEquals(c.getIterations() + 1, c.getResidualHistory().length);
+    assertEquals(1.0, c.getResidualHistory()[0], 1e-12);
+    assertTrue(c.getResidual() <= TOL);
+    assertEquals(0.0, A.mmul(x).sub(b).norm2() / b.norm2(), 10 * TOL);
+  }
+
+  @Test
+  public void cg() {
+    SparseDoubleMatrix A = grid(30, 0.0);
+    DoubleMatrix b = DoubleMatrix.rand(900);
+
+    DoubleMatrix x = new DoubleMatrix(900);
+    IterativeSolve.Convergence plain = IterativeSolve.cg(A, b, x, null, TOL, 1000);
+    assertSolved(A, b, x, plain);
+
+    x = new DoubleMatrix(900);
+    assertSolved(A, b, x, IterativeSolve.cg(A, b, x, IterativeSolve.jacobi(A), TOL, 1000));
+
+    x = new DoubleMatrix(900);
+    IterativeSolve.Convergence ic = IterativeSolve.cg(A, b, x, IterativeSolve.incompleteCholesky(A), TOL, 1000);
+    assertSolved(A, b, x, ic);
+    assertTrue(ic.getIterations() < plain.getIterations());
+  }
+
+  @Test
+  public void gmres() {
+    SparseDoubleMatrix A = grid(20, 0.3);
+    DoubleMatrix b = DoubleMatrix.rand(400);
+
+    DoubleMatrix x = new DoubleMatrix(400);
+    IterativeSolve.Convergence c = IterativeSolve.gmres(A, b, x, null, 30, TOL, 2000);
+    assertSolved(A, b, x, c);
+    // GMRES minimizes the residual, so it never increases
+    double[] history = c.getResidualHistory();
+    for (int i = 1; i < history.length; i++) {
+      assertTrue(history[i] <= history[i - 1] * (1 + 1e-10));
+    }
+
+    x = new DoubleMatrix(400);
+    assertSolved(A, b, x, IterativeSolve.gmres(A, b, x, IterativeSolve.jacobi(A), 30, TOL, 2000));
+  }
+
+  @Test
+  public void gmresFullSpace() {
+    // with a Krylov space as large as the matrix, GMRES is a direct method
+    DoubleMatrix A = DoubleMatrix.randn(10, 10).addi(DoubleMatrix.eye(10).muli(10.0));
+    DoubleMatrix b = DoubleMatrix.randn(10);
+    DoubleMatrix x = new DoubleMatrix(10);
+    IterativeSolve.Convergence c = IterativeSolve.gmres(A, b, x, null, 10, TOL, 100);
+    assertTrue(c.isConverged());
+    assertTrue(c.getIterations() <= 10);
+    assertEquals(0.0, A.mmul(x).sub(b).normmax(), 1e-8);
+  }
+
+  @Test
+  public void bicgstab() {
+    SparseDoubleMatrix A = grid(20, 0.3);
+    DoubleMatrix b = DoubleMatrix.rand(400);
+
+    DoubleMatrix x = new DoubleMatrix(400);
+    assertSolved(A, b, x, IterativeSolve.bicgstab(A, b, x, null, TOL, 1000));
+
+    x = new DoubleMatrix(400);
+    assertSolved(A, b, x, IterativeSolve.bicgstab(A, b, x, IterativeSolve.jacobi(A), TOL, 1000));
+  }
+
+  @Test
+  public void bicgstabBreakdown() {
+    // r0'v = 0 in the first iteration
+    DoubleMatrix rotation = new DoubleMatrix(2, 2, 0.0, -1.0, 1.0, 0.0);
+    DoubleMatrix x = new DoubleMatrix(2);
+    IterativeSolve.Convergence c = IterativeSolve.bicgstab(rotation, new DoubleMatrix(2, 1, 1.0, 0.0), x, null, TOL, 10);
+    assertFalse(c.isConverged());
+    assertEquals(0.0, x.normmax(), 0.0);
+
+    // t = A s = 0 in the first iteration
+    DoubleMatrix A = new DoubleMatrix(2, 2, 1.0, 0.0, 1.0, 0.0);
+    x = new DoubleMatrix(2);
+    c = IterativeSolve.bicgstab(A, DoubleMatrix.ones(2), x, null, TOL, 10);
+    assertFalse(c.isConverged());
+    assertEquals(1, c.getIterations());
+    assertEquals(1.0, c.getResidual(), 1e-15);
+    assertEquals(DoubleMatrix.ones(2), x);
+  }
+
+  @Test
+  public void initialGuess() {
+    SparseDoubleMatrix A = grid(10, 0.0);
+    DoubleMatrix b = DoubleMatrix.rand(100);
+    DoubleMatrix x = new DoubleMatrix(100);
+    IterativeSolve.cg(A, b, x, null, TOL, 1000);
+
+    // starting from the solution, no iterations are needed
+    IterativeSolve.Convergence c = IterativeSolve.cg(A, b, x, null, 1e-8, 1000);
+    assertTrue(c.isConverged());
+    assertEquals(0, c.getIterations());
+
+    // a zero right hand side has the solution zero
+    c = IterativeSolve.bicgstab(A, new DoubleMatrix(100), x, null, TOL, 1000);
+    assertTrue(c.isConverged());
+    assertEquals(0.0, x.normmax(), 0.0);
+  }
+
+  @Test
+  public void notConverged() {
+    SparseDoubleMatrix A = grid(20, 0.0);
+    DoubleMatrix x = new DoubleMatrix(400);
+    IterativeSolve.Convergence c = IterativeSolve.cg(A, DoubleMatrix.rand(400), x, null, TOL, 3);
+    assertFalse(c.isConverged());
+    assertEquals(3, c.getIterations());
+    assertEquals(4, c.getResidualHistory().length);
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongSize() {
+    IterativeSolve.cg(grid(3, 0.0), DoubleMatrix.ones(8), new DoubleMatrix(9), null, TOL, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void incompleteCholeskyBreakdown() {
+    IterativeSolve.incompleteCholesky(new SparseDoubleMatrix(new DoubleMatrix(new double[][]{{1, 2}, {2, 1}})));
+  }
+
+  @Test
+  public void floatSystem() {
+    FloatMatrix A = FloatMatrix.randn(20, 20).addi(FloatMatrix.eye(20).muli(10.0f));
+    FloatMatrix S = A.transposeMmul(A);
+    FloatMatrix b = FloatMatrix.randn(20);
+    FloatMatrix x = new FloatMatrix(20);
+    assertTrue(IterativeSolve.cg(S, b, x, IterativeSolve.jacobi(S), 1e-5f, 200).isConverged());
+    assertEquals(0.0f, S.mmul(x).sub(b).norm2() / b.norm2(), 1e-4f);
+    x = new FloatMatrix(20);
+    assertTrue(IterativeSolve.bicgstab(A, b, x, null, 1e-5f, 200).isConverged());
+    x = new FloatMatrix(20);
+    assertTrue(IterativeSolve.gmres(A, b, x, null, 20, 1e-5f, 200).isConverged());
+  }
+}
@@ -0,0 +1,190 @@
+package org.jblas;
+
+import org.jblas.util.Parallel;
+import org.junit.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for JavaBlas
+ */
+public class TestJavaBlas {
+
+  /** Reference implementation of c = alpha * op(a) * op(b) + beta * c. */
+  private static DoubleMatrix gemmReference(char transa, char transb, double alpha, DoubleMatrix a, DoubleMatrix b, double beta, DoubleMatrix c) {
+    DoubleMatrix opa = transa == 'N' ? a : a.transpose();
+    DoubleMatrix opb = transb == 'N' ? b : b.transpose();
+    DoubleMatrix result = c.mul(beta);
+    for (int i = 0; i < opa.rows; i++)
+      for (int j = 0; j < opb.columns; j++) {
+        double s = 0.0;
+        for (int l = 0; l < opa.columns; l++)
+          s += opa.get(i, l) * opb.get(l, j);
+        result.put(i, j, result.get(i, j) + alpha * s);
+      }
+    return result;
+  }
+
+  private void checkGemm(char transa, char transb, int m, int n, int k, double alpha, double beta) {
+    DoubleMatrix a = transa == 'N' ? DoubleMatrix.randn(m, k) : DoubleMatrix.randn(k, m);
+    DoubleMatrix b = transb == 'N' ? DoubleMatrix.randn(k, n) : DoubleMatrix.randn(n, k);
+    DoubleMatrix c = DoubleMatrix.randn(m, n);
+    DoubleMatrix expected = gemmReference(transa, transb, alpha, a, b, beta, c);
+
+    JavaBlas.rgemm(transa, transb, m, n, k, alpha, a.data, 0, a.rows, b.data, 0, b.rows, beta, c.data, 0, c.rows);
+
+    assertEquals(0.0, expected.sub(c).normmax(), 1e-10 * Math.max(1, k));
+  }
+
+  @Test
+  public void gemmSmall() {
+    checkGemm('N', 'N', 3, 5, 7, 1.0, 0.0);
+    checkGemm('N', 'N', 1, 1, 1, 2.0, 1.0);
+  }
+
+  @Test
+  public void gemmTransposed() {
+    for (char ta : new char[]{'N', 'T'})
+      for (char tb : new char[]{'N', 'T'})
+        checkGemm(ta, tb, 13, 9, 11, 0.5, -1.5);
+  }
+
+  @Test
+  public void gemmBlocked() {
+    // larger than a single block and not a multiple of the register block size
+    checkGemm('N', 'N', 150, 37, 300, 1.0, 0.0);
+    checkGemm('T', 'N', 67, 130, 261, -1.0, 2.0);
+  }
+
+  @Test
+  public void gemmUnrolled() {
+    for (int n = 2; n <= 4; n++) {
+      checkGemm('N', 'N', n, n, n, 1.0, 0.0);
+      checkGemm('N', 'N', n, n, n, -2.0, 0.5);
+    }
+    checkGemm('N', 'N', 8, 8, 8, 1.0, 1.0);
+    checkGemm('N', 'N', 16, 16, 16, 0.5, 0.0);
+  }
+
+  @Test
+  public void gemmUnrolledLeadingDimension() {
+    // 2x2 blocks in the upper left corner of 3x3 matrices
+    double[] a = {1.0, 2.0, -1.0, 3.0, 4.0, -1.0, -1.0, -1.0, -1.0};
+    double[] b = {5.0, 7.0, -1.0, 6.0, 8.0, -1.0, -1.0, -1.0, -1.0};
+    double[] c = {Double.NaN, Double.NaN, 9.0, Double.NaN, Double.NaN, 9.0, 9.0, 9.0, 9.0};
+
+    JavaBlas.rgemm('N', 'N', 2, 2, 2, 1.0, a, 0, 3, b, 0, 3, 0.0, c, 0, 3);
+    assertArrayEquals(new double[]{26.0, 38.0, 9.0, 30.0, 44.0, 9.0, 9.0, 9.0, 9.0}, c, 1e-10);
+  }
+
+  @Test
+  public void gemmOffsets() {
+    double[] a = {-1.0, 1.0, 2.0, 3.0, 4.0};
+    double[] b = {-1.0, -1.0, 5.0, 6.0};
+    double[] c = {7.0, 0.0, 0.0, 0.0, 0.0};
+
+    // [1 3; 2 4] * [5; 6], a and b with offsets, c with offset 1
+    JavaBlas.rgemm('N', 'N', 2, 1, 2, 1.0, a, 1, 2, b, 2, 2, 0.0, c, 1, 2);
+    assertArrayEquals(new double[]{7.0, 23.0, 34.0, 0.0, 0.0}, c, 1e-10);
+  }
+
+  @Test
+  public void gemmEmpty() {
+    double[] c = {1.0, 2.0};
+    JavaBlas.rgemm('N', 'N', 2, 1, 0, 1.0, new double[0], 0, 2, new double[0], 0, 1, 3.0, c, 0, 2);
+    assertArrayEquals(new double[]{3.0, 6.0}, c, 1e-10);
+  }
+
+  @Test
+  public void gemv() {
+    DoubleMatrix a = new DoubleMatrix(new double[][]{{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}});
+    double[] y = {1.0, 1.0};
+
+    JavaBlas.rgemv('N', 2, 3, 2.0, a.data, 0, 2, new double[]{1.0, 0.0, -1.0}, 0, 1, 3.0, y, 0, 1);
+    assertArrayEquals(new double[]{-1.0, -1.0}, y, 1e-10);
+
+    // a^T * x with x taken from every second element
+    double[] z = new double[3];
+    JavaBlas.rgemv('T', 2, 3, 1.0, a.data, 0, 2, new double[]{1.0, 9.0, 1.0}, 0, 2, 0.0, z, 0, 1);
+    assertArrayEquals(new double[]{5.0, 7.0, 9.0}, z, 1e-10);
+  }
+
+  @Test
+  public void ger() {
+    double[] a = new double[4];
+    JavaBlas.rger(2, 2, 2.0, new double[]{1.0, 2.0}, 0, 1, new double[]{3.0, 4.0}, 0, 1, a, 0, 2);
+    assertArrayEquals(new double[]{6.0, 12.0, 8.0, 16.0}, a, 1e-10);
+  }
+
+  @Test
+  public void level1() {
+    double[] x = {3.0, -4.0, 0.0, 1.0};
+
+    assertEquals(5.0, JavaBlas.rnrm2(2, x, 0, 1), 1e-10);
+    assertEquals(8.0, JavaBlas.rasum(4, x, 0, 1), 1e-10);
+    assertEquals(2, JavaBlas.iramax(4, x, 0, 1));
+    assertEquals(0, JavaBlas.iramax(0, x, 0, 1));
+
+    // no overflow for large values
+    assertEquals(5e300, JavaBlas.rnrm2(2, new double[]{3e300, 4e300}, 0, 1), 1e290);
+
+    JavaBlas.rscal(2, -2.0, x, 1, 2);
+    assertArrayEquals(new double[]{3.0, 8.0, 0.0, -2.0}, x, 1e-10);
+  }
+
+  private static void checkTranspose(DoubleMatrix a, DoubleMatrix t) {
+    assertEquals(a.columns, t.rows);
+    assertEquals(a.rows, t.columns);
+    for (int i = 0; i < a.rows; i++)
+      for (int j = 0; j < a.columns; j++)
+        assertEquals(a.get(i, j), t.get(j, i), 0.0);
+  }
+
+  @Test
+  public void transpose() {
+    int[][] sizes = {{1, 1}, {1, 7}, {7, 1}, {5, 5}, {3, 8}, {100, 37}, {65, 65}, {33, 129}};
+    for (int[] size : sizes) {
+      DoubleMatrix a = DoubleMatrix.rand(size[0], size[1]);
+      checkTranspose(a, a.transpose());
+      checkTranspose(a, a.dup().transposei());
+    }
+  }
+
+  @Test
+  public void transposeLeadingDimension() {
+    // transpose the lower 3 x 4 block of a 5 x 4 matrix into a 6 x 3 matrix
+    DoubleMatrix a = DoubleMatrix.rand(5, 4);
+    DoubleMatrix b = new DoubleMatrix(6, 3);
+    JavaBlas.rtranspose(3, 4, a.data, 2, 5, b.data, 1, 6);
+    for (int i = 0; i < 3; i++)
+      for (int j = 0; j < 4; j++)
+        assertEquals(a.get(i + 2, j), b.get(j + 1, i), 0.0);
+    assertEquals(0.0, b.getRow(0).normmax(), 0.0);
+    assertEquals(0.0, b.getRow(5).normmax(), 0.0);
+  }
+
+  @Test
+  public void transposeParallel() {
+    ForkJoinPool oldPool = Parallel.getPool();
+    int oldThreshold = Parallel.getThreshold();
+    try {
+      Parallel.setPool(new ForkJoinPool(4));
+      Parallel.setThreshold(1000);
+      DoubleMatrix a = DoubleMatrix.rand(301, 203);
+      checkTranspose(a, a.transpose());
+    } finally {
+      Parallel.setPool(oldPool);
+      Parallel.setThreshold(oldThreshold);
+    }
+  }
+
+  @Test
+  public void transposeFloat() {
+    FloatMatrix a = FloatMatrix.rand(9, 4);
+    FloatMatrix t = a.dup().transposei();
+    assertEquals(a.transpose(), t);
+    assertEquals(a.get(7, 2), t.get(2, 7), 0.0f);
+  }
+}
@@ -0,0 +1,105 @@
+package org.jblas;
+
+import org.junit.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+
+import static org.jblas.JblasAssert.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for MappedDoubleMatrix.
+ */
+public class TestMappedMatrix {
+  private File file;
+  private DoubleMatrix A;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("jblas-test", ".bin");
+    file.deleteOnExit();
+    A = DoubleMatrix.randn(37, 23);
+  }
+
+  @Test
+  public void mapSavedMatrix() throws IOException {
+    A.save(file.getPath());
+    MappedDoubleMatrix M = MappedDoubleMatrix.open(file.getPath(), false);
+    try {
+      assertEquals(37, M.getRows());
+      assertEquals(23, M.getColumns());
+      assertEquals(A.get(5, 7), M.get(5, 7), 0.0);
+      assertEquals(A, M.getColumns(0, 23));
+      assertEquals(A.getRange(0, 37, 4, 9), M.getColumns(4, 9));
+    } finally {
+      M.close();
+    }
+  }
+
+  @Test
+  public void createAndLoad() throws IOException {
+    MappedDoubleMatrix M = MappedDoubleMatrix.create(file.getPath(), 37, 23);
+    M.putColumns(0, A.getRange(0, 37, 0, 10));
+    M.putColumns(10, A.getRange(0, 37, 10, 23));
+    M.put(3, 4, 42.0);
+    M.close();
+
+    A.put(3, 4, 42.0);
+    DoubleMatrix B = new DoubleMatrix();
+    B.load(file.getPath());
+    assertEquals(A, B);
+    assertEquals(MappedDoubleMatrix.HEADER_SIZE + 8 * A.length, file.length());
+  }
+
+  @Test
+  public void blockOperations() throws IOException {
+    A.save(file.getPath());
+    MappedDoubleMatrix M = MappedDoubleMatrix.open(file.getPath(), false);
+    try {
+      M.setBlockColumns(5);
+      DoubleMatrix X = DoubleMatrix.randn(23, 3);
+      DoubleMatrix Y = DoubleMatrix.randn(37, 2);
+      assertEquals(A.mmul(X), M.mmul(X), 1e-10);
+      assertEquals(A.transpose().mmul(Y), M.transposeMmul(Y), 1e-10);
+      assertEquals(A.columnSums(), M.columnSums(), 1e-10);
+      assertEquals(A.columnMeans(), M.columnMeans(), 1e-10);
+
+      DoubleMatrix centered = A.subRowVector(A.columnMeans());
+      assertEquals(centered.mul(centered).columnSums().div(36), M.columnVariances(), 1e-10);
+    } finally {
+      M.close();
+    }
+  }
+
+  @Test(expected = ReadOnlyBufferException.class)
+  public void readOnly() throws IOException {
+    A.save(file.getPath());
+    MappedDoubleMatrix M = MappedDoubleMatrix.open(file.getPath(), false);
+    try {
+      M.put(0, 0, 1.0);
+    } finally {
+      M.close();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void wrongType() throws IOException {
+    FloatMatrix.ones(2, 2).save(file.getPath());
+    MappedDoubleMatrix.open(file.getPath(), false);
+  }
+
+  @Test
+  public void floatMatrix() throws IOException {
+    FloatMatrix F = FloatMatrix.randn(11, 4);
+    F.save(file.getPath());
+    MappedFloatMatrix M = MappedFloatMatrix.open(file.getPath(), true);
+    try {
+      assertEquals(F, M.getColumns(0, 4));
+      assertEquals(F.columnSums().get(2), M.columnSums().get(2), 1e-5f);
+    } finally {
+      M.close();
+    }
+  }
+}
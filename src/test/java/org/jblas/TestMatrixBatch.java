@@ -0,0 +1,148 @@
+package org.jblas;
+
+import org.jblas.exceptions.LapackPositivityException;
+import org.jblas.exceptions.LapackSingularityException;
+import org.jblas.exceptions.SizeException;
+import org.jblas.util.Parallel;
+import org.junit.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jblas.JblasAssert.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DoubleMatrixBatch.
+ */
+public class TestMatrixBatch {
+  private static final int N = 50;
+  private ForkJoinPool oldPool;
+  private int oldThreshold;
+  private DoubleMatrix[] a, b;
+
+  @Before
+  public void setUp() {
+    oldPool = Parallel.getPool();
+    oldThreshold = Parallel.getThreshold();
+    Parallel.setPool(new ForkJoinPool(4));
+    Parallel.setThreshold(1000);
+
+    a = new DoubleMatrix[N];
+    b = new DoubleMatrix[N];
+    for (int i = 0; i < N; i++) {
+      a[i] = DoubleMatrix.randn(6, 6).addi(DoubleMatrix.eye(6).muli(6.0));
+      b[i] = DoubleMatrix.randn(6, 2);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    Parallel.setPool(oldPool);
+    Parallel.setThreshold(oldThreshold);
+  }
+
+  @Test
+  public void layout() {
+    DoubleMatrixBatch A = DoubleMatrixBatch.of(a);
+    assertEquals(N, A.count);
+    assertEquals(36, A.stride());
+    assertEquals(a[3].get(2, 1), A.data[A.index(3) + 2 + 1 * 6], 0.0);
+    assertEquals(a[7], A.get(7));
+  }
+
+  @Test
+  public void mmul() {
+    DoubleMatrixBatch C = DoubleMatrixBatch.of(a).mmul(DoubleMatrixBatch.of(b));
+    assertEquals(6, C.rows);
+    assertEquals(2, C.columns);
+    for (int i = 0; i < N; i++) {
+      assertEquals(a[i].mmul(b[i]), C.get(i), 1e-10);
+    }
+
+    // a single right hand side for all matrices
+    C = DoubleMatrixBatch.of(a).mmul(DoubleMatrixBatch.of(b[0]));
+    for (int i = 0; i < N; i++) {
+      assertEquals(a[i].mmul(b[0]), C.get(i), 1e-10);
+    }
+  }
+
+  @Test
+  public void solve() {
+    DoubleMatrixBatch A = DoubleMatrixBatch.of(a);
+    DoubleMatrixBatch X = A.solve(DoubleMatrixBatch.of(b));
+    for (int i = 0; i < N; i++) {
+      assertEquals(b[i], a[i].mmul(X.get(i)), 1e-10);
+    }
+    // A is unchanged
+    assertEquals(a[0], A.get(0));
+  }
+
+  @Test
+  public void inverse() {
+    DoubleMatrixBatch inv = DoubleMatrixBatch.of(a).inverse();
+    for (int i = 0; i < N; i++) {
+      assertEquals(DoubleMatrix.eye(6), a[i].mmul(inv.get(i)), 1e-10);
+    }
+  }
+
+  @Test
+  public void cholesky() {
+    DoubleMatrix[] s = new DoubleMatrix[N];
+    for (int i = 0; i < N; i++) {
+      s[i] = a[i].transposeMmul(a[i]);
+    }
+    DoubleMatrixBatch S = DoubleMatrixBatch.of(s);
+    DoubleMatrixBatch U = S.cholesky();
+    DoubleMatrixBatch X = S.solvePositive(DoubleMatrixBatch.of(b));
+    for (int i = 0; i < N; i++) {
+      DoubleMatrix u = U.get(i);
+      assertTrue(u.isUpperTriangular());
+      assertEquals(s[i], u.transposeMmul(u), 1e-10);
+      assertEquals(b[i], s[i].mmul(X.get(i)), 1e-10);
+    }
+  }
+
+  @Test
+  public void singular() {
+    a[17] = new DoubleMatrix(6, 6);
+    a[23] = new DoubleMatrix(6, 6);
+    DoubleMatrixBatch A = DoubleMatrixBatch.of(a);
+    try {
+      A.inversei();
+      fail("expected a LapackSingularityException");
+    } catch (LapackSingularityException e) {
+      assertTrue(e.getMessage().contains("Matrix 17 "));
+    }
+    // the other matrices have been inverted
+    assertEquals(DoubleMatrix.eye(6), a[3].mmul(A.get(3)), 1e-10);
+  }
+
+  @Test(expected = LapackPositivityException.class)
+  public void notPositive() {
+    DoubleMatrixBatch.of(DoubleMatrix.eye(3), DoubleMatrix.eye(3).neg()).cholesky();
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongSize() {
+    DoubleMatrixBatch.of(a).mmul(DoubleMatrixBatch.of(DoubleMatrix.ones(5, 1)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooManyElements() {
+    new DoubleMatrixBatch(1 << 12, 1 << 10, 1 << 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeMatrices() {
+    new DoubleMatrixBatch(0, 1 << 16, 1 << 16);
+  }
+
+  @Test
+  public void floatBatch() {
+    FloatMatrix f = new FloatMatrix(new float[][]{{4, 1}, {1, 3}});
+    FloatMatrixBatch F = FloatMatrixBatch.of(f, f.mul(2.0f));
+    FloatMatrixBatch inv = F.inverse();
+    assertEquals(0.0f, f.mmul(inv.get(0)).sub(FloatMatrix.eye(2)).normmax(), 1e-6f);
+    assertEquals(0.0f, f.mul(2.0f).mmul(inv.get(1)).sub(FloatMatrix.eye(2)).normmax(), 1e-6f);
+  }
+}
@@ -0,0 +1,164 @@
+package org.jblas;
+
+import org.jblas.util.MatrixCodec;
+import org.junit.*;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the binary format of out(), in(), save() and load().
+ */
+public class TestMatrixCodec {
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("jblas-test", ".bin");
+    file.deleteOnExit();
+  }
+
+  /** The matrix as written by the DataOutputStream based out() of earlier versions. */
+  private static byte[] legacy(DoubleMatrix A) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bytes);
+    dos.writeUTF("double");
+    dos.writeInt(A.columns);
+    dos.writeInt(A.rows);
+    dos.writeInt(A.data.length);
+    for (double d : A.data) {
+      dos.writeDouble(d);
+    }
+    dos.close();
+    return bytes.toByteArray();
+  }
+
+  private static byte[] write(DoubleMatrix A, ByteOrder order, boolean checksum) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    A.out(Channels.newChannel(bytes), order, checksum);
+    return bytes.toByteArray();
+  }
+
+  private static DoubleMatrix read(byte[] bytes) throws IOException {
+    DoubleMatrix A = new DoubleMatrix();
+    A.in(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    return A;
+  }
+
+  @Test
+  public void compatibleWithLegacyFormat() throws IOException {
+    DoubleMatrix A = DoubleMatrix.randn(13, 7);
+    assertArrayEquals(legacy(A), write(A, ByteOrder.BIG_ENDIAN, false));
+
+    A.save(file.getPath());
+    DataInputStream dis = new DataInputStream(new FileInputStream(file));
+    byte[] saved = new byte[(int) file.length()];
+    dis.readFully(saved);
+    dis.close();
+    assertArrayEquals(legacy(A), saved);
+
+    DoubleMatrix B = new DoubleMatrix();
+    B.in(new DataInputStream(new ByteArrayInputStream(legacy(A))));
+    assertEquals(A, B);
+    assertEquals(A.length, B.length);
+  }
+
+  @Test
+  public void allVariants() throws IOException {
+    // large enough to need several chunks
+    DoubleMatrix A = DoubleMatrix.randn(300, 101);
+    for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      for (boolean checksum : new boolean[]{false, true}) {
+        byte[] bytes = write(A, order, checksum);
+        assertEquals(2 + 6 + 12 + 8 * A.length + (order == ByteOrder.LITTLE_ENDIAN ? 3 : 0) + (checksum ? 6 + 4 : 0), bytes.length);
+        assertEquals(A, read(bytes));
+
+        A.save(file.getPath(), order, checksum);
+        DoubleMatrix B = new DoubleMatrix();
+        B.load(file.getPath());
+        assertEquals(A, B);
+      }
+    }
+  }
+
+  @Test
+  public void severalMatricesOnOneStream() throws IOException {
+    DoubleMatrix A = DoubleMatrix.randn(4, 5);
+    FloatMatrix F = FloatMatrix.rand(3, 2);
+    ComplexDoubleMatrix C = new ComplexDoubleMatrix(2, 3, DoubleMatrix.randn(12).data);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bytes);
+    A.out(dos);
+    F.out(Channels.newChannel(dos), ByteOrder.LITTLE_ENDIAN, true);
+    C.out(Channels.newChannel(dos), ByteOrder.nativeOrder(), false);
+    dos.close();
+
+    DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    DoubleMatrix B = new DoubleMatrix();
+    B.in(dis);
+    FloatMatrix G = new FloatMatrix();
+    G.in(dis);
+    ComplexDoubleMatrix D = new ComplexDoubleMatrix(0, 0);
+    D.in(dis);
+    assertEquals(-1, dis.read());
+
+    assertEquals(A, B);
+    assertEquals(F, G);
+    assertEquals(C, D);
+    assertEquals(2, D.rows);
+    assertEquals(3, D.columns);
+    assertEquals(6, D.length);
+  }
+
+  @Test
+  public void emptyMatrix() throws IOException {
+    DoubleMatrix A = read(write(new DoubleMatrix(0, 3), ByteOrder.LITTLE_ENDIAN, true));
+    assertEquals(0, A.rows);
+    assertEquals(3, A.columns);
+    assertEquals(0, A.length);
+  }
+
+  @Test
+  public void corruptedData() throws IOException {
+    byte[] bytes = write(DoubleMatrix.randn(5, 5), ByteOrder.BIG_ENDIAN, true);
+    bytes[40] ^= 1;
+    try {
+      read(bytes);
+      fail("expected an IOException");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  @Test(expected = EOFException.class)
+  public void truncatedData() throws IOException {
+    byte[] bytes = write(DoubleMatrix.randn(5, 5), ByteOrder.LITTLE_ENDIAN, false);
+    read(Arrays.copyOf(bytes, bytes.length - 1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void wrongType() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    FloatMatrix.ones(2, 2).out(Channels.newChannel(bytes));
+    read(bytes.toByteArray());
+  }
+
+  @Test
+  public void header() throws IOException {
+    byte[] bytes = write(DoubleMatrix.ones(3, 4), ByteOrder.LITTLE_ENDIAN, true);
+    MatrixCodec.Header h = MatrixCodec.readHeader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    assertEquals("double", h.type);
+    assertEquals("double;le;crc32", h.getTag());
+    assertEquals(3, h.rows);
+    assertEquals(4, h.columns);
+    assertEquals(12, h.length);
+    assertEquals(ByteOrder.LITTLE_ENDIAN, h.order);
+    assertTrue(h.checksum);
+    assertEquals(96, h.getDataBytes());
+  }
+}
@@ -0,0 +1,151 @@
+package org.jblas;
+
+import org.jblas.util.Parallel;
+import org.junit.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for reading and writing Matrix Market files.
+ */
+public class TestMatrixMarket {
+  private ForkJoinPool oldPool;
+  private int oldThreshold;
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    oldPool = Parallel.getPool();
+    oldThreshold = Parallel.getThreshold();
+    Parallel.setPool(new ForkJoinPool(4));
+    Parallel.setThreshold(100);
+
+    file = File.createTempFile("jblas-test", ".mtx");
+    file.deleteOnExit();
+  }
+
+  @After
+  public void tearDown() {
+    Parallel.setPool(oldPool);
+    Parallel.setThreshold(oldThreshold);
+  }
+
+  private void write(String... lines) throws IOException {
+    PrintStream out = new PrintStream(file);
+    for (String line : lines) {
+      out.println(line);
+    }
+    out.close();
+  }
+
+  @Test
+  public void coordinateGeneral() throws IOException {
+    write("%%MatrixMarket matrix coordinate real general",
+        "% a comment",
+        "%",
+        "3 4 4",
+        "1 1 1.5",
+        "3 2 -2e1",
+        "2 4 3",
+        "3 2 1");
+    DoubleMatrix expected = new DoubleMatrix(new double[][]{{1.5, 0, 0, 0}, {0, 0, 0, 3}, {0, -19, 0, 0}});
+    assertEquals(expected, MatrixMarket.readDouble(file.getPath()));
+    assertEquals(expected.toFloat(), MatrixMarket.readFloat(file.getPath()));
+
+    SparseDoubleMatrix S = MatrixMarket.readSparseDouble(file.getPath());
+    assertEquals(3, S.getNonZeros());
+    assertEquals(expected, S.toDense());
+    assertEquals(expected.toFloat(), MatrixMarket.readSparseFloat(file.getPath()).toDense());
+  }
+
+  @Test
+  public void symmetricAndSkew() throws IOException {
+    write("%%MatrixMarket matrix coordinate integer symmetric",
+        "3 3 3",
+        "1 1 4",
+        "2 1 1",
+        "3 2 -2");
+    DoubleMatrix expected = new DoubleMatrix(new double[][]{{4, 1, 0}, {1, 0, -2}, {0, -2, 0}});
+    assertEquals(expected, MatrixMarket.readDouble(file.getPath()));
+    assertEquals(5, MatrixMarket.readSparseDouble(file.getPath()).getNonZeros());
+
+    write("%%MatrixMarket matrix array real skew-symmetric",
+        "3 3",
+        "1",
+        "2",
+        "3");
+    assertEquals(new DoubleMatrix(new double[][]{{0, -1, -2}, {1, 0, -3}, {2, 3, 0}}), MatrixMarket.readDouble(file.getPath()));
+
+    write("%%MatrixMarket matrix array real symmetric",
+        "2 2",
+        "1",
+        "2",
+        "3");
+    assertEquals(new DoubleMatrix(new double[][]{{1, 2}, {2, 3}}), MatrixMarket.readDouble(file.getPath()));
+  }
+
+  @Test
+  public void pattern() throws IOException {
+    write("%%MatrixMarket matrix coordinate pattern general",
+        "2 2 2",
+        "1 2",
+        "2 1");
+    assertEquals(new DoubleMatrix(new double[][]{{0, 1}, {1, 0}}), MatrixMarket.readDouble(file.getPath()));
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    DoubleMatrix A = DoubleMatrix.randn(40, 30);
+    MatrixMarket.write(file.getPath(), A);
+    assertEquals(A, MatrixMarket.readDouble(file.getPath()));
+
+    FloatMatrix F = FloatMatrix.randn(3, 5);
+    MatrixMarket.write(file.getPath(), F);
+    assertEquals(F, MatrixMarket.readFloat(file.getPath()));
+
+    DoubleMatrix dense = DoubleMatrix.rand(200, 100).lt(0.1).muli(DoubleMatrix.randn(200, 100)).addi(0.0);
+    SparseDoubleMatrix S = new SparseDoubleMatrix(dense);
+    MatrixMarket.write(file.getPath(), S.toCSC());
+    SparseDoubleMatrix T = MatrixMarket.readSparseDouble(file.getPath());
+    assertEquals(S.getNonZeros(), T.getNonZeros());
+    assertEquals(dense, T.toDense());
+
+    MatrixMarket.write(file.getPath(), new SparseFloatMatrix(dense.toFloat()));
+    assertEquals(dense.toFloat(), MatrixMarket.readSparseFloat(file.getPath()).toDense());
+  }
+
+  @Test(expected = IOException.class)
+  public void tooFewEntries() throws IOException {
+    write("%%MatrixMarket matrix coordinate real general", "2 2 3", "1 1 1", "2 2 1");
+    MatrixMarket.readDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void tooManyEntries() throws IOException {
+    write("%%MatrixMarket matrix coordinate real general", "2 2 1", "1 1 1", "2 2 1");
+    MatrixMarket.readSparseDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void indexOutOfRange() throws IOException {
+    write("%%MatrixMarket matrix coordinate real general", "2 2 1", "3 1 1");
+    MatrixMarket.readDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void complexNotSupported() throws IOException {
+    write("%%MatrixMarket matrix coordinate complex general", "1 1 1", "1 1 1 0");
+    MatrixMarket.readDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void notMatrixMarket() throws IOException {
+    write("1 2 3");
+    MatrixMarket.readDouble(file.getPath());
+  }
+}
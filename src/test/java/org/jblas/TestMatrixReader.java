@@ -0,0 +1,182 @@
+package org.jblas;
+
+import org.jblas.util.Parallel;
+import org.junit.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for MatrixReader.
+ */
+public class TestMatrixReader {
+  private ForkJoinPool oldPool;
+  private int oldThreshold;
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    oldPool = Parallel.getPool();
+    oldThreshold = Parallel.getThreshold();
+    Parallel.setPool(new ForkJoinPool(4));
+    Parallel.setThreshold(100);
+
+    file = File.createTempFile("jblas-test", ".txt");
+    file.deleteOnExit();
+  }
+
+  @After
+  public void tearDown() {
+    Parallel.setPool(oldPool);
+    Parallel.setThreshold(oldThreshold);
+  }
+
+  private void write(String... lines) throws IOException {
+    PrintStream out = new PrintStream(file);
+    for (String line : lines) {
+      out.print(line);
+    }
+    out.close();
+  }
+
+  /** Writes A with the given separator, full precision. */
+  private void write(DoubleMatrix A, String separator) throws IOException {
+    PrintStream out = new PrintStream(file);
+    for (int i = 0; i < A.rows; i++) {
+      for (int j = 0; j < A.columns; j++) {
+        out.print((j > 0 ? separator : "") + A.get(i, j));
+      }
+      out.print("\n");
+    }
+    out.close();
+  }
+
+  @Test
+  public void whitespace() throws IOException {
+    write("  1.0 2\t\t3e0 \n", "\n", "4.5 -5.25E+1 +6\r\n");
+    DoubleMatrix A = new MatrixReader().readDouble(file.getPath());
+    assertEquals(new DoubleMatrix(new double[][]{{1.0, 2.0, 3.0}, {4.5, -52.5, 6.0}}), A);
+    assertEquals(A, DoubleMatrix.loadAsciiFile(file.getPath()));
+    assertEquals(new FloatMatrix(new float[][]{{1.0f, 2.0f, 3.0f}, {4.5f, -52.5f, 6.0f}}), FloatMatrix.loadAsciiFile(file.getPath()));
+  }
+
+  @Test
+  public void csvWithHeaderAndMissingValues() throws IOException {
+    write("a,b,c\n", "1, ,3\n", "NA,5,\n", "7,8,NaN");
+    DoubleMatrix A = new MatrixReader(',').setHeaderLines(1).setMissingTokens("NA").setMissingValue(-1.0).readDouble(file.getPath());
+    assertEquals(3, A.rows);
+    assertEquals(3, A.columns);
+    assertEquals(new DoubleMatrix(new double[][]{{1, -1, 3}, {-1, 5, -1}}), A.getRange(0, 2, 0, 3));
+    assertTrue(Double.isNaN(A.get(2, 2)));
+  }
+
+  @Test
+  public void numericMissingToken() throws IOException {
+    write("1,-999,3\n", "-999.5, -999 ,-9990\n");
+    DoubleMatrix A = new MatrixReader(',').setMissingTokens("-999").readDouble(file.getPath());
+    assertEquals(1.0, A.get(0, 0), 0.0);
+    assertTrue(Double.isNaN(A.get(0, 1)));
+    assertEquals(3.0, A.get(0, 2), 0.0);
+    assertEquals(-999.5, A.get(1, 0), 0.0);
+    assertTrue(Double.isNaN(A.get(1, 1)));
+    assertEquals(-9990.0, A.get(1, 2), 0.0);
+  }
+
+  @Test
+  public void trailingDelimiter() throws IOException {
+    write("1,2,3,\n", "4,5,6 , \n", "7,8,9\n");
+    DoubleMatrix A = DoubleMatrix.loadCSVFile(file.getPath());
+    assertEquals(new DoubleMatrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}), A);
+    assertEquals(new FloatMatrix(new float[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}), FloatMatrix.loadCSVFile(file.getPath()));
+
+    // by default, the trailing delimiter starts an empty field
+    write("1,2,3,\n", "4,5,6,\n");
+    A = new MatrixReader(',').readDouble(file.getPath());
+    assertEquals(4, A.columns);
+    assertTrue(Double.isNaN(A.get(1, 3)));
+  }
+
+  @Test
+  public void exactParsing() throws IOException {
+    String[] numbers = {"0.1", "-0.0", "1e-300", "123456789012345678901234", "2.2250738585072014E-308",
+        "0.30000000000000004", "Infinity", "-1.7976931348623157e308", "000.00123", "9007199254740993"};
+    StringBuilder line = new StringBuilder();
+    for (String n : numbers) {
+      line.append(n).append(' ');
+    }
+    write(line.toString());
+    DoubleMatrix A = new MatrixReader().readDouble(file.getPath());
+    for (int i = 0; i < numbers.length; i++) {
+      assertEquals(Double.doubleToLongBits(Double.parseDouble(numbers[i])), Double.doubleToLongBits(A.get(0, i)));
+    }
+  }
+
+  @Test
+  public void parallelChunks() throws IOException {
+    DoubleMatrix A = DoubleMatrix.randn(500, 7);
+    write(A, ",");
+    for (int chunkSize : new int[]{1, 100, 1000, 1 << 20}) {
+      assertEquals(A, new MatrixReader(',').setChunkSize(chunkSize).readDouble(file.getPath()));
+    }
+    FloatMatrix F = new MatrixReader(',').setChunkSize(1000).readFloat(file.getPath());
+    assertEquals(0.0f, F.sub(FloatMatrix.loadCSVFile(file.getPath())).normmax(), 0.0f);
+    for (int i = 0; i < A.length; i++) {
+      assertEquals((float) A.get(i), F.get(i), 0.0f);
+    }
+  }
+
+  @Test
+  public void stream() throws IOException {
+    final DoubleMatrix A = DoubleMatrix.randn(300, 4);
+    write(A, " ");
+    final List<DoubleMatrix> batches = new ArrayList<DoubleMatrix>();
+    final long[] next = {0};
+    long rows = new MatrixReader().setChunkSize(2000).stream(file.getPath(), new MatrixReader.RowHandler() {
+      public void rows(DoubleMatrix batch, long firstRow) {
+        assertEquals(next[0], firstRow);
+        assertEquals(4, batch.columns);
+        next[0] += batch.rows;
+        batches.add(batch);
+      }
+    });
+    assertEquals(300, rows);
+    assertTrue(batches.size() > 1);
+    DoubleMatrix B = batches.get(0);
+    for (int i = 1; i < batches.size(); i++) {
+      B = DoubleMatrix.concatVertically(B, batches.get(i));
+    }
+    assertEquals(A, B);
+  }
+
+  @Test
+  public void emptyFile() throws IOException {
+    write("header\n");
+    DoubleMatrix A = new MatrixReader().setHeaderLines(1).readDouble(file.getPath());
+    assertEquals(0, A.rows);
+    assertEquals(0, A.columns);
+  }
+
+  @Test(expected = IOException.class)
+  public void notANumber() throws IOException {
+    write("1 2\n", "3 x\n");
+    new MatrixReader().readDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void changingNumberOfColumns() throws IOException {
+    write("1 2\n", "3 4 5\n");
+    new MatrixReader().readDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void changingNumberOfColumnsBetweenChunks() throws IOException {
+    write("1 2\n", "3 4\n", "5 6 7\n");
+    new MatrixReader().setChunkSize(1).readDouble(file.getPath());
+  }
+}
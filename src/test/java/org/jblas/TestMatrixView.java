@@ -0,0 +1,124 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.jblas.ranges.IntervalRange;
+import org.junit.*;
+
+import static org.jblas.JblasAssert.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DoubleMatrixView.
+ */
+public class TestMatrixView {
+  private DoubleMatrix A;
+
+  @Before
+  public void setUp() {
+    A = DoubleMatrix.randn(7, 6);
+  }
+
+  @Test
+  public void sharesData() {
+    DoubleMatrixView v = A.view(new IntervalRange(2, 5), new IntervalRange(1, 4));
+    assertSame(A.data, v.data);
+    assertEquals(3, v.rows);
+    assertEquals(3, v.columns);
+    assertEquals(7, v.ld);
+    assertEquals(A.getRange(2, 5, 1, 4), v.toDoubleMatrix());
+    assertEquals(A.get(r(2, 5), r(1, 4)), v.toDoubleMatrix());
+
+    v.put(0, 0, 42.0);
+    assertEquals(42.0, A.get(2, 1), 0.0);
+
+    DoubleMatrixView w = v.view(new IntervalRange(1, 3), new IntervalRange(2, 3));
+    assertEquals(A.get(4, 3), w.get(1, 0), 0.0);
+
+    assertEquals(A.getColumn(3), A.columnView(3).toDoubleMatrix());
+    assertEquals(A.getRow(4), A.rowView(4).toDoubleMatrix());
+    assertEquals(7, A.rowView(4).increment());
+  }
+
+  private static IntervalRange r(int a, int b) {
+    return new IntervalRange(a, b);
+  }
+
+  @Test
+  public void gemm() {
+    DoubleMatrix B = DoubleMatrix.randn(5, 8);
+    DoubleMatrix C = DoubleMatrix.randn(9, 9);
+    DoubleMatrix expected = C.dup();
+    DoubleMatrix product = A.getRange(1, 6, 0, 3).transpose().mmul(B.getRange(0, 5, 2, 6));
+    expected.put(r(3, 6), r(4, 8), product.mul(2.0).add(expected.getRange(3, 6, 4, 8).mul(0.5)));
+
+    SimpleBlas.gemm('T', 'N', 2.0, A.view(r(1, 6), r(0, 3)), B.view(r(0, 5), r(2, 6)), 0.5, C.view(r(3, 6), r(4, 8)));
+    assertEquals(expected, C, 1e-10);
+  }
+
+  @Test
+  public void gemv() {
+    DoubleMatrix y = DoubleMatrix.zeros(3, 10);
+    // x is a row of A, the result goes into a row of y
+    SimpleBlas.gemv(1.0, A.view(r(0, 5), r(1, 6)), A.rowView(6).view(r(0, 1), r(0, 5)), 0.0, y.rowView(1).view(r(0, 1), r(2, 7)));
+    DoubleMatrix expected = A.getRange(0, 5, 1, 6).mmul(A.getRange(6, 7, 0, 5).transpose());
+    assertEquals(expected.transpose(), y.getRange(1, 2, 2, 7), 1e-10);
+    assertEquals(0.0, y.getRow(0).normmax(), 0.0);
+  }
+
+  @Test
+  public void axpyCopyScal() {
+    DoubleMatrix B = A.dup();
+    DoubleMatrixView top = B.view(r(0, 3), r(0, 6));
+    DoubleMatrixView bottom = B.view(r(4, 7), r(0, 6));
+    SimpleBlas.axpy(2.0, top, bottom);
+    assertEquals(A.getRange(4, 7, 0, 6).add(A.getRange(0, 3, 0, 6).mul(2.0)), B.getRange(4, 7, 0, 6), 1e-10);
+    assertEquals(A.getRange(0, 4, 0, 6), B.getRange(0, 4, 0, 6));
+
+    // a column into a row
+    SimpleBlas.copy(B.columnView(0).view(r(0, 6), r(0, 1)), B.rowView(3));
+    assertEquals(B.getColumn(0).getRange(0, 6, 0, 1).transpose(), B.getRow(3));
+
+    SimpleBlas.scal(-1.0, top);
+    assertEquals(A.getRange(0, 3, 0, 6).neg(), B.getRange(0, 3, 0, 6));
+
+    assertEquals(A.getRow(1).dot(A.getRow(2)), SimpleBlas.dot(A.rowView(1), A.rowView(2)), 1e-10);
+  }
+
+  @Test
+  public void elementwise() {
+    DoubleMatrix B = A.dup();
+    DoubleMatrixView v = B.view(r(1, 4), r(2, 5));
+    DoubleMatrixView w = A.view(r(3, 6), r(0, 3));
+    DoubleMatrix expected = B.getRange(1, 4, 2, 5).add(1.0).mul(w.toDoubleMatrix()).sub(w.toDoubleMatrix()).div(2.0);
+    v.addi(1.0).muli(w).subi(w).divi(2.0);
+    assertEquals(expected, v.toDoubleMatrix(), 1e-10);
+
+    v.fill(3.0);
+    assertEquals(DoubleMatrix.ones(3, 3).mul(3.0), B.getRange(1, 4, 2, 5));
+    assertEquals(A.getRange(0, 1, 0, 6), B.getRange(0, 1, 0, 6));
+    assertEquals(A.getColumn(1), B.getColumn(1));
+  }
+
+  @Test
+  public void floatView() {
+    FloatMatrix F = FloatMatrix.randn(4, 4);
+    FloatMatrix C = FloatMatrix.zeros(2, 2);
+    SimpleBlas.gemm(1.0f, F.view(r(0, 2), r(0, 3)), F.view(r(1, 4), r(2, 4)), 0.0f, new FloatMatrixView(C));
+    assertEquals(0.0f, F.getRange(0, 2, 0, 3).mmul(F.getRange(1, 4, 2, 4)).sub(C).normmax(), 1e-5f);
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongSize() {
+    SimpleBlas.axpy(1.0, A.view(r(0, 2), r(0, 2)), A.view(r(0, 3), r(0, 3)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void outOfBounds() {
+    A.view(r(5, 8), r(0, 2));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void indexOutsideOfView() {
+    A.view(r(0, 2), r(0, 2)).get(2, 0);
+  }
+}
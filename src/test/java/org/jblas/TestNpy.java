@@ -0,0 +1,172 @@
+package org.jblas;
+
+import org.junit.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for reading and writing .npy and .npz files.
+ */
+public class TestNpy {
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("jblas-test", ".npy");
+    file.deleteOnExit();
+  }
+
+  /** Writes a version 1.0 .npy file with the given header and data. */
+  private void writeNpy(String dict, ByteBuffer data) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    out.write(new byte[]{(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0, (byte) (dict.length() + 1), 0});
+    out.write((dict + "\n").getBytes("ISO-8859-1"));
+    out.write(data.array());
+    out.close();
+  }
+
+  private static ByteBuffer doubles(ByteOrder order, double... values) {
+    ByteBuffer buffer = ByteBuffer.allocate(8 * values.length).order(order);
+    for (double v : values) {
+      buffer.putDouble(v);
+    }
+    return buffer;
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    DoubleMatrix A = DoubleMatrix.randn(5, 3);
+    Npy.save(file.getPath(), A);
+    assertEquals(A, Npy.loadDouble(file.getPath()));
+    assertEquals(0, (file.length() - 8 * A.length) % 64);
+
+    FloatMatrix F = FloatMatrix.randn(2, 7);
+    Npy.save(file.getPath(), F);
+    assertEquals(F, Npy.loadFloat(file.getPath()));
+
+    ComplexDoubleMatrix C = new ComplexDoubleMatrix(3, 2, DoubleMatrix.randn(12).data);
+    Npy.save(file.getPath(), C);
+    assertEquals(C, Npy.loadComplexDouble(file.getPath()));
+
+    ComplexFloatMatrix D = new ComplexFloatMatrix(1, 4, FloatMatrix.randn(8).data);
+    Npy.save(file.getPath(), D);
+    assertEquals(D, Npy.loadComplexFloat(file.getPath()));
+  }
+
+  @Test
+  public void header() throws IOException {
+    Npy.save(file.getPath(), new FloatMatrix(2, 3));
+    DataInputStream in = new DataInputStream(new FileInputStream(file));
+    byte[] bytes = new byte[128];
+    in.readFully(bytes);
+    in.close();
+    assertEquals(118, bytes[8]);
+    String header = new String(bytes, 10, 118, "ISO-8859-1");
+    assertTrue(header.startsWith("{'descr': '<f4', 'fortran_order': True, 'shape': (2, 3), }"));
+    assertTrue(header.endsWith(" \n"));
+    assertEquals(128 + 24, file.length());
+  }
+
+  @Test
+  public void cOrder() throws IOException {
+    writeNpy("{'descr': '<f8', 'fortran_order': False, 'shape': (2, 3), }", doubles(ByteOrder.LITTLE_ENDIAN, 1, 2, 3, 4, 5, 6));
+    DoubleMatrix expected = new DoubleMatrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+    assertEquals(expected, Npy.loadDouble(file.getPath()));
+    assertEquals(expected.toFloat(), Npy.loadFloat(file.getPath()));
+
+    ComplexDoubleMatrix C = Npy.loadComplexDouble(file.getPath());
+    assertEquals(new ComplexDouble(6, 0), C.get(1, 2));
+    assertEquals(new ComplexDouble(2, 0), C.get(0, 1));
+  }
+
+  @Test
+  public void complexCOrder() throws IOException {
+    writeNpy("{'descr': '>c16', 'fortran_order': False, 'shape': (2, 2), }", doubles(ByteOrder.BIG_ENDIAN, 1, -1, 2, -2, 3, -3, 4, -4));
+    ComplexDoubleMatrix C = Npy.loadComplexDouble(file.getPath());
+    assertEquals(new ComplexDouble(2, -2), C.get(0, 1));
+    assertEquals(new ComplexDouble(3, -3), C.get(1, 0));
+  }
+
+  @Test
+  public void vectorsAndScalars() throws IOException {
+    writeNpy("{'descr': '>f8', 'fortran_order': False, 'shape': (3,), }", doubles(ByteOrder.BIG_ENDIAN, 1, 2, 3));
+    assertEquals(new DoubleMatrix(new double[]{1, 2, 3}), Npy.loadDouble(file.getPath()));
+
+    writeNpy("{'descr': '<f8', 'fortran_order': False, 'shape': (), }", doubles(ByteOrder.LITTLE_ENDIAN, 42));
+    assertEquals(new DoubleMatrix(1, 1, 42), Npy.loadDouble(file.getPath()));
+  }
+
+  @Test(expected = IOException.class)
+  public void complexIntoReal() throws IOException {
+    Npy.save(file.getPath(), new ComplexDoubleMatrix(2, 2));
+    Npy.loadDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void threeDimensions() throws IOException {
+    writeNpy("{'descr': '<f8', 'fortran_order': False, 'shape': (1, 1, 1), }", doubles(ByteOrder.LITTLE_ENDIAN, 1));
+    Npy.loadDouble(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void unsupportedType() throws IOException {
+    writeNpy("{'descr': '<i8', 'fortran_order': False, 'shape': (1,), }", doubles(ByteOrder.LITTLE_ENDIAN, 1));
+    Npy.loadDouble(file.getPath());
+  }
+
+  @Test
+  public void npz() throws IOException {
+    Map<String, Object> arrays = new LinkedHashMap<String, Object>();
+    arrays.put("a", DoubleMatrix.randn(4, 4));
+    arrays.put("b", FloatMatrix.rand(2, 5));
+    arrays.put("c", new ComplexDoubleMatrix(2, 1, 1.0, 2.0, 3.0, 4.0));
+    arrays.put("d", new ComplexFloatMatrix(1, 1, 5.0f, 6.0f));
+    for (boolean compressed : new boolean[]{false, true}) {
+      Npy.saveNpz(file.getPath(), arrays, compressed);
+      assertEquals(arrays, Npy.loadNpz(file.getPath()));
+    }
+  }
+
+  @Test
+  public void mapping() throws IOException {
+    DoubleMatrix A = DoubleMatrix.randn(6, 4);
+    Npy.save(file.getPath(), A);
+    MappedDoubleMatrix M = Npy.mapDouble(file.getPath(), true);
+    try {
+      assertEquals(A, M.getColumns(0, 4));
+      M.put(5, 3, 17.0);
+    } finally {
+      M.close();
+    }
+    A.put(5, 3, 17.0);
+    assertEquals(A, Npy.loadDouble(file.getPath()));
+
+    Npy.save(file.getPath(), A.toFloat());
+    MappedFloatMatrix F = Npy.mapFloat(file.getPath(), false);
+    try {
+      assertEquals(17.0f, F.get(5, 3), 0.0f);
+    } finally {
+      F.close();
+    }
+
+    writeNpy("{'descr': '>f8', 'fortran_order': False, 'shape': (3,), }", doubles(ByteOrder.BIG_ENDIAN, 1, 2, 3));
+    M = Npy.mapDouble(file.getPath(), false);
+    try {
+      assertEquals(2.0, M.get(1, 0), 0.0);
+    } finally {
+      M.close();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void mappingCOrder() throws IOException {
+    writeNpy("{'descr': '<f8', 'fortran_order': False, 'shape': (2, 2), }", doubles(ByteOrder.LITTLE_ENDIAN, 1, 2, 3, 4));
+    Npy.mapDouble(file.getPath(), false);
+  }
+}
@@ -0,0 +1,92 @@
+package org.jblas;
+
+import org.jblas.util.Parallel;
+import org.junit.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the parallel elementwise operations and reductions.
+ */
+public class TestParallel {
+  private ForkJoinPool oldPool;
+  private int oldThreshold;
+  private boolean oldDeterministic;
+  private DoubleMatrix x, y;
+
+  @Before
+  public void setUp() {
+    oldPool = Parallel.getPool();
+    oldThreshold = Parallel.getThreshold();
+    oldDeterministic = Parallel.isDeterministic();
+
+    x = DoubleMatrix.rand(301, 203);
+    y = DoubleMatrix.rand(301, 203);
+  }
+
+  @After
+  public void tearDown() {
+    Parallel.setPool(oldPool);
+    Parallel.setThreshold(oldThreshold);
+    Parallel.setDeterministic(oldDeterministic);
+  }
+
+  private void parallelOn() {
+    Parallel.setPool(new ForkJoinPool(4));
+    Parallel.setThreshold(1000);
+  }
+
+  @Test
+  public void elementwise() {
+    Parallel.setThreshold(Integer.MAX_VALUE);
+    DoubleMatrix sum = x.add(y), prod = x.mul(y), quot = x.div(y), diff = x.sub(2.0);
+    DoubleMatrix gt = x.gt(y), le = x.le(0.5);
+
+    parallelOn();
+    assertEquals(sum, x.add(y));
+    assertEquals(prod, x.mul(y));
+    assertEquals(quot, x.div(y));
+    assertEquals(diff, x.sub(2.0));
+    assertEquals(gt, x.gt(y));
+    assertEquals(le, x.le(0.5));
+
+    DoubleMatrix z = x.dup();
+    assertSame(z, z.addi(y));
+    assertEquals(sum, z);
+  }
+
+  @Test
+  public void reductions() {
+    Parallel.setThreshold(Integer.MAX_VALUE);
+    DoubleMatrix p = x.mul(1e-3).addi(1.0);
+    double sum = x.sum(), prod = p.prod(), norm1 = x.norm1(), norm2 = x.norm2();
+    DoubleMatrix columnSums = x.columnSums(), rowSums = x.rowSums();
+
+    parallelOn();
+    assertEquals(sum, x.sum(), 1e-8);
+    assertEquals(1.0, p.prod() / prod, 1e-8);
+    assertEquals(norm1, x.norm1(), 1e-8);
+    assertEquals(norm2, x.norm2(), 1e-8);
+    assertEquals(columnSums, x.columnSums());
+    assertEquals(rowSums, x.rowSums());
+  }
+
+  @Test
+  public void deterministic() {
+    Parallel.setDeterministic(true);
+    Parallel.setThreshold(Integer.MAX_VALUE);
+    double sequential = x.sum();
+
+    parallelOn();
+    assertEquals(sequential, x.sum(), 0.0);
+    Parallel.setPool(new ForkJoinPool(3));
+    assertEquals(sequential, x.sum(), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullPool() {
+    Parallel.setPool(null);
+  }
+}
@@ -0,0 +1,101 @@
+package org.jblas;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for RandomizedSVD and PCA.
+ */
+public class TestRandomizedSVD {
+  private DoubleMatrix A;
+
+  @Before
+  public void setUp() {
+    // a 200 x 30 matrix of rank 5
+    A = DoubleMatrix.randn(200, 5).mmul(DoubleMatrix.randn(5, 30));
+  }
+
+  @Test
+  public void lowRank() {
+    DoubleMatrix[] USV = RandomizedSVD.svd(A, 5);
+    assertEquals(200, USV[0].rows);
+    assertEquals(5, USV[0].columns);
+    assertEquals(5, USV[1].length);
+    assertEquals(30, USV[2].rows);
+    assertEquals(5, USV[2].columns);
+
+    DoubleMatrix exact = Singular.SVDValues(A).getRange(0, 5);
+    assertEquals(0.0, USV[1].sub(exact).normmax(), 1e-8 * exact.get(0));
+
+    DoubleMatrix B = USV[0].mulRowVector(USV[1]).mmulTranspose(USV[2]);
+    assertEquals(0.0, B.sub(A).normmax(), 1e-8 * exact.get(0));
+    assertEquals(0.0, USV[2].transposeMmul(USV[2]).sub(DoubleMatrix.eye(5)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void rowBlocks() {
+    DoubleMatrix[] USV = RandomizedSVD.svd(RandomizedSVD.rowBlocks(A, 17), 3,
+        RandomizedSVD.DEFAULT_OVERSAMPLING, RandomizedSVD.DEFAULT_POWER_ITERATIONS);
+    DoubleMatrix exact = Singular.SVDValues(A).getRange(0, 3);
+    assertEquals(200, USV[0].rows);
+    assertEquals(0.0, USV[1].sub(exact).normmax(), 1e-8 * exact.get(0));
+    assertEquals(0.0, USV[0].transposeMmul(USV[0]).sub(DoubleMatrix.eye(3)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void rankDeficient() {
+    // asking for more singular values than the rank of A
+    DoubleMatrix[] USV = RandomizedSVD.svd(A, 8);
+    DoubleMatrix U = USV[0], S = USV[1];
+    assertEquals(0.0, U.isNaN().or(U.isInfinite()).sum(), 0.0);
+    assertEquals(0.0, S.getRange(5, 8).normmax(), 1e-8 * S.get(0));
+    assertEquals(0.0, U.transposeMmul(U).sub(DoubleMatrix.eye(8)).normmax(), 1e-10);
+    assertEquals(0.0, U.mulRowVector(S).mmulTranspose(USV[2]).sub(A).normmax(), 1e-8 * S.get(0));
+
+    // all zero
+    USV = RandomizedSVD.svd(new DoubleMatrix(20, 6), 2);
+    assertEquals(0.0, USV[1].normmax(), 0.0);
+    assertEquals(0.0, USV[0].transposeMmul(USV[0]).sub(DoubleMatrix.eye(2)).normmax(), 1e-10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rankTooLarge() {
+    RandomizedSVD.svd(A, 31);
+  }
+
+  @Test
+  public void pca() {
+    DoubleMatrix X = A.addRowVector(DoubleMatrix.linspace(1, 30, 30).transpose());
+    DoubleMatrix[] fit = PCA.fit(RandomizedSVD.rowBlocks(X, 50), 5);
+    DoubleMatrix mean = fit[0], components = fit[1], variances = fit[2];
+
+    assertEquals(0.0, mean.sub(X.columnMeans()).normmax(), 1e-10);
+    assertEquals(30, components.rows);
+    assertEquals(5, components.columns);
+
+    // the data has rank 5, so the components capture all of the variance
+    DoubleMatrix centered = X.subRowVector(mean);
+    double total = centered.mul(centered).sum() / (X.rows - 1);
+    assertEquals(total, variances.sum(), 1e-8 * total);
+
+    DoubleMatrix Y = PCA.transform(X, mean, components);
+    assertEquals(0.0, PCA.inverseTransform(Y, mean, components).sub(X).normmax(), 1e-8 * X.normmax());
+    for (int i = 0; i < 5; i++) {
+      DoubleMatrix y = Y.getColumn(i);
+      assertEquals(variances.get(i), y.dot(y) / (X.rows - 1), 1e-8 * total);
+    }
+  }
+
+  @Test
+  public void floatMatrix() {
+    FloatMatrix F = FloatMatrix.randn(60, 3).mmul(FloatMatrix.randn(3, 12));
+    FloatMatrix[] USV = RandomizedSVD.svd(F, 3);
+    FloatMatrix B = USV[0].mulRowVector(USV[1]).mmulTranspose(USV[2]);
+    assertEquals(0.0f, B.sub(F).normmax(), 1e-3f * USV[1].get(0));
+
+    FloatMatrix[] fit = PCA.fit(F, 2);
+    assertEquals(12, fit[1].rows);
+    assertEquals(2, fit[2].length);
+  }
+}
@@ -78,4 +78,66 @@ public class TestSingular {
 
     assertEquals(0.0, U.mmul(S).mmul(V.hermitian()).sub(A).normmax(), 1e-4);
   }
+
+
+  @Test
+  public void testDivideAndConquerSVD() {
+    DoubleMatrix A = DoubleMatrix.randn(6, 4);
+
+    DoubleMatrix[] USV = Singular.fullSVDDC(A);
+    assertEquals(6, USV[0].columns);
+    assertEquals(4, USV[2].columns);
+    assertEquals(0.0, USV[0].mmul(DoubleMatrix.diag(USV[1], 6, 4)).mmul(USV[2].transpose()).sub(A).normmax(), 1e-10);
+
+    USV = Singular.sparseSVDDC(A);
+    assertEquals(4, USV[0].columns);
+    assertEquals(0.0, USV[0].mulRowVector(USV[1]).mmul(USV[2].transpose()).sub(A).normmax(), 1e-10);
+
+    assertEquals(0.0, Singular.SVDValues(A).sub(Singular.SVDValuesDC(A)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void testComplexDivideAndConquerSVD() {
+    ComplexDoubleMatrix A = new ComplexDoubleMatrix(DoubleMatrix.randn(3, 4), DoubleMatrix.randn(3, 4));
+
+    ComplexDoubleMatrix[] USV = Singular.sparseSVDDC(A);
+    assertEquals(0.0, USV[0].mmul(ComplexDoubleMatrix.diag(USV[1])).mmul(USV[2].hermitian()).sub(A).normmax(), 1e-10);
+
+    USV = Singular.fullSVDDC(A);
+    assertEquals(0.0, USV[0].mmul(ComplexDoubleMatrix.diag(USV[1], 3, 4)).mmul(USV[2].hermitian()).sub(A).normmax(), 1e-10);
+
+    assertEquals(0.0, Singular.SVDValues(A).sub(Singular.SVDValuesDC(A)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void testPartialSVD() {
+    DoubleMatrix A = DoubleMatrix.randn(10, 6);
+    DoubleMatrix[] full = Singular.sparseSVD(A);
+
+    DoubleMatrix[] USV = Singular.partialSVD(A, 2);
+    assertEquals(10, USV[0].rows);
+    assertEquals(2, USV[0].columns);
+    assertEquals(6, USV[2].rows);
+    assertEquals(2, USV[2].columns);
+    assertEquals(0.0, full[1].getRange(0, 2).sub(USV[1]).normmax(), 1e-10);
+
+    // the rank 2 approximations agree even if the signs of the vectors differ
+    DoubleMatrix expected = full[0].getColumns(new int[]{0, 1}).mulRowVector(full[1].getRange(0, 2)).mmul(full[2].getColumns(new int[]{0, 1}).transpose());
+    assertEquals(0.0, USV[0].mulRowVector(USV[1]).mmul(USV[2].transpose()).sub(expected).normmax(), 1e-10);
+
+    assertEquals(0.0, full[1].getRange(0, 3).sub(Singular.partialSVDValues(A, 3)).normmax(), 1e-10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPartialSVDTooManyValues() {
+    Singular.partialSVD(DoubleMatrix.randn(3, 2), 3);
+  }
+
+  @Test
+  public void testFloatDivideAndConquerSVD() {
+    FloatMatrix A = FloatMatrix.randn(4, 5);
+    FloatMatrix[] USV = Singular.sparseSVDDC(A);
+    assertEquals(0.0f, USV[0].mulRowVector(USV[1]).mmul(USV[2].transpose()).sub(A).normmax(), 1e-4f);
+    assertEquals(0.0f, Singular.SVDValues(A).getRange(0, 2).sub(Singular.partialSVDValues(A, 2)).normmax(), 1e-4f);
+  }
 }
@@ -0,0 +1,139 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.jblas.ranges.IntervalRange;
+import org.jblas.util.Parallel;
+import org.junit.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.jblas.JblasAssert.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for SparseDoubleMatrix.
+ */
+public class TestSparseMatrix {
+  private ForkJoinPool oldPool;
+  private int oldThreshold;
+  private DoubleMatrix dense;
+  private SparseDoubleMatrix A;
+
+  @Before
+  public void setUp() {
+    oldPool = Parallel.getPool();
+    oldThreshold = Parallel.getThreshold();
+
+    // a 300 x 200 matrix with about 5% non-zeros (adding 0.0 turns -0.0 into 0.0)
+    dense = DoubleMatrix.rand(300, 200).lt(0.05).muli(DoubleMatrix.randn(300, 200)).addi(0.0);
+    A = new SparseDoubleMatrix(dense);
+  }
+
+  @After
+  public void tearDown() {
+    Parallel.setPool(oldPool);
+    Parallel.setThreshold(oldThreshold);
+  }
+
+  @Test
+  public void triplets() {
+    // unsorted, with a repeated position
+    SparseDoubleMatrix S = SparseDoubleMatrix.fromTriplets(3, 4,
+        new int[]{2, 0, 1, 0, 2}, new int[]{1, 3, 0, 3, 0}, new double[]{5, 1, 2, 3, 4});
+    assertTrue(S.isCSR());
+    assertEquals(4, S.getNonZeros());
+    assertArrayEquals(new int[]{0, 1, 2, 4}, S.pointers);
+    assertArrayEquals(new int[]{3, 0, 0, 1}, java.util.Arrays.copyOf(S.indices, 4));
+    assertEquals(4.0, S.get(0, 3), 0.0);
+    assertEquals(5.0, S.get(2, 1), 0.0);
+    assertEquals(0.0, S.get(1, 1), 0.0);
+    assertEquals(new DoubleMatrix(new double[][]{{0, 0, 0, 4}, {2, 0, 0, 0}, {4, 5, 0, 0}}), S.toDense());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void tripletOutOfBounds() {
+    SparseDoubleMatrix.fromTriplets(2, 2, new int[]{2}, new int[]{0}, new double[]{1});
+  }
+
+  @Test
+  public void conversions() {
+    assertEquals(dense, A.toDense());
+    SparseDoubleMatrix C = A.toCSC();
+    assertTrue(C.isCSC());
+    assertEquals(A.getNonZeros(), C.getNonZeros());
+    assertEquals(dense, C.toDense());
+    assertEquals(dense, C.toCSR().toDense());
+    assertSame(C, C.toCSC());
+
+    SparseDoubleMatrix T = A.transpose();
+    assertSame(A.data, T.data);
+    assertEquals(dense.transpose(), T.toDense());
+  }
+
+  @Test
+  public void products() {
+    DoubleMatrix B = DoubleMatrix.randn(200, 7);
+    DoubleMatrix x = DoubleMatrix.randn(200);
+    DoubleMatrix y = DoubleMatrix.randn(300, 3);
+    SparseDoubleMatrix C = A.toCSC();
+
+    assertEquals(dense.mmul(B), A.mmul(B), 1e-10);
+    assertEquals(dense.mmul(B), C.mmul(B), 1e-10);
+    assertEquals(dense.mmul(x), A.mmul(x), 1e-10);
+    assertEquals(dense.mmul(x), C.mmul(x), 1e-10);
+    assertEquals(dense.transpose().mmul(y), A.transposeMmul(y), 1e-10);
+    assertEquals(dense.transpose().mmul(y), C.transposeMmul(y), 1e-10);
+    assertEquals(dense.transpose().mmul(y.getColumn(0)), C.transposeMmul(y.getColumn(0)), 1e-10);
+  }
+
+  @Test
+  public void parallelProducts() {
+    DoubleMatrix B = DoubleMatrix.randn(200, 7);
+    DoubleMatrix x = DoubleMatrix.randn(200);
+    DoubleMatrix Ax = dense.mmul(x), AB = dense.mmul(B);
+
+    Parallel.setPool(new ForkJoinPool(4));
+    Parallel.setThreshold(100);
+    assertEquals(AB, A.mmul(B), 1e-10);
+    assertEquals(AB, A.toCSC().mmul(B), 1e-10);
+    assertEquals(Ax, A.mmul(x), 1e-10);
+    assertEquals(Ax, A.toCSC().mmul(x), 1e-10);
+  }
+
+  @Test
+  public void resultIsOperand() {
+    SparseDoubleMatrix S = new SparseDoubleMatrix(dense.getRange(0, 200, 0, 200));
+    DoubleMatrix x = DoubleMatrix.randn(200);
+    DoubleMatrix expected = S.toDense().mmul(x);
+    assertSame(x, S.mmuli(x, x));
+    assertEquals(expected, x, 1e-10);
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongSize() {
+    A.mmul(DoubleMatrix.ones(300));
+  }
+
+  @Test
+  public void slicing() {
+    int[] r = {5, 2, 299, 2};
+    int[] c = {0, 199, 17};
+    assertEquals(dense.getRows(r), A.getRows(r).toDense());
+    assertEquals(dense.getRows(r), A.toCSC().getRows(r).toDense());
+    assertEquals(dense.getColumns(c), A.getColumns(c).toDense());
+    assertEquals(dense.getColumns(c), A.toCSC().getColumns(c).toDense());
+    assertTrue(A.getColumns(c).isCSR());
+    assertEquals(dense.getRange(10, 20, 0, 200), A.getRows(new IntervalRange(10, 20)).toDense());
+    assertEquals(dense.getRange(0, 300, 50, 60), A.getColumns(new IntervalRange(50, 60)).toDense());
+  }
+
+  @Test
+  public void floatMatrix() {
+    FloatMatrix F = new FloatMatrix(new float[][]{{1, 0, 2}, {0, 0, 3}});
+    SparseFloatMatrix S = new SparseFloatMatrix(F);
+    assertEquals(3, S.getNonZeros());
+    FloatMatrix x = new FloatMatrix(3, 1, 1.0f, 2.0f, 3.0f);
+    assertEquals(F.mmul(x), S.mmul(x));
+    assertEquals(F.mmul(x), S.toCSC().mmul(x));
+  }
+}
@@ -0,0 +1,88 @@
+package org.jblas;
+
+import org.jblas.exceptions.SizeException;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the multiplications with transposed operands.
+ */
+public class TestTransposedMmul {
+
+  @Test
+  public void transposeMmul() {
+    DoubleMatrix a = DoubleMatrix.randn(7, 5);
+    DoubleMatrix b = DoubleMatrix.randn(7, 3);
+    DoubleMatrix expected = a.transpose().mmul(b);
+    DoubleMatrix r = a.transposeMmul(b);
+    assertEquals(5, r.rows);
+    assertEquals(3, r.columns);
+    assertEquals(0.0, expected.sub(r).normmax(), 1e-12);
+  }
+
+  @Test
+  public void mmulTranspose() {
+    DoubleMatrix a = DoubleMatrix.randn(40, 70);
+    DoubleMatrix b = DoubleMatrix.randn(50, 70);
+    DoubleMatrix expected = a.mmul(b.transpose());
+    assertEquals(0.0, expected.sub(a.mmulTranspose(b)).normmax(), 1e-10);
+  }
+
+  @Test
+  public void inPlace() {
+    DoubleMatrix a = DoubleMatrix.randn(4, 4);
+    DoubleMatrix b = DoubleMatrix.randn(4, 4);
+    DoubleMatrix expected = a.transpose().mmul(b);
+    assertSame(a, a.transposeMmuli(b, a));
+    assertEquals(0.0, expected.sub(a).normmax(), 1e-12);
+  }
+
+  @Test
+  public void simpleBlasGemm() {
+    DoubleMatrix a = DoubleMatrix.randn(6, 4);
+    DoubleMatrix b = DoubleMatrix.randn(5, 6);
+    DoubleMatrix c = DoubleMatrix.randn(4, 5);
+    DoubleMatrix expected = a.transpose().mmul(b.transpose()).muli(2.0).addi(c);
+    SimpleBlas.gemm('T', 'T', 2.0, a, b, 1.0, c);
+    assertEquals(0.0, expected.sub(c).normmax(), 1e-12);
+  }
+
+  @Test(expected = SizeException.class)
+  public void wrongSize() {
+    DoubleMatrix.randn(3, 4).transposeMmul(DoubleMatrix.randn(4, 3));
+  }
+
+  @Test(expected = SizeException.class)
+  public void simpleBlasGemmWrongInnerSize() {
+    SimpleBlas.gemm('T', 'N', 1.0, DoubleMatrix.randn(6, 4), DoubleMatrix.randn(5, 3), 0.0, new DoubleMatrix(4, 3));
+  }
+
+  @Test(expected = SizeException.class)
+  public void simpleBlasGemmWrongResultSize() {
+    SimpleBlas.gemm('N', 'T', 1.0, DoubleMatrix.randn(6, 4), DoubleMatrix.randn(5, 4), 0.0, new DoubleMatrix(6, 4));
+  }
+
+  @Test(expected = SizeException.class)
+  public void simpleBlasComplexGemmWrongSize() {
+    SimpleBlas.gemm('C', 'N', ComplexDouble.UNIT, new ComplexDoubleMatrix(6, 4), new ComplexDoubleMatrix(5, 3),
+        ComplexDouble.ZERO, new ComplexDoubleMatrix(4, 3));
+  }
+
+  @Test
+  public void floatMatrix() {
+    FloatMatrix a = FloatMatrix.randn(6, 4);
+    FloatMatrix b = FloatMatrix.randn(5, 4);
+    FloatMatrix expected = a.mmul(b.transpose());
+    assertEquals(0.0f, expected.sub(a.mmulTranspose(b)).normmax(), 1e-5f);
+  }
+
+  @Test
+  public void hermitianMmul() {
+    ComplexDoubleMatrix a = new ComplexDoubleMatrix(DoubleMatrix.randn(5, 3), DoubleMatrix.randn(5, 3));
+    ComplexDoubleMatrix b = new ComplexDoubleMatrix(DoubleMatrix.randn(5, 2), DoubleMatrix.randn(5, 2));
+    ComplexDoubleMatrix expected = a.hermitian().mmul(b);
+    ComplexDoubleMatrix r = a.hermitianMmul(b);
+    assertEquals(0.0, expected.sub(r).normmax(), 1e-12);
+  }
+}
@@ -0,0 +1,148 @@
+package org.jblas;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+import static org.jblas.VectorKernels.*;
+
+/**
+ * Test class for VectorKernels. Covers whichever implementation is loaded, so
+ * running it on JDK 17 with --add-modules jdk.incubator.vector tests the Vector
+ * API kernels.
+ */
+public class TestVectorKernels {
+  private static final int N = 101;
+
+  private double[] x, y;
+  private float[] fx, fy;
+
+  @Before
+  public void setUp() {
+    x = new double[N];
+    y = new double[N];
+    fx = new float[N];
+    fy = new float[N];
+    for (int i = 0; i < N; i++) {
+      x[i] = Math.sin(i) * 3;
+      y[i] = i % 7 == 0 ? x[i] : Math.cos(i) * 2;
+      fx[i] = (float) x[i];
+      fy[i] = (float) y[i];
+    }
+  }
+
+  private static double scalar(int op, double a, double b) {
+    switch (op) {
+      case ADD: return a + b;
+      case SUB: return a - b;
+      case RSUB: return b - a;
+      case MUL: return a * b;
+      case DIV: return a / b;
+      case RDIV: return b / a;
+      case MIN: return a > b ? b : a;
+      case MAX: return a < b ? b : a;
+      case LT: return a < b ? 1.0 : 0.0;
+      case GT: return a > b ? 1.0 : 0.0;
+      case LE: return a <= b ? 1.0 : 0.0;
+      case GE: return a >= b ? 1.0 : 0.0;
+      case EQ: return a == b ? 1.0 : 0.0;
+      default: return a != b ? 1.0 : 0.0;
+    }
+  }
+
+  @Test
+  public void binaryOperations() {
+    for (int op = ADD; op <= NE; op++) {
+      // start at an odd offset to get unaligned ranges and a tail
+      double[] r = new double[N];
+      binary(op, x, y, r, 3, N);
+      assertEquals(0.0, r[2], 0.0);
+      for (int i = 3; i < N; i++)
+        assertEquals("op " + op + " at " + i, scalar(op, x[i], y[i]), r[i], 0.0);
+
+      binary(op, x, 0.5, r, 0, N);
+      for (int i = 0; i < N; i++)
+        assertEquals("op " + op + " at " + i, scalar(op, x[i], 0.5), r[i], 0.0);
+
+      float[] fr = new float[N];
+      binary(op, fx, fy, fr, 1, N);
+      for (int i = 1; i < N; i++)
+        assertEquals("op " + op + " at " + i, (float) scalar(op, fx[i], fy[i]), fr[i], 0.0f);
+    }
+  }
+
+  @Test
+  public void nans() {
+    x[10] = Double.NaN;
+    double[] r = new double[N];
+    binary(MIN, x, y, r, 0, N);
+    assertTrue(Double.isNaN(r[10]));
+    binary(MAX, y, x, r, 0, N);
+    assertEquals(y[10], r[10], 0.0);
+    binary(NE, x, x, r, 0, N);
+    assertEquals(1.0, r[10], 0.0);
+    assertEquals(0.0, r[11], 0.0);
+
+    assertEquals(-3.0, reduce(MINIMUM, x, 0, N), 0.1);
+    assertEquals(3.0, reduce(MAXIMUM, x, 0, N), 0.1);
+    assertFalse(Double.isNaN(reduce(MINIMUM, x, 0, N)));
+  }
+
+  @Test
+  public void unaryOperations() {
+    double[] r = new double[N];
+    unary(ABS, x, r, 0, N);
+    for (int i = 0; i < N; i++)
+      assertEquals(Math.abs(x[i]), r[i], 0.0);
+    unary(SQRT, r, r, 0, N);
+    for (int i = 0; i < N; i++)
+      assertEquals(Math.sqrt(Math.abs(x[i])), r[i], 0.0);
+    unary(NEG, x, r, 5, N);
+    for (int i = 5; i < N; i++)
+      assertEquals(-x[i], r[i], 0.0);
+
+    float[] fr = new float[N];
+    unary(ABS, fx, fr, 0, N);
+    for (int i = 0; i < N; i++)
+      assertEquals(Math.abs(fx[i]), fr[i], 0.0f);
+  }
+
+  @Test
+  public void reductions() {
+    double sum = 0.0, squares = 0.0, abs = 0.0, prod = 1.0;
+    double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+    for (int i = 1; i < N; i++) {
+      sum += x[i];
+      squares += x[i] * x[i];
+      abs += Math.abs(x[i]);
+      prod *= 1.0 + x[i] / 100;
+      min = Math.min(min, x[i]);
+      max = Math.max(max, x[i]);
+    }
+    assertEquals(sum, reduce(SUM, x, 1, N), 1e-12);
+    assertEquals(squares, reduce(SUM_SQUARES, x, 1, N), 1e-12);
+    assertEquals(abs, reduce(SUM_ABS, x, 1, N), 1e-12);
+    assertEquals(min, reduce(MINIMUM, x, 1, N), 0.0);
+    assertEquals(max, reduce(MAXIMUM, x, 1, N), 0.0);
+
+    double[] p = new double[N];
+    binary(DIV, x, 100.0, p, 0, N);
+    binary(ADD, p, 1.0, p, 0, N);
+    assertEquals(prod, reduce(PROD, p, 1, N), 1e-12);
+
+    assertEquals((float) sum, reduce(SUM, fx, 1, N), 1e-4f);
+    assertEquals(0.0, reduce(SUM, x, 5, 5), 0.0);
+    assertEquals(Double.POSITIVE_INFINITY, reduce(MINIMUM, x, 5, 5), 0.0);
+  }
+
+  @Test
+  public void matrixOperations() {
+    DoubleMatrix a = new DoubleMatrix(x);
+    DoubleMatrix b = new DoubleMatrix(y);
+    assertEquals(a.get(17) - b.get(17), a.sub(b).get(17), 0.0);
+    assertEquals(Math.min(a.get(17), 0.1), a.min(0.1).get(17), 0.0);
+    assertEquals(a.get(17) > b.get(17) ? 1.0 : 0.0, a.gt(b).get(17), 0.0);
+    assertEquals(Math.abs(a.get(17)), MatrixFunctions.abs(a).get(17), 0.0);
+    assertEquals(-3.0, a.min(), 0.1);
+    assertEquals(-a.get(4), a.neg().get(4), 0.0);
+  }
+}
@@ -0,0 +1,117 @@
+package org.jblas;
+
+import org.jblas.exceptions.LapackArgumentException;
+import org.jblas.util.Workspace;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the workspace cache.
+ */
+public class TestWorkspace {
+  private long oldMaxBytes;
+
+  @Before
+  public void setUp() {
+    oldMaxBytes = Workspace.getMaxBytes();
+    Workspace.clear();
+    Workspace.resetStatistics();
+  }
+
+  @After
+  public void tearDown() {
+    Workspace.setMaxBytes(oldMaxBytes);
+    Workspace.clear();
+  }
+
+  @Test
+  public void exactLength() {
+    assertEquals(17, Workspace.doubles(17).length);
+    assertEquals(5, Workspace.floats(5).length);
+    assertEquals(3, Workspace.ints(3).length);
+
+    Workspace.release(new double[100]);
+    assertEquals(99, Workspace.doubles(99).length);
+  }
+
+  @Test
+  public void hitsAndMisses() {
+    double[] a = Workspace.doubles(10);
+    Workspace.release(a);
+    assertSame(a, Workspace.doubles(10));
+    assertNotSame(a, Workspace.doubles(10));
+    Workspace.release(a);
+    // same length, other type
+    Workspace.floats(10);
+
+    assertEquals(1, Workspace.getHits());
+    assertEquals(3, Workspace.getMisses());
+    assertEquals(0.25, Workspace.getHitRate(), 0.0);
+    assertEquals(80, Workspace.getCachedBytes());
+
+    Workspace.resetStatistics();
+    assertEquals(0, Workspace.getHits());
+    assertEquals(0.0, Workspace.getHitRate(), 0.0);
+  }
+
+  @Test
+  public void releasingTwiceCachesOnce() {
+    int[] a = Workspace.ints(8);
+    Workspace.release(a);
+    Workspace.release(a);
+    assertEquals(32, Workspace.getCachedBytes());
+    assertSame(a, Workspace.ints(8));
+    assertNotSame(a, Workspace.ints(8));
+  }
+
+  @Test
+  public void eviction() {
+    Workspace.setMaxBytes(1000);
+    double[] a = Workspace.doubles(50);
+    double[] b = Workspace.doubles(50);
+    double[] c = Workspace.doubles(50);
+    Workspace.release(a);
+    Workspace.release(b);
+    // a is the least recently released array and has to make room for c
+    Workspace.release(c);
+    assertEquals(1, Workspace.getEvictions());
+    assertEquals(800, Workspace.getCachedBytes());
+    assertSame(c, Workspace.doubles(50));
+    assertSame(b, Workspace.doubles(50));
+    assertNotSame(a, Workspace.doubles(50));
+
+    // too large to be cached at all
+    Workspace.release(new double[200]);
+    assertEquals(0, Workspace.getCachedBytes());
+
+    Workspace.setMaxBytes(0);
+    Workspace.release(a);
+    assertEquals(0, Workspace.getCachedBytes());
+  }
+
+  @Test
+  public void releasedWhenLapackFails() {
+    BlasBackend old = BlasBackends.backend();
+    BlasBackends.setBackend(new NativeBlasBackend() {
+      @Override
+      public int dgesvd(char jobu, char jobvt, int m, int n, double[] a, int aIdx, int lda, double[] s, int sIdx, double[] u, int uIdx, int ldu, double[] vt, int vtIdx, int ldvt) {
+        throw new LapackArgumentException("DGESVD", 4);
+      }
+    });
+    try {
+      Singular.SVDValues(new DoubleMatrix(3, 4));
+      fail("expected LapackArgumentException");
+    } catch (LapackArgumentException e) {
+      // the copy of the input went back to the cache
+      assertEquals(96, Workspace.getCachedBytes());
+    } finally {
+      BlasBackends.setBackend(old);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeMaxBytes() {
+    Workspace.setMaxBytes(-1);
+  }
+}